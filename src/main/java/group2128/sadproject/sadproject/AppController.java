@@ -2,15 +2,31 @@ package group2128.sadproject.sadproject;
 
 import group2128.sadproject.sadproject.commands.*;
 import group2128.sadproject.sadproject.factory.*;
-import group2128.sadproject.sadproject.memento.DrawingCanvasMemento;
+import group2128.sadproject.sadproject.layers.Layer;
+import group2128.sadproject.sadproject.layers.LayerManager;
+import group2128.sadproject.sadproject.layers.ZOrder;
+import group2128.sadproject.sadproject.spatial.SnapEngine;
 import group2128.sadproject.sadproject.strategy.*;
+import group2128.sadproject.sadproject.styles.ShapeStyle;
+import group2128.sadproject.sadproject.styles.StyleManager;
+import group2128.sadproject.sadproject.symbols.Symbol;
+import group2128.sadproject.sadproject.symbols.SymbolInstance;
+import group2128.sadproject.sadproject.symbols.SymbolLibrary;
+import group2128.sadproject.sadproject.view.CanvasViewport;
+import group2128.sadproject.sadproject.view.GridLayer;
+import group2128.sadproject.sadproject.view.Minimap;
+import group2128.sadproject.sadproject.view.SelectionOverlay;
+import javafx.beans.InvalidationListener;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ObjectProperty;
-import javafx.beans.property.SimpleObjectProperty;
 import javafx.event.ActionEvent;
+import javafx.event.Event;
 import javafx.fxml.FXML;
+import javafx.geometry.Bounds;
+import javafx.geometry.Insets;
 import javafx.geometry.Point2D;
+import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.control.Button;
@@ -20,6 +36,9 @@ import javafx.scene.control.TextField;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import javafx.util.converter.NumberStringConverter;
@@ -61,13 +80,19 @@ public class AppController {
 
     private DrawingContext drawingContext;
 
+    /**
+     * Routes the pointer gestures of the drawing pane to the drawing context, the selected shape or the
+     * armed resize or stretch tool.
+     */
+    private GestureDispatcher gestureDispatcher;
+
     private DrawingStrategy drawingStrategy;
 
     private Command command;
 
     private Command copyCommand;
 
-    private SelectableShape copiedShape;
+    private ShapeClipboard clipboard;
 
     private Command pasteCommand;
 
@@ -101,13 +126,18 @@ public class AppController {
     @FXML
     private MenuItem pasteBtn;
 
-    ObjectProperty<SelectableShape> copiedShapeProperty;
     @FXML
     private Button polygonBtn;
     @FXML
+    private Button freehandBtn;
+    @FXML
     private MenuItem foregroundBtn;
     @FXML
     private MenuItem backgroundBtn;
+    @FXML
+    private MenuItem forwardBtn;
+    @FXML
+    private MenuItem backwardBtn;
 
     @FXML
     private Slider zoomSlider;
@@ -116,6 +146,12 @@ public class AppController {
 
     @FXML
     private CheckBox gridCB;
+    @FXML
+    private CheckBox snapCB;
+
+    private SnapEngine snapEngine;
+
+    private GridLayer gridLayer;
 
     private List<Integer> gridBlockSizes;
 
@@ -129,7 +165,81 @@ public class AppController {
     @FXML
     private MenuItem flipVerticalBtn;
     @FXML
+    private MenuItem bakeTransformBtn;
+    @FXML
     private TextField angleTxt;
+    @FXML
+    private StackPane canvasStack;
+    @FXML
+    private CanvasViewport canvasViewport;
+    @FXML
+    private ScrollBar canvasHBar;
+    @FXML
+    private ScrollBar canvasVBar;
+    @FXML
+    private CheckMenuItem minimapBtn;
+
+    private Minimap minimap;
+    @FXML
+    private Menu activeLayerMenu;
+    @FXML
+    private MenuItem deleteLayerBtn;
+    @FXML
+    private MenuItem moveToLayerBtn;
+    @FXML
+    private CheckMenuItem layerVisibleBtn;
+    @FXML
+    private CheckMenuItem layerLockedBtn;
+    @FXML
+    private CheckMenuItem layerFrozenBtn;
+
+    private LayerManager layerManager;
+    @FXML
+    private MenuItem newStyleBtn;
+    @FXML
+    private Menu applyStyleMenu;
+    @FXML
+    private MenuItem detachStyleBtn;
+    @FXML
+    private Menu editStyleMenu;
+
+    private StyleManager styleManager;
+    @FXML
+    private MenuItem newSymbolBtn;
+    @FXML
+    private Menu placeSymbolMenu;
+    @FXML
+    private Menu redefineSymbolMenu;
+
+    private SymbolLibrary symbolLibrary;
+
+    /**
+     * Clears the selection when the active layer stops being editable, so no hidden or locked shape stays selected.
+     */
+    private final InvalidationListener layerStateListener = observable -> {
+        if (!layerManager.getActiveLayer().isEditable()) {
+            drawingContext.clearSelection();
+        }
+    };
+    @FXML
+    private MenuItem selectAllBtn;
+    @FXML
+    private MenuItem groupBtn;
+    @FXML
+    private MenuItem ungroupBtn;
+
+    private SelectionOverlay selectionOverlay;
+
+    /**
+     * Set while the zoom slider follows the camera, so its listener does not zoom again.
+     */
+    private boolean updatingZoomSlider;
+
+    /**
+     * Set when a gesture (a rubber-band selection, a drag, a resize...) has just completed, so the
+     * click event that follows the mouse release does not reset the selection.
+     */
+    private boolean gestureCompleted;
 
 
     /**
@@ -139,10 +249,56 @@ public class AppController {
      */
     @FXML
     private void initialize() {
+        // Look at the drawing pane through the camera of the viewport, following it with the scroll bars
+        canvasViewport.setCanvas(drawingPane);
+        canvasViewport.bindScrollBars(canvasHBar, canvasVBar);
+
         // Initialize the application context
         drawingContext = new DrawingContext(drawingPane);
         drawingStrategy = new IdleStrategy();
         drawingContext.setStrategyMode(drawingStrategy);
+        gestureDispatcher = GestureDispatcher.of(drawingContext);
+
+        // Stack the selection overlay above the drawing pane
+        selectionOverlay = new SelectionOverlay(drawingPane);
+        canvasStack.getChildren().add(selectionOverlay);
+        drawingContext.setSelectionOverlay(selectionOverlay);
+
+        // Show an overview of the whole drawing in the bottom-right corner, toggled from the View menu
+        minimap = new Minimap(canvasViewport);
+        minimap.setId("minimap");
+        minimap.setPrefSize(200, 140);
+        minimap.setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+        StackPane.setAlignment(minimap, Pos.BOTTOM_RIGHT);
+        StackPane.setMargin(minimap, new Insets(10));
+        minimap.visibleProperty().bind(minimapBtn.selectedProperty());
+        canvasStack.getChildren().add(minimap);
+
+        // Assign the shapes to layers, the state of the active layer being edited from the Layers menu
+        layerManager = LayerManager.of(drawingPane);
+        layerManager.activeLayerProperty().addListener((obs, oldLayer, newLayer) -> bindLayerControls(oldLayer, newLayer));
+        bindLayerControls(null, layerManager.getActiveLayer());
+
+        // Give every shape a stacking order key, so reordering and undoing it never touch the other shapes
+        ZOrder.of(drawingPane);
+
+        // Share styles between shapes, edited from the Styles menu
+        styleManager = StyleManager.of(drawingPane);
+
+        // Define symbols once and place them many times, rendered at the resolution of the current zoom
+        symbolLibrary = SymbolLibrary.of(drawingPane);
+
+        // Snap dragged, drawn and resized shapes, showing the guides on the overlay
+        snapEngine = SnapEngine.of(drawingPane);
+        snapEngine.setEnabled(snapCB.isSelected());
+        snapCB.selectedProperty().addListener((obs, oldVal, newVal) -> snapEngine.setEnabled(newVal));
+        snapEngine.setGuideListener(guides -> {
+            if (guides.isEmpty()) {
+                selectionOverlay.clearGuides();
+            } else {
+                selectionOverlay.showGuides(guides);
+            }
+        });
 
         // Ensure the scroll pane is anchored to all sides of the drawing pane
         AnchorPane.setTopAnchor(scrollPane, 0.0);
@@ -186,11 +342,38 @@ public class AppController {
         //BINDINGS BETWEEN THE CommandHistory PARAM AND THE Undo BUTTON
         drawingContext.getDrawingParams().setCommandHistory(new CommandHistory());
         undoBtn.disableProperty().bind(drawingContext.getDrawingParams().getCommandHistory().emptyBinding());
+        clipboard = new ShapeClipboard();
         copyCommand = new CopyCommand();
+        ((CopyCommand) copyCommand).setClipboard(clipboard);
         pasteCommand = new PasteCommand();
 
+        //THE SHAPES HAVE NO MOUSE HANDLERS: EVERY GESTURE GOES THROUGH THE DISPATCHER OF THE PANE
         drawingPane.setOnMousePressed(mouseEvent -> {
             lastClickedPoint = drawingPane.sceneToLocal(mouseEvent.getSceneX(), mouseEvent.getSceneY());
+            gestureCompleted = false;
+            if (mouseEvent.getButton() == MouseButton.PRIMARY) {
+                //PRESSING A SELECTED SHAPE DRAGS IT, PRESSING ON EMPTY CANVAS STARTS A MARQUEE, OR A LASSO WHILE ALT IS HELD
+                if (gestureDispatcher.press(lastClickedPoint.getX(), lastClickedPoint.getY(),
+                        mouseEvent.isShiftDown(), mouseEvent.isAltDown())) {
+                    mouseEvent.consume();
+                }
+            }
+        });
+        drawingPane.setOnMouseDragged(mouseEvent -> {
+            Point2D point = drawingPane.sceneToLocal(mouseEvent.getSceneX(), mouseEvent.getSceneY());
+            if (gestureDispatcher.drag(point.getX(), point.getY())) {
+                //KEEPS THE ScrollPane FROM PANNING WHILE THE GESTURE IS IN PROGRESS
+                mouseEvent.consume();
+            }
+        });
+        drawingPane.setOnMouseMoved(mouseEvent -> {
+            //LETS THE PREVIEW OF A POLYGON OR SEGMENT FOLLOW THE POINTER
+            Point2D point = drawingPane.sceneToLocal(mouseEvent.getSceneX(), mouseEvent.getSceneY());
+            gestureDispatcher.move(point.getX(), point.getY());
+        });
+        drawingPane.setOnMouseReleased(mouseEvent -> {
+            Point2D point = drawingPane.sceneToLocal(mouseEvent.getSceneX(), mouseEvent.getSceneY());
+            gestureCompleted = gestureDispatcher.release(point.getX(), point.getY());
         });
 
         //BINDINGS BETWEEN THE TextField FOR THE TEXT INSERT AND THE textBtn AND THE text PARAM
@@ -228,38 +411,51 @@ public class AppController {
         modelFontSize.set(spinnerValue.get());
 
 
-        //BINDING THE pasteBtn WITH THE copiedShape
-        copiedShapeProperty = new SimpleObjectProperty<>();
-        copiedShapeProperty.set(this.copiedShape);
-        pasteBtn.disableProperty().bind(copiedShapeProperty.isNull());
+        //BINDING THE pasteBtn WITH THE CONTENT OF THE CLIPBOARD
+        clipboard.refresh();
+        pasteBtn.disableProperty().bind(clipboard.emptyProperty());
 
+        //KEEPING THE zoomSlider AND THE zoomLbl IN SYNC WITH THE CAMERA, ALSO ZOOMED BY THE WHEEL AND PINCH
         zoomSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
-            double scale = newVal.doubleValue();
-
-            zoomLbl.setText(String.valueOf((int) scale * 10) + " %");
-
-            drawingPane.setScaleX(scale);
-            drawingPane.setScaleY(scale);
-
+            if (!updatingZoomSlider) {
+                canvasViewport.setZoom(newVal.doubleValue());
+            }
         });
+        canvasViewport.zoomProperty().addListener((obs, oldVal, newVal) -> {
+            updateZoomControls(newVal.doubleValue());
+            symbolLibrary.setZoom(newVal.doubleValue());
+        });
+        updateZoomControls(canvasViewport.getZoom());
 
         //INITIALIZATION OF THE GRID
+        gridLayer = new GridLayer(drawingPane);
+        gridLayer.setId("gridLayer");
+        gridLayer.setVisible(false);
+        AnchorPane.setTopAnchor(gridLayer, 0.0);
+        AnchorPane.setBottomAnchor(gridLayer, 0.0);
+        AnchorPane.setLeftAnchor(gridLayer, 0.0);
+        AnchorPane.setRightAnchor(gridLayer, 0.0);
+        gridPane.getChildren().add(gridLayer);
+
         gridBlockSizes = new ArrayList<>();
         gridBlockSizes.add(5);
         gridBlockSizes.add(10);
         gridBlockSizes.add(20);
         gridBlockSizes.add(50);
         gridBlockSizes.add(100);
+        gridLayer.setSpacing(gridBlockSizes.get(currentGridSizeIndex));
 
         gridCB.selectedProperty().addListener((obs, oldVal, newVal) -> {
-            showHideGrid(null);
+            gridLayer.setVisible(newVal);
+            updateSnapGrid();
         });
 
         gridBlockSizeSlider.disableProperty().bind(gridCB.selectedProperty().not());
 
         gridBlockSizeSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
             currentGridSizeIndex = newVal.intValue();
-            updateGridStyle();
+            gridLayer.setSpacing(gridBlockSizes.get(currentGridSizeIndex));
+            updateSnapGrid();
         });
 
         fontSizeMenu.valueProperty().addListener((obs, oldVal, newVal) -> {
@@ -267,7 +463,7 @@ public class AppController {
                 FontSizeCommand cmd = new FontSizeCommand();
                 cmd.setDrawingCanvas(drawingPane);
                 cmd.saveBackup();
-                cmd.setSelectedShape(drawingContext.getSelectedShape());
+                cmd.setSelectedShapes(drawingContext.getSelectedShapes());
                 cmd.setFontSize(newVal);
                 cmd.execute();
                 drawingContext.getDrawingParams().getCommandHistory().push(cmd);
@@ -396,6 +592,7 @@ public class AppController {
         ellipseBtn.setStyle("-fx-background-color: rgba(245, 245, 245, 0.5);");
         textBtn.setStyle("-fx-background-color: rgba(245, 245, 245, 0.5);");
         polygonBtn.setStyle("-fx-background-color: rgba(245, 245, 245, 0.5);");
+        freehandBtn.setStyle("-fx-background-color: rgba(245, 245, 245, 0.5);");
     }
 
     /**
@@ -410,22 +607,23 @@ public class AppController {
      */
     @FXML
     public void onDrawingPaneClicked(MouseEvent event) {
-        SelectableShape shape = drawingContext.getSelectedShape();
-        if(shape != null) {
-            shape.initDrag();
-        }
         contextMenu.setOpacity(0);
-        if (event.getButton() == MouseButton.PRIMARY) {
+        if (event.getButton() == MouseButton.PRIMARY && gestureCompleted) {
+            gestureCompleted = false;
+        } else if (event.getButton() == MouseButton.PRIMARY) {
 
             if(event.getClickCount() == 2){
                 drawingContext.completeShape();
             }else {
-                drawingContext.handleClick(event.getX(), event.getY());
+                drawingContext.handleClick(event.getX(), event.getY(), event.isShiftDown());
             }
-        }else if(event.getButton() == MouseButton.SECONDARY && drawingContext.getSelectedShape() != null) {
+        }else if(event.getButton() == MouseButton.SECONDARY && !drawingContext.getSelectedShapes().isEmpty()) {
+            //ANOTHER INSTANCE MAY HAVE PUT SHAPES ON THE SYSTEM CLIPBOARD
+            clipboard.refresh();
             contextMenu.setOpacity(1);
             changeVisibilityContextMenu(true);
-        }else if(event.getButton() == MouseButton.SECONDARY && drawingContext.getSelectedShape() == null){
+        }else if(event.getButton() == MouseButton.SECONDARY && drawingContext.getSelectedShapes().isEmpty()){
+            clipboard.refresh();
             contextMenu.setOpacity(1);
             changeVisibilityContextMenu(false);
         }
@@ -448,8 +646,11 @@ public class AppController {
         cutBtn.setVisible(bool);
         foregroundBtn.setVisible(bool);
         backgroundBtn.setVisible(bool);
+        forwardBtn.setVisible(bool);
+        backwardBtn.setVisible(bool);
         flipHorizontalBtn.setVisible(bool);
         flipVerticalBtn.setVisible(bool);
+        bakeTransformBtn.setVisible(bool);
     }
 
     /**
@@ -489,12 +690,11 @@ public class AppController {
     @FXML
     public void onStrokeColorPicker(ActionEvent actionEvent) {
         drawingContext.getDrawingParams().setEdgeColor(strokeColorSelector.getValue());
-        if (drawingContext.getSelectedShape() != null) {
-            SelectableShape shape = drawingContext.getSelectedShape();
+        if (!drawingContext.getSelectedShapes().isEmpty()) {
             command = new ChangeEdgeColorCommand();
             command.setDrawingCanvas(this.drawingPane);
             command.saveBackup();
-            ((ChangeEdgeColorCommand) command).setSelectedShape(shape);
+            ((ChangeEdgeColorCommand) command).setSelectedShapes(drawingContext.getSelectedShapes());
             ((ChangeEdgeColorCommand) command).setSelectedColor(strokeColorSelector.getValue());
             command.execute();
             drawingContext.getDrawingParams().getCommandHistory().push(command);
@@ -542,6 +742,103 @@ public class AppController {
         loadCommand.execute();
     }
 
+    /**
+     * Handles the "Export PNG" action.
+     * <p>
+     * Opens a dialog choosing the exported part of the drawing (the whole drawing, the selection or the
+     * visible area) and the resolution of the image, then runs an {@link ExportPngCommand}, which asks
+     * for the destination file and writes the image in the background.
+     * </p>
+     *
+     * @param actionEvent the event triggered by the menu item
+     */
+    @FXML
+    public void onExportPngAction(ActionEvent actionEvent) {
+        ChoiceBox<ExportPngCommand.Scope> scopeBox = new ChoiceBox<>();
+        scopeBox.getItems().setAll(ExportPngCommand.Scope.values());
+        scopeBox.setValue(drawingContext.getSelectedShapes().isEmpty()
+                ? ExportPngCommand.Scope.DRAWING : ExportPngCommand.Scope.SELECTION);
+        TextField dpiField = new TextField("300");
+        dpiField.setPrefColumnCount(6);
+        CheckBox transparentBox = new CheckBox("Transparent background");
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(5);
+        grid.addRow(0, new Label("Region"), scopeBox);
+        grid.addRow(1, new Label("Resolution (DPI)"), dpiField);
+        grid.add(transparentBox, 1, 2);
+
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Export PNG");
+        dialog.getDialogPane().setContent(grid);
+        dialog.getDialogPane().getButtonTypes().setAll(ButtonType.OK, ButtonType.CANCEL);
+        boolean confirmed = dialog.showAndWait().filter(button -> button == ButtonType.OK).isPresent();
+        if (!confirmed) {
+            return;
+        }
+        double dpi;
+        try {
+            dpi = Double.parseDouble(dpiField.getText().trim());
+        } catch (NumberFormatException e) {
+            return;
+        }
+        if (!(dpi > 0)) {
+            return;
+        }
+
+        ExportPngCommand exportCommand = new ExportPngCommand();
+        exportCommand.setDrawingCanvas(drawingPane);
+        exportCommand.setStage((Stage) drawingPane.getScene().getWindow());
+        exportCommand.setSelectedShapes(drawingContext.getSelectedShapes());
+        exportCommand.setViewBounds(canvasViewport.getFrustum());
+        exportCommand.setScope(scopeBox.getValue());
+        exportCommand.setDpi(dpi);
+        exportCommand.setBackground(transparentBox.isSelected() ? null : Color.WHITE);
+        exportCommand.execute();
+    }
+
+    /**
+     * Handles the "Export SVG" action.
+     * <p>
+     * Runs an {@link ExportSvgCommand}, which asks for the destination file and writes the selected
+     * shapes, or the whole drawing when nothing is selected, as an SVG document.
+     * </p>
+     *
+     * @param actionEvent the event triggered by the menu item
+     */
+    @FXML
+    public void onExportSvgAction(ActionEvent actionEvent) {
+        ExportSvgCommand exportCommand = new ExportSvgCommand();
+        exportCommand.setDrawingCanvas(drawingPane);
+        exportCommand.setStage((Stage) drawingPane.getScene().getWindow());
+        exportCommand.setSelectedShapes(drawingContext.getSelectedShapes());
+        exportCommand.execute();
+    }
+
+    /**
+     * Handles the "Import SVG" action.
+     * <p>
+     * Runs an {@link ImportSvgCommand}, which asks for an SVG document and adds its shapes on top of the
+     * drawing while it is read in the background. The import is undone as a single step.
+     * </p>
+     *
+     * @param actionEvent the event triggered by the menu item
+     */
+    @FXML
+    public void onImportSvgAction(ActionEvent actionEvent) {
+        ImportSvgCommand importCommand = new ImportSvgCommand();
+        importCommand.setDrawingCanvas(drawingPane);
+        importCommand.setStage((Stage) drawingPane.getScene().getWindow());
+        importCommand.setCommandHistory(drawingContext.getDrawingParams().getCommandHistory());
+        importCommand.saveBackup();
+        importCommand.execute();
+        if (importCommand.getResult() != null) {
+            command = importCommand;
+            drawingContext.getDrawingParams().getCommandHistory().push(command);
+        }
+    }
+
     /**
      * Handles the action event triggered when the user selects a new fill color
      * from the {@code ColorPicker} UI component.
@@ -554,12 +851,11 @@ public class AppController {
     @FXML
     public void onFillColorPicker(ActionEvent actionEvent) {
         drawingContext.getDrawingParams().setFillColor(fillColorSelector.getValue());
-        if (drawingContext.getSelectedShape() != null) {
-            SelectableShape shape = drawingContext.getSelectedShape();
+        if (!drawingContext.getSelectedShapes().isEmpty()) {
             command = new ChangeFillColorCommand();
             command.setDrawingCanvas(this.drawingPane);
             command.saveBackup();
-            ((ChangeFillColorCommand) command).setSelectedShape(shape);
+            ((ChangeFillColorCommand) command).setSelectedShapes(drawingContext.getSelectedShapes());
             ((ChangeFillColorCommand) command).setSelectedColor(fillColorSelector.getValue());
             command.execute();
             drawingContext.getDrawingParams().getCommandHistory().push(command);
@@ -643,10 +939,268 @@ public class AppController {
         command = new DeleteCommand();
         command.setDrawingCanvas(drawingPane);
         command.saveBackup();
-        ((DeleteCommand) command).setSelectedShape(drawingContext.getSelectedShape());
+        ((DeleteCommand) command).setSelectedShapes(drawingContext.getSelectedShapes());
+        drawingContext.clearSelection();
         command.execute();
         drawingContext.getDrawingParams().getCommandHistory().push(command);
-        drawingContext.setSelectedShape(null);
+    }
+
+    /**
+     * Handles the "Select all" action.
+     * <p>
+     * Adds every shape of the drawing pane to the current selection, so that the following
+     * commands (color changes, deletion, flips, rotation, ordering) apply to all of them at once.
+     *
+     * @param actionEvent the event triggered by the menu item or its keyboard shortcut
+     */
+    @FXML
+    public void onSelectAllAction(ActionEvent actionEvent) {
+        drawingContext.selectAll();
+    }
+
+    /**
+     * Handles the "Group" action.
+     * <p>
+     * Groups the selected shapes into a single {@link GroupShape}, which then becomes the selection.
+     * The command is pushed onto the command history only when at least two shapes were grouped.
+     *
+     * @param actionEvent the event triggered by the menu item or its keyboard shortcut
+     */
+    @FXML
+    public void onGroupAction(ActionEvent actionEvent) {
+        GroupCommand groupCommand = new GroupCommand();
+        groupCommand.setDrawingCanvas(drawingPane);
+        groupCommand.setCommandHistory(drawingContext.getDrawingParams().getCommandHistory());
+        groupCommand.setSelectedShapes(drawingContext.getSelectedShapes());
+        if (groupCommand.getSelectedShapes().size() < 2) {
+            return;
+        }
+        groupCommand.saveBackup();
+        drawingContext.clearSelection();
+        groupCommand.execute();
+        if (groupCommand.getGroup() != null) {
+            command = groupCommand;
+            drawingContext.getDrawingParams().getCommandHistory().push(command);
+            drawingContext.setSelectedShape(groupCommand.getGroup());
+        }
+    }
+
+    /**
+     * Handles the "Ungroup" action.
+     * <p>
+     * Splits every selected {@link GroupShape} back into its members, which then become the selection.
+     *
+     * @param actionEvent the event triggered by the menu item or its keyboard shortcut
+     */
+    @FXML
+    public void onUngroupAction(ActionEvent actionEvent) {
+        UngroupCommand ungroupCommand = new UngroupCommand();
+        ungroupCommand.setDrawingCanvas(drawingPane);
+        ungroupCommand.setSelectedShapes(drawingContext.getSelectedShapes());
+        if (ungroupCommand.getSelectedShapes().stream().noneMatch(shape -> shape instanceof GroupShape)) {
+            return;
+        }
+        ungroupCommand.saveBackup();
+        drawingContext.clearSelection();
+        ungroupCommand.execute();
+        command = ungroupCommand;
+        drawingContext.getDrawingParams().getCommandHistory().push(command);
+        drawingContext.setSelectedShapes(ungroupCommand.getUngroupedShapes());
+    }
+
+    /**
+     * Handles the "Replicate" action.
+     * <p>
+     * Asks for the layout of the copies, then replaces the selected shapes with an {@link ArrayShape}
+     * of copies of them, which becomes the selection. The spacing of a linear or grid array is the gap
+     * left between the bounds of two consecutive copies; the spacing of a radial array is the distance
+     * between the center of the selection and the center of rotation. The whole array is created as a
+     * single entry in the command history.
+     *
+     * @param actionEvent the event triggered by the menu item or its keyboard shortcut
+     */
+    @FXML
+    public void onReplicateAction(ActionEvent actionEvent) {
+        List<SelectableShape> selected = new ArrayList<>(drawingContext.getSelectedShapes());
+        if (selected.isEmpty()) {
+            return;
+        }
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (SelectableShape shape : selected) {
+            Bounds bounds = ((Node) shape).getBoundsInParent();
+            minX = Math.min(minX, bounds.getMinX());
+            minY = Math.min(minY, bounds.getMinY());
+            maxX = Math.max(maxX, bounds.getMaxX());
+            maxY = Math.max(maxY, bounds.getMaxY());
+        }
+        ArrayPattern pattern = askArrayPattern(maxX - minX, maxY - minY, (minX + maxX) / 2, (minY + maxY) / 2);
+        if (pattern == null) {
+            return;
+        }
+
+        ReplicateCommand replicateCommand = new ReplicateCommand();
+        replicateCommand.setDrawingCanvas(drawingPane);
+        replicateCommand.setCommandHistory(drawingContext.getDrawingParams().getCommandHistory());
+        replicateCommand.setSelectedShapes(selected);
+        replicateCommand.setPattern(pattern);
+        replicateCommand.saveBackup();
+        drawingContext.clearSelection();
+        replicateCommand.execute();
+        if (replicateCommand.getArray() != null) {
+            command = replicateCommand;
+            drawingContext.getDrawingParams().getCommandHistory().push(command);
+            drawingContext.setSelectedShape(replicateCommand.getArray());
+        }
+    }
+
+    /**
+     * Shows a dialog asking for the layout of an array of copies.
+     *
+     * @param width   the width of the shapes to replicate
+     * @param height  the height of the shapes to replicate
+     * @param centerX the X coordinate of the center of the shapes to replicate
+     * @param centerY the Y coordinate of the center of the shapes to replicate
+     * @return the pattern chosen by the user, or {@code null} if the dialog was cancelled
+     */
+    private ArrayPattern askArrayPattern(double width, double height, double centerX, double centerY) {
+        ChoiceBox<ArrayPattern.Kind> kindBox = new ChoiceBox<>();
+        kindBox.getItems().setAll(ArrayPattern.Kind.values());
+        kindBox.setValue(ArrayPattern.Kind.GRID);
+        Spinner<Integer> columnsSpinner = new Spinner<>(1, 500, 5);
+        Spinner<Integer> rowsSpinner = new Spinner<>(1, 500, 5);
+        Spinner<Double> spacingSpinner = new Spinner<>(0.0, 10000.0, 10.0, 5.0);
+        columnsSpinner.setEditable(true);
+        rowsSpinner.setEditable(true);
+        spacingSpinner.setEditable(true);
+        rowsSpinner.disableProperty().bind(kindBox.valueProperty().isNotEqualTo(ArrayPattern.Kind.GRID));
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.addRow(0, new Label("Layout"), kindBox);
+        grid.addRow(1, new Label("Copies / columns"), columnsSpinner);
+        grid.addRow(2, new Label("Rows"), rowsSpinner);
+        grid.addRow(3, new Label("Spacing / radius"), spacingSpinner);
+
+        Dialog<ArrayPattern> dialog = new Dialog<>();
+        dialog.setTitle("Replicate");
+        dialog.getDialogPane().setContent(grid);
+        dialog.getDialogPane().getButtonTypes().setAll(ButtonType.OK, ButtonType.CANCEL);
+        dialog.setResultConverter(button -> {
+            if (button != ButtonType.OK) {
+                return null;
+            }
+            int count = columnsSpinner.getValue();
+            double spacing = spacingSpinner.getValue();
+            switch (kindBox.getValue()) {
+                case LINEAR:
+                    return ArrayPattern.linear(count, width + spacing, 0);
+                case RADIAL:
+                    return ArrayPattern.radial(count, centerX - spacing, centerY, 360.0 / count);
+                default:
+                    return ArrayPattern.grid(count, rowsSpinner.getValue(), width + spacing, height + spacing);
+            }
+        });
+        return dialog.showAndWait().orElse(null);
+    }
+
+    /**
+     * Handles the "Explode array or symbol" action.
+     * <p>
+     * Turns every selected {@link ArrayShape} and {@link SymbolInstance} into standalone shapes, which
+     * then become the selection.
+     *
+     * @param actionEvent the event triggered by the menu item or its keyboard shortcut
+     */
+    @FXML
+    public void onExplodeAction(ActionEvent actionEvent) {
+        ExplodeCommand explodeCommand = new ExplodeCommand();
+        explodeCommand.setDrawingCanvas(drawingPane);
+        explodeCommand.setCommandHistory(drawingContext.getDrawingParams().getCommandHistory());
+        explodeCommand.setSelectedShapes(drawingContext.getSelectedShapes());
+        if (explodeCommand.getSelectedShapes().stream()
+                .noneMatch(shape -> shape instanceof ArrayShape || shape instanceof SymbolInstance)) {
+            return;
+        }
+        explodeCommand.saveBackup();
+        drawingContext.clearSelection();
+        explodeCommand.execute();
+        command = explodeCommand;
+        drawingContext.getDrawingParams().getCommandHistory().push(command);
+        drawingContext.setSelectedShapes(explodeCommand.getExplodedShapes());
+    }
+
+    /**
+     * Handles the "Simplify polygons" action.
+     * <p>
+     * Opens a dialog choosing the algorithm and the tolerance. The selected polygons are previewed live on
+     * the canvas while the tolerance is changed, with the vertex count before and after. Confirming the
+     * dialog simplifies them as a single undoable step; cancelling it gives them back their vertices.
+     * </p>
+     *
+     * @param actionEvent the event triggered by the menu item
+     */
+    @FXML
+    public void onSimplifyAction(ActionEvent actionEvent) {
+        List<SelectableShape> selected = new ArrayList<>(drawingContext.getSelectedShapes());
+        List<PolygonShape> polygons = SimplifyPolygonCommand.findPolygons(selected);
+        if (polygons.isEmpty()) {
+            return;
+        }
+        List<double[]> original = SimplifyPolygonCommand.getCoordinates(polygons);
+        int before = SimplifyPolygonCommand.countVertices(original);
+
+        ChoiceBox<PolygonSimplifier.Method> methodBox = new ChoiceBox<>();
+        methodBox.getItems().setAll(PolygonSimplifier.Method.values());
+        methodBox.setValue(PolygonSimplifier.Method.DOUGLAS_PEUCKER);
+        Slider toleranceSlider = new Slider(0, 20, 1);
+        toleranceSlider.setShowTickMarks(true);
+        toleranceSlider.setMajorTickUnit(5);
+        Label toleranceLabel = new Label();
+        Label countLabel = new Label();
+
+        Runnable preview = () -> {
+            List<double[]> simplified = SimplifyPolygonCommand.simplify(original, methodBox.getValue(), toleranceSlider.getValue());
+            for (int i = 0; i < polygons.size(); i++) {
+                SimplifyPolygonCommand.setCoordinates(polygons.get(i), simplified.get(i));
+            }
+            toleranceLabel.setText(String.format("%.1f", toleranceSlider.getValue()));
+            countLabel.setText(before + " \u2192 " + SimplifyPolygonCommand.countVertices(simplified) + " vertices");
+        };
+        methodBox.valueProperty().addListener(observable -> preview.run());
+        toleranceSlider.valueProperty().addListener(observable -> preview.run());
+        preview.run();
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(5);
+        grid.addRow(0, new Label("Method"), methodBox);
+        grid.addRow(1, new Label("Tolerance"), toleranceSlider, toleranceLabel);
+        grid.add(countLabel, 1, 2);
+
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Simplify polygons");
+        dialog.getDialogPane().setContent(grid);
+        dialog.getDialogPane().getButtonTypes().setAll(ButtonType.OK, ButtonType.CANCEL);
+        boolean confirmed = dialog.showAndWait().filter(button -> button == ButtonType.OK).isPresent();
+
+        // the preview is reverted, so the snapshot taken by the command holds the original vertices
+        for (int i = 0; i < polygons.size(); i++) {
+            SimplifyPolygonCommand.setCoordinates(polygons.get(i), original.get(i));
+        }
+        if (!confirmed) {
+            return;
+        }
+        SimplifyPolygonCommand simplifyCommand = new SimplifyPolygonCommand();
+        simplifyCommand.setDrawingCanvas(drawingPane);
+        simplifyCommand.setSelectedShapes(selected);
+        simplifyCommand.setMethod(methodBox.getValue());
+        simplifyCommand.setTolerance(toleranceSlider.getValue());
+        simplifyCommand.saveBackup();
+        simplifyCommand.execute();
+        command = simplifyCommand;
+        drawingContext.getDrawingParams().getCommandHistory().push(command);
     }
 
     /**
@@ -661,47 +1215,19 @@ public class AppController {
     @FXML
     public void onUndoButton(ActionEvent actionEvent) {
         Command previousCommand = drawingContext.getDrawingParams().getCommandHistory().pop();
+        drawingContext.clearSelection();
         previousCommand.undo();
-        DrawingCanvasMemento backup = previousCommand.getDrawingCanvasMemento();
-        AnchorPane previousCanvas = backup.getDrawingCanvas();
-        List<Node> nodesCopy = new ArrayList<>(previousCanvas.getChildren());
-        addInteractionListener(nodesCopy);
-    }
-
-    /**
-     * Adds an interaction listener to a list of {@link Node} elements that are expected to be instances of {@link SelectableShape}.
-     * <p>
-     * For each shape, a listener is added to its {@code interactionProperty}. When this property becomes {@code true},
-     * an {@link InteractionCommand} is executed on a cloned version of the drawing pane.
-     * The command is then pushed to the command history for undo/redo support.
-     * After execution, the {@code interactionProperty} is reset to {@code false} to avoid repeated triggering.
-     * </p>
-     *
-     * @param nodes a list of {@link Node} objects that represent selectable shapes in the drawing pane
-     * @throws ClassCastException if any of the nodes is not an instance of {@link SelectableShape}
-     */
-    private void addInteractionListener(List<Node> nodes) {
-        for (Node node : nodes) {
-            SelectableShape shape = (SelectableShape) node;
-            shape.interactionPropertyProperty().addListener((observable, oldValue, newValue) -> {
-                if (newValue) {
-                    InteractionCommand intCommand = new InteractionCommand();
-                    intCommand.setDrawingCanvas(drawingPane);
-                    intCommand.saveBackup();
-                    intCommand.execute();
-                    drawingContext.getDrawingParams().getCommandHistory().push(intCommand);
-                    shape.setInteractionProperty(false);
-                }
-            });
-        }
+        // the restored shapes are copies, whose interactions are recorded by the listener of the canvas
+        InteractionCommand.track(drawingPane, drawingContext.getDrawingParams().getCommandHistory());
     }
 
     /**
      * Handles the action triggered when the "Copy" button is pressed.
      * <p>
-     * This method creates a new {@link CopyCommand}, assigns the current drawing canvas
-     * and the selected shape from the {@code drawingContext}, and then executes the command.
-     * The command is responsible for copying the selected shape.
+     * This method assigns the current drawing canvas and every selected shape from the
+     * {@code drawingContext} to the {@link CopyCommand}, and then executes the command.
+     * The command serializes the selected shapes into the clipboard, which also publishes
+     * them on the system clipboard.
      * </p>
      *
      * @param actionEvent the event triggered by pressing the copy button
@@ -709,15 +1235,13 @@ public class AppController {
     @FXML
     public void onCopyButtonAction(ActionEvent actionEvent) {
         copyCommand.setDrawingCanvas(drawingPane);
-        ((CopyCommand) copyCommand).setSelectedShape(drawingContext.getSelectedShape());
-        copiedShapeProperty.set(drawingContext.getSelectedShape());
+        ((CopyCommand) copyCommand).setSelectedShapes(drawingContext.getSelectedShapes());
         copyCommand.execute();
-        this.copiedShape = ((CopyCommand) copyCommand).getCopiedShape();
     }
 
     /**
      * Handles the "Cut" action triggered by the user.
-     * This method copies the currently selected shape and then deletes it.
+     * This method copies the currently selected shapes and then deletes them.
      * It is functionally equivalent to calling {@code onCopyButtonAction} followed by {@code onDeleteButtonAction}.
      *
      * @param actionEvent the event triggered by clicking the "Cut" button or menu item
@@ -741,48 +1265,42 @@ public class AppController {
     /**
      * Handles the action triggered when the paste button is clicked.
      * <p>
-     * If a shape has been previously copied (i.e., {@code copiedShape} is not null),
-     * this method creates a new {@link PasteCommand}, clones the current drawing pane,
-     * sets the necessary context for the command (including the copied shape and
-     * paste coordinates), and executes the paste operation at the location of the
-     * last mouse click.
+     * If the clipboard holds any shape, this method executes the {@link PasteCommand} at the
+     * location of the last mouse click: all the copied shapes are rebuilt and added to the canvas
+     * in one batch, keeping their relative positions, and become the new selection.
      * <p>
-     * The command is also pushed onto the command history stack to support undo/redo functionality.
+     * A single backup is saved before the paste and the command is pushed once onto the
+     * command history stack, so the whole paste is undone in one step.
      *
      * @param actionEvent the event object representing the user's action
      */
     @FXML
     public void onPasteButtonAction(ActionEvent actionEvent) {
-        if(this.copiedShape != null){
-            //CREATING THE PARAMS FOR THE PASTE
+        if (!clipboard.isEmpty()) {
             DrawingParams params = new DrawingParams();
             params.setCommandHistory(drawingContext.getDrawingParams().getCommandHistory());
-            params.setWidthValueProperty(this.copiedShape.getDimensionX());
-            params.setHeightValueProperty(this.copiedShape.getDimensionY());
-            params.setEdgeColor(this.copiedShape.getEdgeColor());
-            params.setFillColor(this.copiedShape.getFillColor());
             params.setDrawingCanvas(drawingPane);
-            params.setScaleX(((Node)this.copiedShape).getScaleX());
-            params.setScaleY(((Node)this.copiedShape).getScaleY());
-            params.setRotationValueProperty(this.copiedShape.getRotation());
-
-            if (this.copiedShape instanceof TextShape) {
-                params.setText(((TextShape) this.copiedShape).getText());
-                params.setFontSize(((TextShape) this.copiedShape).getFontSize());
-            }
 
             //EXECUTING THE PASTE
-            pasteCommand.setDrawingCanvas(drawingPane);
-            ((PasteCommand) pasteCommand).setDrawingParams(params);
-            ((PasteCommand) pasteCommand).setPasteX(lastClickedPoint.getX());
-            ((PasteCommand) pasteCommand).setPasteY(lastClickedPoint.getY());
-            ((PasteCommand) pasteCommand).setShape(this.copiedShape);
-            pasteCommand.execute();
+            PasteCommand paste = (PasteCommand) pasteCommand;
+            paste.setDrawingCanvas(drawingPane);
+            paste.setDrawingParams(params);
+            paste.setPasteX(lastClickedPoint.getX());
+            paste.setPasteY(lastClickedPoint.getY());
+            paste.setShape(null);
+            paste.setClipboard(clipboard);
+            paste.saveBackup();
+            paste.execute();
+            if (!paste.getPastedShapes().isEmpty()) {
+                params.getCommandHistory().push(paste);
+                drawingContext.setSelectedShapes(paste.getPastedShapes());
+            }
+            pasteCommand = new PasteCommand();
         }
     }
 
     /**
-     * Returns the currently copied shape, if any.
+     * Returns a copy of the first shape most recently copied, if any.
      * <p>
      * This shape may be used for paste operations or duplication within the drawing canvas.
      * </p>
@@ -790,7 +1308,7 @@ public class AppController {
      * @return the {@link SelectableShape} that was most recently copied, or {@code null} if none
      */
     public SelectableShape getCopiedShape() {
-        return copiedShape;
+        return ((CopyCommand) copyCommand).getCopiedShape();
     }
 
     /**
@@ -817,77 +1335,454 @@ public class AppController {
         drawingContext.setStrategyMode(drawingStrategy);
     }
 
+    /**
+     * Handles the selection of the "Freehand" drawing tool.
+     * <p>
+     * Toggles between {@link FreehandDrawingStrategy} and {@link IdleStrategy}. While the tool is
+     * active, dragging on the canvas draws a stroke.
+     * </p>
+     *
+     * @param actionEvent the event triggered by clicking the freehand tool button
+     */
+    @FXML
+    public void onFreehandButtonAction(ActionEvent actionEvent) {
+        resetSelectorsStyle();
+        drawingStrategy.onExit(drawingContext.getDrawingParams());
+        if (drawingStrategy.getClass().equals(FreehandDrawingStrategy.class)) {
+            drawingStrategy = new IdleStrategy();
+        } else {
+            freehandBtn.setStyle("-fx-background-color: rgba(153, 203, 255, 0.5);");
+            drawingStrategy = new FreehandDrawingStrategy();
+        }
+        drawingContext.setStrategyMode(drawingStrategy);
+    }
+
     /**
      * Handles the action triggered when the "Send to Background" button is clicked.
      * <p>
-     * This method creates and configures a {@link BackgroundCommand} that moves the selected shape
-     * to the back of the drawing canvas. It first clones the current drawing pane for history tracking,
-     * sets the selected shape in the command, and pushes the command onto the command history stack
-     * for undo/redo functionality. Finally, it applies the command to the actual drawing pane.
+     * This method creates and configures a {@link BackgroundCommand} that moves the selected shapes
+     * to the back of the drawing canvas, and pushes it onto the command history stack for undo.
+     * The command records the stacking order keys it changes, so no snapshot of the canvas is taken.
      *
      * @param actionEvent the event triggered by the button click
      */
     @FXML
     public void onBackgroundButtonAction(ActionEvent actionEvent) {
-        command = new BackgroundCommand();
-        command.setDrawingCanvas(drawingPane);
-        command.saveBackup();
-        ((BackgroundCommand)command).setSelectedShape(drawingContext.getSelectedShape());
-        command.execute();
-        drawingContext.getDrawingParams().getCommandHistory().push(command);
+        executeReorder(new BackgroundCommand());
     }
 
     /**
      * Handles the action triggered when the "Bring to Foreground" button is clicked.
      * <p>
-     * This method creates and configures a {@link ForegroundCommand} that brings the selected shape
-     * to the front of the drawing canvas. It clones the current drawing pane for history tracking,
-     * sets the selected shape in the command, and stores the command in the command history stack.
-     * Then it executes the command on the actual drawing pane.
+     * This method creates and configures a {@link ForegroundCommand} that brings the selected shapes
+     * to the front of the drawing canvas, and pushes it onto the command history stack for undo.
+     * The command records the stacking order keys it changes, so no snapshot of the canvas is taken.
      *
      * @param actionEvent the event triggered by the button click
      */
     @FXML
     public void onForegroundButtonAction(ActionEvent actionEvent) {
-        command = new ForegroundCommand();
-        command.setDrawingCanvas(drawingPane);
-        command.saveBackup();
-        ((ForegroundCommand)command).setSelectedShape(drawingContext.getSelectedShape());
-        command.execute();
-        drawingContext.getDrawingParams().getCommandHistory().push(command);
+        executeReorder(new ForegroundCommand());
     }
 
     /**
-     * Toggles the visibility of the background grid on the grid pane.
-     * <p>
-     * If a grid-related CSS class (e.g., "grid-10") is currently applied to the pane,
-     * the method will remove it to hide the grid. If no such class is present,
-     * the method will reapply the CSS class corresponding to the currently selected grid size,
-     * thus making the grid visible again.
+     * Handles the action triggered when the "Bring forward" button is clicked, moving the selected
+     * shapes one step up in the stacking order.
      *
-     * @param actionEvent the event that triggered the grid visibility toggle (e.g., button click)
+     * @param actionEvent the event triggered by the button click
      */
-    private void showHideGrid(ActionEvent actionEvent) {
-        boolean isGridVisible = gridPane.getStyleClass().stream()
-                .anyMatch(c -> c.startsWith("grid-"));
+    @FXML
+    public void onBringForwardAction(ActionEvent actionEvent) {
+        executeReorder(new BringForwardCommand());
+    }
 
-        if (isGridVisible) {
-            gridPane.getStyleClass().removeIf(c -> c.startsWith("grid-"));
-        } else {
-            updateGridStyle();
+    /**
+     * Handles the action triggered when the "Send backward" button is clicked, moving the selected
+     * shapes one step down in the stacking order.
+     *
+     * @param actionEvent the event triggered by the button click
+     */
+    @FXML
+    public void onSendBackwardAction(ActionEvent actionEvent) {
+        executeReorder(new SendBackwardCommand());
+    }
+
+    /**
+     * Applies a stacking order change to the selected shapes and records it in the history if it
+     * moved any shape. The selection is shown again afterwards, since the moved shapes are taken out
+     * of the canvas and put back at their new positions.
+     *
+     * @param reorderCommand the command to execute
+     */
+    private void executeReorder(ReorderCommand reorderCommand) {
+        List<SelectableShape> selected = new ArrayList<>(drawingContext.getSelectedShapes());
+        reorderCommand.setDrawingCanvas(drawingPane);
+        reorderCommand.setSelectedShapes(selected);
+        reorderCommand.execute();
+        if (!reorderCommand.getMoves().isEmpty()) {
+            command = reorderCommand;
+            drawingContext.getDrawingParams().getCommandHistory().push(reorderCommand);
         }
+        drawingContext.setSelectedShapes(selected);
     }
 
     /**
-     * Applies the appropriate CSS style class to the grid pane based on the current grid size.
+     * Shows the zoom factor of the camera on the zoom slider and label.
      * <p>
-     * First removes any existing "grid-*" classes, then adds the one that corresponds
-     * to the currently selected grid size, such as "grid-10" or "grid-50".
+     * The label shows the rounded percentage; the slider is clamped to its range when the camera
+     * is zoomed beyond it with the wheel or a pinch.
+     * </p>
+     *
+     * @param zoom the zoom factor of the camera
+     */
+    private void updateZoomControls(double zoom) {
+        zoomLbl.setText(Math.round(zoom * 100) + " %");
+        updatingZoomSlider = true;
+        try {
+            zoomSlider.setValue(zoom);
+        } finally {
+            updatingZoomSlider = false;
+        }
+    }
+
+    /**
+     * Asks the user for a custom grid spacing and applies it to the grid layer.
+     * <p>
+     * The spacing is given in drawing units at 100% zoom. The grid is shown if it was hidden,
+     * so the new spacing is visible.
+     * </p>
+     *
+     * @param actionEvent the event triggered by the menu item
+     */
+    @FXML
+    public void onGridSpacingAction(ActionEvent actionEvent) {
+        Spinner<Double> spacingSpinner = new Spinner<>(1.0, 1000.0, gridLayer.getSpacing(), 1.0);
+        spacingSpinner.setEditable(true);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.addRow(0, new Label("Spacing"), spacingSpinner);
+
+        Dialog<Double> dialog = new Dialog<>();
+        dialog.setTitle("Grid spacing");
+        dialog.getDialogPane().setContent(grid);
+        dialog.getDialogPane().getButtonTypes().setAll(ButtonType.OK, ButtonType.CANCEL);
+        dialog.setResultConverter(button -> button == ButtonType.OK ? spacingSpinner.getValue() : null);
+        dialog.showAndWait().ifPresent(spacing -> {
+            gridLayer.setSpacing(spacing);
+            gridCB.setSelected(true);
+            updateSnapGrid();
+        });
+    }
+
+    /**
+     * Binds the state toggles of the Layers menu to the active layer.
+     *
+     * @param oldLayer the previously active layer, or {@code null}
+     * @param newLayer the active layer
+     */
+    private void bindLayerControls(Layer oldLayer, Layer newLayer) {
+        if (oldLayer != null) {
+            layerVisibleBtn.selectedProperty().unbindBidirectional(oldLayer.visibleProperty());
+            layerLockedBtn.selectedProperty().unbindBidirectional(oldLayer.lockedProperty());
+            layerFrozenBtn.selectedProperty().unbindBidirectional(oldLayer.frozenProperty());
+            oldLayer.visibleProperty().removeListener(layerStateListener);
+            oldLayer.lockedProperty().removeListener(layerStateListener);
+            oldLayer.frozenProperty().removeListener(layerStateListener);
+        }
+        if (newLayer != null) {
+            layerVisibleBtn.selectedProperty().bindBidirectional(newLayer.visibleProperty());
+            layerLockedBtn.selectedProperty().bindBidirectional(newLayer.lockedProperty());
+            layerFrozenBtn.selectedProperty().bindBidirectional(newLayer.frozenProperty());
+            newLayer.visibleProperty().addListener(layerStateListener);
+            newLayer.lockedProperty().addListener(layerStateListener);
+            newLayer.frozenProperty().addListener(layerStateListener);
+        }
+    }
+
+    /**
+     * Refreshes the Layers menu before it is shown: lists the layers, top first, in the "Active layer"
+     * submenu, and enables the items that apply.
+     *
+     * @param event the showing event of the menu
+     */
+    @FXML
+    public void onLayersMenuShowing(Event event) {
+        ToggleGroup group = new ToggleGroup();
+        List<MenuItem> items = new ArrayList<>();
+        List<Layer> layers = layerManager.getLayers();
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            Layer layer = layers.get(i);
+            RadioMenuItem item = new RadioMenuItem(layer.getName());
+            item.setToggleGroup(group);
+            item.setSelected(layer == layerManager.getActiveLayer());
+            item.setOnAction(e -> layerManager.setActiveLayer(layer));
+            items.add(item);
+        }
+        activeLayerMenu.getItems().setAll(items);
+        deleteLayerBtn.setDisable(layers.size() < 2);
+        moveToLayerBtn.setDisable(drawingContext.getSelectedShapes().isEmpty() || !layerManager.getActiveLayer().isEditable());
+    }
+
+    /**
+     * Adds a layer on top of the others, named by the user, and makes it active.
+     *
+     * @param actionEvent the event triggered by the menu item
+     */
+    @FXML
+    public void onNewLayerAction(ActionEvent actionEvent) {
+        TextInputDialog dialog = new TextInputDialog("Layer " + (layerManager.getLayers().size() + 1));
+        dialog.setTitle("New layer");
+        dialog.setHeaderText(null);
+        dialog.setContentText("Name");
+        dialog.showAndWait().ifPresent(name -> layerManager.setActiveLayer(layerManager.addLayer(name)));
+    }
+
+    /**
+     * Asks the user for a new name for the active layer.
+     *
+     * @param actionEvent the event triggered by the menu item
+     */
+    @FXML
+    public void onRenameLayerAction(ActionEvent actionEvent) {
+        Layer layer = layerManager.getActiveLayer();
+        TextInputDialog dialog = new TextInputDialog(layer.getName());
+        dialog.setTitle("Rename layer");
+        dialog.setHeaderText(null);
+        dialog.setContentText("Name");
+        dialog.showAndWait().ifPresent(layer::setName);
+    }
+
+    /**
+     * Deletes the active layer, moving its shapes to the layer below it.
+     *
+     * @param actionEvent the event triggered by the menu item
+     */
+    @FXML
+    public void onDeleteLayerAction(ActionEvent actionEvent) {
+        if (layerManager.getLayers().size() > 1) {
+            layerManager.removeLayer(layerManager.getActiveLayer());
+        }
+    }
+
+    /**
+     * Moves the selected shapes to the active layer, as an undoable interaction.
+     *
+     * @param actionEvent the event triggered by the menu item
      */
-    private void updateGridStyle() {
-        gridPane.getStyleClass().removeIf(c -> c.startsWith("grid-"));
-        String newStyleClass = "grid-" + gridBlockSizes.get(currentGridSizeIndex);
-        gridPane.getStyleClass().add(newStyleClass);
+    @FXML
+    public void onMoveToLayerAction(ActionEvent actionEvent) {
+        List<SelectableShape> selected = new ArrayList<>(drawingContext.getSelectedShapes());
+        if (selected.isEmpty()) {
+            return;
+        }
+        InteractionCommand moveCommand = new InteractionCommand();
+        moveCommand.setDrawingCanvas(drawingPane);
+        moveCommand.saveBackup();
+        moveCommand.execute();
+        drawingContext.getDrawingParams().getCommandHistory().push(moveCommand);
+        layerManager.assign(selected, layerManager.getActiveLayer());
+    }
+
+    /**
+     * Refreshes the Symbols menu before it is shown: lists the symbols in the "Place symbol" and
+     * "Redefine symbol" submenus, and enables the items that apply to the selection.
+     *
+     * @param event the showing event of the menu
+     */
+    @FXML
+    public void onSymbolsMenuShowing(Event event) {
+        boolean noSelection = drawingContext.getSelectedShapes().isEmpty();
+        List<MenuItem> placeItems = new ArrayList<>();
+        List<MenuItem> redefineItems = new ArrayList<>();
+        for (Symbol symbol : symbolLibrary.getSymbols()) {
+            MenuItem placeItem = new MenuItem(symbol.getName());
+            placeItem.setOnAction(e -> placeSymbol(symbol));
+            placeItems.add(placeItem);
+            MenuItem redefineItem = new MenuItem(symbol.getName());
+            redefineItem.setOnAction(e -> executeDefineSymbol(new DefineSymbolCommand(symbol)));
+            redefineItems.add(redefineItem);
+        }
+        placeSymbolMenu.getItems().setAll(placeItems);
+        redefineSymbolMenu.getItems().setAll(redefineItems);
+        placeSymbolMenu.setDisable(placeItems.isEmpty());
+        redefineSymbolMenu.setDisable(noSelection || redefineItems.isEmpty());
+        newSymbolBtn.setDisable(noSelection);
+    }
+
+    /**
+     * Turns the selected shapes into a new symbol, named by the user, and replaces them by an instance of it.
+     *
+     * @param actionEvent the event triggered by the menu item
+     */
+    @FXML
+    public void onNewSymbolAction(ActionEvent actionEvent) {
+        if (drawingContext.getSelectedShapes().isEmpty()) {
+            return;
+        }
+        TextInputDialog dialog = new TextInputDialog("Symbol " + (symbolLibrary.getSymbols().size() + 1));
+        dialog.setTitle("New symbol");
+        dialog.setHeaderText(null);
+        dialog.setContentText("Name");
+        dialog.showAndWait().ifPresent(name -> executeDefineSymbol(new DefineSymbolCommand(name)));
+    }
+
+    /**
+     * Defines or redefines a symbol from the selected shapes, which are replaced by an instance of it
+     * that becomes the selection.
+     *
+     * @param defineCommand the command to execute
+     */
+    private void executeDefineSymbol(DefineSymbolCommand defineCommand) {
+        defineCommand.setDrawingCanvas(drawingPane);
+        defineCommand.setCommandHistory(drawingContext.getDrawingParams().getCommandHistory());
+        defineCommand.setSelectedShapes(drawingContext.getSelectedShapes());
+        if (defineCommand.getSelectedShapes().isEmpty()) {
+            return;
+        }
+        defineCommand.saveBackup();
+        drawingContext.clearSelection();
+        defineCommand.execute();
+        command = defineCommand;
+        drawingContext.getDrawingParams().getCommandHistory().push(command);
+        drawingContext.setSelectedShape(defineCommand.getInstance());
+    }
+
+    /**
+     * Places a new instance of a symbol at the center of the visible part of the canvas, and selects it.
+     *
+     * @param symbol the symbol to place
+     */
+    private void placeSymbol(Symbol symbol) {
+        Bounds visible = canvasViewport.getFrustum();
+        PlaceSymbolCommand placeCommand = new PlaceSymbolCommand(symbol, visible.getCenterX(), visible.getCenterY());
+        placeCommand.setDrawingCanvas(drawingPane);
+        placeCommand.setCommandHistory(drawingContext.getDrawingParams().getCommandHistory());
+        placeCommand.saveBackup();
+        placeCommand.execute();
+        command = placeCommand;
+        drawingContext.getDrawingParams().getCommandHistory().push(command);
+        drawingContext.setSelectedShape(placeCommand.getInstance());
+    }
+
+    /**
+     * Refreshes the Styles menu before it is shown: lists the styles in the "Apply style" and
+     * "Edit style" submenus, and enables the items that apply to the selection.
+     *
+     * @param event the showing event of the menu
+     */
+    @FXML
+    public void onStylesMenuShowing(Event event) {
+        boolean noSelection = drawingContext.getSelectedShapes().isEmpty();
+        List<MenuItem> applyItems = new ArrayList<>();
+        List<MenuItem> editItems = new ArrayList<>();
+        for (ShapeStyle style : styleManager.getStyles()) {
+            MenuItem applyItem = new MenuItem(style.getName());
+            applyItem.setOnAction(e -> executeApplyStyle(style));
+            applyItems.add(applyItem);
+            MenuItem editItem = new MenuItem(style.getName() + "...");
+            editItem.setOnAction(e -> editStyle(style));
+            editItems.add(editItem);
+        }
+        applyStyleMenu.getItems().setAll(applyItems);
+        editStyleMenu.getItems().setAll(editItems);
+        applyStyleMenu.setDisable(noSelection || applyItems.isEmpty());
+        editStyleMenu.setDisable(editItems.isEmpty());
+        newStyleBtn.setDisable(noSelection);
+        detachStyleBtn.setDisable(noSelection);
+    }
+
+    /**
+     * Creates a style, named by the user, from the colors and stroke width of the selected shape, and
+     * applies it to the selected shapes.
+     *
+     * @param actionEvent the event triggered by the menu item
+     */
+    @FXML
+    public void onNewStyleAction(ActionEvent actionEvent) {
+        SelectableShape shape = drawingContext.getSelectedShape();
+        if (shape == null) {
+            return;
+        }
+        TextInputDialog dialog = new TextInputDialog("Style " + (styleManager.getStyles().size() + 1));
+        dialog.setTitle("New style");
+        dialog.setHeaderText(null);
+        dialog.setContentText("Name");
+        dialog.showAndWait().ifPresent(name -> {
+            Color fill = shape.getFillColor() != null ? shape.getFillColor() : fillColorSelector.getValue();
+            double width = shape instanceof javafx.scene.shape.Shape && !(shape instanceof TextShape)
+                    ? ((javafx.scene.shape.Shape) shape).getStrokeWidth() : ShapeStyle.DEFAULT_STROKE_WIDTH;
+            executeApplyStyle(styleManager.addStyle(name, fill, shape.getEdgeColor(), width));
+        });
+    }
+
+    /**
+     * Detaches the selected shapes from their style, keeping their current look.
+     *
+     * @param actionEvent the event triggered by the menu item
+     */
+    @FXML
+    public void onDetachStyleAction(ActionEvent actionEvent) {
+        executeApplyStyle(null);
+    }
+
+    /**
+     * Applies a style to the selected shapes, or detaches them from their style, as an undoable command.
+     *
+     * @param style the style to apply, or {@code null} to detach the shapes
+     */
+    private void executeApplyStyle(ShapeStyle style) {
+        List<SelectableShape> selected = new ArrayList<>(drawingContext.getSelectedShapes());
+        if (selected.isEmpty()) {
+            return;
+        }
+        ApplyStyleCommand applyCommand = new ApplyStyleCommand(style);
+        applyCommand.setDrawingCanvas(drawingPane);
+        applyCommand.saveBackup();
+        applyCommand.setSelectedShapes(selected);
+        applyCommand.execute();
+        command = applyCommand;
+        drawingContext.getDrawingParams().getCommandHistory().push(applyCommand);
+    }
+
+    /**
+     * Asks the user for new values of a style and applies them to every shape using it, as a single
+     * undoable change.
+     *
+     * @param style the style to edit
+     */
+    private void editStyle(ShapeStyle style) {
+        ColorPicker fillPicker = new ColorPicker(style.getFill());
+        ColorPicker strokePicker = new ColorPicker(style.getStroke());
+        Spinner<Double> widthSpinner = new Spinner<>(0.0, 100.0, style.getStrokeWidth(), 0.5);
+        widthSpinner.setEditable(true);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(5);
+        grid.addRow(0, new Label("Fill"), fillPicker);
+        grid.addRow(1, new Label("Stroke"), strokePicker);
+        grid.addRow(2, new Label("Stroke width"), widthSpinner);
+
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Edit style " + style.getName());
+        dialog.getDialogPane().setContent(grid);
+        dialog.getDialogPane().getButtonTypes().setAll(ButtonType.OK, ButtonType.CANCEL);
+        dialog.showAndWait().filter(button -> button == ButtonType.OK).ifPresent(button -> {
+            ChangeStyleCommand changeCommand = new ChangeStyleCommand(style,
+                    fillPicker.getValue(), strokePicker.getValue(), widthSpinner.getValue());
+            changeCommand.setDrawingCanvas(drawingPane);
+            changeCommand.execute();
+            command = changeCommand;
+            drawingContext.getDrawingParams().getCommandHistory().push(changeCommand);
+        });
+    }
+
+    /**
+     * Makes the snap engine snap to the grid while it is visible, using the current grid size.
+     */
+    private void updateSnapGrid() {
+        snapEngine.setGridSize(gridCB.isSelected() ? gridLayer.getSpacing() : 0);
     }
 
 
@@ -963,7 +1858,7 @@ public class AppController {
         command = new FlipHorizontalCommand();
         command.setDrawingCanvas(drawingPane);
         command.saveBackup();
-        ((FlipHorizontalCommand) command).setSelectedShape(drawingContext.getSelectedShape());
+        ((FlipHorizontalCommand) command).setSelectedShapes(drawingContext.getSelectedShapes());
         command.execute();
         drawingContext.getDrawingParams().getCommandHistory().push(command);
     }
@@ -982,7 +1877,26 @@ public class AppController {
         command = new FlipVerticalCommand();
         command.setDrawingCanvas(drawingPane);
         command.saveBackup();
-        ((FlipVerticalCommand) command).setSelectedShape(drawingContext.getSelectedShape());
+        ((FlipVerticalCommand) command).setSelectedShapes(drawingContext.getSelectedShapes());
+        command.execute();
+        drawingContext.getDrawingParams().getCommandHistory().push(command);
+    }
+
+    /**
+     * Handles the action when the Bake transform button is pressed.
+     * <p>
+     * This method saves the current state of the drawing pane to enable undo functionality,
+     * then applies the rotation and flip of the selected shapes to their geometry.
+     * </p>
+     *
+     * @param actionEvent the event triggered by pressing the Bake transform button
+     */
+    @FXML
+    public void onBakeTransformButtonAction(ActionEvent actionEvent) {
+        command = new BakeTransformCommand();
+        command.setDrawingCanvas(drawingPane);
+        command.saveBackup();
+        ((BakeTransformCommand) command).setSelectedShapes(drawingContext.getSelectedShapes());
         command.execute();
         drawingContext.getDrawingParams().getCommandHistory().push(command);
     }
@@ -1002,12 +1916,12 @@ public class AppController {
     @FXML
     public void onAngleAction(ActionEvent actionEvent) {
 
-        if (drawingContext.getSelectedShape() != null && !angleTxt.getText().isEmpty()) {
+        if (!drawingContext.getSelectedShapes().isEmpty() && !angleTxt.getText().isEmpty()) {
             double angle = Double.parseDouble(angleTxt.getText());
             command = new RotateCommand();
             command.setDrawingCanvas(drawingPane);
             command.saveBackup();
-            ((RotateCommand)command).setSelectedShape(drawingContext.getSelectedShape());
+            ((RotateCommand)command).setSelectedShapes(drawingContext.getSelectedShapes());
             ((RotateCommand)command).setAngle(angle);
             command.execute();
             drawingContext.getDrawingParams().getCommandHistory().push(command);
@@ -0,0 +1,49 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.styles.ShapeStyle;
+import group2128.sadproject.sadproject.styles.StyleManager;
+
+/**
+ * A command that makes the selected shapes use a shared style, or detaches them from their style.
+ * <p>
+ * The shapes take the values of the style and follow its later changes. The command is undone
+ * using the memento saved by {@link #saveBackup()}.
+ * </p>
+ */
+public class ApplyStyleCommand extends SelectionCommand {
+
+    /**
+     * The style to apply, or {@code null} to detach the shapes from their style.
+     */
+    private final ShapeStyle style;
+
+    /**
+     * Constructs a command applying a style to the selected shapes.
+     *
+     * @param style a style of the canvas of the command, or {@code null} to detach the shapes
+     */
+    public ApplyStyleCommand(ShapeStyle style) {
+        this.style = style;
+    }
+
+    /**
+     * Executes the command, applying the style to every selected shape.
+     */
+    @Override
+    public void execute() {
+        if (getDrawingCanvas() == null) {
+            return;
+        }
+        StyleManager.of(getDrawingCanvas()).assign(getSelectedShapes(), style);
+    }
+
+    /**
+     * Undoes the command, restoring the canvas from the saved memento.
+     */
+    @Override
+    public void undo() {
+        if (getDrawingCanvasMemento() != null) {
+            getDrawingCanvasMemento().restore();
+        }
+    }
+}
@@ -1,55 +1,28 @@
 package group2128.sadproject.sadproject.commands;
 
-import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.layers.ZOrder;
 import javafx.scene.Node;
 
+import java.util.List;
+
 /**
- * A command that sends the selected shape to the back of the drawing canvas.
+ * A command that sends the selected shapes to the back of the drawing canvas.
  * <p>
- * This class extends the abstract {@link Command} class and overrides the
- * {@link #execute()} method to move the selected shape to the back using JavaFX's
- * {@code toBack()} method.
+ * This class extends the abstract {@link ReorderCommand} class to move the selected shapes
+ * to the back, keeping their relative stacking order.
  * </p>
  */
-public class BackgroundCommand extends Command {
-
-    private SelectableShape selectedShape;
+public class BackgroundCommand extends ReorderCommand {
 
     /**
-     * Executes the command to send the selected shape to the back of the canvas.
+     * Sends the selected shapes to the back of the canvas.
      * <p>
-     * This operation changes the rendering order of the node, placing it behind all other nodes
+     * This operation changes the rendering order of the nodes, placing them behind all other nodes
      * in the same parent container.
      * </p>
      */
     @Override
-    public void execute() {
-        ((Node) selectedShape).toBack();
-    }
-
-    /**
-     * Undoes the previously executed command.
-     * <p>
-     * Subclasses must implement this method to restore the previous state of the canvas,
-     * typically using the stored memento.
-     * </p>
-     */
-    @Override
-    public void undo() {
-        if (getDrawingCanvasMemento() != null) {
-            getDrawingCanvasMemento().restore();
-        }
-    }
-
-    /**
-     * Sets the shape that this command will operate on.
-     *
-     * @param selectedShape the shape to be sent to the back
-     */
-    public void setSelectedShape(SelectableShape selectedShape) {
-        this.selectedShape = selectedShape;
+    protected List<ZOrder.Move> reorder(ZOrder zOrder, List<Node> shapes) {
+        return zOrder.sendToBack(shapes);
     }
-
-
-
 }
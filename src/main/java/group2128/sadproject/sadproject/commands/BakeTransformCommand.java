@@ -0,0 +1,56 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.SelectableShape;
+
+/**
+ * A command that bakes the rotation and the flip of the selected shapes into their geometry.
+ * <p>
+ * Every selected shape is drawn at the same place afterwards, but with the transform applied to its
+ * vertices, end points or bounds instead of held by its rotation and scale, as described by
+ * {@link SelectableShape#bakeTransform()}. Shapes that cannot absorb their transform, such as a text or a
+ * rectangle rotated by an arbitrary angle, are left unchanged.
+ * </p>
+ */
+public class BakeTransformCommand extends SelectionCommand {
+
+    /**
+     * The number of shapes that kept a rotation or a flip in the last execution.
+     */
+    private int unbakedCount;
+
+    /**
+     * Executes the command, baking the transform of every selected shape.
+     */
+    @Override
+    public void execute() {
+        unbakedCount = 0;
+        for (SelectableShape shape : getSelectedShapes()) {
+            if (!shape.bakeTransform()) {
+                unbakedCount++;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of selected shapes that kept a rotation or a flip in the last execution.
+     *
+     * @return the number of shapes that could not be fully baked
+     */
+    public int getUnbakedCount() {
+        return unbakedCount;
+    }
+
+    /**
+     * Undoes the bake.
+     * <p>
+     * If a memento of the drawing canvas is available, this method restores
+     * the canvas to its state before the command was executed.
+     * </p>
+     */
+    @Override
+    public void undo() {
+        if (getDrawingCanvasMemento() != null) {
+            getDrawingCanvasMemento().restore();
+        }
+    }
+}
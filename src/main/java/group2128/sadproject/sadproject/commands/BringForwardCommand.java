@@ -0,0 +1,24 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.layers.ZOrder;
+import javafx.scene.Node;
+
+import java.util.List;
+
+/**
+ * A command that brings the selected shapes one step forward on the drawing canvas.
+ * <p>
+ * Each selected shape is moved just above the next unselected shape drawn over it, if any. The
+ * selected shapes keep their relative stacking order.
+ * </p>
+ */
+public class BringForwardCommand extends ReorderCommand {
+
+    /**
+     * Brings the selected shapes one step forward.
+     */
+    @Override
+    protected List<ZOrder.Move> reorder(ZOrder zOrder, List<Node> shapes) {
+        return zOrder.bringForward(shapes);
+    }
+}
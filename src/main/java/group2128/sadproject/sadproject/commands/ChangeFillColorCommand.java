@@ -1,10 +1,11 @@
 package group2128.sadproject.sadproject.commands;
 
 import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.styles.StyleManager;
 import javafx.scene.paint.Color;
 
 /**
- * A command that changes the fill color of a selected shape on the canvas.
+ * A command that changes the fill color of the selected shapes on the canvas.
  *
  * <p>This command follows the Command pattern, allowing the fill color of a shape
  * to be changed and subsequently undone using a memento-based restore mechanism.</p>
@@ -12,20 +13,25 @@ import javafx.scene.paint.Color;
  * @see Command
  * @see SelectableShape
  */
-public class ChangeFillColorCommand extends Command {
+public class ChangeFillColorCommand extends SelectionCommand {
 
-    private SelectableShape shape;
     private Color selectedColor;
 
     /**
-     * Executes the command to change the fill color of the selected shape.
+     * Executes the command to change the fill color of every selected shape.
      *
      * <p>This operation updates the shape's fill color to the value provided via
      * {@link #setSelectedColor(Color)}.</p>
+     *
+     * <p>The shapes using a shared style are detached from it, since their own color no longer
+     * follows the style.</p>
      */
     @Override
     public void execute() {
-        shape.setFillColor(this.selectedColor);
+        StyleManager.detachAll(getSelectedShapes());
+        for (SelectableShape shape : getSelectedShapes()) {
+            shape.setFillColor(this.selectedColor);
+        }
     }
 
     /**
@@ -41,17 +47,9 @@ public class ChangeFillColorCommand extends Command {
         }
     }
 
-    /**
-     * Sets the shape whose fill color will be changed by this command.
-     *
-     * @param shape the {@link SelectableShape} to be modified
-     */
-    public void setSelectedShape(SelectableShape shape) {
-        this.shape = shape;
-    }
 
     /**
-     * Sets the new fill color to apply to the selected shape.
+     * Sets the new fill color to apply to the selected shapes.
      *
      * @param selectedColor the {@link Color} to be applied as the shape's fill color
      */
@@ -0,0 +1,91 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.styles.ShapeStyle;
+import group2128.sadproject.sadproject.styles.StyleManager;
+import javafx.scene.paint.Color;
+
+/**
+ * A command that changes the values of a shared style, restyling every shape using it.
+ * <p>
+ * The {@link StyleManager} of the canvas restyles the dependent shapes in a single pass, so the
+ * change is one entry in the command history however many shapes use the style. The command
+ * remembers the previous values of the style and is undone by setting them back: no snapshot of the
+ * canvas is needed, and {@link #saveBackup()} does not have to be called before executing it.
+ * </p>
+ */
+public class ChangeStyleCommand extends Command {
+
+    /**
+     * The style to change.
+     */
+    private final ShapeStyle style;
+
+    /**
+     * The new fill color.
+     */
+    private final Color fill;
+
+    /**
+     * The new stroke color.
+     */
+    private final Color stroke;
+
+    /**
+     * The new stroke width.
+     */
+    private final double strokeWidth;
+
+    /**
+     * The fill color of the style before the last execution.
+     */
+    private Color oldFill;
+
+    /**
+     * The stroke color of the style before the last execution.
+     */
+    private Color oldStroke;
+
+    /**
+     * The stroke width of the style before the last execution.
+     */
+    private double oldStrokeWidth;
+
+    /**
+     * Constructs a command giving new values to a style.
+     *
+     * @param style       a style of the canvas of the command
+     * @param fill        the new fill color
+     * @param stroke      the new stroke color
+     * @param strokeWidth the new stroke width
+     */
+    public ChangeStyleCommand(ShapeStyle style, Color fill, Color stroke, double strokeWidth) {
+        this.style = style;
+        this.fill = fill;
+        this.stroke = stroke;
+        this.strokeWidth = strokeWidth;
+    }
+
+    /**
+     * Executes the command, changing the style and every shape using it.
+     */
+    @Override
+    public void execute() {
+        if (getDrawingCanvas() == null) {
+            return;
+        }
+        oldFill = style.getFill();
+        oldStroke = style.getStroke();
+        oldStrokeWidth = style.getStrokeWidth();
+        StyleManager.of(getDrawingCanvas()).update(style, fill, stroke, strokeWidth);
+    }
+
+    /**
+     * Undoes the command by giving the style, and the shapes using it, their previous values.
+     */
+    @Override
+    public void undo() {
+        if (getDrawingCanvas() != null && oldFill != null) {
+            StyleManager.of(getDrawingCanvas()).update(style, oldFill, oldStroke, oldStrokeWidth);
+        }
+    }
+}
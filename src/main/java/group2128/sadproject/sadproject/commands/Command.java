@@ -1,6 +1,9 @@
 package group2128.sadproject.sadproject.commands;
 
 import group2128.sadproject.sadproject.memento.DrawingCanvasMemento;
+import group2128.sadproject.sadproject.spatial.SnapEngine;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
 import javafx.scene.layout.AnchorPane;
 
 /**
@@ -81,5 +84,21 @@ public abstract class Command {
         drawingCanvasMemento = new DrawingCanvasMemento(drawingCanvas);
     }
 
+    /**
+     * Returns the position of the pointer in the coordinates of the canvas holding a shape,
+     * snapped by the {@link SnapEngine} of the canvas, if any.
+     * <p>
+     * Resize and stretch tools use this method so the dragged edge or corner snaps to the grid and
+     * to the edges of the other shapes, ignoring the edges of the shape being resized.
+     * </p>
+     *
+     * @param shape the shape being resized
+     * @param x     the x-coordinate of the pointer, in the coordinates of the shape's parent
+     * @param y     the y-coordinate of the pointer, in the coordinates of the shape's parent
+     * @return the snapped pointer position in the coordinates of the shape's parent
+     */
+    protected static Point2D pointerPosition(Node shape, double x, double y) {
+        SnapEngine engine = SnapEngine.find(shape.getParent());
+        return engine == null ? new Point2D(x, y) : engine.snapPoint(x, y, shape);
+    }
 }
-
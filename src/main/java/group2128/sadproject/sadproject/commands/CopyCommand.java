@@ -2,26 +2,39 @@ package group2128.sadproject.sadproject.commands;
 
 import group2128.sadproject.sadproject.factory.SelectableShape;
 
+import java.util.List;
+
 /**
- * Command to create a copy of a selected shape.
+ * Command to copy the selected shapes.
  * <p>
- * This command stores a reference to the shape to be copied and,
- * upon execution, generates a new copy of that shape.
+ * Upon execution, every selected shape is serialized into a {@link ShapeClipboard}, in selection
+ * order. No JavaFX node is created while copying: the shapes are only rebuilt when they are pasted,
+ * or when {@link #getCopiedShape()} is first called.
+ * </p>
  */
-public class CopyCommand extends Command {
+public class CopyCommand extends SelectionCommand {
+
+    /** The clipboard the shapes are copied to. */
+    private ShapeClipboard clipboard = new ShapeClipboard(false);
 
-    /** The shape that will be copied and the result of the copy operation. */
+    /** The first copied shape, rebuilt on demand from the clipboard. */
     private SelectableShape copiedShape;
 
     /**
      * Executes the copy operation.
      * <p>
-     * Creates a new copy of the selected shape by invoking its {@code getCopy} method.
-     * The copied shape is stored internally and can be retrieved using {@link #getCopiedShape()}.
+     * Serializes the selected shapes into the clipboard, replacing its previous content.
+     * Nothing happens if no shape is selected.
+     * </p>
      */
     @Override
     public void execute() {
-        this.copiedShape = copiedShape.getCopy();
+        List<SelectableShape> shapes = getSelectedShapes();
+        if (shapes.isEmpty()) {
+            return;
+        }
+        clipboard.copy(shapes);
+        copiedShape = null;
     }
 
     /**
@@ -37,22 +50,38 @@ public class CopyCommand extends Command {
         }
     }
 
+    /**
+     * Sets the clipboard the shapes are copied to.
+     *
+     * @param clipboard the clipboard to use
+     */
+    public void setClipboard(ShapeClipboard clipboard) {
+        this.clipboard = clipboard;
+    }
 
     /**
-     * Sets the shape to be copied.
+     * Returns the clipboard the shapes are copied to.
      *
-     * @param copiedShape the shape currently selected and to be copied
+     * @return the clipboard in use
      */
-    public void setSelectedShape(SelectableShape copiedShape) {
-        this.copiedShape = copiedShape;
+    public ShapeClipboard getClipboard() {
+        return clipboard;
     }
 
     /**
-     * Returns the copied shape after the command has been executed.
+     * Returns a copy of the first shape copied by the last execution.
+     * <p>
+     * The shape is rebuilt from the clipboard the first time this method is called after an
+     * execution, and the same instance is returned afterwards.
+     * </p>
      *
-     * @return the copied shape instance
+     * @return the copied shape instance, or {@code null} if nothing was copied
      */
     public SelectableShape getCopiedShape() {
+        if (copiedShape == null && !clipboard.isEmpty()) {
+            List<SelectableShape> shapes = clipboard.paste();
+            copiedShape = shapes.isEmpty() ? null : shapes.get(0);
+        }
         return copiedShape;
     }
 }
@@ -0,0 +1,171 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.symbols.Symbol;
+import group2128.sadproject.sadproject.symbols.SymbolInstance;
+import group2128.sadproject.sadproject.symbols.SymbolLibrary;
+import javafx.collections.ObservableList;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A concrete command that turns the selected shapes into a symbol and replaces them by an instance of it.
+ * <p>
+ * The command either defines a new symbol, or redefines an existing one, updating all its instances.
+ * When a symbol is redefined, the new shapes are aligned on the top-left corner of the previous
+ * definition, so the other instances stay in place, and the instance replacing the selection is moved
+ * to where the selection was.
+ * </p>
+ * <p>
+ * The canvas is restored from the memento saved by {@link #saveBackup()} when the command is undone;
+ * a new symbol is removed from the library, and a redefined symbol gets its previous definition back.
+ * </p>
+ */
+public class DefineSymbolCommand extends SelectionCommand {
+
+    /**
+     * Holds the history of executed commands, so that dragging the new instance can be undone.
+     */
+    private CommandHistory commandHistory;
+
+    /**
+     * The name of the symbol to define, or {@code null} when redefining a symbol.
+     */
+    private final String name;
+
+    /**
+     * The symbol defined or redefined by the command.
+     */
+    private Symbol symbol;
+
+    /**
+     * The definition of the redefined symbol before the last execution.
+     */
+    private List<SelectableShape> previousDefinition;
+
+    /**
+     * The instance that replaced the selection.
+     */
+    private SymbolInstance instance;
+
+    /**
+     * Constructs a command defining a new symbol.
+     *
+     * @param name the name of the new symbol
+     */
+    public DefineSymbolCommand(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Constructs a command replacing the definition of a symbol.
+     *
+     * @param symbol the symbol to redefine
+     */
+    public DefineSymbolCommand(Symbol symbol) {
+        this.name = null;
+        this.symbol = symbol;
+    }
+
+    /**
+     * Sets the command history used to record the interactions with the new instance.
+     *
+     * @param commandHistory the command history instance
+     */
+    public void setCommandHistory(CommandHistory commandHistory) {
+        this.commandHistory = commandHistory;
+    }
+
+    /**
+     * Returns the symbol defined or redefined by the command.
+     *
+     * @return the symbol, or {@code null} if no symbol was defined yet
+     */
+    public Symbol getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Returns the instance that replaced the selection.
+     *
+     * @return the instance, or {@code null} if the command has not been executed or had no target
+     */
+    public SymbolInstance getInstance() {
+        return instance;
+    }
+
+    /**
+     * Executes the command.
+     */
+    @Override
+    public void execute() {
+        instance = null;
+        ObservableList<Node> children = getDrawingCanvas().getChildren();
+        Set<Object> selected = new HashSet<>(getSelectedShapes());
+        List<Node> kept = new ArrayList<>(children.size());
+        List<SelectableShape> members = new ArrayList<>(selected.size());
+        int insertIndex = 0;
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        for (Node child : children) {
+            if (selected.contains(child)) {
+                members.add((SelectableShape) child);
+                insertIndex = kept.size();
+                Bounds bounds = child.getBoundsInParent();
+                minX = Math.min(minX, bounds.getMinX());
+                minY = Math.min(minY, bounds.getMinY());
+            } else {
+                kept.add(child);
+            }
+        }
+        if (members.isEmpty()) {
+            return;
+        }
+
+        SymbolLibrary library = SymbolLibrary.of(getDrawingCanvas());
+        double dx = 0;
+        double dy = 0;
+        if (name != null) {
+            symbol = library.define(name, members);
+        } else {
+            // the members are copied into the definition, so they can be moved before being removed
+            Bounds previous = symbol.getBounds();
+            dx = minX - previous.getMinX();
+            dy = minY - previous.getMinY();
+            for (SelectableShape member : members) {
+                member.moveBy(-dx, -dy);
+            }
+            previousDefinition = library.redefine(symbol, members);
+        }
+
+        children.setAll(kept);
+        instance = new SymbolInstance(symbol);
+        instance.setTranslateX(dx);
+        instance.setTranslateY(dy);
+        InteractionCommand.track(getDrawingCanvas(), commandHistory);
+        children.add(insertIndex, instance);
+    }
+
+    /**
+     * Undoes the command, restoring the canvas, and removing a new symbol from the library or giving
+     * a redefined symbol its previous definition back.
+     */
+    @Override
+    public void undo() {
+        if (getDrawingCanvasMemento() != null) {
+            getDrawingCanvasMemento().restore();
+        }
+        if (name != null) {
+            if (symbol != null) {
+                SymbolLibrary.of(getDrawingCanvas()).remove(symbol);
+            }
+        } else if (previousDefinition != null) {
+            SymbolLibrary.of(getDrawingCanvas()).redefine(symbol, previousDefinition);
+        }
+    }
+}
@@ -2,28 +2,25 @@ package group2128.sadproject.sadproject.commands;
 
 import group2128.sadproject.sadproject.factory.SelectableShape;
 
+import java.util.HashSet;
+
 /**
- * A concrete command that handles the deletion of a selected shape
+ * A concrete command that handles the deletion of the selected shapes
  * from the drawing canvas.
  * <p>
  * This class extends the abstract {@link Command} class and implements
- * the logic to remove a given {@link SelectableShape} from the canvas.
+ * the logic to remove the given {@link SelectableShape} instances from the canvas.
  * </p>
  */
-public class DeleteCommand extends Command {
+public class DeleteCommand extends SelectionCommand {
 
     /**
-     * The shape selected for deletion.
-     */
-    private SelectableShape selectedShape;
-
-    /**
-     * Executes the delete operation by removing the selected shape
-     * from the drawing canvas.
+     * Executes the delete operation by removing the selected shapes
+     * from the drawing canvas in a single update.
      */
     @Override
     public void execute() {
-        getDrawingCanvas().getChildren().remove(selectedShape);
+        getDrawingCanvas().getChildren().removeAll(new HashSet<>(getSelectedShapes()));
     }
 
     /**
@@ -38,13 +35,4 @@ public class DeleteCommand extends Command {
             getDrawingCanvasMemento().restore();
         }
     }
-
-    /**
-     * Sets the shape that should be deleted.
-     *
-     * @param selectedShape the {@link SelectableShape} to be removed
-     */
-    public void setSelectedShape(SelectableShape selectedShape) {
-        this.selectedShape = selectedShape;
-    }
 }
@@ -0,0 +1,95 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.ArrayShape;
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.symbols.SymbolInstance;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A concrete command that turns the selected {@link ArrayShape} and {@link SymbolInstance} shapes
+ * into standalone shapes.
+ * <p>
+ * Each array is replaced, at its position in the stacking order, by one independent copy of its
+ * source per instance, with the transforms baked into them (see {@link ArrayShape#explode()}).
+ * Each symbol instance is likewise replaced by copies of the shapes of its symbol
+ * (see {@link SymbolInstance#explode()}). Other selected shapes are left untouched.
+ * </p>
+ */
+public class ExplodeCommand extends SelectionCommand {
+
+    /**
+     * Holds the history of executed commands, so that dragging the new shapes can be undone.
+     */
+    private CommandHistory commandHistory;
+
+    /**
+     * The shapes created by the last execution, in stacking order.
+     */
+    private final List<SelectableShape> explodedShapes = new ArrayList<>();
+
+    /**
+     * Sets the command history used to record the interactions with the new shapes.
+     *
+     * @param commandHistory the command history instance
+     */
+    public void setCommandHistory(CommandHistory commandHistory) {
+        this.commandHistory = commandHistory;
+    }
+
+    /**
+     * Returns the shapes created by the last execution.
+     *
+     * @return the copies the exploded arrays were made of, bottom to top
+     */
+    public List<SelectableShape> getExplodedShapes() {
+        return new ArrayList<>(explodedShapes);
+    }
+
+    /**
+     * Executes the explode operation.
+     */
+    @Override
+    public void execute() {
+        explodedShapes.clear();
+        ObservableList<Node> children = getDrawingCanvas().getChildren();
+        Set<Object> selected = new HashSet<>(getSelectedShapes());
+        List<Node> updated = new ArrayList<>(children.size());
+        boolean changed = false;
+        for (Node child : children) {
+            if ((child instanceof ArrayShape || child instanceof SymbolInstance) && selected.contains(child)) {
+                List<SelectableShape> copies = child instanceof ArrayShape
+                        ? ((ArrayShape) child).explode() : ((SymbolInstance) child).explode();
+                for (SelectableShape copy : copies) {
+                    updated.add((Node) copy);
+                }
+                explodedShapes.addAll(copies);
+                changed = true;
+            } else {
+                updated.add(child);
+            }
+        }
+        if (changed) {
+            InteractionCommand.track(getDrawingCanvas(), commandHistory);
+            children.setAll(updated);
+        }
+    }
+
+    /**
+     * Undoes the previously executed explode operation.
+     *
+     * <p>If a memento of the drawing canvas is available, this method restores
+     * the canvas to its previous state before the shapes were exploded.</p>
+     */
+    @Override
+    public void undo() {
+        if (getDrawingCanvasMemento() != null) {
+            getDrawingCanvasMemento().restore();
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.io.PngExporter;
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.scene.control.Alert;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A command that exports a region of the drawing as a PNG image, at any resolution.
+ * <p>
+ * The exported region is the whole drawing, the selected shapes or the part of the drawing shown by the
+ * window, as chosen by the {@link Scope}. The image is rendered in tiles and written as it is rendered by
+ * a {@link PngExporter}, on a background thread, so that very large images neither hold the whole image
+ * in memory nor freeze the window. When the export completes, its throughput and its peak memory are
+ * shown in a dialog.
+ * </p>
+ * <p>
+ * The command does not change the drawing and is not pushed on the command history.
+ * </p>
+ */
+public class ExportPngCommand extends SelectionCommand {
+
+    /**
+     * The part of the drawing to export.
+     */
+    public enum Scope {
+        /**
+         * Every shape of the drawing.
+         */
+        DRAWING("Whole drawing"),
+        /**
+         * The selected shapes.
+         */
+        SELECTION("Selection"),
+        /**
+         * The part of the drawing shown by the window.
+         */
+        VIEW("Visible area");
+
+        private final String label;
+
+        Scope(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * The stage used to display the file chooser dialog and the result of the export.
+     */
+    private Stage stage;
+
+    /**
+     * A variable used only for the automatic tests
+     */
+    private File outputFile;
+
+    private Scope scope = Scope.DRAWING;
+    private double dpi = PngExporter.BASE_DPI;
+    private Color background = Color.WHITE;
+    private Bounds viewBounds;
+
+    /**
+     * The export started by the last execution, if any.
+     */
+    private CompletableFuture<PngExporter.Report> result;
+
+    /**
+     * Sets the stage used for the file chooser dialog and the result dialog.
+     *
+     * @param stage the primary stage of the application
+     */
+    public void setStage(Stage stage) {
+        this.stage = stage;
+    }
+
+    /**
+     * Sets the output file where the image will be written.
+     * <p>
+     * This method is intended to facilitate automated testing by allowing
+     * the bypass of the FileChooser interaction.
+     * If set, the {@code execute()} method will write directly to this file.
+     * </p>
+     *
+     * @param file the destination file
+     */
+    public void setOutputFile(File file) {
+        this.outputFile = file;
+    }
+
+    /**
+     * Sets the part of the drawing to export.
+     *
+     * @param scope the exported part, the whole drawing by default
+     */
+    public void setScope(Scope scope) {
+        this.scope = scope;
+    }
+
+    /**
+     * Sets the resolution of the image. A canvas unit is a pixel at {@link PngExporter#BASE_DPI}.
+     *
+     * @param dpi the resolution, in dots per inch
+     */
+    public void setDpi(double dpi) {
+        this.dpi = dpi;
+    }
+
+    /**
+     * Sets the color of the pixels not covered by any shape.
+     *
+     * @param background the background color, or {@code null} for a transparent background
+     */
+    public void setBackground(Color background) {
+        this.background = background;
+    }
+
+    /**
+     * Sets the part of the drawing shown by the window, exported with the {@link Scope#VIEW} scope.
+     *
+     * @param viewBounds the visible area, in canvas coordinates
+     */
+    public void setViewBounds(Bounds viewBounds) {
+        this.viewBounds = viewBounds;
+    }
+
+    /**
+     * Returns the region exported with the current scope.
+     *
+     * @return the region as {@code {minX, minY, maxX, maxY}} in canvas coordinates, or {@code null} if
+     * there is nothing to export
+     */
+    public double[] getRegion() {
+        switch (scope) {
+            case SELECTION:
+                return PngExporter.shapesRegion(getSelectedShapes());
+            case VIEW:
+                if (viewBounds == null || viewBounds.isEmpty()) {
+                    return null;
+                }
+                return new double[]{viewBounds.getMinX(), viewBounds.getMinY(), viewBounds.getMaxX(), viewBounds.getMaxY()};
+            default:
+                return PngExporter.drawingRegion(getDrawingCanvas());
+        }
+    }
+
+    /**
+     * Returns the export started by the last execution.
+     *
+     * @return the pending export, completed with its report, or {@code null} if nothing was exported
+     */
+    public CompletableFuture<PngExporter.Report> getResult() {
+        return result;
+    }
+
+    /**
+     * Executes the export command.
+     * <p>
+     * Computes the exported region, opens a file chooser to let the user select the destination unless an
+     * output file was set, and starts the export on a background thread. The tiles are still rendered on
+     * the JavaFX Application Thread, between the frames of the window. When a stage is set, the report of
+     * the export, or the error that stopped it, is shown in a dialog.
+     * </p>
+     * <p>
+     * If the canvas is not initialized, or the region is empty, the method exits without performing any
+     * operation.
+     * </p>
+     */
+    @Override
+    public void execute() {
+        result = null;
+        AnchorPane canvas = getDrawingCanvas();
+        if (canvas == null) {
+            return;
+        }
+        double[] region = getRegion();
+        if (region == null || region[2] <= region[0] || region[3] <= region[1]) {
+            return;
+        }
+        PngExporter exporter = PngExporter.forCanvas(canvas, region, dpi, background);
+
+        File fileToSave;
+        if (this.outputFile != null) {
+            fileToSave = this.outputFile;
+        } else if (stage != null) {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("Export PNG");
+            fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("PNG images (*.png)", "*.png"));
+            fileToSave = fileChooser.showSaveDialog(stage);
+        } else {
+            return;
+        }
+        if (fileToSave == null) {
+            return;
+        }
+
+        CompletableFuture<PngExporter.Report> export = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                export.complete(exporter.export(fileToSave));
+            } catch (IOException | RuntimeException e) {
+                export.completeExceptionally(e);
+            }
+        }, "png-export");
+        thread.setDaemon(true);
+        result = export;
+        if (stage != null) {
+            export.whenComplete((report, error) -> Platform.runLater(() -> showResult(fileToSave, report, error)));
+        }
+        thread.start();
+    }
+
+    /**
+     * Shows the report of a completed export, or the error that stopped it.
+     */
+    private void showResult(File file, PngExporter.Report report, Throwable error) {
+        Alert alert;
+        if (error == null) {
+            alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Export PNG");
+            alert.setHeaderText("Exported " + file.getName());
+            alert.setContentText(report.toString());
+        } else {
+            alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Export Error");
+            alert.setHeaderText("Unable to export the image");
+            alert.setContentText(error.getMessage());
+            System.err.println("Export Error: " + error.getMessage());
+        }
+        alert.initOwner(stage);
+        alert.show();
+    }
+
+    /**
+     * Undoes the command.
+     *
+     * <p>If a memento of the drawing canvas is available, this method restores
+     * the canvas to its state before the command was executed.</p>
+     */
+    @Override
+    public void undo() {
+        if (getDrawingCanvasMemento() != null) {
+            getDrawingCanvasMemento().restore();
+        }
+    }
+}
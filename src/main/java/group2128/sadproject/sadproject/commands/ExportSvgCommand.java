@@ -0,0 +1,159 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.io.PngExporter;
+import group2128.sadproject.sadproject.io.SvgExporter;
+import javafx.scene.Node;
+import javafx.scene.control.Alert;
+import javafx.scene.layout.AnchorPane;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A command that exports the drawing, or the selected shapes, as an SVG document.
+ * <p>
+ * When shapes are selected, only they are exported; otherwise the whole drawing is. The shapes are
+ * written in their stacking order by a {@link SvgExporter}, which streams the document to the file, and
+ * the view box of the document covers the exported shapes.
+ * </p>
+ * <p>
+ * The command does not change the drawing and is not pushed on the command history.
+ * </p>
+ */
+public class ExportSvgCommand extends SelectionCommand {
+
+    /**
+     * The stage used to display the file chooser dialog.
+     */
+    private Stage stage;
+
+    /**
+     * A variable used only for the automatic tests
+     */
+    private File outputFile;
+
+    /**
+     * The report of the last export, if any.
+     */
+    private SvgExporter.Report report;
+
+    /**
+     * Sets the stage used for the file chooser dialog.
+     *
+     * @param stage the primary stage of the application
+     */
+    public void setStage(Stage stage) {
+        this.stage = stage;
+    }
+
+    /**
+     * Sets the output file where the document will be written.
+     * <p>
+     * This method is intended to facilitate automated testing by allowing
+     * the bypass of the FileChooser interaction.
+     * If set, the {@code execute()} method will write directly to this file.
+     * </p>
+     *
+     * @param file the destination file
+     */
+    public void setOutputFile(File file) {
+        this.outputFile = file;
+    }
+
+    /**
+     * Returns the report of the last export.
+     *
+     * @return the report, or {@code null} if nothing was exported
+     */
+    public SvgExporter.Report getReport() {
+        return report;
+    }
+
+    /**
+     * Executes the export command.
+     * <p>
+     * Collects the exported shapes in their stacking order, opens a file chooser to let the user select
+     * the destination unless an output file was set, and writes the document. If the file cannot be
+     * written, an error alert dialog is shown when a stage is set, and a message is printed to
+     * {@code System.err}.
+     * </p>
+     * <p>
+     * If the canvas is not initialized, or there is nothing to export, the method exits without
+     * performing any operation.
+     * </p>
+     */
+    @Override
+    public void execute() {
+        report = null;
+        AnchorPane canvas = getDrawingCanvas();
+        if (canvas == null) {
+            return;
+        }
+        List<Node> nodes;
+        double[] region;
+        if (getSelectedShapes().isEmpty()) {
+            nodes = canvas.getChildren();
+            region = PngExporter.drawingRegion(canvas);
+        } else {
+            Set<SelectableShape> selected = new HashSet<>(getSelectedShapes());
+            nodes = new ArrayList<>(selected.size());
+            for (Node node : canvas.getChildren()) {
+                if (node instanceof SelectableShape && selected.contains(node)) {
+                    nodes.add(node);
+                }
+            }
+            region = PngExporter.shapesRegion(getSelectedShapes());
+        }
+        if (nodes.isEmpty() || region == null || region[2] <= region[0] || region[3] <= region[1]) {
+            return;
+        }
+
+        File fileToSave;
+        if (this.outputFile != null) {
+            fileToSave = this.outputFile;
+        } else if (stage != null) {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("Export SVG");
+            fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("SVG files (*.svg)", "*.svg"));
+            fileToSave = fileChooser.showSaveDialog(stage);
+        } else {
+            return;
+        }
+        if (fileToSave == null) {
+            return;
+        }
+
+        try {
+            report = new SvgExporter(region).export(nodes, fileToSave);
+        } catch (IOException e) {
+            if (stage != null) {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("Export Error");
+                alert.setHeaderText("Unable to export the drawing");
+                alert.setContentText(e.getMessage());
+                alert.showAndWait();
+            }
+            System.err.println("Export Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Undoes the command.
+     *
+     * <p>If a memento of the drawing canvas is available, this method restores
+     * the canvas to its state before the command was executed.</p>
+     */
+    @Override
+    public void undo() {
+        if (getDrawingCanvasMemento() != null) {
+            getDrawingCanvasMemento().restore();
+        }
+    }
+}
@@ -3,19 +3,17 @@ package group2128.sadproject.sadproject.commands;
 import group2128.sadproject.sadproject.factory.SelectableShape;
 import javafx.scene.Node;
 /**
- * A command that performs a horizontal flip transformation on the selected shape.
+ * A command that performs a horizontal flip transformation on the selected shapes.
  * <p>
  * This class extends the abstract {@link Command} class and overrides the
  * {@link #execute()} method to reflect the shape horizontally by applying a negative
  * scaling factor along the X-axis.
  * </p>
  */
-public class FlipHorizontalCommand extends Command {
-
-    private SelectableShape selectedShape;
+public class FlipHorizontalCommand extends SelectionCommand {
 
     /**
-     * Executes the command to flip the selected shape horizontally.
+     * Executes the command to flip every selected shape horizontally.
      * <p>
      * This operation multiplies the shape's current X-scale by -1,
      * resulting in a mirror effect across the vertical axis.
@@ -23,7 +21,10 @@ public class FlipHorizontalCommand extends Command {
      */
     @Override
     public void execute() {
-        ((Node) selectedShape).setScaleX(((Node) selectedShape).getScaleX() * (-1));
+        for (SelectableShape shape : getSelectedShapes()) {
+            Node node = (Node) shape;
+            node.setScaleX(node.getScaleX() * (-1));
+        }
     }
 
     /**
@@ -39,13 +40,4 @@ public class FlipHorizontalCommand extends Command {
             getDrawingCanvasMemento().restore();
         }
     }
-
-    /**
-     * Sets the shape that this command will operate on.
-     *
-     * @param selectedShape the shape to be flipped horizontally
-     */
-    public void setSelectedShape(SelectableShape selectedShape) {
-        this.selectedShape = selectedShape;
-    }
 }
@@ -4,19 +4,17 @@ import group2128.sadproject.sadproject.factory.SelectableShape;
 import javafx.scene.Node;
 
 /**
- * A command that performs a vertical flip transformation on the selected shape.
+ * A command that performs a vertical flip transformation on the selected shapes.
  * <p>
  * This class extends the abstract {@link Command} class and overrides the
  * {@link #execute()} method to reflect the shape vertically by applying a negative
  * scaling factor along the Y-axis.
  * </p>
  */
-public class FlipVerticalCommand extends Command {
-
-    private SelectableShape selectedShape;
+public class FlipVerticalCommand extends SelectionCommand {
 
     /**
-     * Executes the command to flip the selected shape vertically.
+     * Executes the command to flip every selected shape vertically.
      * <p>
      * This operation multiplies the shape's current Y-scale by -1,
      * resulting in a mirror effect across the horizontal axis.
@@ -24,7 +22,10 @@ public class FlipVerticalCommand extends Command {
      */
     @Override
     public void execute() {
-        ((Node) selectedShape).setScaleY(((Node) selectedShape).getScaleY() * (-1));
+        for (SelectableShape shape : getSelectedShapes()) {
+            Node node = (Node) shape;
+            node.setScaleY(node.getScaleY() * (-1));
+        }
     }
 
     /**
@@ -40,13 +41,4 @@ public class FlipVerticalCommand extends Command {
             getDrawingCanvasMemento().restore();
         }
     }
-
-    /**
-     * Sets the shape that this command will operate on.
-     *
-     * @param selectedShape the shape to be flipped vertically
-     */
-    public void setSelectedShape(SelectableShape selectedShape) {
-        this.selectedShape = selectedShape;
-    }
 }
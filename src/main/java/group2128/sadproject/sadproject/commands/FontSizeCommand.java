@@ -1,10 +1,11 @@
 package group2128.sadproject.sadproject.commands;
 
+import group2128.sadproject.sadproject.factory.FontCache;
 import group2128.sadproject.sadproject.factory.SelectableShape;
 import javafx.scene.text.Text;
 
 /**
- * A command that changes the font size of the selected text shape.
+ * A command that changes the font size of the selected text shapes.
  * <p>
  * This class extends the abstract {@link Command} class and overrides the
  * {@link #execute()} method to update the font size of a {@link Text} node.
@@ -12,23 +13,25 @@ import javafx.scene.text.Text;
  * using the drawing canvas memento.
  * </p>
  */
-public class FontSizeCommand extends Command {
+public class FontSizeCommand extends SelectionCommand {
 
-    private SelectableShape selectedShape;
     private double newFontSize;
 
     /**
-     * Executes the command to set the new font size on the selected text shape.
+     * Executes the command to set the new font size on the selected text shapes.
      * <p>
-     * If the selected shape is an instance of {@link Text}, its font size is updated.
+     * Every selected shape that is an instance of {@link Text} has its font size updated, keeping its
+     * font family. The fonts are shared through the {@link FontCache}.
      * The previous state of the canvas should be saved externally for undo support.
      * </p>
      */
     @Override
     public void execute() {
-        if (selectedShape instanceof Text) {
-            Text textNode = (Text) selectedShape;
-            textNode.setFont(javafx.scene.text.Font.font(newFontSize));
+        for (SelectableShape shape : getSelectedShapes()) {
+            if (shape instanceof Text) {
+                Text textNode = (Text) shape;
+                textNode.setFont(FontCache.font(textNode.getFont().getFamily(), newFontSize));
+            }
         }
     }
 
@@ -45,17 +48,9 @@ public class FontSizeCommand extends Command {
         }
     }
 
-    /**
-     * Sets the shape on which the font size change will be applied.
-     *
-     * @param selectedShape the selected shape, expected to be a {@link Text} node
-     */
-    public void setSelectedShape(SelectableShape selectedShape) {
-        this.selectedShape = selectedShape;
-    }
 
     /**
-     * Sets the new font size to apply to the selected shape.
+     * Sets the new font size to apply to the selected shapes.
      *
      * @param newFontSize the new font size in points
      */
@@ -0,0 +1,93 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.GroupShape;
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A concrete command that groups the selected shapes into a single {@link GroupShape}.
+ * <p>
+ * The group takes the place of the topmost selected shape in the stacking order of the canvas,
+ * and the members keep their relative order inside it. The canvas children are replaced in one
+ * update, so grouping many shapes does not cost one scene graph change per shape.
+ * At least two shapes of the canvas must be selected, otherwise the command does nothing.
+ * </p>
+ */
+public class GroupCommand extends SelectionCommand {
+
+    /**
+     * Holds the history of executed commands, so that dragging the new group can be undone.
+     */
+    private CommandHistory commandHistory;
+
+    /**
+     * The group created by the last execution, or {@code null} if nothing was grouped.
+     */
+    private GroupShape group;
+
+    /**
+     * Sets the command history used to record the interactions with the new group.
+     *
+     * @param commandHistory the command history instance
+     */
+    public void setCommandHistory(CommandHistory commandHistory) {
+        this.commandHistory = commandHistory;
+    }
+
+    /**
+     * Returns the group created by the last execution.
+     *
+     * @return the new {@link GroupShape}, or {@code null} if fewer than two shapes were selected
+     */
+    public GroupShape getGroup() {
+        return group;
+    }
+
+    /**
+     * Executes the group operation.
+     */
+    @Override
+    public void execute() {
+        group = null;
+        ObservableList<Node> children = getDrawingCanvas().getChildren();
+        Set<Object> selected = new HashSet<>(getSelectedShapes());
+        List<Node> kept = new ArrayList<>(children.size());
+        List<SelectableShape> members = new ArrayList<>(selected.size());
+        int insertIndex = 0;
+        for (Node child : children) {
+            if (selected.contains(child)) {
+                members.add((SelectableShape) child);
+                insertIndex = kept.size();
+            } else {
+                kept.add(child);
+            }
+        }
+        if (members.size() < 2) {
+            return;
+        }
+
+        children.setAll(kept);
+        group = new GroupShape(members);
+        InteractionCommand.track(getDrawingCanvas(), commandHistory);
+        children.add(insertIndex, group);
+    }
+
+    /**
+     * Undoes the previously executed group operation.
+     *
+     * <p>If a memento of the drawing canvas is available, this method restores
+     * the canvas to its previous state before the shapes were grouped.</p>
+     */
+    @Override
+    public void undo() {
+        if (getDrawingCanvasMemento() != null) {
+            getDrawingCanvasMemento().restore();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.io.SvgImporter;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.control.Alert;
+import javafx.scene.layout.AnchorPane;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * A command that imports the shapes of an SVG document on top of the drawing.
+ * <p>
+ * The document is parsed by a {@link SvgImporter} on a background thread, which builds the shapes
+ * detached from the canvas, as a paste does, and hands them over in batches. Each batch is added to the
+ * canvas on the JavaFX Application Thread with a single change of its children list, so the window stays
+ * responsive and the shapes appear while the document is read, and no drawing strategy or intermediate
+ * snapshot is involved. The whole import is undone by the single backup saved before execution; undoing
+ * it while it is still running stops it.
+ * </p>
+ */
+public class ImportSvgCommand extends Command {
+
+    /**
+     * The stage used to display the file chooser dialog and the result of the import.
+     */
+    private Stage stage;
+
+    /**
+     * SVG file used for testing purposes. If set, this file will be used instead of opening a file chooser dialog.
+     */
+    private File inputFile;
+
+    /**
+     * Holds the history of executed commands, used to record the interactions with the imported shapes.
+     */
+    private CommandHistory commandHistory;
+
+    /**
+     * The executor adding the batches to the canvas.
+     */
+    private Executor canvasExecutor = Platform::runLater;
+
+    /**
+     * The importer of the last execution, if any.
+     */
+    private SvgImporter importer;
+
+    /**
+     * The import started by the last execution, if any.
+     */
+    private CompletableFuture<SvgImporter.Report> result;
+
+    /**
+     * The shapes added to the canvas by the last execution.
+     */
+    private final List<SelectableShape> importedShapes = new ArrayList<>();
+
+    /**
+     * Sets the stage used for the file chooser dialog and the result dialog.
+     *
+     * @param stage the primary stage of the application
+     */
+    public void setStage(Stage stage) {
+        this.stage = stage;
+    }
+
+    /**
+     * Sets the SVG file to import, bypassing the file chooser. Used by the automatic tests.
+     *
+     * @param file the SVG file
+     */
+    public void setInputFile(File file) {
+        this.inputFile = file;
+    }
+
+    /**
+     * Sets the command history used to record the interactions with the imported shapes.
+     *
+     * @param commandHistory the command history instance
+     */
+    public void setCommandHistory(CommandHistory commandHistory) {
+        this.commandHistory = commandHistory;
+    }
+
+    /**
+     * Sets the executor adding the batches of shapes to the canvas, the JavaFX Application Thread by
+     * default.
+     *
+     * @param canvasExecutor the executor running the changes of the canvas
+     */
+    public void setCanvasExecutor(Executor canvasExecutor) {
+        this.canvasExecutor = canvasExecutor;
+    }
+
+    /**
+     * Returns the import started by the last execution.
+     * <p>
+     * The future completes once the whole document is read, after the last batch is handed to the
+     * canvas executor.
+     * </p>
+     *
+     * @return the pending import, completed with its report, or {@code null} if nothing was imported
+     */
+    public CompletableFuture<SvgImporter.Report> getResult() {
+        return result;
+    }
+
+    /**
+     * Returns the shapes added to the canvas by the last execution so far.
+     *
+     * @return an unmodifiable view of the imported shapes, in document order
+     */
+    public List<SelectableShape> getImportedShapes() {
+        return Collections.unmodifiableList(importedShapes);
+    }
+
+    /**
+     * Executes the import command.
+     * <p>
+     * Opens a file chooser to select the SVG document unless an input file was set, and starts reading it
+     * on a background thread. When a stage is set, the report of the import, or the error that stopped
+     * it, is shown in a dialog once the last batch is on the canvas.
+     * </p>
+     * <p>
+     * If the canvas is not initialized, or no file is chosen, the method exits without performing any
+     * operation.
+     * </p>
+     */
+    @Override
+    public void execute() {
+        result = null;
+        importedShapes.clear();
+        AnchorPane canvas = getDrawingCanvas();
+        if (canvas == null) {
+            return;
+        }
+
+        File fileToLoad;
+        if (inputFile != null) {
+            fileToLoad = inputFile;
+        } else if (stage != null) {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("Import SVG");
+            fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("SVG files (*.svg)", "*.svg"));
+            fileToLoad = fileChooser.showOpenDialog(stage);
+        } else {
+            return;
+        }
+        if (fileToLoad == null) {
+            return;
+        }
+
+        SvgImporter svgImporter = new SvgImporter(batch -> canvasExecutor.execute(() -> addBatch(canvas, batch)));
+        importer = svgImporter;
+        CompletableFuture<SvgImporter.Report> svgImport = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                svgImport.complete(svgImporter.read(fileToLoad));
+            } catch (IOException | RuntimeException e) {
+                svgImport.completeExceptionally(e);
+            }
+        }, "svg-import");
+        thread.setDaemon(true);
+        result = svgImport;
+        if (stage != null) {
+            svgImport.whenComplete((report, error) -> canvasExecutor.execute(() -> showResult(fileToLoad, report, error)));
+        }
+        thread.start();
+    }
+
+    /**
+     * Adds a batch of imported shapes on top of the canvas, unless the import was undone.
+     */
+    private void addBatch(AnchorPane canvas, List<SelectableShape> batch) {
+        if (importer == null || importer.isCancelled()) {
+            return;
+        }
+        InteractionCommand.track(canvas, commandHistory);
+        List<Node> nodes = new ArrayList<>(batch.size());
+        for (SelectableShape shape : batch) {
+            nodes.add((Node) shape);
+        }
+        canvas.getChildren().addAll(nodes);
+        importedShapes.addAll(batch);
+    }
+
+    /**
+     * Shows the report of a completed import, or the error that stopped it.
+     */
+    private void showResult(File file, SvgImporter.Report report, Throwable error) {
+        Alert alert;
+        if (error == null) {
+            alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Import SVG");
+            alert.setHeaderText("Imported " + file.getName());
+            alert.setContentText(report.toString());
+        } else {
+            alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Import Error");
+            alert.setHeaderText("Unable to import the file");
+            alert.setContentText(error.getMessage());
+            System.err.println("Import Error: " + error.getMessage());
+        }
+        alert.initOwner(stage);
+        alert.show();
+    }
+
+    /**
+     * Undoes the import.
+     *
+     * <p>Stops the import if it is still running, then, if a memento of the drawing canvas is available,
+     * restores the canvas to its state before the import.</p>
+     */
+    @Override
+    public void undo() {
+        if (importer != null) {
+            importer.cancel();
+        }
+        if (getDrawingCanvasMemento() != null) {
+            getDrawingCanvasMemento().restore();
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package group2128.sadproject.sadproject.commands;
 
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.factory.ShapeGestureController;
+import javafx.scene.layout.AnchorPane;
+
 /**
  * A placeholder command representing a generic user interaction such as drawing or modifying a shape.
  * <p>
@@ -39,4 +43,52 @@ public class InteractionCommand extends Command {
         }
     }
 
+    /**
+     * Records an {@code InteractionCommand} in the history every time the user starts interacting
+     * with a shape of the given canvas (e.g. dragging it), as the drawing strategies do for the shapes
+     * they create.
+     * <p>
+     * This covers every shape of the canvas, whether drawn, pasted, grouped or loaded. The interactions
+     * are received through the single listener of the {@link ShapeGestureController} of the canvas, so
+     * tracking costs nothing per shape; tracking the canvas again with the same history keeps the current
+     * listener, and with another history replaces it.
+     * </p>
+     *
+     * @param canvas         the drawing canvas
+     * @param commandHistory the history to push the interactions to; if {@code null} nothing is recorded
+     */
+    public static void track(AnchorPane canvas, CommandHistory commandHistory) {
+        if (commandHistory == null) {
+            return;
+        }
+        ShapeGestureController controller = ShapeGestureController.of(canvas);
+        ShapeGestureController.InteractionListener current = controller.getInteractionListener();
+        if (current instanceof Recorder && ((Recorder) current).commandHistory == commandHistory) {
+            return;
+        }
+        controller.setInteractionListener(new Recorder(canvas, commandHistory));
+    }
+
+    /**
+     * Pushes an {@code InteractionCommand} saving the canvas to the history when a shape is interacted with.
+     */
+    private static final class Recorder implements ShapeGestureController.InteractionListener {
+
+        private final AnchorPane canvas;
+        private final CommandHistory commandHistory;
+
+        Recorder(AnchorPane canvas, CommandHistory commandHistory) {
+            this.canvas = canvas;
+            this.commandHistory = commandHistory;
+        }
+
+        @Override
+        public void interactionStarted(SelectableShape shape) {
+            InteractionCommand intCommand = new InteractionCommand();
+            intCommand.setDrawingCanvas(canvas);
+            intCommand.saveBackup();
+            intCommand.execute();
+            commandHistory.push(intCommand);
+        }
+    }
 }
@@ -1,7 +1,14 @@
 package group2128.sadproject.sadproject.commands;
 
 import group2128.sadproject.sadproject.factory.*;
+import group2128.sadproject.sadproject.layers.Layer;
+import group2128.sadproject.sadproject.layers.LayerManager;
+import group2128.sadproject.sadproject.layers.ZOrder;
 import group2128.sadproject.sadproject.strategy.*;
+import group2128.sadproject.sadproject.styles.ShapeStyle;
+import group2128.sadproject.sadproject.styles.StyleManager;
+import group2128.sadproject.sadproject.symbols.SymbolLibrary;
+import javafx.scene.Node;
 import javafx.scene.control.Alert;
 import javafx.scene.layout.AnchorPane;
 import javafx.stage.FileChooser;
@@ -11,6 +18,8 @@ import org.json.JSONObject;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A concrete implementation of the {@link Command} class that represents
@@ -87,7 +96,19 @@ public class LoadCommand extends Command {
      * <p>
      * Opens a file chooser to select a previously saved JSON file,
      * reads its contents, and reconstructs the corresponding shapes on the canvas.
-     * Supported shapes are: {@code rectangle}, {@code ellipse}, {@code segment}, {@code polygon} and {@code text}.
+     * Supported shapes are: {@code rectangle}, {@code ellipse}, {@code segment}, {@code polygon}, {@code text},
+     * {@code group}, whose members are loaded recursively, {@code array} and {@code symbol}.
+     * </p>
+     * <p>
+     * Both file formats written by {@link SaveCommand} are accepted: a plain array of shapes, loaded on
+     * a single default layer, or an object with the layers and the shapes, each shape being assigned to
+     * its recorded layer. The stacking order keys recorded by the shapes are restored, so the keys
+     * of the shapes stay the same from one session to the next.
+     * </p>
+     * <p>
+     * The definitions of the symbols are loaded before the shapes, and the instances are rebuilt from the
+     * identifier of their symbol. The shared styles are also loaded before the shapes, and each shape recording a {@code style} takes
+     * the values of its style.
      * </p>
      * <p>
      * If an error occurs while reading or parsing the file,
@@ -120,49 +141,47 @@ public class LoadCommand extends Command {
             try {
                 byte[] encoded = Files.readAllBytes(fileToLoad.toPath());
                 String content = new String(encoded, StandardCharsets.UTF_8);
-                JSONArray shapesArray = new JSONArray(content);
+                JSONArray shapesArray;
+                JSONArray layersArray = null;
+                JSONArray stylesArray = null;
+                JSONArray symbolsArray = null;
+                if (content.trim().startsWith("{")) {
+                    JSONObject drawing = new JSONObject(content);
+                    shapesArray = drawing.getJSONArray("shapes");
+                    layersArray = drawing.optJSONArray("layers");
+                    stylesArray = drawing.optJSONArray("styles");
+                    symbolsArray = drawing.optJSONArray("symbols");
+                } else {
+                    shapesArray = new JSONArray(content);
+                }
                 canvas.getChildren().clear();
+                LayerManager layers = LayerManager.of(canvas);
+                layers.loadJson(layersArray);
+                ZOrder zOrder = ZOrder.of(canvas);
+                StyleManager styles = StyleManager.of(canvas);
+                styles.loadJson(stylesArray);
+                SymbolLibrary.of(canvas).loadJson(symbolsArray);
+                InteractionCommand.track(canvas, commandHistory);
 
                 for (int i = 0; i < shapesArray.length(); i++) {
                     JSONObject obj = shapesArray.getJSONObject(i);
-                    String type = obj.getString("type");
-
-                    switch (type) {
-                        case "rectangle":
-                            strategy = new RectangleDrawingStrategy();
-                            RectangleShape.loadJson(params, obj);
-                            strategy.draw(obj.getDouble("x"), obj.getDouble("y"), params);
-                            break;
-                        case "ellipse":
-                            strategy = new EllipseDrawingStrategy();
-                            EllipseShape.loadJson(params, obj);
-                            strategy.draw(obj.getDouble("x"), obj.getDouble("y"), params);
-                            break;
-                        case "segment":
-                            strategy = new SegmentDrawingStrategy();
-                            SegmentShape.loadJson(params, obj);
-                            strategy.draw(obj.getDouble("startX"), obj.getDouble("startY"), params);
-                            strategy.draw(obj.getDouble("endX"), obj.getDouble("endY"), params);
-                            break;
-                        case "text":
-                            strategy = new TextDrawingStrategy();
-                            TextShape.loadJson(params, obj);
-                            strategy.draw(obj.getDouble("x"), obj.getDouble("y"), params);
-                            break;
-                        case "polygon":
-                            strategy = new PolygonDrawingStrategy();
-                            PolygonDrawingStrategy pStrategy = (PolygonDrawingStrategy) strategy;
-                            PolygonShape.loadJson(params, obj);
-                            JSONArray jsonPoints = obj.getJSONArray("points");
-                            for (int j = 0; j < jsonPoints.length(); j+=2) {
-                                pStrategy.draw(jsonPoints.getDouble(j),jsonPoints.getDouble(j+1),params);
-                            }
-                            pStrategy.completeShape(params);
-                            break;
-
-                        default:
-                            System.err.println("Type of shape not recognized: " + type);
-                            break;
+                    int first = canvas.getChildren().size();
+                    loadShape(obj, canvas);
+                    String key = obj.optString("z", null);
+                    if (canvas.getChildren().size() == first + 1 && ZOrder.isValidKey(key)) {
+                        zOrder.moveTo(canvas.getChildren().get(first), key);
+                    }
+                    Layer layer = layers.getLayer(obj.optString("layer", null));
+                    if (layer != null) {
+                        for (Node node : canvas.getChildren().subList(first, canvas.getChildren().size())) {
+                            layers.assign(node, layer);
+                        }
+                    }
+                    ShapeStyle style = styles.getStyle(obj.optString("style", null));
+                    if (style != null) {
+                        for (Node node : canvas.getChildren().subList(first, canvas.getChildren().size())) {
+                            styles.assign(node, style);
+                        }
                     }
                 }
             } catch (Exception e) {
@@ -176,6 +195,104 @@ public class LoadCommand extends Command {
         }
     }
 
+    /**
+     * Rebuilds a single shape from its JSON representation and adds it on top of the canvas.
+     * <p>
+     * Groups are rebuilt recursively: their members are loaded on the canvas first, then moved
+     * into a new {@link GroupShape} that takes their place. Arrays are rebuilt detached by the
+     * {@link ShapeLoader}, since their source shape is never displayed on the canvas.
+     * </p>
+     *
+     * @param obj    the {@code JSONObject} containing the serialized shape
+     * @param canvas the canvas to add the shape to
+     */
+    private void loadShape(JSONObject obj, AnchorPane canvas) {
+        String type = obj.getString("type");
+        int added = canvas.getChildren().size();
+
+        switch (type) {
+            case "rectangle":
+                strategy = new RectangleDrawingStrategy();
+                RectangleShape.loadJson(params, obj);
+                strategy.draw(obj.getDouble("x"), obj.getDouble("y"), params);
+                break;
+            case "ellipse":
+                strategy = new EllipseDrawingStrategy();
+                EllipseShape.loadJson(params, obj);
+                strategy.draw(obj.getDouble("x"), obj.getDouble("y"), params);
+                break;
+            case "segment":
+                strategy = new SegmentDrawingStrategy();
+                SegmentShape.loadJson(params, obj);
+                strategy.draw(obj.getDouble("startX"), obj.getDouble("startY"), params);
+                strategy.draw(obj.getDouble("endX"), obj.getDouble("endY"), params);
+                break;
+            case "text":
+                strategy = new TextDrawingStrategy();
+                TextShape.loadJson(params, obj);
+                strategy.draw(obj.getDouble("x"), obj.getDouble("y"), params);
+                break;
+            case "polygon":
+                strategy = new PolygonDrawingStrategy();
+                PolygonDrawingStrategy pStrategy = (PolygonDrawingStrategy) strategy;
+                PolygonShape.loadJson(params, obj);
+                JSONArray jsonPoints = obj.getJSONArray("points");
+                for (int j = 0; j < jsonPoints.length(); j+=2) {
+                    pStrategy.draw(jsonPoints.getDouble(j),jsonPoints.getDouble(j+1),params);
+                }
+                pStrategy.completeShape(params);
+                break;
+
+            case "group":
+                int first = canvas.getChildren().size();
+                JSONArray members = obj.getJSONArray("shapes");
+                for (int j = 0; j < members.length(); j++) {
+                    loadShape(members.getJSONObject(j), canvas);
+                }
+                List<Node> loaded = canvas.getChildren().subList(first, canvas.getChildren().size());
+                List<SelectableShape> memberShapes = new ArrayList<>(loaded.size());
+                for (Node node : loaded) {
+                    memberShapes.add((SelectableShape) node);
+                }
+                loaded.clear();
+                GroupShape group = new GroupShape(memberShapes);
+                GroupShape.loadJson(group, obj);
+                canvas.getChildren().add(group);
+                break;
+
+            case "polyline":
+                SelectableShape polyline = ShapeLoader.fromJson(obj, null);
+                canvas.getChildren().add((Node) polyline);
+                break;
+
+            case "array":
+                SelectableShape array = ShapeLoader.fromJson(obj, SymbolLibrary.of(canvas)::instanceFromJson);
+                if (array != null) {
+                    canvas.getChildren().add((Node) array);
+                }
+                break;
+
+            case "symbol":
+                SelectableShape instance = SymbolLibrary.of(canvas).instanceFromJson(obj);
+                if (instance == null) {
+                    System.err.println("Symbol not found: " + obj.optString("symbol"));
+                    break;
+                }
+                canvas.getChildren().add((Node) instance);
+                break;
+
+            default:
+                System.err.println("Type of shape not recognized: " + type);
+                break;
+        }
+        if (obj.has("strokeWidth") && canvas.getChildren().size() > added) {
+            Node node = canvas.getChildren().get(canvas.getChildren().size() - 1);
+            if (node instanceof javafx.scene.shape.Shape) {
+                ((javafx.scene.shape.Shape) node).setStrokeWidth(obj.getDouble("strokeWidth"));
+            }
+        }
+    }
+
     /**
      * Undoes the previously executed fill color change command.
      *
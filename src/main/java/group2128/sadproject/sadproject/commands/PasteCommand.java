@@ -1,50 +1,62 @@
 package group2128.sadproject.sadproject.commands;
 
-import group2128.sadproject.sadproject.factory.*;
-import group2128.sadproject.sadproject.strategy.*;
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.strategy.DrawingParams;
+import group2128.sadproject.sadproject.symbols.SymbolLibrary;
+import javafx.scene.Node;
+import javafx.scene.layout.AnchorPane;
+
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
- * A command that pastes a previously copied shape onto the drawing canvas
+ * A command that pastes previously copied shapes onto the drawing canvas
  * at a specified location.
  * <p>
- * The shape is placed at the coordinates defined by {@code pasteX} and {@code pasteY},
- * and is added to the canvas. If the shape already exists on the canvas, a copy is created
- * before pasting.
+ * The shapes are taken from a {@link ShapeClipboard}, which rebuilds them from their serialized
+ * form, or from a single shape set with {@link #setShape(SelectableShape)}, which is copied.
+ * They are moved together so that the first one is anchored at {@code pasteX} and {@code pasteY},
+ * keeping their relative positions, and are added to the canvas in a single batch.
+ * Unlike drawing them through the drawing strategies, no intermediate snapshot is taken, so the
+ * whole paste is undone by the single backup saved before execution.
  * </p>
  */
 public class PasteCommand extends Command {
 
     /**
-     * The X coordinate where the shape will be pasted on the drawing pane.
+     * The X coordinate where the shapes will be pasted on the drawing pane.
      */
     private Double pasteX;
 
     /**
-     * The Y coordinate where the shape will be pasted on the drawing pane.
+     * The Y coordinate where the shapes will be pasted on the drawing pane.
      */
     private Double pasteY;
 
     /**
-     * The shape to be pasted. It is expected to be a previously copied shape.
+     * A single shape to be pasted instead of the content of the clipboard.
      */
     private SelectableShape shape;
 
     /**
-     * The drawing parameters to be used when rendering the pasted shape,
-     * including dimensions, colors, and command history.
+     * The clipboard holding the shapes to paste.
+     */
+    private ShapeClipboard clipboard;
+
+    /**
+     * The drawing parameters providing the drawing canvas and the command history
+     * the interactions with the pasted shapes are recorded to.
      */
     private DrawingParams drawingParams;
 
     /**
-     * The specific drawing strategy used to render the shape being pasted.
-     * It is selected dynamically based on the shape's type.
+     * The shapes added to the canvas by the last execution.
      */
-    private DrawingStrategy pasteDrawingStrategy;
+    private List<SelectableShape> pastedShapes = new ArrayList<>();
 
     /**
-     * Sets the X coordinate where the shape will be pasted.
+     * Sets the X coordinate where the shapes will be pasted.
      *
      * @param pasteX the X coordinate
      */
@@ -53,7 +65,7 @@ public class PasteCommand extends Command {
     }
 
     /**
-     * Sets the Y coordinate where the shape will be pasted.
+     * Sets the Y coordinate where the shapes will be pasted.
      *
      * @param pasteY the Y coordinate
      */
@@ -62,59 +74,68 @@ public class PasteCommand extends Command {
     }
 
     /**
-     * Sets the shape to be pasted.
+     * Sets a single shape to be pasted. When set, it takes precedence over the clipboard.
      *
-     * @param shape the shape to paste
+     * @param shape the shape to paste, or {@code null} to paste the content of the clipboard
      */
     public void setShape(SelectableShape shape) {
         this.shape = shape;
     }
 
+    /**
+     * Sets the clipboard holding the shapes to paste.
+     *
+     * @param clipboard the clipboard to paste from
+     */
+    public void setClipboard(ShapeClipboard clipboard) {
+        this.clipboard = clipboard;
+    }
+
     /**
      * Executes the paste command.
      * <p>
-     * If the shape is already present on the canvas, a new copy is made.
-     * The shape's position is updated to the specified paste coordinates.
-     * Depending on the shape type (rectangle, ellipse, segment, text, polygon), additional
-     * properties such as endpoints may also be updated.
+     * The shapes are built, offset so that the first one is anchored at the paste coordinates,
+     * and added to the canvas with a single change of its children list.
      * </p>
      */
     @Override
     public void execute() {
-        if(shape instanceof RectangleShape){
-            pasteDrawingStrategy = new RectangleDrawingStrategy();
-            pasteDrawingStrategy.draw(this.pasteX,this.pasteY, drawingParams);
+        AnchorPane canvas = drawingParams != null && drawingParams.getDrawingCanvas() != null
+                ? drawingParams.getDrawingCanvas() : getDrawingCanvas();
+        List<SelectableShape> shapes;
+        if (shape != null) {
+            shapes = new ArrayList<>(List.of(shape.getCopy()));
+        } else if (clipboard != null) {
+            shapes = clipboard.paste(SymbolLibrary.of(canvas)::instanceFromJson);
+        } else {
+            shapes = new ArrayList<>();
         }
-        if(shape instanceof EllipseShape){
-            pasteDrawingStrategy = new EllipseDrawingStrategy();
-            pasteDrawingStrategy.draw(this.pasteX,this.pasteY, drawingParams);
+        pastedShapes = shapes;
+        if (shapes.isEmpty()) {
+            return;
         }
-        if(shape instanceof SegmentShape){
-            pasteDrawingStrategy = new SegmentDrawingStrategy();
-            double finalPasteX = ((((SegmentShape) shape).getEndPointX()) - shape.getAnchorX()) + this.pasteX;
-            double finalPasteY = ((((SegmentShape) shape).getEndPointY()) - shape.getAnchorY()) + this.pasteY;
-            pasteDrawingStrategy.draw(this.pasteX,this.pasteY, drawingParams);
-            pasteDrawingStrategy.draw(finalPasteX, finalPasteY, drawingParams);
-        }
-        if (shape instanceof TextShape){
-            pasteDrawingStrategy = new TextDrawingStrategy();
-            pasteDrawingStrategy.draw(this.pasteX,this.pasteY, drawingParams);
-        }
-        if (shape instanceof PolygonShape){
-            pasteDrawingStrategy = new PolygonDrawingStrategy();
-            List<Double> originalPoints = ((PolygonShape) shape).getPoints();
-            List<Double> points = new ArrayList<>(originalPoints);
-
-            double dx = this.pasteX - points.get(0);
-            double dy = this.pasteY - points.get(1);
-
-            for (int i = 0; i < points.size(); i += 2) {
-                double newX = points.get(i) + dx;
-                double newY = points.get(i + 1) + dy;
-                pasteDrawingStrategy.draw(newX, newY, drawingParams);
-            }
-            ((PolygonDrawingStrategy) pasteDrawingStrategy).completeShape(drawingParams);
+
+        CommandHistory commandHistory = drawingParams != null ? drawingParams.getCommandHistory() : null;
+
+        SelectableShape first = shapes.get(0);
+        double dx = pasteX != null ? pasteX - first.getAnchorX() : 0;
+        double dy = pasteY != null ? pasteY - first.getAnchorY() : 0;
+        InteractionCommand.track(canvas, commandHistory);
+        List<Node> nodes = new ArrayList<>(shapes.size());
+        for (SelectableShape pasted : shapes) {
+            pasted.moveBy(dx, dy);
+            nodes.add((Node) pasted);
         }
+        canvas.getChildren().addAll(nodes);
+    }
+
+    /**
+     * Returns the shapes added to the canvas by the last execution.
+     *
+     * @return an unmodifiable view of the pasted shapes, in paste order
+     */
+    public List<SelectableShape> getPastedShapes() {
+        return Collections.unmodifiableList(pastedShapes);
     }
 
     /**
@@ -130,9 +151,12 @@ public class PasteCommand extends Command {
         }
     }
 
+    /**
+     * Sets the drawing parameters providing the drawing canvas and the command history.
+     *
+     * @param drawingParams the drawing parameters
+     */
     public void setDrawingParams(DrawingParams drawingParams) {
         this.drawingParams = drawingParams;
     }
-
-
 }
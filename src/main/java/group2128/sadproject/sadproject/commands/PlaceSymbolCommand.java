@@ -0,0 +1,92 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.symbols.Symbol;
+import group2128.sadproject.sadproject.symbols.SymbolInstance;
+
+/**
+ * A concrete command that places a new instance of a symbol on top of the canvas.
+ * <p>
+ * The instance is centered on the given point. The command is undone using the memento saved by
+ * {@link #saveBackup()}.
+ * </p>
+ */
+public class PlaceSymbolCommand extends Command {
+
+    /**
+     * Holds the history of executed commands, so that dragging the new instance can be undone.
+     */
+    private CommandHistory commandHistory;
+
+    /**
+     * The symbol to place.
+     */
+    private final Symbol symbol;
+
+    /**
+     * The X coordinate of the center of the new instance.
+     */
+    private final double centerX;
+
+    /**
+     * The Y coordinate of the center of the new instance.
+     */
+    private final double centerY;
+
+    /**
+     * The instance placed by the last execution.
+     */
+    private SymbolInstance instance;
+
+    /**
+     * Constructs a command placing an instance of a symbol.
+     *
+     * @param symbol  the symbol to place
+     * @param centerX the X coordinate of the center of the instance, in canvas coordinates
+     * @param centerY the Y coordinate of the center of the instance, in canvas coordinates
+     */
+    public PlaceSymbolCommand(Symbol symbol, double centerX, double centerY) {
+        this.symbol = symbol;
+        this.centerX = centerX;
+        this.centerY = centerY;
+    }
+
+    /**
+     * Sets the command history used to record the interactions with the new instance.
+     *
+     * @param commandHistory the command history instance
+     */
+    public void setCommandHistory(CommandHistory commandHistory) {
+        this.commandHistory = commandHistory;
+    }
+
+    /**
+     * Returns the instance placed by the last execution.
+     *
+     * @return the instance, or {@code null} if the command has not been executed
+     */
+    public SymbolInstance getInstance() {
+        return instance;
+    }
+
+    /**
+     * Executes the command, adding the instance on top of the canvas.
+     */
+    @Override
+    public void execute() {
+        instance = new SymbolInstance(symbol);
+        instance.setAnchorX(centerX);
+        instance.setAnchorY(centerY);
+        InteractionCommand.track(getDrawingCanvas(), commandHistory);
+        getDrawingCanvas().getChildren().add(instance);
+    }
+
+    /**
+     * Undoes the command, restoring the canvas from the saved memento.
+     */
+    @Override
+    public void undo() {
+        if (getDrawingCanvasMemento() != null) {
+            getDrawingCanvasMemento().restore();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.layers.ZOrder;
+import javafx.scene.Node;
+import javafx.scene.layout.Pane;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An abstract command that changes the stacking order of the selected shapes.
+ * <p>
+ * The stacking order is kept by the {@link ZOrder} of the canvas, which gives the moved shapes new
+ * order keys and leaves every other shape untouched. The command records the keys before and after
+ * each move, so it is undone by moving the shapes back to their old keys: no snapshot of the canvas is
+ * needed, and {@link #saveBackup()} does not have to be called before executing it.
+ * </p>
+ */
+public abstract class ReorderCommand extends SelectionCommand {
+
+    /**
+     * The stacking order the moves were applied to.
+     */
+    private ZOrder zOrder;
+
+    /**
+     * The moves performed by the last execution.
+     */
+    private List<ZOrder.Move> moves = Collections.emptyList();
+
+    /**
+     * Executes the command, moving the selected shapes in the stacking order of their canvas.
+     */
+    @Override
+    public void execute() {
+        List<Node> nodes = new ArrayList<>();
+        for (SelectableShape shape : getSelectedShapes()) {
+            nodes.add((Node) shape);
+        }
+        if (nodes.isEmpty() || !(nodes.get(0).getParent() instanceof Pane)) {
+            return;
+        }
+        zOrder = ZOrder.of((Pane) nodes.get(0).getParent());
+        moves = reorder(zOrder, nodes);
+    }
+
+    /**
+     * Undoes the command by giving the moved shapes their previous order keys.
+     */
+    @Override
+    public void undo() {
+        if (zOrder != null) {
+            zOrder.undo(moves);
+        }
+    }
+
+    /**
+     * Returns the moves performed by the last execution.
+     *
+     * @return the moves, empty if the command did not change the stacking order
+     */
+    public List<ZOrder.Move> getMoves() {
+        return Collections.unmodifiableList(moves);
+    }
+
+    /**
+     * Moves shapes in the stacking order.
+     *
+     * @param zOrder the stacking order of the canvas holding the shapes
+     * @param shapes the shapes to move
+     * @return the moves performed
+     */
+    protected abstract List<ZOrder.Move> reorder(ZOrder zOrder, List<Node> shapes);
+}
@@ -0,0 +1,114 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.ArrayPattern;
+import group2128.sadproject.sadproject.factory.ArrayShape;
+import group2128.sadproject.sadproject.factory.GroupShape;
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A concrete command that replaces the selected shapes with an {@link ArrayShape} of copies of them.
+ * <p>
+ * A single selected shape becomes the source of the array; several selected shapes are first
+ * grouped, in stacking order, into a {@link GroupShape} that becomes the source. The array takes
+ * the place of the topmost selected shape in the stacking order of the canvas, and its first copy
+ * stays where the selection was. Whatever the number of copies, the canvas children are replaced in
+ * one update and the whole operation is a single entry in the command history.
+ * </p>
+ */
+public class ReplicateCommand extends SelectionCommand {
+
+    /**
+     * Holds the history of executed commands, so that dragging the new array can be undone.
+     */
+    private CommandHistory commandHistory;
+
+    /**
+     * The layout of the copies.
+     */
+    private ArrayPattern pattern;
+
+    /**
+     * The array created by the last execution, or {@code null} if nothing was replicated.
+     */
+    private ArrayShape array;
+
+    /**
+     * Sets the command history used to record the interactions with the new array.
+     *
+     * @param commandHistory the command history instance
+     */
+    public void setCommandHistory(CommandHistory commandHistory) {
+        this.commandHistory = commandHistory;
+    }
+
+    /**
+     * Sets the layout of the copies.
+     *
+     * @param pattern the pattern of the array to create
+     */
+    public void setPattern(ArrayPattern pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * Returns the array created by the last execution.
+     *
+     * @return the new {@link ArrayShape}, or {@code null} if no shape of the canvas was selected
+     */
+    public ArrayShape getArray() {
+        return array;
+    }
+
+    /**
+     * Executes the replicate operation.
+     */
+    @Override
+    public void execute() {
+        array = null;
+        if (pattern == null) {
+            return;
+        }
+        ObservableList<Node> children = getDrawingCanvas().getChildren();
+        Set<Object> selected = new HashSet<>(getSelectedShapes());
+        List<Node> kept = new ArrayList<>(children.size());
+        List<SelectableShape> members = new ArrayList<>(selected.size());
+        int insertIndex = 0;
+        for (Node child : children) {
+            if (selected.contains(child)) {
+                members.add((SelectableShape) child);
+                insertIndex = kept.size();
+            } else {
+                kept.add(child);
+            }
+        }
+        if (members.isEmpty()) {
+            return;
+        }
+
+        children.setAll(kept);
+        SelectableShape source = members.size() == 1 ? members.get(0) : new GroupShape(members);
+        array = new ArrayShape(source, pattern);
+        InteractionCommand.track(getDrawingCanvas(), commandHistory);
+        children.add(insertIndex, array);
+    }
+
+    /**
+     * Undoes the previously executed replicate operation.
+     *
+     * <p>If a memento of the drawing canvas is available, this method restores
+     * the canvas to its previous state before the shapes were replicated.</p>
+     */
+    @Override
+    public void undo() {
+        if (getDrawingCanvasMemento() != null) {
+            getDrawingCanvasMemento().restore();
+        }
+    }
+}
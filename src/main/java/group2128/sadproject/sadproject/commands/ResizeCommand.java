@@ -1,6 +1,8 @@
 package group2128.sadproject.sadproject.commands;
 
 import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.strategy.GestureDispatcher;
+import group2128.sadproject.sadproject.strategy.ShapeTool;
 
 /**
  * An abstract command that provides common behavior for resizing shapes.
@@ -10,11 +12,12 @@ import group2128.sadproject.sadproject.factory.SelectableShape;
  * </p>
  *
  * <p>
- * Subclasses must implement the {@link Command#execute()} method to define
- * how the shape should be resized.
+ * A resize command is a {@link ShapeTool}: executing it arms it on the {@link GestureDispatcher} of the
+ * canvas, which routes the next gesture starting on the shape to the {@link #press}, {@link #drag} and
+ * {@link #release} methods of the subclass.
  * </p>
  */
-public abstract class ResizeCommand extends Command {
+public abstract class ResizeCommand extends Command implements ShapeTool {
 
     /**
      * The shape that will be resized by this command.
@@ -31,6 +34,19 @@ public abstract class ResizeCommand extends Command {
      */
     private boolean shouldTriggerInteraction = true;
 
+    /**
+     * Arms this command on the gesture dispatcher of the canvas in {@link GestureDispatcher.Mode#RESIZE}
+     * mode, so the next gesture on the shape resizes it. Does nothing if the command has no shape or
+     * the canvas has no dispatcher.
+     */
+    @Override
+    public void execute() {
+        GestureDispatcher dispatcher = GestureDispatcher.find(getDrawingCanvas());
+        if (shape != null && dispatcher != null) {
+            dispatcher.arm(GestureDispatcher.Mode.RESIZE, this);
+        }
+    }
+
     /**
      * Sets the shape to be resized by this command.
      *
@@ -45,6 +61,7 @@ public abstract class ResizeCommand extends Command {
      *
      * @return the {@link SelectableShape} that will be resized
      */
+    @Override
     public SelectableShape getShape() {
         return this.shape;
     }
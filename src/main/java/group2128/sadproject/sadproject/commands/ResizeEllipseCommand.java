@@ -20,84 +20,83 @@ import javafx.scene.Cursor;
 public class ResizeEllipseCommand extends ResizeCommand {
 
     /**
-     * Executes the ellipse resize interaction.
-     * <p>
-     * When the shape is selected and the mouse is pressed on it, the initial state
-     * (radii and center coordinates) is saved. During the drag gesture, the radii
-     * are recalculated based on the distance from the center point, ensuring that the
-     * ellipse keeps its original aspect ratio.
-     * </p>
-     * <ul>
-     *     <li><b>Mouse Press:</b> Stores the current radii and center of the ellipse, and sets the cursor to resize mode.</li>
-     *     <li><b>Mouse Drag:</b> Computes new radii based on mouse position and applies aspect ratio-preserving resizing.</li>
-     *     <li><b>Mouse Release:</b> Restores the default cursor.</li>
-     * </ul>
+     * The radii of the ellipse when the gesture started.
+     */
+    private double originalDimensionX;
+
+    private double originalDimensionY;
+
+    /**
+     * The center of the ellipse when the gesture started.
+     */
+    private double centerX;
+
+    private double centerY;
+
+    /**
+     * Starts the resize: stores the current radii and center of the ellipse, and sets the cursor to
+     * resize mode.
+     *
+     * @param x     the x-coordinate of the pointer
+     * @param y     the y-coordinate of the pointer
+     * @param shift whether the shift key is held
+     * @return {@code true}, the ellipse takes every gesture starting on it
+     */
+    @Override
+    public boolean press(double x, double y, boolean shift) {
+        EllipseShape shape = (EllipseShape) getShape();
+        shape.setCursor(Cursor.SE_RESIZE);
+        originalDimensionX = shape.getDimensionX();
+        originalDimensionY = shape.getDimensionY();
+        centerX = shape.getAnchorX();
+        centerY = shape.getAnchorY();
+        return true;
+    }
+
+    /**
+     * Computes new radii from the distance between the center and the pointer, keeping the original
+     * aspect ratio of the ellipse.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
      */
     @Override
-    public void execute() {
+    public void drag(double x, double y) {
+        EllipseShape shape = (EllipseShape) getShape();
+        if(getShouldTriggerInteraction()) {
+            shape.setInteractionProperty(true);
+            setShouldTriggerInteraction(false);
+        }
+
+        Point2D localPoint = pointerPosition(shape, x, y);
+        double mouseX = localPoint.getX();
+        double mouseY = localPoint.getY();
+
+        double deltaX = Math.max(Math.abs(mouseX - centerX), 1);
+        double deltaY = Math.max(Math.abs(mouseY - centerY), 1);
 
-        EllipseShape shape = (EllipseShape) super.getShape();
+        double ratio = originalDimensionY / originalDimensionX;
 
-        if (shape == null) {
-            return;
+        if (deltaX * ratio > deltaY) {
+            deltaY = deltaX * ratio;
+        } else {
+            deltaX = deltaY / ratio;
         }
 
-        shape.setOnMousePressed(event -> {
-            if (shape.isSelected()) {
-                shape.setCursor(Cursor.SE_RESIZE);
-
-                double[] data = {
-                        shape.getDimensionX(),
-                        shape.getDimensionY(),
-                        shape.getAnchorX(),
-                        shape.getAnchorY()
-                };
-                shape.setUserData(data);
-                event.consume();
-            }
-        });
-
-        shape.setOnMouseDragged(event -> {
-            if (shape.isSelected()) {
-                if(getShouldTriggerInteraction()) {
-                    shape.setInteractionProperty(true);
-                    setShouldTriggerInteraction(false);
-                }
-                double[] data = (double[]) shape.getUserData();
-                double originalDimensionX = data[0];
-                double originalDimensionY = data[1];
-                double centerX = data[2];
-                double centerY = data[3];
-
-                Point2D localPoint = shape.getParent().sceneToLocal(event.getSceneX(), event.getSceneY());
-                double mouseX = localPoint.getX();
-                double mouseY = localPoint.getY();
-
-
-                double deltaX = Math.max(Math.abs(mouseX - centerX), 1);
-                double deltaY = Math.max(Math.abs(mouseY - centerY), 1);
-
-                double ratio = originalDimensionY / originalDimensionX;
-
-                if (deltaX * ratio > deltaY) {
-                    deltaY = deltaX * ratio;
-                } else {
-                    deltaX = deltaY / ratio;
-                }
-
-                shape.setDimensionX(deltaX);
-                shape.setDimensionY(deltaY);
-
-                event.consume();
-            }
-        });
-
-        shape.setOnMouseReleased(event -> {
-            if (shape.isSelected()) {
-                shape.setCursor(Cursor.DEFAULT);
-                setShouldTriggerInteraction(true);
-            }
-        });
+        shape.setDimensionX(deltaX);
+        shape.setDimensionY(deltaY);
+    }
+
+    /**
+     * Ends the resize and restores the default cursor.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
+     */
+    @Override
+    public void release(double x, double y) {
+        ((EllipseShape) getShape()).setCursor(Cursor.DEFAULT);
+        setShouldTriggerInteraction(true);
     }
 
     /**
@@ -2,88 +2,93 @@ package group2128.sadproject.sadproject.commands;
 
 import group2128.sadproject.sadproject.factory.PolygonShape;
 import javafx.collections.ObservableList;
+import javafx.geometry.Point2D;
 import javafx.scene.Cursor;
 import java.util.ArrayList;
 import java.util.List;
 
 public class ResizePolygonCommand extends ResizeCommand{
     /**
-     * Executes the command.
-     * <p>
-     * Subclasses must provide a concrete implementation of this method to define
-     * the specific action to be performed when the command is invoked.
-     * </p>
+     * The points of the polygon when the gesture started.
+     */
+    private List<Double> originalPoints;
+
+    /**
+     * Starts the resize: saves the current points of the polygon and sets the cursor to resize mode.
+     *
+     * @param x     the x-coordinate of the pointer
+     * @param y     the y-coordinate of the pointer
+     * @param shift whether the shift key is held
+     * @return {@code true}, the polygon takes every gesture starting on it
      */
     @Override
-    public void execute() {
+    public boolean press(double x, double y, boolean shift) {
         PolygonShape shape = (PolygonShape) getShape();
+        shape.setCursor(Cursor.SE_RESIZE);
+        originalPoints = new ArrayList<>(shape.getPoints());
+        return true;
+    }
 
-        if (shape == null) {
-            return;
+    /**
+     * Scales the polygon about the centroid of its original points, by the ratio between the distance
+     * from the centroid to the pointer and the distance from the centroid to the first vertex.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
+     */
+    @Override
+    public void drag(double x, double y) {
+        PolygonShape shape = (PolygonShape) getShape();
+        if (getShouldTriggerInteraction()) {
+            shape.setInteractionProperty(true);
+            setShouldTriggerInteraction(false);
         }
 
-        shape.setOnMousePressed(event -> {
-            if (shape.isSelected()) {
-                shape.setCursor(Cursor.SE_RESIZE);
-
-
-                shape.setUserData(new ArrayList<>(shape.getPoints()));
-                event.consume();
-            }
-        });
-
-        shape.setOnMouseDragged(event -> {
-            if (shape.isSelected()) {
-                if (getShouldTriggerInteraction()) {
-                    shape.setInteractionProperty(true);
-                    setShouldTriggerInteraction(false);
-                }
-
-                @SuppressWarnings("unchecked")
-                List<Double> originalPoints = (List<Double>) shape.getUserData();
-
-                double centerX = 0, centerY = 0;
-                for (int i = 0; i < originalPoints.size(); i += 2) {
-                    centerX += originalPoints.get(i);
-                    centerY += originalPoints.get(i + 1);
-                }
-
-                int pointCount = originalPoints.size() / 2;
-                centerX /= pointCount;
-                centerY /= pointCount;
+        double centerX = 0, centerY = 0;
+        for (int i = 0; i < originalPoints.size(); i += 2) {
+            centerX += originalPoints.get(i);
+            centerY += originalPoints.get(i + 1);
+        }
 
-                double mouseX = event.getX();
-                double mouseY = event.getY();
+        int pointCount = originalPoints.size() / 2;
+        centerX /= pointCount;
+        centerY /= pointCount;
 
-                double currentDist = Math.hypot(mouseX - centerX, mouseY - centerY);
-                double baseDist = Math.hypot(originalPoints.get(0) - centerX, originalPoints.get(1) - centerY);
+        Point2D mouse = shape.parentToLocal(x, y);
+        double mouseX = mouse.getX();
+        double mouseY = mouse.getY();
 
-                double scale = Math.max(currentDist / baseDist, 0.1);
+        double currentDist = Math.hypot(mouseX - centerX, mouseY - centerY);
+        double baseDist = Math.hypot(originalPoints.get(0) - centerX, originalPoints.get(1) - centerY);
 
-                ObservableList<Double> newPoints = shape.getPoints();
-                newPoints.clear();
+        double scale = Math.max(currentDist / baseDist, 0.1);
 
-                for (int i = 0; i < originalPoints.size(); i += 2) {
-                    double ox = originalPoints.get(i);
-                    double oy = originalPoints.get(i + 1);
+        ObservableList<Double> newPoints = shape.getPoints();
+        newPoints.clear();
 
-                    double scaledX = centerX + (ox - centerX) * scale;
-                    double scaledY = centerY + (oy - centerY) * scale;
+        for (int i = 0; i < originalPoints.size(); i += 2) {
+            double ox = originalPoints.get(i);
+            double oy = originalPoints.get(i + 1);
 
-                    newPoints.add(scaledX);
-                    newPoints.add(scaledY);
-                }
+            double scaledX = centerX + (ox - centerX) * scale;
+            double scaledY = centerY + (oy - centerY) * scale;
 
-                event.consume();
-            }
-        });
+            newPoints.add(scaledX);
+            newPoints.add(scaledY);
+        }
+    }
 
-        shape.setOnMouseReleased(event -> {
-            if (shape.isSelected()) {
-                shape.setCursor(Cursor.DEFAULT);
-                setShouldTriggerInteraction(true);
-            }
-        });
+    /**
+     * Ends the resize and restores the default cursor.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
+     */
+    @Override
+    public void release(double x, double y) {
+        ((PolygonShape) getShape()).setCursor(Cursor.DEFAULT);
+        setShouldTriggerInteraction(true);
+        originalPoints = null;
     }
 
     /**
@@ -19,86 +19,86 @@ import javafx.scene.Cursor;
 public class ResizeRectangleCommand extends ResizeCommand {
 
     /**
-     * Executes the rectangle resize interaction.
-     * <p>
-     * When the shape is selected and the mouse is pressed, the initial position and size
-     * (center point, width, and height) are stored. During the drag gesture, the new dimensions
-     * are computed based on the mouse position while maintaining the original width-to-height ratio.
-     * </p>
-     * <ul>
-     *     <li><b>Mouse Press:</b> Saves the current width, height, and center position of the rectangle. Sets the cursor to resize mode.</li>
-     *     <li><b>Mouse Drag:</b> Calculates the distance from the center to the mouse pointer. Adjusts both width and height proportionally and updates the shape accordingly.</li>
-     *     <li><b>Mouse Release:</b> Restores the default cursor after resizing ends.</li>
-     * </ul>
+     * The center of the rectangle when the gesture started.
+     */
+    private double centerX;
+
+    private double centerY;
+
+    /**
+     * The size of the rectangle when the gesture started.
+     */
+    private double originalWidth;
+
+    private double originalHeight;
+
+    /**
+     * Starts the resize: saves the current width, height, and center position of the rectangle,
+     * and sets the cursor to resize mode.
+     *
+     * @param x     the x-coordinate of the pointer
+     * @param y     the y-coordinate of the pointer
+     * @param shift whether the shift key is held
+     * @return {@code true}, the rectangle takes every gesture starting on it
      */
     @Override
-    public void execute() {
+    public boolean press(double x, double y, boolean shift) {
+        RectangleShape shape = (RectangleShape) getShape();
+        shape.setCursor(Cursor.SE_RESIZE);
+        centerX = shape.getAnchorX();
+        centerY = shape.getAnchorY();
+        originalWidth = shape.getDimensionX();
+        originalHeight = shape.getDimensionY();
+        return true;
+    }
 
-        RectangleShape shape = (RectangleShape) super.getShape();
+    /**
+     * Resizes the rectangle around its center: calculates the distance from the center to the pointer,
+     * and adjusts both width and height proportionally, keeping the original width-to-height ratio.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
+     */
+    @Override
+    public void drag(double x, double y) {
+        RectangleShape shape = (RectangleShape) getShape();
+        if(getShouldTriggerInteraction()) {
+            shape.setInteractionProperty(true);
+            setShouldTriggerInteraction(false);
+        }
+
+        Point2D localPoint = pointerPosition(shape, x, y);
+        double mouseX = localPoint.getX();
+        double mouseY = localPoint.getY();
 
-        if (shape == null){
-            return;
+        double deltaX = Math.max(Math.abs(mouseX - centerX), 1);
+        double deltaY = Math.max(Math.abs(mouseY - centerY), 1);
+
+        double ratio = originalHeight/originalWidth;
+
+        if (deltaX * ratio > deltaY) {
+            deltaY = deltaX * ratio;
+        } else {
+            deltaX = deltaY / ratio;
         }
 
-        shape.setOnMousePressed(event -> {
-            if (shape.isSelected()) {
-                shape.setCursor(Cursor.SE_RESIZE);
-
-                double[] data = {
-                        shape.getAnchorX(),
-                        shape.getAnchorY(),
-                        shape.getDimensionX(),
-                        shape.getDimensionY()
-                };
-                shape.setUserData(data);
-                event.consume();
-            }
-        });
-
-        shape.setOnMouseDragged(event -> {
-            if (shape.isSelected()) {
-                if(getShouldTriggerInteraction()) {
-                    shape.setInteractionProperty(true);
-                    setShouldTriggerInteraction(false);
-                }
-                double[] data = (double[]) shape.getUserData();
-                double centerX = data[0];
-                double centerY = data[1];
-                double originalWidth = data[2];
-                double originalHeight = data[3];
-
-                Point2D localPoint = shape.getParent().sceneToLocal(event.getSceneX(), event.getSceneY());
-                double mouseX = localPoint.getX();
-                double mouseY = localPoint.getY();
-
-
-                double deltaX = Math.max(Math.abs(mouseX - centerX), 1);
-                double deltaY = Math.max(Math.abs(mouseY - centerY), 1);
-
-                double ratio = originalHeight/originalWidth;
-
-                if (deltaX * ratio > deltaY) {
-                    deltaY = deltaX * ratio;
-                } else {
-                    deltaX = deltaY / ratio;
-                }
-
-                shape.setWidth(deltaX*2);
-                shape.setHeight(deltaY*2);
-
-                shape.setX(centerX - deltaX);
-                shape.setY(centerY - deltaY);
-
-                event.consume();
-            }
-        });
-
-        shape.setOnMouseReleased(event -> {
-            if (shape.isSelected()) {
-                shape.setCursor(Cursor.DEFAULT);
-                setShouldTriggerInteraction(true);
-            }
-        });
+        shape.setWidth(deltaX*2);
+        shape.setHeight(deltaY*2);
+
+        shape.setX(centerX - deltaX);
+        shape.setY(centerY - deltaY);
+    }
+
+    /**
+     * Ends the resize and restores the default cursor.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
+     */
+    @Override
+    public void release(double x, double y) {
+        ((RectangleShape) getShape()).setCursor(Cursor.DEFAULT);
+        setShouldTriggerInteraction(true);
     }
 
     /**
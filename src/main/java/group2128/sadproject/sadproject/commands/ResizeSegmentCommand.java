@@ -1,6 +1,7 @@
 package group2128.sadproject.sadproject.commands;
 
 import group2128.sadproject.sadproject.factory.SegmentShape;
+import javafx.geometry.Point2D;
 import javafx.scene.Cursor;
 
 /**
@@ -18,57 +19,48 @@ import javafx.scene.Cursor;
 public class ResizeSegmentCommand extends ResizeCommand {
 
     /**
-     * Executes the resize operation for a {@link SegmentShape} by enabling endpoint dragging.
-     * <p>
-     * When the segment is selected:
-     * </p>
-     * <ul>
-     *     <li><b>Mouse Press:</b> Stores the initial start point of the segment and changes the cursor to a resize style.</li>
-     *     <li><b>Mouse Drag:</b> Continuously updates the endpoint of the segment as the user drags the mouse, effectively resizing the segment.</li>
-     *     <li><b>Mouse Release:</b> Restores the default cursor once the resize operation ends.</li>
-     * </ul>
-     * <p>
-     * This behavior allows the user to interactively control the length and orientation of the segment.
-     * </p>
+     * Starts moving the endpoint of the segment and changes the cursor to a resize style.
+     *
+     * @param x     the x-coordinate of the pointer
+     * @param y     the y-coordinate of the pointer
+     * @param shift whether the shift key is held
+     * @return {@code true}, the segment takes every gesture starting on it
      */
     @Override
-    public void execute() {
-        SegmentShape shape = (SegmentShape) super.getShape();
+    public boolean press(double x, double y, boolean shift) {
+        ((SegmentShape) getShape()).setCursor(Cursor.SE_RESIZE);
+        return true;
+    }
 
-        if (shape == null){
-            return;
+    /**
+     * Moves the endpoint of the segment to the pointer, effectively resizing and rotating the segment.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
+     */
+    @Override
+    public void drag(double x, double y) {
+        SegmentShape shape = (SegmentShape) getShape();
+        if(getShouldTriggerInteraction()) {
+            shape.setInteractionProperty(true);
+            setShouldTriggerInteraction(false);
         }
+        Point2D localPoint = pointerPosition(shape, x, y);
 
-        shape.setOnMousePressed(event -> {
-            if (shape.isSelected()) {
-                shape.setCursor(Cursor.SE_RESIZE);
-
-                event.consume();
-            }
-        });
-
-        shape.setOnMouseDragged(event -> {
-            if (shape.isSelected()) {
-                if(getShouldTriggerInteraction()) {
-                    shape.setInteractionProperty(true);
-                    setShouldTriggerInteraction(false);
-                }
-                double localX = shape.getParent().sceneToLocal(event.getSceneX(), event.getSceneY()).getX();
-                double localY = shape.getParent().sceneToLocal(event.getSceneX(), event.getSceneY()).getY();
-
-                shape.setEndPointX(localX);
-                shape.setEndPointY(localY);
-
-                event.consume();
-            }
-        });
+        shape.setEndPointX(localPoint.getX());
+        shape.setEndPointY(localPoint.getY());
+    }
 
-        shape.setOnMouseReleased(event -> {
-            if (shape.isSelected()) {
-                shape.setCursor(Cursor.DEFAULT);
-                setShouldTriggerInteraction(true);
-            }
-        });
+    /**
+     * Restores the default cursor once the resize operation ends.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
+     */
+    @Override
+    public void release(double x, double y) {
+        ((SegmentShape) getShape()).setCursor(Cursor.DEFAULT);
+        setShouldTriggerInteraction(true);
     }
 
     /**
@@ -13,66 +13,82 @@ import javafx.scene.Cursor;
  */
 public class ResizeTextCommand extends ResizeCommand {
 
-    @Override
-    public void execute() {
-        TextShape shape = (TextShape) getShape();
-
-        if (shape == null) {
-            return;
-        }
-
-        shape.setOnMousePressed(event -> {
-            if (shape.isSelected()) {
-                shape.setCursor(Cursor.SE_RESIZE);
-
-                Point2D center = new Point2D(
-                        shape.getBoundsInParent().getMinX() + shape.getBoundsInParent().getWidth() / 2,
-                        shape.getBoundsInParent().getMinY() + shape.getBoundsInParent().getHeight() / 2
-                );
-
-                double initialScale = shape.getScaleX();
-                Point2D base = shape.getParent().sceneToLocal(event.getSceneX(), event.getSceneY());
+    /**
+     * The center of the text when the gesture started.
+     */
+    private Point2D center;
 
-                Object[] data = new Object[]{ center, base, initialScale };
-                shape.setUserData(data);
-                event.consume();
-            }
-        });
+    /**
+     * The pointer position when the gesture started.
+     */
+    private Point2D base;
 
-        shape.setOnMouseDragged(event -> {
-            if (shape.isSelected()) {
-                if (getShouldTriggerInteraction()) {
-                    shape.setInteractionProperty(true);
-                    setShouldTriggerInteraction(false);
-                }
+    /**
+     * The scale of the text when the gesture started.
+     */
+    private double initialScale;
 
-                Object[] data = (Object[]) shape.getUserData();
-                Point2D center = (Point2D) data[0];
-                Point2D base = (Point2D) data[1];
-                double initialScale = (double) data[2];
+    /**
+     * Starts the resize: saves the center of the text, the pointer position and the current scale,
+     * and sets the cursor to resize mode.
+     *
+     * @param x     the x-coordinate of the pointer
+     * @param y     the y-coordinate of the pointer
+     * @param shift whether the shift key is held
+     * @return {@code true}, the text takes every gesture starting on it
+     */
+    @Override
+    public boolean press(double x, double y, boolean shift) {
+        TextShape shape = (TextShape) getShape();
+        shape.setCursor(Cursor.SE_RESIZE);
+
+        center = new Point2D(
+                shape.getBoundsInParent().getMinX() + shape.getBoundsInParent().getWidth() / 2,
+                shape.getBoundsInParent().getMinY() + shape.getBoundsInParent().getHeight() / 2
+        );
+        initialScale = shape.getScaleX();
+        base = new Point2D(x, y);
+        return true;
+    }
 
-                Point2D current = shape.getParent().sceneToLocal(event.getSceneX(), event.getSceneY());
-                double baseDistance = base.distance(center);
-                double currentDistance = current.distance(center);
+    /**
+     * Scales the text uniformly by the ratio between the current and the initial distance from its
+     * center to the pointer.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
+     */
+    @Override
+    public void drag(double x, double y) {
+        TextShape shape = (TextShape) getShape();
+        if (getShouldTriggerInteraction()) {
+            shape.setInteractionProperty(true);
+            setShouldTriggerInteraction(false);
+        }
 
-                double scale = currentDistance / baseDistance;
-                double newScale = initialScale * scale;
+        Point2D current = new Point2D(x, y);
+        double baseDistance = base.distance(center);
+        double currentDistance = current.distance(center);
 
-                shape.setScaleX(newScale);
-                shape.setScaleY(newScale);
+        double scale = currentDistance / baseDistance;
+        double newScale = initialScale * scale;
 
-                shape.setWrappingWidth(shape.getWrappingWidth()/newScale);
+        shape.setScaleX(newScale);
+        shape.setScaleY(newScale);
 
-                event.consume();
-            }
-        });
+        shape.setWrappingWidth(shape.getWrappingWidth()/newScale);
+    }
 
-        shape.setOnMouseReleased(event -> {
-            if (shape.isSelected()) {
-                shape.setCursor(Cursor.DEFAULT);
-                setShouldTriggerInteraction(true);
-            }
-        });
+    /**
+     * Ends the resize and restores the default cursor.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
+     */
+    @Override
+    public void release(double x, double y) {
+        ((TextShape) getShape()).setCursor(Cursor.DEFAULT);
+        setShouldTriggerInteraction(true);
     }
 
     /**
@@ -4,19 +4,18 @@ import group2128.sadproject.sadproject.factory.SelectableShape;
 import javafx.scene.Node;
 
 /**
- * A command that performs a rotation on the selected shape.
+ * A command that performs a rotation on the selected shapes.
  * <p>
  * This class extends the abstract {@link Command} class and overrides the
  * {@link #execute()} method to rotate the shape by a specified angle in degrees.
  * </p>
  */
-public class RotateCommand extends Command {
+public class RotateCommand extends SelectionCommand {
 
-    private SelectableShape selectedShape;
     private double angle;
 
     /**
-     * Executes the command to rotate the selected shape.
+     * Executes the command to rotate every selected shape.
      * <p>
      * This operation adds the specified angle to the shape's current rotation,
      * effectively rotating it around its center.
@@ -24,8 +23,9 @@ public class RotateCommand extends Command {
      */
     @Override
     public void execute() {
-        Node node = (Node) selectedShape;
-        node.setRotate(angle);
+        for (SelectableShape shape : getSelectedShapes()) {
+            ((Node) shape).setRotate(angle);
+        }
     }
 
     /**
@@ -41,14 +41,6 @@ public class RotateCommand extends Command {
         }
     }
 
-    /**
-     * Sets the shape that this command will operate on.
-     *
-     * @param selectedShape the shape to be rotated
-     */
-    public void setSelectedShape(SelectableShape selectedShape) {
-        this.selectedShape = selectedShape;
-    }
 
     /**
      * Sets the rotation angle to apply during execution.
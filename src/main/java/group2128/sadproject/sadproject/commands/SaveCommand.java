@@ -1,10 +1,18 @@
 package group2128.sadproject.sadproject.commands;
 
 import group2128.sadproject.sadproject.factory.EllipseShape;
+import group2128.sadproject.sadproject.factory.ArrayShape;
+import group2128.sadproject.sadproject.factory.GroupShape;
 import group2128.sadproject.sadproject.factory.PolygonShape;
+import group2128.sadproject.sadproject.factory.PolylineShape;
 import group2128.sadproject.sadproject.factory.RectangleShape;
 import group2128.sadproject.sadproject.factory.SegmentShape;
 import group2128.sadproject.sadproject.factory.TextShape;
+import group2128.sadproject.sadproject.layers.LayerManager;
+import group2128.sadproject.sadproject.layers.ZOrder;
+import group2128.sadproject.sadproject.styles.StyleManager;
+import group2128.sadproject.sadproject.symbols.SymbolInstance;
+import group2128.sadproject.sadproject.symbols.SymbolLibrary;
 import javafx.scene.Node;
 import javafx.scene.layout.AnchorPane;
 import javafx.stage.FileChooser;
@@ -71,9 +79,28 @@ public class SaveCommand extends Command {
      *     <li>{@code SegmentShape} — saved with start and end coordinates, and stroke</li>
      *      <li>{@code TextShape} — saved with start and end coordinates, width, font, scaleX, scaleY, fill and stroke</li>
      *       <li>{@code PolygonShape} — saved with fill and stroke, and points list</li>
+     *     <li>{@code PolylineShape} — saved with stroke and points list</li>
+     *     <li>{@code GroupShape} — saved with its transform and the nested list of its members</li>
+     *     <li>{@code ArrayShape} — saved with its transform, its source shape and the parameters of its pattern</li>
+     *     <li>{@code SymbolInstance} — saved with its transform and the identifier of its symbol</li>
      * </ul>
      * </p>
      * <p>
+     * A drawing with a single layer in its initial state is saved as a plain array of shapes. Otherwise
+     * the file holds an object with the {@code layers}, bottom to top, and the {@code shapes}, each
+     * one recording the identifier of its {@code layer}. Every shape records its stacking order key
+     * as {@code z}.
+     * </p>
+     * <p>
+     * The shared styles of the drawing, if any, are written once in the {@code styles} array of the
+     * object form. A shape using a style records its identifier as {@code style}, and omits the colors
+     * and the stroke width it takes from the style.
+     * </p>
+     * <p>
+     * Likewise, the definitions of the symbols, if any, are written once in the {@code symbols} array,
+     * the instances only recording the identifier of their symbol.
+     * </p>
+     * <p>
      * If the canvas or stage is not initialized, the method exits without performing any operation.
      * </p>
      */
@@ -84,6 +111,12 @@ public class SaveCommand extends Command {
             return;
         }
 
+        LayerManager layers = LayerManager.of(canvas);
+        ZOrder.of(canvas);
+        StyleManager styles = StyleManager.of(canvas);
+        boolean styled = !styles.getStyles().isEmpty();
+        SymbolLibrary symbols = SymbolLibrary.of(canvas);
+        boolean withSymbols = !symbols.getSymbols().isEmpty();
         JSONArray shapesArray = new JSONArray();
 
         for (Node node : canvas.getChildren()) {
@@ -104,13 +137,52 @@ public class SaveCommand extends Command {
             } else if (node instanceof PolygonShape){
                 PolygonShape polygon = (PolygonShape) node;
                 polygon.saveJson(obj);
+            } else if (node instanceof PolylineShape) {
+                PolylineShape polyline = (PolylineShape) node;
+                polyline.saveJson(obj);
+            } else if (node instanceof GroupShape) {
+                GroupShape group = (GroupShape) node;
+                group.saveJson(obj);
+            } else if (node instanceof ArrayShape) {
+                ArrayShape array = (ArrayShape) node;
+                array.saveJson(obj);
+            } else if (node instanceof SymbolInstance) {
+                SymbolInstance instance = (SymbolInstance) node;
+                instance.saveJson(obj);
             }else{
                 continue;
             }
 
+            obj.put("z", ZOrder.getKey(node));
+            if (layers.isLayered()) {
+                obj.put("layer", LayerManager.getLayerId(node));
+            }
+            // a shape whose look no longer matches its style keeps its own values when loaded
+            if (styles.matchesStyle(node)) {
+                obj.remove("fill");
+                obj.remove("stroke");
+                obj.remove("strokeWidth");
+                obj.put("style", StyleManager.getStyleId(node));
+            }
             shapesArray.put(obj);
         }
 
+        String content;
+        if (layers.isLayered() || styled || withSymbols) {
+            JSONObject drawing = new JSONObject();
+            drawing.put("layers", layers.toJson());
+            if (styled) {
+                drawing.put("styles", styles.toJson());
+            }
+            if (withSymbols) {
+                drawing.put("symbols", symbols.toJson());
+            }
+            drawing.put("shapes", shapesArray);
+            content = drawing.toString(4);
+        } else {
+            content = shapesArray.toString(4);
+        }
+
         File fileToSave;
 
         if (this.outputFile != null) {
@@ -125,7 +197,7 @@ public class SaveCommand extends Command {
 
         if (fileToSave != null) {
             try (FileWriter writer = new FileWriter(fileToSave)) {
-                writer.write(shapesArray.toString(4));
+                writer.write(content);
                 writer.flush();
             } catch (IOException e) {
                 System.err.println("Errore nel salvataggio: " + e.getMessage());
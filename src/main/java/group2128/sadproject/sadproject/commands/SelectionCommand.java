@@ -0,0 +1,69 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.SelectableShape;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An abstract command that operates on the current selection of shapes.
+ * <p>
+ * The selection can hold a single shape or any number of shapes. Concrete commands apply
+ * their change to every selected shape in a single {@link #execute()} call, so a batch
+ * operation costs one canvas snapshot (taken by {@link #saveBackup()} before execution)
+ * and produces a single entry in the command history, regardless of how many shapes it touches.
+ * </p>
+ *
+ * <p>
+ * Subclasses must implement the {@link Command#execute()} method to define
+ * how the selected shapes are modified.
+ * </p>
+ */
+public abstract class SelectionCommand extends Command {
+
+    /**
+     * The shapes this command operates on, in selection order.
+     */
+    private final List<SelectableShape> selectedShapes = new ArrayList<>();
+
+    /**
+     * Sets a single shape as the target of this command.
+     * <p>
+     * Any previously set shapes are discarded. Passing {@code null} leaves the command
+     * without targets, making its execution a no-op.
+     * </p>
+     *
+     * @param selectedShape the {@link SelectableShape} to operate on, or {@code null}
+     */
+    public void setSelectedShape(SelectableShape selectedShape) {
+        selectedShapes.clear();
+        if (selectedShape != null) {
+            selectedShapes.add(selectedShape);
+        }
+    }
+
+    /**
+     * Sets the shapes this command operates on.
+     * <p>
+     * Any previously set shapes are discarded. The collection is copied, so later changes
+     * to the caller's selection do not affect the command.
+     * </p>
+     *
+     * @param shapes the {@link SelectableShape} instances to operate on
+     */
+    public void setSelectedShapes(Collection<? extends SelectableShape> shapes) {
+        selectedShapes.clear();
+        selectedShapes.addAll(shapes);
+    }
+
+    /**
+     * Returns the shapes this command operates on.
+     *
+     * @return an unmodifiable view of the selected shapes, in selection order
+     */
+    public List<SelectableShape> getSelectedShapes() {
+        return Collections.unmodifiableList(selectedShapes);
+    }
+}
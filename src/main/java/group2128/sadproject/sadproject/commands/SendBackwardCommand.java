@@ -0,0 +1,24 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.layers.ZOrder;
+import javafx.scene.Node;
+
+import java.util.List;
+
+/**
+ * A command that sends the selected shapes one step backward on the drawing canvas.
+ * <p>
+ * Each selected shape is moved just below the previous unselected shape drawn under it, if any.
+ * The selected shapes keep their relative stacking order.
+ * </p>
+ */
+public class SendBackwardCommand extends ReorderCommand {
+
+    /**
+     * Sends the selected shapes one step backward.
+     */
+    @Override
+    protected List<ZOrder.Move> reorder(ZOrder zOrder, List<Node> shapes) {
+        return zOrder.sendBackward(shapes);
+    }
+}
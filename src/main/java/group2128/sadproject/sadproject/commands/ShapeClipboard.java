@@ -0,0 +1,173 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.factory.ShapeLoader;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.input.DataFormat;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Holds copied shapes in serialized form, ready to be pasted any number of times.
+ * <p>
+ * Copying only serializes the selection to the same JSON form used to save a drawing, so it does
+ * not build any JavaFX node and its cost does not depend on what is later done with the copy.
+ * The shapes are rebuilt lazily, every time they are pasted, as detached nodes that the caller can
+ * add to the canvas in a single batch.
+ * </p>
+ * <p>
+ * When enabled, the serialized buffer is also published on the system {@link Clipboard} under a
+ * custom {@link DataFormat}, so a selection copied in one instance of the application can be
+ * pasted in another one. Content found there takes precedence over the local buffer.
+ * </p>
+ */
+public class ShapeClipboard {
+
+    /**
+     * The data format under which shapes are published on the system clipboard.
+     */
+    public static final DataFormat SHAPES_FORMAT = dataFormat("application/x-sadproject-shapes");
+
+    /**
+     * Whether the system clipboard is used in addition to the local buffer.
+     */
+    private final boolean systemClipboard;
+
+    /**
+     * The serialized shapes of the last local copy, or {@code null} if nothing was copied.
+     */
+    private String buffer;
+
+    /**
+     * Whether there is nothing to paste, neither locally nor on the system clipboard.
+     */
+    private final ReadOnlyBooleanWrapper empty = new ReadOnlyBooleanWrapper(true);
+
+    /**
+     * Constructs a clipboard that also uses the system clipboard.
+     */
+    public ShapeClipboard() {
+        this(true);
+    }
+
+    /**
+     * Constructs a clipboard.
+     *
+     * @param systemClipboard {@code true} to also publish and read the shapes on the system clipboard,
+     *                        {@code false} to keep them local to this instance
+     */
+    public ShapeClipboard(boolean systemClipboard) {
+        this.systemClipboard = systemClipboard;
+    }
+
+    /**
+     * Copies the given shapes, in the given order.
+     * <p>
+     * Copying an empty collection leaves the clipboard unchanged.
+     * </p>
+     *
+     * @param shapes the shapes to copy
+     */
+    public void copy(Collection<? extends SelectableShape> shapes) {
+        if (shapes.isEmpty()) {
+            return;
+        }
+        buffer = ShapeLoader.toJson(shapes).toString();
+        if (systemClipboard) {
+            ClipboardContent content = new ClipboardContent();
+            content.put(SHAPES_FORMAT, buffer);
+            Clipboard.getSystemClipboard().setContent(content);
+        }
+        empty.set(false);
+    }
+
+    /**
+     * Rebuilds the copied shapes.
+     * <p>
+     * Every call returns new, detached shapes that are not part of any canvas yet.
+     * </p>
+     *
+     * @return the copied shapes, in the order they were copied; empty if there is nothing to paste
+     */
+    public List<SelectableShape> paste() {
+        return paste(null);
+    }
+
+    /**
+     * Rebuilds the copied shapes, using an extension for the shapes the {@link ShapeLoader} does not
+     * know, such as the instances of the symbols of the target canvas.
+     *
+     * @param extension builds the shapes of the other types, see {@link ShapeLoader#fromJson(JSONArray, Function)};
+     *                  may be {@code null}
+     * @return the copied shapes, in the order they were copied; empty if there is nothing to paste
+     */
+    public List<SelectableShape> paste(Function<JSONObject, SelectableShape> extension) {
+        String payload = getPayload();
+        if (payload == null) {
+            return new ArrayList<>();
+        }
+        try {
+            return ShapeLoader.fromJson(new JSONArray(payload), extension);
+        } catch (JSONException e) {
+            System.err.println("Invalid clipboard content: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Re-checks the system clipboard, which may have been filled by another instance of the application.
+     */
+    public void refresh() {
+        empty.set(getPayload() == null);
+    }
+
+    /**
+     * Returns whether there is nothing to paste.
+     *
+     * @return {@code true} if no shapes are available
+     */
+    public boolean isEmpty() {
+        return empty.get();
+    }
+
+    /**
+     * Returns the property telling whether there is nothing to paste.
+     * It is updated on every copy and on {@link #refresh()}.
+     *
+     * @return the read-only emptiness property
+     */
+    public ReadOnlyBooleanProperty emptyProperty() {
+        return empty.getReadOnlyProperty();
+    }
+
+    /**
+     * Returns the serialized shapes to paste: the content of the system clipboard if it holds
+     * shapes, the local buffer otherwise.
+     */
+    private String getPayload() {
+        if (systemClipboard) {
+            Object content = Clipboard.getSystemClipboard().getContent(SHAPES_FORMAT);
+            if (content instanceof String) {
+                return (String) content;
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns the data format with the given identifier, registering it on first use.
+     */
+    private static DataFormat dataFormat(String id) {
+        DataFormat format = DataFormat.lookupMimeType(id);
+        return format != null ? format : new DataFormat(id);
+    }
+}
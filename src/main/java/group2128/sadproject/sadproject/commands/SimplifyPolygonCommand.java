@@ -0,0 +1,187 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.GroupShape;
+import group2128.sadproject.sadproject.factory.PolygonShape;
+import group2128.sadproject.sadproject.factory.PolygonSimplifier;
+import group2128.sadproject.sadproject.factory.SelectableShape;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * A command that reduces the number of vertices of the selected polygons, within a tolerance.
+ * <p>
+ * Every {@link PolygonShape} of the selection, including the members of the selected groups, is
+ * simplified with the chosen {@link PolygonSimplifier.Method}. The coordinates are read on the JavaFX
+ * Application Thread, the simplifications run in parallel, and the new vertices are applied back in a
+ * single change per polygon, so a whole selection costs one canvas snapshot and one entry in the
+ * command history. The command is undone using the memento saved by {@link #saveBackup()}.
+ * </p>
+ */
+public class SimplifyPolygonCommand extends SelectionCommand {
+
+    /**
+     * The algorithm used to simplify the polygons.
+     */
+    private PolygonSimplifier.Method method = PolygonSimplifier.Method.DOUGLAS_PEUCKER;
+
+    /**
+     * The largest deviation allowed, in canvas units.
+     */
+    private double tolerance = 1;
+
+    /**
+     * The number of vertices of the polygons before the last execution.
+     */
+    private int verticesBefore;
+
+    /**
+     * The number of vertices of the polygons after the last execution.
+     */
+    private int verticesAfter;
+
+    /**
+     * Sets the algorithm used to simplify the polygons.
+     *
+     * @param method the algorithm
+     */
+    public void setMethod(PolygonSimplifier.Method method) {
+        this.method = method;
+    }
+
+    /**
+     * Sets the largest deviation allowed between a polygon and its simplification.
+     *
+     * @param tolerance the tolerance, in canvas units
+     */
+    public void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Returns the number of vertices of the simplified polygons before the last execution.
+     *
+     * @return the total vertex count before simplification
+     */
+    public int getVerticesBefore() {
+        return verticesBefore;
+    }
+
+    /**
+     * Returns the number of vertices of the simplified polygons after the last execution.
+     *
+     * @return the total vertex count after simplification
+     */
+    public int getVerticesAfter() {
+        return verticesAfter;
+    }
+
+    /**
+     * Executes the command, simplifying every selected polygon.
+     */
+    @Override
+    public void execute() {
+        List<PolygonShape> polygons = findPolygons(getSelectedShapes());
+        List<double[]> coords = getCoordinates(polygons);
+        List<double[]> simplified = simplify(coords, method, tolerance);
+        verticesBefore = countVertices(coords);
+        verticesAfter = countVertices(simplified);
+        for (int i = 0; i < polygons.size(); i++) {
+            if (simplified.get(i).length != coords.get(i).length) {
+                setCoordinates(polygons.get(i), simplified.get(i));
+            }
+        }
+    }
+
+    /**
+     * Undoes the simplification, restoring the canvas from the saved memento.
+     */
+    @Override
+    public void undo() {
+        if (getDrawingCanvasMemento() != null) {
+            getDrawingCanvasMemento().restore();
+        }
+    }
+
+    /**
+     * Returns the polygons among the given shapes and the members of the given groups.
+     *
+     * @param shapes the shapes to search
+     * @return the polygons, in the order they were found
+     */
+    public static List<PolygonShape> findPolygons(Collection<? extends SelectableShape> shapes) {
+        List<PolygonShape> polygons = new ArrayList<>();
+        for (SelectableShape shape : shapes) {
+            if (shape instanceof PolygonShape) {
+                polygons.add((PolygonShape) shape);
+            } else if (shape instanceof GroupShape) {
+                polygons.addAll(findPolygons(((GroupShape) shape).getShapes()));
+            }
+        }
+        return polygons;
+    }
+
+    /**
+     * Copies the coordinates of polygons into flat arrays, which can be read from any thread.
+     *
+     * @param polygons the polygons
+     * @return the coordinates of each polygon, {@code x0, y0, x1, y1, ...}
+     */
+    public static List<double[]> getCoordinates(List<PolygonShape> polygons) {
+        List<double[]> coords = new ArrayList<>(polygons.size());
+        for (PolygonShape polygon : polygons) {
+            List<Double> points = polygon.getPointsList();
+            double[] array = new double[points.size() & ~1];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = points.get(i);
+            }
+            coords.add(array);
+        }
+        return coords;
+    }
+
+    /**
+     * Simplifies polygons in parallel.
+     *
+     * @param coords    the coordinates of each polygon
+     * @param method    the algorithm to use
+     * @param tolerance the largest deviation allowed
+     * @return the simplified coordinates of each polygon, in the same order
+     */
+    public static List<double[]> simplify(List<double[]> coords, PolygonSimplifier.Method method, double tolerance) {
+        double[][] simplified = new double[coords.size()][];
+        IntStream.range(0, coords.size()).parallel()
+                .forEach(i -> simplified[i] = PolygonSimplifier.simplify(coords.get(i), method, tolerance));
+        return List.of(simplified);
+    }
+
+    /**
+     * Gives new vertices to a polygon in a single change of its point list.
+     *
+     * @param polygon the polygon
+     * @param coords  the new coordinates, {@code x0, y0, x1, y1, ...}
+     */
+    public static void setCoordinates(PolygonShape polygon, double[] coords) {
+        List<Double> points = new ArrayList<>(coords.length);
+        for (double coord : coords) {
+            points.add(coord);
+        }
+        polygon.getPointsList().setAll(points);
+    }
+
+    /**
+     * Returns the total number of vertices of polygons.
+     *
+     * @param coords the coordinates of each polygon
+     * @return the number of vertices
+     */
+    public static int countVertices(List<double[]> coords) {
+        int count = 0;
+        for (double[] array : coords) {
+            count += array.length / 2;
+        }
+        return count;
+    }
+}
@@ -1,8 +1,18 @@
 package group2128.sadproject.sadproject.commands;
 
 import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.strategy.GestureDispatcher;
+import group2128.sadproject.sadproject.strategy.ShapeTool;
 
-public abstract class StretchCommand extends Command{
+/**
+ * An abstract command that provides common behavior for stretching shapes.
+ * <p>
+ * A stretch command is a {@link ShapeTool}: executing it arms it on the {@link GestureDispatcher} of the
+ * canvas, which routes the next gesture starting on the shape to the {@link #press}, {@link #drag} and
+ * {@link #release} methods of the subclass.
+ * </p>
+ */
+public abstract class StretchCommand extends Command implements ShapeTool {
 
     /**
      * The shape that will be stretched by this command.
@@ -19,6 +29,27 @@ public abstract class StretchCommand extends Command{
      */
     private boolean shouldTriggerInteraction = true;
 
+    /**
+     * Arms this command on the gesture dispatcher of the canvas, so the next gesture on the shape
+     * stretches it. Does nothing if the command has no shape or the canvas has no dispatcher.
+     */
+    @Override
+    public void execute() {
+        GestureDispatcher dispatcher = GestureDispatcher.find(getDrawingCanvas());
+        if (shape != null && dispatcher != null) {
+            dispatcher.arm(getMode(), this);
+        }
+    }
+
+    /**
+     * Returns the mode the command is armed in.
+     *
+     * @return {@link GestureDispatcher.Mode#STRETCH}, unless a subclass edits the shape otherwise
+     */
+    protected GestureDispatcher.Mode getMode() {
+        return GestureDispatcher.Mode.STRETCH;
+    }
+
     /**
      * Sets the shape to be stretched by this command.
      *
@@ -33,6 +64,7 @@ public abstract class StretchCommand extends Command{
      *
      * @return the {@link SelectableShape} that will be resized
      */
+    @Override
     public SelectableShape getShape() {
         return this.shape;
     }
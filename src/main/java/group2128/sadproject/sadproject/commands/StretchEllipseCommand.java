@@ -7,62 +7,63 @@ import javafx.scene.Cursor;
 public class StretchEllipseCommand extends StretchCommand{
 
     /**
-     * Executes the command.
-     * <p>
-     * Subclasses must provide a concrete implementation of this method to define
-     * the specific action to be performed when the command is invoked.
-     * </p>
+     * The center of the ellipse when the gesture started.
      */
-    @Override
-    public void execute() {
-        EllipseShape shape = (EllipseShape) super.getShape();
-
-        if (shape == null) {
-            return;
-        }
+    private double anchorX;
 
-        shape.setOnMousePressed(event -> {
-            if (shape.isSelected()) {
+    private double anchorY;
 
-                shape.setUserData(new double[]{
-                        shape.getAnchorX(),
-                        shape.getAnchorY(),
-                });
-
-                event.consume();
-            }
-        });
-
-        shape.setOnMouseDragged(event -> {
-            if (shape.isSelected()) {
-                if (getShouldTriggerInteraction()) {
-                    shape.setInteractionProperty(true);
-                    setShouldTriggerInteraction(false);
-                }
-
-                double[] data = (double[]) shape.getUserData();
-                double anchorX = data[0];
-                double anchorY = data[1];
+    /**
+     * Starts the stretch: saves the center of the ellipse, which stays in place during the gesture.
+     *
+     * @param x     the x-coordinate of the pointer
+     * @param y     the y-coordinate of the pointer
+     * @param shift whether the shift key is held
+     * @return {@code true}, the ellipse takes every gesture starting on it
+     */
+    @Override
+    public boolean press(double x, double y, boolean shift) {
+        EllipseShape shape = (EllipseShape) getShape();
+        anchorX = shape.getAnchorX();
+        anchorY = shape.getAnchorY();
+        return true;
+    }
 
-                Point2D localPoint = shape.getParent().sceneToLocal(event.getSceneX(), event.getSceneY());
-                double mouseX = localPoint.getX();
-                double mouseY = localPoint.getY();
+    /**
+     * Sets each radius of the ellipse to the distance from the center to the pointer along its axis.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
+     */
+    @Override
+    public void drag(double x, double y) {
+        EllipseShape shape = (EllipseShape) getShape();
+        if (getShouldTriggerInteraction()) {
+            shape.setInteractionProperty(true);
+            setShouldTriggerInteraction(false);
+        }
 
-                double newDimensionX = Math.abs(mouseX - anchorX);
-                double newDimensionY = Math.abs(mouseY - anchorY);
+        Point2D localPoint = pointerPosition(shape, x, y);
+        double mouseX = localPoint.getX();
+        double mouseY = localPoint.getY();
 
-                shape.setDimensionX(newDimensionX);
-                shape.setDimensionY(newDimensionY);
+        double newDimensionX = Math.abs(mouseX - anchorX);
+        double newDimensionY = Math.abs(mouseY - anchorY);
 
-            }
-        });
+        shape.setDimensionX(newDimensionX);
+        shape.setDimensionY(newDimensionY);
+    }
 
-        shape.setOnMouseReleased(event -> {
-            if (shape.isSelected()) {
-                shape.setCursor(Cursor.DEFAULT);
-                setShouldTriggerInteraction(true);
-            }
-        });
+    /**
+     * Ends the stretch and restores the default cursor.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
+     */
+    @Override
+    public void release(double x, double y) {
+        ((EllipseShape) getShape()).setCursor(Cursor.DEFAULT);
+        setShouldTriggerInteraction(true);
     }
 
     /**
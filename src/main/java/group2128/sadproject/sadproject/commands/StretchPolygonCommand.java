@@ -1,65 +1,115 @@
 package group2128.sadproject.sadproject.commands;
 
 import group2128.sadproject.sadproject.factory.PolygonShape;
-import javafx.collections.ObservableList;
+import group2128.sadproject.sadproject.strategy.GestureDispatcher;
+import javafx.geometry.Point2D;
 import javafx.scene.Cursor;
-import javafx.scene.input.MouseEvent;
+import javafx.scene.transform.Transform;
 import java.util.List;
 
+/**
+ * A command that reshapes a {@link PolygonShape} by editing its vertices.
+ * <p>
+ * Once executed, the next gesture on or near the selected polygon edits it as follows:
+ * <ul>
+ *     <li>dragging a vertex moves it;</li>
+ *     <li>dragging from a point on an edge inserts a new vertex there and moves it;</li>
+ *     <li>shift-clicking a vertex deletes it, as long as the polygon keeps at least three vertices.</li>
+ * </ul>
+ * </p>
+ */
 public class StretchPolygonCommand extends StretchCommand{
 
     /**
-     * Executes the command.
-     * <p>
-     * Subclasses must provide a concrete implementation of this method to define
-     * the specific action to be performed when the command is invoked.
-     * </p>
+     * The maximum distance, in screen pixels, between the mouse and a vertex or edge for it to be picked.
+     */
+    private static final double PICK_TOLERANCE = 5;
+
+    /**
+     * The minimum number of coordinates a polygon keeps when vertices are deleted (three vertices).
+     */
+    private static final int MIN_POINTS = 6;
+
+    /**
+     * The index, in the point list, of the vertex being moved, or -1 if the gesture moves no vertex.
+     */
+    private int index = -1;
+
+    /**
+     * Arms the command in {@link GestureDispatcher.Mode#VERTEX_EDIT} mode, so the dispatcher offers it
+     * the presses close to the polygon as well as those on it.
+     *
+     * @return {@link GestureDispatcher.Mode#VERTEX_EDIT}
      */
     @Override
-    public void execute() {
-        PolygonShape shape = (PolygonShape) super.getShape();
+    protected GestureDispatcher.Mode getMode() {
+        return GestureDispatcher.Mode.VERTEX_EDIT;
+    }
 
-        if (shape == null) {
-            return;
-        }
+    /**
+     * Starts editing the vertices: picks the vertex under the pointer, deletes it when shift is held,
+     * or inserts a vertex when the pointer is on an edge.
+     *
+     * @param x     the x-coordinate of the pointer
+     * @param y     the y-coordinate of the pointer
+     * @param shift whether the shift key is held
+     * @return {@code true} if the press picked a vertex or an edge, or landed inside the polygon
+     */
+    @Override
+    public boolean press(double x, double y, boolean shift) {
+        PolygonShape shape = (PolygonShape) super.getShape();
+        Point2D local = shape.parentToLocal(x, y);
+        index = findIndex(local);
 
-        shape.setOnMousePressed(event -> {
-            if (shape.isSelected()) {
-                int index = findIndex(event);
-                shape.setUserData(new int[]{
-                        index,
-                });
-                event.consume();
+        if (index != -1 && shift) {
+            if (shape.getPointsList().size() > MIN_POINTS) {
+                triggerInteraction(shape);
+                shape.removeVertex(index);
             }
-        });
-
-        shape.setOnMouseDragged(event -> {
-            if (shape.isSelected()) {
-                if (getShouldTriggerInteraction()) {
-                    shape.setInteractionProperty(true);
-                    setShouldTriggerInteraction(false);
-                }
-
-                int[] data = (int[]) shape.getUserData();
-                int index = data[0];
-                List<Double> points = shape.getPointsList();
-
-                if (index != -1) {
-                    double mouseX = event.getX();
-                    double mouseY = event.getY();
-                    points.set(index, mouseX);
-                    points.set(index + 1, mouseY);
-                }
+            index = -1;
+            return true;
+        } else if (index == -1) {
+            int edge = shape.findEdge(local.getX(), local.getY(), getTolerance(shape));
+            if (edge != -1) {
+                triggerInteraction(shape);
+                index = edge + 2;
+                shape.insertVertex(index, local.getX(), local.getY());
             }
-        });
+        }
+        return index != -1 || shape.contains(local);
+    }
 
+    /**
+     * Moves the picked vertex to the pointer.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
+     */
+    @Override
+    public void drag(double x, double y) {
+        PolygonShape shape = (PolygonShape) super.getShape();
+        if (index == -1) {
+            return;
+        }
+        triggerInteraction(shape);
 
-        shape.setOnMouseReleased(event -> {
-            if (shape.isSelected()) {
-                shape.setCursor(Cursor.DEFAULT);
-                setShouldTriggerInteraction(true);
-            }
-        });
+        Point2D local = shape.parentToLocal(x, y);
+        List<Double> points = shape.getPointsList();
+        points.set(index, local.getX());
+        points.set(index + 1, local.getY());
+    }
+
+    /**
+     * Ends the edit and restores the default cursor.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
+     */
+    @Override
+    public void release(double x, double y) {
+        ((PolygonShape) super.getShape()).setCursor(Cursor.DEFAULT);
+        setShouldTriggerInteraction(true);
+        index = -1;
     }
 
 
@@ -78,28 +128,48 @@ public class StretchPolygonCommand extends StretchCommand{
     }
 
     /**
-     * Finds the index of the point in the polygon that is within a specified tolerance
-     * of the mouse event's (x, y) coordinates.
+     * Finds the index of the vertex of the polygon closest to the given point.
      *
-     * <p>This method iterates through the list of points of the {@link PolygonShape} and
-     * compares each point's x and y values to the coordinates of the given {@link MouseEvent}.
-     * If a point is found within a 5-pixel tolerance in both x and y directions, the index
-     * of the x-coordinate in the point list is returned.</p>
+     * <p>The lookup is delegated to the spatial index of the {@link PolygonShape}, so it returns
+     * the nearest vertex rather than the first one within range. The tolerance is
+     * {@value #PICK_TOLERANCE} screen pixels, converted to the polygon's local coordinates so
+     * that picking feels the same at every zoom level.</p>
      *
-     * @param event the MouseEvent containing the x and y coordinates to compare.
+     * @param point the point, in the local coordinates of the polygon
      * @return the index of the x-coordinate in the point list if a nearby point is found;
      *         -1 if no matching point is within the tolerance.
      */
-    private int findIndex(MouseEvent event) {
+    private int findIndex(Point2D point) {
         PolygonShape shape = (PolygonShape) super.getShape();
-        ObservableList<Double> points = shape.getPointsList();
-        int tolerance = 5;
-        for (int i = 0; i < points.size(); i += 2) {
-            if (Math.abs(points.get(i) - event.getX()) < tolerance && Math.abs(points.get(i + 1) - event.getY()) < tolerance) {
+        return shape.findVertex(point.getX(), point.getY(), getTolerance(shape));
+    }
 
-                return i;
-            }
+    /**
+     * Converts the screen-space pick tolerance into the local coordinate space of the shape.
+     * <p>
+     * The scale factor is taken from the shape's local-to-scene transform, so it accounts for
+     * the canvas zoom as well as any flip applied to the shape itself.
+     * </p>
+     *
+     * @param shape the polygon being edited
+     * @return the pick tolerance in the polygon's local coordinates
+     */
+    private double getTolerance(PolygonShape shape) {
+        Transform transform = shape.getLocalToSceneTransform();
+        double scale = Math.hypot(transform.getMxx(), transform.getMyx());
+        return scale > 0 ? PICK_TOLERANCE / scale : PICK_TOLERANCE;
+    }
+
+    /**
+     * Raises the interaction flag of the shape once per gesture, so that a snapshot of the
+     * canvas is taken before the first change made by the gesture.
+     *
+     * @param shape the polygon being edited
+     */
+    private void triggerInteraction(PolygonShape shape) {
+        if (getShouldTriggerInteraction()) {
+            shape.setInteractionProperty(true);
+            setShouldTriggerInteraction(false);
         }
-        return -1;
     }
 }
@@ -5,79 +5,82 @@ import javafx.geometry.Point2D;
 import javafx.scene.Cursor;
 
 public class StretchRectangleCommand extends StretchCommand{
+
     /**
-     * Executes the command.
-     * <p>
-     * Subclasses must provide a concrete implementation of this method to define
-     * the specific action to be performed when the command is invoked.
-     * </p>
+     * The corner of the rectangle that stays in place during the gesture.
      */
-    @Override
-    public void execute() {
-        RectangleShape shape = (RectangleShape) super.getShape();
-
-        if (shape == null) {
-            return;
-        }
+    private double fixedX;
 
-        shape.setOnMousePressed(event -> {
-            if (shape.isSelected()) {
-                shape.setCursor(Cursor.MOVE);
-                Point2D localMouse = shape.getParent().sceneToLocal(event.getSceneX(), event.getSceneY());
-                double fixedX,fixedY;
+    private double fixedY;
 
-                if(localMouse.getX() - shape.getAnchorX() < 0){
-                    fixedX = shape.getAnchorX() + shape.getDimensionX()/2;
-                }else{
-                    fixedX = shape.getAnchorX() - shape.getDimensionX()/2;
-                }
-
-                if(localMouse.getY() - shape.getAnchorY() < 0){
-                    fixedY = shape.getAnchorY() + shape.getDimensionY()/2;
-                }else{
-                    fixedY = shape.getAnchorY() - shape.getDimensionY()/2;
-                }
-
-                shape.setUserData(new double[]{fixedX,fixedY});
-
-                event.consume();
-            }
-        });
+    /**
+     * Starts the stretch: the corner opposite to the pointer, relative to the center of the rectangle,
+     * stays in place during the gesture.
+     *
+     * @param x     the x-coordinate of the pointer
+     * @param y     the y-coordinate of the pointer
+     * @param shift whether the shift key is held
+     * @return {@code true}, the rectangle takes every gesture starting on it
+     */
+    @Override
+    public boolean press(double x, double y, boolean shift) {
+        RectangleShape shape = (RectangleShape) getShape();
+        shape.setCursor(Cursor.MOVE);
+
+        if(x - shape.getAnchorX() < 0){
+            fixedX = shape.getAnchorX() + shape.getDimensionX()/2;
+        }else{
+            fixedX = shape.getAnchorX() - shape.getDimensionX()/2;
+        }
 
-        shape.setOnMouseDragged(event -> {
-            if (shape.isSelected()) {
-                if (getShouldTriggerInteraction()) {
-                    shape.setInteractionProperty(true);
-                    setShouldTriggerInteraction(false);
-                }
+        if(y - shape.getAnchorY() < 0){
+            fixedY = shape.getAnchorY() + shape.getDimensionY()/2;
+        }else{
+            fixedY = shape.getAnchorY() - shape.getDimensionY()/2;
+        }
+        return true;
+    }
 
-                double[] data = (double[]) shape.getUserData();
-                double fixedX = data[0];
-                double fixedY = data[1];
+    /**
+     * Stretches the rectangle between the fixed corner and the pointer.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
+     */
+    @Override
+    public void drag(double x, double y) {
+        RectangleShape shape = (RectangleShape) getShape();
+        if (getShouldTriggerInteraction()) {
+            shape.setInteractionProperty(true);
+            setShouldTriggerInteraction(false);
+        }
 
-                Point2D localPoint = shape.getParent().sceneToLocal(event.getSceneX(), event.getSceneY());
-                double mouseX = localPoint.getX();
-                double mouseY = localPoint.getY();
+        Point2D localPoint = pointerPosition(shape, x, y);
+        double mouseX = localPoint.getX();
+        double mouseY = localPoint.getY();
 
-                double newX = Math.min(fixedX,mouseX);
-                double newY = Math.min(fixedY,mouseY);
+        double newX = Math.min(fixedX,mouseX);
+        double newY = Math.min(fixedY,mouseY);
 
-                double newWidth = Math.abs(mouseX - fixedX);
-                double newHeight = Math.abs(mouseY - fixedY);
+        double newWidth = Math.abs(mouseX - fixedX);
+        double newHeight = Math.abs(mouseY - fixedY);
 
-                shape.setDimensionX(newWidth);
-                shape.setDimensionY(newHeight);
-                shape.setAnchorX(newX+newWidth/2);
-                shape.setAnchorY(newY+newHeight/2);
-            }
-        });
+        shape.setDimensionX(newWidth);
+        shape.setDimensionY(newHeight);
+        shape.setAnchorX(newX+newWidth/2);
+        shape.setAnchorY(newY+newHeight/2);
+    }
 
-        shape.setOnMouseReleased(event -> {
-            if (shape.isSelected()) {
-                shape.setCursor(Cursor.DEFAULT);
-                setShouldTriggerInteraction(true);
-            }
-        });
+    /**
+     * Ends the stretch and restores the default cursor.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
+     */
+    @Override
+    public void release(double x, double y) {
+        ((RectangleShape) getShape()).setCursor(Cursor.DEFAULT);
+        setShouldTriggerInteraction(true);
     }
 
     /**
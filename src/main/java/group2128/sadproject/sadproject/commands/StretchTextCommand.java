@@ -18,58 +18,58 @@ public class StretchTextCommand extends StretchCommand{
     private double dragOffsetY;
 
     /**
-     * Executes the command.
-     * <p>
-     * Subclasses must provide a concrete implementation of this method to define
-     * the specific action to be performed when the command is invoked.
-     * </p>
+     * Starts the stretch at the position of the pointer.
+     *
+     * @param x     the x-coordinate of the pointer
+     * @param y     the y-coordinate of the pointer
+     * @param shift whether the shift key is held
+     * @return {@code true}, the text takes every gesture starting on it
      */
     @Override
-    public void execute() {
-        TextShape shape = (TextShape) super.getShape();
+    public boolean press(double x, double y, boolean shift) {
+        dragOffsetX = x;
+        dragOffsetY = y;
+        return true;
+    }
 
-        if (shape == null) {
-            return;
+    /**
+     * Scales the text horizontally and vertically by a hundredth of the pointer movement since the
+     * previous drag, keeping each scale above 0.1.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
+     */
+    @Override
+    public void drag(double x, double y) {
+        TextShape shape = (TextShape) getShape();
+        if (getShouldTriggerInteraction()) {
+            shape.setInteractionProperty(true);
+            setShouldTriggerInteraction(false);
         }
 
-        shape.setOnMousePressed(event -> {
-            if (shape.isSelected()) {
-
-                dragOffsetX = event.getSceneX();
-                dragOffsetY = event.getSceneY();
-
-                event.consume();
-            }
-        });
+        double deltaX = x - dragOffsetX;
+        double deltaY = y - dragOffsetY;
 
-        shape.setOnMouseDragged(event -> {
-            if (shape.isSelected()) {
-                if (getShouldTriggerInteraction()) {
-                    shape.setInteractionProperty(true);
-                    setShouldTriggerInteraction(false);
-                }
+        double scaleX = Math.max(0.1, shape.getScaleX() + deltaX/100);
+        double scaleY = Math.max(0.1, shape.getScaleY() + deltaY/100);
 
-                double deltaX = event.getSceneX() - dragOffsetX;
-                double deltaY = event.getSceneY() - dragOffsetY;
-
-                double scaleX = Math.max(0.1, shape.getScaleX() + deltaX/100);
-                double scaleY = Math.max(0.1, shape.getScaleY() + deltaY/100);
-
-                shape.setDimensionX(scaleX);
-                shape.setDimensionY(scaleY);
-
-                dragOffsetX = event.getSceneX();
-                dragOffsetY = event.getSceneY();
-            }
-        });
+        shape.setDimensionX(scaleX);
+        shape.setDimensionY(scaleY);
 
+        dragOffsetX = x;
+        dragOffsetY = y;
+    }
 
-        shape.setOnMouseReleased(event -> {
-            if (shape.isSelected()) {
-                shape.setCursor(Cursor.DEFAULT);
-                setShouldTriggerInteraction(true);
-            }
-        });
+    /**
+     * Ends the stretch and restores the default cursor.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
+     */
+    @Override
+    public void release(double x, double y) {
+        ((TextShape) getShape()).setCursor(Cursor.DEFAULT);
+        setShouldTriggerInteraction(true);
     }
 
     /**
@@ -0,0 +1,76 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.GroupShape;
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A concrete command that splits the selected {@link GroupShape} instances back into their members.
+ * <p>
+ * Each group is replaced, at its position in the stacking order, by its members with the transform
+ * of the group baked into them (see {@link GroupShape#ungroup()}). Nested groups are split one
+ * level at a time. Selected shapes that are not groups are left untouched.
+ * </p>
+ */
+public class UngroupCommand extends SelectionCommand {
+
+    /**
+     * The shapes released by the last execution, in stacking order.
+     */
+    private final List<SelectableShape> ungroupedShapes = new ArrayList<>();
+
+    /**
+     * Returns the shapes released by the last execution.
+     *
+     * @return the former members of the ungrouped groups, bottom to top
+     */
+    public List<SelectableShape> getUngroupedShapes() {
+        return new ArrayList<>(ungroupedShapes);
+    }
+
+    /**
+     * Executes the ungroup operation.
+     */
+    @Override
+    public void execute() {
+        ungroupedShapes.clear();
+        ObservableList<Node> children = getDrawingCanvas().getChildren();
+        Set<Object> selected = new HashSet<>(getSelectedShapes());
+        List<Node> updated = new ArrayList<>(children.size());
+        boolean changed = false;
+        for (Node child : children) {
+            if (child instanceof GroupShape && selected.contains(child)) {
+                List<SelectableShape> members = ((GroupShape) child).ungroup();
+                for (SelectableShape member : members) {
+                    updated.add((Node) member);
+                }
+                ungroupedShapes.addAll(members);
+                changed = true;
+            } else {
+                updated.add(child);
+            }
+        }
+        if (changed) {
+            children.setAll(updated);
+        }
+    }
+
+    /**
+     * Undoes the previously executed ungroup operation.
+     *
+     * <p>If a memento of the drawing canvas is available, this method restores
+     * the canvas to its previous state before the groups were split.</p>
+     */
+    @Override
+    public void undo() {
+        if (getDrawingCanvasMemento() != null) {
+            getDrawingCanvasMemento().restore();
+        }
+    }
+}
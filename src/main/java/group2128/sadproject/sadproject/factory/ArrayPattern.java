@@ -0,0 +1,271 @@
+package group2128.sadproject.sadproject.factory;
+
+import javafx.geometry.Point2D;
+import javafx.scene.transform.Rotate;
+import javafx.scene.transform.Transform;
+import javafx.scene.transform.Translate;
+import org.json.JSONObject;
+
+import java.util.Objects;
+
+/**
+ * Describes how the copies of an {@link ArrayShape} are laid out.
+ * <p>
+ * A pattern is an immutable list of instance transforms: instance {@code i} is the source shape
+ * rotated by {@link #getRotation(int)} degrees around the pivot and then moved by
+ * {@link #getOffsetX(int)} and {@link #getOffsetY(int)}. Instance 0 always has the identity
+ * transform, so the first copy stays where the source shape was.
+ * </p>
+ * <p>
+ * Three layouts are supported: a {@linkplain #linear linear} row of copies, a
+ * {@linkplain #grid grid} of rows and columns, and a {@linkplain #radial radial} array of copies
+ * evenly spread around a center. The transforms are computed from a handful of parameters, so a
+ * pattern of any size costs a constant amount of memory and serializes to a few numbers.
+ * </p>
+ */
+public final class ArrayPattern {
+
+    /**
+     * The layouts supported by an {@link ArrayPattern}.
+     */
+    public enum Kind {
+        /** Copies along a line. */
+        LINEAR,
+        /** Copies on rows and columns. */
+        GRID,
+        /** Copies rotated around a center. */
+        RADIAL
+    }
+
+    private final Kind kind;
+    private final int columns;
+    private final int rows;
+    private final double stepX;
+    private final double stepY;
+    private final double centerX;
+    private final double centerY;
+    private final double angle;
+
+    private ArrayPattern(Kind kind, int columns, int rows, double stepX, double stepY,
+                         double centerX, double centerY, double angle) {
+        if (columns < 1 || rows < 1) {
+            throw new IllegalArgumentException("An array needs at least one copy");
+        }
+        this.kind = kind;
+        this.columns = columns;
+        this.rows = rows;
+        this.stepX = stepX;
+        this.stepY = stepY;
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.angle = angle;
+    }
+
+    /**
+     * Creates a linear pattern of copies, each one offset from the previous one by the given step.
+     *
+     * @param count the number of copies, at least 1
+     * @param stepX the horizontal distance between two consecutive copies
+     * @param stepY the vertical distance between two consecutive copies
+     * @return the new pattern
+     */
+    public static ArrayPattern linear(int count, double stepX, double stepY) {
+        return new ArrayPattern(Kind.LINEAR, count, 1, stepX, stepY, 0, 0, 0);
+    }
+
+    /**
+     * Creates a grid pattern of copies, filled row by row.
+     *
+     * @param columns the number of columns, at least 1
+     * @param rows    the number of rows, at least 1
+     * @param stepX   the horizontal distance between two columns
+     * @param stepY   the vertical distance between two rows
+     * @return the new pattern
+     */
+    public static ArrayPattern grid(int columns, int rows, double stepX, double stepY) {
+        return new ArrayPattern(Kind.GRID, columns, rows, stepX, stepY, 0, 0, 0);
+    }
+
+    /**
+     * Creates a radial pattern of copies rotated around a center.
+     *
+     * @param count   the number of copies, at least 1
+     * @param centerX the X coordinate of the center of rotation
+     * @param centerY the Y coordinate of the center of rotation
+     * @param angle   the angle between two consecutive copies, in degrees
+     * @return the new pattern
+     */
+    public static ArrayPattern radial(int count, double centerX, double centerY, double angle) {
+        return new ArrayPattern(Kind.RADIAL, count, 1, 0, 0, centerX, centerY, angle);
+    }
+
+    /**
+     * Returns the layout of this pattern.
+     *
+     * @return the kind of pattern
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the number of copies described by this pattern.
+     *
+     * @return the number of instances
+     */
+    public int getCount() {
+        return columns * rows;
+    }
+
+    /**
+     * Returns the horizontal offset of an instance.
+     *
+     * @param index the index of the instance
+     * @return the offset applied after the rotation
+     */
+    public double getOffsetX(int index) {
+        return kind == Kind.RADIAL ? 0 : (index % columns) * stepX;
+    }
+
+    /**
+     * Returns the vertical offset of an instance.
+     *
+     * @param index the index of the instance
+     * @return the offset applied after the rotation
+     */
+    public double getOffsetY(int index) {
+        switch (kind) {
+            case LINEAR:
+                return index * stepY;
+            case GRID:
+                return (index / columns) * stepY;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Returns the rotation of an instance around the pivot.
+     *
+     * @param index the index of the instance
+     * @return the rotation angle, in degrees
+     */
+    public double getRotation(int index) {
+        return kind == Kind.RADIAL ? index * angle : 0;
+    }
+
+    /**
+     * Returns the X coordinate of the pivot of the rotations.
+     *
+     * @return the X coordinate of the center of a radial pattern, 0 otherwise
+     */
+    public double getPivotX() {
+        return centerX;
+    }
+
+    /**
+     * Returns the Y coordinate of the pivot of the rotations.
+     *
+     * @return the Y coordinate of the center of a radial pattern, 0 otherwise
+     */
+    public double getPivotY() {
+        return centerY;
+    }
+
+    /**
+     * Maps a point of the source shape to the corresponding point of an instance.
+     *
+     * @param index the index of the instance
+     * @param x     the X coordinate of the point on the source shape
+     * @param y     the Y coordinate of the point on the source shape
+     * @return the point on the instance
+     */
+    public Point2D transform(int index, double x, double y) {
+        double radians = Math.toRadians(getRotation(index));
+        double cos = Math.cos(radians);
+        double sin = Math.sin(radians);
+        double dx = x - centerX;
+        double dy = y - centerY;
+        return new Point2D(centerX + dx * cos - dy * sin + getOffsetX(index),
+                centerY + dx * sin + dy * cos + getOffsetY(index));
+    }
+
+    /**
+     * Maps a point of an instance back to the corresponding point of the source shape.
+     *
+     * @param index the index of the instance
+     * @param x     the X coordinate of the point on the instance
+     * @param y     the Y coordinate of the point on the instance
+     * @return the point on the source shape
+     */
+    public Point2D inverseTransform(int index, double x, double y) {
+        double radians = Math.toRadians(-getRotation(index));
+        double cos = Math.cos(radians);
+        double sin = Math.sin(radians);
+        double dx = x - getOffsetX(index) - centerX;
+        double dy = y - getOffsetY(index) - centerY;
+        return new Point2D(centerX + dx * cos - dy * sin, centerY + dx * sin + dy * cos);
+    }
+
+    /**
+     * Returns the transforms to apply to a node rendering an instance, in the order expected by
+     * {@link javafx.scene.Node#getTransforms()}.
+     *
+     * @param index the index of the instance
+     * @return the translation followed by the rotation of the instance
+     */
+    public Transform[] getTransforms(int index) {
+        return new Transform[]{
+                new Translate(getOffsetX(index), getOffsetY(index)),
+                new Rotate(getRotation(index), centerX, centerY)};
+    }
+
+    /**
+     * Serializes this pattern into a JSON object.
+     *
+     * @return the JSON representation of the pattern
+     */
+    public JSONObject toJson() {
+        JSONObject obj = new JSONObject();
+        obj.put("kind", kind.name().toLowerCase());
+        obj.put("columns", columns);
+        obj.put("rows", rows);
+        obj.put("stepX", stepX);
+        obj.put("stepY", stepY);
+        obj.put("centerX", centerX);
+        obj.put("centerY", centerY);
+        obj.put("angle", angle);
+        return obj;
+    }
+
+    /**
+     * Rebuilds a pattern from the JSON object produced by {@link #toJson()}.
+     *
+     * @param obj the JSON representation of the pattern
+     * @return the pattern
+     */
+    public static ArrayPattern fromJson(JSONObject obj) {
+        return new ArrayPattern(Kind.valueOf(obj.getString("kind").toUpperCase()),
+                obj.getInt("columns"), obj.getInt("rows"), obj.getDouble("stepX"), obj.getDouble("stepY"),
+                obj.getDouble("centerX"), obj.getDouble("centerY"), obj.getDouble("angle"));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ArrayPattern)) {
+            return false;
+        }
+        ArrayPattern other = (ArrayPattern) o;
+        return kind == other.kind && columns == other.columns && rows == other.rows
+                && stepX == other.stepX && stepY == other.stepY && centerX == other.centerX
+                && centerY == other.centerY && angle == other.angle;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, columns, rows, stepX, stepY, centerX, centerY, angle);
+    }
+}
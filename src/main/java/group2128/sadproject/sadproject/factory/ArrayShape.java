@@ -0,0 +1,434 @@
+package group2128.sadproject.sadproject.factory;
+
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Scale;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A shape made of many copies of a single source shape, laid out by an {@link ArrayPattern}.
+ * <p>
+ * The copies share one geometry definition, the source shape, which is not part of the scene graph,
+ * and differ only by the transform of their instance. When running on the JavaFX Application Thread,
+ * the source is rendered once into a snapshot image and every instance is a lightweight
+ * {@link ImageView} of that same image, so an array of thousands of copies costs one rendering of the
+ * source plus one textured quad per copy. Otherwise (for example when the shape is built outside of a
+ * running application) each instance is a copy of the source node.
+ * </p>
+ * <p>
+ * The array stays editable as a set: changing its colors changes the source and re-renders every
+ * instance at once, and its pattern can be replaced with {@link #setPattern(ArrayPattern)}. Moving,
+ * rotating and flipping the array only change the transform of this node, like a {@link GroupShape}.
+ * {@link #explode()} turns the array into standalone shapes.
+ * </p>
+ */
+public class ArrayShape extends Group implements SelectableShape {
+
+    /**
+     * The resolution of the snapshot relative to the size of the source, so that the copies stay sharp
+     * when the canvas is zoomed in.
+     */
+    private static final double SNAPSHOT_SCALE = 2;
+
+    /**
+     * The single geometry definition shared by every copy, in the coordinate space of the array.
+     */
+    private final SelectableShape source;
+
+    /**
+     * The layout of the copies.
+     */
+    private ArrayPattern pattern;
+
+    /**
+     * Whether the copies are currently rendered from a shared snapshot image.
+     */
+    private boolean instanced;
+
+    /**
+     * Constructs an array of copies of the given shape.
+     * <p>
+     * The source shape is removed from its current parent, if any, and is no longer displayed itself:
+     * the first copy of the pattern takes its place.
+     * </p>
+     *
+     * @param source  the shape to replicate
+     * @param pattern the layout of the copies
+     */
+    public ArrayShape(SelectableShape source, ArrayPattern pattern) {
+        this.source = source;
+        this.pattern = pattern;
+        Node node = (Node) source;
+        if (node.getParent() instanceof Group) {
+            ((Group) node.getParent()).getChildren().remove(node);
+        } else if (node.getParent() instanceof Pane) {
+            ((Pane) node.getParent()).getChildren().remove(node);
+        }
+        render();
+    }
+
+    /**
+     * Returns the shape every copy is made of.
+     *
+     * @return the source shape, in the coordinate space of the array
+     */
+    public SelectableShape getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the layout of the copies.
+     *
+     * @return the pattern of the array
+     */
+    public ArrayPattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Replaces the layout of the copies and re-renders them.
+     *
+     * @param pattern the new pattern
+     */
+    public void setPattern(ArrayPattern pattern) {
+        this.pattern = pattern;
+        render();
+    }
+
+    /**
+     * Returns whether the copies are rendered from a shared snapshot image.
+     *
+     * @return {@code true} if every copy is an {@link ImageView} of the same image,
+     * {@code false} if every copy is a node of its own
+     */
+    public boolean isInstanced() {
+        return instanced;
+    }
+
+    /**
+     * Rebuilds the nodes displaying the copies, replacing the children of the array in one update.
+     */
+    private void render() {
+        Node sourceNode = (Node) source;
+        Bounds bounds = sourceNode.getBoundsInParent();
+        int count = pattern.getCount();
+        List<Node> instances = new ArrayList<>(count);
+
+        WritableImage image = null;
+        if (Platform.isFxApplicationThread() && bounds.getWidth() > 0 && bounds.getHeight() > 0) {
+            SnapshotParameters params = new SnapshotParameters();
+            params.setFill(Color.TRANSPARENT);
+            params.setTransform(new Scale(SNAPSHOT_SCALE, SNAPSHOT_SCALE));
+            image = sourceNode.snapshot(params, null);
+        }
+        instanced = image != null;
+
+        for (int i = 0; i < count; i++) {
+            Node instance;
+            if (instanced) {
+                ImageView view = new ImageView(image);
+                view.setX(bounds.getMinX());
+                view.setY(bounds.getMinY());
+                view.setFitWidth(bounds.getWidth());
+                view.setFitHeight(bounds.getHeight());
+                instance = view;
+            } else {
+                instance = (Node) source.getCopy();
+            }
+            instance.getTransforms().setAll(pattern.getTransforms(i));
+            instances.add(instance);
+        }
+        getChildren().setAll(instances);
+    }
+
+    /**
+     * Replaces the array with standalone copies of the source shape.
+     * <p>
+     * The transform of each instance and the transform of the array are baked into the copies, so
+     * they stay where they were on screen. The array itself is emptied.
+     * </p>
+     *
+     * @return the new shapes, in the order of the pattern
+     */
+    public List<SelectableShape> explode() {
+        List<SelectableShape> copies = new ArrayList<>(pattern.getCount());
+        for (int i = 0; i < pattern.getCount(); i++) {
+            SelectableShape copy = source.getCopy();
+            Node node = (Node) copy;
+            Bounds layout = node.getLayoutBounds();
+            double centerX = layout.getCenterX() + node.getTranslateX();
+            double centerY = layout.getCenterY() + node.getTranslateY();
+            Point2D target = pattern.transform(i, centerX, centerY);
+            copy.setRotation(copy.getRotation() + pattern.getRotation(i));
+            copy.moveBy(target.getX() - centerX, target.getY() - centerY);
+            copies.add(copy);
+        }
+        getChildren().clear();
+
+        // the transform of the array is baked the same way as the one of a group
+        GroupShape group = new GroupShape(copies);
+        group.setTranslateX(getTranslateX());
+        group.setTranslateY(getTranslateY());
+        group.setScaleX(getScaleX());
+        group.setScaleY(getScaleY());
+        group.setRotation(getRotation());
+        return group.ungroup();
+    }
+
+    /**
+     * Moves the array by the given offset, changing only its translation.
+     *
+     * @param dx the horizontal offset
+     * @param dy the vertical offset
+     */
+    @Override
+    public void moveBy(double dx, double dy) {
+        setTranslateX(getTranslateX() + dx);
+        setTranslateY(getTranslateY() + dy);
+    }
+
+    /**
+     * Returns a copy of this array, with a copy of the source shape, the same pattern and the same transform.
+     *
+     * @return a new {@code ArrayShape} instance that is a copy of this array
+     */
+    @Override
+    public SelectableShape getCopy() {
+        ArrayShape array = new ArrayShape(source.getCopy(), pattern);
+        array.setTranslateX(getTranslateX());
+        array.setTranslateY(getTranslateY());
+        array.setScaleX(getScaleX());
+        array.setScaleY(getScaleY());
+        array.setRotation(getRotation());
+        return array;
+    }
+
+    /**
+     * Sets the edge color of the source shape and re-renders every copy.
+     *
+     * @param edgeColor the {@link Color} to use for the edges
+     */
+    @Override
+    public void setEdgeColor(Color edgeColor) {
+        source.setEdgeColor(edgeColor);
+        render();
+    }
+
+    /**
+     * Returns the edge color of the source shape.
+     *
+     * @return the edge {@link Color}
+     */
+    @Override
+    public Color getEdgeColor() {
+        return source.getEdgeColor();
+    }
+
+    /**
+     * Sets the fill color of the source shape and re-renders every copy.
+     *
+     * @param fillColor the {@link Color} to fill the copies with
+     */
+    @Override
+    public void setFillColor(Color fillColor) {
+        source.setFillColor(fillColor);
+        render();
+    }
+
+    /**
+     * Returns the fill color of the source shape.
+     *
+     * @return the fill {@link Color}
+     */
+    @Override
+    public Color getFillColor() {
+        return source.getFillColor();
+    }
+
+    /**
+     * Moves the array so that the center of its bounds is at the given X coordinate.
+     *
+     * @param x the new X coordinate of the center, in the coordinates of the parent
+     */
+    @Override
+    public void setAnchorX(double x) {
+        setTranslateX(x - getLayoutBounds().getCenterX());
+    }
+
+    /**
+     * Returns the X coordinate of the center of the array, in the coordinates of the parent.
+     *
+     * @return the X coordinate of the center
+     */
+    @Override
+    public double getAnchorX() {
+        return getLayoutBounds().getCenterX() + getTranslateX();
+    }
+
+    /**
+     * Moves the array so that the center of its bounds is at the given Y coordinate.
+     *
+     * @param y the new Y coordinate of the center, in the coordinates of the parent
+     */
+    @Override
+    public void setAnchorY(double y) {
+        setTranslateY(y - getLayoutBounds().getCenterY());
+    }
+
+    /**
+     * Returns the Y coordinate of the center of the array, in the coordinates of the parent.
+     *
+     * @return the Y coordinate of the center
+     */
+    @Override
+    public double getAnchorY() {
+        return getLayoutBounds().getCenterY() + getTranslateY();
+    }
+
+    /**
+     * Scales the array horizontally so that it becomes the given width.
+     * <p>
+     * A horizontal flip, if any, is preserved.
+     * </p>
+     *
+     * @param x the new width of the array
+     */
+    @Override
+    public void setDimensionX(double x) {
+        double width = getLayoutBounds().getWidth();
+        if (width > 0) {
+            setScaleX(Math.copySign(x / width, getScaleX()));
+        }
+    }
+
+    /**
+     * Returns the width of the array, including its scale.
+     *
+     * @return the horizontal dimension
+     */
+    @Override
+    public double getDimensionX() {
+        return getLayoutBounds().getWidth() * Math.abs(getScaleX());
+    }
+
+    /**
+     * Scales the array vertically so that it becomes the given height.
+     * <p>
+     * A vertical flip, if any, is preserved.
+     * </p>
+     *
+     * @param y the new height of the array
+     */
+    @Override
+    public void setDimensionY(double y) {
+        double height = getLayoutBounds().getHeight();
+        if (height > 0) {
+            setScaleY(Math.copySign(y / height, getScaleY()));
+        }
+    }
+
+    /**
+     * Returns the height of the array, including its scale.
+     *
+     * @return the vertical dimension
+     */
+    @Override
+    public double getDimensionY() {
+        return getLayoutBounds().getHeight() * Math.abs(getScaleY());
+    }
+
+    /**
+     * Sets the rotation angle of the array.
+     *
+     * @param angle the angle to set for the rotation
+     */
+    @Override
+    public void setRotation(double angle) {
+        super.setRotate(angle);
+    }
+
+    /**
+     * Returns the rotation angle of the array.
+     *
+     * @return the rotation angle in degrees.
+     */
+    @Override
+    public double getRotation() {
+        return super.getRotate();
+    }
+
+    /**
+     * Determines whether the given point (x, y) lies within one of the copies.
+     * <p>
+     * The point is first tested against the bounds of the array; only when it falls inside them is
+     * it mapped back onto the source shape through the inverse transform of each instance and tested
+     * against the source, so no per-copy node is involved.
+     * </p>
+     *
+     * @param x the X coordinate of the point to test, in the local coordinates of the array
+     * @param y the Y coordinate of the point to test, in the local coordinates of the array
+     * @return {@code true} if the point is inside a copy; {@code false} otherwise
+     */
+    @Override
+    public boolean contains(double x, double y) {
+        if (!getBoundsInLocal().contains(x, y)) {
+            return false;
+        }
+        Node sourceNode = (Node) source;
+        for (int i = pattern.getCount() - 1; i >= 0; i--) {
+            Point2D onSource = pattern.inverseTransform(i, x, y);
+            if (sourceNode.contains(sourceNode.parentToLocal(onSource))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Serializes this array into the provided {@link JSONObject}.
+     * <p>
+     * Only the source shape and the parameters of the pattern are stored, so the size of the
+     * serialized array does not depend on the number of copies.
+     * </p>
+     *
+     * @param obj the {@code JSONObject} to populate with this array's data
+     */
+    @Override
+    public void saveJson(JSONObject obj) {
+        JSONObject sourceJson = new JSONObject();
+        source.saveJson(sourceJson);
+        obj.put("type", "array");
+        obj.put("source", sourceJson);
+        obj.put("pattern", pattern.toJson());
+        obj.put("translateX", getTranslateX());
+        obj.put("translateY", getTranslateY());
+        obj.put("flipHorizontal", getScaleX());
+        obj.put("flipVertical", getScaleY());
+        obj.put("rotation", getRotation());
+    }
+
+    /**
+     * Applies the transform stored by {@link #saveJson(JSONObject)} to an array rebuilt from its source.
+     *
+     * @param array the array whose source and pattern have already been loaded
+     * @param obj   the {@code JSONObject} containing the serialized array
+     */
+    public static void loadJson(ArrayShape array, JSONObject obj) {
+        array.setTranslateX(obj.optDouble("translateX", 0));
+        array.setTranslateY(obj.optDouble("translateY", 0));
+        array.setScaleX(obj.optDouble("flipHorizontal", 1));
+        array.setScaleY(obj.optDouble("flipVertical", 1));
+        array.setRotation(obj.optDouble("rotation", 0));
+    }
+}
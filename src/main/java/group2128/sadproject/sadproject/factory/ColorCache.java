@@ -0,0 +1,109 @@
+package group2128.sadproject.sadproject.factory;
+
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the colors of the shapes, so equal colors share a single {@link Color} instance.
+ * <p>
+ * Drawings typically use a handful of colors over thousands of shapes. {@link Color} is immutable, so
+ * instead of allocating a new color for every created, copied or loaded shape, the factories, the
+ * copies, the loaders and the drawing parameters go through this cache:
+ * </p>
+ * <ul>
+ *     <li>{@link #intern(Color)} returns the shared instance equal to a color, keyed by its RGBA bits;</li>
+ *     <li>{@link #parse(String)} parses a color string once and returns the shared instance afterwards.</li>
+ * </ul>
+ * <p>
+ * Only the colors whose components are whole multiples of {@code 1/255}, as produced by the color
+ * pickers and the saved files, are keyed by their RGBA bits; other colors are returned unchanged.
+ * The caches stop growing after {@link #MAX_ENTRIES} entries, which a drawing does not reach in practice.
+ * </p>
+ */
+public final class ColorCache {
+
+    /**
+     * The maximum number of entries of each cache.
+     */
+    public static final int MAX_ENTRIES = 4096;
+
+    /**
+     * The shared colors, keyed by their RGBA bits.
+     */
+    private static final Map<Integer, Color> BY_RGBA = new ConcurrentHashMap<>();
+
+    /**
+     * The shared colors, keyed by the strings they were parsed from.
+     */
+    private static final Map<String, Color> BY_NAME = new ConcurrentHashMap<>();
+
+    private ColorCache() {
+    }
+
+    /**
+     * Returns the shared instance equal to a color.
+     *
+     * @param color the color, possibly {@code null}
+     * @return an equal shared color, or the color itself if it cannot be keyed by its RGBA bits
+     */
+    public static Color intern(Color color) {
+        if (color == null) {
+            return null;
+        }
+        int red = toByte(color.getRed());
+        int green = toByte(color.getGreen());
+        int blue = toByte(color.getBlue());
+        int alpha = toByte(color.getOpacity());
+        if ((red | green | blue | alpha) < 0) {
+            return color;
+        }
+        Integer key = (red << 24) | (green << 16) | (blue << 8) | alpha;
+        Color shared = BY_RGBA.get(key);
+        if (shared == null) {
+            if (BY_RGBA.size() >= MAX_ENTRIES) {
+                return color;
+            }
+            shared = BY_RGBA.putIfAbsent(key, color);
+            if (shared == null) {
+                shared = color;
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Returns the shared instance of the color described by a string, as accepted by {@link Paint#valueOf(String)}.
+     *
+     * @param value the color string, such as {@code 0xff0000ff} or {@code RED}
+     * @return the shared color
+     * @throws IllegalArgumentException if the string is not a color
+     */
+    public static Color parse(String value) {
+        Color shared = BY_NAME.get(value);
+        if (shared == null) {
+            Paint paint = Paint.valueOf(value);
+            if (!(paint instanceof Color)) {
+                throw new IllegalArgumentException("Not a color: " + value);
+            }
+            shared = intern((Color) paint);
+            if (BY_NAME.size() < MAX_ENTRIES) {
+                BY_NAME.putIfAbsent(value, shared);
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Returns a component as a byte, or {@code -1} if it is not a whole multiple of {@code 1/255}.
+     * <p>
+     * {@link Color} keeps its components as floats, so they are compared at float precision.
+     * </p>
+     */
+    private static int toByte(double component) {
+        long value = Math.round(component * 255);
+        return (float) (value / 255.0) == (float) component ? (int) value : -1;
+    }
+}
@@ -1,13 +1,8 @@
 package group2128.sadproject.sadproject.factory;
 
 import group2128.sadproject.sadproject.strategy.DrawingParams;
-import javafx.beans.property.BooleanProperty;
-import javafx.beans.property.SimpleBooleanProperty;
-import javafx.scene.Cursor;
-import javafx.scene.effect.DropShadow;
-import javafx.scene.input.MouseButton;
+import group2128.sadproject.sadproject.styles.ShapeStyle;
 import javafx.scene.paint.Color;
-import javafx.scene.paint.Paint;
 import javafx.scene.shape.Ellipse;
 import org.json.JSONObject;
 
@@ -31,45 +26,6 @@ public class EllipseShape extends Ellipse implements SelectableShape {
      */
     private static final double DEFAULT_RADIUS_Y = 60.0;
 
-    /**
-     * The default stroke width used for the ellipse's border.
-     */
-    private static final double DEFAULT_STROKE_WIDTH = 3.0;
-
-    /**
-     * Property indicating whether the ellipse is currently selected.
-     * This property can be observed to update the visual representation accordingly.
-     */
-    private final BooleanProperty selectedProperty = new SimpleBooleanProperty();
-
-    /**
-     * Property indicating whether the ellipse is currently in an interactive state
-     * (e.g., being dragged or resized).
-     */
-    private final BooleanProperty interactionProperty = new SimpleBooleanProperty();
-
-    /**
-     * The horizontal offset between the mouse click position and the ellipse's center
-     * when initiating a drag gesture.
-     */
-    private double dragOffsetX;
-
-    /**
-     * The vertical offset between the mouse click position and the ellipse's center
-     * when initiating a drag gesture.
-     */
-    private double dragOffsetY;
-
-    /**
-     * A flag used to ensure that the interaction trigger logic is executed only once per interaction session.
-     * <p>
-     * This variable prevents redundant state changes or repeated calls to interaction-related logic
-     * (e.g., setting interactionProperty to true) during user gestures such as dragging or resizing.
-     * It is typically reset externally when a new interaction cycle is expected.
-     * </p>
-     */
-    private boolean shouldTriggerInteraction = true;
-
     /**
      * Constructs an ellipse shape with default dimensions and specified fill and edge colors.
      *
@@ -150,44 +106,7 @@ public class EllipseShape extends Ellipse implements SelectableShape {
     private void initialize(Color fillColor, Color edgeColor) {
         setFillColor(fillColor);
         setEdgeColor(edgeColor);
-        setStrokeWidth(DEFAULT_STROKE_WIDTH);
-        selectedProperty.addListener((obs, oldVal, newVal) ->
-                setEffect(newVal ? new DropShadow(10, Color.DEEPSKYBLUE) : null));
-        initDrag();
-    }
-
-    /**
-     * Initializes mouse event handlers to enable selection-based dragging of the shape.
-     */
-    @Override
-    public void initDrag() {
-        setOnMousePressed(event -> {
-            if (isSelected()) {
-                dragOffsetX = event.getSceneX() - getAnchorX();
-                dragOffsetY = event.getSceneY() - getAnchorY();
-                event.consume();
-            }
-        });
-
-        setOnMouseDragged(event -> {
-            if (isSelected() && event.getButton() == MouseButton.PRIMARY) {
-                if (shouldTriggerInteraction) {
-                    interactionProperty.set(true);
-                    shouldTriggerInteraction = false;
-                }
-                setCursor(Cursor.CLOSED_HAND);
-                setAnchorX(event.getSceneX() - dragOffsetX);
-                setAnchorY(event.getSceneY() - dragOffsetY);
-                event.consume();
-            }
-        });
-
-        setOnMouseReleased(event -> {
-            if (isSelected()) {
-                setCursor(Cursor.DEFAULT);
-                shouldTriggerInteraction = true;
-            }
-        });
+        setStrokeWidth(ShapeStyle.DEFAULT_STROKE_WIDTH);
     }
 
     /**
@@ -197,33 +116,39 @@ public class EllipseShape extends Ellipse implements SelectableShape {
      */
     @Override
     public SelectableShape getCopy() {
-        Color edge = new Color(getEdgeColor().getRed(), getEdgeColor().getGreen(), getEdgeColor().getBlue(), getEdgeColor().getOpacity());
-        Color fill = new Color(getFillColor().getRed(), getFillColor().getGreen(), getFillColor().getBlue(), getFillColor().getOpacity());
-        return new EllipseShape(fill, edge, getAnchorX(), getAnchorY(), getDimensionX(), getDimensionY(), getScaleX(), getScaleY(), getRotation());
+        Color edge = ColorCache.intern(getEdgeColor());
+        Color fill = ColorCache.intern(getFillColor());
+        EllipseShape ellipse = new EllipseShape(fill, edge, getAnchorX(), getAnchorY(), getDimensionX(), getDimensionY(), getScaleX(), getScaleY(), getRotation());
+        ellipse.setStrokeWidth(getStrokeWidth());
+        return ellipse;
     }
 
     /**
-     * Returns the {@link BooleanProperty} object representing the interaction state.
-     * This can be used for property bindings or listeners.
+     * Bakes the flip of the ellipse, and its rotation if it is a multiple of 90 degrees, into its
+     * center and radii. Other rotations cannot be expressed by an axis-aligned ellipse and are kept.
      *
-     * @return the BooleanProperty for interaction
+     * @return {@code true} if the ellipse has no rotation or flip left
      */
     @Override
-    public BooleanProperty interactionPropertyProperty() {
-        return interactionProperty;
+    public boolean bakeTransform() {
+        ShapeTransform transform = ShapeTransform.ofRotationAndScale(this);
+        if (!transform.isAxisAligned()) {
+            return false;
+        }
+        if (!transform.isIdentity()) {
+            double[] bounds = transform.transformBounds(getCenterX() - getRadiusX(), getCenterY() - getRadiusY(),
+                    getCenterX() + getRadiusX(), getCenterY() + getRadiusY());
+            setRotate(0);
+            setScaleX(1);
+            setScaleY(1);
+            setCenterX((bounds[0] + bounds[2]) / 2);
+            setCenterY((bounds[1] + bounds[3]) / 2);
+            setRadiusX((bounds[2] - bounds[0]) / 2);
+            setRadiusY((bounds[3] - bounds[1]) / 2);
+        }
+        return true;
     }
 
-    /**
-     * Sets the value of the interaction property.
-     *
-     * @param interactionProperty true to enable interaction, false to disable it
-     */
-    @Override
-    public void setInteractionProperty(boolean interactionProperty) {
-        this.interactionProperty.set(interactionProperty);
-    }
-
-
     /**
      * Sets the edge (stroke) color of the ellipse.
      *
@@ -388,50 +313,17 @@ public class EllipseShape extends Ellipse implements SelectableShape {
     }
 
 
-    /**
-     * Returns the JavaFX {@code BooleanProperty} that stores the current
-     * selection flag.
-     *
-     * @return the observable property representing whether the shape is
-     * currently selected
-     */
-    @Override
-    public BooleanProperty selectedProperty() {
-        return this.selectedProperty;
-    }
-
-    /**
-     * Convenience accessor that mirrors {@code selectedProperty().get()}.
-     *
-     * @return {@code true} if the shape is selected, {@code false} otherwise
-     */
-    @Override
-    public boolean isSelected() {
-        return this.selectedProperty().get();
-    }
-
-    /**
-     * Sets the selection flag for this shape.
-     *
-     * @param selected {@code true} to mark the shape as selected;
-     *                 {@code false} to clear the selection
-     */
-    @Override
-    public void setSelected(boolean selected) {
-        this.selectedProperty().set(selected);
-    }
-
     /**
      * Determines whether the given point (x, y) lies within the bounds of this shape.
      *
-     * @param x the X coordinate of the point to test
-     * @param y the Y coordinate of the point to test
+     * @param x the X coordinate of the point to test, in the local coordinates of the shape
+     * @param y the Y coordinate of the point to test, in the local coordinates of the shape
      * @return {@code true} if the point is inside the shape's area;
      *         {@code false} otherwise
      */
     @Override
     public boolean contains(double x, double y) {
-        return this.getBoundsInParent().contains(x,y);
+        return this.getBoundsInLocal().contains(x,y);
     }
 
     /**
@@ -451,8 +343,8 @@ public class EllipseShape extends Ellipse implements SelectableShape {
      * @param obj the {@code JSONObject} containing the serialized shape data
      */
     public static void loadJson(DrawingParams params, JSONObject obj) {
-        params.setFillColor((Color) Paint.valueOf(obj.optString("fill", "BLACK")));
-        params.setEdgeColor((Color) Paint.valueOf(obj.optString("stroke", "BLACK")));
+        params.setFillColor(ColorCache.parse(obj.optString("fill", "BLACK")));
+        params.setEdgeColor(ColorCache.parse(obj.optString("stroke", "BLACK")));
         params.setWidthValueProperty(obj.getDouble("radiusX"));
         params.setHeightValueProperty(obj.getDouble("radiusY"));
         params.setRotationValueProperty(obj.getDouble("rotation"));
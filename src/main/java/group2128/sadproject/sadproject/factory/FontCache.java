@@ -0,0 +1,48 @@
+package group2128.sadproject.sadproject.factory;
+
+import javafx.scene.text.Font;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the fonts of the text shapes, so equal fonts share a single {@link Font} instance.
+ * <p>
+ * Creating a {@link Font} looks up the font family each time. Text shapes only vary by family and
+ * size, so the fonts are cached by family, then by size, and the text shapes, their copies and the
+ * font size command reuse them. The cache of each family stops growing after
+ * {@link ColorCache#MAX_ENTRIES} sizes.
+ * </p>
+ */
+public final class FontCache {
+
+    /**
+     * The shared fonts, by family and size.
+     */
+    private static final Map<String, Map<Double, Font>> FONTS = new ConcurrentHashMap<>();
+
+    private FontCache() {
+    }
+
+    /**
+     * Returns the shared font of the given family and size.
+     *
+     * @param family the font family
+     * @param size   the font size, in points
+     * @return the shared font
+     */
+    public static Font font(String family, double size) {
+        Map<Double, Font> sizes = FONTS.computeIfAbsent(family, key -> new ConcurrentHashMap<>());
+        Font font = sizes.get(size);
+        if (font == null) {
+            font = new Font(family, size);
+            if (sizes.size() < ColorCache.MAX_ENTRIES) {
+                Font shared = sizes.putIfAbsent(size, font);
+                if (shared != null) {
+                    font = shared;
+                }
+            }
+        }
+        return font;
+    }
+}
@@ -0,0 +1,469 @@
+package group2128.sadproject.sadproject.factory;
+
+import javafx.beans.InvalidationListener;
+import javafx.collections.ListChangeListener;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A composite shape that groups other {@link SelectableShape} instances so they behave as a single one.
+ * <p>
+ * The member shapes are the children of this JavaFX {@link Group}, expressed in the coordinate space
+ * of the group. Moving, rotating and flipping the group changes a single transform (the translation,
+ * rotation and scale of the group node) instead of touching every member, so the cost of these
+ * operations does not depend on the number of grouped shapes. Groups can be nested.
+ * </p>
+ * <p>
+ * The aggregate bounds of the members are cached and invalidated only when a member changes or the
+ * list of members changes. They are used for the anchor, the dimensions and hit-testing: a point is
+ * tested against the members only when it falls inside the bounds of the group.
+ * </p>
+ */
+public class GroupShape extends Group implements SelectableShape {
+
+    /**
+     * The union of the bounds of the members, in the coordinate space of the group,
+     * as {@code {minX, minY, maxX, maxY}}; {@code null} when it must be recomputed.
+     */
+    private double[] cachedBounds;
+
+    /**
+     * Shared listener invalidating the cached bounds when a member moves or changes size.
+     */
+    private final InvalidationListener memberBoundsListener = observable -> cachedBounds = null;
+
+    /**
+     * Constructs a group of the given shapes.
+     * <p>
+     * The shapes are removed from their current parent, if any, and become members of the group
+     * in the given order (the first one is at the bottom). Their coordinates are taken as they are,
+     * so the group starts with an identity transform and the shapes do not move on screen as long as
+     * the group is placed in the same parent they came from.
+     * </p>
+     *
+     * @param shapes the shapes to group, bottom to top
+     */
+    public GroupShape(Collection<? extends SelectableShape> shapes) {
+        getChildren().addListener((ListChangeListener<Node>) change -> {
+            cachedBounds = null;
+            while (change.next()) {
+                for (Node removed : change.getRemoved()) {
+                    removed.boundsInParentProperty().removeListener(memberBoundsListener);
+                }
+                for (Node added : change.getAddedSubList()) {
+                    added.boundsInParentProperty().addListener(memberBoundsListener);
+                }
+            }
+        });
+        List<Node> members = new ArrayList<>(shapes.size());
+        for (SelectableShape shape : shapes) {
+            members.add((Node) shape);
+        }
+        getChildren().setAll(members);
+    }
+
+    /**
+     * Returns the shapes grouped by this composite.
+     *
+     * @return the member shapes, bottom to top
+     */
+    public List<SelectableShape> getShapes() {
+        List<SelectableShape> shapes = new ArrayList<>(getChildren().size());
+        for (Node child : getChildren()) {
+            if (child instanceof SelectableShape) {
+                shapes.add((SelectableShape) child);
+            }
+        }
+        return shapes;
+    }
+
+    /**
+     * Returns the union of the bounds of the members, in the coordinate space of the group.
+     * <p>
+     * The value is cached and only recomputed after a member or the list of members changed.
+     * </p>
+     *
+     * @return the bounds as {@code {minX, minY, maxX, maxY}}; all zeros if the group is empty
+     */
+    public double[] getMemberBounds() {
+        if (cachedBounds == null) {
+            double[] bounds = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                    Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+            for (Node child : getChildren()) {
+                Bounds childBounds = child.getBoundsInParent();
+                bounds[0] = Math.min(bounds[0], childBounds.getMinX());
+                bounds[1] = Math.min(bounds[1], childBounds.getMinY());
+                bounds[2] = Math.max(bounds[2], childBounds.getMaxX());
+                bounds[3] = Math.max(bounds[3], childBounds.getMaxY());
+            }
+            cachedBounds = getChildren().isEmpty() ? new double[4] : bounds;
+        }
+        return cachedBounds.clone();
+    }
+
+    /**
+     * Moves the members out of this group, baking the transform of the group into each of them.
+     * <p>
+     * After this call the group is empty and every former member is a standalone shape whose position,
+     * rotation and flip on screen are the same as when it was grouped. The position and the rotation
+     * are exact; the size is exact for flips and uniform scaling of the group.
+     * </p>
+     *
+     * @return the former members, bottom to top
+     */
+    public List<SelectableShape> ungroup() {
+        List<SelectableShape> shapes = getShapes();
+        List<Point2D> centers = new ArrayList<>(shapes.size());
+        for (SelectableShape shape : shapes) {
+            // the center of the layout bounds is the pivot of the rotation and the scale of a node
+            Node node = (Node) shape;
+            Bounds layout = node.getLayoutBounds();
+            centers.add(localToParent(layout.getCenterX() + node.getLayoutX() + node.getTranslateX(),
+                    layout.getCenterY() + node.getLayoutY() + node.getTranslateY()));
+        }
+        getChildren().clear();
+        pushTransform(shapes, centers);
+        return shapes;
+    }
+
+    /**
+     * Bakes the rotation and the flip of this group into its members, and then the transform of every
+     * member into its own geometry.
+     * <p>
+     * The group keeps its position and its members, but ends with no rotation and a scale of 1: every
+     * member takes the rotation and flip of the group on top of its own, as in {@link #ungroup()}, and
+     * is then baked with {@link SelectableShape#bakeTransform()}. Nested groups are baked recursively.
+     * </p>
+     *
+     * @return {@code true} if no member has a rotation or flip left
+     */
+    @Override
+    public boolean bakeTransform() {
+        List<SelectableShape> shapes = getShapes();
+        ShapeTransform transform = ShapeTransform.ofRotationAndScale(this);
+        if (!transform.isIdentity()) {
+            List<Point2D> centers = new ArrayList<>(shapes.size());
+            for (SelectableShape shape : shapes) {
+                Node node = (Node) shape;
+                Bounds layout = node.getLayoutBounds();
+                centers.add(transform.transform(layout.getCenterX() + node.getLayoutX() + node.getTranslateX(),
+                        layout.getCenterY() + node.getLayoutY() + node.getTranslateY()));
+            }
+            pushTransform(shapes, centers);
+            setRotate(0);
+            setScaleX(1);
+            setScaleY(1);
+        }
+        boolean baked = true;
+        for (SelectableShape shape : shapes) {
+            baked &= shape.bakeTransform();
+        }
+        return baked;
+    }
+
+    /**
+     * Gives every shape the rotation and scale of this group on top of its own, and moves it so the center
+     * of its layout bounds lands on the given point.
+     * <p>
+     * The position and the rotation are exact; the size is exact for flips and uniform scaling of the group.
+     * </p>
+     *
+     * @param shapes  the shapes
+     * @param centers the target centers of the shapes, in the coordinate space they are moved in
+     */
+    private void pushTransform(List<SelectableShape> shapes, List<Point2D> centers) {
+        double scaleX = getScaleX();
+        double scaleY = getScaleY();
+        double rotation = getRotate();
+        boolean mirrored = scaleX * scaleY < 0;
+        for (int i = 0; i < shapes.size(); i++) {
+            Node node = (Node) shapes.get(i);
+            node.setScaleX(node.getScaleX() * scaleX);
+            node.setScaleY(node.getScaleY() * scaleY);
+            node.setRotate((mirrored ? -node.getRotate() : node.getRotate()) + rotation);
+
+            Bounds layout = node.getLayoutBounds();
+            Point2D center = centers.get(i);
+            shapes.get(i).moveBy(
+                    center.getX() - (layout.getCenterX() + node.getLayoutX() + node.getTranslateX()),
+                    center.getY() - (layout.getCenterY() + node.getLayoutY() + node.getTranslateY()));
+        }
+    }
+
+    /**
+     * Moves the group by the given offset, changing only its translation.
+     *
+     * @param dx the horizontal offset
+     * @param dy the vertical offset
+     */
+    @Override
+    public void moveBy(double dx, double dy) {
+        setTranslateX(getTranslateX() + dx);
+        setTranslateY(getTranslateY() + dy);
+    }
+
+    /**
+     * Returns a copy of this group.
+     * <p>
+     * Every member is copied with its own {@link SelectableShape#getCopy()}, so nested groups are
+     * copied deeply. The copy has the same transform as this group.
+     * </p>
+     *
+     * @return a new {@code GroupShape} instance that is a copy of this group
+     */
+    @Override
+    public SelectableShape getCopy() {
+        List<SelectableShape> copies = new ArrayList<>(getChildren().size());
+        for (SelectableShape shape : getShapes()) {
+            copies.add(shape.getCopy());
+        }
+        GroupShape group = new GroupShape(copies);
+        group.setTranslateX(getTranslateX());
+        group.setTranslateY(getTranslateY());
+        group.setScaleX(getScaleX());
+        group.setScaleY(getScaleY());
+        group.setRotation(getRotation());
+        return group;
+    }
+
+    /**
+     * Sets the edge color of every member.
+     *
+     * @param edgeColor the {@link Color} to use for the edges
+     */
+    @Override
+    public void setEdgeColor(Color edgeColor) {
+        for (SelectableShape shape : getShapes()) {
+            shape.setEdgeColor(edgeColor);
+        }
+    }
+
+    /**
+     * Returns the edge color of the bottom member.
+     *
+     * @return the edge {@link Color} of the first member, or {@link Color#BLACK} if the group is empty
+     */
+    @Override
+    public Color getEdgeColor() {
+        List<SelectableShape> shapes = getShapes();
+        return shapes.isEmpty() ? Color.BLACK : shapes.get(0).getEdgeColor();
+    }
+
+    /**
+     * Sets the fill color of every member.
+     *
+     * @param fillColor the {@link Color} to fill the members with
+     */
+    @Override
+    public void setFillColor(Color fillColor) {
+        for (SelectableShape shape : getShapes()) {
+            shape.setFillColor(fillColor);
+        }
+    }
+
+    /**
+     * Returns the fill color of the bottom member.
+     *
+     * @return the fill {@link Color} of the first member, or {@link Color#BLACK} if the group is empty
+     */
+    @Override
+    public Color getFillColor() {
+        List<SelectableShape> shapes = getShapes();
+        return shapes.isEmpty() ? Color.BLACK : shapes.get(0).getFillColor();
+    }
+
+    /**
+     * Moves the group so that the center of its bounds is at the given X coordinate.
+     *
+     * @param x the new X coordinate of the center, in the coordinates of the parent
+     */
+    @Override
+    public void setAnchorX(double x) {
+        double[] bounds = getMemberBounds();
+        setTranslateX(x - (bounds[0] + bounds[2]) / 2);
+    }
+
+    /**
+     * Returns the X coordinate of the center of the group, in the coordinates of the parent.
+     *
+     * @return the X coordinate of the center
+     */
+    @Override
+    public double getAnchorX() {
+        double[] bounds = getMemberBounds();
+        return (bounds[0] + bounds[2]) / 2 + getTranslateX();
+    }
+
+    /**
+     * Moves the group so that the center of its bounds is at the given Y coordinate.
+     *
+     * @param y the new Y coordinate of the center, in the coordinates of the parent
+     */
+    @Override
+    public void setAnchorY(double y) {
+        double[] bounds = getMemberBounds();
+        setTranslateY(y - (bounds[1] + bounds[3]) / 2);
+    }
+
+    /**
+     * Returns the Y coordinate of the center of the group, in the coordinates of the parent.
+     *
+     * @return the Y coordinate of the center
+     */
+    @Override
+    public double getAnchorY() {
+        double[] bounds = getMemberBounds();
+        return (bounds[1] + bounds[3]) / 2 + getTranslateY();
+    }
+
+    /**
+     * Scales the group horizontally so that it becomes the given width.
+     * <p>
+     * A horizontal flip, if any, is preserved.
+     * </p>
+     *
+     * @param x the new width of the group
+     */
+    @Override
+    public void setDimensionX(double x) {
+        double[] bounds = getMemberBounds();
+        double width = bounds[2] - bounds[0];
+        if (width > 0) {
+            setScaleX(Math.copySign(x / width, getScaleX()));
+        }
+    }
+
+    /**
+     * Returns the width of the group, including its scale.
+     *
+     * @return the horizontal dimension
+     */
+    @Override
+    public double getDimensionX() {
+        double[] bounds = getMemberBounds();
+        return (bounds[2] - bounds[0]) * Math.abs(getScaleX());
+    }
+
+    /**
+     * Scales the group vertically so that it becomes the given height.
+     * <p>
+     * A vertical flip, if any, is preserved.
+     * </p>
+     *
+     * @param y the new height of the group
+     */
+    @Override
+    public void setDimensionY(double y) {
+        double[] bounds = getMemberBounds();
+        double height = bounds[3] - bounds[1];
+        if (height > 0) {
+            setScaleY(Math.copySign(y / height, getScaleY()));
+        }
+    }
+
+    /**
+     * Returns the height of the group, including its scale.
+     *
+     * @return the vertical dimension
+     */
+    @Override
+    public double getDimensionY() {
+        double[] bounds = getMemberBounds();
+        return (bounds[3] - bounds[1]) * Math.abs(getScaleY());
+    }
+
+    /**
+     * Sets the rotation angle of the group.
+     *
+     * @param angle the angle to set for the rotation
+     */
+    @Override
+    public void setRotation(double angle) {
+        super.setRotate(angle);
+    }
+
+    /**
+     * Returns the rotation angle of the group.
+     *
+     * @return the rotation angle in degrees.
+     */
+    @Override
+    public double getRotation() {
+        return super.getRotate();
+    }
+
+    /**
+     * Determines whether the given point (x, y) lies within one of the members.
+     * <p>
+     * The point is first tested against the bounds of the group; only when it falls inside them
+     * is it mapped to the coordinates of each member and tested against it, topmost first.
+     * </p>
+     *
+     * @param x the X coordinate of the point to test, in the local coordinates of the group
+     * @param y the Y coordinate of the point to test, in the local coordinates of the group
+     * @return {@code true} if the point is inside a member; {@code false} otherwise
+     */
+    @Override
+    public boolean contains(double x, double y) {
+        if (!getBoundsInLocal().contains(x, y)) {
+            return false;
+        }
+        List<Node> children = getChildren();
+        for (int i = children.size() - 1; i >= 0; i--) {
+            Node child = children.get(i);
+            if (child instanceof SelectableShape && child.contains(child.parentToLocal(x, y))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Serializes this group into the provided {@link JSONObject}.
+     * <p>
+     * The members are serialized recursively into the {@code "shapes"} array, in their own
+     * coordinates; the transform of the group is stored alongside them.
+     * </p>
+     *
+     * @param obj the {@code JSONObject} to populate with this group's data
+     */
+    @Override
+    public void saveJson(JSONObject obj) {
+        JSONArray shapes = new JSONArray();
+        for (SelectableShape shape : getShapes()) {
+            JSONObject member = new JSONObject();
+            shape.saveJson(member);
+            shapes.put(member);
+        }
+        obj.put("type", "group");
+        obj.put("shapes", shapes);
+        obj.put("translateX", getTranslateX());
+        obj.put("translateY", getTranslateY());
+        obj.put("flipHorizontal", getScaleX());
+        obj.put("flipVertical", getScaleY());
+        obj.put("rotation", getRotation());
+    }
+
+    /**
+     * Applies the transform stored by {@link #saveJson(JSONObject)} to a group rebuilt from its members.
+     *
+     * @param group the group whose members have already been loaded
+     * @param obj   the {@code JSONObject} containing the serialized group
+     */
+    public static void loadJson(GroupShape group, JSONObject obj) {
+        group.setTranslateX(obj.optDouble("translateX", 0));
+        group.setTranslateY(obj.optDouble("translateY", 0));
+        group.setScaleX(obj.optDouble("flipHorizontal", 1));
+        group.setScaleY(obj.optDouble("flipVertical", 1));
+        group.setRotation(obj.optDouble("rotation", 0));
+    }
+}
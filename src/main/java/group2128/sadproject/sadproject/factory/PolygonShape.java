@@ -1,15 +1,11 @@
 package group2128.sadproject.sadproject.factory;
 
 import group2128.sadproject.sadproject.strategy.DrawingParams;
-import javafx.beans.property.BooleanProperty;
-import javafx.beans.property.SimpleBooleanProperty;
+import group2128.sadproject.sadproject.styles.ShapeStyle;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.geometry.Point2D;
-import javafx.scene.Cursor;
-import javafx.scene.effect.DropShadow;
-import javafx.scene.input.MouseButton;
 import javafx.scene.paint.Color;
-import javafx.scene.paint.Paint;
 import javafx.scene.shape.Polygon;
 import org.json.JSONObject;
 import java.util.List;
@@ -19,8 +15,8 @@ import java.util.List;
  * A custom polygon shape that extends {@link Polygon} and implements the {@link SelectableShape} interface.
  * <p>
  * This class allows defining a polygonal shape with support for selection, interaction, and anchor points.
- * It integrates JavaFX properties for selection and interaction state management and provides methods to
- * manipulate the shape’s geometry and visual appearance.
+ * Its selection and interaction state is kept by the {@link SelectionModel} and the
+ * {@link ShapeGestureController}, and it provides methods to manipulate the shape’s geometry and visual appearance.
  * </p>
  *
  * <p>Features include:
@@ -36,35 +32,14 @@ public class PolygonShape extends Polygon implements SelectableShape{
 
 
     /**
-     * A flag used to ensure that the interaction trigger logic is executed only once per interaction session.
+     * Spatial index over the polygon's vertices and edges, used for vertex picking.
      * <p>
-     * This variable prevents redundant state changes or repeated calls to interaction-related logic
-     * (e.g., setting interactionProperty to true) during user gestures such as dragging or resizing.
-     * It is typically reset externally when a new interaction cycle is expected.
+     * The index is discarded whenever the point list changes and rebuilt lazily on the next
+     * query, so a drag that moves a vertex on every mouse event does not pay for a rebuild
+     * until the next pick.
      * </p>
      */
-    private boolean shouldTriggerInteraction = true;
-
-    /**
-     * A JavaFX {@link BooleanProperty} representing whether the shape is currently selected.
-     * This property can be observed or bound to enable selection-based behaviors in the UI.
-     */
-    private final BooleanProperty selectedProperty = new SimpleBooleanProperty();
-
-    /**
-     * A JavaFX {@link BooleanProperty} representing whether the shape is currently interactive.
-     * This property can be used to control or respond to user interaction states.
-     */
-    private final BooleanProperty interactionProperty = new SimpleBooleanProperty();
-
-    /**
-     * The default stroke width (edge thickness) for the polygon, in pixels.
-     */
-    private static final double DEFAULT_STROKE_WIDTH = 3.0;
-
-    private double dragStartX;
-
-    private double dragStartY;
+    private VertexIndex vertexIndex;
 
 
     /**
@@ -75,14 +50,10 @@ public class PolygonShape extends Polygon implements SelectableShape{
      * @param edgeColor the edge color of the shape
      */
     public PolygonShape(Color fillColor,Color edgeColor){
-        super.setStrokeWidth(DEFAULT_STROKE_WIDTH);
+        super.setStrokeWidth(ShapeStyle.DEFAULT_STROKE_WIDTH);
+        getPoints().addListener((ListChangeListener<Double>) change -> vertexIndex = null);
         setFillColor(fillColor);
         setEdgeColor(edgeColor);
-        initDrag();
-
-        selectedProperty().addListener((observable, oldValue, newValue) -> {
-            setEffect(newValue ? new DropShadow(10, Color.DEEPSKYBLUE): null);
-        });
     }
 
     /**
@@ -96,21 +67,16 @@ public class PolygonShape extends Polygon implements SelectableShape{
     public PolygonShape(Color fillColor, Color edgeColor, List<Double> points){
         this(fillColor,edgeColor);
         setPoints(points);
-        initDrag();
     }
 
     public PolygonShape(Color fillColor, Color edgeColor, double scaleX, double scaleY, double angle){
-        super.setStrokeWidth(DEFAULT_STROKE_WIDTH);
+        super.setStrokeWidth(ShapeStyle.DEFAULT_STROKE_WIDTH);
+        getPoints().addListener((ListChangeListener<Double>) change -> vertexIndex = null);
         setFillColor(fillColor);
         setEdgeColor(edgeColor);
         setScaleX(scaleX);
         setScaleY(scaleY);
         setRotation(angle);
-        initDrag();
-
-        selectedProperty().addListener((observable, oldValue, newValue) -> {
-            setEffect(newValue ? new DropShadow(10, Color.DEEPSKYBLUE): null);
-        });
     }
 
 
@@ -146,126 +112,74 @@ public class PolygonShape extends Polygon implements SelectableShape{
     }
 
     /**
-     * Returns the JavaFX {@code BooleanProperty} that indicates whether this shape is selected.
+     * Finds the vertex closest to the given point, if it lies within {@code tolerance}.
      * <p>
-     * This property can be used for binding or observing changes in the shape's selection state.
+     * The search uses a spatial index over the vertices, so its cost depends on the number of
+     * vertices near the point rather than on the total vertex count. The index is rebuilt
+     * lazily after the points change.
+     * </p>
      *
-     * @return the {@code BooleanProperty} representing the selection status of this shape
-     */
-    @Override
-    public BooleanProperty selectedProperty() {
-        return this.selectedProperty;
+     * @param x         the X coordinate of the point, in the polygon's local coordinates
+     * @param y         the Y coordinate of the point, in the polygon's local coordinates
+     * @param tolerance the maximum distance between the point and the vertex
+     * @return the index of the vertex X coordinate in the point list,
+     *         or -1 if no vertex lies within the tolerance
+     */
+    public int findVertex(double x, double y, double tolerance) {
+        int vertex = getVertexIndex().nearestVertex(x, y, tolerance);
+        return vertex == -1 ? -1 : vertex * 2;
     }
 
     /**
-     * Checks whether the shape is currently selected.
+     * Finds the edge closest to the given point, if it lies within {@code tolerance}.
      * <p>
-     * This is a convenience method that returns the current value of {@code selectedProperty()}.
+     * Edges are indexed together with the vertices, including the closing edge that joins the
+     * last vertex to the first one.
+     * </p>
      *
-     * @return {@code true} if the shape is selected, {@code false} otherwise
-     */
-    @Override
-    public boolean isSelected() {
-        return this.selectedProperty.get();
+     * @param x         the X coordinate of the point, in the polygon's local coordinates
+     * @param y         the Y coordinate of the point, in the polygon's local coordinates
+     * @param tolerance the maximum distance between the point and the edge
+     * @return the index in the point list of the X coordinate of the edge's first vertex,
+     *         or -1 if no edge lies within the tolerance
+     */
+    public int findEdge(double x, double y, double tolerance) {
+        int edge = getVertexIndex().nearestEdge(x, y, tolerance);
+        return edge == -1 ? -1 : edge * 2;
     }
 
     /**
-     * Updates the selection state of this shape.
-     * <p>
-     * Setting this flag to {@code true} marks the shape as selected, which can be reflected
-     * visually or used to enable additional interaction. Setting it to {@code false}
-     * clears the selection.
+     * Inserts a new vertex into the polygon.
      *
-     * @param selected {@code true} to select the shape; {@code false} to deselect it
-     */
-    @Override
-    public void setSelected(boolean selected) {
-        this.selectedProperty.set(selected);
-    }
-
-    /**
-     * Initializes mouse event handlers to support dragging behavior for this shape.
-     * <p>
-     * The drag functionality is only active when the shape is selected. During a drag operation:
-     * <ul>
-     *   <li><b>MousePressed</b>: Stores the offset from the cursor to the shape and changes the cursor appearance.</li>
-     *   <li><b>MouseDragged</b>: Repositions the shape based on the current mouse location and initial offset.</li>
-     *   <li><b>MouseReleased</b>: Resets the cursor to the default and completes the drag operation.</li>
-     * </ul>
-     * Mouse events are consumed to prevent propagation to parent nodes.
-     * <p>
-     * <b>Note:</b> This method must be implemented to enable actual dragging behavior.
+     * @param index the index in the point list at which the X coordinate of the new vertex is stored;
+     *              must be even and at most the size of the point list
+     * @param x     the X coordinate of the new vertex
+     * @param y     the Y coordinate of the new vertex
      */
-    @Override
-    public void initDrag() {
-
-        this.setOnMousePressed(event -> {
-            if (isSelected()) {
-                dragStartX = event.getSceneX();
-                dragStartY = event.getSceneY();
-
-                event.consume();
-            }
-        });
-
-        this.setOnMouseDragged(event -> {
-            if (isSelected() && event.getButton() == MouseButton.PRIMARY) {
-                if (shouldTriggerInteraction) {
-                    interactionProperty.set(true);
-                    shouldTriggerInteraction = false;
-                }
-
-                double deltaX = event.getSceneX() - dragStartX;
-                double deltaY = event.getSceneY() - dragStartY;
-
-                ObservableList<Double> points = getPoints();
-                for (int i = 0; i < points.size(); i += 2) {
-                    points.set(i, points.get(i) + deltaX);
-                    points.set(i + 1, points.get(i + 1) + deltaY);
-                }
-
-                dragStartX = event.getSceneX();
-                dragStartY = event.getSceneY();
-
-                setCursor(Cursor.CLOSED_HAND);
-                event.consume();
-            }
-        });
-
-        this.setOnMouseReleased(event -> {
-            if (isSelected()) {
-                setCursor(Cursor.DEFAULT);
-                shouldTriggerInteraction = true;
-            }
-        });
-
-
+    public void insertVertex(int index, double x, double y) {
+        super.getPoints().addAll(index, List.of(x, y));
     }
 
     /**
-     * Returns the {@link BooleanProperty} representing the interaction state of this shape.
-     * <p>
-     * This property can be used for binding or listening to changes in the interaction state,
-     * such as enabling or disabling shape-related events or behaviors.
+     * Removes a vertex from the polygon.
      *
-     * @return the {@code BooleanProperty} tracking interaction status
+     * @param index the index in the point list of the X coordinate of the vertex to remove
      */
-    @Override
-    public BooleanProperty interactionPropertyProperty() {
-        return this.interactionProperty;
+    public void removeVertex(int index) {
+        super.getPoints().remove(index, index + 2);
     }
 
     /**
-     * Sets the interaction state of this shape.
-     * <p>
-     * This flag can be used to enable or disable interactive behavior such as selection,
-     * dragging, or responding to mouse events.
+     * Returns the vertex index for the current points, building it if the points changed
+     * since the last query.
      *
-     * @param interactionProperty {@code true} to enable interaction; {@code false} to disable it
+     * @return an up-to-date {@link VertexIndex}
      */
-    @Override
-    public void setInteractionProperty(boolean interactionProperty) {
-        this.interactionProperty.set(interactionProperty);
+    private VertexIndex getVertexIndex() {
+        if (vertexIndex == null) {
+            vertexIndex = new VertexIndex(getPoints());
+        }
+        return vertexIndex;
     }
 
     /**
@@ -282,15 +196,51 @@ public class PolygonShape extends Polygon implements SelectableShape{
      */
     @Override
     public SelectableShape getCopy() {
-        Color edge = new Color(getEdgeColor().getRed(), getEdgeColor().getGreen(), getEdgeColor().getBlue(), getEdgeColor().getOpacity());
-        Color fill = new Color(getFillColor().getRed(), getFillColor().getGreen(), getFillColor().getBlue(), getFillColor().getOpacity());
+        Color edge = ColorCache.intern(getEdgeColor());
+        Color fill = ColorCache.intern(getFillColor());
         PolygonShape polygon = new PolygonShape(fill,edge,getPointsList());
         polygon.setScaleX(getScaleX());
         polygon.setScaleY(getScaleY());
         polygon.setRotation(getRotation());
+        polygon.setStrokeWidth(getStrokeWidth());
         return polygon;
     }
 
+    /**
+     * Moves the polygon by the given offset, shifting every vertex in a single update.
+     *
+     * @param dx the horizontal offset
+     * @param dy the vertical offset
+     */
+    @Override
+    public void moveBy(double dx, double dy) {
+        ObservableList<Double> points = getPoints();
+        Double[] moved = points.toArray(new Double[0]);
+        for (int i = 0; i + 1 < moved.length; i += 2) {
+            moved[i] += dx;
+            moved[i + 1] += dy;
+        }
+        points.setAll(moved);
+    }
+
+    /**
+     * Bakes the rotation and the flip of the polygon into its vertices, which always succeeds.
+     *
+     * @return {@code true}
+     */
+    @Override
+    public boolean bakeTransform() {
+        ShapeTransform transform = ShapeTransform.ofRotationAndScale(this);
+        if (!transform.isIdentity()) {
+            Double[] baked = transform.transformCoordinates(getPoints());
+            setRotate(0);
+            setScaleX(1);
+            setScaleY(1);
+            getPoints().setAll(baked);
+        }
+        return true;
+    }
+
     /**
      * Sets the edge color (stroke) of this shape.
      * <p>
@@ -511,8 +461,8 @@ public class PolygonShape extends Polygon implements SelectableShape{
      * @param obj the {@code JSONObject} containing the serialized shape data
      */
     public static void loadJson(DrawingParams params, JSONObject obj) {
-        params.setFillColor((Color) Paint.valueOf(obj.optString("fill","BLACK")));
-        params.setEdgeColor((Color) Paint.valueOf(obj.optString("stroke","BLACK")));
+        params.setFillColor(ColorCache.parse(obj.optString("fill","BLACK")));
+        params.setEdgeColor(ColorCache.parse(obj.optString("stroke","BLACK")));
         params.setRotationValueProperty(obj.getDouble("rotation"));
         params.setScaleX(obj.getDouble("flipHorizontal"));
         params.setScaleY(obj.getDouble("flipVertical"));
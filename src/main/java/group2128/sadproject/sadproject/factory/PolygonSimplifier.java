@@ -0,0 +1,255 @@
+package group2128.sadproject.sadproject.factory;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Reduces the number of vertices of a closed polygon while keeping its outline within a tolerance.
+ * <p>
+ * Two classic algorithms are available. {@link Method#DOUGLAS_PEUCKER Douglas–Peucker} keeps, recursively,
+ * the vertex farthest from the chord of each span as long as it lies farther than the tolerance, so
+ * no removed vertex is farther than the tolerance from the simplified outline.
+ * {@link Method#VISVALINGAM_WHYATT Visvalingam–Whyatt} repeatedly removes the vertex forming the
+ * triangle of smallest area with its neighbours, until every remaining triangle is larger than the
+ * square of the tolerance; it tends to keep the overall shape smoother.
+ * </p>
+ * <p>
+ * The coordinates are flat arrays {@code x0, y0, x1, y1, ...}, as stored by {@link PolygonShape}.
+ * The simplified polygon always keeps at least three vertices. The methods only read their input,
+ * so polygons can be simplified concurrently.
+ * </p>
+ */
+public final class PolygonSimplifier {
+
+    /**
+     * The algorithms available to simplify a polygon.
+     */
+    public enum Method {
+        /**
+         * Keeps the vertices farther than the tolerance from the chords of the simplified outline.
+         */
+        DOUGLAS_PEUCKER("Douglas–Peucker"),
+        /**
+         * Removes the vertices whose triangle with their neighbours is smaller than the tolerance squared.
+         */
+        VISVALINGAM_WHYATT("Visvalingam–Whyatt");
+
+        /**
+         * The name shown to the user.
+         */
+        private final String label;
+
+        Method(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * The smallest number of vertices of a simplified polygon.
+     */
+    private static final int MIN_VERTICES = 3;
+
+    /**
+     * Utility class, not meant to be instantiated.
+     */
+    private PolygonSimplifier() {
+    }
+
+    /**
+     * Simplifies a closed polygon.
+     *
+     * @param coords    the coordinates of the vertices, {@code x0, y0, x1, y1, ...}
+     * @param method    the algorithm to use
+     * @param tolerance the largest deviation allowed, in the units of the coordinates; zero or less only
+     *                  removes duplicate and exactly aligned vertices
+     * @return the coordinates of the kept vertices, in their original order
+     */
+    public static double[] simplify(double[] coords, Method method, double tolerance) {
+        if (coords.length / 2 <= MIN_VERTICES) {
+            return coords.clone();
+        }
+        boolean[] kept = method == Method.DOUGLAS_PEUCKER
+                ? douglasPeucker(coords, tolerance) : visvalingamWhyatt(coords, tolerance);
+        int count = 0;
+        for (boolean k : kept) {
+            if (k) {
+                count++;
+            }
+        }
+        double[] result = new double[count * 2];
+        int j = 0;
+        for (int i = 0; i < kept.length; i++) {
+            if (kept[i]) {
+                result[j++] = coords[2 * i];
+                result[j++] = coords[2 * i + 1];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Marks the vertices kept by the Douglas–Peucker algorithm. The ring is split at the vertex farthest
+     * from the first one, and both halves are simplified as open chains.
+     */
+    private static boolean[] douglasPeucker(double[] coords, double tolerance) {
+        int n = coords.length / 2;
+        int far = 0;
+        double farDistance = -1;
+        for (int i = 1; i < n; i++) {
+            double d = distanceSquared(coords, 0, i);
+            if (d > farDistance) {
+                farDistance = d;
+                far = i;
+            }
+        }
+        boolean[] kept = new boolean[n];
+        kept[0] = true;
+        kept[far] = true;
+        double toleranceSquared = Math.max(tolerance, 0) * Math.max(tolerance, 0);
+        int[] stack = new int[4 * n + 4];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = far;
+        stack[top++] = far;
+        stack[top++] = n;
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+            int farthest = -1;
+            double farthestDistance = toleranceSquared;
+            for (int i = first + 1; i < last; i++) {
+                double d = segmentDistanceSquared(coords, i, first, last % n);
+                if (d > farthestDistance) {
+                    farthestDistance = d;
+                    farthest = i;
+                }
+            }
+            if (farthest != -1) {
+                kept[farthest] = true;
+                stack[top++] = first;
+                stack[top++] = farthest;
+                stack[top++] = farthest;
+                stack[top++] = last;
+            }
+        }
+        ensureMinimum(coords, kept, 0, far);
+        return kept;
+    }
+
+    /**
+     * Marks the vertices kept by the Visvalingam–Whyatt algorithm, using a heap of the effective areas
+     * updated as the vertices are removed.
+     */
+    private static boolean[] visvalingamWhyatt(double[] coords, double tolerance) {
+        int n = coords.length / 2;
+        int[] prev = new int[n];
+        int[] next = new int[n];
+        double[] area = new double[n];
+        boolean[] kept = new boolean[n];
+        Arrays.fill(kept, true);
+        PriorityQueue<double[]> heap = new PriorityQueue<>(n, (a, b) -> Double.compare(a[0], b[0]));
+        for (int i = 0; i < n; i++) {
+            prev[i] = (i + n - 1) % n;
+            next[i] = (i + 1) % n;
+            area[i] = triangleArea(coords, prev[i], i, next[i]);
+            heap.add(new double[]{area[i], i});
+        }
+        double threshold = Math.max(tolerance, 0) * Math.max(tolerance, 0);
+        int remaining = n;
+        double maxRemoved = 0;
+        while (remaining > MIN_VERTICES && !heap.isEmpty()) {
+            double[] entry = heap.poll();
+            int i = (int) entry[1];
+            if (!kept[i] || entry[0] != area[i]) {
+                continue;
+            }
+            if (entry[0] > threshold || (threshold == 0 && entry[0] > 0)) {
+                break;
+            }
+            // the effective area never decreases, so the order of removal follows the significance
+            maxRemoved = Math.max(maxRemoved, entry[0]);
+            kept[i] = false;
+            remaining--;
+            int p = prev[i];
+            int q = next[i];
+            next[p] = q;
+            prev[q] = p;
+            area[p] = Math.max(triangleArea(coords, prev[p], p, q), maxRemoved);
+            area[q] = Math.max(triangleArea(coords, p, q, next[q]), maxRemoved);
+            heap.add(new double[]{area[p], p});
+            heap.add(new double[]{area[q], q});
+        }
+        return kept;
+    }
+
+    /**
+     * Keeps the vertex farthest from the chord between two kept vertices when fewer than three vertices
+     * are kept, so the result is still a polygon.
+     */
+    private static void ensureMinimum(double[] coords, boolean[] kept, int a, int b) {
+        int count = 0;
+        for (boolean k : kept) {
+            if (k) {
+                count++;
+            }
+        }
+        while (count < MIN_VERTICES) {
+            int farthest = -1;
+            double farthestDistance = -1;
+            for (int i = 0; i < kept.length; i++) {
+                if (!kept[i]) {
+                    double d = segmentDistanceSquared(coords, i, a, b);
+                    if (d > farthestDistance) {
+                        farthestDistance = d;
+                        farthest = i;
+                    }
+                }
+            }
+            kept[farthest] = true;
+            count++;
+        }
+    }
+
+    /**
+     * Returns the square of the distance between two vertices.
+     */
+    private static double distanceSquared(double[] coords, int i, int j) {
+        double dx = coords[2 * j] - coords[2 * i];
+        double dy = coords[2 * j + 1] - coords[2 * i + 1];
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Returns the square of the distance between vertex {@code i} and the segment joining vertices
+     * {@code a} and {@code b}.
+     */
+    private static double segmentDistanceSquared(double[] coords, int i, int a, int b) {
+        double ax = coords[2 * a];
+        double ay = coords[2 * a + 1];
+        double dx = coords[2 * b] - ax;
+        double dy = coords[2 * b + 1] - ay;
+        double px = coords[2 * i] - ax;
+        double py = coords[2 * i + 1] - ay;
+        double length = dx * dx + dy * dy;
+        double t = length == 0 ? 0 : Math.max(0, Math.min(1, (px * dx + py * dy) / length));
+        double ex = px - t * dx;
+        double ey = py - t * dy;
+        return ex * ex + ey * ey;
+    }
+
+    /**
+     * Returns the area of the triangle formed by three vertices.
+     */
+    private static double triangleArea(double[] coords, int a, int b, int c) {
+        double abx = coords[2 * b] - coords[2 * a];
+        double aby = coords[2 * b + 1] - coords[2 * a + 1];
+        double acx = coords[2 * c] - coords[2 * a];
+        double acy = coords[2 * c + 1] - coords[2 * a + 1];
+        return Math.abs(abx * acy - aby * acx) / 2;
+    }
+}
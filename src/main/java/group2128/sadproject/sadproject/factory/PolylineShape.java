@@ -0,0 +1,211 @@
+package group2128.sadproject.sadproject.factory;
+
+import group2128.sadproject.sadproject.styles.ShapeStyle;
+import javafx.collections.ObservableList;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Polyline;
+import org.json.JSONObject;
+
+import java.util.List;
+
+/**
+ * An open chain of line segments that extends {@link Polyline} and implements the {@link SelectableShape} interface.
+ * <p>
+ * Polylines are produced by the freehand tool when a stroke does not come back to its starting point.
+ * Like segments they are never filled: {@link #setFillColor(Color)} is ignored and {@link #getFillColor()}
+ * returns {@code null}, so fill commands and styles leave them as outlines.
+ * </p>
+ */
+public class PolylineShape extends Polyline implements SelectableShape {
+
+    /**
+     * Constructs a new {@code PolylineShape} with the given edge color and points.
+     *
+     * @param edgeColor the edge color of the shape
+     * @param points    the coordinates of the vertices, {@code x0, y0, x1, y1, ...}
+     */
+    public PolylineShape(Color edgeColor, List<Double> points) {
+        super.setStrokeWidth(ShapeStyle.DEFAULT_STROKE_WIDTH);
+        super.setFill(null);
+        setEdgeColor(edgeColor);
+        getPoints().setAll(points);
+    }
+
+    /**
+     * Constructs a new {@code PolylineShape} with the given edge color, points and transformations.
+     *
+     * @param edgeColor the edge color of the shape
+     * @param points    the coordinates of the vertices, {@code x0, y0, x1, y1, ...}
+     * @param scaleX    the horizontal scale, negative when flipped
+     * @param scaleY    the vertical scale, negative when flipped
+     * @param angle     the rotation angle in degrees
+     */
+    public PolylineShape(Color edgeColor, List<Double> points, double scaleX, double scaleY, double angle) {
+        this(edgeColor, points);
+        setScaleX(scaleX);
+        setScaleY(scaleY);
+        setRotation(angle);
+    }
+
+    /**
+     * Returns the current list of points defining the polyline's vertices.
+     *
+     * @return an observable list of {@code Double} values representing the X and Y coordinates
+     */
+    public ObservableList<Double> getPointsList() {
+        return super.getPoints();
+    }
+
+    /**
+     * Creates an independent copy of this polyline, with the same points, color, stroke and transformations.
+     *
+     * @return the copy
+     */
+    @Override
+    public SelectableShape getCopy() {
+        PolylineShape polyline = new PolylineShape(ColorCache.intern(getEdgeColor()), getPointsList(),
+                getScaleX(), getScaleY(), getRotation());
+        polyline.setStrokeWidth(getStrokeWidth());
+        return polyline;
+    }
+
+    /**
+     * Moves the polyline by the given offset, shifting every vertex in a single update.
+     *
+     * @param dx the horizontal offset
+     * @param dy the vertical offset
+     */
+    @Override
+    public void moveBy(double dx, double dy) {
+        ObservableList<Double> points = getPoints();
+        Double[] moved = points.toArray(new Double[0]);
+        for (int i = 0; i + 1 < moved.length; i += 2) {
+            moved[i] += dx;
+            moved[i + 1] += dy;
+        }
+        points.setAll(moved);
+    }
+
+    /**
+     * Bakes the rotation and the flip of the polyline into its vertices, which always succeeds.
+     *
+     * @return {@code true}
+     */
+    @Override
+    public boolean bakeTransform() {
+        ShapeTransform transform = ShapeTransform.ofRotationAndScale(this);
+        if (!transform.isIdentity()) {
+            Double[] baked = transform.transformCoordinates(getPoints());
+            setRotate(0);
+            setScaleX(1);
+            setScaleY(1);
+            getPoints().setAll(baked);
+        }
+        return true;
+    }
+
+    @Override
+    public void setEdgeColor(Color edgeColor) {
+        super.setStroke(edgeColor);
+    }
+
+    @Override
+    public Color getEdgeColor() {
+        return (Color) getStroke();
+    }
+
+    /**
+     * Ignored: a polyline is an open outline and is never filled.
+     *
+     * @param fillColor the fill color, ignored
+     */
+    @Override
+    public void setFillColor(Color fillColor) {
+    }
+
+    /**
+     * Returns {@code null}, since a polyline is never filled.
+     *
+     * @return {@code null}
+     */
+    @Override
+    public Color getFillColor() {
+        return null;
+    }
+
+    /**
+     * Moves the polyline so that its first vertex is at the given X coordinate.
+     *
+     * @param x the new X coordinate of the first vertex
+     */
+    @Override
+    public void setAnchorX(double x) {
+        moveBy(x - getAnchorX(), 0);
+    }
+
+    @Override
+    public double getAnchorX() {
+        return super.getPoints().get(0);
+    }
+
+    /**
+     * Moves the polyline so that its first vertex is at the given Y coordinate.
+     *
+     * @param y the new Y coordinate of the first vertex
+     */
+    @Override
+    public void setAnchorY(double y) {
+        moveBy(0, y - getAnchorY());
+    }
+
+    @Override
+    public double getAnchorY() {
+        return super.getPoints().get(1);
+    }
+
+    @Override
+    public void setDimensionX(double x) {
+
+    }
+
+    @Override
+    public double getDimensionX() {
+        return getLayoutBounds().getWidth() - getStrokeWidth();
+    }
+
+    @Override
+    public void setDimensionY(double y) {
+
+    }
+
+    @Override
+    public double getDimensionY() {
+        return getLayoutBounds().getHeight() - getStrokeWidth();
+    }
+
+    /**
+     * Serializes the points, stroke and transformations of this polyline into the given object.
+     *
+     * @param obj the {@code JSONObject} to populate with this shape's data
+     */
+    @Override
+    public void saveJson(JSONObject obj) {
+        obj.put("type", "polyline");
+        obj.put("points", this.getPointsList());
+        obj.put("stroke", Shape.getColorString(this.getEdgeColor()));
+        obj.put("strokeWidth", this.getStrokeWidth());
+        obj.put("flipHorizontal", this.getScaleX());
+        obj.put("flipVertical", this.getScaleY());
+        obj.put("rotation", this.getRotation());
+    }
+
+    @Override
+    public void setRotation(double angle) {
+        super.setRotate(angle);
+    }
+
+    @Override
+    public double getRotation() {
+        return super.getRotate();
+    }
+}
@@ -1,13 +1,8 @@
 package group2128.sadproject.sadproject.factory;
 
 import group2128.sadproject.sadproject.strategy.DrawingParams;
-import javafx.beans.property.BooleanProperty;
-import javafx.beans.property.SimpleBooleanProperty;
-import javafx.scene.Cursor;
-import javafx.scene.effect.DropShadow;
-import javafx.scene.input.MouseButton;
+import group2128.sadproject.sadproject.styles.ShapeStyle;
 import javafx.scene.paint.Color;
-import javafx.scene.paint.Paint;
 import javafx.scene.shape.Rectangle;
 import org.json.JSONObject;
 
@@ -18,16 +13,6 @@ import org.json.JSONObject;
  */
 public class RectangleShape extends Rectangle implements SelectableShape {
 
-    /**
-     * A flag used to ensure that the interaction trigger logic is executed only once per interaction session.
-     * <p>
-     * This variable prevents redundant state changes or repeated calls to interaction-related logic
-     * (e.g., setting interactionProperty to true) during user gestures such as dragging or resizing.
-     * It is typically reset externally when a new interaction cycle is expected.
-     * </p>
-     */
-    private boolean shouldTriggerInteraction = true;
-
     /**
      * The default width of the rectangle shape, in pixels.
      * Used when no specific width is provided during instantiation.
@@ -40,40 +25,6 @@ public class RectangleShape extends Rectangle implements SelectableShape {
      */
     private static final double DEFAULT_HEIGHT = 40.0;
 
-    /**
-     * The default stroke width (edge thickness) for the rectangle, in pixels.
-     */
-    private static final double DEFAULT_STROKE_WIDTH = 3.0;
-
-    /**
-     * The horizontal offset between the mouse cursor and the shape's X coordinate
-     * at the beginning of the drag. Used to maintain consistent dragging behavior.
-     */
-    private double dragOffsetX;
-
-    /**
-     * The vertical offset between the mouse cursor and the shape's Y coordinate
-     * at the beginning of the drag. Used to maintain consistent dragging behavior.
-     */
-    private double dragOffsetY;
-
-    /**
-     * A JavaFX {@code BooleanProperty} representing the selection state of this shape.
-     * <p>
-     * This property can be observed or bound to enable reactive UI behavior,
-     * such as highlighting the shape when selected.
-     *
-     * <p>Defaults to {@code false} (unselected).
-     */
-    private final BooleanProperty selectedProperty = new SimpleBooleanProperty();
-
-    /**
-     * A boolean property used to notify whether the block has undergone a generic interaction,
-     * such as being drawn or modified. This property can be observed to trigger updates or
-     * state changes in response to user actions.
-     */
-    private final BooleanProperty interactionProperty = new SimpleBooleanProperty();
-
     /**
      * Constructs a {@code RectangleShape} with the specified top-left corner coordinates.
      * Default width and height.
@@ -85,14 +36,7 @@ public class RectangleShape extends Rectangle implements SelectableShape {
         super(DEFAULT_WIDTH,  DEFAULT_HEIGHT);
         setFillColor(fillColor);
         setEdgeColor(edgeColor);
-        super.setStrokeWidth(DEFAULT_STROKE_WIDTH);
-
-        selectedProperty().addListener((observable, oldValue, newValue) -> {
-            setEffect(newValue ? new DropShadow(10, Color.DEEPSKYBLUE): null);
-        });
-
-        initDrag();
-
+        super.setStrokeWidth(ShapeStyle.DEFAULT_STROKE_WIDTH);
     }
 
     /**
@@ -108,13 +52,7 @@ public class RectangleShape extends Rectangle implements SelectableShape {
         super(width,  height);
         setFillColor(fillColor);
         setEdgeColor(edgeColor);
-        super.setStrokeWidth(DEFAULT_STROKE_WIDTH);
-
-        selectedProperty().addListener((observable, oldValue, newValue) -> {
-            setEffect(newValue ? new DropShadow(10, Color.DEEPSKYBLUE): null);
-        });
-
-        initDrag();
+        super.setStrokeWidth(ShapeStyle.DEFAULT_STROKE_WIDTH);
     }
 
     /**
@@ -134,13 +72,7 @@ public class RectangleShape extends Rectangle implements SelectableShape {
         setAnchorY(y);
         setFillColor(fillColor);
         setEdgeColor(edgeColor);
-        super.setStrokeWidth(DEFAULT_STROKE_WIDTH);
-
-        selectedProperty().addListener((observable, oldValue, newValue) -> {
-            setEffect(newValue ? new DropShadow(10, Color.DEEPSKYBLUE): null);
-        });
-
-        initDrag();
+        super.setStrokeWidth(ShapeStyle.DEFAULT_STROKE_WIDTH);
     }
 
 
@@ -164,16 +96,10 @@ public class RectangleShape extends Rectangle implements SelectableShape {
         setAnchorY(y);
         setFillColor(fillColor);
         setEdgeColor(edgeColor);
-        super.setStrokeWidth(DEFAULT_STROKE_WIDTH);
+        super.setStrokeWidth(ShapeStyle.DEFAULT_STROKE_WIDTH);
         setScaleX(scaleX);
         setScaleY(scaleY);
         setRotation(angle);
-
-        selectedProperty().addListener((observable, oldValue, newValue) -> {
-            setEffect(newValue ? new DropShadow(10, Color.DEEPSKYBLUE): null);
-        });
-
-        initDrag();
     }
 
 
@@ -188,78 +114,39 @@ public class RectangleShape extends Rectangle implements SelectableShape {
      */
     @Override
     public SelectableShape getCopy() {
-        Color edge = new Color(getEdgeColor().getRed(), getEdgeColor().getGreen(), getEdgeColor().getBlue(), getEdgeColor().getOpacity());
-        Color fill = new Color(getFillColor().getRed(), getFillColor().getGreen(), getFillColor().getBlue(), getFillColor().getOpacity());
+        Color edge = ColorCache.intern(getEdgeColor());
+        Color fill = ColorCache.intern(getFillColor());
         RectangleShape rectangle = new RectangleShape(fill, edge,getAnchorX(),getAnchorY(),getDimensionX(),getDimensionY());
         rectangle.setScaleX(getScaleX());
         rectangle.setScaleY(getScaleY());
         rectangle.setRotation(getRotation());
+        rectangle.setStrokeWidth(getStrokeWidth());
         return rectangle;
     }
 
     /**
-     * Returns the {@link BooleanProperty} object representing the interaction state.
-     * This can be used for property bindings or listeners.
-     *
-     * @return the BooleanProperty for interaction
-     */
-    @Override
-    public BooleanProperty interactionPropertyProperty() {
-        return interactionProperty;
-    }
-
-    /**
-     * Sets the value of the interaction property.
-     *
-     * @param interactionProperty true to enable interaction, false to disable it
-     */
-    @Override
-    public void setInteractionProperty(boolean interactionProperty) {
-        this.interactionProperty.set(interactionProperty);
-    }
-
-    /**
-     * Initializes mouse event handlers to enable dragging of the shape.
+     * Bakes the flip of the rectangle, and its rotation if it is a multiple of 90 degrees, into its
+     * position and size. Other rotations cannot be expressed by an axis-aligned rectangle and are kept.
      *
-     * <p>The drag behavior is activated only when the shape is currently selected,
-     * allowing users to click and drag it using the mouse. During the drag:
-     * <ul>
-     *   <li>{@code MousePressed} calculates the initial offset and changes the cursor.</li>
-     *   <li>{@code MouseDragged} updates the shape's position based on the mouse movement.</li>
-     *   <li>{@code MouseReleased} resets the cursor to default.</li>
-     * </ul>
-     * Events are consumed to prevent propagation to parent nodes.</p>
+     * @return {@code true} if the rectangle has no rotation or flip left
      */
     @Override
-    public void initDrag() {
-        this.setOnMousePressed(event -> {
-            if (isSelected()) {
-                dragOffsetX = event.getSceneX() - getX();
-                dragOffsetY = event.getSceneY() - getY();
-
-                event.consume();
-            }
-        });
-
-        this.setOnMouseDragged(event -> {
-            if (isSelected() && event.getButton() == MouseButton.PRIMARY) {
-                if(shouldTriggerInteraction){
-                    interactionProperty.set(true);
-                    shouldTriggerInteraction = false;
-                }
-                setCursor(Cursor.CLOSED_HAND);
-                setX(event.getSceneX() - dragOffsetX);
-                setY(event.getSceneY() - dragOffsetY);
-                event.consume();
-            }
-        });
-
-        this.setOnMouseReleased(event -> {
-            if (isSelected()) {
-                setCursor(Cursor.DEFAULT);
-                shouldTriggerInteraction = true;
-            }
-        });
+    public boolean bakeTransform() {
+        ShapeTransform transform = ShapeTransform.ofRotationAndScale(this);
+        if (!transform.isAxisAligned()) {
+            return false;
+        }
+        if (!transform.isIdentity()) {
+            double[] bounds = transform.transformBounds(getX(), getY(), getX() + getWidth(), getY() + getHeight());
+            setRotate(0);
+            setScaleX(1);
+            setScaleY(1);
+            setX(bounds[0]);
+            setY(bounds[1]);
+            setWidth(bounds[2] - bounds[0]);
+            setHeight(bounds[3] - bounds[1]);
+        }
+        return true;
     }
 
     /**
@@ -417,50 +304,17 @@ public class RectangleShape extends Rectangle implements SelectableShape {
     }
 
 
-    /**
-     * Returns the JavaFX {@code BooleanProperty} that stores the current
-     * selection flag.
-     *
-     * @return the observable property representing whether the shape is
-     * currently selected
-     */
-    @Override
-    public BooleanProperty selectedProperty() {
-        return this.selectedProperty;
-    }
-
-    /**
-     * Convenience accessor that mirrors {@code selectedProperty().get()}.
-     *
-     * @return {@code true} if the shape is selected, {@code false} otherwise
-     */
-    @Override
-    public boolean isSelected() {
-        return this.selectedProperty.get();
-    }
-
-    /**
-     * Sets the selection flag for this shape.
-     *
-     * @param selected {@code true} to mark the shape as selected;
-     *                 {@code false} to clear the selection
-     */
-    @Override
-    public void setSelected(boolean selected) {
-        this.selectedProperty.set(selected);
-    }
-
     /**
      * Determines whether the given point (x, y) lies within the bounds of this shape.
      *
-     * @param x the X coordinate of the point to test
-     * @param y the Y coordinate of the point to test
+     * @param x the X coordinate of the point to test, in the local coordinates of the shape
+     * @param y the Y coordinate of the point to test, in the local coordinates of the shape
      * @return {@code true} if the point is inside the shape's area;
      *         {@code false} otherwise
      */
     @Override
     public boolean contains(double x, double y) {
-        return this.getBoundsInParent().contains(x,y);
+        return this.getBoundsInLocal().contains(x,y);
     }
 
     /**
@@ -505,8 +359,8 @@ public class RectangleShape extends Rectangle implements SelectableShape {
      * @param obj the {@code JSONObject} containing the serialized shape data
      */
     public static void loadJson(DrawingParams params, JSONObject obj) {
-        params.setFillColor((Color) Paint.valueOf(obj.optString("fill", "BLACK")));
-        params.setEdgeColor((Color) Paint.valueOf(obj.optString("stroke", "BLACK")));
+        params.setFillColor(ColorCache.parse(obj.optString("fill", "BLACK")));
+        params.setEdgeColor(ColorCache.parse(obj.optString("stroke", "BLACK")));
         params.setWidthValueProperty(obj.getDouble("width"));
         params.setHeightValueProperty(obj.getDouble("height"));
         params.setRotationValueProperty(obj.getDouble("rotation"));
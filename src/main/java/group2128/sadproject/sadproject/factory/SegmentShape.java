@@ -1,13 +1,9 @@
 package group2128.sadproject.sadproject.factory;
 
 import group2128.sadproject.sadproject.strategy.DrawingParams;
-import javafx.beans.property.BooleanProperty;
-import javafx.beans.property.SimpleBooleanProperty;
-import javafx.scene.Cursor;
-import javafx.scene.effect.DropShadow;
-import javafx.scene.input.MouseButton;
+import group2128.sadproject.sadproject.styles.ShapeStyle;
+import javafx.geometry.Point2D;
 import javafx.scene.paint.Color;
-import javafx.scene.paint.Paint;
 import javafx.scene.shape.Line;
 import org.json.JSONObject;
 
@@ -19,62 +15,6 @@ import org.json.JSONObject;
  */
 public class SegmentShape extends Line implements SelectableShape {
 
-    /**
-     * A flag used to ensure that the interaction trigger logic is executed only once per interaction session.
-     * <p>
-     * This variable prevents redundant state changes or repeated calls to interaction-related logic
-     * (e.g., setting interactionProperty to true) during user gestures such as dragging or resizing.
-     * It is typically reset externally when a new interaction cycle is expected.
-     * </p>
-     */
-    private boolean shouldTriggerInteraction = true;
-
-    /**
-     * The default stroke width (edge thickness) for the segment, in pixels.
-     */
-    private static final double DEFAULT_STROKE_WIDTH = 3.0;
-
-    /**
-     * A JavaFX {@code BooleanProperty} representing the selection state of this shape.
-     * <p>
-     * This property can be observed or bound to enable reactive UI behavior,
-     * such as highlighting the shape when selected.
-     *
-     * <p>Defaults to {@code false} (unselected).
-     */
-    private final BooleanProperty selectedProperty = new SimpleBooleanProperty();
-
-    /**
-     * The horizontal offset between the mouse cursor and the shape's X coordinate
-     * at the beginning of the drag. Used to maintain consistent dragging behavior.
-     */
-    private double dragOffsetX;
-
-    /**
-     * The vertical offset between the mouse cursor and the shape's Y coordinate
-     * at the beginning of the drag. Used to maintain consistent dragging behavior.
-     */
-    private double dragOffsetY;
-
-    /**
-     * The horizontal distance between the shape's starting X coordinate and its end point.
-     * This is used to maintain the relative position of the end point during dragging.
-     */
-    private double distanceX;
-
-    /**
-     * The vertical distance between the shape's starting Y coordinate and its end point.
-     * This is used to maintain the relative position of the end point during dragging.
-     */
-    private double distanceY;
-
-    /**
-     * A boolean property used to notify whether the block has undergone a generic interaction,
-     * such as being drawn or modified. This property can be observed to trigger updates or
-     * state changes in response to user actions.
-     */
-    private final BooleanProperty interactionProperty = new SimpleBooleanProperty();
-
     /**
      * Constructs a SegmentShape with the specified edge color.
      *
@@ -83,13 +23,7 @@ public class SegmentShape extends Line implements SelectableShape {
     public SegmentShape(Color fillColor, Color edgeColor){
         setFillColor(fillColor);
         setEdgeColor(edgeColor);
-        super.setStrokeWidth(DEFAULT_STROKE_WIDTH);
-
-        selectedProperty().addListener((observable, oldValue, newValue) -> {
-            setEffect(newValue ? new DropShadow(10, Color.DEEPSKYBLUE): null);
-        });
-
-        initDrag();
+        super.setStrokeWidth(ShapeStyle.DEFAULT_STROKE_WIDTH);
     }
 
     /**
@@ -112,13 +46,7 @@ public class SegmentShape extends Line implements SelectableShape {
         setFillColor(fillColor);
         setEdgeColor(edgeColor);
 
-        super.setStrokeWidth(DEFAULT_STROKE_WIDTH);
-
-        selectedProperty().addListener((observable, oldValue, newValue) -> {
-            setEffect(newValue ? new DropShadow(10, Color.DEEPSKYBLUE): null);
-        });
-
-        initDrag();
+        super.setStrokeWidth(ShapeStyle.DEFAULT_STROKE_WIDTH);
     }
 
     /**
@@ -146,34 +74,7 @@ public class SegmentShape extends Line implements SelectableShape {
         setScaleX(scaleX);
         setScaleY(scaleY);
         setRotate(angle);
-        super.setStrokeWidth(DEFAULT_STROKE_WIDTH);
-
-        selectedProperty().addListener((observable, oldValue, newValue) -> {
-            setEffect(newValue ? new DropShadow(10, Color.DEEPSKYBLUE): null);
-        });
-
-        initDrag();
-    }
-
-    /**
-     * Returns the {@link BooleanProperty} object representing the interaction state.
-     * This can be used for property bindings or listeners.
-     *
-     * @return the BooleanProperty for interaction
-     */
-    @Override
-    public BooleanProperty interactionPropertyProperty() {
-        return interactionProperty;
-    }
-
-    /**
-     * Sets the value of the interaction property.
-     *
-     * @param interactionProperty true to enable interaction, false to disable it
-     */
-    @Override
-    public void setInteractionProperty(boolean interactionProperty) {
-        this.interactionProperty.set(interactionProperty);
+        super.setStrokeWidth(ShapeStyle.DEFAULT_STROKE_WIDTH);
     }
 
     /**
@@ -197,60 +98,6 @@ public class SegmentShape extends Line implements SelectableShape {
     }
 
 
-    /**
-     * Initializes mouse event handlers to enable dragging of the shape.
-     *
-     * <p>The drag behavior is activated only when the shape is currently selected,
-     * allowing users to click and drag it using the mouse. The shape's position
-     * and its endpoint (e.g., for lines or complex shapes) are both updated to reflect
-     * the drag movement. Specifically:
-     *
-     * <ul>
-     *   <li>{@code MousePressed} calculates the initial offsets and distances, and changes the cursor.</li>
-     *   <li>{@code MouseDragged} updates both the shape's position and its end point based on the mouse movement.</li>
-     *   <li>{@code MouseReleased} resets the cursor to its default state.</li>
-     * </ul>
-     *
-     * Events are consumed to prevent propagation to parent nodes.
-     * </p>
-     */
-    @Override
-    public void initDrag() {
-
-        this.setOnMousePressed(event -> {
-            if (isSelected()) {
-                setDimensionX(event.getX());
-                setDimensionY(event.getY());
-                dragOffsetX = event.getSceneX() - getAnchorX();
-                dragOffsetY = event.getSceneY() - getAnchorY();
-                event.consume();
-            }
-        });
-
-        this.setOnMouseDragged(event -> {
-            if (isSelected() && event.getButton() == MouseButton.PRIMARY) {
-                if(shouldTriggerInteraction){
-                    interactionProperty.set(true);
-                    shouldTriggerInteraction = false;
-                }
-
-                setCursor(Cursor.CLOSED_HAND);
-                setAnchorX(event.getSceneX() - dragOffsetX);
-                setAnchorY(event.getSceneY() - dragOffsetY);
-                setEndPointX((event.getSceneX() - this.distanceX) - dragOffsetX);
-                setEndPointY((event.getSceneY() - this.distanceY) - dragOffsetY);
-                event.consume();
-            }
-        });
-
-        this.setOnMouseReleased(event -> {
-            if (isSelected()) {
-                setCursor(Cursor.DEFAULT);
-                shouldTriggerInteraction = true;
-            }
-        });
-    }
-
     /**
      * Returns a copy of the given {@link SelectableShape} instance.
      * <p>
@@ -262,8 +109,46 @@ public class SegmentShape extends Line implements SelectableShape {
      */
     @Override
     public SegmentShape getCopy() {
-        Color edge = new Color(getEdgeColor().getRed(), getEdgeColor().getGreen(), getEdgeColor().getBlue(), getEdgeColor().getOpacity());
-        return new SegmentShape(null, edge, getAnchorX(), getAnchorY(),getEndPointX(), getEndPointY(), getScaleX(), getScaleY(), getRotation());
+        Color edge = ColorCache.intern(getEdgeColor());
+        SegmentShape segment = new SegmentShape(null, edge, getAnchorX(), getAnchorY(),getEndPointX(), getEndPointY(), getScaleX(), getScaleY(), getRotation());
+        segment.setStrokeWidth(getStrokeWidth());
+        return segment;
+    }
+
+    /**
+     * Moves the segment by the given offset, shifting both its start and end points.
+     *
+     * @param dx the horizontal offset
+     * @param dy the vertical offset
+     */
+    @Override
+    public void moveBy(double dx, double dy) {
+        setAnchorX(getAnchorX() + dx);
+        setAnchorY(getAnchorY() + dy);
+        setEndPointX(getEndPointX() + dx);
+        setEndPointY(getEndPointY() + dy);
+    }
+
+    /**
+     * Bakes the rotation and the flip of the segment into its end points, which always succeeds.
+     *
+     * @return {@code true}
+     */
+    @Override
+    public boolean bakeTransform() {
+        ShapeTransform transform = ShapeTransform.ofRotationAndScale(this);
+        if (!transform.isIdentity()) {
+            Point2D start = transform.transform(getStartX(), getStartY());
+            Point2D end = transform.transform(getEndX(), getEndY());
+            setRotate(0);
+            setScaleX(1);
+            setScaleY(1);
+            setStartX(start.getX());
+            setStartY(start.getY());
+            setEndX(end.getX());
+            setEndY(end.getY());
+        }
+        return true;
     }
 
     /**
@@ -353,11 +238,12 @@ public class SegmentShape extends Line implements SelectableShape {
      * For example, it may represent the width of a rectangle, the horizontal radius of an ellipse,
      * or the length of a line.
      *
-     * @param x the value to set for the horizontal dimension
+     * The dimension of a segment is derived from its end points, so this method does nothing.
+     *
+     * @param x ignored
      */
     @Override
     public void setDimensionX(double x) {
-        this.distanceX = getAnchorX() - getEndPointX();
     }
 
     /**
@@ -366,11 +252,11 @@ public class SegmentShape extends Line implements SelectableShape {
      * This value may correspond to the width, horizontal radius, or other context-specific
      * horizontal measurement of the shape.
      *
-     * @return the horizontal dimension
+     * @return the horizontal dimension, the offset from the end point to the start point
      */
     @Override
     public double getDimensionX() {
-        return this.distanceX;
+        return getAnchorX() - getEndPointX();
     }
 
     /**
@@ -380,11 +266,12 @@ public class SegmentShape extends Line implements SelectableShape {
      * For example, it may represent the height of a rectangle, the vertical radius of an ellipse,
      * or the vertical length of a line.
      *
-     * @param y the value to set for the vertical dimension
+     * The dimension of a segment is derived from its end points, so this method does nothing.
+     *
+     * @param y ignored
      */
     @Override
     public void setDimensionY(double y) {
-        this.distanceY = getAnchorY() - getEndPointY();
     }
 
     /**
@@ -393,11 +280,11 @@ public class SegmentShape extends Line implements SelectableShape {
      * This value may correspond to the height, vertical radius, or other context-specific
      * vertical measurement of the shape.
      *
-     * @return the vertical dimension
+     * @return the vertical dimension, the offset from the end point to the start point
      */
     @Override
     public double getDimensionY() {
-        return this.distanceY;
+        return getAnchorY() - getEndPointY();
     }
 
     /**
@@ -460,50 +347,17 @@ public class SegmentShape extends Line implements SelectableShape {
         return super.getEndY();
     }
 
-    /**
-     * Returns the JavaFX {@code BooleanProperty} that stores the current
-     * selection flag.
-     *
-     * @return the observable property representing whether the shape is
-     * currently selected
-     */
-    @Override
-    public BooleanProperty selectedProperty() {
-        return this.selectedProperty;
-    }
-
-    /**
-     * Convenience accessor that mirrors {@code selectedProperty().get()}.
-     *
-     * @return {@code true} if the shape is selected, {@code false} otherwise
-     */
-    @Override
-    public boolean isSelected() {
-        return this.selectedProperty.get();
-    }
-
-    /**
-     * Sets the selection flag for this shape.
-     *
-     * @param selected {@code true} to mark the shape as selected;
-     *                 {@code false} to clear the selection
-     */
-    @Override
-    public void setSelected(boolean selected) {
-        this.selectedProperty.set(selected);
-    }
-
     /**
      * Determines whether the given point (x, y) lies within the bounds of this shape.
      *
-     * @param x the X coordinate of the point to test
-     * @param y the Y coordinate of the point to test
+     * @param x the X coordinate of the point to test, in the local coordinates of the shape
+     * @param y the Y coordinate of the point to test, in the local coordinates of the shape
      * @return {@code true} if the point is inside the shape's area;
      *         {@code false} otherwise
      */
     @Override
     public boolean contains(double x, double y) {
-        return this.getBoundsInParent().contains(x,y);
+        return this.getBoundsInLocal().contains(x,y);
     }
 
     /**
@@ -524,7 +378,7 @@ public class SegmentShape extends Line implements SelectableShape {
      */
     public static void loadJson(DrawingParams params, JSONObject obj) {
         params.setFillColor(null);
-        params.setEdgeColor((Color) Paint.valueOf(obj.optString("stroke", "BLACK")));
+        params.setEdgeColor(ColorCache.parse(obj.optString("stroke", "BLACK")));
         params.setRotationValueProperty(obj.getDouble("rotation"));
         params.setScaleX(obj.getDouble("flipHorizontal"));
         params.setScaleY(obj.getDouble("flipVertical"));
@@ -1,14 +1,18 @@
 package group2128.sadproject.sadproject.factory;
 
 import javafx.beans.property.BooleanProperty;
+import javafx.scene.Node;
 
 /**
  * Represents a shape that can toggle between <em>selected</em> and
  * <em>unselected</em> states.
  * <p>
- * Implementations are expected to expose a {@link BooleanProperty} so the
- * selection status can be observed and bound to UI elements (e.g.&nbsp;for
- * highlighting or enabling context-sensitive commands).
+ * The selection flag can be observed and bound to UI elements (e.g.&nbsp;for
+ * highlighting or enabling context-sensitive commands) through a {@link BooleanProperty}.
+ * The selection, interaction and drag state of the shapes is not stored in the shapes
+ * themselves: the default methods keep it in the {@link SelectionModel} and the
+ * {@link ShapeGestureController} of their canvas, so a shape costs no more than its JavaFX node, and
+ * the properties are only created for the callers that ask for them.
  * All methods are thread-confined to the JavaFX Application Thread unless
  * otherwise specified.
  */
@@ -19,16 +23,21 @@ public interface SelectableShape extends Shape {
      * selection flag.
      *
      * @return the observable property representing whether the shape is
-     *         currently selected
+     *         currently selected, created on first request
      */
-    public BooleanProperty selectedProperty();
+    public default BooleanProperty selectedProperty() {
+        return SelectionModel.forShape(this, true).selectedProperty(this);
+    }
 
     /**
      * Convenience accessor that mirrors {@code selectedProperty().get()}.
      *
      * @return {@code true} if the shape is selected, {@code false} otherwise
      */
-    public boolean isSelected();
+    public default boolean isSelected() {
+        SelectionModel model = SelectionModel.forShape(this, false);
+        return model != null && model.isSelected(this);
+    }
 
     /**
      * Sets the selection flag for this shape.
@@ -36,47 +45,47 @@ public interface SelectableShape extends Shape {
      * @param selected {@code true} to mark the shape as selected;
      *                 {@code false} to clear the selection
      */
-    public void setSelected(boolean selected);
+    public default void setSelected(boolean selected) {
+        SelectionModel model = SelectionModel.forShape(this, selected);
+        if (model != null) {
+            model.setSelected(this, selected);
+        }
+    }
 
     /**
      * Determines whether the given point (x, y) lies within the bounds of this shape.
      *
-     * @param x the X coordinate of the point to test
-     * @param y the Y coordinate of the point to test
+     * @param x the X coordinate of the point to test, in the local coordinates of the shape
+     * @param y the Y coordinate of the point to test, in the local coordinates of the shape
      * @return {@code true} if the point is inside the shape's area;
      *         {@code false} otherwise
      */
     public boolean contains(double x, double y);
 
 
-    /**
-     * Initializes mouse event handlers to enable dragging of the shape.
-     *
-     * <p>The drag behavior is activated only when the shape is currently selected,
-     * allowing users to click and drag it using the mouse. During the drag:
-     * <ul>
-     *   <li>{@code MousePressed} calculates the initial offset and changes the cursor.</li>
-     *   <li>{@code MouseDragged} updates the shape's position based on the mouse movement.</li>
-     *   <li>{@code MouseReleased} resets the cursor to default.</li>
-     * </ul>
-     * Events are consumed to prevent propagation to parent nodes.</p>
-     */
-    public void initDrag();
-
     /**
      * Returns the {@link BooleanProperty} object representing the interaction state.
-     * This can be used for property bindings or listeners.
+     * This can be used for property bindings or listeners; code that only needs to be told
+     * of the interactions should register a listener with
+     * the {@link ShapeGestureController} of the canvas instead.
      *
-     * @return the BooleanProperty for interaction
+     * @return the BooleanProperty for interaction, created on first request
      */
-    public BooleanProperty interactionPropertyProperty();
+    public default BooleanProperty interactionPropertyProperty() {
+        return ShapeGestureController.forShape(this, true).interactionProperty(this);
+    }
 
     /**
      * Sets the value of the interaction property.
      *
      * @param interactionProperty true to enable interaction, false to disable it
      */
-    public void setInteractionProperty(boolean interactionProperty);
+    public default void setInteractionProperty(boolean interactionProperty) {
+        ShapeGestureController controller = ShapeGestureController.forShape(this, interactionProperty);
+        if (controller != null) {
+            controller.setInteraction(this, interactionProperty);
+        }
+    }
 
     /**
      * Returns a copy of the given {@link SelectableShape} instance.
@@ -88,4 +97,74 @@ public interface SelectableShape extends Shape {
      * @return a new {@code SelectableShape} instance that is a copy of the given shape
      */
     public SelectableShape getCopy();
+
+    /**
+     * Moves the shape by the given offset.
+     * <p>
+     * The geometry of the shape is changed rather than its translation, so the new position
+     * is kept when the shape is saved. The default implementation moves the anchor point,
+     * which is enough for shapes whose geometry is entirely defined by their anchor and dimensions.
+     * </p>
+     *
+     * @param dx the horizontal offset
+     * @param dy the vertical offset
+     */
+    public default void moveBy(double dx, double dy) {
+        setAnchorX(getAnchorX() + dx);
+        setAnchorY(getAnchorY() + dy);
+    }
+
+    /**
+     * Returns the transform from the coordinates of the geometry of this shape to the coordinates of
+     * its parent, combining its position, rotation and flip.
+     *
+     * @return the transform of the shape
+     * @see ShapeTransform#of(Node)
+     */
+    public default ShapeTransform getShapeTransform() {
+        return ShapeTransform.of((Node) this);
+    }
+
+    /**
+     * Bakes the rotation and the flip of this shape into its geometry.
+     * <p>
+     * After a successful bake the shape is drawn at the same place, but its rotation is zero and its
+     * scale is positive, so its geometry alone tells where it is: later hit-testing, snapping, export
+     * and bounds computations no longer go through the rotation of the node. Shapes whose geometry
+     * can express any rotation, such as polygons, always succeed; a rectangle or an ellipse can only
+     * absorb flips and rotations by a multiple of 90 degrees. The default implementation bakes nothing
+     * and only reports whether there is nothing to bake, which is right for the shapes whose scale
+     * holds their size, such as texts.
+     * </p>
+     *
+     * @return {@code true} if the shape has no rotation or flip left
+     */
+    public default boolean bakeTransform() {
+        Node node = (Node) this;
+        return node.getRotate() % 360 == 0 && node.getScaleX() > 0 && node.getScaleY() > 0;
+    }
+
+    /**
+     * Notifies the {@link ShapeDragListener} of the canvas, if any, that this shape has been dragged.
+     * <p>
+     * Drag handlers call this method after placing the shape at the position given by the pointer,
+     * so the listener can adjust that position.
+     * </p>
+     */
+    public default void fireDragged() {
+        ShapeDragListener listener = ShapeDragListener.of((Node) this);
+        if (listener != null) {
+            listener.shapeDragged(this);
+        }
+    }
+
+    /**
+     * Notifies the {@link ShapeDragListener} of the canvas, if any, that the drag of this shape ended.
+     */
+    public default void fireDragReleased() {
+        ShapeDragListener listener = ShapeDragListener.of((Node) this);
+        if (listener != null) {
+            listener.shapeReleased(this);
+        }
+    }
 }
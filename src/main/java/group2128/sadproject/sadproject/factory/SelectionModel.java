@@ -0,0 +1,198 @@
+package group2128.sadproject.sadproject.factory;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.collections.ListChangeListener;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The selection state of the shapes of a canvas, kept outside the shape nodes.
+ * <p>
+ * A drawing can hold a hundred thousand shapes of which only a few are selected at a time, so instead of
+ * every shape allocating a {@link BooleanProperty} for its selection flag, the selected shapes are
+ * recorded here, in a set with weak keys: a shape that is dropped from the drawing while selected is
+ * forgotten along with it, and a shape removed from the canvas is deselected. The model is stored in the
+ * properties of the canvas, like the other managers of a canvas, and {@link SelectableShape#isSelected()}
+ * and {@link SelectableShape#setSelected(boolean)} read and write the model of the canvas of the shape,
+ * found through its parents. A shape that is not on a canvas keeps its selection in a model of its own,
+ * stored in the shape, or in the outermost group holding it.
+ * </p>
+ * <p>
+ * Callers that need to observe or bind the selection of a shape still get a property from
+ * {@link SelectableShape#selectedProperty()}: it is created on first request and stays in sync with the
+ * model. Like the shapes, the model is confined to the JavaFX Application Thread.
+ * </p>
+ */
+public final class SelectionModel {
+
+    /**
+     * The key of the model in the properties of its canvas.
+     */
+    private static final Object PROPERTY_KEY = SelectionModel.class;
+
+    /**
+     * The name of the selection properties.
+     */
+    private static final String PROPERTY_NAME = "selected";
+
+    private final Node canvas;
+
+    /**
+     * The selected shapes.
+     */
+    private final Map<SelectableShape, Boolean> selected = new WeakHashMap<>();
+
+    /**
+     * The selection properties requested so far, by shape.
+     */
+    private final Map<SelectableShape, ShapeFlagProperty> properties = new WeakHashMap<>();
+
+    private SelectionModel(Node canvas) {
+        this.canvas = canvas;
+        if (canvas instanceof Parent) {
+            ((Parent) canvas).getChildrenUnmodifiable().addListener(this::childrenChanged);
+        }
+    }
+
+    /**
+     * Returns the selection model of the given canvas, creating it on first use.
+     *
+     * @param canvas the drawing canvas
+     * @return the model attached to the canvas
+     */
+    public static SelectionModel of(Node canvas) {
+        SelectionModel model = find(canvas);
+        if (model == null) {
+            model = new SelectionModel(canvas);
+            canvas.getProperties().put(PROPERTY_KEY, model);
+        }
+        return model;
+    }
+
+    /**
+     * Returns the selection model of the given canvas, if it has one.
+     *
+     * @param canvas the node, typically a drawing canvas
+     * @return the model attached to the node, or {@code null} if none
+     */
+    public static SelectionModel find(Node canvas) {
+        if (canvas == null || !canvas.hasProperties()) {
+            return null;
+        }
+        Object model = canvas.getProperties().get(PROPERTY_KEY);
+        return model instanceof SelectionModel ? (SelectionModel) model : null;
+    }
+
+    /**
+     * Returns the node holding the state of a shape: the first parent of the shape that is not itself a
+     * shape, that is its canvas, or the outermost shape holding it when it is not on a canvas.
+     *
+     * @param shape the shape
+     * @return the canvas of the shape, or the shape standing for it
+     */
+    static Node canvasOf(SelectableShape shape) {
+        Node node = (Node) shape;
+        Parent parent = node.getParent();
+        while (parent instanceof SelectableShape) {
+            node = parent;
+            parent = parent.getParent();
+        }
+        return parent != null ? parent : node;
+    }
+
+    /**
+     * Returns the model holding the selection of a shape.
+     *
+     * @param shape  the shape
+     * @param create whether to create the model if the canvas of the shape has none
+     * @return the model, or {@code null} if it does not exist and is not created
+     */
+    static SelectionModel forShape(SelectableShape shape, boolean create) {
+        Node canvas = canvasOf(shape);
+        return create ? of(canvas) : find(canvas);
+    }
+
+    /**
+     * Returns whether a shape is selected.
+     *
+     * @param shape the shape
+     * @return {@code true} if the shape is selected
+     */
+    public boolean isSelected(SelectableShape shape) {
+        return selected.containsKey(shape);
+    }
+
+    /**
+     * Selects or deselects a shape.
+     *
+     * @param shape      the shape
+     * @param isSelected {@code true} to select the shape, {@code false} to deselect it
+     */
+    public void setSelected(SelectableShape shape, boolean isSelected) {
+        ShapeFlagProperty property = properties.get(shape);
+        if (property != null) {
+            property.set(isSelected);
+        } else if (isSelected) {
+            selected.put(shape, Boolean.TRUE);
+        } else {
+            selected.remove(shape);
+        }
+    }
+
+    /**
+     * Returns the property of the selection of a shape, creating it on first request.
+     *
+     * @param shape the shape
+     * @return the property, kept in sync with the selection model
+     */
+    public BooleanProperty selectedProperty(SelectableShape shape) {
+        ShapeFlagProperty property = properties.get(shape);
+        if (property == null) {
+            property = new ShapeFlagProperty(shape, PROPERTY_NAME, selected);
+            properties.put(shape, property);
+        }
+        return property;
+    }
+
+    /**
+     * Returns the number of selected shapes.
+     *
+     * @return the number of shapes currently selected
+     */
+    public int getSelectedCount() {
+        return selected.size();
+    }
+
+    /**
+     * Returns the selected shapes.
+     *
+     * @return a snapshot of the selected shapes, in no particular order
+     */
+    public List<SelectableShape> getSelectedShapes() {
+        return new ArrayList<>(selected.keySet());
+    }
+
+    /**
+     * Deselects the shapes removed from the canvas. The shapes removed and added back in the same change,
+     * as when the children are reordered, are kept.
+     */
+    private void childrenChanged(ListChangeListener.Change<? extends Node> change) {
+        if (selected.isEmpty()) {
+            return;
+        }
+        while (change.next()) {
+            if (change.wasRemoved()) {
+                for (Node node : change.getRemoved()) {
+                    if (node instanceof SelectableShape && node.getParent() != canvas) {
+                        setSelected((SelectableShape) node, false);
+                    }
+                }
+            }
+        }
+    }
+}
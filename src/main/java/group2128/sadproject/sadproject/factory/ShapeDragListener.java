@@ -0,0 +1,60 @@
+package group2128.sadproject.sadproject.factory;
+
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.layout.Pane;
+
+/**
+ * Receives the drag gestures of the shapes of a canvas, after each shape has moved itself.
+ * <p>
+ * A listener is attached to a canvas with {@link #install(Pane, ShapeDragListener)}. The drag
+ * handlers of the shapes place the shape from the pointer position, then notify the listener of
+ * their parent through {@link SelectableShape#fireDragged()}; the listener may adjust the position
+ * further, for example to snap the shape to a grid or to other shapes.
+ * </p>
+ */
+public interface ShapeDragListener {
+
+    /**
+     * Called every time a shape has been moved by a drag gesture.
+     *
+     * @param shape the shape being dragged, already at the position given by the pointer
+     */
+    void shapeDragged(SelectableShape shape);
+
+    /**
+     * Called when the drag gesture of a shape ends.
+     *
+     * @param shape the shape that was dragged
+     */
+    void shapeReleased(SelectableShape shape);
+
+    /**
+     * Attaches a listener to a canvas, replacing the previous one if any.
+     *
+     * @param canvas   the canvas whose shapes are observed
+     * @param listener the listener, or {@code null} to detach the current one
+     */
+    static void install(Pane canvas, ShapeDragListener listener) {
+        if (listener == null) {
+            canvas.getProperties().remove(ShapeDragListener.class);
+        } else {
+            canvas.getProperties().put(ShapeDragListener.class, listener);
+        }
+    }
+
+    /**
+     * Returns the listener attached to the parent of a node.
+     *
+     * @param node the node
+     * @return the listener of the parent of the node, or {@code null} if there is none
+     */
+    static ShapeDragListener of(Node node) {
+        Parent parent = node.getParent();
+        if (parent == null) {
+            return null;
+        }
+        Object listener = parent.getProperties().get(ShapeDragListener.class);
+        return listener instanceof ShapeDragListener ? (ShapeDragListener) listener : null;
+    }
+}
@@ -13,6 +13,10 @@ import javafx.scene.paint.Color;
  * {@link #createShapeWithParams(Color, Color, double, double, double, double)},
  * depending on the parameters required by the specific shape type.
  * </p>
+ * <p>
+ * The colors given to the factory are replaced by their shared instances from the {@link ColorCache}
+ * before the shape is created, so the shapes drawn with the same colors share their paints.
+ * </p>
  */
 public abstract class ShapeFactory {
 
@@ -60,7 +64,7 @@ public abstract class ShapeFactory {
      * @return a new {@code Shape} instance created with the given parameters
      */
     public Shape createShape(Color colorFill, Color colorEdge, double anchorX, double anchorY, double dimensionX, double dimensionY) {
-        Shape shape = createShapeWithParams(colorFill, colorEdge, anchorX, anchorY, dimensionX, dimensionY);
+        Shape shape = createShapeWithParams(ColorCache.intern(colorFill), ColorCache.intern(colorEdge), anchorX, anchorY, dimensionX, dimensionY);
         setShape(shape);
         return shape;
     }
@@ -77,7 +81,7 @@ public abstract class ShapeFactory {
      * @return a new {@code Shape} instance created with the given colors
      */
     public Shape createShape(Color colorFill, Color colorEdge) {
-        Shape shape = createShapeWithParams(colorFill, colorEdge);
+        Shape shape = createShapeWithParams(ColorCache.intern(colorFill), ColorCache.intern(colorEdge));
         setShape(shape);
         return shape;
     }
@@ -102,7 +106,7 @@ public abstract class ShapeFactory {
      * @return a new {@code Shape} instance configured with the given parameters
      */
     public Shape createShape(Color colorFill, Color colorEdge, double anchorX, double anchorY, double dimensionX, double dimensionY, double fontSize, double scaleX, double scaleY, double angle) {
-        Shape shape = createShapeWithParams(colorFill, colorEdge, anchorX, anchorY, dimensionX, dimensionY, fontSize, scaleX, scaleY, angle);
+        Shape shape = createShapeWithParams(ColorCache.intern(colorFill), ColorCache.intern(colorEdge), anchorX, anchorY, dimensionX, dimensionY, fontSize, scaleX, scaleY, angle);
         setShape(shape);
         return shape;
     }
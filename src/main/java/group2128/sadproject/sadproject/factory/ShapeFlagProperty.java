@@ -0,0 +1,70 @@
+package group2128.sadproject.sadproject.factory;
+
+import javafx.beans.property.BooleanPropertyBase;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+
+/**
+ * An observable view of a flag of a shape whose value is kept in a central store rather than in the shape.
+ * <p>
+ * These properties are only created when a caller asks for one, for instance to bind to it. Setting the
+ * property writes the store, and the owner of the store keeps the property up to date when the flag is
+ * set without it. The property refers to its shape weakly, so it can be kept in a map with weak keys
+ * without keeping the shape alive.
+ * </p>
+ */
+class ShapeFlagProperty extends BooleanPropertyBase {
+
+    /**
+     * The shape whose flag this property shows.
+     */
+    private final WeakReference<SelectableShape> shape;
+
+    /**
+     * The name of the property.
+     */
+    private final String name;
+
+    /**
+     * The shapes whose flag is set.
+     */
+    private final Map<SelectableShape, Boolean> store;
+
+    /**
+     * Creates a property showing the current value of the flag of a shape.
+     *
+     * @param shape the shape
+     * @param name  the name of the property
+     * @param store the shapes whose flag is set
+     */
+    ShapeFlagProperty(SelectableShape shape, String name, Map<SelectableShape, Boolean> store) {
+        super(store.containsKey(shape));
+        this.shape = new WeakReference<>(shape);
+        this.name = name;
+        this.store = store;
+    }
+
+    @Override
+    protected void invalidated() {
+        SelectableShape owner = shape.get();
+        if (owner == null) {
+            return;
+        }
+        if (get()) {
+            store.put(owner, Boolean.TRUE);
+        } else {
+            store.remove(owner);
+        }
+    }
+
+    @Override
+    public Object getBean() {
+        return shape.get();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,289 @@
+package group2128.sadproject.sadproject.factory;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.scene.Cursor;
+import javafx.scene.Node;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The interaction and drag state of the shapes of a canvas, kept outside the shape nodes.
+ * <p>
+ * The interaction flag of a shape only exists to let the undo history save the canvas just before the user
+ * modifies the shape, for instance when a drag starts. Rather than every shape allocating a property and
+ * a listener for it, the code that wants to be told registers a single {@link InteractionListener} for the
+ * whole canvas with {@link #setInteractionListener(InteractionListener)}; setting the flag of a shape of a
+ * canvas with a listener calls the listener and leaves the flag cleared. The flag of a shape without a
+ * listener is kept in a set with weak keys, and a property is only created for the callers of
+ * {@link SelectableShape#interactionPropertyProperty()}.
+ * </p>
+ * <p>
+ * Only one shape of a canvas is dragged at a time, so the state of the drag gesture (the shape, where the
+ * pointer and the shape were when it started, and whether the interaction was reported) is kept here once
+ * instead of in every shape. The shapes carry no mouse handlers: the gesture dispatcher of the canvas calls
+ * {@link #beginDrag(SelectableShape, double, double)}, {@link #dragTo(double, double)} and
+ * {@link #endDrag()} with the pointer position in canvas coordinates. The shape is moved from its position
+ * when the drag started by the total pointer offset, with {@link SelectableShape#moveBy}, so a
+ * {@link ShapeDragListener} adjusting the position does not make the shape drift over the gesture.
+ * </p>
+ * <p>
+ * The controller is stored in the properties of the canvas, like the other managers of a canvas; a shape
+ * that is not on a canvas keeps its interaction flag in a controller of its own, found as for the
+ * {@link SelectionModel}. Like the shapes, the controller is confined to the JavaFX Application Thread.
+ * </p>
+ */
+public final class ShapeGestureController {
+
+    /**
+     * Receives the interactions of the shapes of a canvas.
+     */
+    @FunctionalInterface
+    public interface InteractionListener {
+
+        /**
+         * Called when the user starts modifying a shape, before the shape changes.
+         *
+         * @param shape the shape
+         */
+        void interactionStarted(SelectableShape shape);
+    }
+
+    /**
+     * The key of the controller in the properties of its canvas.
+     */
+    private static final Object PROPERTY_KEY = ShapeGestureController.class;
+
+    /**
+     * The name of the interaction properties.
+     */
+    private static final String PROPERTY_NAME = "interaction";
+
+    /**
+     * The shapes whose interaction flag is set and not handled by the listener.
+     */
+    private final Map<SelectableShape, Boolean> interacting = new WeakHashMap<>();
+
+    /**
+     * The interaction properties requested so far, by shape.
+     */
+    private final Map<SelectableShape, InteractionProperty> properties = new WeakHashMap<>();
+
+    /**
+     * The listener told of the interactions, or {@code null} if none.
+     */
+    private InteractionListener listener;
+
+    /**
+     * The shape being dragged, or {@code null} if no drag is in progress.
+     */
+    private SelectableShape dragged;
+
+    /**
+     * The pointer position, in canvas coordinates, when the drag started.
+     */
+    private double startPointerX;
+
+    private double startPointerY;
+
+    /**
+     * The anchor of the dragged shape when the drag started.
+     */
+    private double startAnchorX;
+
+    private double startAnchorY;
+
+    /**
+     * Whether the interaction of the dragged shape has been reported for the current drag.
+     */
+    private boolean interactionReported;
+
+    private ShapeGestureController() {
+    }
+
+    /**
+     * Returns the gesture controller of the given canvas, creating it on first use.
+     *
+     * @param canvas the drawing canvas
+     * @return the controller attached to the canvas
+     */
+    public static ShapeGestureController of(Node canvas) {
+        ShapeGestureController controller = find(canvas);
+        if (controller == null) {
+            controller = new ShapeGestureController();
+            canvas.getProperties().put(PROPERTY_KEY, controller);
+        }
+        return controller;
+    }
+
+    /**
+     * Returns the gesture controller of the given canvas, if it has one.
+     *
+     * @param canvas the node, typically a drawing canvas
+     * @return the controller attached to the node, or {@code null} if none
+     */
+    public static ShapeGestureController find(Node canvas) {
+        if (canvas == null || !canvas.hasProperties()) {
+            return null;
+        }
+        Object controller = canvas.getProperties().get(PROPERTY_KEY);
+        return controller instanceof ShapeGestureController ? (ShapeGestureController) controller : null;
+    }
+
+    /**
+     * Returns the controller holding the interaction flag of a shape.
+     *
+     * @param shape  the shape
+     * @param create whether to create the controller if the canvas of the shape has none
+     * @return the controller, or {@code null} if it does not exist and is not created
+     */
+    static ShapeGestureController forShape(SelectableShape shape, boolean create) {
+        Node canvas = SelectionModel.canvasOf(shape);
+        return create ? of(canvas) : find(canvas);
+    }
+
+    /**
+     * Returns the listener told when the user starts modifying a shape of the canvas.
+     *
+     * @return the listener, or {@code null} if none
+     */
+    public InteractionListener getInteractionListener() {
+        return listener;
+    }
+
+    /**
+     * Registers the listener told when the user starts modifying a shape of the canvas, replacing the
+     * previous one.
+     *
+     * @param listener the listener, or {@code null} to remove the current one
+     */
+    public void setInteractionListener(InteractionListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Sets the interaction flag of a shape. Setting the flag while the controller has a listener calls the
+     * listener and clears the flag.
+     *
+     * @param shape       the shape
+     * @param interacting {@code true} to report an interaction, {@code false} to clear the flag
+     */
+    public void setInteraction(SelectableShape shape, boolean interacting) {
+        InteractionProperty property = properties.get(shape);
+        if (property != null) {
+            property.set(interacting);
+            return;
+        }
+        if (interacting && listener != null) {
+            this.interacting.remove(shape);
+            listener.interactionStarted(shape);
+        } else if (interacting) {
+            this.interacting.put(shape, Boolean.TRUE);
+        } else {
+            this.interacting.remove(shape);
+        }
+    }
+
+    /**
+     * Returns the interaction property of a shape, creating it on first request.
+     *
+     * @param shape the shape
+     * @return the property, kept in sync with the interaction flag
+     */
+    public BooleanProperty interactionProperty(SelectableShape shape) {
+        InteractionProperty property = properties.get(shape);
+        if (property == null) {
+            property = new InteractionProperty(shape);
+            properties.put(shape, property);
+        }
+        return property;
+    }
+
+    /**
+     * Returns the shape being dragged.
+     *
+     * @return the shape, or {@code null} if no drag is in progress
+     */
+    public SelectableShape getDraggedShape() {
+        return dragged;
+    }
+
+    /**
+     * Starts dragging a shape, if it is selected.
+     *
+     * @param shape the shape under the pointer
+     * @param x     the x-coordinate of the pointer, in canvas coordinates
+     * @param y     the y-coordinate of the pointer, in canvas coordinates
+     * @return {@code true} if the drag started, {@code false} if the shape is not selected
+     */
+    public boolean beginDrag(SelectableShape shape, double x, double y) {
+        if (!shape.isSelected()) {
+            return false;
+        }
+        dragged = shape;
+        startPointerX = x;
+        startPointerY = y;
+        startAnchorX = shape.getAnchorX();
+        startAnchorY = shape.getAnchorY();
+        interactionReported = false;
+        return true;
+    }
+
+    /**
+     * Moves the dragged shape by the offset of the pointer since the drag started. Reports the
+     * interaction of the shape before its first move. Does nothing if no drag is in progress.
+     *
+     * @param x the x-coordinate of the pointer, in canvas coordinates
+     * @param y the y-coordinate of the pointer, in canvas coordinates
+     */
+    public void dragTo(double x, double y) {
+        SelectableShape shape = dragged;
+        if (shape == null) {
+            return;
+        }
+        if (!interactionReported) {
+            setInteraction(shape, true);
+            interactionReported = true;
+        }
+        ((Node) shape).setCursor(Cursor.CLOSED_HAND);
+        shape.moveBy(startAnchorX + x - startPointerX - shape.getAnchorX(),
+                startAnchorY + y - startPointerY - shape.getAnchorY());
+        shape.fireDragged();
+    }
+
+    /**
+     * Ends the drag in progress, if any.
+     *
+     * @return {@code true} if the dragged shape was moved during the drag
+     */
+    public boolean endDrag() {
+        SelectableShape shape = dragged;
+        if (shape == null) {
+            return false;
+        }
+        dragged = null;
+        ((Node) shape).setCursor(Cursor.DEFAULT);
+        shape.fireDragReleased();
+        return interactionReported;
+    }
+
+    /**
+     * The interaction property of a shape, which calls the listener of the controller when it is set.
+     */
+    private final class InteractionProperty extends ShapeFlagProperty {
+
+        InteractionProperty(SelectableShape shape) {
+            super(shape, PROPERTY_NAME, interacting);
+        }
+
+        @Override
+        protected void invalidated() {
+            super.invalidated();
+            SelectableShape shape = (SelectableShape) getBean();
+            if (shape != null && get() && listener != null) {
+                listener.interactionStarted(shape);
+                set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package group2128.sadproject.sadproject.factory;
+
+import javafx.scene.paint.Color;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Converts shapes to and from the JSON form written by {@link Shape#saveJson(JSONObject)}.
+ * <p>
+ * Unlike loading a drawing through the drawing strategies, the shapes built here are detached:
+ * they are not added to any canvas and no undo snapshot is taken while they are created.
+ * The caller decides where to add them, typically all at once, and records a single history entry.
+ * </p>
+ */
+public final class ShapeLoader {
+
+    /**
+     * Utility class, not meant to be instantiated.
+     */
+    private ShapeLoader() {
+    }
+
+    /**
+     * Serializes the given shapes into a JSON array, in the given order.
+     *
+     * @param shapes the shapes to serialize
+     * @return a JSON array holding one object per shape
+     */
+    public static JSONArray toJson(Collection<? extends SelectableShape> shapes) {
+        JSONArray array = new JSONArray();
+        for (SelectableShape shape : shapes) {
+            JSONObject obj = new JSONObject();
+            shape.saveJson(obj);
+            array.put(obj);
+        }
+        return array;
+    }
+
+    /**
+     * Builds the shapes described by a JSON array.
+     * <p>
+     * Entries of an unknown type are skipped.
+     * </p>
+     *
+     * @param array the JSON array, as produced by {@link #toJson(Collection)}
+     * @return the new detached shapes, in the order of the array
+     */
+    public static List<SelectableShape> fromJson(JSONArray array) {
+        return fromJson(array, null);
+    }
+
+    /**
+     * Builds the shapes described by a JSON array, using an extension for the types this loader does
+     * not know, such as shapes referring to definitions held by the canvas.
+     * <p>
+     * Entries the extension does not recognize either are skipped.
+     * </p>
+     *
+     * @param array     the JSON array, as produced by {@link #toJson(Collection)}
+     * @param extension builds the shapes of the other types, returning {@code null} for unknown ones;
+     *                  may be {@code null}
+     * @return the new detached shapes, in the order of the array
+     */
+    public static List<SelectableShape> fromJson(JSONArray array, Function<JSONObject, SelectableShape> extension) {
+        List<SelectableShape> shapes = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            SelectableShape shape = fromJson(array.getJSONObject(i), extension);
+            if (shape != null) {
+                shapes.add(shape);
+            }
+        }
+        return shapes;
+    }
+
+    /**
+     * Builds the shape described by a JSON object.
+     * <p>
+     * Supported types are {@code rectangle}, {@code ellipse}, {@code segment}, {@code polygon},
+     * {@code text}, {@code group}, whose members are built recursively, and {@code array},
+     * whose source shape is built recursively.
+     * </p>
+     *
+     * @param obj the JSON object, as produced by {@link Shape#saveJson(JSONObject)}
+     * @return the new detached shape, or {@code null} if the type is not recognized
+     */
+    public static SelectableShape fromJson(JSONObject obj) {
+        return fromJson(obj, null);
+    }
+
+    /**
+     * Builds the shape described by a JSON object, using an extension for the types this loader does
+     * not know. The extension is also used for the members of groups and the sources of arrays.
+     *
+     * @param obj       the JSON object, as produced by {@link Shape#saveJson(JSONObject)}
+     * @param extension builds the shapes of the other types, returning {@code null} for unknown ones;
+     *                  may be {@code null}
+     * @return the new detached shape, or {@code null} if the type is not recognized
+     */
+    public static SelectableShape fromJson(JSONObject obj, Function<JSONObject, SelectableShape> extension) {
+        Color fill = color(obj, "fill");
+        Color stroke = color(obj, "stroke");
+        double scaleX = obj.optDouble("flipHorizontal", 1);
+        double scaleY = obj.optDouble("flipVertical", 1);
+        double rotation = obj.optDouble("rotation", 0);
+
+        SelectableShape shape;
+        switch (obj.getString("type")) {
+            case "rectangle":
+                shape = new RectangleShape(fill, stroke, obj.getDouble("x"), obj.getDouble("y"),
+                        obj.getDouble("width"), obj.getDouble("height"), scaleX, scaleY, rotation);
+                break;
+            case "ellipse":
+                shape = new EllipseShape(fill, stroke, obj.getDouble("x"), obj.getDouble("y"),
+                        obj.getDouble("radiusX"), obj.getDouble("radiusY"), scaleX, scaleY, rotation);
+                break;
+            case "segment":
+                shape = new SegmentShape(null, stroke, obj.getDouble("startX"), obj.getDouble("startY"),
+                        obj.getDouble("endX"), obj.getDouble("endY"), scaleX, scaleY, rotation);
+                break;
+            case "text":
+                TextShape text = new TextShape(obj.getDouble("x"), obj.getDouble("y"), scaleX, scaleY,
+                        obj.getDouble("fontSize"), fill, stroke, rotation);
+                text.setText(obj.optString("text", ""));
+                shape = text;
+                break;
+            case "polygon":
+                JSONArray jsonPoints = obj.getJSONArray("points");
+                List<Double> points = new ArrayList<>(jsonPoints.length());
+                for (int i = 0; i < jsonPoints.length(); i++) {
+                    points.add(jsonPoints.getDouble(i));
+                }
+                PolygonShape polygon = new PolygonShape(fill, stroke, points);
+                polygon.setScaleX(scaleX);
+                polygon.setScaleY(scaleY);
+                polygon.setRotation(rotation);
+                shape = polygon;
+                break;
+            case "polyline":
+                JSONArray jsonVertices = obj.getJSONArray("points");
+                List<Double> vertices = new ArrayList<>(jsonVertices.length());
+                for (int i = 0; i < jsonVertices.length(); i++) {
+                    vertices.add(jsonVertices.getDouble(i));
+                }
+                shape = new PolylineShape(stroke, vertices, scaleX, scaleY, rotation);
+                break;
+            case "group":
+                GroupShape group = new GroupShape(fromJson(obj.getJSONArray("shapes"), extension));
+                GroupShape.loadJson(group, obj);
+                return group;
+            case "array":
+                SelectableShape source = fromJson(obj.getJSONObject("source"), extension);
+                if (source == null) {
+                    return null;
+                }
+                ArrayShape array = new ArrayShape(source, ArrayPattern.fromJson(obj.getJSONObject("pattern")));
+                ArrayShape.loadJson(array, obj);
+                return array;
+            default:
+                return extension != null ? extension.apply(obj) : null;
+        }
+        if (obj.has("strokeWidth")) {
+            ((javafx.scene.shape.Shape) shape).setStrokeWidth(obj.getDouble("strokeWidth"));
+        }
+        return shape;
+    }
+
+    /**
+     * Reads a color attribute, falling back to black when it is missing.
+     */
+    private static Color color(JSONObject obj, String key) {
+        return ColorCache.parse(obj.optString(key, "BLACK"));
+    }
+}
@@ -0,0 +1,394 @@
+package group2128.sadproject.sadproject.factory;
+
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.transform.Transform;
+
+import java.util.List;
+
+/**
+ * An immutable two-dimensional affine transform, the single model of where a shape is drawn.
+ * <p>
+ * JavaFX spreads the transform of a node across several properties: the layout position, the
+ * translation, the rotation and scale about the center of the layout bounds (which the shapes use for
+ * their rotation and, with a scale of -1, for their flips), and the list of extra transforms. Each shape
+ * also interprets its dimensions in its own way. {@link #of(Node)} folds all of these into one matrix
+ * mapping the local coordinates of the geometry of a shape to the coordinates of its parent, composed
+ * in the same order as JavaFX does, so code that needs to know where a shape ends up (hit-testing,
+ * snapping, export, bounds) can work with one matrix instead of re-deriving the node transform.
+ * Transforms compose with {@link #concatenate(ShapeTransform)}: {@link #localToAncestor(Node, Node)}
+ * chains them through nested groups up to the canvas, and through the camera transforms of the canvas
+ * when the ancestor is the viewport.
+ * </p>
+ * <p>
+ * The matrix maps a point {@code (x, y)} to
+ * {@code (mxx * x + mxy * y + tx, myx * x + myy * y + ty)}.
+ * </p>
+ */
+public final class ShapeTransform {
+
+    /**
+     * The identity transform.
+     */
+    public static final ShapeTransform IDENTITY = new ShapeTransform(1, 0, 0, 0, 1, 0);
+
+    /**
+     * The tolerance below which a matrix coefficient is taken as zero by {@link #isAxisAligned()}.
+     */
+    private static final double EPSILON = 1e-9;
+
+    private final double mxx;
+    private final double mxy;
+    private final double tx;
+    private final double myx;
+    private final double myy;
+    private final double ty;
+
+    /**
+     * Constructs a transform from the coefficients of its matrix.
+     *
+     * @param mxx the X coordinate scaling element
+     * @param mxy the XY coordinate element
+     * @param tx  the X coordinate translation element
+     * @param myx the YX coordinate element
+     * @param myy the Y coordinate scaling element
+     * @param ty  the Y coordinate translation element
+     */
+    public ShapeTransform(double mxx, double mxy, double tx, double myx, double myy, double ty) {
+        this.mxx = mxx;
+        this.mxy = mxy;
+        this.tx = tx;
+        this.myx = myx;
+        this.myy = myy;
+        this.ty = ty;
+    }
+
+    /**
+     * Returns a translation.
+     *
+     * @param dx the horizontal offset
+     * @param dy the vertical offset
+     * @return the transform
+     */
+    public static ShapeTransform translation(double dx, double dy) {
+        return new ShapeTransform(1, 0, dx, 0, 1, dy);
+    }
+
+    /**
+     * Returns a rotation about a pivot point.
+     *
+     * @param angle  the angle in degrees, clockwise on screen
+     * @param pivotX the X coordinate of the pivot
+     * @param pivotY the Y coordinate of the pivot
+     * @return the transform
+     */
+    public static ShapeTransform rotation(double angle, double pivotX, double pivotY) {
+        double radians = Math.toRadians(angle);
+        double cos = Math.cos(radians);
+        double sin = Math.sin(radians);
+        return new ShapeTransform(cos, -sin, pivotX - cos * pivotX + sin * pivotY,
+                sin, cos, pivotY - sin * pivotX - cos * pivotY);
+    }
+
+    /**
+     * Returns a scale about a pivot point. A factor of -1 is a flip.
+     *
+     * @param scaleX the horizontal factor
+     * @param scaleY the vertical factor
+     * @param pivotX the X coordinate of the pivot
+     * @param pivotY the Y coordinate of the pivot
+     * @return the transform
+     */
+    public static ShapeTransform scale(double scaleX, double scaleY, double pivotX, double pivotY) {
+        return new ShapeTransform(scaleX, 0, pivotX - scaleX * pivotX, 0, scaleY, pivotY - scaleY * pivotY);
+    }
+
+    /**
+     * Returns the transform from the local coordinates of a node to the coordinates of its parent.
+     * <p>
+     * This is the same transform as {@link Node#getLocalToParentTransform()}: the position, then the
+     * rotation and scale about the center of the layout bounds, then the transforms of the node, but
+     * computed from the properties of the node without waiting for JavaFX to update its own.
+     * </p>
+     *
+     * @param node the node
+     * @return the transform
+     */
+    public static ShapeTransform of(Node node) {
+        ShapeTransform transform = translation(node.getLayoutX() + node.getTranslateX(),
+                node.getLayoutY() + node.getTranslateY()).concatenate(ofRotationAndScale(node));
+        for (Transform extra : node.getTransforms()) {
+            transform = transform.concatenate(new ShapeTransform(extra.getMxx(), extra.getMxy(), extra.getTx(),
+                    extra.getMyx(), extra.getMyy(), extra.getTy()));
+        }
+        return transform;
+    }
+
+    /**
+     * Returns the rotation and scale of a node about the center of its layout bounds, without its
+     * position.
+     * <p>
+     * This is the part of the transform of a shape that {@link SelectableShape#bakeTransform()} moves
+     * into the geometry: once the geometry is multiplied by it, the rotation and scale of the node can
+     * be reset while the shape stays where it was drawn.
+     * </p>
+     *
+     * @param node the node
+     * @return the transform, the identity if the node is neither rotated nor scaled
+     */
+    public static ShapeTransform ofRotationAndScale(Node node) {
+        double rotate = node.getRotate();
+        double scaleX = node.getScaleX();
+        double scaleY = node.getScaleY();
+        if (rotate == 0 && scaleX == 1 && scaleY == 1) {
+            return IDENTITY;
+        }
+        Bounds layout = node.getLayoutBounds();
+        double pivotX = (layout.getMinX() + layout.getMaxX()) / 2;
+        double pivotY = (layout.getMinY() + layout.getMaxY()) / 2;
+        return rotation(rotate, pivotX, pivotY).concatenate(scale(scaleX, scaleY, pivotX, pivotY));
+    }
+
+    /**
+     * Returns the transform from the local coordinates of a node to the coordinates of one of its
+     * ancestors, composing the transforms of the node and of every parent in between.
+     * <p>
+     * With the drawing canvas as ancestor this gives the canvas coordinates of a member of nested groups;
+     * with the viewport showing the canvas, it includes the camera as well.
+     * </p>
+     *
+     * @param node     the node
+     * @param ancestor the ancestor, or {@code null} to compose up to the root of the scene graph
+     * @return the transform
+     * @throws IllegalArgumentException if {@code ancestor} is not an ancestor of the node
+     */
+    public static ShapeTransform localToAncestor(Node node, Node ancestor) {
+        ShapeTransform transform = IDENTITY;
+        for (Node current = node; current != ancestor; current = current.getParent()) {
+            if (current == null) {
+                throw new IllegalArgumentException("The node is not a descendant of " + ancestor);
+            }
+            transform = of(current).concatenate(transform);
+        }
+        return transform;
+    }
+
+    /**
+     * Returns the transform applying the given transform first and then this one.
+     *
+     * @param inner the transform applied first
+     * @return the product {@code this * inner}
+     */
+    public ShapeTransform concatenate(ShapeTransform inner) {
+        if (inner.isIdentity()) {
+            return this;
+        }
+        if (isIdentity()) {
+            return inner;
+        }
+        return new ShapeTransform(
+                mxx * inner.mxx + mxy * inner.myx,
+                mxx * inner.mxy + mxy * inner.myy,
+                mxx * inner.tx + mxy * inner.ty + tx,
+                myx * inner.mxx + myy * inner.myx,
+                myx * inner.mxy + myy * inner.myy,
+                myx * inner.tx + myy * inner.ty + ty);
+    }
+
+    /**
+     * Returns the inverse of this transform.
+     *
+     * @return the transform undoing this one
+     * @throws IllegalStateException if the transform is not invertible, as after a scale of zero
+     */
+    public ShapeTransform invert() {
+        double determinant = getDeterminant();
+        if (determinant == 0 || Double.isNaN(determinant) || Double.isInfinite(determinant)) {
+            throw new IllegalStateException("The transform is not invertible: " + this);
+        }
+        return new ShapeTransform(
+                myy / determinant, -mxy / determinant, (mxy * ty - myy * tx) / determinant,
+                -myx / determinant, mxx / determinant, (myx * tx - mxx * ty) / determinant);
+    }
+
+    /**
+     * Transforms a point.
+     *
+     * @param x the X coordinate of the point
+     * @param y the Y coordinate of the point
+     * @return the transformed point
+     */
+    public Point2D transform(double x, double y) {
+        return new Point2D(mxx * x + mxy * y + tx, myx * x + myy * y + ty);
+    }
+
+    /**
+     * Transforms a flat list of coordinates.
+     *
+     * @param coordinates the coordinates as {@code x0, y0, x1, y1, ...}
+     * @return the transformed coordinates, in a new array of the same length
+     */
+    public Double[] transformCoordinates(List<Double> coordinates) {
+        Double[] transformed = new Double[coordinates.size()];
+        for (int i = 0; i + 1 < transformed.length; i += 2) {
+            double x = coordinates.get(i);
+            double y = coordinates.get(i + 1);
+            transformed[i] = mxx * x + mxy * y + tx;
+            transformed[i + 1] = myx * x + myy * y + ty;
+        }
+        return transformed;
+    }
+
+    /**
+     * Returns the axis-aligned bounding box of a transformed box.
+     *
+     * @param minX the smallest X coordinate of the box
+     * @param minY the smallest Y coordinate of the box
+     * @param maxX the largest X coordinate of the box
+     * @param maxY the largest Y coordinate of the box
+     * @return the bounds of the four transformed corners, as {@code {minX, minY, maxX, maxY}}
+     */
+    public double[] transformBounds(double minX, double minY, double maxX, double maxY) {
+        // each coordinate of the image is the sum of independent terms, so its extremes come from
+        // the extremes of each term
+        double x1 = mxx * minX;
+        double x2 = mxx * maxX;
+        double x3 = mxy * minY;
+        double x4 = mxy * maxY;
+        double y1 = myx * minX;
+        double y2 = myx * maxX;
+        double y3 = myy * minY;
+        double y4 = myy * maxY;
+        return new double[]{
+                Math.min(x1, x2) + Math.min(x3, x4) + tx,
+                Math.min(y1, y2) + Math.min(y3, y4) + ty,
+                Math.max(x1, x2) + Math.max(x3, x4) + tx,
+                Math.max(y1, y2) + Math.max(y3, y4) + ty};
+    }
+
+    /**
+     * Returns the determinant of the linear part of this transform, negative for a transform that
+     * mirrors.
+     *
+     * @return the determinant
+     */
+    public double getDeterminant() {
+        return mxx * myy - mxy * myx;
+    }
+
+    /**
+     * Returns whether this is the identity transform.
+     *
+     * @return {@code true} if the transform leaves every point in place
+     */
+    public boolean isIdentity() {
+        return mxx == 1 && mxy == 0 && tx == 0 && myx == 0 && myy == 1 && ty == 0;
+    }
+
+    /**
+     * Returns whether this transform is a translation, with no rotation, scale or flip.
+     *
+     * @return {@code true} if the linear part is the identity
+     */
+    public boolean isTranslation() {
+        return mxx == 1 && mxy == 0 && myx == 0 && myy == 1;
+    }
+
+    /**
+     * Returns whether this transform maps axis-aligned boxes to axis-aligned boxes, as scales, flips
+     * and rotations by a multiple of 90 degrees do.
+     *
+     * @return {@code true} if the image of a horizontal edge is horizontal or vertical
+     */
+    public boolean isAxisAligned() {
+        double scale = Math.max(Math.max(Math.abs(mxx), Math.abs(mxy)), Math.max(Math.abs(myx), Math.abs(myy)));
+        double tolerance = EPSILON * scale;
+        return (Math.abs(mxy) <= tolerance && Math.abs(myx) <= tolerance)
+                || (Math.abs(mxx) <= tolerance && Math.abs(myy) <= tolerance);
+    }
+
+    /**
+     * Returns the X coordinate scaling element of the matrix.
+     *
+     * @return the element
+     */
+    public double getMxx() {
+        return mxx;
+    }
+
+    /**
+     * Returns the XY coordinate element of the matrix.
+     *
+     * @return the element
+     */
+    public double getMxy() {
+        return mxy;
+    }
+
+    /**
+     * Returns the X coordinate translation element of the matrix.
+     *
+     * @return the element
+     */
+    public double getTx() {
+        return tx;
+    }
+
+    /**
+     * Returns the YX coordinate element of the matrix.
+     *
+     * @return the element
+     */
+    public double getMyx() {
+        return myx;
+    }
+
+    /**
+     * Returns the Y coordinate scaling element of the matrix.
+     *
+     * @return the element
+     */
+    public double getMyy() {
+        return myy;
+    }
+
+    /**
+     * Returns the Y coordinate translation element of the matrix.
+     *
+     * @return the element
+     */
+    public double getTy() {
+        return ty;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ShapeTransform)) {
+            return false;
+        }
+        ShapeTransform transform = (ShapeTransform) other;
+        return Double.compare(mxx, transform.mxx) == 0 && Double.compare(mxy, transform.mxy) == 0
+                && Double.compare(tx, transform.tx) == 0 && Double.compare(myx, transform.myx) == 0
+                && Double.compare(myy, transform.myy) == 0 && Double.compare(ty, transform.ty) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = Double.doubleToLongBits(mxx);
+        hash = 31 * hash + Double.doubleToLongBits(mxy);
+        hash = 31 * hash + Double.doubleToLongBits(tx);
+        hash = 31 * hash + Double.doubleToLongBits(myx);
+        hash = 31 * hash + Double.doubleToLongBits(myy);
+        hash = 31 * hash + Double.doubleToLongBits(ty);
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "ShapeTransform[" + mxx + ", " + mxy + ", " + tx + ", " + myx + ", " + myy + ", " + ty + "]";
+    }
+}
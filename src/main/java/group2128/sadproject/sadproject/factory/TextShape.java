@@ -1,13 +1,7 @@
 package group2128.sadproject.sadproject.factory;
 
 import group2128.sadproject.sadproject.strategy.DrawingParams;
-import javafx.beans.property.BooleanProperty;
-import javafx.beans.property.SimpleBooleanProperty;
-import javafx.scene.Cursor;
-import javafx.scene.effect.DropShadow;
-import javafx.scene.input.MouseButton;
 import javafx.scene.paint.Color;
-import javafx.scene.paint.Paint;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import org.json.JSONObject;
@@ -21,26 +15,9 @@ import org.json.JSONObject;
  */
 public class TextShape extends Text implements SelectableShape {
 
-    /**
-     * Flag to prevent interaction logic from being triggered multiple times during a single gesture.
-     */
-    private boolean shouldTriggerInteraction = true;
-
     /** Default font used when no specific font is set. */
     private static final Font DEFAULT_FONT = Font.font(Font.getDefault().getFamily());
 
-    /** X-axis offset used to calculate drag positioning. */
-    private double dragOffsetX;
-
-    /** Y-axis offset used to calculate drag positioning. */
-    private double dragOffsetY;
-
-    /** Property that tracks whether this shape is currently selected. */
-    private final BooleanProperty selectedProperty = new SimpleBooleanProperty();
-
-    /** Property that indicates whether this shape has been interacted with (e.g., dragged). */
-    private final BooleanProperty interactionProperty = new SimpleBooleanProperty();
-
     /**
      * Constructs a new {@code TextShape} at the specified position with initial styling and transformation.
      *
@@ -60,15 +37,10 @@ public class TextShape extends Text implements SelectableShape {
         setAnchorY(y);
         setScaleX(scaleX);
         setScaleY(scaleY);
-        setFont(new Font(DEFAULT_FONT.getFamily(), fontSize));
+        setFont(FontCache.font(DEFAULT_FONT.getFamily(), fontSize));
         setStroke(edgeColor);
         setFill(fillColor);
         setRotate(angle);
-
-        selectedProperty().addListener((observable, oldValue, newValue) ->
-                setEffect(newValue ? new DropShadow(10, Color.DEEPSKYBLUE) : null));
-
-        initDrag();
     }
 
     /**
@@ -81,111 +53,18 @@ public class TextShape extends Text implements SelectableShape {
         super();
         setFill(fillColor);
         setEdgeColor(edgeColor);
-
-        selectedProperty().addListener((observable, oldValue, newValue) ->
-                setEffect(newValue ? new DropShadow(10, Color.DEEPSKYBLUE) : null));
-
-        initDrag();
-    }
-
-    /**
-     * Returns the observable selection state of the shape.
-     *
-     * @return the selection property
-     */
-    @Override
-    public BooleanProperty selectedProperty() {
-        return this.selectedProperty;
-    }
-
-    /**
-     * Checks whether the shape is currently selected.
-     *
-     * @return {@code true} if selected; {@code false} otherwise
-     */
-    @Override
-    public boolean isSelected() {
-        return this.selectedProperty.get();
-    }
-
-    /**
-     * Sets the selection status of the shape.
-     *
-     * @param selected {@code true} to mark the shape as selected; {@code false} to deselect it
-     */
-    @Override
-    public void setSelected(boolean selected) {
-        this.selectedProperty.set(selected);
     }
 
     /**
      * Checks whether the specified point lies within the bounds of this shape.
      *
-     * @param x the X coordinate of the point
-     * @param y the Y coordinate of the point
+     * @param x the X coordinate of the point, in the local coordinates of the shape
+     * @param y the Y coordinate of the point, in the local coordinates of the shape
      * @return {@code true} if the point is within the shape; {@code false} otherwise
      */
     @Override
     public boolean contains(double x, double y) {
-        return this.getBoundsInParent().contains(x, y);
-    }
-
-    /**
-     * Initializes the drag behavior for the shape.
-     * <p>
-     * Enables dragging only when the shape is selected. Mouse events are handled to update
-     * the position and interaction state.
-     * </p>
-     */
-    @Override
-    public void initDrag() {
-        this.setOnMousePressed(event -> {
-            if (isSelected()) {
-                dragOffsetX = event.getSceneX() - getX();
-                dragOffsetY = event.getSceneY() - getY();
-                event.consume();
-            }
-        });
-
-        this.setOnMouseDragged(event -> {
-            if (isSelected() && event.getButton() == MouseButton.PRIMARY) {
-                if (shouldTriggerInteraction) {
-                    interactionProperty.set(true);
-                    shouldTriggerInteraction = false;
-                }
-                setCursor(Cursor.CLOSED_HAND);
-                setX(event.getSceneX() - dragOffsetX);
-                setY(event.getSceneY() - dragOffsetY);
-                event.consume();
-            }
-        });
-
-        this.setOnMouseReleased(event -> {
-            if (isSelected()) {
-                setCursor(Cursor.DEFAULT);
-                shouldTriggerInteraction = true;
-            }
-        });
-    }
-
-    /**
-     * Returns the interaction state property for this shape.
-     *
-     * @return the interaction property
-     */
-    @Override
-    public BooleanProperty interactionPropertyProperty() {
-        return this.interactionProperty;
-    }
-
-    /**
-     * Sets the interaction state value.
-     *
-     * @param interactionProperty {@code true} if interacted with; {@code false} otherwise
-     */
-    @Override
-    public void setInteractionProperty(boolean interactionProperty) {
-        this.interactionProperty.set(interactionProperty);
+        return this.getBoundsInLocal().contains(x, y);
     }
 
     /**
@@ -195,11 +74,12 @@ public class TextShape extends Text implements SelectableShape {
      */
     @Override
     public SelectableShape getCopy() {
-        Color edge = new Color(getEdgeColor().getRed(), getEdgeColor().getGreen(), getEdgeColor().getBlue(), getEdgeColor().getOpacity());
-        Color fill = new Color(getFillColor().getRed(), getFillColor().getGreen(), getFillColor().getBlue(), getFillColor().getOpacity());
+        Color edge = ColorCache.intern(getEdgeColor());
+        Color fill = ColorCache.intern(getFillColor());
         TextShape t = new TextShape(getAnchorX(), getAnchorY(), getDimensionX(), getDimensionY(), getFontSize(), fill, edge, getRotation());
         String freshText = new String(getText());
         t.setText(freshText);
+        t.setStrokeWidth(getStrokeWidth());
         return t;
     }
 
@@ -399,7 +279,7 @@ public class TextShape extends Text implements SelectableShape {
      * @param fontSize the new font size, in points
      */
     public void setFontSize(double fontSize) {
-        this.setFont(new Font(DEFAULT_FONT.getFamily(), fontSize));
+        this.setFont(FontCache.font(DEFAULT_FONT.getFamily(), fontSize));
     }
 
     /**
@@ -419,8 +299,8 @@ public class TextShape extends Text implements SelectableShape {
      * @param obj the {@code JSONObject} containing the serialized shape data
      */
     public static void loadJson(DrawingParams params, JSONObject obj) {
-        params.setFillColor((Color) Paint.valueOf(obj.optString("fill", "BLACK")));
-        params.setEdgeColor((Color) Paint.valueOf(obj.optString("stroke", "BLACK")));
+        params.setFillColor(ColorCache.parse(obj.optString("fill", "BLACK")));
+        params.setEdgeColor(ColorCache.parse(obj.optString("stroke", "BLACK")));
         params.setFontSize(obj.getDouble("fontSize"));
         params.setScaleX(obj.getDouble("flipHorizontal"));
         params.setScaleY(obj.getDouble("flipVertical"));
@@ -0,0 +1,279 @@
+package group2128.sadproject.sadproject.factory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A uniform-grid spatial index over the vertices and edges of a polygon.
+ * <p>
+ * The index buckets every vertex (and the bounding box of every edge) into square cells
+ * whose size is derived from the extent of the polygon and its vertex count, so that each
+ * cell holds a small, roughly constant number of entries. Nearest-vertex and nearest-edge
+ * queries only visit the cells overlapping the search radius instead of scanning the whole
+ * point list, which keeps vertex picking interactive for polygons with tens of thousands
+ * of vertices.
+ * </p>
+ * <p>
+ * The index is a read-only snapshot of the coordinates it was built from: the owning
+ * {@link PolygonShape} discards it whenever its points change and builds a new one lazily
+ * on the next query.
+ * </p>
+ */
+class VertexIndex {
+
+    /**
+     * Edges whose bounding box spans more cells than this are not bucketed; they are kept in
+     * a separate list that is always scanned, so a few very long edges cannot blow up the
+     * size of the grid.
+     */
+    private static final int MAX_CELLS_PER_EDGE = 64;
+
+    /**
+     * Flat copy of the polygon coordinates, stored as {@code x0, y0, x1, y1, ...}.
+     */
+    private final double[] coords;
+
+    /**
+     * Number of vertices in the indexed polygon.
+     */
+    private final int vertexCount;
+
+    /**
+     * Side length of a grid cell, in the polygon's local coordinate space.
+     */
+    private final double cellSize;
+
+    /**
+     * Vertex indices bucketed by cell key.
+     */
+    private final Map<Long, List<Integer>> vertexCells = new HashMap<>();
+
+    /**
+     * Edge indices bucketed by cell key. Edge {@code i} joins vertex {@code i} and vertex {@code i + 1}
+     * (wrapping around to vertex 0 for the closing edge).
+     */
+    private final Map<Long, List<Integer>> edgeCells = new HashMap<>();
+
+    /**
+     * Edges too long to be bucketed, see {@link #MAX_CELLS_PER_EDGE}.
+     */
+    private final List<Integer> oversizedEdges = new ArrayList<>();
+
+    /**
+     * Builds an index over the given polygon coordinates.
+     *
+     * @param points the polygon coordinates as a flat {@code x, y} list
+     */
+    VertexIndex(List<Double> points) {
+        this.vertexCount = points.size() / 2;
+        this.coords = new double[vertexCount * 2];
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < coords.length; i += 2) {
+            double x = points.get(i);
+            double y = points.get(i + 1);
+            coords[i] = x;
+            coords[i + 1] = y;
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+        }
+
+        if (vertexCount == 0) {
+            this.cellSize = 1.0;
+            return;
+        }
+        double area = Math.max(maxX - minX, 1.0) * Math.max(maxY - minY, 1.0);
+        this.cellSize = Math.max(Math.sqrt(area / vertexCount) * 2.0, 1.0);
+
+        for (int v = 0; v < vertexCount; v++) {
+            vertexCells.computeIfAbsent(key(cell(coords[2 * v]), cell(coords[2 * v + 1])), k -> new ArrayList<>()).add(v);
+        }
+        if (vertexCount > 1) {
+            for (int e = 0; e < vertexCount; e++) {
+                indexEdge(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of vertices covered by this index.
+     *
+     * @return the vertex count
+     */
+    int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Finds the vertex closest to the given point, provided it lies within {@code tolerance}.
+     *
+     * @param x         the X coordinate of the query point
+     * @param y         the Y coordinate of the query point
+     * @param tolerance the maximum distance a vertex may have from the query point
+     * @return the index of the closest vertex (not of its X coordinate in the point list),
+     *         or {@code -1} if no vertex lies within the tolerance
+     */
+    int nearestVertex(double x, double y, double tolerance) {
+        int best = -1;
+        double bestDistance = tolerance * tolerance;
+        long minCellX = cell(x - tolerance);
+        long maxCellX = cell(x + tolerance);
+        long minCellY = cell(y - tolerance);
+        long maxCellY = cell(y + tolerance);
+
+        if ((maxCellX - minCellX + 1) * (maxCellY - minCellY + 1) > vertexCount) {
+            for (int v = 0; v < vertexCount; v++) {
+                double d = distanceToVertex(v, x, y);
+                if (d <= bestDistance) {
+                    bestDistance = d;
+                    best = v;
+                }
+            }
+            return best;
+        }
+
+        for (long cx = minCellX; cx <= maxCellX; cx++) {
+            for (long cy = minCellY; cy <= maxCellY; cy++) {
+                List<Integer> bucket = vertexCells.get(key(cx, cy));
+                if (bucket == null) {
+                    continue;
+                }
+                for (int v : bucket) {
+                    double d = distanceToVertex(v, x, y);
+                    if (d <= bestDistance) {
+                        bestDistance = d;
+                        best = v;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the edge closest to the given point, provided it lies within {@code tolerance}.
+     *
+     * @param x         the X coordinate of the query point
+     * @param y         the Y coordinate of the query point
+     * @param tolerance the maximum distance the edge may have from the query point
+     * @return the index of the closest edge (edge {@code i} starts at vertex {@code i}),
+     *         or {@code -1} if no edge lies within the tolerance
+     */
+    int nearestEdge(double x, double y, double tolerance) {
+        if (vertexCount < 2) {
+            return -1;
+        }
+        int[] best = {-1};
+        double[] bestDistance = {tolerance * tolerance};
+        long minCellX = cell(x - tolerance);
+        long maxCellX = cell(x + tolerance);
+        long minCellY = cell(y - tolerance);
+        long maxCellY = cell(y + tolerance);
+
+        if ((maxCellX - minCellX + 1) * (maxCellY - minCellY + 1) > vertexCount) {
+            for (int e = 0; e < vertexCount; e++) {
+                checkEdge(e, x, y, best, bestDistance);
+            }
+            return best[0];
+        }
+
+        for (long cx = minCellX; cx <= maxCellX; cx++) {
+            for (long cy = minCellY; cy <= maxCellY; cy++) {
+                List<Integer> bucket = edgeCells.get(key(cx, cy));
+                if (bucket == null) {
+                    continue;
+                }
+                for (int e : bucket) {
+                    checkEdge(e, x, y, best, bestDistance);
+                }
+            }
+        }
+        for (int e : oversizedEdges) {
+            checkEdge(e, x, y, best, bestDistance);
+        }
+        return best[0];
+    }
+
+    /**
+     * Updates the running best edge if edge {@code e} is closer to the query point.
+     */
+    private void checkEdge(int e, double x, double y, int[] best, double[] bestDistance) {
+        double d = distanceToEdge(e, x, y);
+        if (d <= bestDistance[0]) {
+            bestDistance[0] = d;
+            best[0] = e;
+        }
+    }
+
+    /**
+     * Buckets edge {@code e} into every cell overlapped by its bounding box, or into the
+     * oversized list if that box covers too many cells.
+     */
+    private void indexEdge(int e) {
+        int next = (e + 1) % vertexCount;
+        double x1 = coords[2 * e];
+        double y1 = coords[2 * e + 1];
+        double x2 = coords[2 * next];
+        double y2 = coords[2 * next + 1];
+        long minCellX = cell(Math.min(x1, x2));
+        long maxCellX = cell(Math.max(x1, x2));
+        long minCellY = cell(Math.min(y1, y2));
+        long maxCellY = cell(Math.max(y1, y2));
+
+        if ((maxCellX - minCellX + 1) * (maxCellY - minCellY + 1) > MAX_CELLS_PER_EDGE) {
+            oversizedEdges.add(e);
+            return;
+        }
+        for (long cx = minCellX; cx <= maxCellX; cx++) {
+            for (long cy = minCellY; cy <= maxCellY; cy++) {
+                edgeCells.computeIfAbsent(key(cx, cy), k -> new ArrayList<>()).add(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the squared distance between vertex {@code v} and the given point.
+     */
+    private double distanceToVertex(int v, double x, double y) {
+        double dx = coords[2 * v] - x;
+        double dy = coords[2 * v + 1] - y;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Returns the squared distance between edge {@code e} and the given point.
+     */
+    private double distanceToEdge(int e, double x, double y) {
+        int next = (e + 1) % vertexCount;
+        double x1 = coords[2 * e];
+        double y1 = coords[2 * e + 1];
+        double dx = coords[2 * next] - x1;
+        double dy = coords[2 * next + 1] - y1;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : ((x - x1) * dx + (y - y1) * dy) / lengthSquared;
+        t = Math.max(0, Math.min(1, t));
+        double px = x1 + t * dx - x;
+        double py = y1 + t * dy - y;
+        return px * px + py * py;
+    }
+
+    /**
+     * Maps a coordinate to the index of the grid cell containing it.
+     */
+    private long cell(double value) {
+        return (long) Math.floor(value / cellSize);
+    }
+
+    /**
+     * Packs a pair of cell indices into a single map key.
+     */
+    private static long key(long cellX, long cellY) {
+        return (cellX << 32) ^ (cellY & 0xffffffffL);
+    }
+}
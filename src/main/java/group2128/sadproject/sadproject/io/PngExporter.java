@@ -0,0 +1,633 @@
+package group2128.sadproject.sadproject.io;
+
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.factory.ShapeTransform;
+import group2128.sadproject.sadproject.spatial.CanvasIndex;
+import group2128.sadproject.sadproject.view.ShapeVisibility;
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Affine;
+import org.w3c.dom.Element;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOInvalidTreeException;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.FileImageOutputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Image;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Exports a region of a drawing as a PNG image of any size, at any resolution.
+ * <p>
+ * The image is never held in memory as a whole. It is cut into horizontal strips of tiles: each tile is
+ * rendered by a {@link TileRenderer}, which for a canvas takes a JavaFX snapshot of the tile only, and
+ * the PNG encoder of {@code javax.imageio} pulls the image row by row, so only two strips are alive at
+ * a time. The strips are rendered on the render executor (the JavaFX Application Thread for a canvas)
+ * while the calling thread compresses the previous one, so rendering and encoding run in parallel and a
+ * 30000&times;30000 pixel image needs about as much memory as two strips of it.
+ * </p>
+ * <p>
+ * The region is given in canvas coordinates. A canvas unit is a pixel at 96 DPI, so the size of the image
+ * is the size of the region multiplied by {@code dpi / 96}; the resolution is also recorded in the file.
+ * {@link #export(File)} blocks until the image is written: call it from a background thread, never from
+ * the thread that renders the tiles. It returns a {@link Report} with the throughput and the peak memory
+ * of the export.
+ * </p>
+ */
+public final class PngExporter {
+
+    /**
+     * Renders a rectangle of pixels of the exported image.
+     */
+    @FunctionalInterface
+    public interface TileRenderer {
+
+        /**
+         * Renders the pixels of a tile into a buffer, as non-premultiplied ARGB values: the pixel
+         * {@code (x + i, y + j)} goes to {@code buffer[offset + j * scanlineStride + i]}.
+         *
+         * @param x              the X coordinate of the tile in the image
+         * @param y              the Y coordinate of the tile in the image
+         * @param width          the width of the tile
+         * @param height         the height of the tile
+         * @param buffer         the buffer receiving the pixels
+         * @param offset         the index of the first pixel of the tile in the buffer
+         * @param scanlineStride the distance between two rows of the tile in the buffer
+         */
+        void render(int x, int y, int width, int height, int[] buffer, int offset, int scanlineStride);
+    }
+
+    /**
+     * The figures of a completed export.
+     */
+    public static final class Report {
+
+        private final int width;
+        private final int height;
+        private final long bytes;
+        private final long nanos;
+        private final long peakHeapBytes;
+
+        Report(int width, int height, long bytes, long nanos, long peakHeapBytes) {
+            this.width = width;
+            this.height = height;
+            this.bytes = bytes;
+            this.nanos = nanos;
+            this.peakHeapBytes = peakHeapBytes;
+        }
+
+        /**
+         * Returns the width of the image.
+         *
+         * @return the width, in pixels
+         */
+        public int getWidth() {
+            return width;
+        }
+
+        /**
+         * Returns the height of the image.
+         *
+         * @return the height, in pixels
+         */
+        public int getHeight() {
+            return height;
+        }
+
+        /**
+         * Returns the size of the file written.
+         *
+         * @return the number of bytes written
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Returns the duration of the export.
+         *
+         * @return the elapsed time, in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Returns the throughput of the export.
+         *
+         * @return the number of millions of pixels rendered and encoded per second
+         */
+        public double getMegapixelsPerSecond() {
+            return nanos == 0 ? 0 : (double) width * height / nanos * 1e3;
+        }
+
+        /**
+         * Returns the largest amount of heap in use seen during the export, sampled after each strip.
+         *
+         * @return the peak heap in use, in bytes
+         */
+        public long getPeakHeapBytes() {
+            return peakHeapBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d×%d pixels, %.1f MB in %.2f s (%.1f Mpixel/s), peak heap %d MB",
+                    width, height, bytes / 1e6, nanos / 1e9, getMegapixelsPerSecond(), peakHeapBytes >> 20);
+        }
+    }
+
+    /**
+     * The resolution at which a canvas unit is one pixel.
+     */
+    public static final double BASE_DPI = 96;
+
+    /**
+     * The default width of a tile, in pixels.
+     */
+    public static final int DEFAULT_TILE_WIDTH = 1024;
+
+    /**
+     * The default height of a tile, and of a strip, in pixels.
+     */
+    public static final int DEFAULT_TILE_HEIGHT = 256;
+
+    /**
+     * The name of the native metadata format of the PNG writer.
+     */
+    private static final String PNG_METADATA_FORMAT = "javax_imageio_png_1.0";
+
+    private final int width;
+    private final int height;
+    private final double dpi;
+    private final boolean opaque;
+    private final TileRenderer renderer;
+    private final Executor renderExecutor;
+    private int tileWidth = DEFAULT_TILE_WIDTH;
+    private int tileHeight = DEFAULT_TILE_HEIGHT;
+
+    /**
+     * Constructs an exporter of an image drawn by a tile renderer.
+     *
+     * @param width          the width of the image, in pixels
+     * @param height         the height of the image, in pixels
+     * @param dpi            the resolution recorded in the file
+     * @param opaque         whether every pixel is opaque, in which case the alpha channel is not written
+     * @param renderer       the renderer of the tiles
+     * @param renderExecutor the executor on which the renderer is called
+     * @throws IllegalArgumentException if the size or the resolution is not positive
+     */
+    public PngExporter(int width, int height, double dpi, boolean opaque, TileRenderer renderer, Executor renderExecutor) {
+        if (width <= 0 || height <= 0 || !(dpi > 0)) {
+            throw new IllegalArgumentException("Invalid image: " + width + "x" + height + " at " + dpi + " DPI");
+        }
+        this.width = width;
+        this.height = height;
+        this.dpi = dpi;
+        this.opaque = opaque;
+        this.renderer = renderer;
+        this.renderExecutor = renderExecutor;
+    }
+
+    /**
+     * Constructs an exporter of a region of a drawing canvas.
+     * <p>
+     * The tiles are rendered on the JavaFX Application Thread. The shapes culled by the viewport are
+     * shown while their tile is rendered; the shapes of hidden layers are not exported.
+     * </p>
+     *
+     * @param canvas     the drawing canvas
+     * @param region     the region to export, as {@code {minX, minY, maxX, maxY}} in canvas coordinates
+     * @param dpi        the resolution of the image
+     * @param background the color of the pixels not covered by any shape, or {@code null} for transparent
+     * @return the exporter
+     * @throws IllegalArgumentException if the region is empty or the resolution is not positive
+     */
+    public static PngExporter forCanvas(Pane canvas, double[] region, double dpi, Color background) {
+        double scale = dpi / BASE_DPI;
+        int width = (int) Math.ceil((region[2] - region[0]) * scale);
+        int height = (int) Math.ceil((region[3] - region[1]) * scale);
+        boolean opaque = background != null && background.isOpaque();
+        return new PngExporter(width, height, dpi, opaque,
+                new CanvasTileRenderer(canvas, region[0], region[1], scale, background), Platform::runLater);
+    }
+
+    /**
+     * Returns the region covering the whole drawing.
+     *
+     * @param canvas the drawing canvas
+     * @return the region as {@code {minX, minY, maxX, maxY}}, or {@code null} if the canvas is empty
+     */
+    public static double[] drawingRegion(Pane canvas) {
+        return CanvasIndex.of(canvas).getExtent();
+    }
+
+    /**
+     * Returns the region covering the given shapes of a canvas.
+     *
+     * @param shapes the shapes, children of the canvas
+     * @return the region as {@code {minX, minY, maxX, maxY}}, or {@code null} if there are no shapes or
+     * none of them is visible
+     */
+    public static double[] shapesRegion(Collection<? extends SelectableShape> shapes) {
+        double[] region = null;
+        for (SelectableShape shape : shapes) {
+            Bounds bounds = ((Node) shape).getBoundsInParent();
+            if (bounds.isEmpty()) {
+                continue;
+            }
+            if (region == null) {
+                region = new double[]{bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY()};
+            } else {
+                region[0] = Math.min(region[0], bounds.getMinX());
+                region[1] = Math.min(region[1], bounds.getMinY());
+                region[2] = Math.max(region[2], bounds.getMaxX());
+                region[3] = Math.max(region[3], bounds.getMaxY());
+            }
+        }
+        return region;
+    }
+
+    /**
+     * Sets the size of the tiles. The height is also the height of the strips, so the memory used by the
+     * export is about {@code 8 * width of the image * tileHeight} bytes.
+     *
+     * @param tileWidth  the width of a tile, in pixels
+     * @param tileHeight the height of a tile, in pixels
+     * @throws IllegalArgumentException if a size is not positive
+     */
+    public void setTileSize(int tileWidth, int tileHeight) {
+        if (tileWidth <= 0 || tileHeight <= 0) {
+            throw new IllegalArgumentException("Invalid tile size: " + tileWidth + "x" + tileHeight);
+        }
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+    }
+
+    /**
+     * Returns the width of the image.
+     *
+     * @return the width, in pixels
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the image.
+     *
+     * @return the height, in pixels
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Writes the image to a file, replacing it.
+     *
+     * @param file the file
+     * @return the figures of the export
+     * @throws IOException if the file cannot be written or a tile cannot be rendered
+     */
+    public Report export(File file) throws IOException {
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Cannot replace " + file);
+        }
+        try (ImageOutputStream stream = new FileImageOutputStream(file)) {
+            return export(stream);
+        }
+    }
+
+    /**
+     * Writes the image to a stream, which is not closed.
+     *
+     * @param out the stream
+     * @return the figures of the export
+     * @throws IOException if the stream cannot be written or a tile cannot be rendered
+     */
+    public Report export(OutputStream out) throws IOException {
+        try (ImageOutputStream stream = new MemoryCacheImageOutputStream(out)) {
+            return export(stream);
+        }
+    }
+
+    /**
+     * Encodes the image into an image stream.
+     */
+    private Report export(ImageOutputStream stream) throws IOException {
+        if (renderer instanceof CanvasTileRenderer && Platform.isFxApplicationThread()) {
+            throw new IllegalStateException("A canvas cannot be exported from the JavaFX Application Thread");
+        }
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("png");
+        if (!writers.hasNext()) {
+            throw new IOException("No PNG encoder available");
+        }
+        ImageWriter writer = writers.next();
+        long start = System.nanoTime();
+        long startPosition = stream.getStreamPosition();
+        StripImage image = new StripImage();
+        try {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            IIOMetadata metadata = writer.getDefaultImageMetadata(new ImageTypeSpecifier(image), param);
+            setResolution(metadata);
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, metadata), param);
+            stream.flush();
+        } catch (CompletionException e) {
+            throw new IOException("Cannot render the image", e.getCause());
+        } finally {
+            writer.dispose();
+        }
+        return new Report(width, height, stream.getStreamPosition() - startPosition,
+                System.nanoTime() - start, image.peakHeap);
+    }
+
+    /**
+     * Records the resolution of the image in a PNG {@code pHYs} chunk.
+     * <p>
+     * The chunk is written through the native PNG metadata: the JDK writer reads the pixel size of the
+     * standard metadata as pixels per millimeter instead of millimeters per pixel, and would record the
+     * inverse of the resolution.
+     * </p>
+     */
+    private void setResolution(IIOMetadata metadata) throws IIOInvalidTreeException {
+        String pixelsPerMeter = Long.toString(Math.round(dpi / 0.0254));
+        IIOMetadataNode physical = new IIOMetadataNode("pHYs");
+        physical.setAttribute("pixelsPerUnitXAxis", pixelsPerMeter);
+        physical.setAttribute("pixelsPerUnitYAxis", pixelsPerMeter);
+        physical.setAttribute("unitSpecifier", "meter");
+        Element root = new IIOMetadataNode(PNG_METADATA_FORMAT);
+        root.appendChild(physical);
+        metadata.mergeTree(PNG_METADATA_FORMAT, root);
+    }
+
+    /**
+     * The exported image, handed to the encoder, which renders its strips as the encoder reaches them.
+     * <p>
+     * The encoder asks for the rows in order. When it enters a strip, the rendering of the next strip is
+     * started in the other buffer, so it is ready, or nearly, when the encoder needs it.
+     * </p>
+     */
+    private final class StripImage implements RenderedImage {
+
+        private final ColorModel colorModel = opaque
+                ? new DirectColorModel(24, 0xFF0000, 0xFF00, 0xFF)
+                : new DirectColorModel(32, 0xFF0000, 0xFF00, 0xFF, 0xFF000000);
+        private final int[] masks = opaque
+                ? new int[]{0xFF0000, 0xFF00, 0xFF}
+                : new int[]{0xFF0000, 0xFF00, 0xFF, 0xFF000000};
+        private final SampleModel sampleModel = new SinglePixelPackedSampleModel(DataBufferInt.TYPE_INT, width, tileHeight, masks);
+        private final int[][] buffers = new int[2][];
+        private final int stripCount = (height + tileHeight - 1) / tileHeight;
+        private int currentStrip = -1;
+        private Raster currentRaster;
+        private CompletableFuture<Void> nextStrip;
+        private long peakHeap;
+
+        /**
+         * Returns the raster of a strip, rendering it if it was not rendered ahead.
+         */
+        private Raster strip(int index) {
+            if (index == currentStrip) {
+                return currentRaster;
+            }
+            if (nextStrip != null && index == currentStrip + 1) {
+                nextStrip.join();
+            } else {
+                render(index).join();
+            }
+            currentStrip = index;
+            nextStrip = index + 1 < stripCount ? render(index + 1) : null;
+            int stripHeight = Math.min(tileHeight, height - index * tileHeight);
+            currentRaster = Raster.createPackedRaster(new DataBufferInt(buffers[index % 2], width * stripHeight),
+                    width, stripHeight, width, masks, new Point(0, index * tileHeight));
+            Runtime runtime = Runtime.getRuntime();
+            peakHeap = Math.max(peakHeap, runtime.totalMemory() - runtime.freeMemory());
+            return currentRaster;
+        }
+
+        /**
+         * Starts rendering a strip, tile by tile, on the render executor.
+         */
+        private CompletableFuture<Void> render(int index) {
+            int y = index * tileHeight;
+            int stripHeight = Math.min(tileHeight, height - y);
+            if (buffers[index % 2] == null) {
+                buffers[index % 2] = new int[width * Math.min(tileHeight, height)];
+            }
+            int[] buffer = buffers[index % 2];
+            return CompletableFuture.runAsync(() -> {
+                for (int x = 0; x < width; x += tileWidth) {
+                    renderer.render(x, y, Math.min(tileWidth, width - x), stripHeight, buffer, x, width);
+                }
+            }, renderExecutor);
+        }
+
+        @Override
+        public Raster getData(Rectangle rect) {
+            int first = rect.y / tileHeight;
+            int last = (rect.y + rect.height - 1) / tileHeight;
+            if (first == last) {
+                return strip(first).createChild(rect.x, rect.y, rect.width, rect.height, rect.x, rect.y, null);
+            }
+            return copyData(Raster.createWritableRaster(
+                    sampleModel.createCompatibleSampleModel(rect.width, rect.height), new Point(rect.x, rect.y)));
+        }
+
+        @Override
+        public Raster getData() {
+            return getData(new Rectangle(0, 0, width, height));
+        }
+
+        @Override
+        public WritableRaster copyData(WritableRaster raster) {
+            if (raster == null) {
+                raster = Raster.createWritableRaster(sampleModel.createCompatibleSampleModel(width, height), new Point(0, 0));
+            }
+            Rectangle bounds = raster.getBounds().intersection(new Rectangle(0, 0, width, height));
+            for (int y = bounds.y; y < bounds.y + bounds.height; ) {
+                int index = y / tileHeight;
+                int rows = Math.min(bounds.y + bounds.height, (index + 1) * tileHeight) - y;
+                raster.setRect(strip(index).createChild(bounds.x, y, bounds.width, rows, bounds.x, y, null));
+                y += rows;
+            }
+            return raster;
+        }
+
+        @Override
+        public Raster getTile(int tileX, int tileY) {
+            return strip(tileY);
+        }
+
+        @Override
+        public ColorModel getColorModel() {
+            return colorModel;
+        }
+
+        @Override
+        public SampleModel getSampleModel() {
+            return sampleModel;
+        }
+
+        @Override
+        public Vector<RenderedImage> getSources() {
+            return null;
+        }
+
+        @Override
+        public Object getProperty(String name) {
+            return Image.UndefinedProperty;
+        }
+
+        @Override
+        public String[] getPropertyNames() {
+            return null;
+        }
+
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public int getHeight() {
+            return height;
+        }
+
+        @Override
+        public int getMinX() {
+            return 0;
+        }
+
+        @Override
+        public int getMinY() {
+            return 0;
+        }
+
+        @Override
+        public int getNumXTiles() {
+            return 1;
+        }
+
+        @Override
+        public int getNumYTiles() {
+            return stripCount;
+        }
+
+        @Override
+        public int getMinTileX() {
+            return 0;
+        }
+
+        @Override
+        public int getMinTileY() {
+            return 0;
+        }
+
+        @Override
+        public int getTileWidth() {
+            return width;
+        }
+
+        @Override
+        public int getTileHeight() {
+            return tileHeight;
+        }
+
+        @Override
+        public int getTileGridXOffset() {
+            return 0;
+        }
+
+        @Override
+        public int getTileGridYOffset() {
+            return 0;
+        }
+    }
+
+    /**
+     * Renders the tiles of a region of a canvas with JavaFX snapshots.
+     * <p>
+     * Must be called on the JavaFX Application Thread. The snapshot images are reused from tile to tile.
+     * </p>
+     */
+    private static final class CanvasTileRenderer implements TileRenderer {
+
+        private final Pane canvas;
+        private final double minX;
+        private final double minY;
+        private final double scale;
+        private final SnapshotParameters parameters = new SnapshotParameters();
+        private final Map<Long, WritableImage> images = new HashMap<>();
+
+        CanvasTileRenderer(Pane canvas, double minX, double minY, double scale, Color background) {
+            this.canvas = canvas;
+            this.minX = minX;
+            this.minY = minY;
+            this.scale = scale;
+            parameters.setFill(background == null ? Color.TRANSPARENT : background);
+        }
+
+        @Override
+        public void render(int x, int y, int width, int height, int[] buffer, int offset, int scanlineStride) {
+            // the snapshot applies the transforms of the canvas, that is the camera, which must be undone
+            ShapeTransform transform = new ShapeTransform(scale, 0, -minX * scale, 0, scale, -minY * scale)
+                    .concatenate(ShapeTransform.of(canvas).invert());
+            parameters.setTransform(new Affine(transform.getMxx(), transform.getMxy(), transform.getTx(),
+                    transform.getMyx(), transform.getMyy(), transform.getTy()));
+            parameters.setViewport(new Rectangle2D(x, y, width, height));
+
+            List<SelectableShape> culled = CanvasIndex.of(canvas).query(minX + x / scale, minY + y / scale,
+                    minX + (x + width) / scale, minY + (y + height) / scale);
+            culled.removeIf(shape -> !ShapeVisibility.isHidden((Node) shape, ShapeVisibility.CULLED));
+            for (SelectableShape shape : culled) {
+                ShapeVisibility.setHidden((Node) shape, ShapeVisibility.CULLED, false);
+            }
+            try {
+                WritableImage image = images.computeIfAbsent(((long) width << 32) | height,
+                        size -> new WritableImage(width, height));
+                canvas.snapshot(parameters, image).getPixelReader()
+                        .getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), buffer, offset, scanlineStride);
+            } finally {
+                for (SelectableShape shape : culled) {
+                    ShapeVisibility.setHidden((Node) shape, ShapeVisibility.CULLED, true);
+                }
+            }
+        }
+    }
+}
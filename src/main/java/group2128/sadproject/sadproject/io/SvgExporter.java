@@ -0,0 +1,345 @@
+package group2128.sadproject.sadproject.io;
+
+import group2128.sadproject.sadproject.factory.ShapeTransform;
+import group2128.sadproject.sadproject.view.ShapeVisibility;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Ellipse;
+import javafx.scene.shape.Line;
+import javafx.scene.shape.Polygon;
+import javafx.scene.shape.Polyline;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.Shape;
+import javafx.scene.text.Text;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Exports shapes as an SVG document.
+ * <p>
+ * Each shape becomes the matching SVG element: a {@code rect}, an {@code ellipse}, a {@code line}, a
+ * {@code polygon}, a {@code polyline} or a {@code text}, with its colors and stroke width. Groups, arrays
+ * and symbol instances become a {@code g} element holding their members. The rotation and the flips of a
+ * shape, and its translation, are written as the {@code transform} of its element, computed by
+ * {@link ShapeTransform#of(Node)}, so the geometry is written as the shape holds it and any SVG viewer
+ * draws it where the canvas does. Nodes with no SVG counterpart, such as the images of symbols, are
+ * skipped.
+ * </p>
+ * <p>
+ * The document is written element by element with a {@link XMLStreamWriter}, so the memory used does not
+ * grow with the size of the drawing. The shapes of hidden layers are left out; the shapes only culled by
+ * the viewport are exported. The exporter reads the shapes, so it must run on the JavaFX Application
+ * Thread when they are on a displayed canvas.
+ * </p>
+ */
+public final class SvgExporter {
+
+    /**
+     * The figures of a completed export.
+     */
+    public static final class Report {
+
+        private final int elements;
+        private final int skipped;
+        private final long nanos;
+
+        private Report(int elements, int skipped, long nanos) {
+            this.elements = elements;
+            this.skipped = skipped;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Returns the number of elements written, groups included.
+         *
+         * @return the number of SVG elements
+         */
+        public int getElements() {
+            return elements;
+        }
+
+        /**
+         * Returns the number of nodes that have no SVG counterpart and were left out.
+         *
+         * @return the number of skipped nodes
+         */
+        public int getSkipped() {
+            return skipped;
+        }
+
+        /**
+         * Returns the duration of the export.
+         *
+         * @return the elapsed time, in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d elements in %.2f s, %d skipped", elements, nanos / 1e9, skipped);
+        }
+    }
+
+    /**
+     * The namespace of SVG elements.
+     */
+    public static final String SVG_NAMESPACE = "http://www.w3.org/2000/svg";
+
+    /**
+     * The coordinates are rounded to the nearest multiple of the inverse of this scale.
+     */
+    private static final double PRECISION = 1e3;
+
+    /**
+     * The scale of the rounding of the linear coefficients of the transforms, which multiply the
+     * coordinates and need more decimals.
+     */
+    private static final double COEFFICIENT_PRECISION = 1e9;
+
+    private final double[] region;
+    private XMLStreamWriter writer;
+    private StringBuilder buffer;
+    private int elements;
+    private int skipped;
+
+    /**
+     * Constructs an exporter of a region of a drawing.
+     *
+     * @param region the region shown by the document, as {@code {minX, minY, maxX, maxY}} in canvas
+     *               coordinates; a canvas unit is an SVG user unit
+     * @throws IllegalArgumentException if the region is empty
+     */
+    public SvgExporter(double[] region) {
+        if (region == null || !(region[2] > region[0]) || !(region[3] > region[1])) {
+            throw new IllegalArgumentException("Empty region");
+        }
+        this.region = region.clone();
+    }
+
+    /**
+     * Writes the shapes to a file, bottom to top in the given order.
+     *
+     * @param nodes the shapes, children of the canvas
+     * @param file  the destination file
+     * @return the report of the export
+     * @throws IOException if the file cannot be written
+     */
+    public Report export(Collection<? extends Node> nodes, File file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16)) {
+            return export(nodes, out);
+        }
+    }
+
+    /**
+     * Writes the shapes to a stream, bottom to top in the given order. The stream is not closed.
+     *
+     * @param nodes the shapes, children of the canvas
+     * @param out   the destination stream
+     * @return the report of the export
+     * @throws IOException if the stream cannot be written
+     */
+    public Report export(Collection<? extends Node> nodes, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        elements = 0;
+        skipped = 0;
+        buffer = new StringBuilder();
+        try {
+            writer = XMLOutputFactory.newFactory().createXMLStreamWriter(out, "UTF-8");
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeCharacters("\n");
+            writer.writeStartElement("svg");
+            writer.writeDefaultNamespace(SVG_NAMESPACE);
+            double width = region[2] - region[0];
+            double height = region[3] - region[1];
+            writer.writeAttribute("width", number(width));
+            writer.writeAttribute("height", number(height));
+            writer.writeAttribute("viewBox", number(region[0]) + " " + number(region[1]) + " "
+                    + number(width) + " " + number(height));
+            for (Node node : nodes) {
+                if (ShapeVisibility.isShownIgnoring(node, ShapeVisibility.CULLED)) {
+                    writeNode(node);
+                }
+            }
+            writer.writeCharacters("\n");
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.flush();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to write the SVG document", e);
+        } finally {
+            writer = null;
+            buffer = null;
+        }
+        out.flush();
+        return new Report(elements, skipped, System.nanoTime() - start);
+    }
+
+    /**
+     * Writes the element of a node, or of a group and its members.
+     */
+    private void writeNode(Node node) throws XMLStreamException {
+        if (node instanceof Group) {
+            writer.writeCharacters("\n");
+            writer.writeStartElement("g");
+            writeTransform(node);
+            elements++;
+            for (Node child : ((Group) node).getChildren()) {
+                if (child.isVisible()) {
+                    writeNode(child);
+                }
+            }
+            writer.writeEndElement();
+            return;
+        }
+        if (node instanceof Rectangle) {
+            Rectangle rectangle = (Rectangle) node;
+            start("rect", rectangle);
+            writer.writeAttribute("x", number(rectangle.getX()));
+            writer.writeAttribute("y", number(rectangle.getY()));
+            writer.writeAttribute("width", number(rectangle.getWidth()));
+            writer.writeAttribute("height", number(rectangle.getHeight()));
+            if (rectangle.getArcWidth() > 0 && rectangle.getArcHeight() > 0) {
+                writer.writeAttribute("rx", number(rectangle.getArcWidth() / 2));
+                writer.writeAttribute("ry", number(rectangle.getArcHeight() / 2));
+            }
+        } else if (node instanceof Ellipse) {
+            Ellipse ellipse = (Ellipse) node;
+            start("ellipse", ellipse);
+            writer.writeAttribute("cx", number(ellipse.getCenterX()));
+            writer.writeAttribute("cy", number(ellipse.getCenterY()));
+            writer.writeAttribute("rx", number(ellipse.getRadiusX()));
+            writer.writeAttribute("ry", number(ellipse.getRadiusY()));
+        } else if (node instanceof Line) {
+            Line line = (Line) node;
+            start("line", line);
+            writer.writeAttribute("x1", number(line.getStartX()));
+            writer.writeAttribute("y1", number(line.getStartY()));
+            writer.writeAttribute("x2", number(line.getEndX()));
+            writer.writeAttribute("y2", number(line.getEndY()));
+        } else if (node instanceof Polygon) {
+            Polygon polygon = (Polygon) node;
+            start("polygon", polygon);
+            writer.writeAttribute("points", points(polygon.getPoints()));
+        } else if (node instanceof Polyline) {
+            Polyline polyline = (Polyline) node;
+            start("polyline", polyline);
+            writer.writeAttribute("points", points(polyline.getPoints()));
+        } else if (node instanceof Text) {
+            Text text = (Text) node;
+            start("text", text);
+            writer.writeAttribute("x", number(text.getX()));
+            writer.writeAttribute("y", number(text.getY()));
+            writer.writeAttribute("font-family", text.getFont().getFamily());
+            writer.writeAttribute("font-size", number(text.getFont().getSize()));
+            writer.writeCharacters(text.getText() != null ? text.getText() : "");
+        } else {
+            skipped++;
+            return;
+        }
+        writer.writeEndElement();
+    }
+
+    /**
+     * Starts the element of a shape, with its transform, colors and stroke width.
+     */
+    private void start(String name, Shape shape) throws XMLStreamException {
+        writer.writeCharacters("\n");
+        writer.writeStartElement(name);
+        writeTransform(shape);
+        writePaint("fill", shape.getFill());
+        if (writePaint("stroke", shape.getStroke())) {
+            writer.writeAttribute("stroke-width", number(shape.getStrokeWidth()));
+        }
+        elements++;
+    }
+
+    /**
+     * Writes the transform of a node, unless it is the identity.
+     */
+    private void writeTransform(Node node) throws XMLStreamException {
+        ShapeTransform transform = ShapeTransform.of(node);
+        if (transform.isIdentity()) {
+            return;
+        }
+        if (transform.isTranslation()) {
+            writer.writeAttribute("transform", "translate(" + number(transform.getTx()) + " "
+                    + number(transform.getTy()) + ")");
+            return;
+        }
+        // SVG lists the coefficients column by column
+        writer.writeAttribute("transform", "matrix(" + coefficient(transform.getMxx()) + " " + coefficient(transform.getMyx())
+                + " " + coefficient(transform.getMxy()) + " " + coefficient(transform.getMyy())
+                + " " + number(transform.getTx()) + " " + number(transform.getTy()) + ")");
+    }
+
+    /**
+     * Writes a paint attribute, and its opacity if the color is translucent.
+     *
+     * @return whether the paint is drawn
+     */
+    private boolean writePaint(String attribute, Paint paint) throws XMLStreamException {
+        if (!(paint instanceof Color) || ((Color) paint).getOpacity() == 0) {
+            writer.writeAttribute(attribute, "none");
+            return false;
+        }
+        Color color = (Color) paint;
+        int rgb = (int) Math.round(color.getRed() * 255) << 16 | (int) Math.round(color.getGreen() * 255) << 8
+                | (int) Math.round(color.getBlue() * 255);
+        writer.writeAttribute(attribute, String.format("#%06x", rgb));
+        if (color.getOpacity() < 1) {
+            writer.writeAttribute(attribute + "-opacity", number(color.getOpacity()));
+        }
+        return true;
+    }
+
+    /**
+     * Formats a list of coordinates as the {@code points} of a polygon or a polyline.
+     */
+    private String points(List<Double> coordinates) {
+        buffer.setLength(0);
+        for (int i = 0; i + 1 < coordinates.size(); i += 2) {
+            if (i > 0) {
+                buffer.append(' ');
+            }
+            buffer.append(number(coordinates.get(i))).append(',').append(number(coordinates.get(i + 1)));
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Formats a number with at most three decimals, without an exponent or trailing zeros.
+     */
+    static String number(double value) {
+        return format(value, PRECISION);
+    }
+
+    /**
+     * Formats a linear coefficient of a transform with at most nine decimals.
+     */
+    private static String coefficient(double value) {
+        return format(value, COEFFICIENT_PRECISION);
+    }
+
+    private static String format(double value, double precision) {
+        double rounded = Math.round(value * precision) / precision;
+        if (rounded == Math.rint(rounded) && Math.abs(rounded) < 1e15) {
+            return Long.toString((long) rounded);
+        }
+        return BigDecimal.valueOf(rounded).stripTrailingZeros().toPlainString();
+    }
+}
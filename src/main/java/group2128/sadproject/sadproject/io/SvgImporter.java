@@ -0,0 +1,932 @@
+package group2128.sadproject.sadproject.io;
+
+import group2128.sadproject.sadproject.factory.ColorCache;
+import group2128.sadproject.sadproject.factory.EllipseShape;
+import group2128.sadproject.sadproject.factory.PolygonShape;
+import group2128.sadproject.sadproject.factory.PolylineShape;
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import group2128.sadproject.sadproject.factory.SegmentShape;
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.factory.ShapeTransform;
+import group2128.sadproject.sadproject.factory.TextShape;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.paint.Color;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Imports the shapes of an SVG document.
+ * <p>
+ * The document is read with a StAX {@link XMLStreamReader}, one element at a time, and each graphic
+ * element is turned into a detached shape, as the {@link group2128.sadproject.sadproject.factory.ShapeLoader}
+ * does for the JSON format: {@code rect}, {@code circle} and {@code ellipse} become rectangles and
+ * ellipses, {@code line} a segment, {@code polygon} and {@code polyline} the matching shapes, {@code text}
+ * a text, and a {@code path} made of straight lines a polygon or a polyline for each of its subpaths. The
+ * shapes are handed to the sink in batches, in document order, so the caller can add each batch to the
+ * canvas with a single change of its children while the rest of the document is read.
+ * </p>
+ * <p>
+ * The {@code transform} of the elements and of their groups are composed. Polygons, polylines and
+ * segments take the transform in their vertices; rectangles, ellipses and texts take it as a rotation and
+ * a flip about their center, which is exact for the translations, rotations, flips and scales drawings
+ * are made of. The fill, the stroke, the stroke width and the opacities are read from the attributes or
+ * the {@code style} attribute, and inherited from the groups. Groups are flattened: their members are
+ * imported as separate shapes. Elements with no counterpart, such as curved paths, images and
+ * {@code use} references, are skipped and counted in the {@link Report}; definitions are ignored.
+ * </p>
+ * <p>
+ * Nothing is added to a canvas and no JavaFX state is touched, so the importer can run on a background
+ * thread, leaving the JavaFX Application Thread to add the batches.
+ * </p>
+ */
+public final class SvgImporter {
+
+    /**
+     * The figures of a completed import.
+     */
+    public static final class Report {
+
+        private final int elements;
+        private final int shapes;
+        private final int skipped;
+        private final long nanos;
+
+        private Report(int elements, int shapes, int skipped, long nanos) {
+            this.elements = elements;
+            this.shapes = shapes;
+            this.skipped = skipped;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Returns the number of elements read.
+         *
+         * @return the number of XML elements of the document
+         */
+        public int getElements() {
+            return elements;
+        }
+
+        /**
+         * Returns the number of shapes created.
+         *
+         * @return the number of shapes handed to the sink
+         */
+        public int getShapes() {
+            return shapes;
+        }
+
+        /**
+         * Returns the number of graphic elements that could not be imported.
+         *
+         * @return the number of skipped elements
+         */
+        public int getSkipped() {
+            return skipped;
+        }
+
+        /**
+         * Returns the duration of the import.
+         *
+         * @return the elapsed time, in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d shapes from %d elements in %.2f s, %d skipped", shapes, elements, nanos / 1e9, skipped);
+        }
+    }
+
+    /**
+     * The default number of shapes handed to the sink at once.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 2000;
+
+    /**
+     * The font size of the texts that do not set one, as defined by the browsers.
+     */
+    private static final double DEFAULT_FONT_SIZE = 16;
+
+    /**
+     * The elements whose content is not drawn by itself.
+     */
+    private static final Set<String> DEFINITIONS = new HashSet<>(Arrays.asList("defs", "symbol", "clipPath",
+            "mask", "pattern", "marker", "linearGradient", "radialGradient", "filter", "style", "script",
+            "metadata", "title", "desc"));
+
+    /**
+     * The graphic elements that are not imported.
+     */
+    private static final Set<String> UNSUPPORTED = new HashSet<>(Arrays.asList("use", "image", "foreignObject"));
+
+    /**
+     * The presentation attributes of an element, inherited by its children.
+     */
+    private static final class Style {
+        private ShapeTransform transform = ShapeTransform.IDENTITY;
+        private Color fill = Color.BLACK;
+        private Color stroke;
+        private double strokeWidth = 1;
+        private double fillOpacity = 1;
+        private double strokeOpacity = 1;
+        private double opacity = 1;
+        private double fontSize = DEFAULT_FONT_SIZE;
+        private boolean hidden;
+
+        private Style copy() {
+            Style style = new Style();
+            style.transform = transform;
+            style.fill = fill;
+            style.stroke = stroke;
+            style.strokeWidth = strokeWidth;
+            style.fillOpacity = fillOpacity;
+            style.strokeOpacity = strokeOpacity;
+            style.opacity = opacity;
+            style.fontSize = fontSize;
+            return style;
+        }
+
+        private Color getFill() {
+            return withOpacity(fill, fillOpacity * opacity);
+        }
+
+        private Color getStroke() {
+            return withOpacity(stroke, strokeOpacity * opacity);
+        }
+
+        /**
+         * Returns the stroke width in the coordinates of the canvas.
+         */
+        private double getStrokeWidth() {
+            return strokeWidth * Math.sqrt(Math.abs(transform.getDeterminant()));
+        }
+
+        private static Color withOpacity(Color color, double opacity) {
+            if (color == null || opacity >= 1) {
+                return color;
+            }
+            return ColorCache.intern(Color.color(color.getRed(), color.getGreen(), color.getBlue(),
+                    color.getOpacity() * Math.max(0, opacity)));
+        }
+    }
+
+    private final Consumer<List<SelectableShape>> sink;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private volatile boolean cancelled;
+
+    private XMLStreamReader reader;
+    private List<SelectableShape> batch;
+    private int elements;
+    private int shapes;
+    private int skipped;
+
+    /**
+     * Constructs an importer handing the shapes to the given sink.
+     *
+     * @param sink receives the new detached shapes in batches, in document order, on the thread reading
+     *             the document
+     */
+    public SvgImporter(Consumer<List<SelectableShape>> sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Sets the number of shapes handed to the sink at once.
+     *
+     * @param batchSize the size of the batches, the last one being smaller
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Invalid batch size: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Stops the import in progress, if any. No batch is handed to the sink afterwards.
+     * <p>
+     * This method may be called from any thread.
+     * </p>
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether the import was cancelled.
+     *
+     * @return {@code true} if {@link #cancel()} was called
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Imports the shapes of an SVG file.
+     *
+     * @param file the SVG file
+     * @return the report of the import
+     * @throws IOException if the file cannot be read or is not a well-formed document
+     */
+    public Report read(File file) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file), 1 << 16)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Imports the shapes of an SVG document. The stream is not closed.
+     *
+     * @param in the stream of the document
+     * @return the report of the import
+     * @throws IOException if the stream cannot be read or is not a well-formed document
+     */
+    public Report read(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        elements = 0;
+        shapes = 0;
+        skipped = 0;
+        batch = new ArrayList<>();
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // the document is data: no external entity or DTD is fetched
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        try {
+            reader = factory.createXMLStreamReader(in);
+            Deque<Style> styles = new ArrayDeque<>();
+            styles.push(new Style());
+            int ignoredDepth = 0;
+            StringBuilder text = null;
+            Style textStyle = null;
+            double textX = 0;
+            double textY = 0;
+            while (reader.hasNext() && !cancelled) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    elements++;
+                    String name = reader.getLocalName();
+                    if (ignoredDepth > 0 || DEFINITIONS.contains(name)) {
+                        ignoredDepth++;
+                        continue;
+                    }
+                    Style style;
+                    try {
+                        style = readStyle(styles.peek());
+                    } catch (IllegalArgumentException e) {
+                        style = styles.peek().copy();
+                    }
+                    styles.push(style);
+                    if (style.hidden) {
+                        ignoredDepth++;
+                        styles.pop();
+                        continue;
+                    }
+                    if (name.equals("text")) {
+                        text = new StringBuilder();
+                        textStyle = style;
+                        textX = coordinate(attribute("x"));
+                        textY = coordinate(attribute("y"));
+                    } else if (text == null) {
+                        try {
+                            readElement(name, style);
+                        } catch (IllegalArgumentException e) {
+                            // a malformed number
+                            skipped++;
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (ignoredDepth > 0) {
+                        ignoredDepth--;
+                        continue;
+                    }
+                    styles.pop();
+                    if (reader.getLocalName().equals("text") && text != null) {
+                        String content = text.toString().trim().replaceAll("\\s+", " ");
+                        if (!content.isEmpty()) {
+                            add(text(textStyle, textX, textY, content));
+                        }
+                        text = null;
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS && text != null && ignoredDepth == 0) {
+                    text.append(reader.getText());
+                }
+            }
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to read the SVG document: " + e.getMessage(), e);
+        } finally {
+            reader = null;
+        }
+        if (!batch.isEmpty() && !cancelled) {
+            sink.accept(batch);
+        }
+        batch = null;
+        return new Report(elements, shapes, skipped, System.nanoTime() - start);
+    }
+
+    /**
+     * Imports a graphic element other than a text.
+     */
+    private void readElement(String name, Style style) {
+        switch (name) {
+            case "rect":
+                double width = length(attribute("width"));
+                double height = length(attribute("height"));
+                if (width > 0 && height > 0) {
+                    add(rectangle(style, length(attribute("x")), length(attribute("y")), width, height));
+                }
+                break;
+            case "circle":
+                double radius = length(attribute("r"));
+                if (radius > 0) {
+                    add(ellipse(style, length(attribute("cx")), length(attribute("cy")), radius, radius));
+                }
+                break;
+            case "ellipse":
+                double radiusX = length(attribute("rx"));
+                double radiusY = length(attribute("ry"));
+                if (radiusX > 0 && radiusY > 0) {
+                    add(ellipse(style, length(attribute("cx")), length(attribute("cy")), radiusX, radiusY));
+                }
+                break;
+            case "line":
+                Point2D start = style.transform.transform(length(attribute("x1")), length(attribute("y1")));
+                Point2D end = style.transform.transform(length(attribute("x2")), length(attribute("y2")));
+                SegmentShape segment = new SegmentShape(null, style.getStroke(), start.getX(), start.getY(), end.getX(), end.getY());
+                segment.setStrokeWidth(style.getStrokeWidth());
+                add(segment);
+                break;
+            case "polygon":
+            case "polyline":
+                List<Double> points = numbers(attribute("points"));
+                if (points.size() % 2 != 0) {
+                    points.remove(points.size() - 1);
+                }
+                addPoints(style, points, name.equals("polygon"));
+                break;
+            case "path":
+                readPath(style, attribute("d"));
+                break;
+            default:
+                if (UNSUPPORTED.contains(name)) {
+                    skipped++;
+                }
+                break;
+        }
+    }
+
+    /**
+     * Imports the subpaths of a path made of straight lines. A path with curves is skipped as a whole.
+     */
+    private void readPath(Style style, String data) {
+        if (data == null) {
+            return;
+        }
+        List<List<Double>> subpaths = new ArrayList<>();
+        List<Boolean> closed = new ArrayList<>();
+        List<Double> current = null;
+        double x = 0;
+        double y = 0;
+        double startX = 0;
+        double startY = 0;
+        NumberScanner scanner = new NumberScanner(data);
+        char command = 0;
+        while (true) {
+            char next = scanner.nextCommand();
+            if (next != 0) {
+                command = next;
+            } else if (!scanner.hasNumber()) {
+                break;
+            } else if (command == 'Z' || command == 'z') {
+                skipped++;
+                return;
+            } else if (command == 'M') {
+                command = 'L';
+            } else if (command == 'm') {
+                command = 'l';
+            }
+            switch (command) {
+                case 'M':
+                case 'm':
+                    x = command == 'm' ? x + scanner.next() : scanner.next();
+                    y = command == 'm' ? y + scanner.next() : scanner.next();
+                    startX = x;
+                    startY = y;
+                    current = new ArrayList<>();
+                    subpaths.add(current);
+                    closed.add(false);
+                    current.add(x);
+                    current.add(y);
+                    continue;
+                case 'L':
+                case 'l':
+                    x = command == 'l' ? x + scanner.next() : scanner.next();
+                    y = command == 'l' ? y + scanner.next() : scanner.next();
+                    break;
+                case 'H':
+                case 'h':
+                    x = command == 'h' ? x + scanner.next() : scanner.next();
+                    break;
+                case 'V':
+                case 'v':
+                    y = command == 'v' ? y + scanner.next() : scanner.next();
+                    break;
+                case 'Z':
+                case 'z':
+                    if (current != null) {
+                        closed.set(closed.size() - 1, true);
+                    }
+                    x = startX;
+                    y = startY;
+                    current = null;
+                    continue;
+                default:
+                    skipped++;
+                    return;
+            }
+            if (current == null) {
+                // a line after a closed subpath starts a new one at the same point
+                current = new ArrayList<>();
+                subpaths.add(current);
+                closed.add(false);
+                current.add(startX);
+                current.add(startY);
+            }
+            current.add(x);
+            current.add(y);
+        }
+        for (int i = 0; i < subpaths.size(); i++) {
+            addPoints(style, subpaths.get(i), closed.get(i));
+        }
+    }
+
+    /**
+     * Imports a polygon or a polyline from its vertices in the coordinates of the element.
+     */
+    private void addPoints(Style style, List<Double> points, boolean polygon) {
+        if (points.size() < (polygon ? 6 : 4)) {
+            return;
+        }
+        List<Double> vertices = Arrays.asList(style.transform.transformCoordinates(points));
+        if (polygon) {
+            PolygonShape shape = new PolygonShape(style.getFill(), style.getStroke(), vertices);
+            shape.setStrokeWidth(style.getStrokeWidth());
+            add(shape);
+        } else {
+            PolylineShape shape = new PolylineShape(style.getStroke(), vertices);
+            shape.setStrokeWidth(style.getStrokeWidth());
+            add(shape);
+        }
+    }
+
+    /**
+     * Builds a rectangle, keeping it axis-aligned when the transform allows it, or rotating and flipping
+     * it about its center otherwise.
+     */
+    private static SelectableShape rectangle(Style style, double x, double y, double width, double height) {
+        ShapeTransform transform = style.transform;
+        RectangleShape rectangle;
+        if (transform.isAxisAligned()) {
+            double[] bounds = transform.transformBounds(x, y, x + width, y + height);
+            rectangle = new RectangleShape(style.getFill(), style.getStroke(), (bounds[0] + bounds[2]) / 2,
+                    (bounds[1] + bounds[3]) / 2, bounds[2] - bounds[0], bounds[3] - bounds[1]);
+        } else {
+            Point2D center = transform.transform(x + width / 2, y + height / 2);
+            rectangle = new RectangleShape(style.getFill(), style.getStroke(), center.getX(), center.getY(),
+                    width * scaleX(transform), height * scaleY(transform), flip(transform), 1, angle(transform));
+        }
+        rectangle.setStrokeWidth(style.getStrokeWidth());
+        return rectangle;
+    }
+
+    /**
+     * Builds an ellipse, keeping it axis-aligned when the transform allows it, or rotating and flipping
+     * it about its center otherwise.
+     */
+    private static SelectableShape ellipse(Style style, double centerX, double centerY, double radiusX, double radiusY) {
+        ShapeTransform transform = style.transform;
+        EllipseShape ellipse;
+        if (transform.isAxisAligned()) {
+            double[] bounds = transform.transformBounds(centerX - radiusX, centerY - radiusY, centerX + radiusX, centerY + radiusY);
+            ellipse = new EllipseShape(style.getFill(), style.getStroke(), (bounds[0] + bounds[2]) / 2,
+                    (bounds[1] + bounds[3]) / 2, (bounds[2] - bounds[0]) / 2, (bounds[3] - bounds[1]) / 2);
+        } else {
+            Point2D center = transform.transform(centerX, centerY);
+            ellipse = new EllipseShape(style.getFill(), style.getStroke(), center.getX(), center.getY(),
+                    radiusX * scaleX(transform), radiusY * scaleY(transform), flip(transform), 1, angle(transform));
+        }
+        ellipse.setStrokeWidth(style.getStrokeWidth());
+        return ellipse;
+    }
+
+    /**
+     * Builds a text whose baseline starts at the given point.
+     * <p>
+     * JavaFX rotates and flips a text about the center of its bounds, not about its anchor, so a rotated
+     * or flipped text is moved by the difference once its bounds are known.
+     * </p>
+     */
+    private static SelectableShape text(Style style, double x, double y, String content) {
+        ShapeTransform transform = style.transform;
+        Point2D anchor = transform.transform(x, y);
+        double flip = flip(transform);
+        double angle = angle(transform);
+        TextShape text = new TextShape(anchor.getX(), anchor.getY(), flip, 1, style.fontSize * scaleY(transform),
+                style.getFill(), style.getStroke(), angle);
+        text.setText(content);
+        if (style.stroke != null) {
+            text.setStrokeWidth(style.getStrokeWidth());
+        }
+        if (flip < 0 || angle != 0) {
+            Bounds bounds = text.getLayoutBounds();
+            ShapeTransform turn = ShapeTransform.rotation(angle, 0, 0).concatenate(ShapeTransform.scale(flip, 1, 0, 0));
+            double dx = anchor.getX() - (bounds.getMinX() + bounds.getWidth() / 2);
+            double dy = anchor.getY() - (bounds.getMinY() + bounds.getHeight() / 2);
+            Point2D turned = turn.transform(dx, dy);
+            text.setAnchorX(anchor.getX() + dx - turned.getX());
+            text.setAnchorY(anchor.getY() + dy - turned.getY());
+        }
+        return text;
+    }
+
+    /**
+     * Returns the horizontal scale of a transform, along the X axis of the element.
+     */
+    private static double scaleX(ShapeTransform transform) {
+        return Math.hypot(transform.getMxx(), transform.getMyx());
+    }
+
+    /**
+     * Returns the vertical scale of a transform, along the Y axis of the element.
+     */
+    private static double scaleY(ShapeTransform transform) {
+        return Math.hypot(transform.getMxy(), transform.getMyy());
+    }
+
+    /**
+     * Returns the horizontal scale factor of a shape drawn with a transform: -1 if it mirrors, 1 otherwise.
+     */
+    private static double flip(ShapeTransform transform) {
+        return transform.getDeterminant() < 0 ? -1 : 1;
+    }
+
+    /**
+     * Returns the rotation of a shape drawn with a transform, once flipped horizontally if it mirrors.
+     */
+    private static double angle(ShapeTransform transform) {
+        double sign = flip(transform);
+        double angle = Math.toDegrees(Math.atan2(sign * transform.getMyx(), sign * transform.getMxx()));
+        return Math.abs(angle) < 1e-9 ? 0 : angle;
+    }
+
+    /**
+     * Hands a new shape to the current batch, and the batch to the sink when it is full.
+     */
+    private void add(SelectableShape shape) {
+        shapes++;
+        batch.add(shape);
+        if (batch.size() >= batchSize) {
+            sink.accept(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    /**
+     * Returns the style of the current element, inheriting from its parent.
+     */
+    private Style readStyle(Style parent) {
+        Style style = parent.copy();
+        String transform = attribute("transform");
+        if (transform != null) {
+            style.transform = parent.transform.concatenate(parseTransform(transform));
+        }
+        applyProperty(style, "fill", attribute("fill"));
+        applyProperty(style, "stroke", attribute("stroke"));
+        applyProperty(style, "stroke-width", attribute("stroke-width"));
+        applyProperty(style, "fill-opacity", attribute("fill-opacity"));
+        applyProperty(style, "stroke-opacity", attribute("stroke-opacity"));
+        applyProperty(style, "opacity", attribute("opacity"));
+        applyProperty(style, "font-size", attribute("font-size"));
+        applyProperty(style, "display", attribute("display"));
+        applyProperty(style, "visibility", attribute("visibility"));
+        String declarations = attribute("style");
+        if (declarations != null) {
+            for (String declaration : declarations.split(";")) {
+                int colon = declaration.indexOf(':');
+                if (colon > 0) {
+                    applyProperty(style, declaration.substring(0, colon).trim(), declaration.substring(colon + 1).trim());
+                }
+            }
+        }
+        return style;
+    }
+
+    /**
+     * Applies a presentation attribute, or a declaration of the {@code style} attribute, to a style.
+     */
+    private static void applyProperty(Style style, String name, String value) {
+        if (value == null || value.isEmpty() || value.equals("inherit")) {
+            return;
+        }
+        switch (name) {
+            case "fill":
+                style.fill = paint(value, style.fill);
+                break;
+            case "stroke":
+                style.stroke = paint(value, style.stroke);
+                break;
+            case "stroke-width":
+                style.strokeWidth = length(value);
+                break;
+            case "fill-opacity":
+                style.fillOpacity = opacity(value);
+                break;
+            case "stroke-opacity":
+                style.strokeOpacity = opacity(value);
+                break;
+            case "opacity":
+                style.opacity *= opacity(value);
+                break;
+            case "font-size":
+                double size = length(value);
+                if (size > 0) {
+                    style.fontSize = size;
+                }
+                break;
+            case "display":
+                style.hidden |= value.equals("none");
+                break;
+            case "visibility":
+                style.hidden |= value.equals("hidden") || value.equals("collapse");
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Parses a paint, returning {@code null} for {@code none} and the inherited paint for the values that
+     * cannot be imported, such as references to gradients.
+     */
+    private static Color paint(String value, Color inherited) {
+        if (value.equals("none") || value.equals("transparent")) {
+            return null;
+        }
+        if (value.startsWith("url(") || value.equals("currentColor")) {
+            return inherited;
+        }
+        try {
+            return ColorCache.parse(value);
+        } catch (IllegalArgumentException e) {
+            return inherited;
+        }
+    }
+
+    private static double opacity(String value) {
+        double opacity = value.endsWith("%")
+                ? Double.parseDouble(value.substring(0, value.length() - 1)) / 100
+                : Double.parseDouble(value);
+        return Math.max(0, Math.min(1, opacity));
+    }
+
+    /**
+     * Parses the list of transforms of a {@code transform} attribute into a single transform.
+     */
+    static ShapeTransform parseTransform(String value) {
+        ShapeTransform result = ShapeTransform.IDENTITY;
+        int index = 0;
+        while (index < value.length()) {
+            int open = value.indexOf('(', index);
+            int close = value.indexOf(')', open + 1);
+            if (open < 0 || close < 0) {
+                break;
+            }
+            String name = value.substring(index, open).replace(",", " ").trim();
+            List<Double> arguments = numbers(value.substring(open + 1, close));
+            index = close + 1;
+            ShapeTransform transform;
+            switch (name) {
+                case "matrix":
+                    if (arguments.size() != 6) {
+                        continue;
+                    }
+                    // SVG lists the coefficients column by column
+                    transform = new ShapeTransform(arguments.get(0), arguments.get(2), arguments.get(4),
+                            arguments.get(1), arguments.get(3), arguments.get(5));
+                    break;
+                case "translate":
+                    if (arguments.isEmpty()) {
+                        continue;
+                    }
+                    transform = ShapeTransform.translation(arguments.get(0), arguments.size() > 1 ? arguments.get(1) : 0);
+                    break;
+                case "scale":
+                    if (arguments.isEmpty()) {
+                        continue;
+                    }
+                    transform = ShapeTransform.scale(arguments.get(0),
+                            arguments.size() > 1 ? arguments.get(1) : arguments.get(0), 0, 0);
+                    break;
+                case "rotate":
+                    if (arguments.isEmpty()) {
+                        continue;
+                    }
+                    transform = arguments.size() >= 3
+                            ? ShapeTransform.rotation(arguments.get(0), arguments.get(1), arguments.get(2))
+                            : ShapeTransform.rotation(arguments.get(0), 0, 0);
+                    break;
+                case "skewX":
+                    if (arguments.isEmpty()) {
+                        continue;
+                    }
+                    transform = new ShapeTransform(1, Math.tan(Math.toRadians(arguments.get(0))), 0, 0, 1, 0);
+                    break;
+                case "skewY":
+                    if (arguments.isEmpty()) {
+                        continue;
+                    }
+                    transform = new ShapeTransform(1, 0, 0, Math.tan(Math.toRadians(arguments.get(0))), 1, 0);
+                    break;
+                default:
+                    continue;
+            }
+            result = result.concatenate(transform);
+        }
+        return result;
+    }
+
+    /**
+     * Parses a length in user units, converting the absolute units. Percentages are not supported and
+     * read as 0.
+     */
+    static double length(String value) {
+        if (value == null) {
+            return 0;
+        }
+        String trimmed = value.trim();
+        int end = trimmed.length();
+        while (end > 0 && Character.isLetter(trimmed.charAt(end - 1))) {
+            end--;
+        }
+        if (end == 0 || trimmed.endsWith("%")) {
+            return 0;
+        }
+        double number = Double.parseDouble(trimmed.substring(0, end));
+        switch (trimmed.substring(end)) {
+            case "pt":
+                return number * 96 / 72;
+            case "pc":
+                return number * 16;
+            case "mm":
+                return number * 96 / 25.4;
+            case "cm":
+                return number * 96 / 2.54;
+            case "in":
+                return number * 96;
+            default:
+                return number;
+        }
+    }
+
+    /**
+     * Returns the first coordinate of a list, as the {@code x} of a text may be, or 0 if it is malformed.
+     */
+    private static double coordinate(String value) {
+        if (value == null) {
+            return 0;
+        }
+        String trimmed = value.trim();
+        int end = 0;
+        while (end < trimmed.length() && trimmed.charAt(end) != ' ' && trimmed.charAt(end) != ',') {
+            end++;
+        }
+        try {
+            return length(trimmed.substring(0, end));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Parses a list of numbers separated by spaces, commas or signs.
+     */
+    static List<Double> numbers(String value) {
+        List<Double> numbers = new ArrayList<>();
+        if (value != null) {
+            NumberScanner scanner = new NumberScanner(value);
+            while (scanner.hasNumber()) {
+                numbers.add(scanner.next());
+            }
+        }
+        return numbers;
+    }
+
+    private String attribute(String name) {
+        return reader.getAttributeValue(null, name);
+    }
+
+    /**
+     * Reads the numbers and the commands of the compact syntax of SVG, where {@code 10-5.5.5} holds the
+     * numbers 10, -5.5 and .5.
+     */
+    private static final class NumberScanner {
+
+        private final String text;
+        private int index;
+
+        private NumberScanner(String text) {
+            this.text = text;
+        }
+
+        private void skipSeparators() {
+            while (index < text.length()) {
+                char c = text.charAt(index);
+                if (c != ' ' && c != ',' && c != '\t' && c != '\n' && c != '\r') {
+                    break;
+                }
+                index++;
+            }
+        }
+
+        /**
+         * Reads a path command letter, or returns 0 if the next token is not one.
+         */
+        private char nextCommand() {
+            skipSeparators();
+            if (index < text.length()) {
+                char c = text.charAt(index);
+                if (Character.isLetter(c) && c != 'e' && c != 'E') {
+                    index++;
+                    return c;
+                }
+            }
+            return 0;
+        }
+
+        private boolean hasNumber() {
+            skipSeparators();
+            if (index >= text.length()) {
+                return false;
+            }
+            char c = text.charAt(index);
+            return Character.isDigit(c) || c == '-' || c == '+' || c == '.';
+        }
+
+        /**
+         * Reads the next number.
+         *
+         * @throws IllegalArgumentException if there is no number
+         */
+        private double next() {
+            if (!hasNumber()) {
+                throw new IllegalArgumentException("Number expected at " + index + " in \"" + text + "\"");
+            }
+            int start = index;
+            if (text.charAt(index) == '-' || text.charAt(index) == '+') {
+                index++;
+            }
+            boolean dot = false;
+            while (index < text.length()) {
+                char c = text.charAt(index);
+                if (c == '.' && !dot) {
+                    dot = true;
+                } else if (c == 'e' || c == 'E') {
+                    index++;
+                    if (index < text.length() && (text.charAt(index) == '-' || text.charAt(index) == '+')) {
+                        index++;
+                    }
+                    while (index < text.length() && Character.isDigit(text.charAt(index))) {
+                        index++;
+                    }
+                    break;
+                } else if (!Character.isDigit(c)) {
+                    break;
+                }
+                index++;
+            }
+            return Double.parseDouble(text.substring(start, index));
+        }
+    }
+}
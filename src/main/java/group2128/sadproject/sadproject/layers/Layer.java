@@ -0,0 +1,219 @@
+package group2128.sadproject.sadproject.layers;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import org.json.JSONObject;
+
+/**
+ * A named layer of a drawing, grouping shapes that are shown, locked or frozen together.
+ * <p>
+ * A layer is a plain model object managed by the {@link LayerManager} of a canvas: the shapes keep
+ * living in the children of the canvas, and only refer to their layer by its identifier. The state of
+ * the layer is applied to its shapes by the manager whenever it changes.
+ * </p>
+ * <ul>
+ *     <li>A hidden layer hides its shapes and excludes them from hit-testing.</li>
+ *     <li>A locked layer shows its shapes but excludes them from hit-testing, so they cannot be
+ *     selected or edited.</li>
+ *     <li>A frozen layer is locked, and its shapes are rendered from cached bitmaps instead of being
+ *     rasterized again at every frame.</li>
+ * </ul>
+ */
+public class Layer {
+
+    /**
+     * The identifier of the layer, unique within its manager and stored with the shapes.
+     */
+    private final String id;
+
+    /**
+     * The name of the layer, shown to the user.
+     */
+    private final StringProperty name;
+
+    /**
+     * Whether the shapes of the layer are shown.
+     */
+    private final BooleanProperty visible = new SimpleBooleanProperty(this, "visible", true);
+
+    /**
+     * Whether the shapes of the layer are excluded from hit-testing.
+     */
+    private final BooleanProperty locked = new SimpleBooleanProperty(this, "locked", false);
+
+    /**
+     * Whether the shapes of the layer are rendered from cached bitmaps.
+     */
+    private final BooleanProperty frozen = new SimpleBooleanProperty(this, "frozen", false);
+
+    /**
+     * Constructs a visible, unlocked layer.
+     *
+     * @param id   the identifier of the layer
+     * @param name the name of the layer
+     */
+    Layer(String id, String name) {
+        this.id = id;
+        this.name = new SimpleStringProperty(this, "name", name);
+    }
+
+    /**
+     * Returns the identifier of the layer.
+     *
+     * @return the identifier, stored with the shapes of the layer
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the property holding the name of the layer.
+     *
+     * @return the name property
+     */
+    public StringProperty nameProperty() {
+        return name;
+    }
+
+    /**
+     * Returns the name of the layer.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name.get();
+    }
+
+    /**
+     * Renames the layer.
+     *
+     * @param name the new name
+     */
+    public void setName(String name) {
+        this.name.set(name);
+    }
+
+    /**
+     * Returns the property holding whether the shapes of the layer are shown.
+     *
+     * @return the visible property
+     */
+    public BooleanProperty visibleProperty() {
+        return visible;
+    }
+
+    /**
+     * Checks whether the shapes of the layer are shown.
+     *
+     * @return {@code true} if the layer is visible
+     */
+    public boolean isVisible() {
+        return visible.get();
+    }
+
+    /**
+     * Shows or hides the shapes of the layer.
+     *
+     * @param visible {@code true} to show the layer
+     */
+    public void setVisible(boolean visible) {
+        this.visible.set(visible);
+    }
+
+    /**
+     * Returns the property holding whether the shapes of the layer are excluded from hit-testing.
+     *
+     * @return the locked property
+     */
+    public BooleanProperty lockedProperty() {
+        return locked;
+    }
+
+    /**
+     * Checks whether the shapes of the layer are excluded from hit-testing.
+     *
+     * @return {@code true} if the layer is locked
+     */
+    public boolean isLocked() {
+        return locked.get();
+    }
+
+    /**
+     * Locks or unlocks the layer.
+     *
+     * @param locked {@code true} to exclude the shapes of the layer from hit-testing
+     */
+    public void setLocked(boolean locked) {
+        this.locked.set(locked);
+    }
+
+    /**
+     * Returns the property holding whether the shapes of the layer are rendered from cached bitmaps.
+     *
+     * @return the frozen property
+     */
+    public BooleanProperty frozenProperty() {
+        return frozen;
+    }
+
+    /**
+     * Checks whether the shapes of the layer are rendered from cached bitmaps.
+     *
+     * @return {@code true} if the layer is frozen
+     */
+    public boolean isFrozen() {
+        return frozen.get();
+    }
+
+    /**
+     * Freezes or thaws the layer.
+     *
+     * @param frozen {@code true} to render the shapes of the layer from cached bitmaps
+     */
+    public void setFrozen(boolean frozen) {
+        this.frozen.set(frozen);
+    }
+
+    /**
+     * Checks whether the shapes of the layer can be picked, selected and edited.
+     *
+     * @return {@code true} if the layer is visible, unlocked and not frozen
+     */
+    public boolean isEditable() {
+        return isVisible() && !isLocked() && !isFrozen();
+    }
+
+    /**
+     * Serializes the layer.
+     *
+     * @return the identifier, name and state of the layer
+     */
+    public JSONObject toJson() {
+        JSONObject obj = new JSONObject();
+        obj.put("id", id);
+        obj.put("name", getName());
+        obj.put("visible", isVisible());
+        obj.put("locked", isLocked());
+        obj.put("frozen", isFrozen());
+        return obj;
+    }
+
+    /**
+     * Restores the state of the layer from its serialized form.
+     *
+     * @param obj the object produced by {@link #toJson()}
+     */
+    void loadJson(JSONObject obj) {
+        setName(obj.optString("name", getName()));
+        setVisible(obj.optBoolean("visible", true));
+        setLocked(obj.optBoolean("locked", false));
+        setFrozen(obj.optBoolean("frozen", false));
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
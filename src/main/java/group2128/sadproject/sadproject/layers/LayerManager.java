@@ -0,0 +1,456 @@
+package group2128.sadproject.sadproject.layers;
+
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.view.ShapeVisibility;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.CacheHint;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.layout.Pane;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The ordered layers of a drawing canvas, and the assignment of its shapes to them.
+ * <p>
+ * The shapes stay direct children of the canvas, so commands, undo, the spatial index and saving keep
+ * working on a flat list; each shape only records the identifier of its layer in its node properties.
+ * The manager applies the state of a layer to its shapes:
+ * </p>
+ * <ul>
+ *     <li>the layers are rendered in bands, bottom to top, through the {@linkplain Node#viewOrderProperty()
+ *     view order} of their shapes, whatever the position of the shapes in the children list;</li>
+ *     <li>the shapes of a hidden layer are hidden through {@link ShapeVisibility}, which keeps the
+ *     culling of the viewport independent;</li>
+ *     <li>the shapes of hidden, locked and frozen layers are mouse transparent, and are skipped by
+ *     the selection (see {@link #isEditable(Node)});</li>
+ *     <li>the shapes of a frozen layer are cached as bitmaps, so editing other layers over a heavy
+ *     frozen background does not rasterize it again.</li>
+ * </ul>
+ * <p>
+ * Shapes added to the canvas without a known layer, such as newly drawn or pasted shapes, join the
+ * active layer. Copies made for undo keep their layer through {@link #copyLayer(Node, Node)}.
+ * There is at most one manager per canvas: use {@link #of(Pane)} to obtain it.
+ * </p>
+ */
+public final class LayerManager {
+
+    /**
+     * The name of the layer of a new drawing.
+     */
+    public static final String DEFAULT_LAYER_NAME = "Layer 1";
+
+    /**
+     * The view order of the previews drawn on the canvas, such as the shape being drawn, which keeps them
+     * in front of the shapes of every layer.
+     */
+    public static final double PREVIEW_VIEW_ORDER = -Double.MAX_VALUE;
+
+    /**
+     * The key under which the manager is stored in the canvas properties.
+     */
+    private static final Object PROPERTY_KEY = LayerManager.class;
+
+    /**
+     * The key under which the identifier of its layer is stored in the properties of a shape.
+     */
+    private static final Object LAYER_KEY = Layer.class;
+
+    /**
+     * The canvas whose shapes are assigned to layers.
+     */
+    private final Pane canvas;
+
+    /**
+     * The layers, bottom to top.
+     */
+    private final ObservableList<Layer> layers = FXCollections.observableArrayList();
+
+    /**
+     * The layers by identifier.
+     */
+    private final Map<String, Layer> layersById = new HashMap<>();
+
+    /**
+     * The layer receiving the new shapes.
+     */
+    private final ObjectProperty<Layer> activeLayer = new SimpleObjectProperty<>(this, "activeLayer");
+
+    /**
+     * Listener applying the state of a layer to its shapes when it changes.
+     */
+    private final InvalidationListener stateListener = observable -> applyAll();
+
+    /**
+     * The number used to build the identifier of the next layer.
+     */
+    private int nextId = 1;
+
+    /**
+     * Builds the manager of a canvas with a single layer, and starts tracking its children.
+     *
+     * @param canvas the drawing canvas
+     */
+    private LayerManager(Pane canvas) {
+        this.canvas = canvas;
+        activeLayer.set(newLayer(String.valueOf(nextId++), DEFAULT_LAYER_NAME));
+        canvas.getChildren().addListener((ListChangeListener<Node>) change -> {
+            while (change.next()) {
+                for (Node added : change.getAddedSubList()) {
+                    adopt(added);
+                }
+            }
+        });
+        for (Node node : canvas.getChildren()) {
+            adopt(node);
+        }
+    }
+
+    /**
+     * Returns the layer manager of the given canvas, creating it on first use.
+     *
+     * @param canvas the drawing canvas
+     * @return the manager attached to the canvas
+     */
+    public static LayerManager of(Pane canvas) {
+        LayerManager manager = find(canvas);
+        if (manager == null) {
+            manager = new LayerManager(canvas);
+            canvas.getProperties().put(PROPERTY_KEY, manager);
+        }
+        return manager;
+    }
+
+    /**
+     * Returns the layer manager of the given node, if it has one.
+     *
+     * @param canvas the node, typically a drawing canvas
+     * @return the manager attached to the node, or {@code null} if none
+     */
+    public static LayerManager find(Parent canvas) {
+        if (canvas == null || !canvas.hasProperties()) {
+            return null;
+        }
+        Object manager = canvas.getProperties().get(PROPERTY_KEY);
+        return manager instanceof LayerManager ? (LayerManager) manager : null;
+    }
+
+    /**
+     * Checks whether a child of a canvas can be picked, selected and edited.
+     *
+     * @param shape a child of a canvas
+     * @return {@code true} if the canvas has no layers or the layer of the shape is editable
+     */
+    public static boolean isEditable(Node shape) {
+        LayerManager manager = find(shape.getParent());
+        if (manager == null) {
+            return true;
+        }
+        Layer layer = manager.getLayer(shape);
+        return layer == null || layer.isEditable();
+    }
+
+    /**
+     * Gives a copy of a shape the layer of the original, for instance when saving the canvas for undo.
+     *
+     * @param original the original shape
+     * @param copy     the copy
+     */
+    public static void copyLayer(Node original, Node copy) {
+        if (original.hasProperties() && original.getProperties().containsKey(LAYER_KEY)) {
+            copy.getProperties().put(LAYER_KEY, original.getProperties().get(LAYER_KEY));
+        }
+    }
+
+    /**
+     * Returns the identifier of the layer recorded in a shape.
+     *
+     * @param shape the shape
+     * @return the identifier, or {@code null} if the shape has none
+     */
+    public static String getLayerId(Node shape) {
+        if (!shape.hasProperties()) {
+            return null;
+        }
+        Object id = shape.getProperties().get(LAYER_KEY);
+        return id instanceof String ? (String) id : null;
+    }
+
+    /**
+     * Returns the layers, bottom to top.
+     *
+     * @return an unmodifiable live view of the layers
+     */
+    public ObservableList<Layer> getLayers() {
+        return FXCollections.unmodifiableObservableList(layers);
+    }
+
+    /**
+     * Returns the layer with the given identifier.
+     *
+     * @param id the identifier
+     * @return the layer, or {@code null} if there is none
+     */
+    public Layer getLayer(String id) {
+        return id == null ? null : layersById.get(id);
+    }
+
+    /**
+     * Returns the layer of a shape of the canvas.
+     *
+     * @param shape the shape
+     * @return its layer, or {@code null} if the shape is not assigned to a layer of this manager
+     */
+    public Layer getLayer(Node shape) {
+        return getLayer(getLayerId(shape));
+    }
+
+    /**
+     * Returns the property holding the layer receiving the new shapes.
+     *
+     * @return the active layer property
+     */
+    public ObjectProperty<Layer> activeLayerProperty() {
+        return activeLayer;
+    }
+
+    /**
+     * Returns the layer receiving the new shapes.
+     *
+     * @return the active layer
+     */
+    public Layer getActiveLayer() {
+        return activeLayer.get();
+    }
+
+    /**
+     * Sets the layer receiving the new shapes.
+     *
+     * @param layer a layer of this manager
+     * @throws IllegalArgumentException if the layer does not belong to this manager
+     */
+    public void setActiveLayer(Layer layer) {
+        if (!layers.contains(layer)) {
+            throw new IllegalArgumentException("The layer does not belong to this canvas");
+        }
+        activeLayer.set(layer);
+    }
+
+    /**
+     * Adds a layer on top of the others. The new layer is not made active.
+     *
+     * @param name the name of the layer
+     * @return the new layer
+     */
+    public Layer addLayer(String name) {
+        Layer layer = newLayer(String.valueOf(nextId++), name);
+        applyAll();
+        return layer;
+    }
+
+    /**
+     * Removes a layer, moving its shapes to the layer below it, or above it if it is the bottom layer.
+     *
+     * @param layer the layer to remove
+     * @throws IllegalStateException if it is the only layer
+     */
+    public void removeLayer(Layer layer) {
+        int index = layers.indexOf(layer);
+        if (index < 0) {
+            return;
+        }
+        if (layers.size() == 1) {
+            throw new IllegalStateException("A drawing must have at least one layer");
+        }
+        Layer target = layers.get(index == 0 ? 1 : index - 1);
+        for (Node node : canvas.getChildren()) {
+            if (getLayer(node) == layer) {
+                node.getProperties().put(LAYER_KEY, target.getId());
+            }
+        }
+        detach(layer);
+        layers.remove(index);
+        if (getActiveLayer() == layer) {
+            activeLayer.set(target);
+        }
+        applyAll();
+    }
+
+    /**
+     * Moves a layer to another position in the stack.
+     *
+     * @param layer the layer to move
+     * @param index its new position, 0 being the bottom
+     */
+    public void moveLayer(Layer layer, int index) {
+        if (layers.remove(layer)) {
+            layers.add(Math.max(0, Math.min(index, layers.size())), layer);
+            applyAll();
+        }
+    }
+
+    /**
+     * Assigns shapes of the canvas to a layer.
+     *
+     * @param shapes the shapes to move
+     * @param layer  a layer of this manager
+     */
+    public void assign(Collection<? extends SelectableShape> shapes, Layer layer) {
+        for (SelectableShape shape : shapes) {
+            assign((Node) shape, layer);
+        }
+    }
+
+    /**
+     * Assigns a shape of the canvas to a layer.
+     *
+     * @param shape the shape to move
+     * @param layer a layer of this manager
+     */
+    public void assign(Node shape, Layer layer) {
+        if (!layers.contains(layer)) {
+            throw new IllegalArgumentException("The layer does not belong to this canvas");
+        }
+        shape.getProperties().put(LAYER_KEY, layer.getId());
+        apply(shape, layer);
+    }
+
+    /**
+     * Serializes the layers, bottom to top.
+     *
+     * @return the serialized layers
+     */
+    public JSONArray toJson() {
+        JSONArray array = new JSONArray();
+        for (Layer layer : layers) {
+            array.put(layer.toJson());
+        }
+        return array;
+    }
+
+    /**
+     * Checks whether the drawing uses layers at all, that is whether it has several layers or a
+     * single layer that is not in its initial state.
+     *
+     * @return {@code true} if the layers are worth saving
+     */
+    public boolean isLayered() {
+        if (layers.size() != 1) {
+            return true;
+        }
+        Layer layer = layers.get(0);
+        return !DEFAULT_LAYER_NAME.equals(layer.getName()) || !layer.isVisible() || layer.isLocked() || layer.isFrozen();
+    }
+
+    /**
+     * Replaces the layers by serialized ones, or by a single default layer.
+     * <p>
+     * The shapes keep the layer identifiers they record, and are reassigned as they are loaded.
+     * The top layer becomes active.
+     * </p>
+     *
+     * @param array the layers produced by {@link #toJson()}, or {@code null} for a single default layer
+     */
+    public void loadJson(JSONArray array) {
+        for (Layer layer : layers) {
+            detach(layer);
+        }
+        layers.clear();
+        nextId = 1;
+        if (array == null || array.length() == 0) {
+            newLayer(String.valueOf(nextId++), DEFAULT_LAYER_NAME);
+        } else {
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject obj = array.getJSONObject(i);
+                String id = obj.getString("id");
+                newLayer(id, obj.optString("name", id)).loadJson(obj);
+                try {
+                    nextId = Math.max(nextId, Integer.parseInt(id) + 1);
+                } catch (NumberFormatException e) {
+                    // Identifiers written by other tools are kept as they are
+                }
+            }
+        }
+        activeLayer.set(layers.get(layers.size() - 1));
+        applyAll();
+    }
+
+    /**
+     * Creates a layer on top of the others and starts listening to its state.
+     */
+    private Layer newLayer(String id, String name) {
+        while (layersById.containsKey(id)) {
+            id = String.valueOf(nextId++);
+        }
+        Layer layer = new Layer(id, name);
+        layer.visibleProperty().addListener(stateListener);
+        layer.lockedProperty().addListener(stateListener);
+        layer.frozenProperty().addListener(stateListener);
+        layers.add(layer);
+        layersById.put(id, layer);
+        return layer;
+    }
+
+    /**
+     * Stops listening to a removed layer.
+     */
+    private void detach(Layer layer) {
+        layer.visibleProperty().removeListener(stateListener);
+        layer.lockedProperty().removeListener(stateListener);
+        layer.frozenProperty().removeListener(stateListener);
+        layersById.remove(layer.getId());
+    }
+
+    /**
+     * Applies its layer to a shape added to the canvas, assigning it to the active layer if it has none.
+     */
+    private void adopt(Node node) {
+        if (!(node instanceof SelectableShape)) {
+            return;
+        }
+        Layer layer = getLayer(node);
+        if (layer == null) {
+            layer = getActiveLayer();
+            node.getProperties().put(LAYER_KEY, layer.getId());
+        }
+        apply(node, layer);
+    }
+
+    /**
+     * Applies their layer to all the shapes of the canvas.
+     */
+    private void applyAll() {
+        for (Node node : canvas.getChildren()) {
+            if (node instanceof SelectableShape) {
+                Layer layer = getLayer(node);
+                if (layer == null) {
+                    layer = getActiveLayer();
+                    node.getProperties().put(LAYER_KEY, layer.getId());
+                }
+                apply(node, layer);
+            }
+        }
+    }
+
+    /**
+     * Applies the position and the state of a layer to one of its shapes.
+     */
+    private void apply(Node node, Layer layer) {
+        node.setViewOrder(-layers.indexOf(layer));
+        ShapeVisibility.setHidden(node, ShapeVisibility.LAYER, !layer.isVisible());
+        node.setMouseTransparent(!layer.isEditable());
+        if (node.isCache() != layer.isFrozen()) {
+            node.setCacheHint(layer.isFrozen() ? CacheHint.QUALITY : CacheHint.DEFAULT);
+            node.setCache(layer.isFrozen());
+        }
+    }
+}
@@ -0,0 +1,577 @@
+package group2128.sadproject.sadproject.layers;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.layout.Pane;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The stacking order of the shapes of a canvas, recorded as fractional order keys.
+ * <p>
+ * Every child of the canvas carries an order key in its node properties, and the children list is
+ * kept sorted by key. Keys are strings compared lexicographically, and a new key can always be
+ * generated between any two keys (see {@link #keyBetween(String, String)}), so moving a shape only
+ * gives a new key to that shape: the keys of the other shapes never change. This makes every change
+ * of the stacking order a small, self-describing {@link Move}, which is enough to undo it without a
+ * snapshot of the canvas, even after the shapes have been replaced by copies keeping their keys.
+ * </p>
+ * <p>
+ * The children list is reordered incrementally: only the moved shapes are taken out and put back
+ * at their new positions, found by a binary search on the keys. Shapes added to the canvas without a
+ * key, or with a key that does not fit their position, receive a key between their neighbours.
+ * There is at most one instance per canvas: use {@link #of(Pane)} to obtain it.
+ * </p>
+ */
+public final class ZOrder {
+
+    /**
+     * The digits of the keys, in increasing order.
+     */
+    private static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    /**
+     * The key of the first shape of an empty canvas.
+     */
+    private static final String FIRST_KEY = "a0";
+
+    /**
+     * The key under which the instance is stored in the canvas properties.
+     */
+    private static final Object PROPERTY_KEY = ZOrder.class;
+
+    /**
+     * The key under which its order key is stored in the properties of a shape.
+     */
+    private static final String ORDER_KEY = ZOrder.class.getName() + ".key";
+
+    /**
+     * Compares children by order key.
+     */
+    private static final Comparator<Node> BY_KEY = Comparator.comparing(ZOrder::getKey);
+
+    /**
+     * The canvas whose children are ordered.
+     */
+    private final Pane canvas;
+
+    /**
+     * A change of the order key of a shape, from which the change can be undone.
+     */
+    public static final class Move {
+
+        private final String oldKey;
+        private final String newKey;
+
+        Move(String oldKey, String newKey) {
+            this.oldKey = oldKey;
+            this.newKey = newKey;
+        }
+
+        /**
+         * Returns the key of the shape before the move.
+         *
+         * @return the old key
+         */
+        public String getOldKey() {
+            return oldKey;
+        }
+
+        /**
+         * Returns the key of the shape after the move.
+         *
+         * @return the new key
+         */
+        public String getNewKey() {
+            return newKey;
+        }
+    }
+
+    /**
+     * Gives keys to the current children of a canvas and starts keeping the keys of its children in order.
+     *
+     * @param canvas the drawing canvas
+     */
+    private ZOrder(Pane canvas) {
+        this.canvas = canvas;
+        fixKeys(0, canvas.getChildren().size());
+        canvas.getChildren().addListener((ListChangeListener<Node>) change -> {
+            while (change.next()) {
+                if (change.wasAdded()) {
+                    fixKeys(change.getFrom(), change.getTo());
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the stacking order of the given canvas, creating it on first use.
+     *
+     * @param canvas the drawing canvas
+     * @return the stacking order attached to the canvas
+     */
+    public static ZOrder of(Pane canvas) {
+        ZOrder order = find(canvas);
+        if (order == null) {
+            order = new ZOrder(canvas);
+            canvas.getProperties().put(PROPERTY_KEY, order);
+        }
+        return order;
+    }
+
+    /**
+     * Returns the stacking order of the given node, if it has one.
+     *
+     * @param canvas the node, typically a drawing canvas
+     * @return the stacking order attached to the node, or {@code null} if none
+     */
+    public static ZOrder find(Parent canvas) {
+        if (canvas == null || !canvas.hasProperties()) {
+            return null;
+        }
+        Object order = canvas.getProperties().get(PROPERTY_KEY);
+        return order instanceof ZOrder ? (ZOrder) order : null;
+    }
+
+    /**
+     * Returns the order key of a shape.
+     *
+     * @param shape the shape
+     * @return its order key, or {@code null} if it has none
+     */
+    public static String getKey(Node shape) {
+        if (!shape.hasProperties()) {
+            return null;
+        }
+        Object key = shape.getProperties().get(ORDER_KEY);
+        return key instanceof String ? (String) key : null;
+    }
+
+    /**
+     * Gives a copy of a shape the order key of the original, for instance when saving the canvas for undo.
+     *
+     * @param original the original shape
+     * @param copy     the copy
+     */
+    public static void copyKey(Node original, Node copy) {
+        String key = getKey(original);
+        if (key != null) {
+            copy.getProperties().put(ORDER_KEY, key);
+        }
+    }
+
+    /**
+     * Checks whether a string is a well-formed order key.
+     *
+     * @param key the string to check
+     * @return {@code true} if the key can be used to order shapes
+     */
+    public static boolean isValidKey(String key) {
+        if (key == null || key.isEmpty() || integerLength(key.charAt(0)) < 0) {
+            return false;
+        }
+        int length = integerLength(key.charAt(0));
+        if (key.length() < length || (key.length() > length && key.charAt(key.length() - 1) == '0')) {
+            return false;
+        }
+        for (int i = 1; i < key.length(); i++) {
+            if (DIGITS.indexOf(key.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generates a key strictly between two keys.
+     * <p>
+     * A key is an integer part, whose first character gives the number of its digits, followed by an
+     * optional fraction. Keys appended after the last one increment the integer part, so a canvas of
+     * {@code n} shapes drawn one after the other uses keys of {@code O(log n)} characters; keys
+     * inserted between two others extend the fraction.
+     * </p>
+     *
+     * @param lower the lower key, or {@code null} for no lower bound
+     * @param upper the upper key, or {@code null} for no upper bound
+     * @return a new key, greater than {@code lower} and less than {@code upper}
+     * @throws IllegalArgumentException if {@code lower} is not less than {@code upper}
+     */
+    public static String keyBetween(String lower, String upper) {
+        if (lower != null && upper != null && lower.compareTo(upper) >= 0) {
+            throw new IllegalArgumentException(lower + " is not less than " + upper);
+        }
+        if (lower == null && upper == null) {
+            return FIRST_KEY;
+        }
+        if (lower == null) {
+            String integer = integerPart(upper);
+            if (integer.length() < upper.length()) {
+                return integer;
+            }
+            String decremented = decrement(integer);
+            return decremented != null ? decremented : integer + midpoint("", upper.substring(integer.length()));
+        }
+        String lowerInteger = integerPart(lower);
+        String lowerFraction = lower.substring(lowerInteger.length());
+        if (upper == null) {
+            String incremented = increment(lowerInteger);
+            return incremented != null ? incremented : lowerInteger + midpoint(lowerFraction, null);
+        }
+        String upperInteger = integerPart(upper);
+        if (lowerInteger.equals(upperInteger)) {
+            return lowerInteger + midpoint(lowerFraction, upper.substring(upperInteger.length()));
+        }
+        String incremented = increment(lowerInteger);
+        if (incremented != null && incremented.compareTo(upper) < 0) {
+            return incremented;
+        }
+        return lowerInteger + midpoint(lowerFraction, null);
+    }
+
+    /**
+     * Returns the position of the shape with the given key in the children of the canvas.
+     *
+     * @param key an order key
+     * @return the index of the child with this key, or {@code -1} if there is none
+     */
+    public int indexOf(String key) {
+        ObservableList<Node> children = canvas.getChildren();
+        int low = 0;
+        int high = children.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comparison = getKey(children.get(mid)).compareTo(key);
+            if (comparison == 0) {
+                return mid;
+            } else if (comparison < 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Brings shapes of the canvas above all the others, keeping their relative order.
+     *
+     * @param shapes the shapes to move
+     * @return the moves performed, to be passed to {@link #undo(List)}
+     */
+    public List<Move> bringToFront(Collection<? extends Node> shapes) {
+        List<Node> sorted = sortedChildren(shapes);
+        List<Move> moves = new ArrayList<>(sorted.size());
+        ObservableList<Node> children = canvas.getChildren();
+        for (Node node : sorted) {
+            Node top = children.get(children.size() - 1);
+            if (top != node) {
+                String oldKey = getKey(node);
+                node.getProperties().put(ORDER_KEY, keyBetween(getKey(top), null));
+                node.toFront();
+                moves.add(new Move(oldKey, getKey(node)));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Sends shapes of the canvas below all the others, keeping their relative order.
+     *
+     * @param shapes the shapes to move
+     * @return the moves performed, to be passed to {@link #undo(List)}
+     */
+    public List<Move> sendToBack(Collection<? extends Node> shapes) {
+        List<Node> sorted = sortedChildren(shapes);
+        Collections.reverse(sorted);
+        List<Move> moves = new ArrayList<>(sorted.size());
+        ObservableList<Node> children = canvas.getChildren();
+        for (Node node : sorted) {
+            Node bottom = children.get(0);
+            if (bottom != node) {
+                String oldKey = getKey(node);
+                node.getProperties().put(ORDER_KEY, keyBetween(null, getKey(bottom)));
+                node.toBack();
+                moves.add(new Move(oldKey, getKey(node)));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Brings each shape one step forward, above the next other shape drawn in the same band.
+     * <p>
+     * Shapes of other layers are skipped, since they are drawn below or above the band of the shape
+     * anyway. The moved shapes keep their relative order.
+     * </p>
+     *
+     * @param shapes the shapes to move
+     * @return the moves performed, to be passed to {@link #undo(List)}
+     */
+    public List<Move> bringForward(Collection<? extends Node> shapes) {
+        List<Node> sorted = sortedChildren(shapes);
+        Map<Node, Boolean> moving = identitySet(sorted);
+        List<Move> moves = new ArrayList<>(sorted.size());
+        ObservableList<Node> children = canvas.getChildren();
+        for (int i = sorted.size() - 1; i >= 0; i--) {
+            Node node = sorted.get(i);
+            int index = indexOf(getKey(node)) + 1;
+            while (index < children.size() && (moving.containsKey(children.get(index))
+                    || children.get(index).getViewOrder() != node.getViewOrder())) {
+                index++;
+            }
+            if (index < children.size()) {
+                String upper = index + 1 < children.size() ? getKey(children.get(index + 1)) : null;
+                moves.add(moveTo(node, keyBetween(getKey(children.get(index)), upper)));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Sends each shape one step backward, below the previous other shape drawn in the same band.
+     * <p>
+     * Shapes of other layers are skipped, since they are drawn below or above the band of the shape
+     * anyway. The moved shapes keep their relative order.
+     * </p>
+     *
+     * @param shapes the shapes to move
+     * @return the moves performed, to be passed to {@link #undo(List)}
+     */
+    public List<Move> sendBackward(Collection<? extends Node> shapes) {
+        List<Node> sorted = sortedChildren(shapes);
+        Map<Node, Boolean> moving = identitySet(sorted);
+        List<Move> moves = new ArrayList<>(sorted.size());
+        ObservableList<Node> children = canvas.getChildren();
+        for (Node node : sorted) {
+            int index = indexOf(getKey(node)) - 1;
+            while (index >= 0 && (moving.containsKey(children.get(index))
+                    || children.get(index).getViewOrder() != node.getViewOrder())) {
+                index--;
+            }
+            if (index >= 0) {
+                String lower = index > 0 ? getKey(children.get(index - 1)) : null;
+                moves.add(moveTo(node, keyBetween(lower, getKey(children.get(index)))));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Gives a shape of the canvas a new key, and moves it to the matching position.
+     * <p>
+     * If another shape already has this key, the shape is placed just above it.
+     * </p>
+     *
+     * @param node a child of the canvas
+     * @param key  a well-formed order key
+     * @return the move performed
+     */
+    public Move moveTo(Node node, String key) {
+        ObservableList<Node> children = canvas.getChildren();
+        String oldKey = getKey(node);
+        int from = indexOf(oldKey);
+        int to = insertionPoint(key, from);
+        if (to > 0) {
+            String below = getKey(children.get(to - 1 < from ? to - 1 : to));
+            if (below.equals(key)) {
+                int next = to < from ? to : to + 1;
+                key = keyBetween(key, next < children.size() ? getKey(children.get(next)) : null);
+            }
+        }
+        node.getProperties().put(ORDER_KEY, key);
+        if (to != from) {
+            children.remove(from);
+            children.add(to, node);
+        }
+        return new Move(oldKey, key);
+    }
+
+    /**
+     * Undoes moves, in reverse order, finding the moved shapes by their new keys.
+     * <p>
+     * The shapes do not need to be the instances that were moved: copies keeping the same keys,
+     * such as the shapes restored by a memento, are moved back as well.
+     * </p>
+     *
+     * @param moves the moves returned by one of the reordering methods
+     */
+    public void undo(List<Move> moves) {
+        for (int i = moves.size() - 1; i >= 0; i--) {
+            Move move = moves.get(i);
+            int index = indexOf(move.getNewKey());
+            if (index >= 0) {
+                moveTo(canvas.getChildren().get(index), move.getOldKey());
+            }
+        }
+    }
+
+    /**
+     * Returns the children of the canvas among the given shapes, bottom to top.
+     */
+    private List<Node> sortedChildren(Collection<? extends Node> shapes) {
+        List<Node> sorted = new ArrayList<>(shapes.size());
+        for (Node node : shapes) {
+            if (node.getParent() == canvas && getKey(node) != null) {
+                sorted.add(node);
+            }
+        }
+        sorted.sort(BY_KEY);
+        return sorted;
+    }
+
+    /**
+     * Returns the position at which a shape with the given key is inserted, once the shape at
+     * {@code excluded} has been removed.
+     */
+    private int insertionPoint(String key, int excluded) {
+        ObservableList<Node> children = canvas.getChildren();
+        int low = 0;
+        int high = children.size() - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            Node child = children.get(mid < excluded ? mid : mid + 1);
+            if (getKey(child).compareTo(key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Gives the children in {@code [from, to)} keys between the keys of their neighbours, keeping
+     * the keys that already fit.
+     */
+    private void fixKeys(int from, int to) {
+        ObservableList<Node> children = canvas.getChildren();
+        String upper = to < children.size() ? getKey(children.get(to)) : null;
+        String lower = from > 0 ? getKey(children.get(from - 1)) : null;
+        if (upper != null && lower != null && upper.compareTo(lower) <= 0) {
+            upper = null;
+        }
+        for (int i = from; i < to; i++) {
+            Node node = children.get(i);
+            String key = getKey(node);
+            if (!isValidKey(key) || (lower != null && key.compareTo(lower) <= 0)
+                    || (upper != null && key.compareTo(upper) >= 0)) {
+                key = keyBetween(lower, upper);
+                node.getProperties().put(ORDER_KEY, key);
+            }
+            lower = key;
+        }
+    }
+
+    /**
+     * Returns an identity set of nodes, as the keys of a map.
+     */
+    private static Map<Node, Boolean> identitySet(List<Node> nodes) {
+        Map<Node, Boolean> set = new IdentityHashMap<>(nodes.size() * 2);
+        for (Node node : nodes) {
+            set.put(node, Boolean.TRUE);
+        }
+        return set;
+    }
+
+    /**
+     * Returns the number of characters of the integer part of a key starting with the given character.
+     */
+    private static int integerLength(char head) {
+        if (head >= 'a' && head <= 'z') {
+            return head - 'a' + 2;
+        } else if (head >= 'A' && head <= 'Z') {
+            return 'Z' - head + 2;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the integer part of a key.
+     */
+    private static String integerPart(String key) {
+        return key.substring(0, integerLength(key.charAt(0)));
+    }
+
+    /**
+     * Returns the next integer part, or {@code null} if the integer part is the largest one.
+     */
+    private static String increment(String integer) {
+        char head = integer.charAt(0);
+        char[] digits = integer.substring(1).toCharArray();
+        for (int i = digits.length - 1; i >= 0; i--) {
+            int digit = DIGITS.indexOf(digits[i]) + 1;
+            if (digit < DIGITS.length()) {
+                digits[i] = DIGITS.charAt(digit);
+                return head + new String(digits);
+            }
+            digits[i] = '0';
+        }
+        if (head == 'Z') {
+            return FIRST_KEY;
+        } else if (head == 'z') {
+            return null;
+        }
+        char next = (char) (head + 1);
+        String rest = new String(digits);
+        return next + (next > 'a' ? rest + '0' : rest.substring(1));
+    }
+
+    /**
+     * Returns the previous integer part, or {@code null} if the integer part is the smallest one.
+     */
+    private static String decrement(String integer) {
+        char head = integer.charAt(0);
+        char[] digits = integer.substring(1).toCharArray();
+        for (int i = digits.length - 1; i >= 0; i--) {
+            int digit = DIGITS.indexOf(digits[i]) - 1;
+            if (digit >= 0) {
+                digits[i] = DIGITS.charAt(digit);
+                return head + new String(digits);
+            }
+            digits[i] = 'z';
+        }
+        if (head == 'a') {
+            return "Zz";
+        } else if (head == 'A') {
+            return null;
+        }
+        char previous = (char) (head - 1);
+        String rest = new String(digits);
+        return previous + (previous < 'Z' ? rest + 'z' : rest.substring(1));
+    }
+
+    /**
+     * Returns a fraction strictly between two fractions without trailing zeros, {@code upper} being
+     * {@code null} for one.
+     */
+    private static String midpoint(String lower, String upper) {
+        if (upper != null) {
+            int common = 0;
+            while (common < upper.length()
+                    && (common < lower.length() ? lower.charAt(common) : '0') == upper.charAt(common)) {
+                common++;
+            }
+            if (common > 0) {
+                return upper.substring(0, common)
+                        + midpoint(lower.substring(Math.min(common, lower.length())), upper.substring(common));
+            }
+        }
+        int lowerDigit = lower.isEmpty() ? 0 : DIGITS.indexOf(lower.charAt(0));
+        int upperDigit = upper != null ? DIGITS.indexOf(upper.charAt(0)) : DIGITS.length();
+        if (upperDigit - lowerDigit > 1) {
+            return String.valueOf(DIGITS.charAt((lowerDigit + upperDigit + 1) / 2));
+        }
+        if (upper != null && upper.length() > 1) {
+            return upper.substring(0, 1);
+        }
+        return DIGITS.charAt(lowerDigit) + midpoint(lower.isEmpty() ? "" : lower.substring(1), null);
+    }
+}
@@ -1,6 +1,10 @@
 package group2128.sadproject.sadproject.memento;
 
 import group2128.sadproject.sadproject.factory.*;
+import group2128.sadproject.sadproject.layers.LayerManager;
+import group2128.sadproject.sadproject.layers.ZOrder;
+import group2128.sadproject.sadproject.styles.StyleManager;
+import group2128.sadproject.sadproject.symbols.SymbolInstance;
 import javafx.scene.Node;
 import javafx.scene.layout.AnchorPane;
 import java.util.ArrayList;
@@ -32,7 +36,13 @@ public class DrawingCanvasMemento implements Memento {
         this.drawingCanvas = drawingCanvas;
         this.nodeList = new ArrayList<>();
         for (Node child : drawingCanvas.getChildren()) {
-            nodeList.add(cloneNode(child));
+            Node copy = cloneNode(child);
+            if (copy != null) {
+                LayerManager.copyLayer(child, copy);
+                ZOrder.copyKey(child, copy);
+                StyleManager.copyStyle(child, copy);
+            }
+            nodeList.add(copy);
         }
     }
 
@@ -49,15 +59,17 @@ public class DrawingCanvasMemento implements Memento {
      * Restores the saved nodes to the {@code drawingCanvas}.
      *
      * <p>This method repopulates the canvas with the cloned nodes that were stored during construction,
-     * effectively restoring it to its previous visual state.</p>
+     * effectively restoring it to its previous visual state. The children are replaced in a single
+     * update, so restoring a canvas with many shapes produces one scene graph change.</p>
      */
     public void restore() {
-        drawingCanvas.getChildren().clear();
+        List<Node> restored = new ArrayList<>(nodeList.size());
         for (Node node : nodeList) {
             if (node!=null) {
-                drawingCanvas.getChildren().add(node);
+                restored.add(node);
             }
         }
+        drawingCanvas.getChildren().setAll(restored);
     }
 
     /**
@@ -80,9 +92,21 @@ public class DrawingCanvasMemento implements Memento {
         } else if (node instanceof PolygonShape) {
             PolygonShape p = (PolygonShape) node;
             return (Node) p.getCopy();
+        } else if (node instanceof PolylineShape) {
+            PolylineShape p = (PolylineShape) node;
+            return (Node) p.getCopy();
         } else if (node instanceof TextShape) {
             TextShape t = (TextShape) node;
             return (Node) t.getCopy();
+        } else if (node instanceof GroupShape) {
+            GroupShape g = (GroupShape) node;
+            return (Node) g.getCopy();
+        } else if (node instanceof ArrayShape) {
+            ArrayShape a = (ArrayShape) node;
+            return (Node) a.getCopy();
+        } else if (node instanceof SymbolInstance) {
+            SymbolInstance i = (SymbolInstance) node;
+            return (Node) i.getCopy();
         }
         return null;
     }
@@ -0,0 +1,276 @@
+package group2128.sadproject.sadproject.spatial;
+
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.collections.ListChangeListener;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.layout.Pane;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A {@link SpatialIndex} of the shapes of a drawing canvas, kept in sync with the canvas automatically.
+ * <p>
+ * The index listens to the canvas children list, so shapes are indexed as soon as they are added
+ * and dropped as soon as they are removed (by a command, an undo, a load...). It also listens to the
+ * {@code boundsInParent} of every shape: a change only marks the shape as dirty, and dirty shapes are
+ * re-indexed lazily at the next query. Dragging a shape across the canvas therefore costs nothing
+ * until somebody actually asks the index a question.
+ * </p>
+ * <p>
+ * Bounds are expressed in the coordinate space of the canvas. There is at most one index per canvas:
+ * use {@link #of(Pane)} to obtain it.
+ * </p>
+ * <p>
+ * Views that cache a rendering of the canvas can register a {@linkplain #addRegionListener(Consumer)
+ * region listener} to learn which areas must be redrawn, instead of watching every shape themselves.
+ * </p>
+ */
+public final class CanvasIndex {
+
+    /**
+     * The key under which the index is stored in the canvas properties.
+     */
+    private static final Object PROPERTY_KEY = CanvasIndex.class;
+
+    /**
+     * The canvas whose shapes are indexed.
+     */
+    private final Pane canvas;
+
+    /**
+     * The underlying grid.
+     */
+    private final SpatialIndex<SelectableShape> index = new SpatialIndex<>();
+
+    /**
+     * Shapes whose bounds changed since they were last indexed.
+     */
+    private final Set<SelectableShape> dirtyShapes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Position of every shape in the children list of the canvas, or {@code null} when the
+     * children changed since it was last computed.
+     */
+    private Map<SelectableShape, Integer> stackingOrder;
+
+    /**
+     * Listeners notified of the boxes where shapes were added, moved or removed.
+     */
+    private final List<Consumer<double[]>> regionListeners = new ArrayList<>();
+
+    /**
+     * Shared listener marking the owner of an invalidated {@code boundsInParent} property as dirty.
+     * <p>
+     * An invalidation listener is used on purpose: the bounds are not recomputed on every change,
+     * and the property stays silent until it is read again during the next flush.
+     * </p>
+     */
+    private final InvalidationListener boundsListener = observable -> {
+        SelectableShape shape = (SelectableShape) ((ReadOnlyProperty<?>) observable).getBean();
+        if (dirtyShapes.add(shape)) {
+            fireRegion(shape);
+        }
+    };
+
+    /**
+     * Builds the index for a canvas and starts tracking its children.
+     *
+     * @param canvas the canvas to index
+     */
+    private CanvasIndex(Pane canvas) {
+        this.canvas = canvas;
+        for (Node node : canvas.getChildren()) {
+            track(node);
+        }
+        canvas.getChildren().addListener((ListChangeListener<Node>) change -> {
+            stackingOrder = null;
+            while (change.next()) {
+                for (Node removed : change.getRemoved()) {
+                    if (removed.getParent() != canvas) {
+                        untrack(removed);
+                    }
+                }
+                for (Node added : change.getAddedSubList()) {
+                    track(added);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the index of the given canvas, creating it on first use.
+     *
+     * @param canvas the drawing canvas
+     * @return the index attached to the canvas
+     */
+    public static CanvasIndex of(Pane canvas) {
+        Object index = canvas.getProperties().get(PROPERTY_KEY);
+        if (index instanceof CanvasIndex) {
+            return (CanvasIndex) index;
+        }
+        CanvasIndex created = new CanvasIndex(canvas);
+        canvas.getProperties().put(PROPERTY_KEY, created);
+        return created;
+    }
+
+    /**
+     * Returns the shapes whose bounds intersect the given box, in canvas coordinates.
+     * <p>
+     * This is a candidate set: callers are expected to run exact geometric tests on the result.
+     * </p>
+     *
+     * @param minX the minimum X coordinate of the query box
+     * @param minY the minimum Y coordinate of the query box
+     * @param maxX the maximum X coordinate of the query box
+     * @param maxY the maximum Y coordinate of the query box
+     * @return the candidate shapes, in no particular order
+     */
+    public List<SelectableShape> query(double minX, double minY, double maxX, double maxY) {
+        flush();
+        return index.query(minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Returns the union of the bounds of all the shapes of the canvas.
+     *
+     * @return the extent as {@code {minX, minY, maxX, maxY}}, or {@code null} if the canvas is empty
+     */
+    public double[] getExtent() {
+        flush();
+        return index.getExtent();
+    }
+
+    /**
+     * Sorts shapes of the canvas by stacking order, bottom to top.
+     * <p>
+     * The position of every shape in the children list is computed once and reused until the
+     * children change, so sorting a query result does not walk the whole canvas every time.
+     * Shapes that are not children of the canvas are placed first. Shapes rendered in different
+     * bands by their {@linkplain Node#viewOrderProperty() view order}, such as the shapes of different
+     * layers, are sorted by band first.
+     * </p>
+     *
+     * @param shapes the shapes to sort, in place
+     */
+    public void sortByStackingOrder(List<SelectableShape> shapes) {
+        if (shapes.size() < 2) {
+            return;
+        }
+        if (stackingOrder == null) {
+            List<Node> children = canvas.getChildren();
+            stackingOrder = new IdentityHashMap<>(children.size() * 2);
+            for (int i = 0; i < children.size(); i++) {
+                if (children.get(i) instanceof SelectableShape) {
+                    stackingOrder.put((SelectableShape) children.get(i), i);
+                }
+            }
+        }
+        shapes.sort((a, b) -> {
+            int byViewOrder = Double.compare(((Node) b).getViewOrder(), ((Node) a).getViewOrder());
+            return byViewOrder != 0 ? byViewOrder
+                    : Integer.compare(stackingOrder.getOrDefault(a, -1), stackingOrder.getOrDefault(b, -1));
+        });
+    }
+
+    /**
+     * Registers a listener notified of the regions of the canvas whose content changed.
+     * <p>
+     * The listener receives boxes as {@code {minX, minY, maxX, maxY}} in canvas coordinates. A shape
+     * that is added is reported with its bounds; a shape that is removed is reported with its last
+     * indexed bounds. A shape that moves is reported with its old bounds as soon
+     * as it changes, and with its new bounds when the index is updated, at the latest at the next query:
+     * a listener can call {@link #getExtent()} to receive the pending new bounds.
+     * </p>
+     *
+     * @param listener the listener to add
+     */
+    public void addRegionListener(Consumer<double[]> listener) {
+        regionListeners.add(listener);
+    }
+
+    /**
+     * Unregisters a region listener.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeRegionListener(Consumer<double[]> listener) {
+        regionListeners.remove(listener);
+    }
+
+    /**
+     * Returns the number of indexed shapes.
+     *
+     * @return the shape count
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Re-indexes every shape whose bounds changed since the last query.
+     */
+    private void flush() {
+        if (dirtyShapes.isEmpty()) {
+            return;
+        }
+        List<SelectableShape> pending = new ArrayList<>(dirtyShapes);
+        dirtyShapes.clear();
+        for (SelectableShape shape : pending) {
+            Node node = (Node) shape;
+            if (node.getParent() == canvas) {
+                index.put(shape, node.getBoundsInParent());
+                fireRegion(shape);
+            }
+        }
+    }
+
+    /**
+     * Starts tracking a child of the canvas.
+     */
+    private void track(Node node) {
+        if (!(node instanceof SelectableShape) || index.contains((SelectableShape) node)) {
+            return;
+        }
+        node.boundsInParentProperty().addListener(boundsListener);
+        index.put((SelectableShape) node, node.getBoundsInParent());
+        fireRegion((SelectableShape) node);
+    }
+
+    /**
+     * Stops tracking a node removed from the canvas.
+     */
+    private void untrack(Node node) {
+        if (!(node instanceof SelectableShape)) {
+            return;
+        }
+        node.boundsInParentProperty().removeListener(boundsListener);
+        fireRegion((SelectableShape) node);
+        index.remove((SelectableShape) node);
+        dirtyShapes.remove(node);
+    }
+
+    /**
+     * Notifies the region listeners of the indexed box of a shape, if any.
+     */
+    private void fireRegion(SelectableShape shape) {
+        if (regionListeners.isEmpty()) {
+            return;
+        }
+        double[] box = index.getBounds(shape);
+        if (box == null) {
+            return;
+        }
+        for (Consumer<double[]> listener : regionListeners) {
+            listener.accept(box);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package group2128.sadproject.sadproject.spatial;
+
+import javafx.scene.Node;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A sorted multimap from coordinates to the nodes having an edge (or a center) at that coordinate.
+ * <p>
+ * Adding and removing an edge costs {@code O(log n)}, and so does finding the edge nearest to a
+ * coordinate, as long as few edges are excluded from the search.
+ * </p>
+ */
+final class EdgeIndex {
+
+    /**
+     * The nodes having an edge at each coordinate.
+     */
+    private final TreeMap<Double, List<Node>> edges = new TreeMap<>();
+
+    /**
+     * The number of edges in the index.
+     */
+    private int size;
+
+    /**
+     * Adds an edge.
+     *
+     * @param coordinate the coordinate of the edge
+     * @param node       the node the edge belongs to
+     */
+    void add(double coordinate, Node node) {
+        edges.computeIfAbsent(coordinate, key -> new ArrayList<>(1)).add(node);
+        size++;
+    }
+
+    /**
+     * Removes an edge previously added with the same arguments.
+     *
+     * @param coordinate the coordinate of the edge
+     * @param node       the node the edge belongs to
+     */
+    void remove(double coordinate, Node node) {
+        List<Node> nodes = edges.get(coordinate);
+        if (nodes != null && nodes.remove(node)) {
+            size--;
+            if (nodes.isEmpty()) {
+                edges.remove(coordinate);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of edges in the index.
+     *
+     * @return the number of edges
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Finds the edge nearest to a coordinate, within a tolerance.
+     *
+     * @param value     the coordinate to match
+     * @param tolerance the maximum distance between the coordinate and the edge
+     * @param excluded  nodes whose edges are ignored
+     * @return the coordinate of the nearest edge and one of its nodes, or {@code null} if there is none
+     */
+    Map.Entry<Double, Node> nearest(double value, double tolerance, Set<Node> excluded) {
+        Map.Entry<Double, Node> below = first(edges.headMap(value, true).descendingMap(), value - tolerance, true, excluded);
+        Map.Entry<Double, Node> above = first(edges.tailMap(value, false), value + tolerance, false, excluded);
+        if (below == null) {
+            return above;
+        }
+        if (above == null) {
+            return below;
+        }
+        return value - below.getKey() <= above.getKey() - value ? below : above;
+    }
+
+    /**
+     * Iterates over the edges strictly below a coordinate, nearest first.
+     *
+     * @param value the coordinate
+     * @return an iterator over the coordinates and their nodes
+     */
+    Iterator<Map.Entry<Double, List<Node>>> below(double value) {
+        return edges.headMap(value, false).descendingMap().entrySet().iterator();
+    }
+
+    /**
+     * Iterates over the edges strictly above a coordinate, nearest first.
+     *
+     * @param value the coordinate
+     * @return an iterator over the coordinates and their nodes
+     */
+    Iterator<Map.Entry<Double, List<Node>>> above(double value) {
+        return edges.tailMap(value, false).entrySet().iterator();
+    }
+
+    /**
+     * Returns the first edge of a sorted view, up to a limit, that has a node not excluded.
+     */
+    private static Map.Entry<Double, Node> first(Map<Double, List<Node>> view, double limit, boolean descending,
+                                                 Set<Node> excluded) {
+        for (Map.Entry<Double, List<Node>> entry : view.entrySet()) {
+            double key = entry.getKey();
+            if (descending ? key < limit : key > limit) {
+                return null;
+            }
+            for (Node node : entry.getValue()) {
+                if (!excluded.contains(node)) {
+                    return new AbstractMap.SimpleImmutableEntry<>(key, node);
+                }
+            }
+        }
+        return null;
+    }
+}
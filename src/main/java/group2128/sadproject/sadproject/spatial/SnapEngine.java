@@ -0,0 +1,606 @@
+package group2128.sadproject.sadproject.spatial;
+
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.factory.ShapeDragListener;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.collections.ListChangeListener;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.layout.Pane;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Snaps shapes and pointer positions of a drawing canvas to the grid, to the edges and centers of
+ * the other shapes, and to equal-spacing positions between two neighbors.
+ * <p>
+ * The left, center and right coordinates of every shape are kept in three sorted {@link EdgeIndex}es,
+ * and the top, center and bottom coordinates in three more. Like the {@link CanvasIndex}, the engine
+ * listens to the children of the canvas and to the bounds of every shape, marks changed shapes as
+ * dirty and re-indexes them lazily, so the indexes are maintained incrementally and each snap query
+ * costs {@code O(log n)}, whatever the number of shapes on the canvas.
+ * </p>
+ * <p>
+ * The shapes being moved are taken out of the indexes for the duration of the gesture, so they never
+ * snap to themselves. The engine registers itself as the {@link ShapeDragListener} of the canvas:
+ * dragged shapes are snapped after every move, and the guides explaining the snap are published to
+ * the {@linkplain #setGuideListener(Consumer) guide listener}. There is at most one engine per canvas:
+ * use {@link #of(Pane)} to obtain it.
+ * </p>
+ */
+public final class SnapEngine implements ShapeDragListener {
+
+    /**
+     * The default distance, in canvas units, under which a coordinate snaps to an edge.
+     */
+    public static final double DEFAULT_TOLERANCE = 6;
+
+    /**
+     * The key under which the engine is stored in the canvas properties.
+     */
+    private static final Object PROPERTY_KEY = SnapEngine.class;
+
+    /**
+     * The maximum number of edges examined when looking for the neighbor of a shape, so that the
+     * equal-spacing search stays bounded on crowded canvases.
+     */
+    private static final int MAX_NEIGHBOR_STEPS = 16;
+
+    private static final int MIN = 0;
+    private static final int CENTER = 1;
+    private static final int MAX = 2;
+
+    /**
+     * The canvas whose shapes are indexed.
+     */
+    private final Pane canvas;
+
+    /**
+     * The left, center and right coordinates of the shapes.
+     */
+    private final EdgeIndex[] xEdges = {new EdgeIndex(), new EdgeIndex(), new EdgeIndex()};
+
+    /**
+     * The top, center and bottom coordinates of the shapes.
+     */
+    private final EdgeIndex[] yEdges = {new EdgeIndex(), new EdgeIndex(), new EdgeIndex()};
+
+    /**
+     * The coordinates under which every indexed shape is currently stored, as
+     * {@code {minX, centerX, maxX, minY, centerY, maxY}}.
+     */
+    private final Map<Node, double[]> indexed = new IdentityHashMap<>();
+
+    /**
+     * Shapes whose bounds changed since they were last indexed, possibly more than once.
+     * <p>
+     * A list rather than a set: re-indexing a shape twice is harmless, and emptying a list only costs
+     * its size, whereas emptying a hash set costs the capacity it grew to when the canvas was loaded.
+     * </p>
+     */
+    private final List<Node> dirtyNodes = new ArrayList<>();
+
+    /**
+     * Shapes being moved, which are kept out of the indexes until the end of the gesture.
+     */
+    private final Set<Node> movingNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Shared listener marking the owner of an invalidated {@code boundsInParent} property as dirty.
+     */
+    private final InvalidationListener boundsListener = observable ->
+            dirtyNodes.add((Node) ((ReadOnlyProperty<?>) observable).getBean());
+
+    private boolean enabled = true;
+    private boolean shapeSnapping = true;
+    private double gridSize;
+    private double tolerance = DEFAULT_TOLERANCE;
+    private Consumer<List<double[]>> guideListener;
+
+    /**
+     * Builds the engine for a canvas and starts tracking its children.
+     *
+     * @param canvas the canvas whose shapes are snapped
+     */
+    private SnapEngine(Pane canvas) {
+        this.canvas = canvas;
+        for (Node node : canvas.getChildren()) {
+            track(node);
+        }
+        canvas.getChildren().addListener((ListChangeListener<Node>) change -> {
+            while (change.next()) {
+                for (Node removed : change.getRemoved()) {
+                    if (removed.getParent() != canvas) {
+                        untrack(removed);
+                    }
+                }
+                for (Node added : change.getAddedSubList()) {
+                    track(added);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the engine of the given canvas, creating it and registering it as the
+     * {@link ShapeDragListener} of the canvas on first use.
+     *
+     * @param canvas the drawing canvas
+     * @return the engine attached to the canvas
+     */
+    public static SnapEngine of(Pane canvas) {
+        Object engine = canvas.getProperties().get(PROPERTY_KEY);
+        if (engine instanceof SnapEngine) {
+            return (SnapEngine) engine;
+        }
+        SnapEngine created = new SnapEngine(canvas);
+        canvas.getProperties().put(PROPERTY_KEY, created);
+        ShapeDragListener.install(canvas, created);
+        return created;
+    }
+
+    /**
+     * Returns the engine of the given canvas, if one was created.
+     *
+     * @param canvas the drawing canvas, or any other parent
+     * @return the engine attached to the canvas, or {@code null} if there is none
+     */
+    public static SnapEngine find(Parent canvas) {
+        if (canvas == null) {
+            return null;
+        }
+        Object engine = canvas.getProperties().get(PROPERTY_KEY);
+        return engine instanceof SnapEngine ? (SnapEngine) engine : null;
+    }
+
+    /**
+     * Enables or disables snapping. A disabled engine leaves every position unchanged.
+     *
+     * @param enabled {@code true} to snap
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns whether snapping is enabled.
+     *
+     * @return {@code true} if positions are snapped
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables snapping to the edges and centers of the other shapes and to equal spacings.
+     *
+     * @param shapeSnapping {@code true} to snap to the other shapes
+     */
+    public void setShapeSnapping(boolean shapeSnapping) {
+        this.shapeSnapping = shapeSnapping;
+    }
+
+    /**
+     * Sets the spacing of the grid to snap to.
+     * <p>
+     * The grid is used when no shape is close enough to snap to.
+     * </p>
+     *
+     * @param gridSize the distance between two grid lines, or 0 to disable snapping to the grid
+     */
+    public void setGridSize(double gridSize) {
+        this.gridSize = gridSize;
+    }
+
+    /**
+     * Returns the spacing of the grid to snap to.
+     *
+     * @return the distance between two grid lines, or 0 if snapping to the grid is disabled
+     */
+    public double getGridSize() {
+        return gridSize;
+    }
+
+    /**
+     * Sets the distance under which a coordinate snaps to an edge.
+     *
+     * @param tolerance the tolerance, in canvas units
+     */
+    public void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Sets the listener receiving the guides to display while a shape is dragged.
+     *
+     * @param guideListener receives the guides as {@code {x1, y1, x2, y2}} segments in canvas
+     *                      coordinates; an empty list means the guides must be hidden
+     */
+    public void setGuideListener(Consumer<List<double[]>> guideListener) {
+        this.guideListener = guideListener;
+    }
+
+    /**
+     * Takes the given shapes out of the indexes until {@link #endMove()} is called, so they are not
+     * snapped to themselves.
+     *
+     * @param nodes the shapes about to be moved
+     */
+    public void beginMove(Collection<? extends Node> nodes) {
+        flush();
+        for (Node node : nodes) {
+            unindex(node);
+            movingNodes.add(node);
+        }
+    }
+
+    /**
+     * Puts the moved shapes back into the indexes and hides the guides.
+     */
+    public void endMove() {
+        dirtyNodes.addAll(movingNodes);
+        movingNodes.clear();
+        publish(Collections.emptyList());
+    }
+
+    /**
+     * Computes the offset that snaps a box to the other shapes or to the grid.
+     * <p>
+     * On each axis, the three coordinates of the box (minimum, center, maximum) are matched against
+     * the three coordinates of the other shapes, and the box is also centered between its nearest
+     * neighbors when that makes both gaps equal. The nearest match within the tolerance wins; without
+     * any match, the minimum corner snaps to the grid, if enabled.
+     * </p>
+     *
+     * @param bounds the box to snap, in canvas coordinates
+     * @return the offset to apply and the guides explaining it
+     */
+    public SnapResult snap(Bounds bounds) {
+        if (!enabled) {
+            return new SnapResult(0, 0, Collections.emptyList());
+        }
+        flush();
+        AxisSnap x = snapAxis(xEdges, 0, bounds.getMinX(), bounds.getMaxX(), bounds.getMinY(), bounds.getMaxY());
+        AxisSnap y = snapAxis(yEdges, 3, bounds.getMinY(), bounds.getMaxY(), bounds.getMinX(), bounds.getMaxX());
+
+        List<double[]> guides = new ArrayList<>();
+        x.addGuides(guides, true, bounds.getMinX() + x.delta, bounds.getMaxX() + x.delta,
+                bounds.getMinY() + y.delta, bounds.getMaxY() + y.delta);
+        y.addGuides(guides, false, bounds.getMinY() + y.delta, bounds.getMaxY() + y.delta,
+                bounds.getMinX() + x.delta, bounds.getMaxX() + x.delta);
+        return new SnapResult(x.delta, y.delta, guides);
+    }
+
+    /**
+     * Snaps a point, such as the pointer position while drawing or resizing a shape.
+     * <p>
+     * Each coordinate snaps to the nearest edge or center of another shape within the tolerance,
+     * or else to the grid, if enabled.
+     * </p>
+     *
+     * @param x       the X coordinate of the point, in canvas coordinates
+     * @param y       the Y coordinate of the point, in canvas coordinates
+     * @param exclude a shape whose edges must be ignored (typically the one being resized), or {@code null}
+     * @return the snapped point
+     */
+    public Point2D snapPoint(double x, double y, Node exclude) {
+        if (!enabled) {
+            return new Point2D(x, y);
+        }
+        flush();
+        Set<Node> excluded = movingNodes;
+        if (exclude != null) {
+            excluded = Collections.newSetFromMap(new IdentityHashMap<>());
+            excluded.addAll(movingNodes);
+            excluded.add(exclude);
+        }
+        return new Point2D(snapCoordinate(xEdges, x, excluded), snapCoordinate(yEdges, y, excluded));
+    }
+
+    /**
+     * Returns the number of shapes currently indexed.
+     *
+     * @return the number of indexed shapes, excluding the ones being moved
+     */
+    public int size() {
+        flush();
+        return indexed.size();
+    }
+
+    /**
+     * Snaps the dragged shape after it moved, taking it out of the indexes at the first move of the gesture.
+     *
+     * @param shape the shape being dragged
+     */
+    @Override
+    public void shapeDragged(SelectableShape shape) {
+        if (!enabled) {
+            return;
+        }
+        Node node = (Node) shape;
+        if (!movingNodes.contains(node)) {
+            beginMove(Collections.singletonList(node));
+        }
+        SnapResult result = snap(node.getBoundsInParent());
+        if (result.getDx() != 0 || result.getDy() != 0) {
+            shape.moveBy(result.getDx(), result.getDy());
+        }
+        publish(result.getGuides());
+    }
+
+    /**
+     * Ends the drag gesture of a shape.
+     *
+     * @param shape the shape that was dragged
+     */
+    @Override
+    public void shapeReleased(SelectableShape shape) {
+        if (!movingNodes.isEmpty()) {
+            endMove();
+        }
+    }
+
+    /**
+     * Snaps a single coordinate to the nearest edge of an axis, or to the grid.
+     */
+    private double snapCoordinate(EdgeIndex[] axis, double value, Set<Node> excluded) {
+        if (shapeSnapping) {
+            double best = Double.NaN;
+            for (EdgeIndex edges : axis) {
+                Map.Entry<Double, Node> match = edges.nearest(value, tolerance, excluded);
+                if (match != null && (Double.isNaN(best) || Math.abs(match.getKey() - value) < Math.abs(best - value))) {
+                    best = match.getKey();
+                }
+            }
+            if (!Double.isNaN(best)) {
+                return best;
+            }
+        }
+        return gridSize > 0 ? Math.round(value / gridSize) * gridSize : value;
+    }
+
+    /**
+     * Finds the best snap of a box along one axis.
+     *
+     * @param axis     the three indexes of the axis
+     * @param offset   the position of the coordinates of the axis in the {@link #indexed} arrays
+     * @param min      the minimum coordinate of the box along the axis
+     * @param max      the maximum coordinate of the box along the axis
+     * @param otherMin the minimum coordinate of the box along the other axis
+     * @param otherMax the maximum coordinate of the box along the other axis
+     */
+    private AxisSnap snapAxis(EdgeIndex[] axis, int offset, double min, double max, double otherMin, double otherMax) {
+        AxisSnap best = new AxisSnap();
+        if (shapeSnapping) {
+            double[] values = {min, (min + max) / 2, max};
+            for (double value : values) {
+                for (EdgeIndex edges : axis) {
+                    Map.Entry<Double, Node> match = edges.nearest(value, tolerance, movingNodes);
+                    if (match != null) {
+                        double delta = match.getKey() - value;
+                        if (best.isWorseThan(delta)) {
+                            double[] other = indexed.get(match.getValue());
+                            best.align(delta, match.getKey(), other[3 - offset], other[5 - offset]);
+                        }
+                    }
+                }
+            }
+
+            double before = neighbor(axis[MAX].below(min + tolerance), offset, otherMin, otherMax);
+            double after = neighbor(axis[MIN].above(max - tolerance), offset, otherMin, otherMax);
+            if (!Double.isNaN(before) && !Double.isNaN(after)) {
+                double delta = ((after - max) - (min - before)) / 2;
+                if (Math.abs(delta) <= tolerance && min + delta > before && max + delta < after
+                        && best.isWorseThan(delta)) {
+                    best.space(delta, before, after);
+                }
+            }
+        }
+        if (best.kind == AxisSnap.NONE && gridSize > 0) {
+            best.delta = Math.round(min / gridSize) * gridSize - min;
+        }
+        return best;
+    }
+
+    /**
+     * Returns the coordinate of the nearest edge, among the given ones, belonging to a shape that
+     * overlaps the box along the other axis.
+     *
+     * @return the coordinate of the edge, or {@code NaN} if no neighbor was found
+     */
+    private double neighbor(Iterator<Map.Entry<Double, List<Node>>> edges, int offset, double otherMin, double otherMax) {
+        for (int step = 0; step < MAX_NEIGHBOR_STEPS && edges.hasNext(); step++) {
+            Map.Entry<Double, List<Node>> entry = edges.next();
+            for (Node node : entry.getValue()) {
+                if (movingNodes.contains(node)) {
+                    continue;
+                }
+                double[] coordinates = indexed.get(node);
+                if (coordinates[3 - offset] <= otherMax && coordinates[5 - offset] >= otherMin) {
+                    return entry.getKey();
+                }
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Re-indexes the shapes whose bounds changed.
+     */
+    private void flush() {
+        if (dirtyNodes.isEmpty()) {
+            return;
+        }
+        for (Node node : dirtyNodes) {
+            if (movingNodes.contains(node)) {
+                continue;
+            }
+            unindex(node);
+            if (node.getParent() == canvas && node instanceof SelectableShape) {
+                Bounds b = node.getBoundsInParent();
+                double[] coordinates = {b.getMinX(), b.getCenterX(), b.getMaxX(), b.getMinY(), b.getCenterY(), b.getMaxY()};
+                for (int i = 0; i < 3; i++) {
+                    xEdges[i].add(coordinates[i], node);
+                    yEdges[i].add(coordinates[3 + i], node);
+                }
+                indexed.put(node, coordinates);
+            }
+        }
+        dirtyNodes.clear();
+    }
+
+    /**
+     * Removes a shape from the indexes.
+     */
+    private void unindex(Node node) {
+        double[] coordinates = indexed.remove(node);
+        if (coordinates != null) {
+            for (int i = 0; i < 3; i++) {
+                xEdges[i].remove(coordinates[i], node);
+                yEdges[i].remove(coordinates[3 + i], node);
+            }
+        }
+    }
+
+    /**
+     * Starts listening to the bounds of a shape added to the canvas.
+     */
+    private void track(Node node) {
+        if (node instanceof SelectableShape) {
+            node.boundsInParentProperty().removeListener(boundsListener);
+            node.boundsInParentProperty().addListener(boundsListener);
+            dirtyNodes.add(node);
+        }
+    }
+
+    /**
+     * Stops listening to a shape removed from the canvas and drops it from the indexes.
+     */
+    private void untrack(Node node) {
+        node.boundsInParentProperty().removeListener(boundsListener);
+        movingNodes.remove(node);
+        unindex(node);
+    }
+
+    /**
+     * Sends the guides to the guide listener, if any.
+     */
+    private void publish(List<double[]> guides) {
+        if (guideListener != null) {
+            guideListener.accept(guides);
+        }
+    }
+
+    /**
+     * The result of a snap: the offset to apply to the snapped box, and the guides to display.
+     */
+    public static final class SnapResult {
+
+        private final double dx;
+        private final double dy;
+        private final List<double[]> guides;
+
+        private SnapResult(double dx, double dy, List<double[]> guides) {
+            this.dx = dx;
+            this.dy = dy;
+            this.guides = guides;
+        }
+
+        /**
+         * Returns the horizontal offset to apply.
+         *
+         * @return the horizontal offset, 0 if the box did not snap horizontally
+         */
+        public double getDx() {
+            return dx;
+        }
+
+        /**
+         * Returns the vertical offset to apply.
+         *
+         * @return the vertical offset, 0 if the box did not snap vertically
+         */
+        public double getDy() {
+            return dy;
+        }
+
+        /**
+         * Returns the guides explaining the snap.
+         *
+         * @return the guides as {@code {x1, y1, x2, y2}} segments in canvas coordinates
+         */
+        public List<double[]> getGuides() {
+            return Collections.unmodifiableList(guides);
+        }
+    }
+
+    /**
+     * The best snap found so far along one axis.
+     */
+    private static final class AxisSnap {
+
+        static final int NONE = 0;
+        static final int ALIGN = 1;
+        static final int SPACE = 2;
+
+        int kind = NONE;
+        double delta;
+        /** For an alignment, the matched coordinate; for a spacing, the edge of the previous neighbor. */
+        double first;
+        /** For an alignment, the extent of the matched shape along the other axis; for a spacing, the edge of the next neighbor. */
+        double second;
+        double third;
+
+        boolean isWorseThan(double candidate) {
+            return kind == NONE || Math.abs(candidate) < Math.abs(delta);
+        }
+
+        void align(double delta, double coordinate, double otherMin, double otherMax) {
+            this.kind = ALIGN;
+            this.delta = delta;
+            this.first = coordinate;
+            this.second = otherMin;
+            this.third = otherMax;
+        }
+
+        void space(double delta, double before, double after) {
+            this.kind = SPACE;
+            this.delta = delta;
+            this.first = before;
+            this.second = after;
+        }
+
+        /**
+         * Adds the guide of this snap, given the snapped box.
+         *
+         * @param horizontal {@code true} for the X axis, whose guides are vertical lines
+         */
+        void addGuides(List<double[]> guides, boolean horizontal, double min, double max, double otherMin, double otherMax) {
+            if (kind == ALIGN) {
+                double from = Math.min(otherMin, second);
+                double to = Math.max(otherMax, third);
+                guides.add(horizontal ? new double[]{first, from, first, to} : new double[]{from, first, to, first});
+            } else if (kind == SPACE) {
+                double middle = (otherMin + otherMax) / 2;
+                if (horizontal) {
+                    guides.add(new double[]{first, middle, min, middle});
+                    guides.add(new double[]{max, middle, second, middle});
+                } else {
+                    guides.add(new double[]{middle, first, middle, min});
+                    guides.add(new double[]{middle, max, middle, second});
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package group2128.sadproject.sadproject.spatial;
+
+import javafx.geometry.Bounds;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A uniform-grid spatial index mapping axis-aligned bounding boxes to items.
+ * <p>
+ * The plane is divided into square cells of a fixed size; every item is registered in each cell
+ * its bounding box overlaps. A range query only visits the cells overlapping the query box, so its
+ * cost depends on the number of items in that region rather than on the total number of items.
+ * Items whose box would span more than {@link #MAX_CELLS_PER_ITEM} cells are kept in a separate
+ * list that every query scans, so a few huge items cannot blow up the size of the grid.
+ * </p>
+ * <p>
+ * The four sides of the boxes are also counted in sorted maps, so the {@linkplain #getExtent() extent}
+ * of the whole index is maintained as items move and costs {@code O(log n)} to read.
+ * </p>
+ * <p>
+ * Items are compared by identity. The index is not thread safe and is meant to be used
+ * on the JavaFX Application Thread together with the nodes it indexes.
+ * </p>
+ *
+ * @param <T> the type of the indexed items
+ */
+public class SpatialIndex<T> {
+
+    /**
+     * Items whose bounding box spans more cells than this are not bucketed.
+     */
+    static final int MAX_CELLS_PER_ITEM = 256;
+
+    /**
+     * The default side length of a grid cell.
+     */
+    public static final double DEFAULT_CELL_SIZE = 128.0;
+
+    /**
+     * Side length of a grid cell, in the coordinate space of the indexed bounds.
+     */
+    private final double cellSize;
+
+    /**
+     * Items bucketed by cell key.
+     */
+    private final Map<Long, List<T>> cells = new HashMap<>();
+
+    /**
+     * The bounds each item is currently registered with.
+     */
+    private final Map<T, double[]> itemBounds = new IdentityHashMap<>();
+
+    /**
+     * Items too large to be bucketed, see {@link #MAX_CELLS_PER_ITEM}.
+     */
+    private final Set<T> oversizedItems = new LinkedHashSet<>();
+
+    /**
+     * The number of boxes having their left, top, right and bottom side at each coordinate.
+     */
+    private final TreeMap<Double, Integer> minXs = new TreeMap<>();
+    private final TreeMap<Double, Integer> minYs = new TreeMap<>();
+    private final TreeMap<Double, Integer> maxXs = new TreeMap<>();
+    private final TreeMap<Double, Integer> maxYs = new TreeMap<>();
+
+    /**
+     * Constructs an index with the {@link #DEFAULT_CELL_SIZE default cell size}.
+     */
+    public SpatialIndex() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Constructs an index with the given cell size.
+     *
+     * @param cellSize the side length of a grid cell; must be positive
+     * @throws IllegalArgumentException if {@code cellSize} is not positive
+     */
+    public SpatialIndex(double cellSize) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Inserts an item, or moves it if it is already indexed.
+     *
+     * @param item   the item to index
+     * @param bounds the bounding box of the item
+     */
+    public void put(T item, Bounds bounds) {
+        put(item, bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+    }
+
+    /**
+     * Inserts an item, or moves it if it is already indexed.
+     *
+     * @param item the item to index
+     * @param minX the minimum X coordinate of the item's bounding box
+     * @param minY the minimum Y coordinate of the item's bounding box
+     * @param maxX the maximum X coordinate of the item's bounding box
+     * @param maxY the maximum Y coordinate of the item's bounding box
+     */
+    public void put(T item, double minX, double minY, double maxX, double maxY) {
+        double[] old = itemBounds.get(item);
+        if (old != null) {
+            if (old[0] == minX && old[1] == minY && old[2] == maxX && old[3] == maxY) {
+                return;
+            }
+            unlink(item, old);
+            count(old, -1);
+        }
+        double[] box = {minX, minY, maxX, maxY};
+        itemBounds.put(item, box);
+        link(item, box);
+        count(box, 1);
+    }
+
+    /**
+     * Removes an item from the index.
+     *
+     * @param item the item to remove
+     * @return {@code true} if the item was indexed, {@code false} otherwise
+     */
+    public boolean remove(T item) {
+        double[] old = itemBounds.remove(item);
+        if (old == null) {
+            return false;
+        }
+        unlink(item, old);
+        count(old, -1);
+        return true;
+    }
+
+    /**
+     * Removes every item from the index.
+     */
+    public void clear() {
+        cells.clear();
+        itemBounds.clear();
+        oversizedItems.clear();
+        minXs.clear();
+        minYs.clear();
+        maxXs.clear();
+        maxYs.clear();
+    }
+
+    /**
+     * Checks whether an item is indexed.
+     *
+     * @param item the item to look up
+     * @return {@code true} if the item is indexed
+     */
+    public boolean contains(T item) {
+        return itemBounds.containsKey(item);
+    }
+
+    /**
+     * Returns the number of indexed items.
+     *
+     * @return the item count
+     */
+    public int size() {
+        return itemBounds.size();
+    }
+
+    /**
+     * Returns the bounding box an item is registered with.
+     *
+     * @param item the item to look up
+     * @return a copy of the box as {@code {minX, minY, maxX, maxY}}, or {@code null} if the item is not indexed
+     */
+    public double[] getBounds(T item) {
+        double[] box = itemBounds.get(item);
+        return box == null ? null : box.clone();
+    }
+
+    /**
+     * Returns the union of the bounding boxes of all the items.
+     *
+     * @return the box as {@code {minX, minY, maxX, maxY}}, or {@code null} if the index is empty
+     */
+    public double[] getExtent() {
+        if (itemBounds.isEmpty()) {
+            return null;
+        }
+        return new double[]{minXs.firstKey(), minYs.firstKey(), maxXs.lastKey(), maxYs.lastKey()};
+    }
+
+    /**
+     * Returns the items whose bounding box intersects the given box.
+     * <p>
+     * The result is a candidate set for exact geometric tests: it contains every item whose
+     * registered box overlaps the query box (boundaries included), each one exactly once.
+     * </p>
+     *
+     * @param minX the minimum X coordinate of the query box
+     * @param minY the minimum Y coordinate of the query box
+     * @param maxX the maximum X coordinate of the query box
+     * @param maxY the maximum Y coordinate of the query box
+     * @return the matching items, in no particular order
+     */
+    public List<T> query(double minX, double minY, double maxX, double maxY) {
+        List<T> result = new ArrayList<>();
+        long minCellX = cell(minX);
+        long maxCellX = cell(maxX);
+        long minCellY = cell(minY);
+        long maxCellY = cell(maxY);
+
+        if ((maxCellX - minCellX + 1) * (maxCellY - minCellY + 1) > Math.max(cells.size(), 1)) {
+            for (Map.Entry<T, double[]> entry : itemBounds.entrySet()) {
+                if (overlaps(entry.getValue(), minX, minY, maxX, maxY)) {
+                    result.add(entry.getKey());
+                }
+            }
+            return result;
+        }
+
+        Set<T> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (long cx = minCellX; cx <= maxCellX; cx++) {
+            for (long cy = minCellY; cy <= maxCellY; cy++) {
+                List<T> bucket = cells.get(key(cx, cy));
+                if (bucket == null) {
+                    continue;
+                }
+                for (T item : bucket) {
+                    if (overlaps(itemBounds.get(item), minX, minY, maxX, maxY) && seen.add(item)) {
+                        result.add(item);
+                    }
+                }
+            }
+        }
+        for (T item : oversizedItems) {
+            if (overlaps(itemBounds.get(item), minX, minY, maxX, maxY)) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Registers an item in every cell overlapped by its box, or in the oversized list.
+     */
+    private void link(T item, double[] box) {
+        long minCellX = cell(box[0]);
+        long maxCellX = cell(box[2]);
+        long minCellY = cell(box[1]);
+        long maxCellY = cell(box[3]);
+        if ((maxCellX - minCellX + 1) * (maxCellY - minCellY + 1) > MAX_CELLS_PER_ITEM) {
+            oversizedItems.add(item);
+            return;
+        }
+        for (long cx = minCellX; cx <= maxCellX; cx++) {
+            for (long cy = minCellY; cy <= maxCellY; cy++) {
+                cells.computeIfAbsent(key(cx, cy), k -> new ArrayList<>(4)).add(item);
+            }
+        }
+    }
+
+    /**
+     * Removes an item from every cell it was registered in with the given box.
+     */
+    private void unlink(T item, double[] box) {
+        if (oversizedItems.remove(item)) {
+            return;
+        }
+        long minCellX = cell(box[0]);
+        long maxCellX = cell(box[2]);
+        long minCellY = cell(box[1]);
+        long maxCellY = cell(box[3]);
+        for (long cx = minCellX; cx <= maxCellX; cx++) {
+            for (long cy = minCellY; cy <= maxCellY; cy++) {
+                long key = key(cx, cy);
+                List<T> bucket = cells.get(key);
+                if (bucket == null) {
+                    continue;
+                }
+                for (int i = bucket.size() - 1; i >= 0; i--) {
+                    if (bucket.get(i) == item) {
+                        bucket.set(i, bucket.get(bucket.size() - 1));
+                        bucket.remove(bucket.size() - 1);
+                        break;
+                    }
+                }
+                if (bucket.isEmpty()) {
+                    cells.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds or removes the sides of a box from the sorted side counts.
+     */
+    private void count(double[] box, int delta) {
+        count(minXs, box[0], delta);
+        count(minYs, box[1], delta);
+        count(maxXs, box[2], delta);
+        count(maxYs, box[3], delta);
+    }
+
+    /**
+     * Adds a delta to the count of a coordinate, dropping the coordinate when its count reaches zero.
+     */
+    private static void count(TreeMap<Double, Integer> counts, double coordinate, int delta) {
+        counts.merge(coordinate, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    /**
+     * Checks whether a registered box overlaps the query box.
+     */
+    private static boolean overlaps(double[] box, double minX, double minY, double maxX, double maxY) {
+        return box[0] <= maxX && box[2] >= minX && box[1] <= maxY && box[3] >= minY;
+    }
+
+    /**
+     * Maps a coordinate to the index of the grid cell containing it.
+     */
+    private long cell(double value) {
+        return (long) Math.floor(value / cellSize);
+    }
+
+    /**
+     * Packs a pair of cell indices into a single map key.
+     */
+    private static long key(long cellX, long cellY) {
+        return (cellX << 32) ^ (cellY & 0xffffffffL);
+    }
+}
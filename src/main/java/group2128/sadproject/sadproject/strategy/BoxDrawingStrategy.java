@@ -0,0 +1,118 @@
+package group2128.sadproject.sadproject.strategy;
+
+import javafx.scene.layout.Pane;
+
+/**
+ * Base class of the strategies drawing a shape that fills a box, such as rectangles and ellipses.
+ * <p>
+ * A click draws the shape centered on the click with the size held by the {@link DrawingParams}.
+ * Dragging draws the box from the press to the pointer instead: while the pointer moves, the size
+ * of the box is written to the drawing parameters, so the size fields follow the drag, and the
+ * outline of the shape is shown by a {@link DrawingPreview}. On release, the shape is drawn through
+ * {@link #draw(double, double, DrawingParams)} at the center of the box, with the size the drag left
+ * in the parameters, which the next clicks then reuse.
+ * </p>
+ */
+public abstract class BoxDrawingStrategy implements DragDrawingStrategy {
+
+    /**
+     * The distance, in pixels, the pointer has to move from the press for a drag to draw a box.
+     */
+    public static final double DRAG_THRESHOLD = 3.0;
+
+    /**
+     * The preview of the box being dragged.
+     */
+    private final DrawingPreview preview = new DrawingPreview();
+
+    /**
+     * The corner of the box where the drag started.
+     */
+    private double startX;
+
+    private double startY;
+
+    /**
+     * Whether the pointer was pressed on the canvas and not released yet.
+     */
+    private boolean pressed;
+
+    /**
+     * Whether the pointer moved far enough since the press to draw a box.
+     */
+    private boolean dragging;
+
+    @Override
+    public void begin(double x, double y, DrawingParams drawingParams) {
+        startX = x;
+        startY = y;
+        pressed = true;
+        dragging = false;
+    }
+
+    @Override
+    public boolean extend(double x, double y, DrawingParams drawingParams) {
+        if (!pressed) {
+            return false;
+        }
+        double width = Math.abs(x - startX);
+        double height = Math.abs(y - startY);
+        if (!dragging && Math.max(width, height) < DRAG_THRESHOLD) {
+            return true;
+        }
+        dragging = true;
+        setSize(width, height, drawingParams);
+        showPreview(preview, drawingParams.getDrawingCanvas(), Math.min(x, startX), Math.min(y, startY), width, height);
+        return true;
+    }
+
+    @Override
+    public boolean end(double x, double y, DrawingParams drawingParams) {
+        if (!pressed) {
+            return false;
+        }
+        extend(x, y, drawingParams);
+        pressed = false;
+        if (!dragging) {
+            return false;
+        }
+        dragging = false;
+        preview.hide();
+        draw((startX + x) / 2, (startY + y) / 2, drawingParams);
+        return true;
+    }
+
+    /**
+     * Discards the box being dragged, if any.
+     *
+     * @param drawingParams the {@link DrawingParams} used by the strategy
+     */
+    @Override
+    public void onExit(DrawingParams drawingParams) {
+        preview.hide();
+        pressed = false;
+        dragging = false;
+    }
+
+    /**
+     * Writes the size of the shape filling a box to the drawing parameters, as read by
+     * {@link #draw(double, double, DrawingParams)}.
+     *
+     * @param width         the width of the box
+     * @param height        the height of the box
+     * @param drawingParams the parameters to update
+     */
+    protected abstract void setSize(double width, double height, DrawingParams drawingParams);
+
+    /**
+     * Shows the outline of the shape filling a box.
+     *
+     * @param preview the preview to draw on
+     * @param canvas  the drawing canvas
+     * @param x       the x-coordinate of the top-left corner of the box
+     * @param y       the y-coordinate of the top-left corner of the box
+     * @param width   the width of the box
+     * @param height  the height of the box
+     */
+    protected abstract void showPreview(DrawingPreview preview, Pane canvas, double x, double y, double width, double height);
+}
@@ -0,0 +1,51 @@
+package group2128.sadproject.sadproject.strategy;
+
+/**
+ * A {@link DrawingStrategy} that also draws with a press, drag and release gesture.
+ * <p>
+ * The {@link DrawingContext} forwards the pointer gestures on the canvas to such a strategy instead
+ * of starting a rubber-band selection. A strategy may still draw on a plain click through
+ * {@link #draw(double, double, DrawingParams)} when {@link #end} reports that no gesture took place.
+ * </p>
+ */
+public interface DragDrawingStrategy extends DrawingStrategy {
+
+    /**
+     * Starts a gesture at the given point.
+     *
+     * @param x             the x-coordinate of the press, in canvas coordinates
+     * @param y             the y-coordinate of the press, in canvas coordinates
+     * @param drawingParams the {@link DrawingParams} containing canvas and color information
+     */
+    void begin(double x, double y, DrawingParams drawingParams);
+
+    /**
+     * Follows the pointer during the gesture.
+     *
+     * @param x             the x-coordinate of the pointer, in canvas coordinates
+     * @param y             the y-coordinate of the pointer, in canvas coordinates
+     * @param drawingParams the {@link DrawingParams} containing canvas and color information
+     * @return {@code true} if a gesture is in progress, so the drag must not pan the view
+     */
+    boolean extend(double x, double y, DrawingParams drawingParams);
+
+    /**
+     * Ends the gesture, adding the shape it drew to the canvas.
+     *
+     * @param x             the x-coordinate of the release, in canvas coordinates
+     * @param y             the y-coordinate of the release, in canvas coordinates
+     * @param drawingParams the {@link DrawingParams} containing canvas and color information
+     * @return {@code true} if the gesture drew something, so the click that follows must be ignored
+     */
+    boolean end(double x, double y, DrawingParams drawingParams);
+
+    /**
+     * Tells whether the points of the gesture are snapped by the {@link group2128.sadproject.sadproject.spatial.SnapEngine}
+     * of the canvas, like the clicks of the other strategies.
+     *
+     * @return {@code true} by default
+     */
+    default boolean isSnapped() {
+        return true;
+    }
+}
@@ -1,10 +1,21 @@
 package group2128.sadproject.sadproject.strategy;
 
 import group2128.sadproject.sadproject.factory.SelectableShape;
-import javafx.collections.ObservableList;
+import group2128.sadproject.sadproject.layers.LayerManager;
+import group2128.sadproject.sadproject.spatial.CanvasIndex;
+import group2128.sadproject.sadproject.spatial.SnapEngine;
+import group2128.sadproject.sadproject.view.SelectionOverlay;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableSet;
+import javafx.geometry.Point2D;
 import javafx.scene.Node;
 import javafx.scene.layout.AnchorPane;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
 /**
  * Context class for managing drawing behavior using the Strategy design pattern.
  * <p>
@@ -25,14 +36,36 @@ public class DrawingContext {
     private DrawingParams drawingParams;
 
     /**
-     * The currently selected shape in the drawing area.
+     * The primary selected shape in the drawing area.
      *
-     * <p>This reference is used to track which {@code SelectableShape} is currently selected
-     * by the user. It allows operations such as highlighting, dragging, or showing a context menu
-     * to be performed only on the selected shape. It is {@code null} when no shape is selected.</p>
+     * <p>This reference is used to track which {@code SelectableShape} was most recently selected
+     * by the user. Operations that only make sense on one shape at a time, such as dragging,
+     * resizing or stretching, are performed on this shape. It is {@code null} when no shape is selected.</p>
      */
     private SelectableShape selectedShape;
 
+    /**
+     * All the currently selected shapes, in selection order.
+     *
+     * <p>Shift-clicking a shape adds it to or removes it from this set, and select-all fills it with
+     * every shape on the canvas. Batch commands operate on the whole set at once. The primary
+     * {@link #selectedShape}, when not {@code null}, is always a member of this set.</p>
+     */
+    private final ObservableSet<SelectableShape> selectedShapes = FXCollections.observableSet(new LinkedHashSet<>());
+
+    /**
+     * The overlay that highlights the selected shape, or {@code null} if selection is not drawn.
+     *
+     * <p>Every change of the selection made through this context is mirrored on the overlay,
+     * so the shapes themselves do not need to carry any selection effect.</p>
+     */
+    private SelectionOverlay selectionOverlay;
+
+    /**
+     * The rubber-band selection in progress, or {@code null} if there is none.
+     */
+    private SelectionGesture selectionGesture;
+
     /**
      * Constructs a new {@code DrawingContext} with the specified drawing canvas.
      *
@@ -53,51 +86,265 @@ public class DrawingContext {
     }
 
 
+    /**
+     * Sets the overlay used to draw the selection.
+     *
+     * @param selectionOverlay the {@link SelectionOverlay} stacked above the drawing canvas
+     */
+    public void setSelectionOverlay(SelectionOverlay selectionOverlay) {
+        this.selectionOverlay = selectionOverlay;
+    }
+
+    /**
+     * Returns the overlay used to draw the selection.
+     *
+     * @return the {@link SelectionOverlay}, or {@code null} if none has been set
+     */
+    public SelectionOverlay getSelectionOverlay() {
+        return selectionOverlay;
+    }
+
     /**
      * Sets the currently selected shape.
      * <p>
-     * This method updates the reference to the shape that is currently selected
-     * by the user, typically in response to a selection event on the canvas.
+     * This method replaces the whole selection with the given shape, typically in response
+     * to a selection event on the canvas. The previously selected shapes are deselected and
+     * the selection overlay is updated accordingly.
      * </p>
      *
-     * @param selectedShape the {@link SelectableShape} to set as selected
+     * @param selectedShape the {@link SelectableShape} to set as selected, or {@code null} to clear the selection
      */
     public void setSelectedShape(SelectableShape selectedShape) {
-        this.selectedShape = selectedShape;
+        if (this.selectedShape == selectedShape && selectedShapes.size() <= 1) {
+            return;
+        }
+        clearSelection();
+        if (selectedShape != null) {
+            select(selectedShape);
+        }
+    }
+
+    /**
+     * Replaces the whole selection with the given shapes.
+     * <p>
+     * The shapes are shown on the overlay in one batch and the last one becomes the primary
+     * selected shape. This is typically used after a command that replaces the selected shapes
+     * with new ones, such as ungrouping.
+     * </p>
+     *
+     * @param shapes the shapes to select, in stacking order
+     */
+    public void setSelectedShapes(Collection<? extends SelectableShape> shapes) {
+        clearSelection();
+        selectAll(new ArrayList<>(shapes));
     }
 
     /**
      * Handles a click event at the given coordinates.
      * <p>
-     * This method is intended to delegate the event to the current drawing strategy.
-     * Currently, it is not implemented.
+     * Equivalent to {@link #handleClick(double, double, boolean)} without extending the selection.
      * </p>
      *
      * @param x the x-coordinate of the click
      * @param y the y-coordinate of the click
      */
     public void handleClick(double x, double y) {
-        clearSelectedShape();
-
-        if (this.currentStrategy instanceof IdleStrategy) {
-            ObservableList<Node> children = drawingParams.getDrawingCanvas().getChildren();
-            for (int i = children.size() - 1; i >= 0; i--) {
-                Node node = children.get(i);
-                if (node instanceof SelectableShape) {
-                    SelectableShape shape = (SelectableShape) node;
-                    if(shape.contains(x,y)) {
-                        selectedShape = shape;
-                        drawingParams.setEdgeColor(selectedShape.getEdgeColor());
-                        drawingParams.setFillColor(selectedShape.getFillColor());
-                        shape.setSelected(true);
-                        return;
-                    }
-                }
+        handleClick(x, y, false);
+    }
+
+    /**
+     * Handles a click event at the given coordinates.
+     * <p>
+     * In idle mode the click selects the topmost shape under the cursor. When {@code extend} is
+     * {@code true} (shift-click), the clicked shape is toggled in the current selection instead of
+     * replacing it, and clicking on empty space leaves the selection untouched. In any other mode
+     * the selection is cleared and the click is delegated to the current drawing strategy, after
+     * snapping the point with the {@link SnapEngine} of the canvas, if any.
+     * </p>
+     *
+     * @param x      the x-coordinate of the click
+     * @param y      the y-coordinate of the click
+     * @param extend {@code true} to add or remove the clicked shape from the selection
+     */
+    public void handleClick(double x, double y, boolean extend) {
+        if (!(this.currentStrategy instanceof IdleStrategy)) {
+            clearSelection();
+            Point2D snapped = snap(x, y);
+            currentStrategy.draw(snapped.getX(), snapped.getY(), drawingParams);
+            return;
+        }
+
+        SelectableShape shape = findShapeAt(x, y);
+        if (!extend) {
+            clearSelection();
+        } else if (shape != null && selectedShapes.contains(shape)) {
+            deselect(shape);
+            return;
+        }
+        if (shape != null) {
+            select(shape);
+            drawingParams.setEdgeColor(selectedShape.getEdgeColor());
+            drawingParams.setFillColor(selectedShape.getFillColor());
+        }
+    }
+
+    /**
+     * Handles a move of the pointer over the canvas with no button pressed.
+     * <p>
+     * The snapped position is forwarded to the current drawing strategy, so that the preview of a
+     * shape drawn click by click follows the point the next click would add.
+     * </p>
+     *
+     * @param x the x-coordinate of the pointer, in canvas coordinates
+     * @param y the y-coordinate of the pointer, in canvas coordinates
+     */
+    public void handleMove(double x, double y) {
+        if (currentStrategy == null || currentStrategy instanceof IdleStrategy) {
+            return;
+        }
+        Point2D snapped = snap(x, y);
+        currentStrategy.pointerMoved(snapped.getX(), snapped.getY(), drawingParams);
+    }
+
+    /**
+     * Selects every shape on the drawing canvas.
+     * <p>
+     * All the shapes are added to the selection and shown on the overlay in one batch.
+     * The topmost shape becomes the primary selected shape.
+     * </p>
+     */
+    public void selectAll() {
+        List<SelectableShape> shapes = new ArrayList<>();
+        for (Node node : drawingParams.getDrawingCanvas().getChildren()) {
+            if (node instanceof SelectableShape && LayerManager.isEditable(node)) {
+                shapes.add((SelectableShape) node);
             }
-        } else {
-            currentStrategy.draw(x,y,drawingParams);
         }
+        selectAll(shapes);
+    }
 
+    /**
+     * Handles a mouse press at the given coordinates, starting a rubber-band selection if appropriate.
+     * <p>
+     * A rubber-band selection starts only in idle mode and only when the press lands on empty
+     * canvas; pressing on a shape is left to the click and drag handling. The gesture is a rectangle
+     * (marquee) by default, or a freehand outline when {@code lasso} is {@code true}. With a
+     * {@link DragDrawingStrategy}, the press clears the selection and starts its gesture instead.
+     * </p>
+     *
+     * @param x      the x-coordinate of the press, in canvas coordinates
+     * @param y      the y-coordinate of the press, in canvas coordinates
+     * @param extend {@code true} to add the enclosed shapes to the current selection instead of replacing it
+     * @param lasso  {@code true} for a freehand lasso, {@code false} for a rectangle
+     * @return {@code true} if a rubber-band selection or a drawing gesture was started
+     */
+    public boolean handlePress(double x, double y, boolean extend, boolean lasso) {
+        selectionGesture = null;
+        if (currentStrategy instanceof DragDrawingStrategy) {
+            DragDrawingStrategy strategy = (DragDrawingStrategy) currentStrategy;
+            clearSelection();
+            Point2D point = strategy.isSnapped() ? snap(x, y) : new Point2D(x, y);
+            strategy.begin(point.getX(), point.getY(), drawingParams);
+            return true;
+        }
+        if (!(currentStrategy instanceof IdleStrategy) || findShapeAt(x, y) != null) {
+            return false;
+        }
+        selectionGesture = new SelectionGesture(x, y, lasso, extend);
+        return true;
+    }
+
+    /**
+     * Handles a mouse drag at the given coordinates, extending the rubber-band selection or the
+     * drawing gesture in progress.
+     *
+     * @param x the x-coordinate of the pointer, in canvas coordinates
+     * @param y the y-coordinate of the pointer, in canvas coordinates
+     * @return {@code true} if the drag was consumed by a rubber-band selection or a drawing gesture
+     */
+    public boolean handleDrag(double x, double y) {
+        if (currentStrategy instanceof DragDrawingStrategy) {
+            DragDrawingStrategy strategy = (DragDrawingStrategy) currentStrategy;
+            if (strategy.isSnapped()) {
+                Point2D point = snap(x, y);
+                return strategy.extend(point.getX(), point.getY(), drawingParams);
+            }
+            return strategy.extend(x, y, drawingParams);
+        }
+        if (selectionGesture == null) {
+            return false;
+        }
+        selectionGesture.moveTo(x, y);
+        if (selectionOverlay != null && selectionGesture.hasExtent()) {
+            selectionOverlay.showRubberBand(selectionGesture.getOutline());
+        }
+        return true;
+    }
+
+    /**
+     * Handles a mouse release at the given coordinates, completing the rubber-band selection in progress.
+     * <p>
+     * The candidate shapes come from a range query on the {@link CanvasIndex} of the canvas with the
+     * bounding box of the gesture, and only the candidates entirely enclosed by the rectangle or the
+     * lasso are selected. Unless the gesture extends the selection, the previous selection is replaced.
+     * A gesture too small to be told apart from a click selects nothing and returns {@code false},
+     * leaving the click to {@link #handleClick(double, double, boolean)}. A drawing gesture in
+     * progress is ended instead, adding the shape it drew to the canvas; a gesture that drew
+     * nothing also leaves the click to {@code handleClick}.
+     * </p>
+     *
+     * @param x the x-coordinate of the release, in canvas coordinates
+     * @param y the y-coordinate of the release, in canvas coordinates
+     * @return {@code true} if a rubber-band selection or a drawing gesture was completed
+     */
+    public boolean handleRelease(double x, double y) {
+        if (currentStrategy instanceof DragDrawingStrategy) {
+            DragDrawingStrategy strategy = (DragDrawingStrategy) currentStrategy;
+            Point2D point = strategy.isSnapped() ? snap(x, y) : new Point2D(x, y);
+            return strategy.end(point.getX(), point.getY(), drawingParams);
+        }
+        SelectionGesture gesture = selectionGesture;
+        selectionGesture = null;
+        if (gesture == null) {
+            return false;
+        }
+        gesture.moveTo(x, y);
+        if (selectionOverlay != null) {
+            selectionOverlay.clearRubberBand();
+        }
+        if (!gesture.hasExtent()) {
+            return false;
+        }
+
+        List<SelectableShape> enclosed = gesture.collect(CanvasIndex.of(drawingParams.getDrawingCanvas()));
+        if (!gesture.isExtending()) {
+            clearSelection();
+        }
+        selectAll(enclosed);
+        return true;
+    }
+
+    /**
+     * Clears the whole selection.
+     *
+     * <p>Every selected shape is deselected by setting its selection state to {@code false},
+     * the overlay is emptied and the primary reference is set to {@code null}.
+     * This is typically used to reset the selection when the user clicks outside any shape,
+     * selects a different tool, or the canvas content is replaced (e.g. by an undo).</p>
+     */
+    public void clearSelection() {
+        if (selectedShapes.isEmpty()) {
+            selectedShape = null;
+            return;
+        }
+        for (SelectableShape shape : selectedShapes) {
+            shape.setSelected(false);
+        }
+        selectedShapes.clear();
+        if (selectionOverlay != null) {
+            selectionOverlay.clear();
+        }
+        selectedShape = null;
     }
 
     /**
@@ -116,17 +363,115 @@ public class DrawingContext {
     }
 
     /**
-     * Clears the current shape selection.
+     * Snaps a point with the {@link SnapEngine} of the canvas, if any.
      *
-     * <p>If a shape is currently selected, this method deselects it by setting its
-     * selection state to {@code false}, and then sets the internal reference to {@code null}.
-     * This is typically used to reset the selection when the user clicks outside any shape
-     * or selects a different tool.</p>
+     * @param x the x-coordinate of the point
+     * @param y the y-coordinate of the point
+     * @return the snapped point, or the point itself if the canvas has no snap engine
      */
-    private void clearSelectedShape() {
-        if (selectedShape != null) {
-            selectedShape.setSelected(false);
+    private Point2D snap(double x, double y) {
+        SnapEngine snapEngine = SnapEngine.find(drawingParams.getDrawingCanvas());
+        return snapEngine != null ? snapEngine.snapPoint(x, y, null) : new Point2D(x, y);
+    }
+
+    /**
+     * Returns the topmost editable shape containing the given point.
+     * <p>
+     * The candidates come from a point query on the {@link CanvasIndex} of the canvas, so only the
+     * shapes whose bounds hold the point are tested exactly, in the local coordinates of each shape.
+     * When the canvas has layers, a shape of a higher layer wins over the shapes of lower layers
+     * whatever their positions in the children list. The shapes of hidden, locked and frozen layers
+     * are skipped.
+     * </p>
+     *
+     * @param x the x-coordinate of the point, in canvas coordinates
+     * @param y the y-coordinate of the point, in canvas coordinates
+     * @return the shape under the point, or {@code null} if there is none
+     */
+    public SelectableShape findShapeAt(double x, double y) {
+        CanvasIndex index = CanvasIndex.of(drawingParams.getDrawingCanvas());
+        List<SelectableShape> candidates = index.query(x, y, x, y);
+        index.sortByStackingOrder(candidates);
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            Node node = (Node) candidates.get(i);
+            if (LayerManager.isEditable(node) && node.contains(node.parentToLocal(x, y))) {
+                return candidates.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether no drawing tool is active, so that clicks select shapes.
+     *
+     * @return {@code true} if the current strategy is an {@link IdleStrategy}
+     */
+    public boolean isIdle() {
+        return currentStrategy == null || currentStrategy instanceof IdleStrategy;
+    }
+
+    /**
+     * Adds the given shapes to the selection and shows them on the overlay in one batch.
+     * <p>
+     * Shapes that are already selected are skipped. The last newly selected shape becomes
+     * the primary selected shape.
+     * </p>
+     *
+     * @param shapes the shapes to select, in stacking order
+     */
+    private void selectAll(List<SelectableShape> shapes) {
+        List<SelectableShape> added = new ArrayList<>();
+        for (SelectableShape shape : shapes) {
+            if (!selectedShapes.contains(shape)) {
+                shape.setSelected(true);
+                added.add(shape);
+            }
+        }
+        if (added.isEmpty()) {
+            return;
+        }
+        selectedShapes.addAll(added);
+        selectedShape = added.get(added.size() - 1);
+        if (selectionOverlay != null) {
+            selectionOverlay.showAll(added);
+        }
+    }
+
+    /**
+     * Adds the given shape to the selection, makes it the primary selected shape
+     * and shows it on the selection overlay.
+     *
+     * @param shape the shape to select
+     */
+    private void select(SelectableShape shape) {
+        selectedShape = shape;
+        shape.setSelected(true);
+        selectedShapes.add(shape);
+        if (selectionOverlay != null) {
+            selectionOverlay.show(shape);
+        }
+    }
+
+    /**
+     * Removes the given shape from the selection.
+     * <p>
+     * If it was the primary selected shape, the most recently selected of the remaining
+     * shapes becomes the primary one.
+     * </p>
+     *
+     * @param shape the shape to deselect
+     */
+    private void deselect(SelectableShape shape) {
+        shape.setSelected(false);
+        selectedShapes.remove(shape);
+        if (selectionOverlay != null) {
+            selectionOverlay.hide(shape);
+        }
+        if (selectedShape == shape) {
             selectedShape = null;
+            for (SelectableShape remaining : selectedShapes) {
+                selectedShape = remaining;
+            }
         }
     }
 
@@ -145,11 +490,23 @@ public class DrawingContext {
     }
 
     /**
-     * Returns the currently selected shape in the drawing area.
+     * Returns the primary selected shape in the drawing area.
+     * <p>
+     * When several shapes are selected this is the most recently selected one.
+     * </p>
      *
-     * @return the {@code SelectableShape} that is currently selected, or {@code null} if no shape is selected
+     * @return the primary selected {@code SelectableShape}, or {@code null} if no shape is selected
      */
     public SelectableShape getSelectedShape() {
         return selectedShape;
     }
+
+    /**
+     * Returns all the currently selected shapes, in selection order.
+     *
+     * @return a read-only observable view of the selection, empty if no shape is selected
+     */
+    public ObservableSet<SelectableShape> getSelectedShapes() {
+        return FXCollections.unmodifiableObservableSet(selectedShapes);
+    }
 }
@@ -3,6 +3,7 @@ package group2128.sadproject.sadproject.strategy;
 import group2128.sadproject.sadproject.commands.CommandHistory;
 import javafx.beans.property.*;
 import javafx.scene.layout.AnchorPane;
+import group2128.sadproject.sadproject.factory.ColorCache;
 import javafx.scene.paint.Color;
 
 /**
@@ -205,11 +206,14 @@ public class DrawingParams {
 
     /**
      * Sets the color to be used for the edges of the shapes.
+     * <p>
+     * The shared instance of the color is kept, see {@link ColorCache}.
+     * </p>
      *
      * @param colorEdge the edge color to set
      */
     public void setEdgeColor(Color colorEdge) {
-        this.colorEdge.setValue(colorEdge);
+        this.colorEdge.setValue(ColorCache.intern(colorEdge));
     }
 
     /**
@@ -223,11 +227,14 @@ public class DrawingParams {
 
     /**
      * Sets the color to fill the shapes.
+     * <p>
+     * The shared instance of the color is kept, see {@link ColorCache}.
+     * </p>
      *
      * @param colorFill the fill color to set
      */
     public void setFillColor(Color colorFill) {
-        this.colorFill.setValue(colorFill);
+        this.colorFill.setValue(ColorCache.intern(colorFill));
     }
 
     /**
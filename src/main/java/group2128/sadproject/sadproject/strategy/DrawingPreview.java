@@ -0,0 +1,234 @@
+package group2128.sadproject.sadproject.strategy;
+
+import group2128.sadproject.sadproject.layers.LayerManager;
+import javafx.collections.ObservableList;
+import javafx.scene.Parent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.ArcTo;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.HLineTo;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
+import javafx.scene.shape.VLineTo;
+
+/**
+ * The preview of a shape being drawn, rendered by a single {@link Path} on the canvas.
+ * <p>
+ * For the shapes drawn click by click, such as polygons and segments, the path holds a square marker
+ * on every vertex, the edges between them and a rubber-band edge from the last vertex to the pointer.
+ * A click appends the elements of its vertex, and a pointer move only changes the end of the
+ * rubber-band edge. For the shapes drawn by dragging a box, the path holds the outline of the
+ * rectangle or the ellipse, whose elements are moved in place as the pointer moves.
+ * </p>
+ * <p>
+ * The path is added to the canvas once, when the preview is first shown, and removed when it is hidden.
+ * Its view order keeps it in front of the shapes of every layer.
+ * </p>
+ */
+public final class DrawingPreview {
+
+    /**
+     * The size of the vertex markers, in pixels.
+     */
+    public static final double MARKER_SIZE = 6.0;
+
+    /**
+     * What the path currently shows.
+     */
+    private enum Mode { NONE, VERTICES, RECTANGLE, ELLIPSE }
+
+    /**
+     * The path drawing the preview.
+     */
+    private final Path path = new Path();
+
+    /**
+     * The start of the rubber-band edge, at the last vertex.
+     */
+    private final MoveTo bandStart = new MoveTo();
+
+    /**
+     * The end of the rubber-band edge, at the pointer.
+     */
+    private final LineTo bandEnd = new LineTo();
+
+    /**
+     * The corner where the outline of a box starts.
+     */
+    private final MoveTo boxStart = new MoveTo();
+
+    private final HLineTo rectangleTop = new HLineTo();
+
+    private final VLineTo rectangleRight = new VLineTo();
+
+    private final HLineTo rectangleBottom = new HLineTo();
+
+    private final ArcTo ellipseLower = new ArcTo();
+
+    private final ArcTo ellipseUpper = new ArcTo();
+
+    /**
+     * What the path currently shows.
+     */
+    private Mode mode = Mode.NONE;
+
+    /**
+     * The number of vertices shown.
+     */
+    private int vertexCount;
+
+    /**
+     * Constructs an empty preview.
+     */
+    public DrawingPreview() {
+        path.setMouseTransparent(true);
+        path.setViewOrder(LayerManager.PREVIEW_VIEW_ORDER);
+        path.setStroke(Color.BLACK);
+        path.setStrokeWidth(1);
+        ellipseLower.setSweepFlag(true);
+        ellipseUpper.setSweepFlag(true);
+    }
+
+    /**
+     * Returns the node drawing the preview.
+     *
+     * @return the path
+     */
+    public Path getNode() {
+        return path;
+    }
+
+    /**
+     * Returns the number of vertices shown.
+     *
+     * @return the number of vertices added since the preview was last hidden
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Adds a vertex, and the edge joining it to the previous one.
+     *
+     * @param canvas the canvas to show the preview on
+     * @param x      the x-coordinate of the vertex
+     * @param y      the y-coordinate of the vertex
+     */
+    public void addVertex(Pane canvas, double x, double y) {
+        ObservableList<PathElement> elements = path.getElements();
+        if (mode != Mode.VERTICES) {
+            elements.setAll(bandStart, bandEnd);
+            path.setFill(Color.BLACK);
+            mode = Mode.VERTICES;
+            vertexCount = 0;
+        } else {
+            elements.add(new MoveTo(bandStart.getX(), bandStart.getY()));
+            elements.add(new LineTo(x, y));
+        }
+        double half = MARKER_SIZE / 2;
+        elements.add(new MoveTo(x - half, y - half));
+        elements.add(new HLineTo(x + half));
+        elements.add(new VLineTo(y + half));
+        elements.add(new HLineTo(x - half));
+        elements.add(new ClosePath());
+        vertexCount++;
+        bandStart.setX(x);
+        bandStart.setY(y);
+        bandEnd.setX(x);
+        bandEnd.setY(y);
+        show(canvas);
+    }
+
+    /**
+     * Moves the end of the rubber-band edge to the pointer. Does nothing if no vertex is shown.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
+     */
+    public void moveCursor(double x, double y) {
+        if (mode == Mode.VERTICES) {
+            bandEnd.setX(x);
+            bandEnd.setY(y);
+        }
+    }
+
+    /**
+     * Shows the outline of a rectangle.
+     *
+     * @param canvas the canvas to show the preview on
+     * @param x      the x-coordinate of the top-left corner
+     * @param y      the y-coordinate of the top-left corner
+     * @param width  the width of the rectangle
+     * @param height the height of the rectangle
+     */
+    public void showRectangle(Pane canvas, double x, double y, double width, double height) {
+        if (mode != Mode.RECTANGLE) {
+            path.getElements().setAll(boxStart, rectangleTop, rectangleRight, rectangleBottom, new ClosePath());
+            path.setFill(null);
+            mode = Mode.RECTANGLE;
+        }
+        boxStart.setX(x);
+        boxStart.setY(y);
+        rectangleTop.setX(x + width);
+        rectangleRight.setY(y + height);
+        rectangleBottom.setX(x);
+        show(canvas);
+    }
+
+    /**
+     * Shows the outline of an ellipse.
+     *
+     * @param canvas  the canvas to show the preview on
+     * @param centerX the x-coordinate of the center
+     * @param centerY the y-coordinate of the center
+     * @param radiusX the horizontal radius
+     * @param radiusY the vertical radius
+     */
+    public void showEllipse(Pane canvas, double centerX, double centerY, double radiusX, double radiusY) {
+        if (mode != Mode.ELLIPSE) {
+            path.getElements().setAll(boxStart, ellipseLower, ellipseUpper, new ClosePath());
+            path.setFill(null);
+            mode = Mode.ELLIPSE;
+        }
+        boxStart.setX(centerX - radiusX);
+        boxStart.setY(centerY);
+        setArc(ellipseLower, centerX + radiusX, centerY, radiusX, radiusY);
+        setArc(ellipseUpper, centerX - radiusX, centerY, radiusX, radiusY);
+        show(canvas);
+    }
+
+    /**
+     * Removes the preview from the canvas and forgets what it showed.
+     */
+    public void hide() {
+        Parent parent = path.getParent();
+        if (parent instanceof Pane) {
+            ((Pane) parent).getChildren().remove(path);
+        }
+        path.getElements().clear();
+        mode = Mode.NONE;
+        vertexCount = 0;
+    }
+
+    /**
+     * Places a half of the outline of an ellipse.
+     */
+    private static void setArc(ArcTo arc, double x, double y, double radiusX, double radiusY) {
+        arc.setX(x);
+        arc.setY(y);
+        arc.setRadiusX(radiusX);
+        arc.setRadiusY(radiusY);
+    }
+
+    /**
+     * Adds the path to the canvas unless it is already there.
+     */
+    private void show(Pane canvas) {
+        if (path.getParent() != canvas) {
+            canvas.getChildren().add(path);
+        }
+    }
+}
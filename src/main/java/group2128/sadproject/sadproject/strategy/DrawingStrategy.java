@@ -27,4 +27,18 @@ public interface DrawingStrategy {
      * @param drawingParams  the {@link DrawingParams} used by the strategy
      */
     void onExit(DrawingParams drawingParams);
+
+    /**
+     * Called when the pointer moves over the canvas without a button pressed.
+     * <p>
+     * Strategies drawing a shape over several clicks use it to show the edge that the next click
+     * would add. The default implementation does nothing.
+     * </p>
+     *
+     * @param x             the x-coordinate of the pointer, in canvas coordinates
+     * @param y             the y-coordinate of the pointer, in canvas coordinates
+     * @param drawingParams the {@link DrawingParams} used by the strategy
+     */
+    default void pointerMoved(double x, double y, DrawingParams drawingParams) {
+    }
 }
@@ -4,15 +4,18 @@ import group2128.sadproject.sadproject.commands.InteractionCommand;
 import group2128.sadproject.sadproject.factory.EllipseFactory;
 import group2128.sadproject.sadproject.factory.EllipseShape;
 import group2128.sadproject.sadproject.factory.ShapeFactory;
+import group2128.sadproject.sadproject.factory.ShapeGestureController;
+import javafx.scene.layout.Pane;
 
 /**
  * A concrete implementation of the {@link DrawingStrategy} interface for drawing ellipses.
  * <p>
  * This strategy is responsible for handling user input to create and render ellipses
- * on the canvas using the parameters defined in {@link DrawingParams}.
+ * on the canvas using the parameters defined in {@link DrawingParams}. An ellipse can also be
+ * dragged across its bounding box, see {@link BoxDrawingStrategy}.
  * </p>
  */
-public class EllipseDrawingStrategy implements DrawingStrategy {
+public class EllipseDrawingStrategy extends BoxDrawingStrategy {
 
     /**
      * Handles the drawing logic for an ellipse based on the given coordinates and drawing parameters.
@@ -41,32 +44,28 @@ public class EllipseDrawingStrategy implements DrawingStrategy {
                 drawingParams.getRotationValueProperty().get()
         );
 
-        ellipse.interactionPropertyProperty().addListener((observable, oldValue, newValue) -> {
-            if (newValue) {
-                InteractionCommand intCommand = new InteractionCommand();
-                intCommand.setDrawingCanvas(drawingParams.getDrawingCanvas());
-                intCommand.saveBackup();
-                intCommand.execute();
-                drawingParams.getCommandHistory().push(intCommand);
-                ellipse.setInteractionProperty(false);
-            }
-        });
+        InteractionCommand.track(drawingParams.getDrawingCanvas(), drawingParams.getCommandHistory());
 
-        ellipse.setInteractionProperty(true);
+        ShapeGestureController.of(drawingParams.getDrawingCanvas()).setInteraction(ellipse, true);
 
         drawingParams.getDrawingCanvas().getChildren().add(ellipse);
     }
 
     /**
-     * Called when the strategy is exited or replaced by another.
-     * <p>
-     * This method can be used to clear temporary shapes or finalize the ellipse drawing.
-     * </p>
+     * Sets the radii of the ellipses to fill the box.
      *
-     * @param drawingParams  the parameters containing canvas and styling information
+     * @param width         the width of the box
+     * @param height        the height of the box
+     * @param drawingParams the parameters to update
      */
     @Override
-    public void onExit(DrawingParams drawingParams) {
-        // TODO: Implement cleanup logic when exiting the strategy
+    protected void setSize(double width, double height, DrawingParams drawingParams) {
+        drawingParams.setWidthValueProperty(width / 2);
+        drawingParams.setHeightValueProperty(height / 2);
+    }
+
+    @Override
+    protected void showPreview(DrawingPreview preview, Pane canvas, double x, double y, double width, double height) {
+        preview.showEllipse(canvas, x + width / 2, y + height / 2, width / 2, height / 2);
     }
 }
@@ -0,0 +1,225 @@
+package group2128.sadproject.sadproject.strategy;
+
+import group2128.sadproject.sadproject.commands.InteractionCommand;
+import group2128.sadproject.sadproject.factory.PolygonFactory;
+import group2128.sadproject.sadproject.factory.PolygonShape;
+import group2128.sadproject.sadproject.factory.PolylineShape;
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.factory.ShapeGestureController;
+import group2128.sadproject.sadproject.layers.LayerManager;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.shape.Line;
+import javafx.scene.shape.Polyline;
+
+/**
+ * A {@link DrawingStrategy} drawing freehand strokes with the pointer.
+ * <p>
+ * A stroke is drawn between a press and a release: the samples of the drag are reduced on the fly by a
+ * {@link StrokeDecimator}, so a long stroke keeps only its significant vertices. While the stroke is
+ * drawn, its settled vertices are shown by one growing {@link Polyline}, and the segment still being
+ * extended by the pointer by a single {@link Line}; a sample that only moves the end of the current
+ * segment updates the line without allocating anything.
+ * </p>
+ * <p>
+ * When the stroke ends close to where it started it becomes a {@link PolygonShape}, otherwise an
+ * unfilled {@link PolylineShape}. Clicks without a drag draw nothing.
+ * </p>
+ */
+public class FreehandDrawingStrategy implements DragDrawingStrategy {
+
+    /**
+     * The largest distance, in pixels, between the ends of a stroke for it to be closed into a polygon.
+     */
+    public static final double CLOSE_DISTANCE = 10.0;
+
+    /**
+     * The stroke width of the preview, matching the shapes drawn.
+     */
+    private static final double STROKE_WIDTH = 3.0;
+
+    /**
+     * The vertices of the stroke in progress.
+     */
+    private final StrokeDecimator decimator = new StrokeDecimator();
+
+    /**
+     * The settled vertices of the stroke in progress, that is all of them but the last one.
+     */
+    private final Polyline polyline = new Polyline();
+
+    /**
+     * The segment of the stroke in progress that still follows the pointer.
+     */
+    private final Line tail = new Line();
+
+    /**
+     * The preview of the stroke in progress, shown on the canvas while the stroke is drawn.
+     */
+    private final Group preview = new Group(polyline, tail);
+
+    /**
+     * Whether a stroke is in progress.
+     */
+    private boolean drawing;
+
+    /**
+     * Constructs the strategy.
+     */
+    public FreehandDrawingStrategy() {
+        preview.setMouseTransparent(true);
+        preview.setViewOrder(LayerManager.PREVIEW_VIEW_ORDER);
+        polyline.setStrokeWidth(STROKE_WIDTH);
+        tail.setStrokeWidth(STROKE_WIDTH);
+    }
+
+    /**
+     * Does nothing: freehand strokes are drawn by dragging, see {@link #begin}.
+     *
+     * @param x             the x-coordinate of the click
+     * @param y             the y-coordinate of the click
+     * @param drawingParams the {@link DrawingParams} containing canvas and color information
+     */
+    @Override
+    public void draw(double x, double y, DrawingParams drawingParams) {
+    }
+
+    /**
+     * Starts a stroke at the given point.
+     *
+     * @param x             the x-coordinate of the press, in canvas coordinates
+     * @param y             the y-coordinate of the press, in canvas coordinates
+     * @param drawingParams the {@link DrawingParams} containing canvas and color information
+     */
+    @Override
+    public void begin(double x, double y, DrawingParams drawingParams) {
+        clear(drawingParams);
+        drawing = true;
+        decimator.add(x, y);
+        polyline.getPoints().setAll(x, y);
+        polyline.setStroke(drawingParams.getEdgeColor());
+        tail.setStroke(drawingParams.getEdgeColor());
+        setTail(x, y, x, y);
+        drawingParams.getDrawingCanvas().getChildren().add(preview);
+    }
+
+    /**
+     * Extends the stroke in progress with a pointer sample.
+     *
+     * @param x             the x-coordinate of the pointer, in canvas coordinates
+     * @param y             the y-coordinate of the pointer, in canvas coordinates
+     * @param drawingParams the {@link DrawingParams} containing canvas and color information
+     * @return {@code true} if a stroke is in progress
+     */
+    @Override
+    public boolean extend(double x, double y, DrawingParams drawingParams) {
+        if (!drawing) {
+            return false;
+        }
+        int settled = decimator.getVertexCount() - 1;
+        if (decimator.add(x, y)) {
+            int last = decimator.getVertexCount() - 1;
+            if (last > settled && settled > 0) {
+                //THE PREVIOUS END OF THE TAIL IS NOW A SETTLED VERTEX
+                polyline.getPoints().addAll(decimator.getX(settled), decimator.getY(settled));
+            }
+            setTail(decimator.getX(last - 1), decimator.getY(last - 1), decimator.getX(last), decimator.getY(last));
+        }
+        return true;
+    }
+
+    /**
+     * Ends the stroke in progress and adds the resulting shape to the canvas.
+     * <p>
+     * Strokes with fewer than two vertices are discarded. A stroke whose ends are within
+     * {@link #CLOSE_DISTANCE} of each other and with at least three other vertices becomes a polygon.
+     * </p>
+     *
+     * @param x             the x-coordinate of the release, in canvas coordinates
+     * @param y             the y-coordinate of the release, in canvas coordinates
+     * @param drawingParams the {@link DrawingParams} containing canvas and color information
+     * @return {@code true} if a stroke was in progress, even if it was too short to draw a shape
+     */
+    @Override
+    public boolean end(double x, double y, DrawingParams drawingParams) {
+        if (!drawing) {
+            return false;
+        }
+        extend(x, y, drawingParams);
+        int count = decimator.getVertexCount();
+        SelectableShape shape = null;
+        if (count >= 2) {
+            double dx = decimator.getX(count - 1) - decimator.getX(0);
+            double dy = decimator.getY(count - 1) - decimator.getY(0);
+            if (count >= 4 && dx * dx + dy * dy <= CLOSE_DISTANCE * CLOSE_DISTANCE) {
+                PolygonShape polygon = (PolygonShape) new PolygonFactory().createShape(
+                        drawingParams.getFillColor(), drawingParams.getEdgeColor(), 0, 0, 0, 0, 0,
+                        drawingParams.getScaleX(), drawingParams.getScaleY(),
+                        drawingParams.getRotationValueProperty().get());
+                //THE POLYGON CLOSES ITSELF, SO THE LAST VERTEX WOULD DUPLICATE THE FIRST ONE
+                polygon.setPoints(decimator.toList(count - 1));
+                shape = polygon;
+            } else {
+                shape = new PolylineShape(drawingParams.getEdgeColor(), decimator.toList(count),
+                        drawingParams.getScaleX(), drawingParams.getScaleY(),
+                        drawingParams.getRotationValueProperty().get());
+            }
+        }
+        clear(drawingParams);
+        if (shape != null) {
+            InteractionCommand.track(drawingParams.getDrawingCanvas(), drawingParams.getCommandHistory());
+            ShapeGestureController.of(drawingParams.getDrawingCanvas()).setInteraction(shape, true);
+            drawingParams.getDrawingCanvas().getChildren().add((Node) shape);
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether a stroke is in progress.
+     *
+     * @return {@code true} between {@link #begin} and {@link #end}
+     */
+    public boolean isDrawing() {
+        return drawing;
+    }
+
+    /**
+     * Freehand strokes follow the pointer exactly and are not snapped.
+     *
+     * @return {@code false}
+     */
+    @Override
+    public boolean isSnapped() {
+        return false;
+    }
+
+    /**
+     * Discards the stroke in progress, if any.
+     *
+     * @param drawingParams the {@link DrawingParams} used by the strategy
+     */
+    @Override
+    public void onExit(DrawingParams drawingParams) {
+        clear(drawingParams);
+    }
+
+    /**
+     * Removes the preview from the canvas and forgets the stroke in progress.
+     */
+    private void clear(DrawingParams drawingParams) {
+        drawingParams.getDrawingCanvas().getChildren().remove(preview);
+        polyline.getPoints().clear();
+        decimator.clear();
+        drawing = false;
+    }
+
+    /**
+     * Places the segment that follows the pointer.
+     */
+    private void setTail(double startX, double startY, double endX, double endY) {
+        tail.setStartX(startX);
+        tail.setStartY(startY);
+        tail.setEndX(endX);
+        tail.setEndY(endY);
+    }
+}
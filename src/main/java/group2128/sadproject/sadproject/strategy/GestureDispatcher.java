@@ -0,0 +1,262 @@
+package group2128.sadproject.sadproject.strategy;
+
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.factory.ShapeGestureController;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.layout.Pane;
+
+/**
+ * Routes the pointer gestures of a drawing canvas to the tool they are meant for.
+ * <p>
+ * The canvas is the only node with mouse handlers: the shapes carry none, so a drawing of many shapes
+ * does not pay for a set of handlers per shape, and the tools never overwrite each other's handlers.
+ * The handlers of the canvas pass every press, drag, move and release to the dispatcher, in canvas
+ * coordinates, and the dispatcher decides who handles the gesture:
+ * </p>
+ * <ul>
+ *     <li>while a drawing tool is active, the {@link DrawingContext} draws;</li>
+ *     <li>in {@link Mode#MOVE}, the default, pressing a selected shape drags it with the
+ *     {@link ShapeGestureController}, and pressing anywhere else is left to the {@code DrawingContext},
+ *     which may start a rubber-band selection;</li>
+ *     <li>in {@link Mode#RESIZE}, {@link Mode#STRETCH} and {@link Mode#VERTEX_EDIT}, the next gesture
+ *     that starts on the shape of the armed {@link ShapeTool} goes to the tool. In vertex-edit mode the
+ *     tool is asked even when the pointer misses the shape, since a vertex can be picked from slightly
+ *     outside it.</li>
+ * </ul>
+ * <p>
+ * A tool is armed for a single gesture: the dispatcher returns to {@link Mode#MOVE} when the gesture
+ * ends, or at once when the next press does not go to the tool. The shape under the pointer is found
+ * with {@link DrawingContext#findShapeAt(double, double)}, which queries the spatial index of the canvas.
+ * There is at most one dispatcher per canvas: use {@link #of(DrawingContext)} to obtain it.
+ * </p>
+ */
+public final class GestureDispatcher {
+
+    /**
+     * What a gesture starting on the armed shape does.
+     */
+    public enum Mode {
+        /** Dragging a selected shape moves it. */
+        MOVE,
+        /** Dragging the shape resizes it, keeping its proportions. */
+        RESIZE,
+        /** Dragging the shape stretches it. */
+        STRETCH,
+        /** Dragging a vertex of the shape moves the vertex. */
+        VERTEX_EDIT
+    }
+
+    /**
+     * Who handles the gesture in progress; {@code NONE} leaves it to the drawing context.
+     */
+    private enum Gesture { NONE, MOVE, TOOL }
+
+    /**
+     * The key under which the dispatcher is stored in the canvas properties.
+     */
+    private static final Object PROPERTY_KEY = GestureDispatcher.class;
+
+    /**
+     * The drawing context of the canvas.
+     */
+    private final DrawingContext context;
+
+    /**
+     * The drag state of the shapes of the canvas.
+     */
+    private final ShapeGestureController gestures;
+
+    /**
+     * The current mode.
+     */
+    private Mode mode = Mode.MOVE;
+
+    /**
+     * The armed tool, or {@code null} in move mode.
+     */
+    private ShapeTool tool;
+
+    /**
+     * Who handles the gesture in progress.
+     */
+    private Gesture gesture = Gesture.NONE;
+
+    /**
+     * Constructs the dispatcher of the canvas of a drawing context.
+     *
+     * @param context the drawing context
+     */
+    private GestureDispatcher(DrawingContext context) {
+        this.context = context;
+        this.gestures = ShapeGestureController.of(context.getDrawingParams().getDrawingCanvas());
+    }
+
+    /**
+     * Returns the dispatcher of the canvas of a drawing context, creating it on first use.
+     *
+     * @param context the drawing context
+     * @return the dispatcher attached to the canvas of the context
+     */
+    public static GestureDispatcher of(DrawingContext context) {
+        Pane canvas = context.getDrawingParams().getDrawingCanvas();
+        Object dispatcher = canvas.getProperties().get(PROPERTY_KEY);
+        if (dispatcher instanceof GestureDispatcher) {
+            return (GestureDispatcher) dispatcher;
+        }
+        GestureDispatcher created = new GestureDispatcher(context);
+        canvas.getProperties().put(PROPERTY_KEY, created);
+        return created;
+    }
+
+    /**
+     * Returns the dispatcher of the given canvas, if one was created.
+     *
+     * @param canvas the drawing canvas
+     * @return the dispatcher, or {@code null} if the canvas has none
+     */
+    public static GestureDispatcher find(Parent canvas) {
+        if (canvas == null) {
+            return null;
+        }
+        Object dispatcher = canvas.getProperties().get(PROPERTY_KEY);
+        return dispatcher instanceof GestureDispatcher ? (GestureDispatcher) dispatcher : null;
+    }
+
+    /**
+     * Returns the current mode.
+     *
+     * @return the mode, {@link Mode#MOVE} when no tool is armed
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns the armed tool.
+     *
+     * @return the tool, or {@code null} in move mode
+     */
+    public ShapeTool getTool() {
+        return tool;
+    }
+
+    /**
+     * Arms a tool for the next gesture, replacing the tool armed before.
+     *
+     * @param mode the mode of the tool; {@link Mode#MOVE} disarms the current tool
+     * @param tool the tool
+     */
+    public void arm(Mode mode, ShapeTool tool) {
+        if (mode == Mode.MOVE || tool == null) {
+            disarm();
+            return;
+        }
+        this.mode = mode;
+        this.tool = tool;
+    }
+
+    /**
+     * Disarms the current tool, returning to {@link Mode#MOVE}.
+     */
+    public void disarm() {
+        mode = Mode.MOVE;
+        tool = null;
+    }
+
+    /**
+     * Handles a press of the primary button.
+     *
+     * @param x      the x-coordinate of the pointer, in canvas coordinates
+     * @param y      the y-coordinate of the pointer, in canvas coordinates
+     * @param extend whether the press extends the selection (shift)
+     * @param lasso  whether a rubber-band selection should be a lasso (alt)
+     * @return {@code true} if a gesture was started, in which case the event should be consumed
+     */
+    public boolean press(double x, double y, boolean extend, boolean lasso) {
+        gesture = Gesture.NONE;
+        if (!context.isIdle()) {
+            disarm();
+            return context.handlePress(x, y, extend, lasso);
+        }
+        SelectableShape target = context.findShapeAt(x, y);
+        if (tool != null) {
+            if (accepts(target) && tool.press(x, y, extend)) {
+                gesture = Gesture.TOOL;
+                return true;
+            }
+            disarm();
+        }
+        if (target != null && gestures.beginDrag(target, x, y)) {
+            gesture = Gesture.MOVE;
+            return true;
+        }
+        return context.handlePress(x, y, extend, lasso);
+    }
+
+    /**
+     * Handles a move of the pointer with the button held.
+     *
+     * @param x the x-coordinate of the pointer, in canvas coordinates
+     * @param y the y-coordinate of the pointer, in canvas coordinates
+     * @return {@code true} if the drag was handled, in which case the event should be consumed
+     */
+    public boolean drag(double x, double y) {
+        switch (gesture) {
+            case TOOL:
+                tool.drag(x, y);
+                return true;
+            case MOVE:
+                gestures.dragTo(x, y);
+                return true;
+            default:
+                return context.handleDrag(x, y);
+        }
+    }
+
+    /**
+     * Handles a move of the pointer with no button held.
+     *
+     * @param x the x-coordinate of the pointer, in canvas coordinates
+     * @param y the y-coordinate of the pointer, in canvas coordinates
+     */
+    public void move(double x, double y) {
+        context.handleMove(x, y);
+    }
+
+    /**
+     * Handles the release of the button, ending the gesture in progress.
+     *
+     * @param x the x-coordinate of the pointer, in canvas coordinates
+     * @param y the y-coordinate of the pointer, in canvas coordinates
+     * @return {@code true} if a gesture was completed, so the click that follows the release should be
+     *         ignored; {@code false} if the press and release make a plain click
+     */
+    public boolean release(double x, double y) {
+        Gesture ended = gesture;
+        gesture = Gesture.NONE;
+        switch (ended) {
+            case TOOL:
+                ShapeTool finished = tool;
+                disarm();
+                finished.release(x, y);
+                return true;
+            case MOVE:
+                return gestures.endDrag();
+            default:
+                return context.handleRelease(x, y);
+        }
+    }
+
+    /**
+     * Returns whether the armed tool takes a gesture starting on the given shape.
+     */
+    private boolean accepts(SelectableShape target) {
+        SelectableShape shape = tool.getShape();
+        if (shape == null || !shape.isSelected()
+                || ((Node) shape).getParent() != context.getDrawingParams().getDrawingCanvas()) {
+            return false;
+        }
+        return target == shape || mode == Mode.VERTEX_EDIT;
+    }
+}
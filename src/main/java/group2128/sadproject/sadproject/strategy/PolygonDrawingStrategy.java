@@ -2,9 +2,6 @@ package group2128.sadproject.sadproject.strategy;
 
 import group2128.sadproject.sadproject.commands.InteractionCommand;
 import group2128.sadproject.sadproject.factory.*;
-import javafx.scene.Group;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Circle;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,9 +13,9 @@ public class PolygonDrawingStrategy implements DrawingStrategy {
     private final List<Double> points = new ArrayList<>();
 
     /**
-     * A JavaFX {@link Group} used to manage and group the graphical elements drawn on the canvas.
+     * The preview of the vertices placed so far and of the edge to the pointer.
      */
-    private final Group group = new Group();
+    private final DrawingPreview preview = new DrawingPreview();
 
 
     /**
@@ -33,12 +30,19 @@ public class PolygonDrawingStrategy implements DrawingStrategy {
 
         points.add(x);
         points.add(y);
-        Circle c = new Circle(x, y, 3, Color.BLACK);
-        group.getChildren().add(c);
-
-        drawingParams.getDrawingCanvas().getChildren().remove(group);
-        drawingParams.getDrawingCanvas().getChildren().add(group);
+        preview.addVertex(drawingParams.getDrawingCanvas(), x, y);
+    }
 
+    /**
+     * Moves the rubber-band edge of the preview to the pointer.
+     *
+     * @param x             the x-coordinate of the pointer
+     * @param y             the y-coordinate of the pointer
+     * @param drawingParams the {@link DrawingParams} used by the strategy
+     */
+    @Override
+    public void pointerMoved(double x, double y, DrawingParams drawingParams) {
+        preview.moveCursor(x, y);
     }
 
     /**
@@ -51,8 +55,7 @@ public class PolygonDrawingStrategy implements DrawingStrategy {
      */
     @Override
     public void onExit(DrawingParams drawingParams) {
-        drawingParams.getDrawingCanvas().getChildren().remove(group);
-        group.getChildren().clear();
+        preview.hide();
         points.clear();
     }
 
@@ -79,22 +82,11 @@ public class PolygonDrawingStrategy implements DrawingStrategy {
             PolygonShape polygon = (PolygonShape) factory.createShape(drawingParams.getFillColor(), drawingParams.getEdgeColor(),0,0,0,0,0, drawingParams.getScaleX(), drawingParams.getScaleY(), drawingParams.getRotationValueProperty().get());
             polygon.setPoints(points);
 
-            polygon.interactionPropertyProperty().addListener((observable, oldValue, newValue) -> {
-                if (newValue) {
-                    InteractionCommand intCommand = new InteractionCommand();
-                    intCommand.setDrawingCanvas(drawingParams.getDrawingCanvas());
-                    intCommand.saveBackup();
-                    intCommand.execute();
-                    drawingParams.getCommandHistory().push(intCommand);
-                    polygon.setInteractionProperty(false);
-                }
-            });
-            polygon.setInteractionProperty(true);
+            InteractionCommand.track(drawingParams.getDrawingCanvas(), drawingParams.getCommandHistory());
+            ShapeGestureController.of(drawingParams.getDrawingCanvas()).setInteraction(polygon, true);
 
+            preview.hide();
             drawingParams.getDrawingCanvas().getChildren().add(polygon);
-            drawingParams.getDrawingCanvas().getChildren().remove(group);
-
-            group.getChildren().clear();
             points.clear();
         }
     }
@@ -4,15 +4,18 @@ import group2128.sadproject.sadproject.commands.InteractionCommand;
 import group2128.sadproject.sadproject.factory.RectangleFactory;
 import group2128.sadproject.sadproject.factory.RectangleShape;
 import group2128.sadproject.sadproject.factory.ShapeFactory;
+import group2128.sadproject.sadproject.factory.ShapeGestureController;
+import javafx.scene.layout.Pane;
 
 /**
  * A concrete implementation of the {@link DrawingStrategy} interface for drawing rectangles.
  * <p>
  * This strategy handles user interactions to define and render rectangles on the canvas,
  * using the drawing parameters such as edge color, fill color, and the drawing surface.
+ * A rectangle can also be dragged from corner to corner, see {@link BoxDrawingStrategy}.
  * </p>
  */
-public class RectangleDrawingStrategy implements DrawingStrategy {
+public class RectangleDrawingStrategy extends BoxDrawingStrategy {
 
     /**
      * Handles the drawing logic for a rectangle based on the given coordinates and drawing parameters.
@@ -31,31 +34,26 @@ public class RectangleDrawingStrategy implements DrawingStrategy {
         ShapeFactory shapeFactory = new RectangleFactory();
         RectangleShape rectangleShape = (RectangleShape) shapeFactory.createShape(drawingParams.getFillColor(), drawingParams.getEdgeColor(),x,y, drawingParams.getWidthValuePropertyProperty().get(), drawingParams.getHeightValuePropertyProperty().get(), 0, drawingParams.getScaleX(), drawingParams.getScaleY(), drawingParams.getRotationValueProperty().get());
 
-        rectangleShape.interactionPropertyProperty().addListener((observable, oldValue, newValue) -> {
-            if (newValue) {
-                InteractionCommand intCommand = new InteractionCommand();
-                intCommand.setDrawingCanvas(drawingParams.getDrawingCanvas());
-                intCommand.saveBackup();
-                intCommand.execute();
-                drawingParams.getCommandHistory().push(intCommand);
-                rectangleShape.setInteractionProperty(false);
-            }
-        });
-        rectangleShape.setInteractionProperty(true);
+        InteractionCommand.track(drawingParams.getDrawingCanvas(), drawingParams.getCommandHistory());
+        ShapeGestureController.of(drawingParams.getDrawingCanvas()).setInteraction(rectangleShape, true);
         drawingParams.getDrawingCanvas().getChildren().add(rectangleShape);
     }
 
     /**
-     * Called when the strategy is exited or replaced by another.
-     * <p>
-     * This method can be used to clean up any temporary shapes or reset state variables
-     * related to rectangle drawing.
-     * </p>
+     * Sets the width and height of the rectangles to the size of the box.
      *
-     * @param drawingParams the parameters containing canvas and styling information
+     * @param width         the width of the box
+     * @param height        the height of the box
+     * @param drawingParams the parameters to update
      */
     @Override
-    public void onExit(DrawingParams drawingParams) {
-        // TODO: Implement cleanup logic when exiting the strategy
+    protected void setSize(double width, double height, DrawingParams drawingParams) {
+        drawingParams.setWidthValueProperty(width);
+        drawingParams.setHeightValueProperty(height);
+    }
+
+    @Override
+    protected void showPreview(DrawingPreview preview, Pane canvas, double x, double y, double width, double height) {
+        preview.showRectangle(canvas, x, y, width, height);
     }
-}
\ No newline at end of file
+}
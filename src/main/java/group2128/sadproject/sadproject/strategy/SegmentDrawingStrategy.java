@@ -4,10 +4,7 @@ import group2128.sadproject.sadproject.commands.InteractionCommand;
 import group2128.sadproject.sadproject.factory.SegmentFactory;
 import group2128.sadproject.sadproject.factory.SegmentShape;
 import group2128.sadproject.sadproject.factory.ShapeFactory;
-import javafx.scene.Group;
-import javafx.scene.layout.AnchorPane;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Circle;
+import group2128.sadproject.sadproject.factory.ShapeGestureController;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,7 +12,7 @@ import java.util.List;
  * A concrete implementation of the {@link DrawingStrategy} interface for drawing segments (lines).
  * <p>
  * This strategy collects points on user interaction and draws line segments on the canvas.
- * It also manages a {@link Group} for grouping and manipulating the drawn shapes.
+ * After the first click, a {@link DrawingPreview} shows the segment that the second click would draw.
  * </p>
  */
 public class SegmentDrawingStrategy implements DrawingStrategy {
@@ -26,9 +23,9 @@ public class SegmentDrawingStrategy implements DrawingStrategy {
     private final List<Double> points = new ArrayList<>();
 
     /**
-     * A JavaFX {@link Group} used to manage and group the graphical elements drawn on the canvas.
+     * The preview of the first point and of the segment to the pointer.
      */
-    private final Group group = new Group();
+    private final DrawingPreview preview = new DrawingPreview();
 
 
     /**
@@ -46,13 +43,10 @@ public class SegmentDrawingStrategy implements DrawingStrategy {
 
         points.add(x);
         points.add(y);
-        Circle c = new Circle(x,y,3 , Color.BLACK);
-        group.getChildren().add(c);
 
-        drawingParams.getDrawingCanvas().getChildren().remove(group);
-        drawingParams.getDrawingCanvas().getChildren().add(group);
-
-        if(points.size() == 4) {
+        if(points.size() == 2) {
+            preview.addVertex(drawingParams.getDrawingCanvas(), x, y);
+        } else if(points.size() == 4) {
             ShapeFactory factory = new SegmentFactory();
             SegmentShape segment = (SegmentShape) factory.createShape(
                     drawingParams.getFillColor(),
@@ -66,22 +60,11 @@ public class SegmentDrawingStrategy implements DrawingStrategy {
                     drawingParams.getScaleY(),
                     drawingParams.getRotationValueProperty().get());
 
-            segment.interactionPropertyProperty().addListener((observable, oldValue, newValue) -> {
-                if (newValue) {
-                    InteractionCommand intCommand = new InteractionCommand();
-                    intCommand.setDrawingCanvas(drawingParams.getDrawingCanvas());
-                    intCommand.saveBackup();
-                    intCommand.execute();
-                    drawingParams.getCommandHistory().push(intCommand);
-                    segment.setInteractionProperty(false);
-                }
-            });
-            segment.setInteractionProperty(true);
+            InteractionCommand.track(drawingParams.getDrawingCanvas(), drawingParams.getCommandHistory());
+            ShapeGestureController.of(drawingParams.getDrawingCanvas()).setInteraction(segment, true);
 
+            preview.hide();
             drawingParams.getDrawingCanvas().getChildren().add(segment);
-            drawingParams.getDrawingCanvas().getChildren().remove(group);
-
-            group.getChildren().clear();
             points.clear();
         }
     }
@@ -96,17 +79,19 @@ public class SegmentDrawingStrategy implements DrawingStrategy {
      */
     @Override
     public void onExit(DrawingParams drawingParams) {
-        clear(drawingParams.getDrawingCanvas());
+        preview.hide();
+        points.clear();
     }
 
     /**
-     * Clears temporary elements or drawings from the canvas.
+     * Moves the end of the previewed segment to the pointer.
      *
-     * @param canvas the {@link AnchorPane} from which elements should be removed
+     * @param x             the x-coordinate of the pointer
+     * @param y             the y-coordinate of the pointer
+     * @param drawingParams the {@link DrawingParams} used by the strategy
      */
-    private void clear(AnchorPane canvas) {
-        canvas.getChildren().remove(group);
-        group.getChildren().clear();
-        points.clear();
+    @Override
+    public void pointerMoved(double x, double y, DrawingParams drawingParams) {
+        preview.moveCursor(x, y);
     }
 }
@@ -0,0 +1,253 @@
+package group2128.sadproject.sadproject.strategy;
+
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.layers.LayerManager;
+import group2128.sadproject.sadproject.spatial.CanvasIndex;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.shape.Ellipse;
+import javafx.scene.shape.Line;
+import javafx.scene.shape.Polygon;
+import javafx.scene.transform.Transform;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A rubber-band selection in progress: either a rectangle (marquee) or a freehand lasso.
+ * <p>
+ * The gesture accumulates the pointer positions, in canvas coordinates, between the mouse press
+ * and the mouse release. When it completes, the shapes it encloses are found in two steps:
+ * a range query on the {@link CanvasIndex} with the bounding box of the gesture produces a small
+ * candidate set, and an exact enclosure test then runs on those candidates only.
+ * </p>
+ * <p>
+ * A shape is enclosed when all the points of its outline, mapped to canvas coordinates, lie inside
+ * the rectangle or the lasso polygon. The outline is exact for polygons, segments and rectangles
+ * (including rotated and flipped ones) and is approximated by a regular polygon for ellipses.
+ * </p>
+ */
+class SelectionGesture {
+
+    /**
+     * Minimum distance, in canvas units, between two consecutive lasso points.
+     * Closer points are dropped, which keeps the lasso polygon small for long strokes.
+     */
+    private static final double LASSO_MIN_STEP = 2.0;
+
+    /**
+     * Minimum size, in canvas units, a gesture must reach to count as a rubber band rather than a click.
+     */
+    private static final double MIN_EXTENT = 3.0;
+
+    /**
+     * Number of points used to approximate the outline of an ellipse.
+     */
+    private static final int ELLIPSE_SAMPLES = 16;
+
+    /**
+     * Whether this gesture is a freehand lasso ({@code true}) or a rectangle ({@code false}).
+     */
+    private final boolean lasso;
+
+    /**
+     * Whether the result extends the current selection instead of replacing it.
+     */
+    private final boolean extend;
+
+    /**
+     * Flat list of the gesture points, as {@code x0, y0, x1, y1, ...}.
+     * For a rectangle, only the first (anchor) and the last (current) points are kept.
+     */
+    private double[] points = new double[64];
+
+    /**
+     * Number of coordinates (twice the number of points) used in {@link #points}.
+     */
+    private int length;
+
+    /**
+     * Starts a gesture at the given position.
+     *
+     * @param x      the X coordinate of the press, in canvas coordinates
+     * @param y      the Y coordinate of the press, in canvas coordinates
+     * @param lasso  {@code true} for a freehand lasso, {@code false} for a rectangle
+     * @param extend {@code true} to add the result to the current selection
+     */
+    SelectionGesture(double x, double y, boolean lasso, boolean extend) {
+        this.lasso = lasso;
+        this.extend = extend;
+        points[0] = x;
+        points[1] = y;
+        points[2] = x;
+        points[3] = y;
+        length = lasso ? 2 : 4;
+    }
+
+    /**
+     * Moves the gesture to the given pointer position.
+     *
+     * @param x the X coordinate of the pointer, in canvas coordinates
+     * @param y the Y coordinate of the pointer, in canvas coordinates
+     */
+    void moveTo(double x, double y) {
+        if (!lasso) {
+            points[2] = x;
+            points[3] = y;
+            return;
+        }
+        if (Math.hypot(x - points[length - 2], y - points[length - 1]) < LASSO_MIN_STEP) {
+            return;
+        }
+        if (length + 2 > points.length) {
+            points = Arrays.copyOf(points, points.length * 2);
+        }
+        points[length++] = x;
+        points[length++] = y;
+    }
+
+    /**
+     * Returns whether the result should extend the current selection.
+     *
+     * @return {@code true} if the gesture was started with the extend modifier
+     */
+    boolean isExtending() {
+        return extend;
+    }
+
+    /**
+     * Returns whether the gesture has become large enough to be a rubber band rather than a click.
+     *
+     * @return {@code true} if the gesture covers a meaningful area
+     */
+    boolean hasExtent() {
+        double[] box = getBoundingBox();
+        return box[2] - box[0] >= MIN_EXTENT || box[3] - box[1] >= MIN_EXTENT;
+    }
+
+    /**
+     * Returns the outline of the gesture as a closed polygon, in canvas coordinates.
+     *
+     * @return a flat {@code x, y} array holding the vertices of the outline
+     */
+    double[] getOutline() {
+        if (lasso) {
+            return Arrays.copyOf(points, length);
+        }
+        double[] box = getBoundingBox();
+        return new double[]{box[0], box[1], box[2], box[1], box[2], box[3], box[0], box[3]};
+    }
+
+    /**
+     * Finds the shapes of the canvas enclosed by this gesture.
+     * <p>
+     * The result follows the stacking order of the canvas, bottom to top, so the last shape
+     * is the topmost one.
+     * </p>
+     *
+     * @param canvasIndex the index of the canvas to search
+     * @return the enclosed shapes
+     */
+    List<SelectableShape> collect(CanvasIndex canvasIndex) {
+        double[] box = getBoundingBox();
+        List<SelectableShape> candidates = canvasIndex.query(box[0], box[1], box[2], box[3]);
+        double[] polygon = lasso ? Arrays.copyOf(points, length) : null;
+
+        List<SelectableShape> result = new ArrayList<>();
+        for (SelectableShape candidate : candidates) {
+            if (LayerManager.isEditable((Node) candidate) && encloses(box, polygon, outlineOf((Node) candidate))) {
+                result.add(candidate);
+            }
+        }
+        canvasIndex.sortByStackingOrder(result);
+        return result;
+    }
+
+    /**
+     * Returns the bounding box of the gesture as {@code {minX, minY, maxX, maxY}}.
+     */
+    private double[] getBoundingBox() {
+        double[] box = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = 0; i < length; i += 2) {
+            box[0] = Math.min(box[0], points[i]);
+            box[1] = Math.min(box[1], points[i + 1]);
+            box[2] = Math.max(box[2], points[i]);
+            box[3] = Math.max(box[3], points[i + 1]);
+        }
+        return box;
+    }
+
+    /**
+     * Checks whether every outline point lies inside the rectangle (or the lasso polygon, when given).
+     */
+    private static boolean encloses(double[] box, double[] polygon, double[] outline) {
+        if (outline.length == 0) {
+            return false;
+        }
+        for (int i = 0; i < outline.length; i += 2) {
+            double x = outline[i];
+            double y = outline[i + 1];
+            if (x < box[0] || x > box[2] || y < box[1] || y > box[3]) {
+                return false;
+            }
+            if (polygon != null && !insidePolygon(polygon, x, y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Even-odd point-in-polygon test.
+     */
+    static boolean insidePolygon(double[] polygon, double x, double y) {
+        boolean inside = false;
+        int n = polygon.length / 2;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            double xi = polygon[2 * i];
+            double yi = polygon[2 * i + 1];
+            double xj = polygon[2 * j];
+            double yj = polygon[2 * j + 1];
+            if ((yi > y) != (yj > y) && x < (xj - xi) * (y - yi) / (yj - yi) + xi) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Returns the outline points of a shape, mapped to the coordinates of its parent (the canvas).
+     */
+    static double[] outlineOf(Node node) {
+        double[] local;
+        if (node instanceof Polygon) {
+            List<Double> coordinates = ((Polygon) node).getPoints();
+            local = new double[coordinates.size() & ~1];
+            for (int i = 0; i < local.length; i++) {
+                local[i] = coordinates.get(i);
+            }
+        } else if (node instanceof Line) {
+            Line line = (Line) node;
+            local = new double[]{line.getStartX(), line.getStartY(), line.getEndX(), line.getEndY()};
+        } else if (node instanceof Ellipse) {
+            Ellipse ellipse = (Ellipse) node;
+            local = new double[ELLIPSE_SAMPLES * 2];
+            for (int i = 0; i < ELLIPSE_SAMPLES; i++) {
+                double angle = 2 * Math.PI * i / ELLIPSE_SAMPLES;
+                local[2 * i] = ellipse.getCenterX() + ellipse.getRadiusX() * Math.cos(angle);
+                local[2 * i + 1] = ellipse.getCenterY() + ellipse.getRadiusY() * Math.sin(angle);
+            }
+        } else {
+            Bounds bounds = node.getLayoutBounds();
+            local = new double[]{bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMinY(),
+                    bounds.getMaxX(), bounds.getMaxY(), bounds.getMinX(), bounds.getMaxY()};
+        }
+        Transform transform = node.getLocalToParentTransform();
+        if (!transform.isIdentity()) {
+            transform.transform2DPoints(local, 0, local, 0, local.length / 2);
+        }
+        return local;
+    }
+}
@@ -0,0 +1,47 @@
+package group2128.sadproject.sadproject.strategy;
+
+import group2128.sadproject.sadproject.factory.SelectableShape;
+
+/**
+ * A tool that edits one shape through a pointer gesture, such as a resize or a vertex edit.
+ * <p>
+ * Tools do not listen to the mouse themselves: a tool is armed on the {@link GestureDispatcher} of the
+ * canvas, which routes the next gesture to it when the gesture starts on the shape of the tool. All the
+ * coordinates are in the coordinate space of the canvas.
+ * </p>
+ */
+public interface ShapeTool {
+
+    /**
+     * Returns the shape edited by this tool.
+     *
+     * @return the shape
+     */
+    SelectableShape getShape();
+
+    /**
+     * Starts the gesture.
+     *
+     * @param x     the x-coordinate of the pointer
+     * @param y     the y-coordinate of the pointer
+     * @param shift whether the shift key is held
+     * @return {@code true} if the tool takes the gesture, {@code false} to leave it to the other handlers
+     */
+    boolean press(double x, double y, boolean shift);
+
+    /**
+     * Continues the gesture as the pointer moves with the button held.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
+     */
+    void drag(double x, double y);
+
+    /**
+     * Ends the gesture.
+     *
+     * @param x the x-coordinate of the pointer
+     * @param y the y-coordinate of the pointer
+     */
+    void release(double x, double y);
+}
@@ -0,0 +1,178 @@
+package group2128.sadproject.sadproject.strategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reduces the pointer samples of a freehand stroke to its significant vertices as they arrive.
+ * <p>
+ * A sample closer than the minimum distance to the last vertex is dropped. A sample that continues
+ * the current segment, that is whose move from the last vertex is within the maximum angle of the
+ * direction the segment had when it was started, moves the end of the segment instead of adding a
+ * vertex. Any other sample, such as a corner, starts a new segment. Since the reference direction of a
+ * segment does not follow the samples, a slow curve still produces a vertex every time it turns by
+ * the maximum angle.
+ * </p>
+ * <p>
+ * The vertices are kept in a growable primitive array, so adding a sample never allocates unless the
+ * array has to grow.
+ * </p>
+ */
+public final class StrokeDecimator {
+
+    /**
+     * The default minimum distance between two vertices, in pixels.
+     */
+    public static final double DEFAULT_MIN_DISTANCE = 2.0;
+
+    /**
+     * The default maximum angle, in degrees, between the move to a sample and the segment it extends.
+     */
+    public static final double DEFAULT_MAX_ANGLE = 10.0;
+
+    /**
+     * The square of the minimum distance between two vertices.
+     */
+    private final double minDistanceSquared;
+
+    /**
+     * The cosine of the maximum angle between the move to a sample and the segment it extends.
+     */
+    private final double minCosine;
+
+    /**
+     * The coordinates of the vertices, {@code x0, y0, x1, y1, ...}.
+     */
+    private double[] coords = new double[64];
+
+    /**
+     * The number of used coordinates in {@link #coords}.
+     */
+    private int size;
+
+    /**
+     * The unit direction of the last segment when it was started.
+     */
+    private double directionX;
+
+    private double directionY;
+
+    /**
+     * Constructs a decimator with the default thresholds.
+     */
+    public StrokeDecimator() {
+        this(DEFAULT_MIN_DISTANCE, DEFAULT_MAX_ANGLE);
+    }
+
+    /**
+     * Constructs a decimator.
+     *
+     * @param minDistance the minimum distance between two vertices
+     * @param maxAngle    the maximum angle, in degrees, between the move to a sample and the segment it extends;
+     *                    zero only merges exactly aligned samples
+     */
+    public StrokeDecimator(double minDistance, double maxAngle) {
+        this.minDistanceSquared = minDistance * minDistance;
+        this.minCosine = Math.cos(Math.toRadians(maxAngle));
+    }
+
+    /**
+     * Adds a pointer sample.
+     *
+     * @param x the x-coordinate of the sample
+     * @param y the y-coordinate of the sample
+     * @return {@code true} if the sample added a vertex or moved the last one, {@code false} if it was dropped
+     */
+    public boolean add(double x, double y) {
+        if (size == 0) {
+            append(x, y);
+            return true;
+        }
+        double dx = x - coords[size - 2];
+        double dy = y - coords[size - 1];
+        if (dx * dx + dy * dy < minDistanceSquared) {
+            return false;
+        }
+        double length = Math.sqrt(dx * dx + dy * dy);
+        if (size >= 4 && (dx * directionX + dy * directionY) >= minCosine * length) {
+            coords[size - 2] = x;
+            coords[size - 1] = y;
+            return true;
+        }
+        directionX = dx / length;
+        directionY = dy / length;
+        append(x, y);
+        return true;
+    }
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return the number of vertices kept so far
+     */
+    public int getVertexCount() {
+        return size / 2;
+    }
+
+    /**
+     * Returns the x-coordinate of a vertex.
+     *
+     * @param index the index of the vertex
+     * @return its x-coordinate
+     */
+    public double getX(int index) {
+        return coords[2 * index];
+    }
+
+    /**
+     * Returns the y-coordinate of a vertex.
+     *
+     * @param index the index of the vertex
+     * @return its y-coordinate
+     */
+    public double getY(int index) {
+        return coords[2 * index + 1];
+    }
+
+    /**
+     * Returns the coordinates of the vertices.
+     *
+     * @return a copy of the coordinates, {@code x0, y0, x1, y1, ...}
+     */
+    public double[] toArray() {
+        return Arrays.copyOf(coords, size);
+    }
+
+    /**
+     * Returns the coordinates of the first vertices, as expected by the JavaFX shapes.
+     *
+     * @param count the number of vertices
+     * @return a new list of the coordinates, {@code x0, y0, x1, y1, ...}
+     */
+    public List<Double> toList(int count) {
+        List<Double> list = new ArrayList<>(2 * count);
+        for (int i = 0; i < 2 * count; i++) {
+            list.add(coords[i]);
+        }
+        return list;
+    }
+
+    /**
+     * Forgets all the vertices, keeping the array for the next stroke.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Appends a vertex, growing the array if needed.
+     */
+    private void append(double x, double y) {
+        if (size + 2 > coords.length) {
+            coords = Arrays.copyOf(coords, coords.length * 2);
+        }
+        coords[size++] = x;
+        coords[size++] = y;
+    }
+}
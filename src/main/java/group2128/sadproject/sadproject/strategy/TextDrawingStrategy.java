@@ -17,18 +17,9 @@ public class TextDrawingStrategy implements DrawingStrategy {
         TextShape textShape = (TextShape) shapeFactory.createShape(drawingParams.getFillColor(), drawingParams.getEdgeColor(),x,y, drawingParams.getScaleX(), drawingParams.getScaleY(), drawingParams.getFontSize(), drawingParams.getScaleX(), drawingParams.getScaleY(), drawingParams.getRotationValueProperty().get());
         textShape.setText(drawingParams.getText());
 
-        textShape.interactionPropertyProperty().addListener((observable, oldValue, newValue) -> {
-            if (newValue) {
-                InteractionCommand intCommand = new InteractionCommand();
-                intCommand.setDrawingCanvas(drawingParams.getDrawingCanvas());
-                intCommand.saveBackup();
-                intCommand.execute();
-                drawingParams.getCommandHistory().push(intCommand);
-                textShape.setInteractionProperty(false);
-            }
-        });
+        InteractionCommand.track(drawingParams.getDrawingCanvas(), drawingParams.getCommandHistory());
 
-        textShape.setInteractionProperty(true);
+        ShapeGestureController.of(drawingParams.getDrawingCanvas()).setInteraction(textShape, true);
         drawingParams.getDrawingCanvas().getChildren().add(textShape);
     }
 
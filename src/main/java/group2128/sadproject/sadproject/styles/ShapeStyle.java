@@ -0,0 +1,159 @@
+package group2128.sadproject.sadproject.styles;
+
+import group2128.sadproject.sadproject.factory.ColorCache;
+import javafx.scene.paint.Color;
+import org.json.JSONObject;
+
+/**
+ * A named style shared by the shapes that reference it: fill color, stroke color and stroke width.
+ * <p>
+ * A style is a flyweight managed by the {@link StyleManager} of a canvas. The shapes only record the
+ * identifier of their style, and the style is written once in the saved file instead of being
+ * repeated on every shape. Its values are changed through {@link StyleManager#update}, which restyles
+ * every dependent shape in one pass.
+ * </p>
+ */
+public final class ShapeStyle {
+
+    /**
+     * The default stroke width of the shapes, in pixels, kept by the shapes drawn without a style.
+     */
+    public static final double DEFAULT_STROKE_WIDTH = 3.0;
+
+    /**
+     * The identifier of the style, unique within its manager and stored with the shapes.
+     */
+    private final String id;
+
+    /**
+     * The name of the style, shown to the user.
+     */
+    private String name;
+
+    /**
+     * The fill color of the shapes.
+     */
+    private Color fill;
+
+    /**
+     * The stroke color of the shapes.
+     */
+    private Color stroke;
+
+    /**
+     * The stroke width of the shapes.
+     */
+    private double strokeWidth;
+
+    /**
+     * Constructs a style.
+     *
+     * @param id          the identifier of the style
+     * @param name        the name of the style
+     * @param fill        the fill color
+     * @param stroke      the stroke color
+     * @param strokeWidth the stroke width
+     */
+    ShapeStyle(String id, String name, Color fill, Color stroke, double strokeWidth) {
+        this.id = id;
+        this.name = name;
+        set(fill, stroke, strokeWidth);
+    }
+
+    /**
+     * Returns the identifier of the style.
+     *
+     * @return the identifier, stored with the shapes using the style
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the name of the style.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Renames the style.
+     *
+     * @param name the new name
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the fill color of the shapes using the style.
+     *
+     * @return the fill color
+     */
+    public Color getFill() {
+        return fill;
+    }
+
+    /**
+     * Returns the stroke color of the shapes using the style.
+     *
+     * @return the stroke color
+     */
+    public Color getStroke() {
+        return stroke;
+    }
+
+    /**
+     * Returns the stroke width of the shapes using the style.
+     *
+     * @return the stroke width
+     */
+    public double getStrokeWidth() {
+        return strokeWidth;
+    }
+
+    /**
+     * Sets the values of the style, without restyling the shapes.
+     */
+    void set(Color fill, Color stroke, double strokeWidth) {
+        this.fill = ColorCache.intern(fill);
+        this.stroke = ColorCache.intern(stroke);
+        this.strokeWidth = strokeWidth;
+    }
+
+    /**
+     * Serializes the style.
+     *
+     * @return the identifier, name and values of the style
+     */
+    public JSONObject toJson() {
+        JSONObject obj = new JSONObject();
+        obj.put("id", id);
+        obj.put("name", name);
+        obj.put("fill", fill.toString());
+        obj.put("stroke", stroke.toString());
+        obj.put("strokeWidth", strokeWidth);
+        return obj;
+    }
+
+    /**
+     * Builds a style from its serialized form.
+     *
+     * @param obj the object produced by {@link #toJson()}
+     * @return the style
+     */
+    static ShapeStyle fromJson(JSONObject obj) {
+        String id = obj.getString("id");
+        return new ShapeStyle(id, obj.optString("name", id),
+                ColorCache.parse(obj.optString("fill", "BLACK")),
+                ColorCache.parse(obj.optString("stroke", "BLACK")),
+                obj.optDouble("strokeWidth", DEFAULT_STROKE_WIDTH));
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,395 @@
+package group2128.sadproject.sadproject.styles;
+
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Text;
+import org.json.JSONArray;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The shared styles of a drawing canvas, and the shapes that use them.
+ * <p>
+ * A shape uses a style by recording its identifier in its node properties; the manager keeps, for
+ * every style, the set of the shapes of the canvas that depend on it. Changing a style with
+ * {@link #update(ShapeStyle, Color, Color, double)} restyles exactly these shapes in one pass, and
+ * shapes added to the canvas with a style identifier, such as the shapes restored by undo, take the
+ * current values of their style.
+ * </p>
+ * <p>
+ * Only the direct children of the canvas use styles; a style applied to a group restyles its members
+ * through the group. There is at most one manager per canvas: use {@link #of(Pane)} to obtain it.
+ * </p>
+ */
+public final class StyleManager {
+
+    /**
+     * The key under which the manager is stored in the canvas properties.
+     */
+    private static final Object PROPERTY_KEY = StyleManager.class;
+
+    /**
+     * The key under which the identifier of its style is stored in the properties of a shape.
+     */
+    private static final Object STYLE_KEY = ShapeStyle.class;
+
+    /**
+     * The styles, in creation order.
+     */
+    private final ObservableList<ShapeStyle> styles = FXCollections.observableArrayList();
+
+    /**
+     * The styles by identifier.
+     */
+    private final Map<String, ShapeStyle> stylesById = new HashMap<>();
+
+    /**
+     * The shapes of the canvas using each style.
+     */
+    private final Map<ShapeStyle, Map<Node, Boolean>> dependents = new IdentityHashMap<>();
+
+    /**
+     * The number used to build the identifier of the next style.
+     */
+    private int nextId = 1;
+
+    /**
+     * Builds the manager of a canvas and starts tracking its children.
+     *
+     * @param canvas the drawing canvas
+     */
+    private StyleManager(Pane canvas) {
+        canvas.getChildren().addListener((ListChangeListener<Node>) change -> {
+            while (change.next()) {
+                for (Node removed : change.getRemoved()) {
+                    if (removed.getParent() != canvas) {
+                        unregister(removed);
+                    }
+                }
+                for (Node added : change.getAddedSubList()) {
+                    ShapeStyle style = getStyle(getStyleId(added));
+                    if (style != null) {
+                        register(added, style);
+                        apply(added, style);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the style manager of the given canvas, creating it on first use.
+     *
+     * @param canvas the drawing canvas
+     * @return the manager attached to the canvas
+     */
+    public static StyleManager of(Pane canvas) {
+        StyleManager manager = find(canvas);
+        if (manager == null) {
+            manager = new StyleManager(canvas);
+            canvas.getProperties().put(PROPERTY_KEY, manager);
+        }
+        return manager;
+    }
+
+    /**
+     * Returns the style manager of the given node, if it has one.
+     *
+     * @param canvas the node, typically a drawing canvas
+     * @return the manager attached to the node, or {@code null} if none
+     */
+    public static StyleManager find(Parent canvas) {
+        if (canvas == null || !canvas.hasProperties()) {
+            return null;
+        }
+        Object manager = canvas.getProperties().get(PROPERTY_KEY);
+        return manager instanceof StyleManager ? (StyleManager) manager : null;
+    }
+
+    /**
+     * Returns the identifier of the style recorded in a shape.
+     *
+     * @param shape the shape
+     * @return the identifier, or {@code null} if the shape has no style
+     */
+    public static String getStyleId(Node shape) {
+        if (!shape.hasProperties()) {
+            return null;
+        }
+        Object id = shape.getProperties().get(STYLE_KEY);
+        return id instanceof String ? (String) id : null;
+    }
+
+    /**
+     * Gives a copy of a shape the style of the original, for instance when saving the canvas for undo.
+     *
+     * @param original the original shape
+     * @param copy     the copy
+     */
+    public static void copyStyle(Node original, Node copy) {
+        String id = getStyleId(original);
+        if (id != null) {
+            copy.getProperties().put(STYLE_KEY, id);
+        }
+    }
+
+    /**
+     * Detaches shapes from their styles because their own look is changed, keeping their current look.
+     *
+     * @param shapes shapes of a canvas
+     */
+    public static void detachAll(Collection<? extends SelectableShape> shapes) {
+        for (SelectableShape shape : shapes) {
+            Node node = (Node) shape;
+            StyleManager manager = find(node.getParent());
+            if (manager != null) {
+                manager.assign(node, null);
+            } else if (node.hasProperties()) {
+                node.getProperties().remove(STYLE_KEY);
+            }
+        }
+    }
+
+    /**
+     * Returns the styles, in creation order.
+     *
+     * @return an unmodifiable live view of the styles
+     */
+    public ObservableList<ShapeStyle> getStyles() {
+        return FXCollections.unmodifiableObservableList(styles);
+    }
+
+    /**
+     * Returns the style with the given identifier.
+     *
+     * @param id the identifier
+     * @return the style, or {@code null} if there is none
+     */
+    public ShapeStyle getStyle(String id) {
+        return id == null ? null : stylesById.get(id);
+    }
+
+    /**
+     * Returns the style of a shape of the canvas.
+     *
+     * @param shape the shape
+     * @return its style, or {@code null} if it has none
+     */
+    public ShapeStyle getStyle(Node shape) {
+        return getStyle(getStyleId(shape));
+    }
+
+    /**
+     * Returns the shapes of the canvas using a style.
+     *
+     * @param style a style of this manager
+     * @return a snapshot of the dependent shapes
+     */
+    public List<Node> getDependents(ShapeStyle style) {
+        Map<Node, Boolean> shapes = dependents.get(style);
+        return shapes == null ? Collections.emptyList() : new ArrayList<>(shapes.keySet());
+    }
+
+    /**
+     * Creates a style.
+     *
+     * @param name        the name of the style
+     * @param fill        the fill color
+     * @param stroke      the stroke color
+     * @param strokeWidth the stroke width
+     * @return the new style
+     */
+    public ShapeStyle addStyle(String name, Color fill, Color stroke, double strokeWidth) {
+        ShapeStyle style = new ShapeStyle(String.valueOf(nextId++), name, fill, stroke, strokeWidth);
+        while (stylesById.containsKey(style.getId())) {
+            style = new ShapeStyle(String.valueOf(nextId++), name, fill, stroke, strokeWidth);
+        }
+        add(style);
+        return style;
+    }
+
+    /**
+     * Deletes a style. The shapes using it keep their current look but no longer depend on a style.
+     *
+     * @param style the style to delete
+     */
+    public void removeStyle(ShapeStyle style) {
+        for (Node node : getDependents(style)) {
+            node.getProperties().remove(STYLE_KEY);
+        }
+        dependents.remove(style);
+        stylesById.remove(style.getId());
+        styles.remove(style);
+    }
+
+    /**
+     * Changes the values of a style, restyling all the shapes using it in one pass.
+     *
+     * @param style       a style of this manager
+     * @param fill        the new fill color
+     * @param stroke      the new stroke color
+     * @param strokeWidth the new stroke width
+     */
+    public void update(ShapeStyle style, Color fill, Color stroke, double strokeWidth) {
+        style.set(fill, stroke, strokeWidth);
+        Map<Node, Boolean> shapes = dependents.get(style);
+        if (shapes != null) {
+            for (Node node : shapes.keySet()) {
+                apply(node, style);
+            }
+        }
+    }
+
+    /**
+     * Makes a shape of the canvas use a style, and gives it the values of the style.
+     *
+     * @param shape the shape
+     * @param style a style of this manager, or {@code null} to detach the shape from its style
+     */
+    public void assign(Node shape, ShapeStyle style) {
+        unregister(shape);
+        if (style == null) {
+            if (shape.hasProperties()) {
+                shape.getProperties().remove(STYLE_KEY);
+            }
+            return;
+        }
+        shape.getProperties().put(STYLE_KEY, style.getId());
+        register(shape, style);
+        apply(shape, style);
+    }
+
+    /**
+     * Makes shapes of the canvas use a style.
+     *
+     * @param shapes the shapes
+     * @param style  a style of this manager, or {@code null} to detach the shapes from their styles
+     */
+    public void assign(Collection<? extends SelectableShape> shapes, ShapeStyle style) {
+        for (SelectableShape shape : shapes) {
+            assign((Node) shape, style);
+        }
+    }
+
+    /**
+     * Checks whether a shape has exactly the values of its style, so they do not need to be saved with it.
+     *
+     * @param shape a shape of the canvas
+     * @return {@code true} if the shape uses a style and matches it
+     */
+    public boolean matchesStyle(Node shape) {
+        ShapeStyle style = getStyle(shape);
+        if (style == null || !(shape instanceof SelectableShape)) {
+            return false;
+        }
+        SelectableShape selectable = (SelectableShape) shape;
+        Color fill = selectable.getFillColor();
+        return (fill == null || style.getFill().equals(fill))
+                && style.getStroke().equals(selectable.getEdgeColor())
+                && (!hasStyledStroke(shape)
+                || ((javafx.scene.shape.Shape) shape).getStrokeWidth() == style.getStrokeWidth());
+    }
+
+    /**
+     * Serializes the styles.
+     *
+     * @return the serialized styles
+     */
+    public JSONArray toJson() {
+        JSONArray array = new JSONArray();
+        for (ShapeStyle style : styles) {
+            array.put(style.toJson());
+        }
+        return array;
+    }
+
+    /**
+     * Replaces the styles by serialized ones. The shapes of the canvas using a style that no longer
+     * exists are detached from it.
+     *
+     * @param array the styles produced by {@link #toJson()}, or {@code null} for no style
+     */
+    public void loadJson(JSONArray array) {
+        for (ShapeStyle style : new ArrayList<>(styles)) {
+            removeStyle(style);
+        }
+        nextId = 1;
+        if (array == null) {
+            return;
+        }
+        for (int i = 0; i < array.length(); i++) {
+            ShapeStyle style = ShapeStyle.fromJson(array.getJSONObject(i));
+            add(style);
+            try {
+                nextId = Math.max(nextId, Integer.parseInt(style.getId()) + 1);
+            } catch (NumberFormatException e) {
+                // Identifiers written by other tools are kept as they are
+            }
+        }
+    }
+
+    /**
+     * Registers a style.
+     */
+    private void add(ShapeStyle style) {
+        stylesById.put(style.getId(), style);
+        dependents.put(style, new IdentityHashMap<>());
+        styles.add(style);
+    }
+
+    /**
+     * Records that a shape depends on a style.
+     */
+    private void register(Node shape, ShapeStyle style) {
+        dependents.get(style).put(shape, Boolean.TRUE);
+    }
+
+    /**
+     * Forgets the dependency of a shape on its style, if any.
+     */
+    private void unregister(Node shape) {
+        ShapeStyle style = getStyle(shape);
+        if (style != null) {
+            dependents.get(style).remove(shape);
+        }
+    }
+
+    /**
+     * Gives a shape the values of a style. Shapes without a fill, such as segments, stay unfilled.
+     */
+    private static void apply(Node node, ShapeStyle style) {
+        if (!(node instanceof SelectableShape)) {
+            return;
+        }
+        SelectableShape shape = (SelectableShape) node;
+        Color fill = shape.getFillColor();
+        if (fill != null && !style.getFill().equals(fill)) {
+            shape.setFillColor(style.getFill());
+        }
+        if (!style.getStroke().equals(shape.getEdgeColor())) {
+            shape.setEdgeColor(style.getStroke());
+        }
+        if (hasStyledStroke(node)) {
+            ((javafx.scene.shape.Shape) node).setStrokeWidth(style.getStrokeWidth());
+        }
+    }
+
+    /**
+     * Checks whether the stroke width of a shape follows its style. Texts keep their thin outline.
+     */
+    private static boolean hasStyledStroke(Node node) {
+        return node instanceof javafx.scene.shape.Shape && !(node instanceof Text);
+    }
+}
@@ -0,0 +1,276 @@
+package group2128.sadproject.sadproject.symbols;
+
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.factory.ShapeLoader;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.geometry.Bounds;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Scale;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A reusable component of a drawing: a set of shapes defined once and placed many times as
+ * {@link SymbolInstance}s.
+ * <p>
+ * The shapes of the definition are not part of the scene graph. When running on the JavaFX Application
+ * Thread, they are rendered once into a snapshot image, at the resolution needed by the current zoom
+ * of the canvas, and every instance displays that same image. The snapshot is rendered again only when
+ * the definition changes or when the zoom crosses a power of two, so the cost of a symbol does not
+ * depend on the number of its instances.
+ * </p>
+ * <p>
+ * The instances observe the {@link #revisionProperty() revision} of their symbol, which changes
+ * whenever their rendering must be rebuilt. Symbols are created and redefined through the
+ * {@link SymbolLibrary} of a canvas.
+ * </p>
+ */
+public final class Symbol {
+
+    /**
+     * The smallest resolution of the snapshot, relative to the size of the definition.
+     */
+    static final double MIN_RENDER_SCALE = 0.25;
+
+    /**
+     * The largest resolution of the snapshot, relative to the size of the definition.
+     */
+    static final double MAX_RENDER_SCALE = 16;
+
+    /**
+     * The largest side of the snapshot image, in pixels.
+     */
+    static final double MAX_IMAGE_SIZE = 4096;
+
+    /**
+     * The identifier of the symbol, unique within its library and stored with the instances.
+     */
+    private final String id;
+
+    /**
+     * The name of the symbol, shown to the user.
+     */
+    private String name;
+
+    /**
+     * The group holding the shapes of the definition, outside of any scene.
+     */
+    private final Group content = new Group();
+
+    /**
+     * The resolution of the snapshot, a power of two.
+     */
+    private double renderScale = 1;
+
+    /**
+     * The snapshot of the definition, rendered on first use.
+     */
+    private WritableImage image;
+
+    /**
+     * A counter incremented whenever the rendering of the instances must be rebuilt.
+     */
+    private final ReadOnlyIntegerWrapper revision = new ReadOnlyIntegerWrapper(this, "revision");
+
+    /**
+     * Constructs a symbol.
+     *
+     * @param id      the identifier of the symbol
+     * @param name    the name of the symbol
+     * @param members the shapes of the definition, which must not be displayed elsewhere
+     */
+    Symbol(String id, String name, Collection<? extends SelectableShape> members) {
+        this.id = id;
+        this.name = name;
+        setMembers(members);
+    }
+
+    /**
+     * Returns the identifier of the symbol.
+     *
+     * @return the identifier, stored with the instances of the symbol
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the name of the symbol.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Renames the symbol.
+     *
+     * @param name the new name
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the shapes of the definition.
+     *
+     * @return an unmodifiable view of the shapes, bottom first
+     */
+    public List<SelectableShape> getMembers() {
+        List<SelectableShape> members = new ArrayList<>(content.getChildren().size());
+        for (Node node : content.getChildren()) {
+            members.add((SelectableShape) node);
+        }
+        return Collections.unmodifiableList(members);
+    }
+
+    /**
+     * Returns the bounds of the definition, in the coordinate space of the instances.
+     *
+     * @return the bounds of the shapes of the definition
+     */
+    public Bounds getBounds() {
+        return content.getBoundsInLocal();
+    }
+
+    /**
+     * Returns the property incremented whenever the instances must rebuild their rendering.
+     *
+     * @return the revision property
+     */
+    public ReadOnlyIntegerProperty revisionProperty() {
+        return revision.getReadOnlyProperty();
+    }
+
+    /**
+     * Returns the resolution at which the definition is rendered.
+     *
+     * @return the scale of the snapshot relative to the size of the definition
+     */
+    public double getRenderScale() {
+        return renderScale;
+    }
+
+    /**
+     * Returns the snapshot of the definition, rendering it if needed.
+     *
+     * @return the shared image displayed by the instances, or {@code null} when not running on the
+     * JavaFX Application Thread or when the definition is empty
+     */
+    public WritableImage getImage() {
+        Bounds bounds = getBounds();
+        if (image == null && Platform.isFxApplicationThread() && bounds.getWidth() > 0 && bounds.getHeight() > 0) {
+            SnapshotParameters params = new SnapshotParameters();
+            params.setFill(Color.TRANSPARENT);
+            params.setTransform(new Scale(renderScale, renderScale));
+            image = content.snapshot(params, null);
+        }
+        return image;
+    }
+
+    /**
+     * Determines whether the given point lies within one of the shapes of the definition.
+     *
+     * @param x the X coordinate of the point, in the coordinate space of the instances
+     * @param y the Y coordinate of the point, in the coordinate space of the instances
+     * @return {@code true} if a shape of the definition contains the point
+     */
+    public boolean contains(double x, double y) {
+        if (!getBounds().contains(x, y)) {
+            return false;
+        }
+        List<Node> children = content.getChildren();
+        for (int i = children.size() - 1; i >= 0; i--) {
+            Node child = children.get(i);
+            if (child.contains(child.parentToLocal(x, y))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the shapes of the definition and asks every instance to render again.
+     *
+     * @param members the new shapes, which must not be displayed elsewhere
+     */
+    void setMembers(Collection<? extends SelectableShape> members) {
+        List<Node> nodes = new ArrayList<>(members.size());
+        for (SelectableShape member : members) {
+            nodes.add((Node) member);
+        }
+        content.getChildren().setAll(nodes);
+        invalidate();
+    }
+
+    /**
+     * Chooses the resolution of the snapshot for the given zoom factor of the canvas. The snapshot is
+     * rendered again only if the zoom needs another power of two.
+     *
+     * @param zoom the zoom factor of the canvas
+     */
+    void setZoom(double zoom) {
+        double scale = Math.pow(2, Math.ceil(Math.log(zoom) / Math.log(2)));
+        scale = Math.max(MIN_RENDER_SCALE, Math.min(MAX_RENDER_SCALE, scale));
+        Bounds bounds = getBounds();
+        double size = Math.max(bounds.getWidth(), bounds.getHeight());
+        while (scale > MIN_RENDER_SCALE && size * scale > MAX_IMAGE_SIZE) {
+            scale /= 2;
+        }
+        if (scale != renderScale) {
+            renderScale = scale;
+            invalidate();
+        }
+    }
+
+    /**
+     * Drops the snapshot and notifies the instances.
+     */
+    private void invalidate() {
+        image = null;
+        revision.set(revision.get() + 1);
+    }
+
+    /**
+     * Serializes the symbol, with the shapes of its definition.
+     *
+     * @return the identifier, name and shapes of the symbol
+     */
+    public JSONObject toJson() {
+        JSONObject obj = new JSONObject();
+        obj.put("id", id);
+        obj.put("name", name);
+        obj.put("shapes", ShapeLoader.toJson(getMembers()));
+        return obj;
+    }
+
+    /**
+     * Builds a symbol from its serialized form.
+     *
+     * @param obj       the object produced by {@link #toJson()}
+     * @param extension builds the shapes the {@link ShapeLoader} does not know, such as instances of the
+     *                  symbols loaded before this one
+     * @return the symbol
+     */
+    static Symbol fromJson(JSONObject obj, Function<JSONObject, SelectableShape> extension) {
+        String id = obj.getString("id");
+        return new Symbol(id, obj.optString("name", id), ShapeLoader.fromJson(obj.getJSONArray("shapes"), extension));
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
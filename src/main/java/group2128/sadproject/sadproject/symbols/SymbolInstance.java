@@ -0,0 +1,355 @@
+package group2128.sadproject.sadproject.symbols;
+
+import group2128.sadproject.sadproject.factory.GroupShape;
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import javafx.beans.InvalidationListener;
+import javafx.beans.WeakInvalidationListener;
+import javafx.geometry.Bounds;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A placement of a {@link Symbol} on the canvas, carrying only a transform.
+ * <p>
+ * The instance displays the shared snapshot of its symbol through a single {@link ImageView}, or, when
+ * the snapshot cannot be rendered (for example outside of a running application), copies of the shapes
+ * of the definition. It follows the changes of its symbol: redefining the symbol updates every
+ * instance. Moving, rotating, scaling and flipping an instance only change the transform of this node,
+ * like an {@link group2128.sadproject.sadproject.factory.ArrayShape}.
+ * </p>
+ * <p>
+ * The colors of an instance are those of its symbol and cannot be changed on the instance itself;
+ * {@link SymbolLibrary#redefine} changes them for every instance at once.
+ * </p>
+ */
+public class SymbolInstance extends Group implements SelectableShape {
+
+    /**
+     * The symbol displayed by this instance.
+     */
+    private final Symbol symbol;
+
+    /**
+     * Rebuilds the rendering when the symbol changes. Held by the instance, and registered weakly on
+     * the symbol, so instances dropped from the drawing can be collected.
+     */
+    private final InvalidationListener symbolListener = observable -> render();
+
+    /**
+     * Constructs an instance of a symbol, placed where the shapes of the definition are.
+     *
+     * @param symbol the symbol to display
+     */
+    public SymbolInstance(Symbol symbol) {
+        this.symbol = symbol;
+        symbol.revisionProperty().addListener(new WeakInvalidationListener(symbolListener));
+        render();
+    }
+
+    /**
+     * Returns the symbol displayed by this instance.
+     *
+     * @return the symbol
+     */
+    public Symbol getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Returns whether the instance is rendered from the shared snapshot of its symbol.
+     *
+     * @return {@code true} if the instance displays the snapshot image, {@code false} if it displays
+     * copies of the shapes of the definition
+     */
+    public boolean isInstanced() {
+        return !getChildren().isEmpty() && getChildren().get(0) instanceof ImageView;
+    }
+
+    /**
+     * Rebuilds the node displaying the symbol, replacing the children of the instance in one update.
+     */
+    private void render() {
+        WritableImage image = symbol.getImage();
+        if (image != null) {
+            Bounds bounds = symbol.getBounds();
+            ImageView view = new ImageView(image);
+            view.setX(bounds.getMinX());
+            view.setY(bounds.getMinY());
+            view.setFitWidth(bounds.getWidth());
+            view.setFitHeight(bounds.getHeight());
+            view.setSmooth(true);
+            getChildren().setAll(view);
+        } else {
+            List<Node> copies = new ArrayList<>();
+            for (SelectableShape member : symbol.getMembers()) {
+                Node copy = (Node) member.getCopy();
+                copy.setMouseTransparent(true);
+                copies.add(copy);
+            }
+            getChildren().setAll(copies);
+        }
+    }
+
+    /**
+     * Replaces the instance with standalone copies of the shapes of its symbol.
+     * <p>
+     * The transform of the instance is baked into the copies, so they stay where they were on screen.
+     * </p>
+     *
+     * @return the new shapes, bottom first
+     */
+    public List<SelectableShape> explode() {
+        List<SelectableShape> copies = new ArrayList<>();
+        for (SelectableShape member : symbol.getMembers()) {
+            copies.add(member.getCopy());
+        }
+        GroupShape group = new GroupShape(copies);
+        group.setTranslateX(getTranslateX());
+        group.setTranslateY(getTranslateY());
+        group.setScaleX(getScaleX());
+        group.setScaleY(getScaleY());
+        group.setRotation(getRotation());
+        return group.ungroup();
+    }
+
+    /**
+     * Moves the instance by the given offset, changing only its translation.
+     *
+     * @param dx the horizontal offset
+     * @param dy the vertical offset
+     */
+    @Override
+    public void moveBy(double dx, double dy) {
+        setTranslateX(getTranslateX() + dx);
+        setTranslateY(getTranslateY() + dy);
+    }
+
+    /**
+     * Returns another instance of the same symbol with the same transform.
+     *
+     * @return a new {@code SymbolInstance} sharing the symbol of this one
+     */
+    @Override
+    public SelectableShape getCopy() {
+        SymbolInstance instance = new SymbolInstance(symbol);
+        instance.setTranslateX(getTranslateX());
+        instance.setTranslateY(getTranslateY());
+        instance.setScaleX(getScaleX());
+        instance.setScaleY(getScaleY());
+        instance.setRotation(getRotation());
+        return instance;
+    }
+
+    /**
+     * Does nothing: the colors of an instance are those of its symbol.
+     *
+     * @param edgeColor ignored
+     */
+    @Override
+    public void setEdgeColor(Color edgeColor) {
+    }
+
+    /**
+     * Returns the edge color of the bottom shape of the symbol.
+     *
+     * @return the edge {@link Color}, or black if the symbol is empty
+     */
+    @Override
+    public Color getEdgeColor() {
+        List<SelectableShape> members = symbol.getMembers();
+        return members.isEmpty() ? Color.BLACK : members.get(0).getEdgeColor();
+    }
+
+    /**
+     * Does nothing: the colors of an instance are those of its symbol.
+     *
+     * @param fillColor ignored
+     */
+    @Override
+    public void setFillColor(Color fillColor) {
+    }
+
+    /**
+     * Returns the fill color of the bottom shape of the symbol.
+     *
+     * @return the fill {@link Color}, or black if the symbol is empty
+     */
+    @Override
+    public Color getFillColor() {
+        List<SelectableShape> members = symbol.getMembers();
+        return members.isEmpty() ? Color.BLACK : members.get(0).getFillColor();
+    }
+
+    /**
+     * Moves the instance so that the center of its bounds is at the given X coordinate.
+     *
+     * @param x the new X coordinate of the center, in the coordinates of the parent
+     */
+    @Override
+    public void setAnchorX(double x) {
+        setTranslateX(x - getLayoutBounds().getCenterX());
+    }
+
+    /**
+     * Returns the X coordinate of the center of the instance, in the coordinates of the parent.
+     *
+     * @return the X coordinate of the center
+     */
+    @Override
+    public double getAnchorX() {
+        return getLayoutBounds().getCenterX() + getTranslateX();
+    }
+
+    /**
+     * Moves the instance so that the center of its bounds is at the given Y coordinate.
+     *
+     * @param y the new Y coordinate of the center, in the coordinates of the parent
+     */
+    @Override
+    public void setAnchorY(double y) {
+        setTranslateY(y - getLayoutBounds().getCenterY());
+    }
+
+    /**
+     * Returns the Y coordinate of the center of the instance, in the coordinates of the parent.
+     *
+     * @return the Y coordinate of the center
+     */
+    @Override
+    public double getAnchorY() {
+        return getLayoutBounds().getCenterY() + getTranslateY();
+    }
+
+    /**
+     * Scales the instance horizontally so that it becomes the given width.
+     * <p>
+     * A horizontal flip, if any, is preserved.
+     * </p>
+     *
+     * @param x the new width of the instance
+     */
+    @Override
+    public void setDimensionX(double x) {
+        double width = getLayoutBounds().getWidth();
+        if (width > 0) {
+            setScaleX(Math.copySign(x / width, getScaleX()));
+        }
+    }
+
+    /**
+     * Returns the width of the instance, including its scale.
+     *
+     * @return the horizontal dimension
+     */
+    @Override
+    public double getDimensionX() {
+        return getLayoutBounds().getWidth() * Math.abs(getScaleX());
+    }
+
+    /**
+     * Scales the instance vertically so that it becomes the given height.
+     * <p>
+     * A vertical flip, if any, is preserved.
+     * </p>
+     *
+     * @param y the new height of the instance
+     */
+    @Override
+    public void setDimensionY(double y) {
+        double height = getLayoutBounds().getHeight();
+        if (height > 0) {
+            setScaleY(Math.copySign(y / height, getScaleY()));
+        }
+    }
+
+    /**
+     * Returns the height of the instance, including its scale.
+     *
+     * @return the vertical dimension
+     */
+    @Override
+    public double getDimensionY() {
+        return getLayoutBounds().getHeight() * Math.abs(getScaleY());
+    }
+
+    /**
+     * Sets the rotation angle of the instance.
+     *
+     * @param angle the angle to set for the rotation
+     */
+    @Override
+    public void setRotation(double angle) {
+        super.setRotate(angle);
+    }
+
+    /**
+     * Returns the rotation angle of the instance.
+     *
+     * @return the rotation angle in degrees.
+     */
+    @Override
+    public double getRotation() {
+        return super.getRotate();
+    }
+
+    /**
+     * Determines whether the given point (x, y) lies within the symbol.
+     * <p>
+     * The point is first tested against the bounds of the instance; only when it falls inside them is
+     * it mapped back onto the definition through the inverse transform of the instance and tested
+     * against the shapes of the symbol, so transparent parts of the snapshot are not hit.
+     * </p>
+     *
+     * @param x the X coordinate of the point to test, in the local coordinates of the instance
+     * @param y the Y coordinate of the point to test, in the local coordinates of the instance
+     * @return {@code true} if the point is inside a shape of the symbol; {@code false} otherwise
+     */
+    @Override
+    public boolean contains(double x, double y) {
+        if (!getBoundsInLocal().contains(x, y)) {
+            return false;
+        }
+        return symbol.contains(x, y);
+    }
+
+    /**
+     * Serializes this instance into the provided {@link JSONObject}.
+     * <p>
+     * Only the identifier of the symbol and the transform of the instance are stored: the definition
+     * is stored once for all its instances by the {@link SymbolLibrary}.
+     * </p>
+     *
+     * @param obj the {@code JSONObject} to populate with this instance's data
+     */
+    @Override
+    public void saveJson(JSONObject obj) {
+        obj.put("type", "symbol");
+        obj.put("symbol", symbol.getId());
+        obj.put("translateX", getTranslateX());
+        obj.put("translateY", getTranslateY());
+        obj.put("flipHorizontal", getScaleX());
+        obj.put("flipVertical", getScaleY());
+        obj.put("rotation", getRotation());
+    }
+
+    /**
+     * Applies the transform stored by {@link #saveJson(JSONObject)} to a new instance.
+     *
+     * @param instance the instance of the symbol named by the object
+     * @param obj      the {@code JSONObject} containing the serialized instance
+     */
+    public static void loadJson(SymbolInstance instance, JSONObject obj) {
+        instance.setTranslateX(obj.optDouble("translateX", 0));
+        instance.setTranslateY(obj.optDouble("translateY", 0));
+        instance.setScaleX(obj.optDouble("flipHorizontal", 1));
+        instance.setScaleY(obj.optDouble("flipVertical", 1));
+        instance.setRotation(obj.optDouble("rotation", 0));
+    }
+}
@@ -0,0 +1,245 @@
+package group2128.sadproject.sadproject.symbols;
+
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.factory.ShapeLoader;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Parent;
+import javafx.scene.layout.Pane;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The symbols of a drawing canvas.
+ * <p>
+ * A symbol is defined once from a set of shapes and placed any number of times as
+ * {@link SymbolInstance}s, which only record the identifier of their symbol and their transform. The
+ * library keeps the definitions, renders them at the resolution needed by the zoom of the canvas, and
+ * writes each of them once in the saved file.
+ * </p>
+ * <p>
+ * There is at most one library per canvas: use {@link #of(Pane)} to obtain it.
+ * </p>
+ */
+public final class SymbolLibrary {
+
+    /**
+     * The key under which the library is stored in the canvas properties.
+     */
+    private static final Object PROPERTY_KEY = SymbolLibrary.class;
+
+    /**
+     * The symbols, in creation order.
+     */
+    private final ObservableList<Symbol> symbols = FXCollections.observableArrayList();
+
+    /**
+     * The symbols by identifier.
+     */
+    private final Map<String, Symbol> symbolsById = new HashMap<>();
+
+    /**
+     * The zoom factor of the canvas, giving the resolution of the snapshots.
+     */
+    private double zoom = 1;
+
+    /**
+     * The number used to build the identifier of the next symbol.
+     */
+    private int nextId = 1;
+
+    /**
+     * Builds an empty library.
+     */
+    private SymbolLibrary() {
+    }
+
+    /**
+     * Returns the symbol library of the given canvas, creating it on first use.
+     *
+     * @param canvas the drawing canvas
+     * @return the library attached to the canvas
+     */
+    public static SymbolLibrary of(Pane canvas) {
+        SymbolLibrary library = find(canvas);
+        if (library == null) {
+            library = new SymbolLibrary();
+            canvas.getProperties().put(PROPERTY_KEY, library);
+        }
+        return library;
+    }
+
+    /**
+     * Returns the symbol library of the given node, if it has one.
+     *
+     * @param canvas the node, typically a drawing canvas
+     * @return the library attached to the node, or {@code null} if none
+     */
+    public static SymbolLibrary find(Parent canvas) {
+        if (canvas == null || !canvas.hasProperties()) {
+            return null;
+        }
+        Object library = canvas.getProperties().get(PROPERTY_KEY);
+        return library instanceof SymbolLibrary ? (SymbolLibrary) library : null;
+    }
+
+    /**
+     * Returns the symbols, in creation order.
+     *
+     * @return an unmodifiable live view of the symbols
+     */
+    public ObservableList<Symbol> getSymbols() {
+        return FXCollections.unmodifiableObservableList(symbols);
+    }
+
+    /**
+     * Returns the symbol with the given identifier.
+     *
+     * @param id the identifier
+     * @return the symbol, or {@code null} if there is none
+     */
+    public Symbol getSymbol(String id) {
+        return id == null ? null : symbolsById.get(id);
+    }
+
+    /**
+     * Defines a symbol from copies of the given shapes. The shapes themselves are left untouched.
+     *
+     * @param name   the name of the symbol
+     * @param shapes the shapes making up the symbol, bottom first
+     * @return the new symbol
+     */
+    public Symbol define(String name, Collection<? extends SelectableShape> shapes) {
+        String id = String.valueOf(nextId++);
+        while (symbolsById.containsKey(id)) {
+            id = String.valueOf(nextId++);
+        }
+        Symbol symbol = new Symbol(id, name, copies(shapes));
+        add(symbol);
+        return symbol;
+    }
+
+    /**
+     * Replaces the definition of a symbol by copies of the given shapes, updating all its instances.
+     *
+     * @param symbol a symbol of this library
+     * @param shapes the new shapes of the symbol, bottom first
+     * @return the previous shapes of the symbol, which can be given back to undo the change
+     */
+    public List<SelectableShape> redefine(Symbol symbol, Collection<? extends SelectableShape> shapes) {
+        List<SelectableShape> previous = new ArrayList<>(symbol.getMembers());
+        symbol.setMembers(copies(shapes));
+        symbol.setZoom(zoom);
+        return previous;
+    }
+
+    /**
+     * Removes a symbol from the library, so it is neither saved nor offered for placement any more. The
+     * instances of the symbol that are still drawn keep their reference to it.
+     *
+     * @param symbol the symbol to remove
+     * @return {@code true} if the symbol was in the library
+     */
+    public boolean remove(Symbol symbol) {
+        if (symbol == null || symbolsById.get(symbol.getId()) != symbol) {
+            return false;
+        }
+        symbolsById.remove(symbol.getId());
+        symbols.remove(symbol);
+        return true;
+    }
+
+    /**
+     * Builds an instance of a symbol of this library from its serialized form. This method is meant to be
+     * given as extension to the {@link ShapeLoader}, so the instances found in copied or nested shapes are
+     * rebuilt too.
+     *
+     * @param obj the object produced by {@link SymbolInstance#saveJson(JSONObject)}
+     * @return the new detached instance, or {@code null} if the object is not an instance of a symbol
+     * of this library
+     */
+    public SelectableShape instanceFromJson(JSONObject obj) {
+        Symbol symbol = "symbol".equals(obj.optString("type")) ? getSymbol(obj.optString("symbol", null)) : null;
+        if (symbol == null) {
+            return null;
+        }
+        SymbolInstance instance = new SymbolInstance(symbol);
+        SymbolInstance.loadJson(instance, obj);
+        return instance;
+    }
+
+    /**
+     * Sets the zoom factor of the canvas, so the symbols are rendered sharply. The snapshots are
+     * rendered again only when the zoom needs another resolution.
+     *
+     * @param zoom the zoom factor of the canvas
+     */
+    public void setZoom(double zoom) {
+        this.zoom = zoom;
+        for (Symbol symbol : symbols) {
+            symbol.setZoom(zoom);
+        }
+    }
+
+    /**
+     * Serializes the symbols, with their definitions.
+     *
+     * @return the serialized symbols
+     */
+    public JSONArray toJson() {
+        JSONArray array = new JSONArray();
+        for (Symbol symbol : symbols) {
+            array.put(symbol.toJson());
+        }
+        return array;
+    }
+
+    /**
+     * Replaces the symbols by serialized ones.
+     *
+     * @param array the symbols produced by {@link #toJson()}, or {@code null} for no symbol
+     */
+    public void loadJson(JSONArray array) {
+        symbols.clear();
+        symbolsById.clear();
+        nextId = 1;
+        if (array == null) {
+            return;
+        }
+        for (int i = 0; i < array.length(); i++) {
+            Symbol symbol = Symbol.fromJson(array.getJSONObject(i), this::instanceFromJson);
+            add(symbol);
+            try {
+                nextId = Math.max(nextId, Integer.parseInt(symbol.getId()) + 1);
+            } catch (NumberFormatException e) {
+                // Identifiers written by other tools are kept as they are
+            }
+        }
+    }
+
+    /**
+     * Registers a symbol.
+     */
+    private void add(Symbol symbol) {
+        symbol.setZoom(zoom);
+        symbolsById.put(symbol.getId(), symbol);
+        symbols.add(symbol);
+    }
+
+    /**
+     * Copies shapes, so the definition of a symbol never shares a node with the drawing.
+     */
+    private static List<SelectableShape> copies(Collection<? extends SelectableShape> shapes) {
+        List<SelectableShape> copies = new ArrayList<>(shapes.size());
+        for (SelectableShape shape : shapes) {
+            copies.add(shape.getCopy());
+        }
+        return copies;
+    }
+}
@@ -0,0 +1,725 @@
+package group2128.sadproject.sadproject.view;
+
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.factory.ShapeTransform;
+import group2128.sadproject.sadproject.spatial.CanvasIndex;
+import javafx.animation.PauseTransition;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.collections.ListChangeListener;
+import javafx.event.Event;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.geometry.Orientation;
+import javafx.geometry.Point2D;
+import javafx.scene.CacheHint;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.input.ZoomEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.transform.Scale;
+import javafx.scene.transform.Translate;
+import javafx.util.Duration;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A window onto an unbounded drawing canvas, with a camera that pans and zooms over it.
+ * <p>
+ * The drawing canvas keeps its own coordinate system, the world coordinates, in which the shapes
+ * are created, moved and saved; the camera is a scale and a translation appended to the canvas
+ * transforms, so world coordinates can be negative or arbitrarily far from the origin without
+ * enlarging any layout area. The canvas is unmanaged: its size never drives the layout of the window.
+ * </p>
+ * <p>
+ * Only the shapes whose bounds intersect the camera frustum, enlarged by a {@link #CULLING_MARGIN},
+ * are rendered. The candidates come from a range query on the {@link CanvasIndex} of the canvas, and
+ * the other shapes are hidden through {@link ShapeVisibility}. Culling is incremental: panning within
+ * the margin costs nothing, and a pan beyond it only touches the shapes entering or leaving the
+ * enlarged frustum. Hidden shapes stay on the canvas, so commands, undo and saving keep seeing every
+ * shape; a hidden shape that is moved, for instance by an undo, is re-examined at the next layout pass.
+ * </p>
+ * <p>
+ * Mouse events landing on the window outside the canvas bounds are forwarded to the canvas, so the
+ * whole window behaves as drawing area. The middle button and the scroll wheel pan the camera; the
+ * scroll wheel with the shortcut key and the pinch gesture zoom around the pointer.
+ * The {@linkplain #getDocumentBounds() document bounds}, which drive the scroll bars, are the extent
+ * maintained by the {@link CanvasIndex} united with the frustum, so they never require a layout of the
+ * shapes.
+ * </p>
+ * <p>
+ * During a zoom gesture the canvas is rendered from a cached bitmap, which is only scaled and moved
+ * at each step instead of rasterizing every shape again, and culling is suspended. Vector rendering
+ * and culling resume once no zoom step arrived for {@link #ZOOM_SETTLE_DELAY}.
+ * </p>
+ */
+public class CanvasViewport extends Pane {
+
+    /**
+     * The smallest zoom factor of the camera.
+     */
+    public static final double MIN_ZOOM = 0.05;
+
+    /**
+     * The largest zoom factor of the camera.
+     */
+    public static final double MAX_ZOOM = 50.0;
+
+    /**
+     * The fraction of the frustum size by which the culling area extends beyond each side of the frustum.
+     */
+    public static final double CULLING_MARGIN = 0.25;
+
+    /**
+     * The zoom factor applied by one notch of the scroll wheel.
+     */
+    public static final double WHEEL_ZOOM_FACTOR = 1.1;
+
+    /**
+     * The time without zoom step after which a zoom gesture is considered settled.
+     */
+    public static final Duration ZOOM_SETTLE_DELAY = Duration.millis(200);
+
+    /**
+     * The scroll distance reported for one notch of the scroll wheel.
+     */
+    private static final double WHEEL_NOTCH = 40.0;
+
+    /**
+     * The drawing canvas viewed through the camera.
+     */
+    private Pane canvas;
+
+    /**
+     * The zoom factor of the camera.
+     */
+    private final DoubleProperty zoom = new SimpleDoubleProperty(this, "zoom", 1.0);
+
+    /**
+     * The world X coordinate shown at the left edge of the window.
+     */
+    private final DoubleProperty cameraX = new SimpleDoubleProperty(this, "cameraX", 0.0);
+
+    /**
+     * The world Y coordinate shown at the top edge of the window.
+     */
+    private final DoubleProperty cameraY = new SimpleDoubleProperty(this, "cameraY", 0.0);
+
+    /**
+     * The bounds of the content of the canvas united with the frustum, in world coordinates.
+     */
+    private final ReadOnlyObjectWrapper<Bounds> documentBounds =
+            new ReadOnlyObjectWrapper<>(this, "documentBounds", new BoundingBox(0, 0, 0, 0));
+
+    /**
+     * The transforms applied to the canvas by the camera.
+     */
+    private final Scale cameraScale = new Scale();
+    private final Translate cameraTranslate = new Translate();
+
+    /**
+     * Shapes hidden because they are outside the culling area.
+     */
+    private final Set<Node> culledShapes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Shapes shown by the last culling pass.
+     */
+    private final Set<Node> shownShapes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Shapes added, or hidden shapes moved, since the last culling pass.
+     */
+    private final Set<Node> pendingShapes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * The culling area of the last culling pass, or {@code null} if the shapes must all be re-examined.
+     */
+    private Bounds cullingArea;
+
+    /**
+     * Shared listener re-examining a hidden shape whose bounds changed.
+     */
+    private final InvalidationListener culledBoundsListener = observable -> {
+        Node node = (Node) ((ReadOnlyProperty<?>) observable).getBean();
+        if (culledShapes.contains(node)) {
+            pendingShapes.add(node);
+            requestLayout();
+        }
+    };
+
+    /**
+     * The scroll bars following the camera, or {@code null} if none are bound.
+     */
+    private ScrollBar horizontalBar;
+    private ScrollBar verticalBar;
+
+    /**
+     * Whether the scroll bars are being updated from the camera, so their listeners must not move it.
+     */
+    private boolean updatingScrollBars;
+
+    /**
+     * The position of the pointer during a middle-button pan, or {@code null} if no pan is in progress.
+     */
+    private Point2D panAnchor;
+
+    /**
+     * Whether a zoom gesture is in progress, rendering the canvas from its cached bitmap.
+     */
+    private boolean zooming;
+
+    /**
+     * The timer ending the wheel zoom gestures, created on first use.
+     */
+    private PauseTransition zoomSettleTimer;
+
+    /**
+     * Constructs an empty viewport. The canvas must be set with {@link #setCanvas(Pane)}.
+     */
+    public CanvasViewport() {
+        setPickOnBounds(true);
+        setMinSize(0, 0);
+
+        Rectangle clip = new Rectangle();
+        clip.widthProperty().bind(widthProperty());
+        clip.heightProperty().bind(heightProperty());
+        setClip(clip);
+
+        cameraScale.xProperty().bind(zoom);
+        cameraScale.yProperty().bind(zoom);
+        cameraTranslate.xProperty().bind(cameraX.negate());
+        cameraTranslate.yProperty().bind(cameraY.negate());
+        InvalidationListener cameraListener = observable -> requestLayout();
+        zoom.addListener(cameraListener);
+        cameraX.addListener(cameraListener);
+        cameraY.addListener(cameraListener);
+
+        addEventFilter(MouseEvent.ANY, this::filterMouseEvent);
+        addEventHandler(ScrollEvent.SCROLL, event -> {
+            if (event.isShortcutDown()) {
+                zoomAt(Math.pow(WHEEL_ZOOM_FACTOR, event.getDeltaY() / WHEEL_NOTCH), event.getX(), event.getY());
+            } else {
+                pan(event.getDeltaX(), event.getDeltaY());
+            }
+            event.consume();
+        });
+        addEventHandler(ZoomEvent.ZOOM_STARTED, event -> {
+            beginZoomGesture();
+            event.consume();
+        });
+        addEventHandler(ZoomEvent.ZOOM, event -> {
+            beginZoomGesture();
+            setZoom(getZoom() * event.getZoomFactor(), event.getX(), event.getY());
+            event.consume();
+        });
+        addEventHandler(ZoomEvent.ZOOM_FINISHED, event -> {
+            endZoomGesture();
+            event.consume();
+        });
+    }
+
+    /**
+     * Constructs a viewport onto the given canvas.
+     *
+     * @param canvas the drawing canvas, whose coordinates become the world coordinates
+     */
+    public CanvasViewport(Pane canvas) {
+        this();
+        setCanvas(canvas);
+    }
+
+    /**
+     * Sets the drawing canvas viewed through the camera.
+     * <p>
+     * The canvas is added to the viewport if needed, unmanaged, and the camera transforms are
+     * appended to its transforms. This method can only be called once.
+     * </p>
+     *
+     * @param canvas the drawing canvas, whose coordinates become the world coordinates
+     * @throws IllegalStateException if a canvas has already been set
+     */
+    public void setCanvas(Pane canvas) {
+        if (this.canvas != null) {
+            throw new IllegalStateException("The canvas of a viewport cannot be changed");
+        }
+        this.canvas = canvas;
+        if (canvas.getParent() != this) {
+            getChildren().add(canvas);
+        }
+        canvas.setManaged(false);
+        canvas.relocate(0, 0);
+        canvas.getTransforms().addAll(cameraScale, cameraTranslate);
+
+        pendingShapes.addAll(canvas.getChildren());
+        canvas.getChildren().addListener((ListChangeListener<Node>) change -> {
+            while (change.next()) {
+                for (Node removed : change.getRemoved()) {
+                    if (removed.getParent() != canvas) {
+                        release(removed);
+                    }
+                }
+                pendingShapes.addAll(change.getAddedSubList());
+            }
+            requestLayout();
+        });
+        requestLayout();
+    }
+
+    /**
+     * Returns the drawing canvas viewed through the camera.
+     *
+     * @return the canvas, or {@code null} if none has been set
+     */
+    public Pane getCanvas() {
+        return canvas;
+    }
+
+    /**
+     * Returns the property holding the zoom factor of the camera.
+     *
+     * @return the zoom property
+     */
+    public DoubleProperty zoomProperty() {
+        return zoom;
+    }
+
+    /**
+     * Returns the zoom factor of the camera.
+     *
+     * @return the number of window pixels per world unit
+     */
+    public double getZoom() {
+        return zoom.get();
+    }
+
+    /**
+     * Zooms around the center of the window.
+     *
+     * @param zoom the new zoom factor, clamped between {@link #MIN_ZOOM} and {@link #MAX_ZOOM}
+     */
+    public void setZoom(double zoom) {
+        setZoom(zoom, getWidth() / 2, getHeight() / 2);
+    }
+
+    /**
+     * Zooms around a point of the window, which keeps showing the same world point.
+     *
+     * @param zoom   the new zoom factor, clamped between {@link #MIN_ZOOM} and {@link #MAX_ZOOM}
+     * @param pivotX the X coordinate of the fixed point, in window coordinates
+     * @param pivotY the Y coordinate of the fixed point, in window coordinates
+     */
+    public void setZoom(double zoom, double pivotX, double pivotY) {
+        double clamped = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom));
+        Point2D pivot = viewportToWorld(pivotX, pivotY);
+        this.zoom.set(clamped);
+        cameraX.set(pivot.getX() - pivotX / clamped);
+        cameraY.set(pivot.getY() - pivotY / clamped);
+    }
+
+    /**
+     * Zooms by a factor around a point of the window, as one step of a wheel zoom gesture.
+     * <p>
+     * The gesture begins with the first step and ends {@link #ZOOM_SETTLE_DELAY} after the last one.
+     * </p>
+     *
+     * @param factor the factor to multiply the zoom by
+     * @param pivotX the X coordinate of the fixed point, in window coordinates
+     * @param pivotY the Y coordinate of the fixed point, in window coordinates
+     */
+    public void zoomAt(double factor, double pivotX, double pivotY) {
+        beginZoomGesture();
+        setZoom(getZoom() * factor, pivotX, pivotY);
+        if (zoomSettleTimer == null) {
+            zoomSettleTimer = new PauseTransition(ZOOM_SETTLE_DELAY);
+            zoomSettleTimer.setOnFinished(event -> endZoomGesture());
+        }
+        zoomSettleTimer.playFromStart();
+    }
+
+    /**
+     * Starts rendering the canvas from a cached bitmap that is only scaled and moved by the next zoom
+     * steps. Does nothing if a zoom gesture is already in progress.
+     */
+    public void beginZoomGesture() {
+        if (zooming || canvas == null) {
+            return;
+        }
+        zooming = true;
+        canvas.setCacheHint(CacheHint.SCALE);
+        canvas.setCache(true);
+    }
+
+    /**
+     * Drops the cached bitmap of the canvas, so the shapes are rendered as vectors at the new zoom,
+     * and culls them again. Does nothing if no zoom gesture is in progress.
+     */
+    public void endZoomGesture() {
+        if (!zooming) {
+            return;
+        }
+        zooming = false;
+        if (zoomSettleTimer != null) {
+            zoomSettleTimer.stop();
+        }
+        canvas.setCache(false);
+        canvas.setCacheHint(CacheHint.DEFAULT);
+        requestLayout();
+    }
+
+    /**
+     * Checks whether a zoom gesture is in progress.
+     *
+     * @return {@code true} if the canvas is rendered from its cached bitmap
+     */
+    public boolean isZooming() {
+        return zooming;
+    }
+
+    /**
+     * Returns the property holding the world X coordinate shown at the left edge of the window.
+     *
+     * @return the camera X property
+     */
+    public DoubleProperty cameraXProperty() {
+        return cameraX;
+    }
+
+    /**
+     * Returns the property holding the world Y coordinate shown at the top edge of the window.
+     *
+     * @return the camera Y property
+     */
+    public DoubleProperty cameraYProperty() {
+        return cameraY;
+    }
+
+    /**
+     * Moves the camera so the given world point is shown at the top-left corner of the window.
+     *
+     * @param x the world X coordinate
+     * @param y the world Y coordinate
+     */
+    public void setCamera(double x, double y) {
+        cameraX.set(x);
+        cameraY.set(y);
+    }
+
+    /**
+     * Moves the camera so the given world point is shown at the center of the window.
+     *
+     * @param x the world X coordinate
+     * @param y the world Y coordinate
+     */
+    public void centerOn(double x, double y) {
+        setCamera(x - getWidth() / 2 / getZoom(), y - getHeight() / 2 / getZoom());
+    }
+
+    /**
+     * Moves the content by the given distance, as when dragging it.
+     *
+     * @param dx the horizontal distance, in window pixels
+     * @param dy the vertical distance, in window pixels
+     */
+    public void pan(double dx, double dy) {
+        setCamera(cameraX.get() - dx / getZoom(), cameraY.get() - dy / getZoom());
+    }
+
+    /**
+     * Returns the part of the world shown by the window.
+     *
+     * @return the frustum, in world coordinates
+     */
+    public Bounds getFrustum() {
+        return new BoundingBox(cameraX.get(), cameraY.get(), getWidth() / getZoom(), getHeight() / getZoom());
+    }
+
+    /**
+     * Maps a point of the window to world coordinates.
+     *
+     * @param x the X coordinate, in window coordinates
+     * @param y the Y coordinate, in window coordinates
+     * @return the world point shown at that position
+     */
+    public Point2D viewportToWorld(double x, double y) {
+        return new Point2D(cameraX.get() + x / getZoom(), cameraY.get() + y / getZoom());
+    }
+
+    /**
+     * Maps a world point to window coordinates.
+     *
+     * @param x the world X coordinate
+     * @param y the world Y coordinate
+     * @return the position of the point in the window
+     */
+    public Point2D worldToViewport(double x, double y) {
+        return new Point2D((x - cameraX.get()) * getZoom(), (y - cameraY.get()) * getZoom());
+    }
+
+    /**
+     * Returns the camera transform, mapping world coordinates to window coordinates.
+     * <p>
+     * Composed with {@link SelectableShape#getShapeTransform()} and the transforms of the enclosing
+     * groups, for instance with {@link ShapeTransform#localToAncestor(Node, Node)} up to this viewport,
+     * it tells where any point of a shape is drawn in the window.
+     * </p>
+     *
+     * @return the transform, the same as {@link #worldToViewport(double, double)}
+     */
+    public ShapeTransform getCameraTransform() {
+        double zoom = getZoom();
+        return new ShapeTransform(zoom, 0, -cameraX.get() * zoom, 0, zoom, -cameraY.get() * zoom);
+    }
+
+    /**
+     * Returns the property holding the bounds of the document.
+     *
+     * @return the document bounds property
+     */
+    public ReadOnlyObjectProperty<Bounds> documentBoundsProperty() {
+        return documentBounds.getReadOnlyProperty();
+    }
+
+    /**
+     * Returns the bounds of the document: the extent of the shapes, as maintained by the
+     * {@link CanvasIndex}, united with the frustum.
+     *
+     * @return the document bounds, in world coordinates, as of the last layout pass
+     */
+    public Bounds getDocumentBounds() {
+        return documentBounds.get();
+    }
+
+    /**
+     * Checks whether a shape is hidden because it is outside the culling area.
+     *
+     * @param node a child of the canvas
+     * @return {@code true} if the shape is culled
+     */
+    public boolean isCulled(Node node) {
+        return culledShapes.contains(node);
+    }
+
+    /**
+     * Makes a pair of scroll bars follow the camera over the document bounds, and move the camera
+     * when they are dragged.
+     *
+     * @param horizontal the horizontal scroll bar
+     * @param vertical   the vertical scroll bar
+     */
+    public void bindScrollBars(ScrollBar horizontal, ScrollBar vertical) {
+        horizontalBar = horizontal;
+        verticalBar = vertical;
+        horizontal.setOrientation(Orientation.HORIZONTAL);
+        vertical.setOrientation(Orientation.VERTICAL);
+        horizontal.valueProperty().addListener((obs, oldVal, newVal) -> {
+            if (!updatingScrollBars) {
+                cameraX.set(newVal.doubleValue());
+            }
+        });
+        vertical.valueProperty().addListener((obs, oldVal, newVal) -> {
+            if (!updatingScrollBars) {
+                cameraY.set(newVal.doubleValue());
+            }
+        });
+        requestLayout();
+    }
+
+    /**
+     * Keeps the canvas covering the window, culls the shapes outside the enlarged frustum and
+     * updates the document bounds.
+     */
+    @Override
+    protected void layoutChildren() {
+        super.layoutChildren();
+        if (canvas == null) {
+            return;
+        }
+        Bounds frustum = getFrustum();
+        canvas.resize(Math.max(0, frustum.getMaxX()), Math.max(0, frustum.getMaxY()));
+        if (!zooming) {
+            cull(frustum);
+        }
+
+        double[] extent = CanvasIndex.of(canvas).getExtent();
+        Bounds document = frustum;
+        if (extent != null) {
+            double minX = Math.min(extent[0], frustum.getMinX());
+            double minY = Math.min(extent[1], frustum.getMinY());
+            document = new BoundingBox(minX, minY,
+                    Math.max(extent[2], frustum.getMaxX()) - minX, Math.max(extent[3], frustum.getMaxY()) - minY);
+        }
+        documentBounds.set(document);
+        updateScrollBars(frustum, document);
+    }
+
+    /**
+     * Shows the shapes intersecting the culling area and hides the others.
+     * <p>
+     * The culling area is only recomputed when the frustum leaves the previous one, so small pans and
+     * zooms cost nothing; otherwise only the shapes returned by the range query and the shapes shown so
+     * far are visited.
+     * </p>
+     */
+    private void cull(Bounds frustum) {
+        if (cullingArea == null || !contains(cullingArea, frustum)) {
+            double marginX = frustum.getWidth() * CULLING_MARGIN;
+            double marginY = frustum.getHeight() * CULLING_MARGIN;
+            cullingArea = new BoundingBox(frustum.getMinX() - marginX, frustum.getMinY() - marginY,
+                    frustum.getWidth() + 2 * marginX, frustum.getHeight() + 2 * marginY);
+
+            List<SelectableShape> inside = CanvasIndex.of(canvas).query(cullingArea.getMinX(), cullingArea.getMinY(),
+                    cullingArea.getMaxX(), cullingArea.getMaxY());
+            Set<Node> visible = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (SelectableShape shape : inside) {
+                visible.add((Node) shape);
+            }
+            for (Node node : shownShapes.toArray(new Node[0])) {
+                if (!visible.contains(node)) {
+                    hide(node);
+                }
+            }
+            for (Node node : visible) {
+                show(node);
+            }
+        }
+        if (!pendingShapes.isEmpty()) {
+            for (Node node : pendingShapes) {
+                if (node.getParent() != canvas || !(node instanceof SelectableShape)) {
+                    continue;
+                }
+                if (node.getBoundsInParent().intersects(cullingArea)) {
+                    show(node);
+                } else {
+                    hide(node);
+                }
+            }
+            pendingShapes.clear();
+        }
+    }
+
+    /**
+     * Makes a shape visible again if it was culled.
+     */
+    private void show(Node node) {
+        if (culledShapes.remove(node)) {
+            node.boundsInParentProperty().removeListener(culledBoundsListener);
+            ShapeVisibility.setHidden(node, ShapeVisibility.CULLED, false);
+        }
+        shownShapes.add(node);
+    }
+
+    /**
+     * Culls a shape, watching its bounds so it is shown again if it moves into the culling area.
+     */
+    private void hide(Node node) {
+        shownShapes.remove(node);
+        if (culledShapes.add(node)) {
+            ShapeVisibility.setHidden(node, ShapeVisibility.CULLED, true);
+            node.boundsInParentProperty().addListener(culledBoundsListener);
+        }
+    }
+
+    /**
+     * Forgets a shape removed from the canvas, making it visible again so it shows up wherever it goes.
+     */
+    private void release(Node node) {
+        shownShapes.remove(node);
+        pendingShapes.remove(node);
+        if (culledShapes.remove(node)) {
+            node.boundsInParentProperty().removeListener(culledBoundsListener);
+            ShapeVisibility.setHidden(node, ShapeVisibility.CULLED, false);
+        }
+    }
+
+    /**
+     * Places the scroll bars, if any, on the frustum within the document bounds.
+     */
+    private void updateScrollBars(Bounds frustum, Bounds document) {
+        if (horizontalBar == null) {
+            return;
+        }
+        updatingScrollBars = true;
+        try {
+            horizontalBar.setMin(document.getMinX());
+            horizontalBar.setMax(document.getMaxX() - frustum.getWidth());
+            horizontalBar.setVisibleAmount(frustum.getWidth());
+            horizontalBar.setValue(frustum.getMinX());
+            horizontalBar.setUnitIncrement(20 / getZoom());
+            horizontalBar.setBlockIncrement(frustum.getWidth() / 2);
+
+            verticalBar.setMin(document.getMinY());
+            verticalBar.setMax(document.getMaxY() - frustum.getHeight());
+            verticalBar.setVisibleAmount(frustum.getHeight());
+            verticalBar.setValue(frustum.getMinY());
+            verticalBar.setUnitIncrement(20 / getZoom());
+            verticalBar.setBlockIncrement(frustum.getHeight() / 2);
+        } finally {
+            updatingScrollBars = false;
+        }
+    }
+
+    /**
+     * Pans with the middle button, and forwards the other mouse events landing on the window
+     * outside the canvas to the canvas.
+     */
+    private void filterMouseEvent(MouseEvent event) {
+        if (event.getEventType() == MouseEvent.MOUSE_PRESSED && event.getButton() == MouseButton.MIDDLE) {
+            panAnchor = new Point2D(event.getX(), event.getY());
+            event.consume();
+            return;
+        }
+        if (panAnchor != null) {
+            if (event.getEventType() == MouseEvent.MOUSE_DRAGGED) {
+                Point2D point = sceneToLocal(event.getSceneX(), event.getSceneY());
+                pan(point.getX() - panAnchor.getX(), point.getY() - panAnchor.getY());
+                panAnchor = point;
+                event.consume();
+                return;
+            }
+            if (event.getEventType() == MouseEvent.MOUSE_RELEASED && event.getButton() == MouseButton.MIDDLE) {
+                panAnchor = null;
+                event.consume();
+                return;
+            }
+            if (event.getEventType() == MouseEvent.MOUSE_CLICKED && event.getButton() == MouseButton.MIDDLE) {
+                event.consume();
+                return;
+            }
+        }
+        if (canvas != null && event.getTarget() == this && isForwarded(event)) {
+            event.consume();
+            Event.fireEvent(canvas, event.copyFor(canvas, canvas));
+        }
+    }
+
+    /**
+     * Checks whether a mouse event is one of the events forwarded to the canvas.
+     */
+    private static boolean isForwarded(MouseEvent event) {
+        return event.getEventType() == MouseEvent.MOUSE_PRESSED
+                || event.getEventType() == MouseEvent.MOUSE_DRAGGED
+                || event.getEventType() == MouseEvent.MOUSE_RELEASED
+                || event.getEventType() == MouseEvent.MOUSE_CLICKED
+                || event.getEventType() == MouseEvent.MOUSE_MOVED;
+    }
+
+    /**
+     * Checks whether a box contains another one.
+     */
+    private static boolean contains(Bounds outer, Bounds inner) {
+        return inner.getMinX() >= outer.getMinX() && inner.getMinY() >= outer.getMinY()
+                && inner.getMaxX() <= outer.getMaxX() && inner.getMaxY() <= outer.getMaxY();
+    }
+}
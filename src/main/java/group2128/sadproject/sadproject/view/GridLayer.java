@@ -0,0 +1,303 @@
+package group2128.sadproject.sadproject.view;
+
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Transform;
+
+import java.util.Arrays;
+
+/**
+ * A layer, stacked below the drawing canvas, that draws the background grid.
+ * <p>
+ * The grid is painted on a single {@link Canvas} covering only the visible part of the layer,
+ * so its memory and drawing cost depend on the size of the viewport, not on the size of the
+ * drawing. The lines are placed in drawing canvas coordinates and mapped through the scene, so the
+ * grid follows the zoom and any other transform of the canvas.
+ * </p>
+ * <p>
+ * The spacing is adaptive: when zooming out brings the lines closer than
+ * {@link #MIN_LINE_DISTANCE} screen pixels, only every {@link #MAJOR_EVERY}-th line is kept, and
+ * so on. Every {@link #MAJOR_EVERY}-th line is drawn darker as a major line, and the minor lines fade
+ * out as they get closer, so the grid thins out smoothly. At most a few hundred lines are drawn,
+ * whatever the zoom.
+ * </p>
+ * <p>
+ * Like the {@link SelectionOverlay}, the layer only requests a layout pass when the canvas is
+ * zoomed or moved, the viewport is scrolled or the spacing changes, and repaints in
+ * {@link #layoutChildren()} only if the mapped grid actually changed. The layer is mouse transparent.
+ * </p>
+ */
+public class GridLayer extends Pane {
+
+    /**
+     * The smallest distance, in screen pixels, between two lines of the grid.
+     */
+    public static final double MIN_LINE_DISTANCE = 6.0;
+
+    /**
+     * The number of minor steps between two major lines, and the factor by which the step grows
+     * when the lines get too close.
+     */
+    public static final int MAJOR_EVERY = 5;
+
+    /**
+     * The color of the major lines.
+     */
+    private static final Color MAJOR_COLOR = Color.gray(0.0, 0.35);
+
+    /**
+     * The color of the minor lines at full opacity.
+     */
+    private static final Color MINOR_COLOR = Color.gray(0.0, 0.15);
+
+    /**
+     * The drawing canvas whose coordinates the grid lines are aligned to.
+     */
+    private final Node drawingCanvas;
+
+    /**
+     * The canvas the grid is painted on, covering the visible part of the layer.
+     */
+    private final Canvas canvas = new Canvas();
+
+    /**
+     * The distance between two grid lines at 100% zoom, in drawing canvas units.
+     */
+    private final DoubleProperty spacing = new SimpleDoubleProperty(this, "spacing", 10.0);
+
+    /**
+     * The visible part of the layer, in layer coordinates, or {@code null} if the whole layer is visible.
+     */
+    private Bounds viewport;
+
+    /**
+     * The parameters of the last paint, used to skip layout passes that do not change the grid.
+     */
+    private double[] paintedState;
+
+    /**
+     * The number of times the grid was painted.
+     */
+    private int paintCount;
+
+    /**
+     * Constructs a grid layer aligned to the given drawing canvas.
+     * <p>
+     * The layer must be added to the scene graph by the caller, below the canvas, in a parent
+     * that shares a common ancestor with it.
+     * </p>
+     *
+     * @param drawingCanvas the canvas whose coordinates the grid follows
+     */
+    public GridLayer(Node drawingCanvas) {
+        this.drawingCanvas = drawingCanvas;
+
+        setMouseTransparent(true);
+        setMinSize(0, 0);
+        canvas.setManaged(false);
+        getChildren().add(canvas);
+
+        ChangeListener<Transform> transformListener = (observable, oldValue, newValue) -> requestLayout();
+        drawingCanvas.localToSceneTransformProperty().addListener(transformListener);
+        localToSceneTransformProperty().addListener(transformListener);
+        spacing.addListener(observable -> requestLayout());
+        visibleProperty().addListener(observable -> requestLayout());
+    }
+
+    /**
+     * Returns the property holding the distance between two grid lines at 100% zoom.
+     *
+     * @return the spacing property, in drawing canvas units
+     */
+    public DoubleProperty spacingProperty() {
+        return spacing;
+    }
+
+    /**
+     * Returns the distance between two grid lines at 100% zoom.
+     *
+     * @return the spacing, in drawing canvas units
+     */
+    public double getSpacing() {
+        return spacing.get();
+    }
+
+    /**
+     * Sets the distance between two grid lines at 100% zoom.
+     *
+     * @param spacing the spacing, in drawing canvas units; must be positive
+     * @throws IllegalArgumentException if the spacing is not positive
+     */
+    public void setSpacing(double spacing) {
+        if (!(spacing > 0)) {
+            throw new IllegalArgumentException("The grid spacing must be positive");
+        }
+        this.spacing.set(spacing);
+    }
+
+    /**
+     * Sets the part of the layer that is visible, typically the viewport of the scroll pane
+     * holding it. Only this part is painted.
+     *
+     * @param viewport the visible area in layer coordinates, or {@code null} if the whole layer is visible
+     */
+    public void setViewport(Bounds viewport) {
+        this.viewport = viewport;
+        requestLayout();
+    }
+
+    /**
+     * Returns the distance between two drawn lines at the current zoom.
+     *
+     * @return the spacing multiplied by the smallest power of {@link #MAJOR_EVERY} that keeps the
+     *         lines at least {@link #MIN_LINE_DISTANCE} screen pixels apart, in drawing canvas units
+     */
+    public double getMinorStep() {
+        return minorStep(Math.min(Math.abs(scaleX()), Math.abs(scaleY())));
+    }
+
+    /**
+     * Returns the distance between two major lines at the current zoom.
+     *
+     * @return {@link #MAJOR_EVERY} times the {@linkplain #getMinorStep() minor step}, in drawing canvas units
+     */
+    public double getMajorStep() {
+        return getMinorStep() * MAJOR_EVERY;
+    }
+
+    /**
+     * Returns the canvas the grid is painted on.
+     *
+     * @return the canvas, sized and placed to cover the visible part of the layer
+     */
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    /**
+     * Returns the number of times the grid was painted, for tests.
+     */
+    int getPaintCount() {
+        return paintCount;
+    }
+
+    /**
+     * Repaints the grid if the viewport, the canvas transform or the spacing changed since the last paint.
+     */
+    @Override
+    protected void layoutChildren() {
+        super.layoutChildren();
+        if (!isVisible()) {
+            return;
+        }
+        Bounds layer = new BoundingBox(0, 0, getWidth(), getHeight());
+        Bounds view = viewport == null ? layer : intersect(viewport, layer);
+        Point2D origin = toLayer(0, 0);
+        double scaleX = scaleX();
+        double scaleY = scaleY();
+
+        double[] state = {view.getMinX(), view.getMinY(), view.getWidth(), view.getHeight(),
+                origin.getX(), origin.getY(), scaleX, scaleY, spacing.get()};
+        if (Arrays.equals(state, paintedState)) {
+            return;
+        }
+        paintedState = state;
+        paintCount++;
+        paint(view, origin, scaleX, scaleY);
+    }
+
+    /**
+     * Paints the grid lines crossing the given view.
+     */
+    private void paint(Bounds view, Point2D origin, double scaleX, double scaleY) {
+        canvas.relocate(view.getMinX(), view.getMinY());
+        canvas.setWidth(Math.ceil(view.getWidth()));
+        canvas.setHeight(Math.ceil(view.getHeight()));
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        if (view.getWidth() <= 0 || view.getHeight() <= 0 || scaleX == 0 || scaleY == 0) {
+            return;
+        }
+
+        double scale = Math.min(Math.abs(scaleX), Math.abs(scaleY));
+        double step = minorStep(scale);
+        double minorOpacity = Math.min(1.0, (step * scale - MIN_LINE_DISTANCE) / MIN_LINE_DISTANCE);
+        Color minorColor = MINOR_COLOR.deriveColor(0, 1, 1, Math.max(0.0, minorOpacity));
+        gc.setLineWidth(1.0);
+
+        double fromX = (view.getMinX() - origin.getX()) / scaleX;
+        double toX = (view.getMaxX() - origin.getX()) / scaleX;
+        long first = (long) Math.ceil(Math.min(fromX, toX) / step);
+        long last = (long) Math.floor(Math.max(fromX, toX) / step);
+        for (long i = first; i <= last; i++) {
+            double x = Math.floor(origin.getX() + i * step * scaleX - view.getMinX()) + 0.5;
+            gc.setStroke(i % MAJOR_EVERY == 0 ? MAJOR_COLOR : minorColor);
+            gc.strokeLine(x, 0, x, canvas.getHeight());
+        }
+
+        double fromY = (view.getMinY() - origin.getY()) / scaleY;
+        double toY = (view.getMaxY() - origin.getY()) / scaleY;
+        first = (long) Math.ceil(Math.min(fromY, toY) / step);
+        last = (long) Math.floor(Math.max(fromY, toY) / step);
+        for (long i = first; i <= last; i++) {
+            double y = Math.floor(origin.getY() + i * step * scaleY - view.getMinY()) + 0.5;
+            gc.setStroke(i % MAJOR_EVERY == 0 ? MAJOR_COLOR : minorColor);
+            gc.strokeLine(0, y, canvas.getWidth(), y);
+        }
+    }
+
+    /**
+     * Returns the distance between two drawn lines for the given zoom factor.
+     */
+    private double minorStep(double scale) {
+        double step = spacing.get();
+        if (scale <= 0) {
+            return step;
+        }
+        while (step * scale < MIN_LINE_DISTANCE) {
+            step *= MAJOR_EVERY;
+        }
+        return step;
+    }
+
+    /**
+     * Maps a point of the drawing canvas to layer coordinates.
+     */
+    private Point2D toLayer(double x, double y) {
+        return sceneToLocal(drawingCanvas.localToScene(x, y));
+    }
+
+    /**
+     * Returns the horizontal size of a drawing canvas unit in layer coordinates.
+     */
+    private double scaleX() {
+        return toLayer(1, 0).getX() - toLayer(0, 0).getX();
+    }
+
+    /**
+     * Returns the vertical size of a drawing canvas unit in layer coordinates.
+     */
+    private double scaleY() {
+        return toLayer(0, 1).getY() - toLayer(0, 0).getY();
+    }
+
+    /**
+     * Returns the intersection of two boxes, empty if they do not overlap.
+     */
+    private static Bounds intersect(Bounds a, Bounds b) {
+        double minX = Math.max(a.getMinX(), b.getMinX());
+        double minY = Math.max(a.getMinY(), b.getMinY());
+        double maxX = Math.min(a.getMaxX(), b.getMaxX());
+        double maxY = Math.min(a.getMaxY(), b.getMaxY());
+        return new BoundingBox(minX, minY, Math.max(0, maxX - minX), Math.max(0, maxY - minY));
+    }
+}
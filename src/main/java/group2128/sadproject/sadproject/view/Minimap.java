@@ -0,0 +1,413 @@
+package group2128.sadproject.sadproject.view;
+
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.spatial.CanvasIndex;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Cursor;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * An overview of the whole drawing, showing the part visible in a {@link CanvasViewport} and moving
+ * its camera when clicked or dragged.
+ * <p>
+ * The drawing is shown from a low-resolution bitmap, painted on a single {@link Canvas}, which is never
+ * re-rendered as a whole on a frame basis. Moving the camera only moves the viewport rectangle. When
+ * shapes are added, moved or removed, the {@link CanvasIndex} reports the regions that changed, and
+ * only the pixels of those regions are redrawn, from the shapes that the index finds there.
+ * </p>
+ * <p>
+ * The bitmap is rebuilt as a whole only when the drawing outgrows the area it shows, when the minimap
+ * is resized, or when too many regions changed at once, as after a load. The shapes are then reduced
+ * to a plain model on the JavaFX Application Thread, and rasterized into the new bitmap on a
+ * background thread; the regions that change meanwhile are redrawn once the new bitmap is installed.
+ * </p>
+ */
+public class Minimap extends Pane {
+
+    /**
+     * The fraction of the size of the drawing left empty around it.
+     */
+    public static final double MARGIN = 0.05;
+
+    /**
+     * The number of pending changed regions beyond which the bitmap is rebuilt as a whole.
+     */
+    public static final int MAX_DIRTY_REGIONS = 64;
+
+    /**
+     * The color of the viewport rectangle.
+     */
+    private static final Color VIEWPORT_COLOR = Color.web("#1e90ff");
+
+    /**
+     * The shared thread rasterizing the bitmaps of every minimap.
+     */
+    private static Executor sharedRenderExecutor;
+
+    /**
+     * The viewport whose canvas is shown and whose camera is moved.
+     */
+    private final CanvasViewport viewport;
+
+    /**
+     * The index of the canvas, reporting the changed regions.
+     */
+    private final CanvasIndex index;
+
+    /**
+     * The executor rasterizing full bitmaps.
+     */
+    private final Executor renderExecutor;
+
+    /**
+     * The executor running code on the JavaFX Application Thread.
+     */
+    private final Executor fxExecutor;
+
+    /**
+     * The canvas the bitmap is painted on.
+     */
+    private final Canvas canvas = new Canvas();
+
+    /**
+     * The rectangle showing the frustum of the viewport.
+     */
+    private final Rectangle viewportRectangle = new Rectangle();
+
+    /**
+     * The mapping of the installed bitmap, or {@code null} if none is installed yet.
+     */
+    private MinimapRenderer renderer;
+
+    /**
+     * The installed bitmap, as ARGB pixels.
+     */
+    private int[] pixels;
+
+    /**
+     * The changed regions not redrawn yet, as {@code {minX, minY, maxX, maxY}} in canvas coordinates.
+     */
+    private final List<double[]> dirtyRegions = new ArrayList<>();
+
+    /**
+     * Whether the bitmap must be rebuilt as a whole.
+     */
+    private boolean rebuildRequested = true;
+
+    /**
+     * Whether a full bitmap is being rasterized in the background.
+     */
+    private boolean rebuilding;
+
+    /**
+     * The number of times the bitmap was rebuilt as a whole.
+     */
+    private int fullRenderCount;
+
+    /**
+     * The number of regions of the bitmap redrawn in place.
+     */
+    private int partialRenderCount;
+
+    /**
+     * Constructs a minimap of the canvas of a viewport, rasterizing in the background.
+     *
+     * @param viewport the viewport, whose canvas must be set
+     */
+    public Minimap(CanvasViewport viewport) {
+        this(viewport, sharedRenderExecutor(), Platform::runLater);
+    }
+
+    /**
+     * Constructs a minimap rasterizing full bitmaps with the given executors.
+     *
+     * @param viewport       the viewport, whose canvas must be set
+     * @param renderExecutor the executor rasterizing full bitmaps
+     * @param fxExecutor     the executor running code on the JavaFX Application Thread
+     */
+    Minimap(CanvasViewport viewport, Executor renderExecutor, Executor fxExecutor) {
+        this.viewport = viewport;
+        this.index = CanvasIndex.of(viewport.getCanvas());
+        this.renderExecutor = renderExecutor;
+        this.fxExecutor = fxExecutor;
+
+        setMinSize(0, 0);
+        setCursor(Cursor.HAND);
+        setStyle("-fx-border-color: #a0a0a0; -fx-background-color: white;");
+        Rectangle clip = new Rectangle();
+        clip.widthProperty().bind(widthProperty());
+        clip.heightProperty().bind(heightProperty());
+        setClip(clip);
+
+        canvas.setManaged(false);
+        viewportRectangle.setManaged(false);
+        viewportRectangle.setFill(VIEWPORT_COLOR.deriveColor(0, 1, 1, 0.15));
+        viewportRectangle.setStroke(VIEWPORT_COLOR);
+        viewportRectangle.setMouseTransparent(true);
+        getChildren().addAll(canvas, viewportRectangle);
+
+        index.addRegionListener(this::regionChanged);
+        InvalidationListener cameraListener = observable -> requestLayout();
+        viewport.zoomProperty().addListener(cameraListener);
+        viewport.cameraXProperty().addListener(cameraListener);
+        viewport.cameraYProperty().addListener(cameraListener);
+        viewport.widthProperty().addListener(cameraListener);
+        viewport.heightProperty().addListener(cameraListener);
+        visibleProperty().addListener(cameraListener);
+
+        addEventHandler(MouseEvent.MOUSE_PRESSED, this::jumpTo);
+        addEventHandler(MouseEvent.MOUSE_DRAGGED, this::jumpTo);
+    }
+
+    /**
+     * Returns the canvas area shown by the minimap.
+     *
+     * @return the area as {@code {minX, minY, maxX, maxY}} in canvas coordinates, or {@code null}
+     *         if no bitmap is installed yet
+     */
+    public double[] getArea() {
+        return renderer == null ? null : renderer.getArea();
+    }
+
+    /**
+     * Maps a point of the minimap to the canvas.
+     *
+     * @param x the X coordinate, in minimap coordinates
+     * @param y the Y coordinate, in minimap coordinates
+     * @return the canvas point, or {@code null} if no bitmap is installed yet
+     */
+    public Point2D toCanvas(double x, double y) {
+        return renderer == null ? null : renderer.toCanvas(x, y);
+    }
+
+    /**
+     * Returns the rectangle showing the frustum of the viewport.
+     *
+     * @return the viewport rectangle, in minimap coordinates
+     */
+    public Rectangle getViewportRectangle() {
+        return viewportRectangle;
+    }
+
+    /**
+     * Returns a pixel of the installed bitmap, for tests.
+     */
+    int getPixel(int x, int y) {
+        return pixels[y * renderer.width + x];
+    }
+
+    /**
+     * Returns the number of times the bitmap was rebuilt as a whole, for tests.
+     */
+    int getFullRenderCount() {
+        return fullRenderCount;
+    }
+
+    /**
+     * Returns the number of regions redrawn, for tests.
+     */
+    int getPartialRenderCount() {
+        return partialRenderCount;
+    }
+
+    /**
+     * Rebuilds the bitmap or redraws the changed regions if needed, and places the viewport rectangle.
+     */
+    @Override
+    protected void layoutChildren() {
+        super.layoutChildren();
+        int width = (int) Math.floor(getWidth());
+        int height = (int) Math.floor(getHeight());
+        if (!isVisible() || width <= 0 || height <= 0) {
+            return;
+        }
+        double[] extent = index.getExtent();
+        if (!rebuilding) {
+            if (renderer == null || renderer.width != width || renderer.height != height
+                    || (extent != null && !contains(renderer.getArea(), extent))) {
+                rebuildRequested = true;
+            }
+            if (rebuildRequested) {
+                rebuild(width, height, extent);
+            } else if (!dirtyRegions.isEmpty()) {
+                redrawDirtyRegions();
+            }
+        }
+        placeViewportRectangle();
+    }
+
+    /**
+     * Records a changed region, falling back to a full rebuild when too many are pending.
+     */
+    private void regionChanged(double[] box) {
+        if (!rebuildRequested) {
+            if (dirtyRegions.size() >= MAX_DIRTY_REGIONS) {
+                dirtyRegions.clear();
+                rebuildRequested = true;
+            } else {
+                dirtyRegions.add(box);
+            }
+        }
+        requestLayout();
+    }
+
+    /**
+     * Reduces the shapes to marks and rasterizes them into a new bitmap on the render executor.
+     */
+    private void rebuild(int width, int height, double[] extent) {
+        double[] area;
+        if (extent == null) {
+            Bounds frustum = viewport.getFrustum();
+            area = new double[]{frustum.getMinX(), frustum.getMinY(), frustum.getMaxX(), frustum.getMaxY()};
+        } else {
+            double marginX = Math.max(extent[2] - extent[0], 1) * MARGIN;
+            double marginY = Math.max(extent[3] - extent[1], 1) * MARGIN;
+            area = new double[]{extent[0] - marginX, extent[1] - marginY, extent[2] + marginX, extent[3] + marginY};
+        }
+        MinimapRenderer newRenderer = MinimapRenderer.fit(width, height, area);
+        List<MinimapRenderer.Mark> marks = new ArrayList<>();
+        for (Node node : viewport.getCanvas().getChildren()) {
+            if (isShown(node)) {
+                MinimapRenderer.collect(node, marks);
+            }
+        }
+
+        rebuildRequested = false;
+        rebuilding = true;
+        dirtyRegions.clear();
+        renderExecutor.execute(() -> {
+            int[] buffer = new int[width * height];
+            newRenderer.render(marks, buffer, 0, 0, width, height);
+            fxExecutor.execute(() -> install(newRenderer, buffer));
+        });
+    }
+
+    /**
+     * Installs a rebuilt bitmap and paints it whole.
+     */
+    private void install(MinimapRenderer newRenderer, int[] buffer) {
+        renderer = newRenderer;
+        pixels = buffer;
+        rebuilding = false;
+        fullRenderCount++;
+        canvas.setWidth(renderer.width);
+        canvas.setHeight(renderer.height);
+        canvas.getGraphicsContext2D().clearRect(0, 0, renderer.width, renderer.height);
+        paint(0, 0, renderer.width, renderer.height);
+        requestLayout();
+    }
+
+    /**
+     * Redraws the pixels of every changed region from the shapes found there by the index.
+     */
+    private void redrawDirtyRegions() {
+        List<double[]> regions = new ArrayList<>(dirtyRegions);
+        dirtyRegions.clear();
+        List<MinimapRenderer.Mark> marks = new ArrayList<>();
+        for (double[] region : regions) {
+            int x0 = (int) Math.floor(renderer.toPixelX(region[0])) - 1;
+            int y0 = (int) Math.floor(renderer.toPixelY(region[1])) - 1;
+            int x1 = (int) Math.ceil(renderer.toPixelX(region[2])) + 1;
+            int y1 = (int) Math.ceil(renderer.toPixelY(region[3])) + 1;
+            x0 = Math.max(0, x0);
+            y0 = Math.max(0, y0);
+            x1 = Math.min(renderer.width, x1);
+            y1 = Math.min(renderer.height, y1);
+            if (x0 >= x1 || y0 >= y1) {
+                continue;
+            }
+            Point2D min = renderer.toCanvas(x0, y0);
+            Point2D max = renderer.toCanvas(x1, y1);
+            List<SelectableShape> shapes = index.query(min.getX(), min.getY(), max.getX(), max.getY());
+            index.sortByStackingOrder(shapes);
+            marks.clear();
+            for (SelectableShape shape : shapes) {
+                if (isShown((Node) shape)) {
+                    MinimapRenderer.collect((Node) shape, marks);
+                }
+            }
+            renderer.render(marks, pixels, x0, y0, x1, y1);
+            paint(x0, y0, x1, y1);
+            partialRenderCount++;
+        }
+    }
+
+    /**
+     * Copies a rectangle of the bitmap to the canvas.
+     */
+    private void paint(int x0, int y0, int x1, int y1) {
+        canvas.getGraphicsContext2D().getPixelWriter().setPixels(x0, y0, x1 - x0, y1 - y0,
+                PixelFormat.getIntArgbInstance(), pixels, y0 * renderer.width + x0, renderer.width);
+    }
+
+    /**
+     * Places the viewport rectangle on the frustum of the viewport.
+     */
+    private void placeViewportRectangle() {
+        if (renderer == null) {
+            viewportRectangle.setVisible(false);
+            return;
+        }
+        Bounds frustum = viewport.getFrustum();
+        double x0 = renderer.toPixelX(frustum.getMinX());
+        double y0 = renderer.toPixelY(frustum.getMinY());
+        viewportRectangle.setVisible(true);
+        viewportRectangle.setX(Math.floor(x0) + 0.5);
+        viewportRectangle.setY(Math.floor(y0) + 0.5);
+        viewportRectangle.setWidth(Math.max(1, Math.round(frustum.getWidth() * renderer.scale)));
+        viewportRectangle.setHeight(Math.max(1, Math.round(frustum.getHeight() * renderer.scale)));
+    }
+
+    /**
+     * Centers the camera of the viewport on the clicked point.
+     */
+    private void jumpTo(MouseEvent event) {
+        if (renderer != null) {
+            Point2D point = renderer.toCanvas(event.getX(), event.getY());
+            viewport.centerOn(point.getX(), point.getY());
+        }
+        event.consume();
+    }
+
+    /**
+     * Checks whether a child of the canvas is shown, culled shapes included.
+     */
+    private boolean isShown(Node node) {
+        return ShapeVisibility.isShownIgnoring(node, ShapeVisibility.CULLED);
+    }
+
+    /**
+     * Checks whether an area contains a box.
+     */
+    private static boolean contains(double[] area, double[] box) {
+        return box[0] >= area[0] && box[1] >= area[1] && box[2] <= area[2] && box[3] <= area[3];
+    }
+
+    /**
+     * Returns the thread rasterizing the bitmaps, creating it on first use.
+     */
+    private static synchronized Executor sharedRenderExecutor() {
+        if (sharedRenderExecutor == null) {
+            sharedRenderExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "minimap-renderer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return sharedRenderExecutor;
+    }
+}
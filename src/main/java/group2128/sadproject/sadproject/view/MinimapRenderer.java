@@ -0,0 +1,463 @@
+package group2128.sadproject.sadproject.view;
+
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Ellipse;
+import javafx.scene.shape.Line;
+import javafx.scene.shape.Polygon;
+import javafx.scene.shape.Polyline;
+import javafx.scene.shape.Shape;
+import javafx.scene.transform.Transform;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Rasterizes a simplified model of the shapes of a canvas into a low-resolution ARGB buffer, for the
+ * {@link Minimap}.
+ * <p>
+ * The shapes are first reduced, on the JavaFX Application Thread, to {@linkplain Mark marks}: plain
+ * immutable records of a box, an ellipse, a polygon or a polyline with a single color, in canvas
+ * coordinates. Rasterizing the marks does not touch the scene graph, so it can run on any thread.
+ * </p>
+ * <p>
+ * A renderer maps a fixed area of the canvas to a bitmap of a fixed size. Each render clears and
+ * redraws a rectangle of pixels, so a changed region can be redrawn without touching the rest of the
+ * bitmap.
+ * </p>
+ */
+final class MinimapRenderer {
+
+    /**
+     * The color of the pixels not covered by any shape.
+     */
+    static final int BACKGROUND = 0xFFFFFFFF;
+
+    /**
+     * The color of the nodes that are neither shapes nor groups, such as cached images.
+     */
+    private static final Color UNKNOWN_COLOR = Color.gray(0.6);
+
+    /**
+     * The kinds of marks.
+     */
+    static final int BOX = 0;
+    static final int ELLIPSE = 1;
+    static final int POLYGON = 2;
+    static final int POLYLINE = 3;
+
+    /**
+     * A simplified shape: a kind, a color and coordinates in canvas space.
+     * <p>
+     * Boxes and ellipses are given by their bounds as {@code {minX, minY, maxX, maxY}}; polygons and
+     * polylines by their points as {@code {x0, y0, x1, y1, ...}}.
+     * </p>
+     */
+    static final class Mark {
+
+        final int kind;
+        final int argb;
+        final double[] coords;
+
+        Mark(int kind, int argb, double[] coords) {
+            this.kind = kind;
+            this.argb = argb;
+            this.coords = coords;
+        }
+    }
+
+    /**
+     * The size of the bitmap, in pixels.
+     */
+    final int width;
+    final int height;
+
+    /**
+     * The canvas point mapped to the top-left corner of the bitmap.
+     */
+    final double originX;
+    final double originY;
+
+    /**
+     * The number of pixels per canvas unit.
+     */
+    final double scale;
+
+    /**
+     * Constructs a renderer mapping a canvas area to a bitmap.
+     *
+     * @param width   the width of the bitmap, in pixels
+     * @param height  the height of the bitmap, in pixels
+     * @param originX the canvas X coordinate of the left edge of the bitmap
+     * @param originY the canvas Y coordinate of the top edge of the bitmap
+     * @param scale   the number of pixels per canvas unit
+     */
+    MinimapRenderer(int width, int height, double originX, double originY, double scale) {
+        this.width = width;
+        this.height = height;
+        this.originX = originX;
+        this.originY = originY;
+        this.scale = scale;
+    }
+
+    /**
+     * Creates a renderer showing the given canvas area whole and centered in a bitmap.
+     *
+     * @param width  the width of the bitmap, in pixels
+     * @param height the height of the bitmap, in pixels
+     * @param area   the canvas area as {@code {minX, minY, maxX, maxY}}
+     * @return the renderer
+     */
+    static MinimapRenderer fit(int width, int height, double[] area) {
+        double areaWidth = Math.max(area[2] - area[0], 1e-6);
+        double areaHeight = Math.max(area[3] - area[1], 1e-6);
+        double scale = Math.min(width / areaWidth, height / areaHeight);
+        double centerX = (area[0] + area[2]) / 2;
+        double centerY = (area[1] + area[3]) / 2;
+        return new MinimapRenderer(width, height, centerX - width / scale / 2, centerY - height / scale / 2, scale);
+    }
+
+    /**
+     * Returns the canvas area shown by the bitmap.
+     *
+     * @return the area as {@code {minX, minY, maxX, maxY}}
+     */
+    double[] getArea() {
+        return new double[]{originX, originY, originX + width / scale, originY + height / scale};
+    }
+
+    /**
+     * Maps a canvas X coordinate to the bitmap.
+     */
+    double toPixelX(double x) {
+        return (x - originX) * scale;
+    }
+
+    /**
+     * Maps a canvas Y coordinate to the bitmap.
+     */
+    double toPixelY(double y) {
+        return (y - originY) * scale;
+    }
+
+    /**
+     * Maps a point of the bitmap to the canvas.
+     */
+    Point2D toCanvas(double x, double y) {
+        return new Point2D(originX + x / scale, originY + y / scale);
+    }
+
+    /**
+     * Reduces a child of the canvas to marks, appended to the given list.
+     * <p>
+     * Groups are flattened and every nested shape is mapped to canvas coordinates. Must be called on
+     * the JavaFX Application Thread.
+     * </p>
+     *
+     * @param node  a child of the canvas
+     * @param marks the list receiving the marks
+     */
+    static void collect(Node node, List<Mark> marks) {
+        collect(node, node.getLocalToParentTransform(), node.getOpacity(), marks);
+    }
+
+    /**
+     * Reduces a node, whose local coordinates map to the canvas through the given transform, to marks.
+     */
+    private static void collect(Node node, Transform toCanvas, double opacity, List<Mark> marks) {
+        if (node instanceof Shape) {
+            collectShape((Shape) node, toCanvas, opacity, marks);
+        } else if (node instanceof Parent) {
+            for (Node child : ((Parent) node).getChildrenUnmodifiable()) {
+                if (child.isVisible()) {
+                    collect(child, toCanvas.createConcatenation(child.getLocalToParentTransform()),
+                            opacity * child.getOpacity(), marks);
+                }
+            }
+        } else {
+            marks.add(new Mark(BOX, argb(UNKNOWN_COLOR, opacity), box(toCanvas.transform(node.getBoundsInLocal()))));
+        }
+    }
+
+    /**
+     * Reduces a shape to a mark of the closest kind.
+     */
+    private static void collectShape(Shape shape, Transform toCanvas, double opacity, List<Mark> marks) {
+        Color fill = opaqueColor(shape.getFill());
+        Color stroke = opaqueColor(shape.getStroke());
+        Color color = fill != null ? fill : stroke != null ? stroke : UNKNOWN_COLOR;
+        if (shape instanceof Line) {
+            Line line = (Line) shape;
+            double[] points = {line.getStartX(), line.getStartY(), line.getEndX(), line.getEndY()};
+            marks.add(new Mark(POLYLINE, argb(stroke != null ? stroke : color, opacity), transform(toCanvas, points)));
+        } else if (shape instanceof Polyline) {
+            double[] points = toArray(((Polyline) shape).getPoints());
+            marks.add(new Mark(POLYLINE, argb(stroke != null ? stroke : color, opacity), transform(toCanvas, points)));
+        } else if (shape instanceof Polygon) {
+            double[] points = transform(toCanvas, toArray(((Polygon) shape).getPoints()));
+            if (fill != null) {
+                marks.add(new Mark(POLYGON, argb(fill, opacity), points));
+            } else {
+                double[] closed = Arrays.copyOf(points, points.length + 2);
+                if (points.length >= 2) {
+                    closed[points.length] = points[0];
+                    closed[points.length + 1] = points[1];
+                }
+                marks.add(new Mark(POLYLINE, argb(color, opacity), closed));
+            }
+        } else if ((shape instanceof Ellipse || shape instanceof Circle) && fill != null) {
+            marks.add(new Mark(ELLIPSE, argb(fill, opacity), box(toCanvas.transform(shape.getBoundsInLocal()))));
+        } else {
+            marks.add(new Mark(BOX, argb(color, opacity), box(toCanvas.transform(shape.getBoundsInLocal()))));
+        }
+    }
+
+    /**
+     * Clears a rectangle of the bitmap and draws the marks over it, clipped to the rectangle.
+     *
+     * @param marks  the marks, bottom to top
+     * @param pixels the ARGB bitmap, of {@code width * height} pixels
+     * @param x0     the left edge of the rectangle, inclusive
+     * @param y0     the top edge of the rectangle, inclusive
+     * @param x1     the right edge of the rectangle, exclusive
+     * @param y1     the bottom edge of the rectangle, exclusive
+     */
+    void render(List<Mark> marks, int[] pixels, int x0, int y0, int x1, int y1) {
+        x0 = Math.max(0, x0);
+        y0 = Math.max(0, y0);
+        x1 = Math.min(width, x1);
+        y1 = Math.min(height, y1);
+        if (x0 >= x1 || y0 >= y1) {
+            return;
+        }
+        for (int y = y0; y < y1; y++) {
+            Arrays.fill(pixels, y * width + x0, y * width + x1, BACKGROUND);
+        }
+        double[] crossings = new double[16];
+        for (Mark mark : marks) {
+            switch (mark.kind) {
+                case BOX:
+                    fillBox(mark, pixels, x0, y0, x1, y1);
+                    break;
+                case ELLIPSE:
+                    fillEllipse(mark, pixels, x0, y0, x1, y1);
+                    break;
+                case POLYGON:
+                    crossings = fillPolygon(mark, pixels, x0, y0, x1, y1, crossings);
+                    break;
+                default:
+                    drawPolyline(mark, pixels, x0, y0, x1, y1);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Fills the pixels covered by a box, at least one pixel wide and high.
+     */
+    private void fillBox(Mark mark, int[] pixels, int x0, int y0, int x1, int y1) {
+        int left = (int) Math.floor(toPixelX(mark.coords[0]));
+        int top = (int) Math.floor(toPixelY(mark.coords[1]));
+        int right = Math.max(left + 1, (int) Math.ceil(toPixelX(mark.coords[2])));
+        int bottom = Math.max(top + 1, (int) Math.ceil(toPixelY(mark.coords[3])));
+        for (int y = Math.max(top, y0); y < Math.min(bottom, y1); y++) {
+            fillSpan(pixels, y, Math.max(left, x0), Math.min(right, x1), mark.argb);
+        }
+    }
+
+    /**
+     * Fills the pixels whose centers are inside an ellipse, or the pixel holding its center if it is
+     * smaller than a pixel.
+     */
+    private void fillEllipse(Mark mark, int[] pixels, int x0, int y0, int x1, int y1) {
+        double left = toPixelX(mark.coords[0]);
+        double top = toPixelY(mark.coords[1]);
+        double right = toPixelX(mark.coords[2]);
+        double bottom = toPixelY(mark.coords[3]);
+        double centerX = (left + right) / 2;
+        double centerY = (top + bottom) / 2;
+        double radiusX = (right - left) / 2;
+        double radiusY = (bottom - top) / 2;
+        if (radiusX < 0.5 || radiusY < 0.5) {
+            fillBox(mark, pixels, x0, y0, x1, y1);
+            return;
+        }
+        for (int y = Math.max((int) Math.floor(top), y0); y < Math.min((int) Math.ceil(bottom), y1); y++) {
+            double dy = (y + 0.5 - centerY) / radiusY;
+            if (dy * dy > 1) {
+                continue;
+            }
+            double dx = radiusX * Math.sqrt(1 - dy * dy);
+            int from = (int) Math.round(centerX - dx);
+            int to = (int) Math.round(centerX + dx);
+            fillSpan(pixels, y, Math.max(from, x0), Math.min(to, x1), mark.argb);
+        }
+    }
+
+    /**
+     * Fills the pixels whose centers are inside a polygon, with the even-odd rule.
+     *
+     * @return the crossing buffer, grown if needed, to be reused by the next polygon
+     */
+    private double[] fillPolygon(Mark mark, int[] pixels, int x0, int y0, int x1, int y1, double[] crossings) {
+        double[] points = mark.coords;
+        int count = points.length / 2;
+        if (count < 3) {
+            drawPolyline(mark, pixels, x0, y0, x1, y1);
+            return crossings;
+        }
+        double top = Double.POSITIVE_INFINITY;
+        double bottom = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            double y = toPixelY(points[2 * i + 1]);
+            top = Math.min(top, y);
+            bottom = Math.max(bottom, y);
+        }
+        if (bottom - top < 1) {
+            drawPolyline(mark, pixels, x0, y0, x1, y1);
+            return crossings;
+        }
+        if (crossings.length < count) {
+            crossings = new double[count];
+        }
+        for (int y = Math.max((int) Math.floor(top), y0); y < Math.min((int) Math.ceil(bottom), y1); y++) {
+            double scanY = y + 0.5;
+            int found = 0;
+            for (int i = 0, j = count - 1; i < count; j = i++) {
+                double ay = toPixelY(points[2 * i + 1]);
+                double by = toPixelY(points[2 * j + 1]);
+                if ((ay <= scanY) != (by <= scanY)) {
+                    double ax = toPixelX(points[2 * i]);
+                    double bx = toPixelX(points[2 * j]);
+                    crossings[found++] = ax + (scanY - ay) / (by - ay) * (bx - ax);
+                }
+            }
+            Arrays.sort(crossings, 0, found);
+            for (int k = 0; k + 1 < found; k += 2) {
+                int from = (int) Math.round(crossings[k]);
+                int to = (int) Math.round(crossings[k + 1]);
+                fillSpan(pixels, y, Math.max(from, x0), Math.min(to, x1), mark.argb);
+            }
+        }
+        return crossings;
+    }
+
+    /**
+     * Draws the segments of a polyline, one pixel wide.
+     */
+    private void drawPolyline(Mark mark, int[] pixels, int x0, int y0, int x1, int y1) {
+        double[] points = mark.coords;
+        if (points.length == 2) {
+            plot(pixels, toPixelX(points[0]), toPixelY(points[1]), x0, y0, x1, y1, mark.argb);
+        }
+        for (int i = 2; i + 1 < points.length; i += 2) {
+            double ax = toPixelX(points[i - 2]);
+            double ay = toPixelY(points[i - 1]);
+            double bx = toPixelX(points[i]);
+            double by = toPixelY(points[i + 1]);
+            if (Math.max(ax, bx) < x0 || Math.min(ax, bx) >= x1 || Math.max(ay, by) < y0 || Math.min(ay, by) >= y1) {
+                continue;
+            }
+            int steps = (int) Math.ceil(Math.max(Math.abs(bx - ax), Math.abs(by - ay)));
+            for (int step = 0; step <= steps; step++) {
+                double t = steps == 0 ? 0 : (double) step / steps;
+                plot(pixels, ax + t * (bx - ax), ay + t * (by - ay), x0, y0, x1, y1, mark.argb);
+            }
+        }
+    }
+
+    /**
+     * Blends the pixel holding a point, if it is inside the clip rectangle.
+     */
+    private void plot(int[] pixels, double x, double y, int x0, int y0, int x1, int y1, int argb) {
+        int px = (int) Math.floor(x);
+        int py = (int) Math.floor(y);
+        if (px >= x0 && px < x1 && py >= y0 && py < y1) {
+            int index = py * width + px;
+            pixels[index] = blend(pixels[index], argb);
+        }
+    }
+
+    /**
+     * Blends a color over a horizontal run of pixels.
+     */
+    private void fillSpan(int[] pixels, int y, int from, int to, int argb) {
+        int row = y * width;
+        if (argb >>> 24 == 0xFF) {
+            if (from < to) {
+                Arrays.fill(pixels, row + from, row + to, argb);
+            }
+            return;
+        }
+        for (int x = from; x < to; x++) {
+            pixels[row + x] = blend(pixels[row + x], argb);
+        }
+    }
+
+    /**
+     * Blends a translucent color over an opaque pixel.
+     */
+    private static int blend(int destination, int source) {
+        int alpha = source >>> 24;
+        if (alpha == 0xFF) {
+            return source;
+        }
+        int inverse = 0xFF - alpha;
+        int red = (((source >> 16) & 0xFF) * alpha + ((destination >> 16) & 0xFF) * inverse) / 0xFF;
+        int green = (((source >> 8) & 0xFF) * alpha + ((destination >> 8) & 0xFF) * inverse) / 0xFF;
+        int blue = ((source & 0xFF) * alpha + (destination & 0xFF) * inverse) / 0xFF;
+        return 0xFF000000 | red << 16 | green << 8 | blue;
+    }
+
+    /**
+     * Returns a paint as a color if it is a visible solid color.
+     */
+    private static Color opaqueColor(Paint paint) {
+        if (paint instanceof Color && ((Color) paint).getOpacity() > 0) {
+            return (Color) paint;
+        }
+        return null;
+    }
+
+    /**
+     * Packs a color, faded by an opacity, as ARGB.
+     */
+    private static int argb(Color color, double opacity) {
+        int alpha = (int) Math.round(color.getOpacity() * opacity * 255);
+        int red = (int) Math.round(color.getRed() * 255);
+        int green = (int) Math.round(color.getGreen() * 255);
+        int blue = (int) Math.round(color.getBlue() * 255);
+        return alpha << 24 | red << 16 | green << 8 | blue;
+    }
+
+    /**
+     * Returns bounds as {@code {minX, minY, maxX, maxY}}.
+     */
+    private static double[] box(Bounds bounds) {
+        return new double[]{bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY()};
+    }
+
+    /**
+     * Maps points given as {@code {x0, y0, x1, y1, ...}} through a transform, in place.
+     */
+    private static double[] transform(Transform transform, double[] points) {
+        transform.transform2DPoints(points, 0, points, 0, points.length / 2);
+        return points;
+    }
+
+    /**
+     * Copies a list of coordinates into an array.
+     */
+    private static double[] toArray(List<Double> coordinates) {
+        double[] array = new double[coordinates.size() & ~1];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = coordinates.get(i);
+        }
+        return array;
+    }
+}
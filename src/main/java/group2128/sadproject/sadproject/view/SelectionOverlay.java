@@ -0,0 +1,516 @@
+package group2128.sadproject.sadproject.view;
+
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
+import javafx.scene.transform.Transform;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A transparent layer, stacked above the drawing canvas, that draws the selection
+ * outline and the corner handles of every selected shape.
+ * <p>
+ * All outlines are drawn by a single stroked {@link Path} and all handles by a second one,
+ * so the cost of showing a selection does not depend on the number of selected shapes in terms
+ * of scene graph nodes or effect passes. Each selected shape owns a fixed block of path elements
+ * which is added when the shape is shown, removed when it is hidden, and updated in place when the
+ * shape moves, is resized, or the canvas is zoomed.
+ * </p>
+ * <p>
+ * Updates are coalesced: listeners only mark the affected shapes as dirty and request a layout pass,
+ * and the element coordinates are recomputed once per pulse in {@link #layoutChildren()}.
+ * The overlay is mouse transparent, so it never interferes with the canvas event handling.
+ * </p>
+ */
+public class SelectionOverlay extends Pane {
+
+    /**
+     * The side length, in screen pixels, of the square handles drawn at the corners of a selection.
+     */
+    private static final double HANDLE_SIZE = 6.0;
+
+    /**
+     * The color used for both the outlines and the handle borders.
+     */
+    private static final Color SELECTION_COLOR = Color.DEEPSKYBLUE;
+
+    /**
+     * The color of the snapping guides.
+     */
+    private static final Color GUIDE_COLOR = Color.MAGENTA;
+
+    /**
+     * The drawing canvas whose shapes are highlighted by this overlay.
+     */
+    private final AnchorPane drawingCanvas;
+
+    /**
+     * The single path holding the outline of every selected shape.
+     */
+    private final Path outlines = new Path();
+
+    /**
+     * The single path holding the corner handles of every selected shape.
+     */
+    private final Path handles = new Path();
+
+    /**
+     * The path drawing the marquee or lasso of a rubber-band selection in progress.
+     */
+    private final Path rubberBand = new Path();
+
+    /**
+     * The path drawing the snapping guides of a drag in progress.
+     */
+    private final Path guides = new Path();
+
+    /**
+     * The shapes currently shown by the overlay, in selection order, with their path elements.
+     */
+    private final Map<SelectableShape, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * The entries whose path elements must be recomputed in the next layout pass.
+     */
+    private final Set<Entry> dirtyEntries = new HashSet<>();
+
+    /**
+     * Whether every entry must be recomputed, e.g. after the canvas has been zoomed or moved.
+     */
+    private boolean allDirty;
+
+    /**
+     * Constructs an overlay for the given drawing canvas.
+     * <p>
+     * The overlay must be added to the scene graph by the caller, above the canvas, in a parent
+     * that shares a common ancestor with it (typically the stack pane holding the canvas).
+     * </p>
+     *
+     * @param drawingCanvas the canvas containing the shapes to highlight
+     */
+    public SelectionOverlay(AnchorPane drawingCanvas) {
+        this.drawingCanvas = drawingCanvas;
+
+        setMouseTransparent(true);
+        setPickOnBounds(false);
+        setMinSize(0, 0);
+        setPrefSize(0, 0);
+
+        outlines.setManaged(false);
+        outlines.setFill(null);
+        outlines.setStroke(SELECTION_COLOR);
+        outlines.setStrokeWidth(1.0);
+
+        handles.setManaged(false);
+        handles.setFill(Color.WHITE);
+        handles.setStroke(SELECTION_COLOR);
+        handles.setStrokeWidth(1.0);
+
+        rubberBand.setManaged(false);
+        rubberBand.setFill(SELECTION_COLOR.deriveColor(0, 1, 1, 0.1));
+        rubberBand.setStroke(SELECTION_COLOR);
+        rubberBand.setStrokeWidth(1.0);
+        rubberBand.getStrokeDashArray().addAll(4.0, 4.0);
+
+        guides.setManaged(false);
+        guides.setFill(null);
+        guides.setStroke(GUIDE_COLOR);
+        guides.setStrokeWidth(1.0);
+
+        getChildren().addAll(outlines, handles, rubberBand, guides);
+
+        ChangeListener<Transform> transformListener = (observable, oldValue, newValue) -> invalidateAll();
+        drawingCanvas.localToSceneTransformProperty().addListener(transformListener);
+        localToSceneTransformProperty().addListener(transformListener);
+
+        drawingCanvas.getChildren().addListener((ListChangeListener<Node>) change -> {
+            List<SelectableShape> detached = new ArrayList<>();
+            while (change.next()) {
+                for (Node removed : change.getRemoved()) {
+                    if (removed instanceof SelectableShape && removed.getParent() != drawingCanvas) {
+                        detached.add((SelectableShape) removed);
+                    }
+                }
+            }
+            hideAll(detached);
+        });
+    }
+
+    /**
+     * Starts highlighting the given shape.
+     * <p>
+     * Does nothing if the shape is already shown.
+     * </p>
+     *
+     * @param shape the shape to highlight
+     */
+    public void show(SelectableShape shape) {
+        if (shape == null || entries.containsKey(shape)) {
+            return;
+        }
+        Entry entry = new Entry((Node) shape);
+        entries.put(shape, entry);
+        outlines.getElements().addAll(entry.outline);
+        handles.getElements().addAll(entry.handles);
+        entry.node.boundsInParentProperty().addListener(entry.boundsListener);
+        markDirty(entry);
+    }
+
+    /**
+     * Starts highlighting all the given shapes at once.
+     * <p>
+     * The path elements of every new shape are appended in a single update of each path, so
+     * highlighting thousands of shapes (e.g. after a select-all) does not trigger one geometry
+     * change per shape. Shapes that are already shown are skipped.
+     * </p>
+     *
+     * @param shapes the shapes to highlight
+     */
+    public void showAll(Collection<? extends SelectableShape> shapes) {
+        List<PathElement> newOutlines = new ArrayList<>();
+        List<PathElement> newHandles = new ArrayList<>();
+        for (SelectableShape shape : shapes) {
+            if (shape == null || entries.containsKey(shape)) {
+                continue;
+            }
+            Entry entry = new Entry((Node) shape);
+            entries.put(shape, entry);
+            newOutlines.addAll(Arrays.asList(entry.outline));
+            newHandles.addAll(Arrays.asList(entry.handles));
+            entry.node.boundsInParentProperty().addListener(entry.boundsListener);
+            dirtyEntries.add(entry);
+        }
+        outlines.getElements().addAll(newOutlines);
+        handles.getElements().addAll(newHandles);
+        requestLayout();
+    }
+
+    /**
+     * Stops highlighting the given shape and releases its path elements.
+     * <p>
+     * Does nothing if the shape is not shown.
+     * </p>
+     *
+     * @param shape the shape to stop highlighting
+     */
+    public void hide(SelectableShape shape) {
+        hideAll(Collections.singletonList(shape));
+    }
+
+    /**
+     * Stops highlighting all the given shapes at once.
+     * <p>
+     * The path elements of every shape are removed in a single update of each path,
+     * so deleting a large selection costs one pass over the elements. Shapes that are
+     * not shown are skipped.
+     * </p>
+     *
+     * @param shapes the shapes to stop highlighting
+     */
+    public void hideAll(Collection<? extends SelectableShape> shapes) {
+        Set<PathElement> removedOutlines = new HashSet<>();
+        Set<PathElement> removedHandles = new HashSet<>();
+        for (SelectableShape shape : shapes) {
+            Entry entry = entries.remove(shape);
+            if (entry == null) {
+                continue;
+            }
+            entry.node.boundsInParentProperty().removeListener(entry.boundsListener);
+            removedOutlines.addAll(Arrays.asList(entry.outline));
+            removedHandles.addAll(Arrays.asList(entry.handles));
+            dirtyEntries.remove(entry);
+        }
+        if (entries.isEmpty()) {
+            outlines.getElements().clear();
+            handles.getElements().clear();
+        } else if (!removedOutlines.isEmpty()) {
+            outlines.getElements().removeAll(removedOutlines);
+            handles.getElements().removeAll(removedHandles);
+        }
+    }
+
+    /**
+     * Stops highlighting every shape.
+     */
+    public void clear() {
+        for (Entry entry : entries.values()) {
+            entry.node.boundsInParentProperty().removeListener(entry.boundsListener);
+        }
+        entries.clear();
+        dirtyEntries.clear();
+        outlines.getElements().clear();
+        handles.getElements().clear();
+    }
+
+    /**
+     * Shows the outline of a rubber-band selection.
+     * <p>
+     * The path elements are reused between calls: only the missing ones are allocated when the
+     * outline grows (e.g. a lasso getting longer), and the existing ones are moved in place.
+     * </p>
+     *
+     * @param canvasPoints the vertices of the closed outline, as a flat {@code x, y} array in canvas coordinates
+     */
+    public void showRubberBand(double[] canvasPoints) {
+        int count = canvasPoints.length / 2;
+        ObservableList<PathElement> elements = rubberBand.getElements();
+        if (count == 0) {
+            elements.clear();
+            return;
+        }
+        if (elements.size() != count + 1) {
+            List<PathElement> resized = new ArrayList<>(count + 1);
+            resized.add(elements.isEmpty() ? new MoveTo() : elements.get(0));
+            for (int i = 1; i < count; i++) {
+                resized.add(i < elements.size() - 1 ? elements.get(i) : new LineTo());
+            }
+            resized.add(new ClosePath());
+            elements.setAll(resized);
+        }
+        for (int i = 0; i < count; i++) {
+            Point2D point = sceneToLocal(drawingCanvas.localToScene(canvasPoints[2 * i], canvasPoints[2 * i + 1]));
+            if (i == 0) {
+                ((MoveTo) elements.get(0)).setX(point.getX());
+                ((MoveTo) elements.get(0)).setY(point.getY());
+            } else {
+                ((LineTo) elements.get(i)).setX(point.getX());
+                ((LineTo) elements.get(i)).setY(point.getY());
+            }
+        }
+    }
+
+    /**
+     * Hides the outline of the rubber-band selection.
+     */
+    public void clearRubberBand() {
+        rubberBand.getElements().clear();
+    }
+
+    /**
+     * Returns the path drawing the rubber-band selection.
+     *
+     * @return the rubber-band path, empty when no rubber-band selection is in progress
+     */
+    public Path getRubberBand() {
+        return rubberBand;
+    }
+
+    /**
+     * Shows the snapping guides, replacing the previous ones.
+     *
+     * @param canvasSegments the guides as {@code {x1, y1, x2, y2}} segments in canvas coordinates
+     */
+    public void showGuides(List<double[]> canvasSegments) {
+        List<PathElement> elements = new ArrayList<>(canvasSegments.size() * 2);
+        for (double[] segment : canvasSegments) {
+            Point2D from = sceneToLocal(drawingCanvas.localToScene(segment[0], segment[1]));
+            Point2D to = sceneToLocal(drawingCanvas.localToScene(segment[2], segment[3]));
+            elements.add(new MoveTo(from.getX(), from.getY()));
+            elements.add(new LineTo(to.getX(), to.getY()));
+        }
+        guides.getElements().setAll(elements);
+    }
+
+    /**
+     * Hides the snapping guides.
+     */
+    public void clearGuides() {
+        guides.getElements().clear();
+    }
+
+    /**
+     * Returns the path drawing the snapping guides.
+     *
+     * @return the guide path, empty when no guide is shown
+     */
+    public Path getGuides() {
+        return guides;
+    }
+
+    /**
+     * Checks whether the given shape is currently highlighted.
+     *
+     * @param shape the shape to check
+     * @return {@code true} if the overlay is drawing the shape's outline, {@code false} otherwise
+     */
+    public boolean isShown(SelectableShape shape) {
+        return entries.containsKey(shape);
+    }
+
+    /**
+     * Returns the path holding the outlines of the selected shapes.
+     *
+     * @return the outline path
+     */
+    public Path getOutlines() {
+        return outlines;
+    }
+
+    /**
+     * Returns the path holding the corner handles of the selected shapes.
+     *
+     * @return the handle path
+     */
+    public Path getHandles() {
+        return handles;
+    }
+
+    /**
+     * Recomputes the path elements of the entries marked as dirty since the last pass.
+     */
+    @Override
+    protected void layoutChildren() {
+        super.layoutChildren();
+        if (allDirty) {
+            entries.values().forEach(this::update);
+        } else {
+            dirtyEntries.forEach(this::update);
+        }
+        allDirty = false;
+        dirtyEntries.clear();
+    }
+
+    /**
+     * Marks a single entry as needing an update and schedules a layout pass.
+     */
+    private void markDirty(Entry entry) {
+        dirtyEntries.add(entry);
+        requestLayout();
+    }
+
+    /**
+     * Marks every entry as needing an update and schedules a layout pass.
+     */
+    private void invalidateAll() {
+        if (!entries.isEmpty()) {
+            allDirty = true;
+            requestLayout();
+        }
+    }
+
+    /**
+     * Moves the path elements of an entry onto the current corners of its shape.
+     * <p>
+     * The corners of the shape's local bounds are mapped through the scene, so the outline follows
+     * rotations and flips of the shape as well as the zoom of the canvas, while the stroke width and
+     * the handle size stay constant in screen pixels.
+     * </p>
+     */
+    private void update(Entry entry) {
+        Bounds bounds = entry.node.getLayoutBounds();
+        Point2D[] corners = {
+                toOverlay(entry.node, bounds.getMinX(), bounds.getMinY()),
+                toOverlay(entry.node, bounds.getMaxX(), bounds.getMinY()),
+                toOverlay(entry.node, bounds.getMaxX(), bounds.getMaxY()),
+                toOverlay(entry.node, bounds.getMinX(), bounds.getMaxY())
+        };
+
+        ((MoveTo) entry.outline[0]).setX(corners[0].getX());
+        ((MoveTo) entry.outline[0]).setY(corners[0].getY());
+        for (int i = 1; i < corners.length; i++) {
+            ((LineTo) entry.outline[i]).setX(corners[i].getX());
+            ((LineTo) entry.outline[i]).setY(corners[i].getY());
+        }
+
+        double half = HANDLE_SIZE / 2;
+        for (int i = 0; i < corners.length; i++) {
+            int base = i * Entry.ELEMENTS_PER_HANDLE;
+            double x = corners[i].getX();
+            double y = corners[i].getY();
+            ((MoveTo) entry.handles[base]).setX(x - half);
+            ((MoveTo) entry.handles[base]).setY(y - half);
+            ((LineTo) entry.handles[base + 1]).setX(x + half);
+            ((LineTo) entry.handles[base + 1]).setY(y - half);
+            ((LineTo) entry.handles[base + 2]).setX(x + half);
+            ((LineTo) entry.handles[base + 2]).setY(y + half);
+            ((LineTo) entry.handles[base + 3]).setX(x - half);
+            ((LineTo) entry.handles[base + 3]).setY(y + half);
+        }
+    }
+
+    /**
+     * Converts a point from the local coordinates of a shape to the coordinates of this overlay.
+     */
+    private Point2D toOverlay(Node node, double x, double y) {
+        return sceneToLocal(node.localToScene(x, y));
+    }
+
+    /**
+     * The path elements and the bounds listener owned by a single highlighted shape.
+     */
+    private final class Entry {
+
+        /**
+         * Number of path elements used to draw a single handle: a move, three lines and a close.
+         */
+        private static final int ELEMENTS_PER_HANDLE = 5;
+
+        /**
+         * Number of corners, and therefore handles, of a selection outline.
+         */
+        private static final int CORNERS = 4;
+
+        /**
+         * The highlighted shape.
+         */
+        private final Node node;
+
+        /**
+         * The elements of the outline: a move, three lines and a close.
+         */
+        private final PathElement[] outline = new PathElement[CORNERS + 1];
+
+        /**
+         * The elements of the four corner handles.
+         */
+        private final PathElement[] handles = new PathElement[CORNERS * ELEMENTS_PER_HANDLE];
+
+        /**
+         * Marks this entry as dirty whenever the shape's bounds change.
+         */
+        private final ChangeListener<Bounds> boundsListener = (observable, oldValue, newValue) -> markDirty(this);
+
+        /**
+         * Allocates the path elements for the given shape.
+         *
+         * @param node the shape to highlight
+         */
+        private Entry(Node node) {
+            this.node = node;
+            outline[0] = new MoveTo();
+            for (int i = 1; i < CORNERS; i++) {
+                outline[i] = new LineTo();
+            }
+            outline[CORNERS] = new ClosePath();
+            for (int i = 0; i < CORNERS; i++) {
+                int base = i * ELEMENTS_PER_HANDLE;
+                handles[base] = new MoveTo();
+                handles[base + 1] = new LineTo();
+                handles[base + 2] = new LineTo();
+                handles[base + 3] = new LineTo();
+                handles[base + 4] = new ClosePath();
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package group2128.sadproject.sadproject.view;
+
+import javafx.scene.Node;
+
+/**
+ * Combines the independent reasons for which a shape of the canvas can be hidden.
+ * <p>
+ * Several components hide shapes for their own purposes: the {@link CanvasViewport} culls the shapes
+ * outside the frustum, and the layers hide the shapes of hidden layers. Each one sets or clears its
+ * own reason, and a shape is visible only when no reason is left, so showing a shape again for one
+ * reason never reveals a shape hidden for another one.
+ * </p>
+ * <p>
+ * The reasons are stored in the properties of the node. Nodes that were never hidden through this
+ * class are left untouched.
+ * </p>
+ */
+public final class ShapeVisibility {
+
+    /**
+     * The shape is outside the frustum of the viewport.
+     */
+    public static final int CULLED = 1;
+
+    /**
+     * The shape belongs to a hidden layer.
+     */
+    public static final int LAYER = 1 << 1;
+
+    /**
+     * The key under which the reasons are stored in the node properties.
+     */
+    private static final Object PROPERTY_KEY = ShapeVisibility.class;
+
+    private ShapeVisibility() {
+    }
+
+    /**
+     * Sets or clears a reason to hide a shape, and updates its visibility.
+     *
+     * @param node   the shape
+     * @param reason one of the reason constants
+     * @param hidden {@code true} to hide the shape for this reason, {@code false} to clear the reason
+     */
+    public static void setHidden(Node node, int reason, boolean hidden) {
+        int reasons = getReasons(node);
+        int updated = hidden ? reasons | reason : reasons & ~reason;
+        if (updated == reasons) {
+            return;
+        }
+        if (updated == 0) {
+            node.getProperties().remove(PROPERTY_KEY);
+        } else {
+            node.getProperties().put(PROPERTY_KEY, updated);
+        }
+        node.setVisible(updated == 0);
+    }
+
+    /**
+     * Checks whether a shape is hidden for the given reason.
+     *
+     * @param node   the shape
+     * @param reason one of the reason constants
+     * @return {@code true} if the reason is set
+     */
+    public static boolean isHidden(Node node, int reason) {
+        return (getReasons(node) & reason) != 0;
+    }
+
+    /**
+     * Checks whether a shape would be visible if the given reasons were cleared.
+     * <p>
+     * Views showing the whole drawing use it to include the culled shapes, while still leaving out
+     * the shapes of hidden layers.
+     * </p>
+     *
+     * @param node    the shape
+     * @param ignored the reasons to ignore, combined with {@code |}
+     * @return {@code true} if the shape is visible or only hidden for ignored reasons
+     */
+    public static boolean isShownIgnoring(Node node, int ignored) {
+        int reasons = getReasons(node);
+        return reasons == 0 ? node.isVisible() : (reasons & ~ignored) == 0;
+    }
+
+    /**
+     * Returns the reasons set on a shape.
+     */
+    private static int getReasons(Node node) {
+        if (!node.hasProperties()) {
+            return 0;
+        }
+        Object reasons = node.getProperties().get(PROPERTY_KEY);
+        return reasons instanceof Integer ? (Integer) reasons : 0;
+    }
+}
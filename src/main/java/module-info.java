@@ -8,5 +8,12 @@ module group2128.sadproject.sadproject {
     requires org.json;
 
     opens group2128.sadproject.sadproject to javafx.fxml;
+    opens group2128.sadproject.sadproject.view to javafx.fxml;
     exports group2128.sadproject.sadproject;
+    exports group2128.sadproject.sadproject.view;
+    exports group2128.sadproject.sadproject.spatial;
+    exports group2128.sadproject.sadproject.layers;
+    exports group2128.sadproject.sadproject.styles;
+    exports group2128.sadproject.sadproject.symbols;
+    exports group2128.sadproject.sadproject.io;
 }
\ No newline at end of file
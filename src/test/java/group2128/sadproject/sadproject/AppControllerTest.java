@@ -4,6 +4,7 @@ import group2128.sadproject.sadproject.commands.CopyCommand;
 import group2128.sadproject.sadproject.commands.PasteCommand;
 import group2128.sadproject.sadproject.factory.*;
 import group2128.sadproject.sadproject.strategy.*;
+import group2128.sadproject.sadproject.view.GridLayer;
 import javafx.beans.property.DoubleProperty;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXMLLoader;
@@ -2600,29 +2601,27 @@ public class AppControllerTest {
     }
 
     /**
-     * Tests the toggle functionality of showing and hiding the background grid on the grid pane.
+     * Tests the toggle functionality of showing and hiding the background grid layer.
      * <p>
      * The test simulates a user clicking on the grid checkbox (with ID "#gridCB") to first enable
-     * the grid and then disable it. It verifies that a CSS class starting with "grid-" is added
-     * when the grid is shown, and removed when the grid is hidden.
+     * the grid and then disable it. It verifies that the grid layer is shown when the box is checked,
+     * and hidden when it is unchecked.
      *
      * @param robot the TestFX robot used to interact with the UI components
      */
     @Test
     void testShowHideGrid(FxRobot robot) {
-        Node gridPane = robot.lookup("#gridPane").query();
+        GridLayer gridLayer = robot.lookup("#gridLayer").queryAs(GridLayer.class);
 
         robot.clickOn("#gridCB");
 
-        assertThat(gridPane.getStyleClass().stream()
-                .anyMatch(c -> c.startsWith("grid-"))).isTrue();
+        assertThat(gridLayer.isVisible()).isTrue();
 
         
 
         robot.clickOn("#gridCB");
 
-        assertThat(gridPane.getStyleClass().stream()
-                .anyMatch(c -> c.startsWith("grid-"))).isFalse();
+        assertThat(gridLayer.isVisible()).isFalse();
     }
 
     /**
@@ -2630,7 +2629,7 @@ public class AppControllerTest {
      * <p>
      * The test first enables the grid, then sets the slider (with ID "#gridBlockSizeSlider") to increasing
      * values corresponding to predefined grid block sizes. After each change, it checks that the
-     * correct "grid-X" CSS class is applied to reflect the new grid size.
+     * grid layer uses the new spacing.
      * <p>
      * Grid sizes tested: 5, 10, 20, 50, 100 pixels.
      *
@@ -2638,7 +2637,7 @@ public class AppControllerTest {
      */
     @Test
     void testIncreaseGridBlockSize(FxRobot robot) {
-        Node gridPane = robot.lookup("#gridPane").query();
+        GridLayer gridLayer = robot.lookup("#gridLayer").queryAs(GridLayer.class);
 
         robot.clickOn("#gridCB");
 
@@ -2659,8 +2658,7 @@ public class AppControllerTest {
 
              
 
-            assertThat(gridPane.getStyleClass().stream()
-                    .anyMatch(c -> c.startsWith("grid-" + String.valueOf(size)))).isTrue();
+            assertThat(gridLayer.getSpacing()).isEqualTo(size);
         }
     }
 
@@ -2669,7 +2667,7 @@ public class AppControllerTest {
      * <p>
      * The test first enables the grid and then sets the slider (with ID "#gridBlockSizeSlider") to decreasing
      * values corresponding to predefined grid block sizes in reverse. After each change, it verifies that the
-     * correct "grid-X" CSS class is applied to reflect the updated grid size.
+     * grid layer uses the updated spacing.
      * <p>
      * Grid sizes tested in reverse: 100, 50, 20, 10, 5 pixels.
      *
@@ -2677,7 +2675,7 @@ public class AppControllerTest {
      */
     @Test
     void testDecreaseGridBlockSize(FxRobot robot) {
-        Node gridPane = robot.lookup("#gridPane").query();
+        GridLayer gridLayer = robot.lookup("#gridLayer").queryAs(GridLayer.class);
 
         robot.clickOn("#gridCB");
 
@@ -2698,8 +2696,7 @@ public class AppControllerTest {
 
              
 
-            assertThat(gridPane.getStyleClass().stream()
-                    .anyMatch(c -> c.startsWith("grid-" + String.valueOf(size)))).isTrue();
+            assertThat(gridLayer.getSpacing()).isEqualTo(size);
         }
     }
 
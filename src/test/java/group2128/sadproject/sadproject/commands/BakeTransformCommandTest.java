@@ -0,0 +1,184 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.EllipseShape;
+import group2128.sadproject.sadproject.factory.GroupShape;
+import group2128.sadproject.sadproject.factory.PolygonShape;
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import group2128.sadproject.sadproject.factory.SegmentShape;
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.factory.ShapeTransform;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link BakeTransformCommand} class and the bake of the transform of each kind of shape.
+ */
+class BakeTransformCommandTest {
+
+    private static final double DELTA = 1e-6;
+
+    /**
+     * The precision of the bounds computed by JavaFX, which uses floats.
+     */
+    private static final double BOUNDS_DELTA = 1e-3;
+
+    private AnchorPane canvas;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+    }
+
+    /**
+     * Bakes the given shapes with the command, asserting that each one stays within the bounds it was
+     * drawn in. The bounds may shrink: JavaFX bounds the stroke of a rotated shape loosely.
+     */
+    private BakeTransformCommand bake(SelectableShape... shapes) {
+        Bounds[] before = new Bounds[shapes.length];
+        for (int i = 0; i < shapes.length; i++) {
+            before[i] = ((Node) shapes[i]).getBoundsInParent();
+        }
+        BakeTransformCommand command = new BakeTransformCommand();
+        command.setDrawingCanvas(canvas);
+        command.setSelectedShapes(List.of(shapes));
+        command.saveBackup();
+        command.execute();
+        for (int i = 0; i < shapes.length; i++) {
+            Bounds after = ((Node) shapes[i]).getBoundsInParent();
+            assertTrue(after.getMinX() >= before[i].getMinX() - BOUNDS_DELTA);
+            assertTrue(after.getMinY() >= before[i].getMinY() - BOUNDS_DELTA);
+            assertTrue(after.getMaxX() <= before[i].getMaxX() + BOUNDS_DELTA);
+            assertTrue(after.getMaxY() <= before[i].getMaxY() + BOUNDS_DELTA);
+        }
+        return command;
+    }
+
+    /**
+     * Asserts that a node is left with no rotation and a scale of 1.
+     */
+    private static void assertIdentityTransform(Node node) {
+        assertEquals(0, node.getRotate());
+        assertEquals(1, node.getScaleX());
+        assertEquals(1, node.getScaleY());
+    }
+
+    /**
+     * Tests that the rotation and flip of a polygon are moved into its vertices.
+     */
+    @Test
+    void testBakePolygon() {
+        PolygonShape polygon = new PolygonShape(Color.WHITE, Color.BLACK, Arrays.asList(0.0, 0.0, 40.0, 0.0, 40.0, 20.0));
+        polygon.setRotation(90);
+        polygon.setScaleX(-1);
+        canvas.getChildren().add(polygon);
+        Double[] expected = polygon.getShapeTransform().transformCoordinates(polygon.getPoints());
+
+        assertEquals(0, bake(polygon).getUnbakedCount());
+        assertIdentityTransform(polygon);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], polygon.getPoints().get(i), DELTA);
+        }
+        // the polygon is turned by a quarter and mirrored, so its horizontal edge becomes vertical
+        assertEquals(polygon.getPoints().get(0), polygon.getPoints().get(2), DELTA);
+    }
+
+    /**
+     * Tests that a segment bakes any rotation into its end points.
+     */
+    @Test
+    void testBakeSegment() {
+        SegmentShape segment = new SegmentShape(null, Color.BLACK, 0, 0, 100, 0);
+        segment.setRotation(30);
+        canvas.getChildren().add(segment);
+
+        bake(segment);
+        assertIdentityTransform(segment);
+        assertEquals(100, Math.hypot(segment.getEndX() - segment.getStartX(), segment.getEndY() - segment.getStartY()), DELTA);
+        assertEquals(50, (segment.getStartX() + segment.getEndX()) / 2, DELTA);
+        assertEquals(0, (segment.getStartY() + segment.getEndY()) / 2, DELTA);
+    }
+
+    /**
+     * Tests that a quarter turn of a rectangle swaps its sides, while an arbitrary rotation is kept.
+     */
+    @Test
+    void testBakeRectangle() {
+        RectangleShape turned = new RectangleShape(Color.WHITE, Color.BLACK, 50, 50, 60, 20);
+        turned.setRotation(90);
+        turned.setScaleY(-1);
+        RectangleShape tilted = new RectangleShape(Color.WHITE, Color.BLACK, 200, 50, 60, 20);
+        tilted.setRotation(30);
+        canvas.getChildren().addAll(turned, tilted);
+
+        assertEquals(1, bake(turned, tilted).getUnbakedCount());
+        assertIdentityTransform(turned);
+        assertEquals(20, turned.getWidth(), DELTA);
+        assertEquals(60, turned.getHeight(), DELTA);
+        assertEquals(50, turned.getAnchorX(), DELTA);
+        assertEquals(50, turned.getAnchorY(), DELTA);
+        assertEquals(30, tilted.getRotation());
+        assertEquals(60, tilted.getWidth());
+    }
+
+    /**
+     * Tests that a flipped and turned ellipse keeps its center and swaps its radii.
+     */
+    @Test
+    void testBakeEllipse() {
+        EllipseShape ellipse = new EllipseShape(Color.WHITE, Color.BLACK, 10, 20, 30, 5);
+        ellipse.setRotation(-90);
+        ellipse.setScaleX(-1);
+        canvas.getChildren().add(ellipse);
+
+        bake(ellipse);
+        assertIdentityTransform(ellipse);
+        assertEquals(10, ellipse.getCenterX(), DELTA);
+        assertEquals(20, ellipse.getCenterY(), DELTA);
+        assertEquals(5, ellipse.getRadiusX(), DELTA);
+        assertEquals(30, ellipse.getRadiusY(), DELTA);
+    }
+
+    /**
+     * Tests that the transform of a group is pushed into its members and baked there, and that undo
+     * restores the canvas.
+     */
+    @Test
+    void testBakeGroupAndUndo() {
+        PolygonShape polygon = new PolygonShape(Color.WHITE, Color.BLACK, Arrays.asList(0.0, 0.0, 40.0, 0.0, 40.0, 20.0));
+        SegmentShape segment = new SegmentShape(null, Color.BLACK, 60, 0, 100, 30);
+        segment.setRotation(10);
+        GroupShape group = new GroupShape(List.of(polygon, segment));
+        group.setRotation(25);
+        group.setScaleX(-1);
+        group.moveBy(15, 5);
+        canvas.getChildren().add(group);
+        Point2D corner = ShapeTransform.localToAncestor(polygon, canvas).transform(40, 20);
+        Point2D end = ShapeTransform.localToAncestor(segment, canvas).transform(100, 30);
+
+        BakeTransformCommand command = bake(group);
+        assertEquals(0, command.getUnbakedCount());
+        assertIdentityTransform(group);
+        assertIdentityTransform(polygon);
+        assertIdentityTransform(segment);
+        assertEquals(15, group.getTranslateX());
+        assertEquals(corner.getX(), polygon.getPoints().get(4) + 15, BOUNDS_DELTA);
+        assertEquals(corner.getY(), polygon.getPoints().get(5) + 5, BOUNDS_DELTA);
+        assertEquals(end.getX(), segment.getEndX() + 15, BOUNDS_DELTA);
+        assertEquals(end.getY(), segment.getEndY() + 5, BOUNDS_DELTA);
+
+        command.undo();
+        GroupShape restored = (GroupShape) canvas.getChildren().get(0);
+        assertEquals(25, restored.getRotation(), DELTA);
+        assertEquals(-1, restored.getScaleX());
+    }
+}
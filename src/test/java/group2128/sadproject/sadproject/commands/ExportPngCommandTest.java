@@ -0,0 +1,86 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.EllipseShape;
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import javafx.geometry.BoundingBox;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ExportPngCommand} class.
+ * <p>
+ * The tiles of a canvas are rendered by JavaFX snapshots, so these tests check the exported region of
+ * each scope and the cases where nothing is exported; the encoding is covered by the tests of the
+ * exporter.
+ * </p>
+ */
+class ExportPngCommandTest {
+
+    private static final double DELTA = 1e-9;
+
+    private AnchorPane canvas;
+    private RectangleShape rectangle;
+    private EllipseShape ellipse;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+        rectangle = new RectangleShape(Color.WHITE, null, 50, 50, 20, 10);
+        ellipse = new EllipseShape(Color.WHITE, null, 150, 15, 50, 15);
+        canvas.getChildren().addAll(rectangle, ellipse);
+    }
+
+    private ExportPngCommand command(ExportPngCommand.Scope scope) {
+        ExportPngCommand command = new ExportPngCommand();
+        command.setDrawingCanvas(canvas);
+        command.setScope(scope);
+        return command;
+    }
+
+    /**
+     * Tests the region exported with each scope.
+     */
+    @Test
+    void testRegions() {
+        assertArrayEquals(new double[]{40, 0, 200, 55}, command(ExportPngCommand.Scope.DRAWING).getRegion(), DELTA);
+
+        ExportPngCommand selection = command(ExportPngCommand.Scope.SELECTION);
+        selection.setSelectedShapes(List.of(rectangle));
+        assertArrayEquals(new double[]{40, 45, 60, 55}, selection.getRegion(), DELTA);
+
+        ExportPngCommand view = command(ExportPngCommand.Scope.VIEW);
+        assertNull(view.getRegion());
+        view.setViewBounds(new BoundingBox(-10, 20, 300, 200));
+        assertArrayEquals(new double[]{-10, 20, 290, 220}, view.getRegion(), DELTA);
+    }
+
+    /**
+     * Tests that nothing is exported when the region is empty.
+     */
+    @Test
+    void testNothingToExport() throws IOException {
+        File file = File.createTempFile("testExport", ".png");
+        file.deleteOnExit();
+        long length = file.length();
+
+        ExportPngCommand selection = command(ExportPngCommand.Scope.SELECTION);
+        selection.setOutputFile(file);
+        selection.execute();
+        assertNull(selection.getResult());
+
+        canvas.getChildren().clear();
+        ExportPngCommand drawing = command(ExportPngCommand.Scope.DRAWING);
+        drawing.setOutputFile(file);
+        drawing.execute();
+        assertNull(drawing.getResult());
+        assertEquals(length, file.length());
+    }
+}
@@ -0,0 +1,74 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.EllipseShape;
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import group2128.sadproject.sadproject.factory.SegmentShape;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ExportSvgCommand} class.
+ */
+class ExportSvgCommandTest {
+
+    private AnchorPane canvas;
+    private RectangleShape rectangle;
+    private EllipseShape ellipse;
+    private SegmentShape segment;
+    private File file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        canvas = new AnchorPane();
+        rectangle = new RectangleShape(Color.WHITE, null, 50, 50, 20, 10);
+        ellipse = new EllipseShape(Color.WHITE, null, 150, 15, 50, 15);
+        segment = new SegmentShape(null, Color.BLACK, 0, 0, 10, 10);
+        canvas.getChildren().addAll(rectangle, ellipse, segment);
+        file = File.createTempFile("testExport", ".svg");
+        file.deleteOnExit();
+    }
+
+    private String export(ExportSvgCommand command) throws IOException {
+        command.setDrawingCanvas(canvas);
+        command.setOutputFile(file);
+        command.execute();
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Tests that the whole drawing is exported when nothing is selected.
+     */
+    @Test
+    void testExportDrawing() throws IOException {
+        ExportSvgCommand command = new ExportSvgCommand();
+        String document = export(command);
+        assertEquals(3, command.getReport().getElements());
+        assertTrue(document.contains("<rect"));
+        assertTrue(document.contains("<ellipse"));
+        assertTrue(document.contains("<line"));
+    }
+
+    /**
+     * Tests that only the selected shapes are exported, in their stacking order, framed by the view box.
+     */
+    @Test
+    void testExportSelection() throws IOException {
+        ExportSvgCommand command = new ExportSvgCommand();
+        command.setSelectedShapes(List.of(ellipse, rectangle));
+        String document = export(command);
+        assertEquals(2, command.getReport().getElements());
+        assertFalse(document.contains("<line"));
+        assertTrue(document.indexOf("<rect") < document.indexOf("<ellipse"));
+        assertTrue(document.contains("viewBox=\"40 0 160 55\""), document);
+    }
+}
@@ -0,0 +1,115 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.GroupShape;
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import javafx.scene.Node;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link GroupCommand} and {@link UngroupCommand} classes.
+ * <p>
+ * Five rectangles are placed on a canvas; some of them are grouped, ungrouped and the
+ * operations are undone.
+ * </p>
+ */
+class GroupCommandTest {
+
+    private AnchorPane canvas;
+    private List<SelectableShape> shapes;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+        shapes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            RectangleShape shape = new RectangleShape(Color.WHITE, Color.BLACK, i * 20, 0, 10, 10);
+            shapes.add(shape);
+            canvas.getChildren().add(shape);
+        }
+    }
+
+    /**
+     * Groups the second and the fourth shapes.
+     */
+    private GroupCommand group() {
+        GroupCommand command = new GroupCommand();
+        command.setDrawingCanvas(canvas);
+        command.saveBackup();
+        command.setSelectedShapes(List.of(shapes.get(3), shapes.get(1)));
+        command.execute();
+        return command;
+    }
+
+    /**
+     * Tests that the group takes the place of the topmost member and keeps the members in stacking order.
+     */
+    @Test
+    void testGroup() {
+        GroupShape group = group().getGroup();
+
+        assertNotNull(group);
+        assertEquals(List.of(shapes.get(1), shapes.get(3)), group.getShapes());
+        assertEquals(List.of(shapes.get(0), shapes.get(2), group, shapes.get(4)), canvas.getChildren());
+    }
+
+    /**
+     * Tests that grouping fewer than two shapes does nothing.
+     */
+    @Test
+    void testGroupNeedsTwoShapes() {
+        GroupCommand command = new GroupCommand();
+        command.setDrawingCanvas(canvas);
+        command.setSelectedShape(shapes.get(0));
+        command.execute();
+
+        assertNull(command.getGroup());
+        assertEquals(5, canvas.getChildren().size());
+    }
+
+    /**
+     * Tests that undoing a group restores the original shapes.
+     */
+    @Test
+    void testUndoGroup() {
+        GroupCommand command = group();
+        command.undo();
+
+        assertEquals(5, canvas.getChildren().size());
+        for (Node node : canvas.getChildren()) {
+            assertTrue(node instanceof RectangleShape);
+        }
+    }
+
+    /**
+     * Tests that ungrouping puts the members back at the position of the group and that undo regroups them.
+     */
+    @Test
+    void testUngroupAndUndo() {
+        GroupShape group = group().getGroup();
+        group.setAnchorX(group.getAnchorX() + 100);
+
+        UngroupCommand command = new UngroupCommand();
+        command.setDrawingCanvas(canvas);
+        command.saveBackup();
+        command.setSelectedShapes(List.of(group, shapes.get(0)));
+        command.execute();
+
+        assertEquals(List.of(shapes.get(1), shapes.get(3)), command.getUngroupedShapes());
+        assertEquals(List.of(shapes.get(0), shapes.get(2), shapes.get(1), shapes.get(3), shapes.get(4)), canvas.getChildren());
+        assertEquals(120, shapes.get(1).getAnchorX(), 1e-9);
+        assertEquals(160, shapes.get(3).getAnchorX(), 1e-9);
+
+        command.undo();
+        assertEquals(4, canvas.getChildren().size());
+        assertTrue(canvas.getChildren().get(2) instanceof GroupShape);
+    }
+}
@@ -0,0 +1,86 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import group2128.sadproject.sadproject.io.SvgImporter;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ImportSvgCommand} class.
+ * <p>
+ * The batches are added to the canvas on the importing thread instead of the JavaFX Application Thread,
+ * so the tests run without a JavaFX toolkit.
+ * </p>
+ */
+class ImportSvgCommandTest {
+
+    private AnchorPane canvas;
+    private File file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        canvas = new AnchorPane();
+        canvas.getChildren().add(new RectangleShape(Color.WHITE, Color.BLACK, 10, 10, 20, 20));
+        file = File.createTempFile("testImport", ".svg");
+        file.deleteOnExit();
+    }
+
+    private ImportSvgCommand command() {
+        ImportSvgCommand command = new ImportSvgCommand();
+        command.setDrawingCanvas(canvas);
+        command.setCanvasExecutor(Runnable::run);
+        command.setInputFile(file);
+        command.saveBackup();
+        return command;
+    }
+
+    /**
+     * Tests that the shapes of the document are added on top of the drawing, and that undo removes them.
+     */
+    @Test
+    void testImportAndUndo() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        StringBuilder document = new StringBuilder("<svg xmlns=\"http://www.w3.org/2000/svg\">");
+        for (int i = 0; i < 5000; i++) {
+            document.append("<rect x=\"").append(i % 100).append("\" y=\"").append(i / 100)
+                    .append("\" width=\"1\" height=\"1\" fill=\"red\"/>");
+        }
+        document.append("</svg>");
+        Files.write(file.toPath(), document.toString().getBytes(StandardCharsets.UTF_8));
+
+        ImportSvgCommand command = command();
+        command.execute();
+        SvgImporter.Report report = command.getResult().get(30, TimeUnit.SECONDS);
+        assertEquals(5000, report.getShapes());
+        assertEquals(5001, canvas.getChildren().size());
+        assertEquals(5000, command.getImportedShapes().size());
+        assertSame(command.getImportedShapes().get(4999), canvas.getChildren().get(5000));
+
+        command.undo();
+        assertEquals(1, canvas.getChildren().size());
+    }
+
+    /**
+     * Tests that a malformed document completes the import with an error and leaves the drawing as is.
+     */
+    @Test
+    void testMalformedDocument() throws IOException, InterruptedException {
+        Files.write(file.toPath(), "<svg><rect".getBytes(StandardCharsets.UTF_8));
+        ImportSvgCommand command = command();
+        command.execute();
+        ExecutionException error = assertThrows(ExecutionException.class, () -> command.getResult().get(30, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof IOException);
+        assertEquals(1, canvas.getChildren().size());
+    }
+}
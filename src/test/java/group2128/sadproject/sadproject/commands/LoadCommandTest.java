@@ -112,6 +112,7 @@ public class LoadCommandTest {
         assertThat(r.getEdgeColor()).isEqualTo(Color.BLACK);
         assertThat(r.getDimensionX()).isEqualTo(100.0);
         assertThat(r.getDimensionY()).isEqualTo(80.0);
+        assertThat(r.getStrokeWidth()).isEqualTo(2.0);
         assertThat(r.getRotation()).isEqualTo(0.0);
         assertThat(r.getScaleX()).isEqualTo(1.0);
         assertThat(r.getScaleY()).isEqualTo(1.0);
@@ -0,0 +1,113 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.ArrayPattern;
+import group2128.sadproject.sadproject.factory.ArrayShape;
+import group2128.sadproject.sadproject.factory.GroupShape;
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import javafx.scene.Node;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ReplicateCommand} and {@link ExplodeCommand} classes.
+ * <p>
+ * Three rectangles are placed on a canvas; some of them are replicated into an array, the array
+ * is exploded and the operations are undone.
+ * </p>
+ */
+class ReplicateCommandTest {
+
+    private AnchorPane canvas;
+    private List<SelectableShape> shapes;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+        shapes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            RectangleShape shape = new RectangleShape(Color.WHITE, Color.BLACK, i * 20, 0, 10, 10);
+            shapes.add(shape);
+            canvas.getChildren().add(shape);
+        }
+    }
+
+    /**
+     * Replicates the given shapes into a 50 by 50 grid.
+     */
+    private ReplicateCommand replicate(SelectableShape... selected) {
+        ReplicateCommand command = new ReplicateCommand();
+        command.setDrawingCanvas(canvas);
+        command.setPattern(ArrayPattern.grid(50, 50, 100, 100));
+        command.saveBackup();
+        command.setSelectedShapes(List.of(selected));
+        command.execute();
+        return command;
+    }
+
+    /**
+     * Tests that a single shape becomes the source of an array placed where it was.
+     */
+    @Test
+    void testReplicateSingleShape() {
+        ArrayShape array = replicate(shapes.get(1)).getArray();
+
+        assertNotNull(array);
+        assertSame(shapes.get(1), array.getSource());
+        assertEquals(2500, array.getChildren().size());
+        assertEquals(List.of(shapes.get(0), array, shapes.get(2)), canvas.getChildren());
+    }
+
+    /**
+     * Tests that several shapes are grouped, in stacking order, into the source of the array.
+     */
+    @Test
+    void testReplicateSeveralShapes() {
+        ArrayShape array = replicate(shapes.get(2), shapes.get(0)).getArray();
+
+        GroupShape source = (GroupShape) array.getSource();
+        assertEquals(List.of(shapes.get(0), shapes.get(2)), source.getShapes());
+        assertEquals(List.of(shapes.get(1), array), canvas.getChildren());
+    }
+
+    /**
+     * Tests that the whole array is undone at once.
+     */
+    @Test
+    void testUndoReplicate() {
+        List<Node> before = new ArrayList<>(canvas.getChildren());
+        replicate(shapes.get(0), shapes.get(1)).undo();
+
+        assertEquals(before.size(), canvas.getChildren().size());
+        assertTrue(canvas.getChildren().stream().noneMatch(node -> node instanceof ArrayShape));
+    }
+
+    /**
+     * Tests that exploding replaces the array with one standalone shape per copy.
+     */
+    @Test
+    void testExplode() {
+        ArrayShape array = replicate(shapes.get(1)).getArray();
+        array.setPattern(ArrayPattern.linear(3, 50, 0));
+
+        ExplodeCommand explode = new ExplodeCommand();
+        explode.setDrawingCanvas(canvas);
+        explode.setSelectedShapes(List.of(array, shapes.get(0)));
+        explode.execute();
+
+        List<SelectableShape> exploded = explode.getExplodedShapes();
+        assertEquals(3, exploded.size());
+        assertEquals(20, exploded.get(0).getAnchorX(), 1e-9);
+        assertEquals(120, exploded.get(2).getAnchorX(), 1e-9);
+        assertEquals(5, canvas.getChildren().size());
+        assertSame(shapes.get(0), canvas.getChildren().get(0));
+        assertSame(exploded.get(0), canvas.getChildren().get(1));
+    }
+}
@@ -6,6 +6,7 @@ import group2128.sadproject.sadproject.factory.PolygonShape;
 import group2128.sadproject.sadproject.factory.RectangleShape;
 import group2128.sadproject.sadproject.factory.SegmentShape;
 import group2128.sadproject.sadproject.factory.TextShape;
+import group2128.sadproject.sadproject.styles.StyleManager;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -231,6 +232,37 @@ public class SaveCommandTest {
     /**
      * Tests saving a PolygonShape to JSON.
      */
+    /**
+     * Tests that a shape whose look no longer matches its style is saved with its own values and
+     * without the style, so loading it does not restyle it.
+     */
+    @Test
+    void testSaveShapeDivergedFromStyle(FxRobot robot) throws IOException {
+        final File tempFile = File.createTempFile("testStyleSave", ".json");
+        tempFile.deleteOnExit();
+
+        robot.interact(() -> {
+            AnchorPane canvas = controller.getDrawingContext().getDrawingParams().getDrawingCanvas();
+
+            RectangleShape rect = new RectangleShape(Color.RED, Color.BLACK, 150, 160, 120, 90);
+            canvas.getChildren().add(rect);
+            StyleManager styles = StyleManager.of(canvas);
+            styles.assign(rect, styles.addStyle("Thick", Color.RED, Color.BLACK, 6));
+            rect.setStrokeWidth(1.5);
+
+            SaveCommand saveCommand = new SaveCommand();
+            saveCommand.setDrawingCanvas(canvas);
+            saveCommand.setStage(stage);
+            saveCommand.setOutputFile(tempFile);
+            saveCommand.execute();
+        });
+
+        String content = new String(Files.readAllBytes(tempFile.toPath()), StandardCharsets.UTF_8);
+        JSONObject rectJson = new JSONObject(content).getJSONArray("shapes").getJSONObject(0);
+        assertThat(rectJson.has("style")).isFalse();
+        assertThat(rectJson.getDouble("strokeWidth")).isEqualTo(1.5);
+    }
+
     @Test
     void testSavePolygonShapeToJson(FxRobot robot) throws IOException {
         final File tempFile = File.createTempFile("testPolygonSave", ".json");
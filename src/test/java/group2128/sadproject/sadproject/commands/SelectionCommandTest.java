@@ -0,0 +1,153 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import javafx.scene.Node;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the batch behavior of the commands extending {@link SelectionCommand}.
+ * <p>
+ * Each test applies a single command to several shapes and checks that all of them are
+ * affected, and that one undo restores the whole canvas.
+ * </p>
+ */
+class SelectionCommandTest {
+
+    private AnchorPane canvas;
+    private List<SelectableShape> shapes;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+        shapes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            RectangleShape shape = new RectangleShape(Color.WHITE, Color.BLACK, i * 10, 0, 10, 10);
+            shapes.add(shape);
+            canvas.getChildren().add(shape);
+        }
+    }
+
+    /**
+     * Tests that a fill color change applies to every selected shape and is undone in one step.
+     */
+    @Test
+    void testBatchFillColor() {
+        ChangeFillColorCommand command = new ChangeFillColorCommand();
+        command.setDrawingCanvas(canvas);
+        command.saveBackup();
+        command.setSelectedShapes(shapes.subList(1, 4));
+        command.setSelectedColor(Color.RED);
+        command.execute();
+
+        assertEquals(Color.WHITE, shapes.get(0).getFillColor());
+        for (SelectableShape shape : shapes.subList(1, 4)) {
+            assertEquals(Color.RED, shape.getFillColor());
+        }
+
+        command.undo();
+        assertEquals(5, canvas.getChildren().size());
+        for (Node node : canvas.getChildren()) {
+            assertEquals(Color.WHITE, ((SelectableShape) node).getFillColor());
+        }
+    }
+
+    /**
+     * Tests that deleting a selection removes all of its shapes and nothing else.
+     */
+    @Test
+    void testBatchDelete() {
+        DeleteCommand command = new DeleteCommand();
+        command.setDrawingCanvas(canvas);
+        command.saveBackup();
+        command.setSelectedShapes(List.of(shapes.get(0), shapes.get(2), shapes.get(4)));
+        command.execute();
+
+        assertEquals(List.of(shapes.get(1), shapes.get(3)), canvas.getChildren());
+
+        command.undo();
+        assertEquals(5, canvas.getChildren().size());
+    }
+
+    /**
+     * Tests that bringing several shapes to the front keeps their relative order.
+     */
+    @Test
+    void testBatchForegroundKeepsOrder() {
+        ForegroundCommand command = new ForegroundCommand();
+        command.setSelectedShapes(List.of(shapes.get(3), shapes.get(0)));
+        command.execute();
+
+        assertEquals(List.of(shapes.get(1), shapes.get(2), shapes.get(4), shapes.get(0), shapes.get(3)),
+                canvas.getChildren());
+    }
+
+    /**
+     * Tests that sending several shapes to the back keeps their relative order.
+     */
+    @Test
+    void testBatchBackgroundKeepsOrder() {
+        BackgroundCommand command = new BackgroundCommand();
+        command.setSelectedShapes(List.of(shapes.get(4), shapes.get(2)));
+        command.execute();
+
+        assertEquals(List.of(shapes.get(2), shapes.get(4), shapes.get(0), shapes.get(1), shapes.get(3)),
+                canvas.getChildren());
+    }
+
+    /**
+     * Tests that setting a single shape replaces any previous selection, and that {@code null} clears it.
+     */
+    @Test
+    void testSetSelectedShapeReplacesSelection() {
+        FlipHorizontalCommand command = new FlipHorizontalCommand();
+        command.setSelectedShapes(shapes);
+        command.setSelectedShape(shapes.get(0));
+        assertEquals(List.of(shapes.get(0)), command.getSelectedShapes());
+
+        command.setSelectedShape(null);
+        assertTrue(command.getSelectedShapes().isEmpty());
+        command.execute();
+        assertEquals(1.0, ((Node) shapes.get(0)).getScaleX());
+    }
+
+    /**
+     * Tests that moving several shapes one step forward is undone in one step without a snapshot.
+     */
+    @Test
+    void testBatchBringForwardUndo() {
+        BringForwardCommand command = new BringForwardCommand();
+        command.setDrawingCanvas(canvas);
+        command.setSelectedShapes(List.of(shapes.get(1), shapes.get(3)));
+        command.execute();
+
+        assertEquals(List.of(shapes.get(0), shapes.get(2), shapes.get(1), shapes.get(4), shapes.get(3)),
+                canvas.getChildren());
+        assertNull(command.getDrawingCanvasMemento());
+
+        command.undo();
+        assertEquals(shapes, canvas.getChildren());
+    }
+
+    /**
+     * Tests that sending a shape one step backward stops at the bottom of the canvas.
+     */
+    @Test
+    void testSendBackwardStopsAtBottom() {
+        SendBackwardCommand command = new SendBackwardCommand();
+        command.setSelectedShapes(List.of(shapes.get(0), shapes.get(2)));
+        command.execute();
+
+        assertEquals(List.of(shapes.get(0), shapes.get(2), shapes.get(1), shapes.get(3), shapes.get(4)),
+                canvas.getChildren());
+        assertEquals(1, command.getMoves().size());
+    }
+}
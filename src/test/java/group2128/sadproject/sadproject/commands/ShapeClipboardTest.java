@@ -0,0 +1,131 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.EllipseShape;
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import group2128.sadproject.sadproject.factory.SegmentShape;
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.strategy.DrawingParams;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ShapeClipboard} class and for pasting its content
+ * with a {@link PasteCommand}.
+ * <p>
+ * The clipboard is kept local, so the tests do not depend on the system clipboard.
+ * </p>
+ */
+class ShapeClipboardTest {
+
+    private ShapeClipboard clipboard;
+    private AnchorPane canvas;
+    private RectangleShape rectangle;
+    private EllipseShape ellipse;
+    private SegmentShape segment;
+
+    @BeforeEach
+    void setUp() {
+        clipboard = new ShapeClipboard(false);
+        canvas = new AnchorPane();
+        rectangle = new RectangleShape(Color.WHITE, Color.BLACK, 100, 100, 40, 20);
+        ellipse = new EllipseShape(Color.RED, Color.BLUE, 200, 150, 30, 10);
+        segment = new SegmentShape(Color.BLACK, Color.GREEN, 50, 300, 150, 350);
+        canvas.getChildren().addAll(rectangle, ellipse, segment);
+    }
+
+    /**
+     * Tests that the clipboard starts empty and that copying nothing leaves it empty.
+     */
+    @Test
+    void testEmpty() {
+        assertTrue(clipboard.isEmpty());
+        assertTrue(clipboard.emptyProperty().get());
+        assertTrue(clipboard.paste().isEmpty());
+
+        clipboard.copy(List.of());
+        assertTrue(clipboard.isEmpty());
+    }
+
+    /**
+     * Tests that every paste builds new shapes, and that later changes to the originals
+     * do not affect the copied content.
+     */
+    @Test
+    void testCopyIsSnapshot() {
+        clipboard.copy(List.of(rectangle, ellipse));
+        assertFalse(clipboard.emptyProperty().get());
+        rectangle.setAnchorX(500);
+
+        List<SelectableShape> first = clipboard.paste();
+        List<SelectableShape> second = clipboard.paste();
+        assertEquals(2, first.size());
+        assertNotSame(first.get(0), second.get(0));
+        assertNotSame(rectangle, first.get(0));
+        assertEquals(100, first.get(0).getAnchorX(), 1e-9);
+        assertInstanceOf(EllipseShape.class, first.get(1));
+    }
+
+    /**
+     * Tests that the copy command fills the clipboard with the whole selection and
+     * rebuilds the first shape on demand.
+     */
+    @Test
+    void testCopyCommand() {
+        CopyCommand copy = new CopyCommand();
+        copy.setClipboard(clipboard);
+        copy.setSelectedShapes(List.of(ellipse, segment));
+        copy.execute();
+
+        assertEquals(2, clipboard.paste().size());
+        SelectableShape copied = copy.getCopiedShape();
+        assertInstanceOf(EllipseShape.class, copied);
+        assertSame(copied, copy.getCopiedShape());
+    }
+
+    /**
+     * Tests that pasting adds all the shapes in one batch, keeping their relative positions,
+     * and that a single undo removes all of them.
+     */
+    @Test
+    void testPasteIsOneBatch() {
+        clipboard.copy(List.of(rectangle, ellipse, segment));
+
+        DrawingParams params = new DrawingParams();
+        CommandHistory history = new CommandHistory();
+        params.setCommandHistory(history);
+        params.setDrawingCanvas(canvas);
+
+        PasteCommand paste = new PasteCommand();
+        paste.setDrawingCanvas(canvas);
+        paste.setDrawingParams(params);
+        paste.setClipboard(clipboard);
+        paste.setPasteX(130.0);
+        paste.setPasteY(90.0);
+
+        int[] changes = {0};
+        canvas.getChildren().addListener((javafx.collections.ListChangeListener<javafx.scene.Node>) c -> changes[0]++);
+        paste.saveBackup();
+        paste.execute();
+
+        assertEquals(1, changes[0]);
+        assertEquals(6, canvas.getChildren().size());
+        List<SelectableShape> pasted = paste.getPastedShapes();
+        assertEquals(3, pasted.size());
+        assertEquals(130, pasted.get(0).getAnchorX(), 1e-9);
+        assertEquals(90, pasted.get(0).getAnchorY(), 1e-9);
+        assertEquals(230, pasted.get(1).getAnchorX(), 1e-9);
+        assertEquals(140, pasted.get(1).getAnchorY(), 1e-9);
+        assertEquals(180, ((SegmentShape) pasted.get(2)).getEndPointX(), 1e-9);
+        assertEquals(340, ((SegmentShape) pasted.get(2)).getEndPointY(), 1e-9);
+        assertTrue(history.isEmpty());
+
+        paste.undo();
+        assertEquals(3, canvas.getChildren().size());
+    }
+}
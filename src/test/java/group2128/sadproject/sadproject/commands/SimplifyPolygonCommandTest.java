@@ -0,0 +1,61 @@
+package group2128.sadproject.sadproject.commands;
+
+import group2128.sadproject.sadproject.factory.GroupShape;
+import group2128.sadproject.sadproject.factory.PolygonShape;
+import group2128.sadproject.sadproject.factory.PolygonSimplifier;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SimplifyPolygonCommand} class.
+ */
+class SimplifyPolygonCommandTest {
+
+    /**
+     * Builds a circle approximated by many vertices.
+     */
+    private static PolygonShape circle(double centerX, int vertices) {
+        List<Double> points = new ArrayList<>();
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            points.add(centerX + 50 * Math.cos(angle));
+            points.add(50 * Math.sin(angle));
+        }
+        return new PolygonShape(Color.WHITE, Color.BLACK, points);
+    }
+
+    /**
+     * Tests that a batch of polygons, including grouped ones, is simplified as one undoable step
+     * and that the vertex counts are reported.
+     */
+    @Test
+    void testBatchSimplificationAndUndo() {
+        AnchorPane canvas = new AnchorPane();
+        PolygonShape first = circle(0, 2000);
+        PolygonShape grouped = circle(200, 1000);
+        GroupShape group = new GroupShape(List.of(grouped));
+        canvas.getChildren().addAll(first, group);
+
+        SimplifyPolygonCommand command = new SimplifyPolygonCommand();
+        command.setDrawingCanvas(canvas);
+        command.setSelectedShapes(List.of(first, group));
+        command.setMethod(PolygonSimplifier.Method.VISVALINGAM_WHYATT);
+        command.setTolerance(1);
+        command.saveBackup();
+        command.execute();
+
+        assertEquals(3000, command.getVerticesBefore());
+        assertTrue(command.getVerticesAfter() < 300, String.valueOf(command.getVerticesAfter()));
+        assertEquals(command.getVerticesAfter(), (first.getPointsList().size() + grouped.getPointsList().size()) / 2);
+
+        command.undo();
+        PolygonShape restored = (PolygonShape) canvas.getChildren().get(0);
+        assertEquals(4000, restored.getPointsList().size());
+    }
+}
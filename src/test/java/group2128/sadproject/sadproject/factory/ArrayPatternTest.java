@@ -0,0 +1,73 @@
+package group2128.sadproject.sadproject.factory;
+
+import javafx.geometry.Point2D;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ArrayPattern} class.
+ */
+class ArrayPatternTest {
+
+    /**
+     * Tests the offsets of a linear and of a grid pattern.
+     */
+    @Test
+    void testLinearAndGridOffsets() {
+        ArrayPattern linear = ArrayPattern.linear(4, 10, 5);
+        assertEquals(4, linear.getCount());
+        assertEquals(30, linear.getOffsetX(3), 1e-9);
+        assertEquals(15, linear.getOffsetY(3), 1e-9);
+
+        ArrayPattern grid = ArrayPattern.grid(50, 50, 20, 30);
+        assertEquals(2500, grid.getCount());
+        assertEquals(0, grid.getOffsetX(0), 1e-9);
+        assertEquals(0, grid.getOffsetY(0), 1e-9);
+        // instance 123 is on the third row, 24th column
+        assertEquals(23 * 20, grid.getOffsetX(123), 1e-9);
+        assertEquals(2 * 30, grid.getOffsetY(123), 1e-9);
+        assertEquals(0, grid.getRotation(123), 1e-9);
+    }
+
+    /**
+     * Tests that a radial pattern rotates the instances around its center.
+     */
+    @Test
+    void testRadialTransform() {
+        ArrayPattern radial = ArrayPattern.radial(4, 100, 100, 90);
+        assertEquals(180, radial.getRotation(2), 1e-9);
+
+        Point2D point = radial.transform(1, 150, 100);
+        assertEquals(100, point.getX(), 1e-9);
+        assertEquals(150, point.getY(), 1e-9);
+
+        Point2D back = radial.inverseTransform(1, point.getX(), point.getY());
+        assertEquals(150, back.getX(), 1e-9);
+        assertEquals(100, back.getY(), 1e-9);
+    }
+
+    /**
+     * Tests that the node transforms match {@link ArrayPattern#transform(int, double, double)}.
+     */
+    @Test
+    void testNodeTransformsMatch() {
+        ArrayPattern radial = ArrayPattern.radial(6, 40, -20, 60);
+        javafx.scene.Group node = new javafx.scene.Group();
+        node.getTransforms().setAll(radial.getTransforms(4));
+        Point2D expected = radial.transform(4, 75, 12);
+        Point2D actual = node.localToParent(75, 12);
+        assertEquals(expected.getX(), actual.getX(), 1e-3);
+        assertEquals(expected.getY(), actual.getY(), 1e-3);
+    }
+
+    /**
+     * Tests that a pattern survives serialization, and that an empty pattern is rejected.
+     */
+    @Test
+    void testJsonRoundTrip() {
+        ArrayPattern grid = ArrayPattern.grid(3, 7, 12.5, 8);
+        assertEquals(grid, ArrayPattern.fromJson(grid.toJson()));
+        assertThrows(IllegalArgumentException.class, () -> ArrayPattern.linear(0, 1, 1));
+    }
+}
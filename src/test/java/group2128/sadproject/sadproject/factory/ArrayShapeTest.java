@@ -0,0 +1,130 @@
+package group2128.sadproject.sadproject.factory;
+
+import javafx.geometry.Bounds;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ArrayShape} class.
+ * <p>
+ * A 10 by 10 square centered at (10, 10) is replicated; the tests check the layout of the copies,
+ * hit-testing, editing as a set, copying, serialization and exploding.
+ * </p>
+ */
+class ArrayShapeTest {
+
+    private AnchorPane canvas;
+    private RectangleShape square;
+    private ArrayShape array;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+        square = new RectangleShape(Color.WHITE, Color.BLACK, 10, 10, 10, 10);
+        canvas.getChildren().add(square);
+        array = new ArrayShape(square, ArrayPattern.grid(3, 2, 20, 30));
+        canvas.getChildren().add(array);
+    }
+
+    /**
+     * Tests that the source leaves the canvas and that one copy is rendered per instance.
+     */
+    @Test
+    void testRendersOneCopyPerInstance() {
+        assertSame(square, array.getSource());
+        assertNull(square.getParent());
+        assertEquals(List.of(array), canvas.getChildren());
+        assertEquals(6, array.getChildren().size());
+
+        Bounds bounds = array.getLayoutBounds();
+        Bounds source = square.getBoundsInParent();
+        assertEquals(source.getMinX(), bounds.getMinX(), 1e-9);
+        assertEquals(source.getMaxX() + 40, bounds.getMaxX(), 1e-9);
+        assertEquals(source.getMaxY() + 30, bounds.getMaxY(), 1e-9);
+    }
+
+    /**
+     * Tests that hit-testing finds every copy and nothing between them.
+     */
+    @Test
+    void testContains() {
+        assertTrue(array.contains(10, 10));
+        assertTrue(array.contains(50, 40));
+        assertFalse(array.contains(20, 10));
+
+        array.moveBy(100, 0);
+        assertFalse(array.contains(array.parentToLocal(10, 10)));
+        assertTrue(array.contains(array.parentToLocal(150, 40)));
+    }
+
+    /**
+     * Tests that changing the colors or the pattern re-renders every copy.
+     */
+    @Test
+    void testEditableAsSet() {
+        array.setFillColor(Color.RED);
+        assertEquals(Color.RED, square.getFillColor());
+        for (javafx.scene.Node copy : array.getChildren()) {
+            assertEquals(Color.RED, ((SelectableShape) copy).getFillColor());
+        }
+
+        array.setPattern(ArrayPattern.linear(4, 15, 0));
+        assertEquals(4, array.getChildren().size());
+    }
+
+    /**
+     * Tests that the array is serialized with its source and pattern only, and rebuilt identically.
+     */
+    @Test
+    void testSaveAndLoad() {
+        array.setTranslateX(25);
+        array.setRotation(90);
+        JSONObject obj = new JSONObject();
+        array.saveJson(obj);
+        assertEquals("array", obj.getString("type"));
+        assertEquals("rectangle", obj.getJSONObject("source").getString("type"));
+
+        ArrayShape loaded = (ArrayShape) ShapeLoader.fromJson(obj);
+        assertEquals(array.getPattern(), loaded.getPattern());
+        assertEquals(25, loaded.getTranslateX(), 1e-9);
+        assertEquals(90, loaded.getRotation(), 1e-9);
+        assertEquals(6, loaded.getChildren().size());
+
+        ArrayShape copy = (ArrayShape) array.getCopy();
+        assertNotSame(square, copy.getSource());
+        assertEquals(array.getPattern(), copy.getPattern());
+    }
+
+    /**
+     * Tests that exploding a transformed array keeps every copy where it was on screen.
+     */
+    @Test
+    void testExplodeBakesTransforms() {
+        array.setPattern(ArrayPattern.radial(4, 40, 10, 90));
+        array.setTranslateX(-5);
+        array.setRotation(30);
+
+        List<double[]> centers = new java.util.ArrayList<>();
+        for (javafx.scene.Node copy : array.getChildren()) {
+            Bounds b = copy.getBoundsInParent();
+            javafx.geometry.Point2D center = array.localToParent(b.getCenterX(), b.getCenterY());
+            centers.add(new double[]{center.getX(), center.getY(), copy.getRotate()});
+        }
+
+        List<SelectableShape> shapes = array.explode();
+        assertEquals(4, shapes.size());
+        assertTrue(array.getChildren().isEmpty());
+        for (int i = 0; i < shapes.size(); i++) {
+            assertEquals(centers.get(i)[0], shapes.get(i).getAnchorX(), 1e-6);
+            assertEquals(centers.get(i)[1], shapes.get(i).getAnchorY(), 1e-6);
+            assertEquals(i * 90 + 30, shapes.get(i).getRotation(), 1e-6);
+        }
+    }
+}
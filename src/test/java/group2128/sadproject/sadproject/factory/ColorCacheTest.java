@@ -0,0 +1,55 @@
+package group2128.sadproject.sadproject.factory;
+
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ColorCache} class.
+ */
+class ColorCacheTest {
+
+    /**
+     * Tests that equal colors are interned to the same instance.
+     */
+    @Test
+    void testInternSharesEqualColors() {
+        Color first = ColorCache.intern(Color.rgb(12, 34, 56, 102 / 255.0));
+        Color second = ColorCache.intern(new Color(12 / 255.0, 34 / 255.0, 56 / 255.0, 102 / 255.0));
+        assertSame(first, second);
+        assertNull(ColorCache.intern(null));
+    }
+
+    /**
+     * Tests that colors that are not keyed by their RGBA bits are returned unchanged.
+     */
+    @Test
+    void testInternKeepsUnkeyedColors() {
+        Color color = new Color(0.123456, 0.5, 0.5, 1);
+        assertSame(color, ColorCache.intern(color));
+    }
+
+    /**
+     * Tests that parsed color strings return the shared instance.
+     */
+    @Test
+    void testParse() {
+        Color parsed = ColorCache.parse("0xff0000ff");
+        assertEquals(Color.RED, parsed);
+        assertSame(parsed, ColorCache.parse("0xff0000ff"));
+        assertSame(parsed, ColorCache.intern(Color.RED));
+        assertThrows(IllegalArgumentException.class, () -> ColorCache.parse("not a color"));
+    }
+
+    /**
+     * Tests that copies of a shape share the colors of the original.
+     */
+    @Test
+    void testCopiesShareColors() {
+        RectangleShape rectangle = new RectangleShape(ColorCache.intern(Color.rgb(1, 2, 3)), ColorCache.intern(Color.rgb(4, 5, 6)), 0, 0, 10, 10);
+        RectangleShape copy = (RectangleShape) rectangle.getCopy();
+        assertSame(rectangle.getFillColor(), copy.getFillColor());
+        assertSame(rectangle.getEdgeColor(), copy.getEdgeColor());
+    }
+}
@@ -2,10 +2,7 @@ package group2128.sadproject.sadproject.factory;
 
 import javafx.application.Platform;
 import javafx.scene.Cursor;
-import javafx.scene.effect.DropShadow;
-import javafx.scene.input.MouseButton;
-import javafx.scene.input.MouseEvent;
-import javafx.scene.input.PickResult;
+import javafx.scene.layout.AnchorPane;
 import javafx.scene.paint.Color;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -107,10 +104,10 @@ public class EllipseShapeTest {
     }
 
     /**
-     * Tests that the {@code selectedProperty} is bound to a {@link DropShadow} effect.
+     * Tests that toggling the {@code selectedProperty} does not install a per-shape effect.
      * <p>
-     * When the shape is selected, a blue drop shadow should be applied.
-     * When the shape is deselected, the effect should be removed.
+     * Selection highlighting is drawn by the shared selection overlay, so the shape's
+     * effect must stay {@code null} whether it is selected or not.
      * <p>
      * This test runs on the JavaFX Application Thread using {@link Platform#startup}
      * and waits for completion using a {@link CountDownLatch}.
@@ -125,8 +122,7 @@ public class EllipseShapeTest {
                 assertNull(ellipse.getEffect());
 
                 ellipse.setSelected(true);
-                assertNotNull(ellipse.getEffect());
-                assertInstanceOf(DropShadow.class, ellipse.getEffect());
+                assertNull(ellipse.getEffect());
 
                 ellipse.setSelected(false);
                 assertNull(ellipse.getEffect());
@@ -138,56 +134,31 @@ public class EllipseShapeTest {
     }
 
     /**
-     * Tests the drag initialization and drag behavior of the {@link EllipseShape}.
+     * Tests dragging an {@link EllipseShape} through the {@link ShapeGestureController}.
      * <p>
      * This test verifies that:
      * <ul>
      *   <li>An {@code EllipseShape} can be configured with colors, position, and radius.</li>
-     *   <li>Calling {@code initDrag()} sets up the drag event handlers correctly.</li>
-     *   <li>On mouse press, the cursor changes to {@code CLOSED_HAND} to indicate dragging.</li>
-     *   <li>During mouse drag, the ellipse's position updates correctly based on the initial offset from the press point.</li>
-     *   <li>On mouse release, the cursor reverts to {@code DEFAULT}.</li>
+     *   <li>While the ellipse is dragged, the cursor changes to {@code CLOSED_HAND}.</li>
+     *   <li>The ellipse's position updates correctly based on the initial offset from the press point.</li>
+     *   <li>When the drag ends, the cursor reverts to {@code DEFAULT}.</li>
      * </ul>
      */
     @Test
-    public void testInitDrag() {
+    public void testDrag() {
         EllipseShape ellipse = new EllipseShape(Color.BLACK, Color.RED);
+        ShapeGestureController controller = ShapeGestureController.of(new AnchorPane(ellipse));
         ellipse.setSelected(true);
         ellipse.setAnchorX(100);
         ellipse.setAnchorY(120);
         ellipse.setRadiusX(50);
         ellipse.setRadiusY(100);
-        ellipse.initDrag();
-        MouseEvent pressEvent = new MouseEvent(
-                MouseEvent.MOUSE_PRESSED,
-                150, 150, 150, 150,
-                MouseButton.PRIMARY, 1,
-                false, false, false, false,
-                true, false, false, true, false, false,
-                new PickResult(ellipse, 150, 150)
-        );
-        ellipse.getOnMousePressed().handle(pressEvent);
-        MouseEvent dragEvent = new MouseEvent(
-                MouseEvent.MOUSE_DRAGGED,
-                200, 200, 200, 200,
-                MouseButton.PRIMARY, 1,
-                false, false, false, false,
-                true, false, false, true, false, false,
-                new PickResult(ellipse, 200, 200)
-        );
-        ellipse.getOnMouseDragged().handle(dragEvent);
+        assertTrue(controller.beginDrag(ellipse, 150, 150));
+        controller.dragTo(200, 200);
         assertEquals(Cursor.CLOSED_HAND, ellipse.getCursor());
         assertEquals(150.0, ellipse.getAnchorX(), 0.01);
         assertEquals(170.0, ellipse.getAnchorY(), 0.01);
-        MouseEvent releaseEvent = new MouseEvent(
-                MouseEvent.MOUSE_RELEASED,
-                200, 200, 200, 200,
-                MouseButton.PRIMARY, 1,
-                false, false, false, false,
-                true, false, false, true, false, false,
-                new PickResult(ellipse, 200, 200)
-        );
-        ellipse.getOnMouseReleased().handle(releaseEvent);
+        controller.endDrag();
         assertEquals(Cursor.DEFAULT, ellipse.getCursor());
     }
 
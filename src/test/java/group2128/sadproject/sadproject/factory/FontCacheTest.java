@@ -0,0 +1,24 @@
+package group2128.sadproject.sadproject.factory;
+
+import javafx.scene.text.Font;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link FontCache} class.
+ */
+class FontCacheTest {
+
+    /**
+     * Tests that fonts of the same family and size are shared, and that other sizes are not.
+     */
+    @Test
+    void testFontsAreShared() {
+        String family = Font.getDefault().getFamily();
+        Font font = FontCache.font(family, 17);
+        assertSame(font, FontCache.font(family, 17));
+        assertEquals(17, font.getSize());
+        assertNotSame(font, FontCache.font(family, 18));
+    }
+}
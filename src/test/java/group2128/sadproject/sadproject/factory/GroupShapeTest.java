@@ -0,0 +1,216 @@
+package group2128.sadproject.sadproject.factory;
+
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link GroupShape} class.
+ * <p>
+ * A group of a rectangle and an ellipse is placed on a canvas; the tests check the cached bounds,
+ * hit-testing, the single transform of the group, copying, serialization and ungrouping.
+ * </p>
+ */
+class GroupShapeTest {
+
+    private AnchorPane canvas;
+    private RectangleShape rectangle;
+    private EllipseShape ellipse;
+    private GroupShape group;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+        rectangle = new RectangleShape(Color.WHITE, Color.BLACK, 50, 50, 100, 100);
+        ellipse = new EllipseShape(Color.RED, Color.BLUE, 300, 50, 50, 25);
+        group = new GroupShape(List.of(rectangle, ellipse));
+        canvas.getChildren().add(group);
+    }
+
+    /**
+     * Tests that the members become children of the group, in order.
+     */
+    @Test
+    void testMembers() {
+        assertEquals(List.of(rectangle, ellipse), group.getShapes());
+        assertSame(group, rectangle.getParent());
+    }
+
+    /**
+     * Tests that the aggregate bounds are cached and recomputed when a member changes.
+     */
+    @Test
+    void testMemberBoundsInvalidatedByMemberChange() {
+        double[] bounds = group.getMemberBounds();
+        assertEquals(rectangle.getBoundsInParent().getMinX(), bounds[0], 1e-9);
+        assertEquals(ellipse.getBoundsInParent().getMaxX(), bounds[2], 1e-9);
+        assertEquals(group.getLayoutBounds().getWidth(), group.getDimensionX(), 1e-9);
+
+        ellipse.setCenterX(500);
+        assertEquals(ellipse.getBoundsInParent().getMaxX(), group.getMemberBounds()[2], 1e-9);
+
+        group.getChildren().remove(ellipse);
+        assertEquals(rectangle.getBoundsInParent().getMaxX(), group.getMemberBounds()[2], 1e-9);
+    }
+
+    /**
+     * Tests that hit-testing descends into the members only inside the group bounds.
+     */
+    @Test
+    void testContains() {
+        assertTrue(group.contains(50, 50));
+        assertTrue(group.contains(300, 50));
+        // inside the aggregate bounds, but between the two members
+        assertFalse(group.contains(200, 50));
+        assertFalse(group.contains(1000, 1000));
+
+        group.setTranslateX(100);
+        assertFalse(group.contains(group.parentToLocal(50, 50)));
+        assertTrue(group.contains(group.parentToLocal(150, 50)));
+    }
+
+    /**
+     * Tests that moving, flipping and resizing the group only change the group transform.
+     */
+    @Test
+    void testSingleTransform() {
+        double anchorX = group.getAnchorX();
+        group.setAnchorX(anchorX + 40);
+        group.setAnchorY(group.getAnchorY() - 10);
+        assertEquals(40, group.getTranslateX(), 1e-9);
+        assertEquals(-10, group.getTranslateY(), 1e-9);
+        assertEquals(50, rectangle.getAnchorX(), 1e-9);
+
+        group.setScaleX(-1);
+        double width = group.getDimensionX();
+        group.setDimensionX(width * 2);
+        assertEquals(-2, group.getScaleX(), 1e-9);
+        assertEquals(width * 2, group.getDimensionX(), 1e-9);
+
+        group.setRotation(30);
+        assertEquals(30, group.getRotation(), 1e-9);
+        assertEquals(0, rectangle.getRotation(), 1e-9);
+    }
+
+    /**
+     * Tests that colors are applied to every member.
+     */
+    @Test
+    void testColors() {
+        group.setFillColor(Color.GREEN);
+        group.setEdgeColor(Color.YELLOW);
+        assertEquals(Color.GREEN, rectangle.getFillColor());
+        assertEquals(Color.GREEN, ellipse.getFillColor());
+        assertEquals(Color.YELLOW, group.getEdgeColor());
+    }
+
+    /**
+     * Tests that copying a nested group copies every member and the transform.
+     */
+    @Test
+    void testGetCopyIsDeep() {
+        RectangleShape outside = new RectangleShape(Color.WHITE, Color.BLACK, 500, 500, 10, 10);
+        GroupShape outer = new GroupShape(List.of(group, outside));
+        group.setRotation(45);
+        outer.setTranslateX(20);
+
+        GroupShape copy = (GroupShape) outer.getCopy();
+        assertNotSame(outer, copy);
+        assertEquals(2, copy.getShapes().size());
+        assertEquals(20, copy.getTranslateX(), 1e-9);
+
+        GroupShape innerCopy = (GroupShape) copy.getShapes().get(0);
+        assertNotSame(group, innerCopy);
+        assertEquals(45, innerCopy.getRotation(), 1e-9);
+        assertEquals(2, innerCopy.getShapes().size());
+        assertNotSame(rectangle, innerCopy.getShapes().get(0));
+        assertEquals(rectangle.getAnchorX(), innerCopy.getShapes().get(0).getAnchorX(), 1e-9);
+    }
+
+    /**
+     * Tests that the group is serialized with its transform and nested members.
+     */
+    @Test
+    void testSaveAndLoadJson() {
+        group.setTranslateX(15);
+        group.setScaleY(-1);
+        group.setRotation(90);
+
+        JSONObject obj = new JSONObject();
+        group.saveJson(obj);
+        assertEquals("group", obj.getString("type"));
+        JSONArray shapes = obj.getJSONArray("shapes");
+        assertEquals(2, shapes.length());
+        assertEquals("rectangle", shapes.getJSONObject(0).getString("type"));
+        assertEquals("ellipse", shapes.getJSONObject(1).getString("type"));
+
+        GroupShape loaded = new GroupShape(List.of(new RectangleShape(Color.WHITE, Color.BLACK)));
+        GroupShape.loadJson(loaded, obj);
+        assertEquals(15, loaded.getTranslateX(), 1e-9);
+        assertEquals(-1, loaded.getScaleY(), 1e-9);
+        assertEquals(90, loaded.getRotation(), 1e-9);
+    }
+
+    /**
+     * Tests that ungrouping keeps every member where it was on screen.
+     */
+    @Test
+    void testUngroupBakesTransform() {
+        PolygonShape triangle = new PolygonShape(Color.WHITE, Color.BLACK, List.of(0.0, 0.0, 60.0, 10.0, 20.0, 80.0));
+        SegmentShape segment = new SegmentShape(Color.BLACK, Color.BLACK, 10, 200, 90, 230);
+        group.getChildren().addAll(triangle, segment);
+        ellipse.setRotation(20);
+
+        group.setTranslateX(35);
+        group.setTranslateY(-12);
+        group.setRotation(30);
+        group.setScaleX(-1);
+
+        List<Point2D[]> before = new ArrayList<>();
+        for (Node node : group.getChildren()) {
+            before.add(corners(node, group));
+        }
+
+        List<SelectableShape> members = group.ungroup();
+        assertTrue(group.getChildren().isEmpty());
+        canvas.getChildren().setAll(new ArrayList<>());
+        for (SelectableShape member : members) {
+            canvas.getChildren().add((Node) member);
+        }
+
+        for (int i = 0; i < members.size(); i++) {
+            Point2D[] after = corners((Node) members.get(i), null);
+            for (int j = 0; j < after.length; j++) {
+                assertEquals(before.get(i)[j].getX(), after[j].getX(), 1e-3);
+                assertEquals(before.get(i)[j].getY(), after[j].getY(), 1e-3);
+            }
+        }
+    }
+
+    /**
+     * Maps the corners of the layout bounds of a node to the coordinates of the canvas.
+     */
+    private static Point2D[] corners(Node node, GroupShape group) {
+        Bounds b = node.getLayoutBounds();
+        Point2D[] points = {
+                node.localToParent(b.getMinX(), b.getMinY()), node.localToParent(b.getMaxX(), b.getMinY()),
+                node.localToParent(b.getMaxX(), b.getMaxY()), node.localToParent(b.getMinX(), b.getMaxY())};
+        if (group != null) {
+            for (int i = 0; i < points.length; i++) {
+                points[i] = group.localToParent(points[i]);
+            }
+        }
+        return points;
+    }
+}
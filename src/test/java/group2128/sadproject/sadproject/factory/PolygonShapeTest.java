@@ -128,4 +128,58 @@ class PolygonShapeTest {
         polygon.setInteractionProperty(true);
         assertTrue(polygon.interactionPropertyProperty().get());
     }
+
+    /**
+     * Tests that {@code findVertex} returns the closest vertex within the tolerance,
+     * not the first one, and -1 when no vertex is close enough.
+     */
+    @Test
+    void testFindVertexReturnsNearest() {
+        PolygonShape polygon = new PolygonShape(Color.RED, Color.BLUE);
+        polygon.setPoints(Arrays.asList(0.0, 0.0, 4.0, 0.0, 50.0, 50.0));
+        assertEquals(2, polygon.findVertex(3.0, 0.0, 5.0));
+        assertEquals(0, polygon.findVertex(1.0, 0.0, 5.0));
+        assertEquals(-1, polygon.findVertex(20.0, 20.0, 5.0));
+    }
+
+    /**
+     * Tests that the vertex index is rebuilt after the points change.
+     */
+    @Test
+    void testFindVertexAfterEdit() {
+        PolygonShape polygon = new PolygonShape(Color.RED, Color.BLUE);
+        polygon.setPoints(Arrays.asList(0.0, 0.0, 100.0, 0.0, 50.0, 80.0));
+        assertEquals(-1, polygon.findVertex(200.0, 200.0, 5.0));
+        polygon.getPointsList().set(4, 200.0);
+        polygon.getPointsList().set(5, 200.0);
+        assertEquals(4, polygon.findVertex(201.0, 199.0, 5.0));
+    }
+
+    /**
+     * Tests edge lookup, including the closing edge between the last and the first vertex.
+     */
+    @Test
+    void testFindEdge() {
+        PolygonShape polygon = new PolygonShape(Color.RED, Color.BLUE);
+        polygon.setPoints(Arrays.asList(0.0, 0.0, 100.0, 0.0, 100.0, 100.0, 0.0, 100.0));
+        assertEquals(0, polygon.findEdge(50.0, 2.0, 5.0));
+        assertEquals(6, polygon.findEdge(1.0, 50.0, 5.0));
+        assertEquals(-1, polygon.findEdge(50.0, 50.0, 5.0));
+    }
+
+    /**
+     * Tests inserting and removing vertices.
+     */
+    @Test
+    void testInsertAndRemoveVertex() {
+        PolygonShape polygon = new PolygonShape(Color.RED, Color.BLUE);
+        polygon.setPoints(Arrays.asList(0.0, 0.0, 100.0, 0.0, 50.0, 80.0));
+        polygon.insertVertex(2, 50.0, -10.0);
+        assertEquals(Arrays.asList(0.0, 0.0, 50.0, -10.0, 100.0, 0.0, 50.0, 80.0), polygon.getPointsList());
+        assertEquals(2, polygon.findVertex(50.0, -9.0, 5.0));
+
+        polygon.removeVertex(2);
+        assertEquals(Arrays.asList(0.0, 0.0, 100.0, 0.0, 50.0, 80.0), polygon.getPointsList());
+        assertEquals(-1, polygon.findVertex(50.0, -9.0, 5.0));
+    }
 }
@@ -0,0 +1,113 @@
+package group2128.sadproject.sadproject.factory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link PolygonSimplifier} class.
+ */
+class PolygonSimplifierTest {
+
+    /**
+     * Builds a noisy square of side 100 with many vertices per side, each off the side by at most {@code noise}.
+     */
+    private static double[] noisySquare(int perSide, double noise) {
+        double[] coords = new double[perSide * 4 * 2];
+        int k = 0;
+        for (int side = 0; side < 4; side++) {
+            for (int i = 0; i < perSide; i++) {
+                double t = 100.0 * i / perSide;
+                double offset = (i % 2 == 0 ? noise : -noise);
+                double x;
+                double y;
+                switch (side) {
+                    case 0: x = t; y = i == 0 ? 0 : offset; break;
+                    case 1: x = 100 + (i == 0 ? 0 : offset); y = t; break;
+                    case 2: x = 100 - t; y = 100 + (i == 0 ? 0 : offset); break;
+                    default: x = i == 0 ? 0 : offset; y = 100 - t; break;
+                }
+                coords[k++] = x;
+                coords[k++] = y;
+            }
+        }
+        return coords;
+    }
+
+    /**
+     * Tests that both algorithms reduce a noisy square to its four corners when the tolerance exceeds the noise.
+     */
+    @Test
+    void testSimplifyToCorners() {
+        double[] square = noisySquare(250, 0.5);
+        for (PolygonSimplifier.Method method : PolygonSimplifier.Method.values()) {
+            double[] simplified = PolygonSimplifier.simplify(square, method, 10);
+            assertEquals(8, simplified.length, method.toString());
+        }
+    }
+
+    /**
+     * Tests that no removed vertex lies farther than the tolerance from the Douglas–Peucker result,
+     * and that a zero tolerance keeps every vertex of a strictly convex polygon.
+     */
+    @Test
+    void testToleranceIsRespected() {
+        double[] circle = new double[2000];
+        for (int i = 0; i < 1000; i++) {
+            double angle = 2 * Math.PI * i / 1000;
+            circle[2 * i] = 100 * Math.cos(angle);
+            circle[2 * i + 1] = 100 * Math.sin(angle);
+        }
+        double[] simplified = PolygonSimplifier.simplify(circle, PolygonSimplifier.Method.DOUGLAS_PEUCKER, 0.5);
+        assertTrue(simplified.length < circle.length / 10, String.valueOf(simplified.length));
+        for (int i = 0; i < circle.length; i += 2) {
+            assertTrue(distanceToOutline(circle[i], circle[i + 1], simplified) <= 0.5 + 1e-9);
+        }
+        assertEquals(circle.length,
+                PolygonSimplifier.simplify(circle, PolygonSimplifier.Method.DOUGLAS_PEUCKER, 0).length);
+        assertEquals(circle.length,
+                PolygonSimplifier.simplify(circle, PolygonSimplifier.Method.VISVALINGAM_WHYATT, 0).length);
+    }
+
+    /**
+     * Tests that aligned vertices are removed even with a zero tolerance.
+     */
+    @Test
+    void testRemovesAlignedVertices() {
+        double[] square = {0, 0, 5, 0, 10, 0, 10, 10, 0, 10};
+        for (PolygonSimplifier.Method method : PolygonSimplifier.Method.values()) {
+            assertArrayEquals(new double[]{0, 0, 10, 0, 10, 10, 0, 10},
+                    PolygonSimplifier.simplify(square, method, 0), method.toString());
+        }
+    }
+
+    /**
+     * Tests that a polygon always keeps at least three vertices, and that small polygons are kept as they are.
+     */
+    @Test
+    void testKeepsAPolygon() {
+        double[] flat = {0, 0, 10, 0, 20, 0, 30, 0, 15, 1};
+        for (PolygonSimplifier.Method method : PolygonSimplifier.Method.values()) {
+            assertEquals(6, PolygonSimplifier.simplify(flat, method, 100).length, method.toString());
+        }
+        double[] triangle = {0, 0, 10, 0, 0, 10};
+        assertArrayEquals(triangle, PolygonSimplifier.simplify(triangle, PolygonSimplifier.Method.VISVALINGAM_WHYATT, 100));
+    }
+
+    /**
+     * Returns the distance between a point and the outline of a closed polygon.
+     */
+    private static double distanceToOutline(double x, double y, double[] polygon) {
+        double best = Double.MAX_VALUE;
+        int n = polygon.length / 2;
+        for (int i = 0; i < n; i++) {
+            double ax = polygon[2 * i];
+            double ay = polygon[2 * i + 1];
+            double dx = polygon[2 * ((i + 1) % n)] - ax;
+            double dy = polygon[2 * ((i + 1) % n) + 1] - ay;
+            double t = Math.max(0, Math.min(1, ((x - ax) * dx + (y - ay) * dy) / (dx * dx + dy * dy)));
+            best = Math.min(best, Math.hypot(x - ax - t * dx, y - ay - t * dy));
+        }
+        return best;
+    }
+}
@@ -2,13 +2,10 @@ package group2128.sadproject.sadproject.factory;
 
 import javafx.application.Platform;
 import javafx.scene.Cursor;
-import javafx.scene.effect.DropShadow;
-import javafx.scene.input.MouseButton;
-import javafx.scene.input.PickResult;
+import javafx.scene.layout.AnchorPane;
 import javafx.scene.paint.Color;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import javafx.scene.input.MouseEvent;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import static org.junit.jupiter.api.Assertions.*;
@@ -98,7 +95,9 @@ public class RectangleShapeTest {
     }
 
     /**
-     * Tests that the selection property works and is bound to a visual effect (DropShadow).
+     * Tests that toggling the selection property does not install a per-shape effect.
+     * <p>
+     * Selection highlighting is drawn by the shared selection overlay instead.
      */
     @Test
     public void testSelectionBindingEffect() throws InterruptedException {
@@ -109,8 +108,7 @@ public class RectangleShapeTest {
 
                 rectangle.setSelected(true);
 
-                assertNotNull(rectangle.getEffect());
-                assertInstanceOf(DropShadow.class, rectangle.getEffect());
+                assertNull(rectangle.getEffect());
 
                 rectangle.setSelected(false);
 
@@ -123,55 +121,28 @@ public class RectangleShapeTest {
     }
 
     /**
-     * Tests the drag initialization and behavior of the {@link RectangleShape}.
+     * Tests dragging a {@link RectangleShape} through the {@link ShapeGestureController}.
      * <p>
      * This test performs the following steps:
      * <ul>
      *   <li>Creates and configures a {@code RectangleShape} with specific colors, position, and size.</li>
-     *   <li>Initializes dragging behavior by calling {@code initDrag()}.</li>
-     *   <li>Simulates a mouse press event on the rectangle to start dragging,
-     *       verifying the cursor changes to {@code CLOSED_HAND}.</li>
-     *   <li>Simulates a mouse drag event to move the rectangle,
-     *       verifying the new position is calculated correctly with respect to the initial offset.</li>
-     *   <li>Simulates a mouse release event to end dragging,
-     *       verifying the cursor returns to {@code DEFAULT}.</li>
+     *   <li>Starts a drag at a point of the selected rectangle.</li>
+     *   <li>Moves the pointer, verifying the cursor changes to {@code CLOSED_HAND} and
+     *       the new position is calculated correctly with respect to the initial offset.</li>
+     *   <li>Ends the drag, verifying the cursor returns to {@code DEFAULT}.</li>
      * </ul>
      */
     @Test
-    public void testInitDrag() {
+    public void testDrag() {
         RectangleShape rectangle = new RectangleShape(Color.BLACK, Color.RED,100,120,100,100);
+        ShapeGestureController controller = ShapeGestureController.of(new AnchorPane(rectangle));
         rectangle.setSelected(true);
-        rectangle.initDrag();
-        MouseEvent pressEvent = new MouseEvent(
-                MouseEvent.MOUSE_PRESSED,
-                150, 150, 150, 150,
-                MouseButton.PRIMARY, 1,
-                false, false, false, false,
-                true, false, false, true, false, false,
-                new PickResult(rectangle, 150, 150)
-        );
-        rectangle.getOnMousePressed().handle(pressEvent);
-        MouseEvent dragEvent = new MouseEvent(
-                MouseEvent.MOUSE_DRAGGED,
-                200, 200, 200, 200,
-                MouseButton.PRIMARY, 1,
-                false, false, false, false,
-                true, false, false, true, false, false,
-                new PickResult(rectangle, 200, 200)
-        );
-        rectangle.getOnMouseDragged().handle(dragEvent);
+        assertTrue(controller.beginDrag(rectangle, 150, 150));
+        controller.dragTo(200, 200);
         assertEquals(Cursor.CLOSED_HAND, rectangle.getCursor());
         assertEquals(150.0, rectangle.getAnchorX(), 0.01);
         assertEquals(170.0, rectangle.getAnchorY(), 0.01);
-        MouseEvent releaseEvent = new MouseEvent(
-                MouseEvent.MOUSE_RELEASED,
-                200, 200, 200, 200,
-                MouseButton.PRIMARY, 1,
-                false, false, false, false,
-                true, false, false, true, false, false,
-                new PickResult(rectangle, 200, 200)
-        );
-        rectangle.getOnMouseReleased().handle(releaseEvent);
+        assertTrue(controller.endDrag());
         assertEquals(Cursor.DEFAULT, rectangle.getCursor());
     }
 
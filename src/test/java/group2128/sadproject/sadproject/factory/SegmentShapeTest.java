@@ -2,9 +2,7 @@ package group2128.sadproject.sadproject.factory;
 
 import javafx.application.Platform;
 import javafx.scene.Cursor;
-import javafx.scene.effect.DropShadow;
-import javafx.scene.input.MouseButton;
-import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.AnchorPane;
 import javafx.scene.paint.Color;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -99,10 +97,10 @@ public class SegmentShapeTest {
     }
 
     /**
-     * Tests that the {@code selectedProperty} is bound to a {@link DropShadow} effect.
+     * Tests that toggling the {@code selectedProperty} does not install a per-shape effect.
      * <p>
-     * When the shape is selected, a blue drop shadow should be applied.
-     * When the shape is deselected, the effect should be removed.
+     * Selection highlighting is drawn by the shared selection overlay, so the shape's
+     * effect must stay {@code null} whether it is selected or not.
      * <p>
      * This test runs on the JavaFX Application Thread using {@link Platform#startup}
      * and waits for completion using a {@link CountDownLatch}.
@@ -117,8 +115,7 @@ public class SegmentShapeTest {
                 assertNull(segment.getEffect());
 
                 segment.setSelected(true);
-                assertNotNull(segment.getEffect());
-                assertInstanceOf(DropShadow.class, segment.getEffect());
+                assertNull(segment.getEffect());
 
                 segment.setSelected(false);
                 assertNull(segment.getEffect());
@@ -130,12 +127,12 @@ public class SegmentShapeTest {
     }
 
     /**
-     * Unit test for the {@code initDrag} method of the {@code SegmentShape} class.
+     * Unit test for dragging a {@code SegmentShape} through the {@link ShapeGestureController}.
      * <p>
-     * This test verifies the behavior of a segment shape when a drag is initialized:
+     * This test verifies the behavior of a segment shape when it is dragged:
      * <ul>
-     *     <li>It checks if the cursor is changed to {@code Cursor.CLOSED_HAND} on mouse press.</li>
-     *     <li>It verifies that the computed offsets between start and end points are correct.</li>
+     *     <li>It checks that the offsets between start and end points are kept.</li>
+     *     <li>It checks if the cursor is changed to {@code Cursor.CLOSED_HAND} while dragging.</li>
      * </ul>
      *
      * Preconditions:
@@ -144,37 +141,24 @@ public class SegmentShapeTest {
      *     <li>The segment is marked as selected.</li>
      * </ul>
      *
-     * The simulated mouse event is a primary button press at position (150, 150).
+     * The drag starts at position (150, 160).
      */
     @Test
-    public void testInitDrag() {
+    public void testDrag() {
         SegmentShape segment = new SegmentShape(null,Color.BLACK);
+        ShapeGestureController controller = ShapeGestureController.of(new AnchorPane(segment));
         segment.setSelected(true);
         segment.setAnchorX(100);
         segment.setAnchorY(120);
         segment.setEndPointX(200);
         segment.setEndPointY(220);
 
-        segment.initDrag();
-
-        MouseEvent pressEvent = new MouseEvent(MouseEvent.MOUSE_PRESSED,
-                150, 160, 150, 160,
-                MouseButton.PRIMARY, 1,
-                false, false, false, false,
-                false, false, false, false, false, false,
-                null);
-        segment.getOnMousePressed().handle(pressEvent);
+        assertTrue(controller.beginDrag(segment, 150, 160));
 
         assertEquals(-100.0, segment.getAnchorX() - segment.getEndPointX(), 0.01);
         assertEquals(-100.0, segment.getAnchorY() - segment.getEndPointY(), 0.01);
 
-        MouseEvent dragEvent = new MouseEvent(MouseEvent.MOUSE_DRAGGED,
-                180, 190, 180, 190,
-                MouseButton.PRIMARY, 1,
-                false, false, false, false,
-                false, false, false, false, false, false,
-                null);
-        segment.getOnMouseDragged().handle(dragEvent);
+        controller.dragTo(180, 190);
 
         assertEquals(Cursor.CLOSED_HAND, segment.getCursor());
 
@@ -184,13 +168,7 @@ public class SegmentShapeTest {
         assertEquals(230.0, segment.getEndPointX(), 0.01);
         assertEquals(250.0, segment.getEndPointY(), 0.01);
 
-        MouseEvent releaseEvent = new MouseEvent(MouseEvent.MOUSE_RELEASED,
-                180, 190, 180, 190,
-                MouseButton.PRIMARY, 1,
-                false, false, false, false,
-                false, false, false, false, false, false,
-                null);
-        segment.getOnMouseReleased().handle(releaseEvent);
+        controller.endDrag();
         assertEquals(Cursor.DEFAULT, segment.getCursor());
     }
 
@@ -0,0 +1,93 @@
+package group2128.sadproject.sadproject.factory;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SelectionModel} class.
+ */
+class SelectionModelTest {
+
+    /**
+     * Tests that the selection of a shape is recorded by the model of its canvas without creating a property.
+     */
+    @Test
+    void testSelectWithoutProperty() {
+        AnchorPane canvas = new AnchorPane();
+        RectangleShape first = new RectangleShape(Color.WHITE, Color.BLACK, 0, 0, 10, 10);
+        RectangleShape second = new RectangleShape(Color.WHITE, Color.BLACK, 20, 0, 10, 10);
+        canvas.getChildren().addAll(first, second);
+        assertNull(SelectionModel.find(canvas));
+
+        first.setSelected(true);
+        SelectionModel model = SelectionModel.find(canvas);
+        assertNotNull(model);
+        assertSame(model, SelectionModel.of(canvas));
+        assertTrue(first.isSelected());
+        assertFalse(second.isSelected());
+        assertEquals(1, model.getSelectedCount());
+        assertEquals(List.of(first), model.getSelectedShapes());
+
+        first.setSelected(false);
+        assertFalse(first.isSelected());
+        assertEquals(0, model.getSelectedCount());
+    }
+
+    /**
+     * Tests that every canvas has its own selection, that the members of a group are selected in the model of
+     * the canvas of the group, and that the shapes removed from the canvas are deselected.
+     */
+    @Test
+    void testSelectionPerCanvas() {
+        AnchorPane canvas = new AnchorPane();
+        AnchorPane other = new AnchorPane();
+        RectangleShape rectangle = new RectangleShape(Color.WHITE, Color.BLACK, 0, 0, 10, 10);
+        EllipseShape member = new EllipseShape(Color.WHITE, Color.BLACK, 50, 50, 5, 5);
+        GroupShape group = new GroupShape(List.of(member));
+        SegmentShape elsewhere = new SegmentShape(null, Color.BLACK, 0, 0, 10, 10);
+        canvas.getChildren().addAll(rectangle, group);
+        other.getChildren().add(elsewhere);
+
+        rectangle.setSelected(true);
+        member.setSelected(true);
+        elsewhere.setSelected(true);
+        assertEquals(2, SelectionModel.of(canvas).getSelectedCount());
+        assertEquals(List.of(elsewhere), SelectionModel.of(other).getSelectedShapes());
+
+        // moving a shape within the canvas keeps it selected
+        canvas.getChildren().setAll(group, rectangle);
+        assertTrue(rectangle.isSelected());
+        canvas.getChildren().remove(rectangle);
+        assertFalse(SelectionModel.of(canvas).isSelected(rectangle));
+        assertEquals(List.of(member), SelectionModel.of(canvas).getSelectedShapes());
+    }
+
+    /**
+     * Tests that a property requested later shows the current selection and stays in sync with the model
+     * in both directions.
+     */
+    @Test
+    void testPropertyIsKeptInSync() {
+        EllipseShape ellipse = new EllipseShape(Color.WHITE, Color.BLACK, 0, 0, 10, 10);
+        ellipse.setSelected(true);
+        BooleanProperty property = ellipse.selectedProperty();
+        assertTrue(property.get());
+        assertSame(property, ellipse.selectedProperty());
+        assertSame(ellipse, property.getBean());
+
+        List<Boolean> changes = new ArrayList<>();
+        property.addListener((observable, oldValue, newValue) -> changes.add(newValue));
+        ellipse.setSelected(false);
+        assertFalse(property.get());
+        property.set(true);
+        assertTrue(ellipse.isSelected());
+        assertEquals(List.of(false, true), changes);
+    }
+}
@@ -0,0 +1,134 @@
+package group2128.sadproject.sadproject.factory;
+
+import group2128.sadproject.sadproject.spatial.CanvasIndex;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the cost of the bounds queries on a drawing of rotated and flipped shapes, before and after
+ * their transform is baked into their geometry.
+ * <p>
+ * The benchmark fills a canvas with {@link #COUNT} polygons, half of them rotated by an arbitrary angle
+ * and the other half flipped, indexed by the {@link CanvasIndex} of the canvas. Each round moves every
+ * shape, which invalidates its bounds, and then times two queries: reading the bounds in parent of every
+ * shape, and a query of the spatial index over the whole drawing, which refreshes the entries of the
+ * moved shapes. The shapes are then baked with {@link SelectableShape#bakeTransform()} and the rounds are
+ * repeated. The total area of the bounds is printed as well, to check that the baked shapes cover the same
+ * region as before.
+ * </p>
+ * <p>
+ * This is not a unit test and is not run by the build: run its {@code main} method from the IDE, or with
+ * the test classpath, on a JVM started with a fixed heap such as {@code -Xms2g -Xmx2g}.
+ * </p>
+ */
+public final class ShapeBoundsBenchmark {
+
+    /**
+     * The number of shapes.
+     */
+    private static final int COUNT = 100_000;
+
+    /**
+     * The number of timed rounds, after as many warm-up rounds.
+     */
+    private static final int ROUNDS = 10;
+
+    private ShapeBoundsBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark and prints the timings.
+     *
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        AnchorPane canvas = new AnchorPane();
+        Color fill = ColorCache.intern(Color.WHITE);
+        Color edge = ColorCache.intern(Color.BLACK);
+        List<SelectableShape> shapes = new ArrayList<>(COUNT);
+        for (int i = 0; i < COUNT; i++) {
+            double x = (i % 1000) * 30;
+            double y = (i / 1000) * 30;
+            List<Double> points = new ArrayList<>();
+            for (int k = 0; k < 8; k++) {
+                double angle = Math.PI * k / 4;
+                points.add(x + 12 * Math.cos(angle) * (k % 2 == 0 ? 1 : 0.6));
+                points.add(y + 8 * Math.sin(angle));
+            }
+            PolygonShape polygon = new PolygonShape(fill, edge, points);
+            if (i % 2 == 0) {
+                polygon.setRotation(17 + i % 60);
+            } else {
+                polygon.setScaleX(-1);
+            }
+            shapes.add(polygon);
+        }
+        canvas.getChildren().addAll(toNodes(shapes));
+        CanvasIndex index = CanvasIndex.of(canvas);
+
+        measure("transformed", shapes, index);
+        long start = System.nanoTime();
+        for (SelectableShape shape : shapes) {
+            shape.bakeTransform();
+        }
+        System.out.printf("bake: %.1f ms%n", (System.nanoTime() - start) / 1e6);
+        measure("baked", shapes, index);
+    }
+
+    /**
+     * Times the bounds of every shape and a query of the index over the drawing after every shape moved.
+     */
+    private static void measure(String name, List<SelectableShape> shapes, CanvasIndex index) {
+        double[] boundsMillis = new double[ROUNDS];
+        double[] queryMillis = new double[ROUNDS];
+        double area = 0;
+        for (int round = -ROUNDS; round < ROUNDS; round++) {
+            double offset = round % 2 == 0 ? 1 : -1;
+            for (SelectableShape shape : shapes) {
+                shape.moveBy(offset, 0);
+            }
+            long start = System.nanoTime();
+            area = 0;
+            for (SelectableShape shape : shapes) {
+                Bounds bounds = ((Node) shape).getBoundsInParent();
+                area += bounds.getWidth() * bounds.getHeight();
+            }
+            long middle = System.nanoTime();
+            for (SelectableShape shape : shapes) {
+                shape.moveBy(-offset, 0);
+            }
+            long queryStart = System.nanoTime();
+            int found = index.query(-100, -100, 40_000, 40_000).size();
+            long end = System.nanoTime();
+            if (found != shapes.size()) {
+                throw new IllegalStateException("The index found " + found + " shapes");
+            }
+            if (round >= 0) {
+                boundsMillis[round] = (middle - start) / 1e6;
+                queryMillis[round] = (end - queryStart) / 1e6;
+            }
+        }
+        System.out.printf("%s: bounds of %d shapes %.1f ms, index query %.1f ms (medians), bounds area %.0f%n",
+                name, shapes.size(), median(boundsMillis), median(queryMillis), area);
+    }
+
+    private static List<Node> toNodes(List<SelectableShape> shapes) {
+        List<Node> nodes = new ArrayList<>(shapes.size());
+        for (SelectableShape shape : shapes) {
+            nodes.add((Node) shape);
+        }
+        return nodes;
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
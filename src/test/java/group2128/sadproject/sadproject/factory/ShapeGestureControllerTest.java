@@ -0,0 +1,131 @@
+package group2128.sadproject.sadproject.factory;
+
+import javafx.scene.Cursor;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ShapeGestureController} class.
+ */
+class ShapeGestureControllerTest {
+
+    /**
+     * Tests that the interaction flag of a shape without a listener is kept until it is cleared,
+     * even when the property is only requested afterwards.
+     */
+    @Test
+    void testInteractionWithoutListener() {
+        RectangleShape rectangle = new RectangleShape(Color.WHITE, Color.BLACK, 0, 0, 10, 10);
+        rectangle.setInteractionProperty(true);
+        assertTrue(rectangle.interactionPropertyProperty().get());
+        rectangle.setInteractionProperty(false);
+        assertFalse(rectangle.interactionPropertyProperty().get());
+    }
+
+    /**
+     * Tests that every interaction of a shape of a canvas with a listener calls the listener and leaves the
+     * flag cleared, whether it is reported through the shape or through its property, and that the shapes of
+     * other canvases are not reported.
+     */
+    @Test
+    void testInteractionWithListener() {
+        AnchorPane canvas = new AnchorPane();
+        AnchorPane other = new AnchorPane();
+        RectangleShape rectangle = new RectangleShape(Color.WHITE, Color.BLACK, 0, 0, 10, 10);
+        RectangleShape elsewhere = new RectangleShape(Color.WHITE, Color.BLACK, 0, 0, 10, 10);
+        canvas.getChildren().add(rectangle);
+        other.getChildren().add(elsewhere);
+        ShapeGestureController controller = ShapeGestureController.of(canvas);
+        AtomicInteger calls = new AtomicInteger();
+        controller.setInteractionListener(shape -> {
+            assertSame(rectangle, shape);
+            calls.incrementAndGet();
+        });
+
+        rectangle.setInteractionProperty(true);
+        rectangle.setInteractionProperty(true);
+        elsewhere.setInteractionProperty(true);
+        assertEquals(2, calls.get());
+        assertTrue(elsewhere.interactionPropertyProperty().get());
+
+        rectangle.interactionPropertyProperty().set(true);
+        assertEquals(3, calls.get());
+        assertFalse(rectangle.interactionPropertyProperty().get());
+
+        controller.setInteractionListener(null);
+        rectangle.setInteractionProperty(true);
+        assertEquals(3, calls.get());
+        assertTrue(rectangle.interactionPropertyProperty().get());
+    }
+
+    /**
+     * Tests that dragging a selected shape moves it by the total pointer offset and reports a single
+     * interaction per drag, while an unselected shape cannot be dragged.
+     */
+    @Test
+    void testDragMovesSelectedShape() {
+        AnchorPane canvas = new AnchorPane();
+        PolygonShape polygon = new PolygonShape(Color.WHITE, Color.BLACK, Arrays.asList(0.0, 0.0, 30.0, 0.0, 30.0, 20.0));
+        canvas.getChildren().add(polygon);
+        ShapeGestureController controller = ShapeGestureController.of(canvas);
+        AtomicInteger interactions = new AtomicInteger();
+        controller.setInteractionListener(shape -> interactions.incrementAndGet());
+
+        assertFalse(controller.beginDrag(polygon, 10, 10));
+        controller.dragTo(20, 20);
+        assertEquals(List.of(0.0, 0.0, 30.0, 0.0, 30.0, 20.0), polygon.getPoints());
+        assertEquals(0, interactions.get());
+        assertFalse(controller.endDrag());
+
+        polygon.setSelected(true);
+        assertTrue(controller.beginDrag(polygon, 10, 10));
+        controller.dragTo(15, 12);
+        controller.dragTo(20, 30);
+        assertEquals(polygon, controller.getDraggedShape());
+        assertEquals(Cursor.CLOSED_HAND, polygon.getCursor());
+        assertEquals(List.of(10.0, 20.0, 40.0, 20.0, 40.0, 40.0), polygon.getPoints());
+        assertEquals(1, interactions.get());
+
+        assertTrue(controller.endDrag());
+        assertNull(controller.getDraggedShape());
+        assertEquals(Cursor.DEFAULT, polygon.getCursor());
+    }
+
+    /**
+     * Tests that a drag listener adjusting the position of the shape does not make it drift over the gesture.
+     */
+    @Test
+    void testDragDoesNotAccumulateAdjustments() {
+        AnchorPane canvas = new AnchorPane();
+        ShapeDragListener.install(canvas, new ShapeDragListener() {
+            @Override
+            public void shapeDragged(SelectableShape shape) {
+                shape.setAnchorX(Math.round(shape.getAnchorX() / 10) * 10);
+            }
+
+            @Override
+            public void shapeReleased(SelectableShape shape) {
+            }
+        });
+        EllipseShape ellipse = new EllipseShape(Color.WHITE, Color.BLACK, 0, 0, 5, 5);
+        canvas.getChildren().add(ellipse);
+        ellipse.setSelected(true);
+
+        ShapeGestureController controller = ShapeGestureController.of(canvas);
+        controller.beginDrag(ellipse, 0, 0);
+        for (int x = 1; x <= 4; x++) {
+            controller.dragTo(x, 0);
+            assertEquals(0, ellipse.getCenterX());
+        }
+        controller.dragTo(6, 0);
+        assertEquals(10, ellipse.getCenterX());
+        controller.endDrag();
+    }
+}
@@ -0,0 +1,84 @@
+package group2128.sadproject.sadproject.factory;
+
+import javafx.scene.paint.Color;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ShapeLoader} class.
+ * <p>
+ * Every kind of shape is serialized and rebuilt; the rebuilt shapes must be new, detached
+ * instances with the same geometry and colors as the originals.
+ * </p>
+ */
+class ShapeLoaderTest {
+
+    /**
+     * Tests that every basic shape survives a round trip, in order.
+     */
+    @Test
+    void testRoundTrip() {
+        RectangleShape rectangle = new RectangleShape(Color.RED, Color.BLUE, 100, 80, 40, 20);
+        rectangle.setRotation(30);
+        EllipseShape ellipse = new EllipseShape(Color.GREEN, Color.BLACK, 200, 150, 30, 10);
+        ellipse.setScaleX(-1);
+        SegmentShape segment = new SegmentShape(Color.BLACK, Color.ORANGE, 10, 20, 110, 70);
+        TextShape text = new TextShape(50, 60, 1, 1, 24, Color.WHITE, Color.BLACK, 0);
+        text.setText("Hello");
+        PolygonShape polygon = new PolygonShape(Color.YELLOW, Color.BLACK, List.of(0.0, 0.0, 50.0, 0.0, 25.0, 40.0));
+
+        List<SelectableShape> originals = List.of(rectangle, ellipse, segment, text, polygon);
+        List<SelectableShape> loaded = ShapeLoader.fromJson(ShapeLoader.toJson(originals));
+
+        assertEquals(originals.size(), loaded.size());
+        for (int i = 0; i < originals.size(); i++) {
+            SelectableShape original = originals.get(i);
+            SelectableShape copy = loaded.get(i);
+            assertNotSame(original, copy);
+            assertSame(original.getClass(), copy.getClass());
+            assertNull(((javafx.scene.Node) copy).getParent());
+            assertEquals(original.getAnchorX(), copy.getAnchorX(), 1e-9);
+            assertEquals(original.getAnchorY(), copy.getAnchorY(), 1e-9);
+            assertEquals(original.getEdgeColor(), copy.getEdgeColor());
+            assertEquals(original.getRotation(), copy.getRotation(), 1e-9);
+        }
+        assertEquals(-1, ((EllipseShape) loaded.get(1)).getScaleX(), 1e-9);
+        assertEquals(110, ((SegmentShape) loaded.get(2)).getEndPointX(), 1e-9);
+        assertEquals("Hello", ((TextShape) loaded.get(3)).getText());
+        assertEquals(polygon.getPointsList(), ((PolygonShape) loaded.get(4)).getPointsList());
+    }
+
+    /**
+     * Tests that a group is rebuilt with its members and its transform.
+     */
+    @Test
+    void testGroupRoundTrip() {
+        RectangleShape rectangle = new RectangleShape(Color.WHITE, Color.BLACK, 50, 50, 100, 100);
+        EllipseShape ellipse = new EllipseShape(Color.RED, Color.BLUE, 300, 50, 50, 25);
+        GroupShape group = new GroupShape(List.of(rectangle, ellipse));
+        group.setTranslateX(25);
+        group.setRotation(45);
+
+        GroupShape loaded = (GroupShape) ShapeLoader.fromJson(ShapeLoader.toJson(List.of(group))).get(0);
+        assertEquals(2, loaded.getShapes().size());
+        assertInstanceOf(RectangleShape.class, loaded.getShapes().get(0));
+        assertInstanceOf(EllipseShape.class, loaded.getShapes().get(1));
+        assertEquals(25, loaded.getTranslateX(), 1e-9);
+        assertEquals(45, loaded.getRotation(), 1e-9);
+    }
+
+    /**
+     * Tests that entries of an unknown type are skipped.
+     */
+    @Test
+    void testUnknownTypeIsSkipped() {
+        JSONArray array = ShapeLoader.toJson(List.of(new RectangleShape(Color.WHITE, Color.BLACK, 0, 0, 10, 10)));
+        array.put(new JSONObject().put("type", "star"));
+        assertEquals(1, ShapeLoader.fromJson(array).size());
+    }
+}
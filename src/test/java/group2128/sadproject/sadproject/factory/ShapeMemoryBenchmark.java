@@ -0,0 +1,84 @@
+package group2128.sadproject.sadproject.factory;
+
+import group2128.sadproject.sadproject.commands.CommandHistory;
+import group2128.sadproject.sadproject.commands.InteractionCommand;
+import javafx.scene.Node;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Measures the heap used by every shape of a large drawing.
+ * <p>
+ * For each kind of shape, the benchmark adds {@link #COUNT} shapes to a canvas tracked for undo, as the
+ * drawing strategies and the loader do, and reports the retained bytes per shape; it then selects all of
+ * them and reports the bytes per shape again. The figures include the JavaFX node itself, so they are
+ * meant to be compared between versions rather than read as the cost of the selection alone.
+ * </p>
+ * <p>
+ * This is not a unit test and is not run by the build: run its {@code main} method from the IDE, or with
+ * the test classpath, on a JVM started with a fixed heap such as {@code -Xms2g -Xmx2g}.
+ * </p>
+ */
+public final class ShapeMemoryBenchmark {
+
+    /**
+     * The number of shapes of each kind.
+     */
+    private static final int COUNT = 100_000;
+
+    private ShapeMemoryBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark and prints the bytes per shape.
+     *
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        Color fill = ColorCache.intern(Color.WHITE);
+        Color edge = ColorCache.intern(Color.BLACK);
+        measure("rectangle", i -> new RectangleShape(fill, edge, i % 1000, i / 1000, 20, 10));
+        measure("ellipse", i -> new EllipseShape(fill, edge, i % 1000, i / 1000, 20, 10));
+        measure("segment", i -> new SegmentShape(fill, edge, i % 1000, i / 1000, i % 1000 + 20, i / 1000 + 10));
+        measure("polygon", i -> new PolygonShape(fill, edge, Arrays.asList(0.0, 0.0, 10.0, 0.0, 10.0, 10.0)));
+        measure("text", i -> new TextShape(i % 1000, i / 1000, 1, 1, 12, fill, edge, 0));
+    }
+
+    /**
+     * Creates, adds and selects {@link #COUNT} shapes and prints the heap they retain.
+     */
+    private static void measure(String name, IntFunction<SelectableShape> factory) {
+        AnchorPane canvas = new AnchorPane();
+        CommandHistory history = new CommandHistory();
+        SelectableShape[] shapes = new SelectableShape[COUNT];
+        InteractionCommand.track(canvas, history);
+        long before = usedHeap();
+        for (int i = 0; i < COUNT; i++) {
+            shapes[i] = factory.apply(i);
+            canvas.getChildren().add((Node) shapes[i]);
+        }
+        long created = usedHeap();
+        for (SelectableShape shape : shapes) {
+            shape.setSelected(true);
+        }
+        long selected = usedHeap();
+        System.out.printf("%-10s tracked %6.0f B/shape   selected %6.0f B/shape%n", name,
+                (created - before) / (double) COUNT, (selected - before) / (double) COUNT);
+    }
+
+    /**
+     * Returns the heap used after collecting the garbage.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
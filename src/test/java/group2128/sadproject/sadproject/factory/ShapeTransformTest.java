@@ -0,0 +1,133 @@
+package group2128.sadproject.sadproject.factory;
+
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Scale;
+import javafx.scene.transform.Transform;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ShapeTransform} class.
+ */
+class ShapeTransformTest {
+
+    private static final double DELTA = 1e-9;
+
+    /**
+     * Asserts that a transform maps points as the given JavaFX transform does.
+     */
+    private static void assertSameMapping(Transform expected, ShapeTransform actual) {
+        assertEquals(expected.getMxx(), actual.getMxx(), DELTA);
+        assertEquals(expected.getMxy(), actual.getMxy(), DELTA);
+        assertEquals(expected.getTx(), actual.getTx(), DELTA);
+        assertEquals(expected.getMyx(), actual.getMyx(), DELTA);
+        assertEquals(expected.getMyy(), actual.getMyy(), DELTA);
+        assertEquals(expected.getTy(), actual.getTy(), DELTA);
+    }
+
+    /**
+     * Tests that the transform of a node is the one JavaFX uses, for rotated and flipped shapes and with
+     * extra transforms.
+     */
+    @Test
+    void testOfMatchesJavaFx() {
+        RectangleShape rectangle = new RectangleShape(Color.WHITE, Color.BLACK, 40, 20, 60, 30);
+        assertTrue(ShapeTransform.of(rectangle).isIdentity());
+
+        rectangle.setRotation(30);
+        rectangle.setScaleX(-1);
+        rectangle.setTranslateX(5);
+        rectangle.setLayoutY(-7);
+        assertSameMapping(rectangle.getLocalToParentTransform(), rectangle.getShapeTransform());
+
+        PolygonShape polygon = new PolygonShape(Color.WHITE, Color.BLACK, Arrays.asList(0.0, 0.0, 50.0, 10.0, 20.0, 40.0));
+        polygon.setRotate(-75);
+        polygon.setScaleY(-1);
+        polygon.getTransforms().add(new Scale(2, 3));
+        assertSameMapping(polygon.getLocalToParentTransform(), ShapeTransform.of(polygon));
+    }
+
+    /**
+     * Tests the composition and the inversion of transforms.
+     */
+    @Test
+    void testConcatenateAndInvert() {
+        ShapeTransform rotation = ShapeTransform.rotation(90, 10, 10);
+        ShapeTransform translation = ShapeTransform.translation(5, 0);
+        Point2D point = translation.concatenate(rotation).transform(20, 10);
+        assertEquals(15, point.getX(), DELTA);
+        assertEquals(20, point.getY(), DELTA);
+
+        ShapeTransform transform = translation.concatenate(rotation).concatenate(ShapeTransform.scale(-1, 2, 3, 4));
+        Point2D back = transform.invert().transform(transform.transform(7, -3).getX(), transform.transform(7, -3).getY());
+        assertEquals(7, back.getX(), DELTA);
+        assertEquals(-3, back.getY(), DELTA);
+        assertTrue(transform.getDeterminant() < 0);
+
+        assertThrows(IllegalStateException.class, () -> ShapeTransform.scale(0, 1, 0, 0).invert());
+    }
+
+    /**
+     * Tests that the transformed bounds of a box are the bounds of its transformed corners.
+     */
+    @Test
+    void testTransformBounds() {
+        ShapeTransform transform = ShapeTransform.rotation(30, 5, 5).concatenate(ShapeTransform.scale(-2, 1, 0, 0));
+        double[] bounds = transform.transformBounds(0, 0, 10, 20);
+        double[] expected = {Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE};
+        for (double[] corner : new double[][]{{0, 0}, {10, 0}, {0, 20}, {10, 20}}) {
+            Point2D point = transform.transform(corner[0], corner[1]);
+            expected[0] = Math.min(expected[0], point.getX());
+            expected[1] = Math.min(expected[1], point.getY());
+            expected[2] = Math.max(expected[2], point.getX());
+            expected[3] = Math.max(expected[3], point.getY());
+        }
+        assertArrayEquals(expected, bounds, DELTA);
+    }
+
+    /**
+     * Tests which transforms keep boxes axis-aligned.
+     */
+    @Test
+    void testIsAxisAligned() {
+        assertTrue(ShapeTransform.IDENTITY.isAxisAligned());
+        assertTrue(ShapeTransform.rotation(90, 3, 4).isAxisAligned());
+        assertTrue(ShapeTransform.rotation(270, 0, 0).concatenate(ShapeTransform.scale(-1, 1, 2, 2)).isAxisAligned());
+        assertFalse(ShapeTransform.rotation(30, 0, 0).isAxisAligned());
+        assertTrue(ShapeTransform.translation(3, 4).isTranslation());
+        assertFalse(ShapeTransform.rotation(180, 0, 0).isTranslation());
+    }
+
+    /**
+     * Tests that the transforms of nested groups are composed up to the canvas.
+     */
+    @Test
+    void testLocalToAncestor() {
+        AnchorPane canvas = new AnchorPane();
+        PolygonShape polygon = new PolygonShape(Color.WHITE, Color.BLACK, Arrays.asList(0.0, 0.0, 50.0, 10.0, 20.0, 40.0));
+        polygon.setRotate(20);
+        GroupShape inner = new GroupShape(List.of(polygon));
+        inner.setScaleX(-1);
+        GroupShape outer = new GroupShape(List.of(inner));
+        outer.setRotate(45);
+        outer.setTranslateX(100);
+        canvas.getChildren().add(outer);
+
+        ShapeTransform transform = ShapeTransform.localToAncestor(polygon, canvas);
+        Point2D expected = outer.localToParent(inner.localToParent(polygon.localToParent(50, 10)));
+        Point2D actual = transform.transform(50, 10);
+        // JavaFX takes the pivots from its bounds, which are floats
+        assertEquals(expected.getX(), actual.getX(), 1e-4);
+        assertEquals(expected.getY(), actual.getY(), 1e-4);
+
+        Node stranger = new AnchorPane();
+        assertThrows(IllegalArgumentException.class, () -> ShapeTransform.localToAncestor(polygon, stranger));
+    }
+}
@@ -2,11 +2,8 @@ package group2128.sadproject.sadproject.factory;
 
 import javafx.application.Platform;
 import javafx.scene.Cursor;
-import javafx.scene.effect.DropShadow;
-import javafx.scene.input.MouseButton;
-import javafx.scene.input.PickResult;
+import javafx.scene.layout.AnchorPane;
 import javafx.scene.paint.Color;
-import javafx.scene.input.MouseEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import java.util.concurrent.CountDownLatch;
@@ -78,7 +75,9 @@ public class TextShapeTest {
     }
 
     /**
-     * Tests that the selection property works and is bound to a visual effect (DropShadow).
+     * Tests that toggling the selection property does not install a per-shape effect.
+     * <p>
+     * Selection highlighting is drawn by the shared selection overlay instead.
      */
     @Test
     public void testSelectionBindingEffect() throws InterruptedException {
@@ -88,8 +87,7 @@ public class TextShapeTest {
                 assertNull(text.getEffect());
 
                 text.setSelected(true);
-                assertNotNull(text.getEffect());
-                assertInstanceOf(DropShadow.class, text.getEffect());
+                assertNull(text.getEffect());
 
                 text.setSelected(false);
                 assertNull(text.getEffect());
@@ -101,55 +99,31 @@ public class TextShapeTest {
     }
 
     /**
-     * Tests the drag initialization and behavior of the {@link TextShape}.
+     * Tests dragging a {@link TextShape} through the {@link ShapeGestureController}.
      * <p>
      * This test performs the following steps:
      * <ul>
-     *   <li>Initializes dragging behavior by calling {@code initDrag()}.</li>
-     *   <li>Simulates a mouse press event to start dragging and verifies the cursor.</li>
-     *   <li>Simulates a mouse drag event and checks the updated coordinates.</li>
-     *   <li>Simulates a mouse release event and verifies the cursor reset.</li>
+     *   <li>Starts a drag at a point of the selected text.</li>
+     *   <li>Moves the pointer and verifies the cursor and the updated coordinates.</li>
+     *   <li>Ends the drag and verifies the cursor reset.</li>
      * </ul>
      */
     @Test
-    public void testInitDrag() {
+    public void testDrag() {
+        ShapeGestureController controller = ShapeGestureController.of(new AnchorPane(text));
         text.setAnchorX(50);
         text.setAnchorY(100);
         text.setText("Hello");
         text.setFontSize(20);
         text.setSelected(true);
-        text.initDrag();
-
-        MouseEvent pressEvent = new MouseEvent(
-                MouseEvent.MOUSE_PRESSED,
-                60, 110, 60, 110,
-                MouseButton.PRIMARY, 1,
-                false, false, false, false,
-                true, false, false, true, false, false,
-                new PickResult(text, 60, 110)
-        );
-        text.getOnMousePressed().handle(pressEvent);
 
-        MouseEvent dragEvent = new MouseEvent(
-                MouseEvent.MOUSE_DRAGGED,
-                100, 140, 100, 140,
-                MouseButton.PRIMARY, 1,
-                false, false, false, false,
-                true, false, false, true, false, false,
-                new PickResult(text, 100, 140)
-        );
-        text.getOnMouseDragged().handle(dragEvent);
+        assertTrue(controller.beginDrag(text, 60, 110));
+        controller.dragTo(100, 140);
         assertEquals(Cursor.CLOSED_HAND, text.getCursor());
+        assertEquals(90.0, text.getAnchorX(), 0.01);
+        assertEquals(130.0, text.getAnchorY(), 0.01);
 
-        MouseEvent releaseEvent = new MouseEvent(
-                MouseEvent.MOUSE_RELEASED,
-                100, 140, 100, 140,
-                MouseButton.PRIMARY, 1,
-                false, false, false, false,
-                true, false, false, true, false, false,
-                new PickResult(text, 100, 140)
-        );
-        text.getOnMouseReleased().handle(releaseEvent);
+        controller.endDrag();
         assertEquals(Cursor.DEFAULT, text.getCursor());
     }
 
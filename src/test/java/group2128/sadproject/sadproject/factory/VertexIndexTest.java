@@ -0,0 +1,82 @@
+package group2128.sadproject.sadproject.factory;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link VertexIndex} class.
+ * <p>
+ * The index results are compared against a brute-force scan of the same points,
+ * on both small polygons and a large one with many vertices per grid row.
+ * </p>
+ */
+class VertexIndexTest {
+
+    /**
+     * Tests that an empty point list yields no vertex and no edge.
+     */
+    @Test
+    void testEmptyIndex() {
+        VertexIndex index = new VertexIndex(new ArrayList<>());
+        assertEquals(0, index.getVertexCount());
+        assertEquals(-1, index.nearestVertex(0, 0, 10));
+        assertEquals(-1, index.nearestEdge(0, 0, 10));
+    }
+
+    /**
+     * Tests that a very long edge, which is not bucketed into the grid, is still found.
+     */
+    @Test
+    void testLongEdgeIsFound() {
+        List<Double> points = new ArrayList<>(Arrays.asList(0.0, 0.0, 100000.0, 0.0));
+        for (int i = 0; i < 100; i++) {
+            points.add(100000.0 - i * 10.0);
+            points.add(1000.0 + (i % 2));
+        }
+        VertexIndex index = new VertexIndex(points);
+        assertEquals(0, index.nearestEdge(50000.0, 1.0, 3.0));
+    }
+
+    /**
+     * Tests the nearest-vertex query against a linear scan on a polygon with many vertices.
+     */
+    @Test
+    void testNearestVertexMatchesLinearScan() {
+        List<Double> points = new ArrayList<>();
+        int count = 20000;
+        for (int i = 0; i < count; i++) {
+            double angle = 2 * Math.PI * i / count;
+            double radius = 1000 + 50 * Math.sin(angle * 40);
+            points.add(radius * Math.cos(angle));
+            points.add(radius * Math.sin(angle));
+        }
+        VertexIndex index = new VertexIndex(points);
+
+        for (int i = 0; i < count; i += 997) {
+            double x = points.get(2 * i) + 0.3;
+            double y = points.get(2 * i + 1) - 0.2;
+            assertEquals(linearNearest(points, x, y, 2.0), index.nearestVertex(x, y, 2.0));
+        }
+    }
+
+    /**
+     * Returns the nearest vertex within the tolerance by scanning every point.
+     */
+    private int linearNearest(List<Double> points, double x, double y, double tolerance) {
+        int best = -1;
+        double bestDistance = tolerance * tolerance;
+        for (int i = 0; i < points.size(); i += 2) {
+            double dx = points.get(i) - x;
+            double dy = points.get(i + 1) - y;
+            double d = dx * dx + dy * dy;
+            if (d <= bestDistance) {
+                bestDistance = d;
+                best = i / 2;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,66 @@
+package group2128.sadproject.sadproject.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures the throughput and the memory of the export of a very large PNG image.
+ * <p>
+ * The benchmark exports a synthetic image of {@link #SIZE}&times;{@link #SIZE} pixels, made of bands of
+ * color with diagonal lines, as a drawing would be. Its tiles are drawn on a thread of their own, standing
+ * for the JavaFX Application Thread, and the image is written to a temporary file. The report gives the
+ * throughput and the peak heap in use, to compare with the {@code 4 * SIZE * SIZE} bytes a single
+ * image of the whole export would need.
+ * </p>
+ * <p>
+ * This is not a unit test and is not run by the build: run its {@code main} method from the IDE, or with
+ * the test classpath, on a JVM started with a fixed heap such as {@code -Xms2g -Xmx2g}.
+ * </p>
+ */
+public final class PngExportBenchmark {
+
+    /**
+     * The width and the height of the image, in pixels.
+     */
+    private static final int SIZE = 30_000;
+
+    private PngExportBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark and prints the report.
+     *
+     * @param args ignored
+     * @throws IOException if the image cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        ExecutorService renderThread = Executors.newSingleThreadExecutor();
+        File file = File.createTempFile("benchmark", ".png");
+        file.deleteOnExit();
+        try {
+            PngExporter exporter = new PngExporter(SIZE, SIZE, 300, true,
+                    (x, y, width, height, buffer, offset, stride) -> {
+                        for (int j = 0; j < height; j++) {
+                            int row = offset + j * stride;
+                            for (int i = 0; i < width; i++) {
+                                int px = x + i;
+                                int py = y + j;
+                                boolean line = (px + py) % 97 < 2 || (px - py + SIZE) % 211 < 2;
+                                buffer[row + i] = line ? 0xFF000000 : 0xFF000000 | ((py / 600) * 37 & 0xFF) << 16
+                                        | ((px / 600) * 53 & 0xFF) << 8 | 0xC0;
+                            }
+                        }
+                    }, renderThread);
+            System.out.printf("heap before: %d MB, a whole image would take %d MB%n",
+                    (Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) >> 20,
+                    4L * SIZE * SIZE >> 20);
+            PngExporter.Report report = exporter.export(file);
+            System.out.println(report);
+        } finally {
+            renderThread.shutdownNow();
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package group2128.sadproject.sadproject.io;
+
+import group2128.sadproject.sadproject.factory.EllipseShape;
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import group2128.sadproject.sadproject.factory.SegmentShape;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Node;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link PngExporter} class.
+ * <p>
+ * The tiles are drawn by a synthetic renderer on a thread of their own, standing for the JavaFX Application
+ * Thread, so the tests check the tiling, the streaming encoder and the metadata without a JavaFX toolkit.
+ * </p>
+ */
+class PngExporterTest {
+
+    private ExecutorService renderThread;
+
+    @BeforeEach
+    void setUp() {
+        renderThread = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        renderThread.shutdownNow();
+    }
+
+    /**
+     * The color of a pixel of the synthetic image.
+     */
+    private static int pixel(int x, int y) {
+        return 0xFF000000 | (x & 0xFF) << 16 | (y & 0xFF) << 8 | ((x / 7 + y / 5) & 0xFF);
+    }
+
+    private static BufferedImage read(byte[] png) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(png));
+    }
+
+    /**
+     * Tests that an image of several strips of several tiles is encoded with every pixel in place, and that
+     * every pixel is rendered exactly once, by tiles no larger than the tile size.
+     */
+    @Test
+    void testTiledExport() throws IOException {
+        int width = 700;
+        int height = 530;
+        int[] renders = new int[width * height];
+        PngExporter exporter = new PngExporter(width, height, 96, true,
+                (x, y, w, h, buffer, offset, stride) -> {
+                    assertTrue(w <= 256 && h <= 100, w + "x" + h);
+                    for (int j = 0; j < h; j++) {
+                        for (int i = 0; i < w; i++) {
+                            buffer[offset + j * stride + i] = pixel(x + i, y + j);
+                            renders[(y + j) * width + x + i]++;
+                        }
+                    }
+                }, renderThread);
+        exporter.setTileSize(256, 100);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PngExporter.Report report = exporter.export(out);
+        assertEquals(out.size(), report.getBytes());
+        assertEquals(width, report.getWidth());
+        assertTrue(report.getMegapixelsPerSecond() > 0);
+        assertTrue(report.getPeakHeapBytes() > 0);
+
+        BufferedImage image = read(out.toByteArray());
+        assertEquals(width, image.getWidth());
+        assertEquals(height, image.getHeight());
+        assertFalse(image.getColorModel().hasAlpha());
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                assertEquals(pixel(x, y), image.getRGB(x, y), "pixel " + x + ", " + y);
+                assertEquals(1, renders[y * width + x]);
+            }
+        }
+    }
+
+    /**
+     * Tests that translucent pixels keep their alpha when the image is not opaque.
+     */
+    @Test
+    void testTransparentExport() throws IOException {
+        PngExporter exporter = new PngExporter(40, 30, 96, false,
+                (x, y, w, h, buffer, offset, stride) -> {
+                    for (int j = 0; j < h; j++) {
+                        for (int i = 0; i < w; i++) {
+                            buffer[offset + j * stride + i] = (x + i) < 20 ? 0x00000000 : 0x80FF0000;
+                        }
+                    }
+                }, renderThread);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(out);
+
+        BufferedImage image = read(out.toByteArray());
+        assertTrue(image.getColorModel().hasAlpha());
+        assertEquals(0, image.getRGB(5, 5) >>> 24);
+        assertEquals(0x80FF0000, image.getRGB(30, 20));
+    }
+
+    /**
+     * Tests that the resolution is recorded in the file.
+     */
+    @Test
+    void testResolutionIsRecorded() throws IOException {
+        PngExporter exporter = new PngExporter(10, 10, 300, true,
+                (x, y, w, h, buffer, offset, stride) -> { }, renderThread);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(out);
+
+        try (ImageInputStream stream = ImageIO.createImageInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ImageReader reader = ImageIO.getImageReaders(stream).next();
+            reader.setInput(stream);
+            IIOMetadata metadata = reader.getImageMetadata(0);
+            Node root = metadata.getAsTree("javax_imageio_1.0");
+            String value = null;
+            for (Node node = root.getFirstChild(); node != null; node = node.getNextSibling()) {
+                if (node.getNodeName().equals("Dimension")) {
+                    for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+                        if (child.getNodeName().equals("HorizontalPixelSize")) {
+                            value = child.getAttributes().getNamedItem("value").getNodeValue();
+                        }
+                    }
+                }
+            }
+            assertNotNull(value);
+            assertEquals(25.4 / 300, Double.parseDouble(value), 1e-3);
+            reader.dispose();
+        }
+    }
+
+    /**
+     * Tests that a failure of the renderer is reported as an I/O error.
+     */
+    @Test
+    void testRenderingFailure() {
+        PngExporter exporter = new PngExporter(10, 600, 96, true,
+                (x, y, w, h, buffer, offset, stride) -> {
+                    if (y > 0) {
+                        throw new IllegalStateException("boom");
+                    }
+                }, renderThread);
+        IOException error = assertThrows(IOException.class, () -> exporter.export(new ByteArrayOutputStream()));
+        assertTrue(error.getCause() instanceof IllegalStateException);
+    }
+
+    /**
+     * Tests the size of the image of a region of a canvas at a given resolution, and the region covering
+     * shapes.
+     */
+    @Test
+    void testRegions() {
+        RectangleShape rectangle = new RectangleShape(Color.WHITE, null, 50, 50, 20, 10);
+        EllipseShape ellipse = new EllipseShape(Color.WHITE, null, 150, 15, 50, 15);
+        // a shape with no stroke and no fill has empty bounds and does not widen the region
+        SegmentShape invisible = new SegmentShape(null, null, 0, 0, 10, 10);
+        double[] region = PngExporter.shapesRegion(List.of(rectangle, ellipse, invisible));
+        assertArrayEquals(new double[]{40, 0, 200, 55}, region, 1e-9);
+        assertNull(PngExporter.shapesRegion(List.of()));
+        assertNull(PngExporter.shapesRegion(List.of(invisible)));
+
+        PngExporter exporter = PngExporter.forCanvas(new Pane(), region, 300, Color.WHITE);
+        assertEquals(500, exporter.getWidth());
+        assertEquals((int) Math.ceil(55 * 300 / 96.0), exporter.getHeight());
+        assertThrows(IllegalArgumentException.class,
+                () -> PngExporter.forCanvas(new Pane(), new double[]{0, 0, 0, 10}, 96, null));
+    }
+}
@@ -0,0 +1,119 @@
+package group2128.sadproject.sadproject.io;
+
+import group2128.sadproject.sadproject.factory.ColorCache;
+import group2128.sadproject.sadproject.factory.EllipseShape;
+import group2128.sadproject.sadproject.factory.PolygonShape;
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import group2128.sadproject.sadproject.factory.SegmentShape;
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import javafx.scene.Node;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the export and the import of a large technical drawing as an SVG document.
+ * <p>
+ * The benchmark builds {@link #COUNT} shapes, a mix of rectangles, ellipses, segments and polygons, a
+ * quarter of them rotated or flipped, exports them to a temporary file with the {@link SvgExporter} and
+ * imports the file back with the {@link SvgImporter}, adding each batch to a canvas as the import command
+ * does. It prints the time of each step, the size of the file and the heap in use after each step.
+ * </p>
+ * <p>
+ * This is not a unit test and is not run by the build: run its {@code main} method from the IDE, or with
+ * the test classpath, on a JVM started with a fixed heap such as {@code -Xms2g -Xmx2g}.
+ * </p>
+ */
+public final class SvgBenchmark {
+
+    /**
+     * The number of shapes.
+     */
+    private static final int COUNT = 100_000;
+
+    private SvgBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark and prints the timings.
+     *
+     * @param args ignored
+     * @throws IOException if the temporary file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Color fill = ColorCache.intern(Color.LIGHTGRAY);
+        Color edge = ColorCache.intern(Color.BLACK);
+        List<Node> nodes = new ArrayList<>(COUNT);
+        for (int i = 0; i < COUNT; i++) {
+            double x = (i % 400) * 25;
+            double y = (i / 400) * 25;
+            SelectableShape shape;
+            switch (i % 4) {
+                case 0:
+                    shape = new RectangleShape(fill, edge, x, y, 20, 10);
+                    break;
+                case 1:
+                    shape = new EllipseShape(fill, edge, x, y, 10, 6);
+                    break;
+                case 2:
+                    shape = new SegmentShape(null, edge, x - 10, y, x + 10, y + 5);
+                    break;
+                default:
+                    shape = new PolygonShape(fill, edge, Arrays.asList(x, y, x + 20, y, x + 10, y + 15, x - 5, y + 8));
+                    break;
+            }
+            if (i % 8 == 0) {
+                shape.setRotation(i % 90);
+            } else if (i % 8 == 4) {
+                ((Node) shape).setScaleX(-1);
+            }
+            nodes.add((Node) shape);
+        }
+        AnchorPane source = new AnchorPane();
+        source.getChildren().addAll(nodes);
+        printHeap("shapes built");
+
+        File file = File.createTempFile("benchmark", ".svg");
+        file.deleteOnExit();
+        try {
+            long start = System.nanoTime();
+            SvgExporter.Report exported = new SvgExporter(PngExporter.drawingRegion(source)).export(source.getChildren(), file);
+            System.out.printf("export: %s, %.1f MB (%.1f ms)%n", exported, file.length() / 1e6, (System.nanoTime() - start) / 1e6);
+            printHeap("after export");
+            source.getChildren().clear();
+            nodes.clear();
+
+            AnchorPane canvas = new AnchorPane();
+            long[] addNanos = new long[1];
+            start = System.nanoTime();
+            SvgImporter.Report imported = new SvgImporter(batch -> {
+                long addStart = System.nanoTime();
+                List<Node> added = new ArrayList<>(batch.size());
+                for (SelectableShape shape : batch) {
+                    added.add((Node) shape);
+                }
+                canvas.getChildren().addAll(added);
+                addNanos[0] += System.nanoTime() - addStart;
+            }).read(file);
+            System.out.printf("import: %s (%.1f ms, of which %.1f ms adding to the canvas)%n", imported,
+                    (System.nanoTime() - start) / 1e6, addNanos[0] / 1e6);
+            printHeap("after import");
+            if (canvas.getChildren().size() != COUNT) {
+                throw new IllegalStateException("Imported " + canvas.getChildren().size() + " shapes");
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static void printHeap(String step) {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("%s: heap in use %d MB%n", step, (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+    }
+}
@@ -0,0 +1,133 @@
+package group2128.sadproject.sadproject.io;
+
+import group2128.sadproject.sadproject.factory.EllipseShape;
+import group2128.sadproject.sadproject.factory.GroupShape;
+import group2128.sadproject.sadproject.factory.PolygonShape;
+import group2128.sadproject.sadproject.factory.PolylineShape;
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import group2128.sadproject.sadproject.factory.SegmentShape;
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.view.ShapeVisibility;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SvgExporter} class.
+ */
+class SvgExporterTest {
+
+    /**
+     * The precision of the exported coordinates, and of the bounds computed by JavaFX.
+     */
+    private static final double DELTA = 2e-3;
+
+    private static final double[] REGION = {-50, -50, 400, 300};
+
+    private static String export(List<? extends Node> nodes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SvgExporter(REGION).export(nodes, out);
+        return out.toString(StandardCharsets.UTF_8.name());
+    }
+
+    private static List<SelectableShape> reimport(String document) throws IOException {
+        List<SelectableShape> shapes = new ArrayList<>();
+        new SvgImporter(shapes::addAll).read(new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)));
+        return shapes;
+    }
+
+    private static void assertSameBounds(Bounds expected, Bounds actual) {
+        assertEquals(expected.getMinX(), actual.getMinX(), DELTA);
+        assertEquals(expected.getMinY(), actual.getMinY(), DELTA);
+        assertEquals(expected.getMaxX(), actual.getMaxX(), DELTA);
+        assertEquals(expected.getMaxY(), actual.getMaxY(), DELTA);
+    }
+
+    /**
+     * Tests that rotated and flipped shapes, and the members of groups, are imported back where they
+     * were drawn, with their colors.
+     */
+    @Test
+    void testRoundTrip() throws IOException {
+        RectangleShape rectangle = new RectangleShape(Color.RED, Color.BLACK, 60, 40, 80, 30);
+        rectangle.setRotation(30);
+        rectangle.setScaleX(-1);
+        EllipseShape ellipse = new EllipseShape(Color.color(0, 0, 1, 0.5), null, 200, 100, 40, 15);
+        ellipse.setRotation(-20);
+        SegmentShape segment = new SegmentShape(null, Color.GREEN, 0, 200, 120, 260);
+        segment.setRotation(45);
+        PolygonShape polygon = new PolygonShape(Color.YELLOW, Color.BLACK, Arrays.asList(250.0, 150.0, 330.0, 160.0, 290.0, 220.0));
+        polygon.setScaleY(-1);
+        PolylineShape polyline = new PolylineShape(Color.BLACK, Arrays.asList(10.0, 10.0, 30.0, 0.0, 50.0, 10.0));
+        GroupShape group = new GroupShape(List.of(
+                new RectangleShape(Color.WHITE, Color.BLACK, 100, 200, 20, 20),
+                new EllipseShape(Color.WHITE, Color.BLACK, 140, 210, 10, 5)));
+        group.setRotation(90);
+        group.moveBy(30, -10);
+        List<Node> nodes = List.of(rectangle, ellipse, segment, polygon, polyline, group);
+
+        List<SelectableShape> shapes = reimport(export(nodes));
+        assertEquals(7, shapes.size());
+        for (int i : new int[]{0, 1, 3, 4}) {
+            assertSameBounds(nodes.get(i).getBoundsInParent(), ((Node) shapes.get(i)).getBoundsInParent());
+        }
+        // the segment comes back with its rotation in its end points, which JavaFX bounds more tightly
+        SegmentShape imported = (SegmentShape) shapes.get(2);
+        Point2D end = segment.getShapeTransform().transform(segment.getEndX(), segment.getEndY());
+        assertEquals(end.getX(), imported.getEndX(), DELTA);
+        assertEquals(end.getY(), imported.getEndY(), DELTA);
+        for (int i = 0; i < 2; i++) {
+            Node member = group.getChildren().get(i);
+            assertSameBounds(group.localToParent(member.getBoundsInParent()), ((Node) shapes.get(5 + i)).getBoundsInParent());
+        }
+        assertEquals(Color.RED, ((RectangleShape) shapes.get(0)).getFill());
+        assertEquals(0.5, ((Color) ((EllipseShape) shapes.get(1)).getFill()).getOpacity(), 1e-2);
+        assertEquals(Color.GREEN, ((SegmentShape) shapes.get(2)).getStroke());
+    }
+
+    /**
+     * Tests the document element and the attributes of the shapes, and that the shapes of hidden layers
+     * are left out while the culled ones are kept.
+     */
+    @Test
+    void testDocument() throws IOException {
+        RectangleShape culled = new RectangleShape(null, Color.BLACK, 10, 10, 20, 20);
+        ShapeVisibility.setHidden(culled, ShapeVisibility.CULLED, true);
+        RectangleShape hidden = new RectangleShape(Color.RED, null, 10, 10, 20, 20);
+        ShapeVisibility.setHidden(hidden, ShapeVisibility.LAYER, true);
+        SegmentShape moved = new SegmentShape(null, Color.BLACK, 0, 0, 10, 10);
+        moved.setTranslateX(5.25);
+
+        String document = export(List.of(culled, hidden, moved));
+        assertTrue(document.contains("<svg xmlns=\"" + SvgExporter.SVG_NAMESPACE + "\" width=\"450\" height=\"350\" viewBox=\"-50 -50 450 350\">"), document);
+        assertTrue(document.contains("<rect fill=\"none\" stroke=\"#000000\" stroke-width=\"3\" x=\"0\" y=\"0\" width=\"20\" height=\"20\">"), document);
+        assertTrue(document.contains("<line transform=\"translate(5.25 0)\""), document);
+        assertFalse(document.contains("#ff0000"), document);
+        assertEquals(2, reimport(document).size());
+    }
+
+    /**
+     * Tests the formatting of the numbers.
+     */
+    @Test
+    void testNumbers() {
+        assertEquals("12", SvgExporter.number(12.0));
+        assertEquals("0.123", SvgExporter.number(0.12345));
+        assertEquals("-2.5", SvgExporter.number(-2.5));
+        assertEquals("0", SvgExporter.number(-0.0001));
+        assertEquals("0.001", SvgExporter.number(0.001));
+        assertThrows(IllegalArgumentException.class, () -> new SvgExporter(new double[]{0, 0, 0, 10}));
+    }
+}
@@ -0,0 +1,232 @@
+package group2128.sadproject.sadproject.io;
+
+import group2128.sadproject.sadproject.factory.EllipseShape;
+import group2128.sadproject.sadproject.factory.PolygonShape;
+import group2128.sadproject.sadproject.factory.PolylineShape;
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import group2128.sadproject.sadproject.factory.SegmentShape;
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.factory.ShapeTransform;
+import javafx.geometry.Point2D;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SvgImporter} class.
+ */
+class SvgImporterTest {
+
+    private static final double DELTA = 1e-9;
+
+    /**
+     * The precision of the pivots computed by JavaFX, which uses floats.
+     */
+    private static final double PIVOT_DELTA = 1e-3;
+
+    private final List<List<SelectableShape>> batches = new ArrayList<>();
+
+    private SvgImporter.Report read(SvgImporter importer, String content) throws IOException {
+        String document = "<svg xmlns=\"http://www.w3.org/2000/svg\">" + content + "</svg>";
+        return importer.read(new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Imports the content of a document, returning its shapes.
+     */
+    private List<SelectableShape> read(String content) throws IOException {
+        read(new SvgImporter(batches::add), content);
+        List<SelectableShape> shapes = new ArrayList<>();
+        batches.forEach(shapes::addAll);
+        return shapes;
+    }
+
+    /**
+     * Tests that each element becomes the matching shape, with its colors and stroke width.
+     */
+    @Test
+    void testElements() throws IOException {
+        List<SelectableShape> shapes = read(
+                "<rect x=\"10\" y=\"20\" width=\"30\" height=\"40\" fill=\"#ff0000\" stroke=\"blue\" stroke-width=\"2\"/>"
+                + "<circle cx=\"50\" cy=\"60\" r=\"5\" style=\"fill: none; stroke: #00ff00\"/>"
+                + "<ellipse cx=\"0\" cy=\"0\" rx=\"8\" ry=\"4\" fill-opacity=\"0.5\"/>"
+                + "<line x1=\"1\" y1=\"2\" x2=\"3\" y2=\"4\" stroke=\"black\"/>"
+                + "<polygon points=\"0,0 10,0 10-10\"/>"
+                + "<polyline points=\"0 0 5 5 10 0\" stroke=\"black\" fill=\"none\"/>");
+        assertEquals(6, shapes.size());
+
+        RectangleShape rectangle = (RectangleShape) shapes.get(0);
+        assertEquals(10, rectangle.getX(), DELTA);
+        assertEquals(20, rectangle.getY(), DELTA);
+        assertEquals(30, rectangle.getWidth(), DELTA);
+        assertEquals(40, rectangle.getHeight(), DELTA);
+        assertEquals(Color.RED, rectangle.getFillColor());
+        assertEquals(Color.BLUE, rectangle.getEdgeColor());
+        assertEquals(2, rectangle.getStrokeWidth(), DELTA);
+
+        EllipseShape circle = (EllipseShape) shapes.get(1);
+        assertEquals(50, circle.getCenterX(), DELTA);
+        assertEquals(5, circle.getRadiusY(), DELTA);
+        assertNull(circle.getFill());
+        assertEquals(Color.LIME, circle.getStroke());
+
+        EllipseShape ellipse = (EllipseShape) shapes.get(2);
+        assertEquals(0.5, ((Color) ellipse.getFill()).getOpacity(), DELTA);
+        assertNull(ellipse.getStroke());
+
+        SegmentShape segment = (SegmentShape) shapes.get(3);
+        assertEquals(3, segment.getEndX(), DELTA);
+        assertEquals(1, segment.getStrokeWidth(), DELTA);
+
+        assertEquals(List.of(0.0, 0.0, 10.0, 0.0, 10.0, -10.0), ((PolygonShape) shapes.get(4)).getPoints());
+        assertEquals(List.of(0.0, 0.0, 5.0, 5.0, 10.0, 0.0), ((PolylineShape) shapes.get(5)).getPoints());
+    }
+
+    /**
+     * Tests that the styles are inherited from the groups, and that definitions, hidden elements and
+     * elements with no counterpart are left out.
+     */
+    @Test
+    void testGroupsAndSkippedElements() throws IOException {
+        SvgImporter importer = new SvgImporter(batches::add);
+        SvgImporter.Report report = read(importer,
+                "<defs><rect id=\"r\" width=\"5\" height=\"5\"/></defs>"
+                + "<g fill=\"red\" stroke=\"black\" stroke-width=\"3\">"
+                + "  <rect width=\"5\" height=\"5\"/>"
+                + "  <g fill=\"none\"><rect width=\"5\" height=\"5\" stroke-width=\"bad\"/><rect width=\"5\" height=\"5\"/></g>"
+                + "  <rect width=\"5\" height=\"5\" display=\"none\"/>"
+                + "</g>"
+                + "<use href=\"#r\"/>"
+                + "<path d=\"M0 0 C10 10 20 10 30 0\"/>");
+        List<SelectableShape> shapes = batches.get(0);
+        assertEquals(3, shapes.size());
+        assertEquals(Color.RED, ((RectangleShape) shapes.get(0)).getFill());
+        assertEquals(3, ((RectangleShape) shapes.get(0)).getStrokeWidth(), DELTA);
+        assertNull(((RectangleShape) shapes.get(1)).getFill());
+        assertEquals(Color.BLACK, ((RectangleShape) shapes.get(2)).getStroke());
+
+        assertEquals(3, report.getShapes());
+        // the use and the curved path
+        assertEquals(2, report.getSkipped());
+        assertEquals(11, report.getElements());
+    }
+
+    /**
+     * Tests that the paths made of straight lines become a shape per subpath.
+     */
+    @Test
+    void testPaths() throws IOException {
+        List<SelectableShape> shapes = read(
+                "<path d=\"M0 0 L10 0 10 10 Z m20 20 h5 v5 l-5 0\" stroke=\"black\"/>");
+        assertEquals(2, shapes.size());
+        assertEquals(List.of(0.0, 0.0, 10.0, 0.0, 10.0, 10.0), ((PolygonShape) shapes.get(0)).getPoints());
+        assertEquals(List.of(20.0, 20.0, 25.0, 20.0, 25.0, 25.0, 20.0, 25.0), ((PolylineShape) shapes.get(1)).getPoints());
+    }
+
+    /**
+     * Tests that the transforms of the elements and their groups are composed: into the vertices of
+     * the polygons, and as a rotation and a flip about the center of the rectangles and the ellipses.
+     */
+    @Test
+    void testTransforms() throws IOException {
+        List<SelectableShape> shapes = read(
+                "<g transform=\"translate(100, 0)\">"
+                + "  <rect x=\"0\" y=\"0\" width=\"40\" height=\"20\" transform=\"rotate(30 20 10)\"/>"
+                + "  <ellipse cx=\"10\" cy=\"10\" rx=\"6\" ry=\"3\" transform=\"scale(-2 2)\"/>"
+                + "  <polygon points=\"0,0 10,0 0,10\" transform=\"matrix(0 1 -1 0 5 5)\"/>"
+                + "  <rect x=\"0\" y=\"0\" width=\"10\" height=\"30\" transform=\"matrix(0 2 2 0 0 0) rotate(10 5 15)\"/>"
+                + "</g>");
+
+        RectangleShape rotated = (RectangleShape) shapes.get(0);
+        assertEquals(40, rotated.getWidth(), DELTA);
+        assertEquals(30, rotated.getRotation(), DELTA);
+        assertEquals(1, rotated.getScaleX());
+        assertMapsTo(rotated, rotated.getX(), rotated.getY(),
+                ShapeTransform.translation(100, 0).concatenate(ShapeTransform.rotation(30, 20, 10)).transform(0, 0));
+
+        EllipseShape scaled = (EllipseShape) shapes.get(1);
+        assertEquals(0, scaled.getRotation(), DELTA);
+        assertEquals(80, scaled.getCenterX(), DELTA);
+        assertEquals(20, scaled.getCenterY(), DELTA);
+        assertEquals(12, scaled.getRadiusX(), DELTA);
+
+        assertEquals(List.of(105.0, 5.0, 105.0, 15.0, 95.0, 5.0), ((PolygonShape) shapes.get(2)).getPoints());
+
+        // a turned and mirrored rectangle keeps its corners in place
+        RectangleShape mirrored = (RectangleShape) shapes.get(3);
+        ShapeTransform transform = ShapeTransform.translation(100, 0)
+                .concatenate(new ShapeTransform(0, 2, 0, 2, 0, 0))
+                .concatenate(ShapeTransform.rotation(10, 5, 15));
+        assertEquals(-1, mirrored.getScaleX());
+        assertEquals(20, mirrored.getWidth(), DELTA);
+        assertEquals(60, mirrored.getHeight(), DELTA);
+        assertMapsTo(mirrored, mirrored.getX(), mirrored.getY(), transform.transform(0, 0));
+        assertMapsTo(mirrored, mirrored.getX() + 20, mirrored.getY() + 60, transform.transform(10, 30));
+    }
+
+    private static void assertMapsTo(SelectableShape shape, double x, double y, Point2D expected) {
+        Point2D actual = shape.getShapeTransform().transform(x, y);
+        assertEquals(expected.getX(), actual.getX(), PIVOT_DELTA);
+        assertEquals(expected.getY(), actual.getY(), PIVOT_DELTA);
+    }
+
+    /**
+     * Tests that the shapes are handed over in batches of the given size, in document order, and that
+     * nothing is handed over once the import is cancelled.
+     */
+    @Test
+    void testBatches() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 25; i++) {
+            content.append("<rect x=\"").append(i).append("\" width=\"1\" height=\"1\"/>");
+        }
+        SvgImporter importer = new SvgImporter(batches::add);
+        importer.setBatchSize(10);
+        assertEquals(25, read(importer, content.toString()).getShapes());
+        assertEquals(3, batches.size());
+        assertEquals(5, batches.get(2).size());
+        assertEquals(24, ((RectangleShape) batches.get(2).get(4)).getX(), DELTA);
+
+        List<List<SelectableShape>> received = new ArrayList<>();
+        SvgImporter[] cancelled = new SvgImporter[1];
+        cancelled[0] = new SvgImporter(batch -> {
+            received.add(batch);
+            cancelled[0].cancel();
+        });
+        cancelled[0].setBatchSize(10);
+        read(cancelled[0], content.toString());
+        assertEquals(1, received.size());
+        assertTrue(cancelled[0].isCancelled());
+    }
+
+    /**
+     * Tests that a document that is not well-formed is reported as an I/O error.
+     */
+    @Test
+    void testMalformedDocument() {
+        SvgImporter importer = new SvgImporter(batches::add);
+        assertThrows(IOException.class, () -> importer.read(new ByteArrayInputStream(
+                "<svg><rect width=\"1\" height=\"1\"></svg>".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * Tests the parsing of the values of attributes.
+     */
+    @Test
+    void testValues() {
+        assertEquals(List.of(10.0, -5.5, 0.5, 1e3, 2.0), SvgImporter.numbers("10-5.5.5, 1e3+2"));
+        assertEquals(96, SvgImporter.length("1in"), DELTA);
+        assertEquals(12, SvgImporter.length("12px"), DELTA);
+        assertEquals(0, SvgImporter.length("50%"), DELTA);
+        assertEquals(new ShapeTransform(2, 0, 10, 0, 3, 20),
+                SvgImporter.parseTransform("translate(10,20) scale(2, 3)"));
+        assertTrue(SvgImporter.parseTransform("unknown(1)").isIdentity());
+    }
+}
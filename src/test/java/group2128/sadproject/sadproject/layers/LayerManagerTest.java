@@ -0,0 +1,170 @@
+package group2128.sadproject.sadproject.layers;
+
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import group2128.sadproject.sadproject.memento.DrawingCanvasMemento;
+import group2128.sadproject.sadproject.view.ShapeVisibility;
+import javafx.scene.Node;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.json.JSONArray;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link LayerManager} class.
+ */
+class LayerManagerTest {
+
+    private AnchorPane canvas;
+    private LayerManager manager;
+    private RectangleShape first;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+        first = new RectangleShape(Color.RED, Color.RED, 0, 0, 100, 100);
+        canvas.getChildren().add(first);
+        manager = LayerManager.of(canvas);
+    }
+
+    /**
+     * Tests that a canvas starts with a single default layer holding its shapes.
+     */
+    @Test
+    void testDefaultLayer() {
+        assertSame(manager, LayerManager.of(canvas));
+        assertEquals(1, manager.getLayers().size());
+        assertEquals(LayerManager.DEFAULT_LAYER_NAME, manager.getActiveLayer().getName());
+        assertSame(manager.getActiveLayer(), manager.getLayer(first));
+        assertFalse(manager.isLayered());
+    }
+
+    /**
+     * Tests that new shapes join the active layer and that layers are rendered in bands.
+     */
+    @Test
+    void testNewShapesJoinActiveLayer() {
+        Layer bottom = manager.getActiveLayer();
+        Layer top = manager.addLayer("Top");
+        manager.setActiveLayer(top);
+        RectangleShape second = new RectangleShape(Color.BLUE, Color.BLUE, 50, 50, 100, 100);
+        canvas.getChildren().add(second);
+
+        assertSame(top, manager.getLayer(second));
+        assertTrue(second.getViewOrder() < first.getViewOrder());
+
+        manager.moveLayer(top, 0);
+        assertSame(top, manager.getLayers().get(0));
+        assertTrue(second.getViewOrder() > first.getViewOrder());
+        assertSame(bottom, manager.getLayer(first));
+    }
+
+    /**
+     * Tests that hidden, locked and frozen layers exclude their shapes from editing.
+     */
+    @Test
+    void testLayerStateAppliesToShapes() {
+        Layer layer = manager.getActiveLayer();
+
+        layer.setVisible(false);
+        assertFalse(first.isVisible());
+        assertTrue(first.isMouseTransparent());
+        assertFalse(LayerManager.isEditable(first));
+        assertTrue(ShapeVisibility.isHidden(first, ShapeVisibility.LAYER));
+
+        layer.setVisible(true);
+        layer.setLocked(true);
+        assertTrue(first.isVisible());
+        assertTrue(first.isMouseTransparent());
+
+        layer.setLocked(false);
+        layer.setFrozen(true);
+        assertTrue(first.isCache());
+        assertTrue(first.isMouseTransparent());
+
+        layer.setFrozen(false);
+        assertFalse(first.isCache());
+        assertFalse(first.isMouseTransparent());
+        assertTrue(LayerManager.isEditable(first));
+    }
+
+    /**
+     * Tests that culling and layers hide a shape independently.
+     */
+    @Test
+    void testVisibilityReasonsCombine() {
+        ShapeVisibility.setHidden(first, ShapeVisibility.CULLED, true);
+        manager.getActiveLayer().setVisible(false);
+        ShapeVisibility.setHidden(first, ShapeVisibility.CULLED, false);
+        assertFalse(first.isVisible());
+        assertFalse(ShapeVisibility.isShownIgnoring(first, ShapeVisibility.CULLED));
+
+        manager.getActiveLayer().setVisible(true);
+        assertTrue(first.isVisible());
+    }
+
+    /**
+     * Tests that removing a layer moves its shapes to the layer below it, and that the last layer stays.
+     */
+    @Test
+    void testRemoveLayerKeepsShapes() {
+        Layer bottom = manager.getActiveLayer();
+        Layer top = manager.addLayer("Top");
+        manager.assign(Collections.singletonList(first), top);
+        manager.setActiveLayer(top);
+
+        manager.removeLayer(top);
+        assertSame(bottom, manager.getLayer(first));
+        assertSame(bottom, manager.getActiveLayer());
+        assertThrows(IllegalStateException.class, () -> manager.removeLayer(bottom));
+    }
+
+    /**
+     * Tests that restoring a memento keeps the layers of the shapes.
+     */
+    @Test
+    void testMementoKeepsLayer() {
+        Layer top = manager.addLayer("Top");
+        manager.assign(first, top);
+        DrawingCanvasMemento memento = new DrawingCanvasMemento(canvas);
+        manager.assign(first, manager.getLayers().get(0));
+
+        memento.restore();
+        Node restored = canvas.getChildren().get(0);
+        assertNotSame(first, restored);
+        assertSame(top, manager.getLayer(restored));
+    }
+
+    /**
+     * Tests that the layers survive a round trip through their serialized form.
+     */
+    @Test
+    void testJsonRoundTrip() {
+        Layer top = manager.addLayer("Top");
+        top.setLocked(true);
+        manager.assign(first, top);
+        JSONArray json = manager.toJson();
+        assertTrue(manager.isLayered());
+
+        AnchorPane other = new AnchorPane();
+        LayerManager loaded = LayerManager.of(other);
+        loaded.loadJson(json);
+        assertEquals(2, loaded.getLayers().size());
+        assertEquals("Top", loaded.getActiveLayer().getName());
+        assertTrue(loaded.getActiveLayer().isLocked());
+
+        RectangleShape copy = (RectangleShape) first.getCopy();
+        LayerManager.copyLayer(first, copy);
+        other.getChildren().add(copy);
+        assertSame(loaded.getLayer(top.getId()), loaded.getLayer(copy));
+        assertTrue(copy.isMouseTransparent());
+
+        loaded.loadJson(null);
+        assertEquals(1, loaded.getLayers().size());
+        assertFalse(loaded.isLayered());
+    }
+}
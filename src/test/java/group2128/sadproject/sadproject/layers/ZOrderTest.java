@@ -0,0 +1,159 @@
+package group2128.sadproject.sadproject.layers;
+
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import group2128.sadproject.sadproject.memento.DrawingCanvasMemento;
+import javafx.scene.Node;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ZOrder} class.
+ */
+class ZOrderTest {
+
+    private AnchorPane canvas;
+    private List<Node> shapes;
+    private ZOrder zOrder;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+        shapes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            RectangleShape shape = new RectangleShape(Color.WHITE, Color.BLACK, i * 10, 0, 10, 10);
+            shapes.add(shape);
+            canvas.getChildren().add(shape);
+        }
+        zOrder = ZOrder.of(canvas);
+    }
+
+    /**
+     * Tests that generated keys always fall between their bounds and stay short when appending.
+     */
+    @Test
+    void testKeyBetween() {
+        List<String> keys = new ArrayList<>();
+        keys.add(ZOrder.keyBetween(null, null));
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            int index = random.nextInt(keys.size() + 1);
+            String lower = index > 0 ? keys.get(index - 1) : null;
+            String upper = index < keys.size() ? keys.get(index) : null;
+            String key = ZOrder.keyBetween(lower, upper);
+            assertTrue(ZOrder.isValidKey(key), key);
+            assertTrue(lower == null || lower.compareTo(key) < 0, lower + " < " + key);
+            assertTrue(upper == null || key.compareTo(upper) < 0, key + " < " + upper);
+            keys.add(index, key);
+        }
+
+        String last = null;
+        for (int i = 0; i < 100000; i++) {
+            last = ZOrder.keyBetween(last, null);
+        }
+        assertTrue(last.length() <= 4, last);
+        assertThrows(IllegalArgumentException.class, () -> ZOrder.keyBetween("b", "a"));
+    }
+
+    /**
+     * Tests that the children are kept sorted by key as they are added anywhere.
+     */
+    @Test
+    void testChildrenKeepSortedKeys() {
+        canvas.getChildren().add(2, new RectangleShape(Color.RED, Color.RED, 0, 0, 10, 10));
+        canvas.getChildren().add(0, new RectangleShape(Color.RED, Color.RED, 0, 0, 10, 10));
+        assertSorted();
+        for (int i = 0; i < canvas.getChildren().size(); i++) {
+            assertEquals(i, zOrder.indexOf(ZOrder.getKey(canvas.getChildren().get(i))));
+        }
+    }
+
+    /**
+     * Tests that bringing shapes forward moves each one above its next unselected neighbour,
+     * only changing the keys of the moved shapes.
+     */
+    @Test
+    void testBringForwardAndSendBackward() {
+        String untouched = ZOrder.getKey(shapes.get(2));
+        List<ZOrder.Move> moves = zOrder.bringForward(List.of(shapes.get(0), shapes.get(1)));
+        assertEquals(List.of(shapes.get(2), shapes.get(0), shapes.get(1), shapes.get(3), shapes.get(4)),
+                canvas.getChildren());
+        assertEquals(2, moves.size());
+        assertEquals(untouched, ZOrder.getKey(shapes.get(2)));
+        assertSorted();
+
+        zOrder.sendBackward(List.of(shapes.get(4)));
+        assertEquals(List.of(shapes.get(2), shapes.get(0), shapes.get(1), shapes.get(4), shapes.get(3)),
+                canvas.getChildren());
+        assertTrue(zOrder.sendBackward(List.of(shapes.get(2))).isEmpty());
+        assertSorted();
+    }
+
+    /**
+     * Tests that moving shapes to the front and to the back keeps their relative order and is undone
+     * without a snapshot.
+     */
+    @Test
+    void testFrontBackAndUndo() {
+        List<Node> initial = new ArrayList<>(canvas.getChildren());
+        List<ZOrder.Move> front = zOrder.bringToFront(List.of(shapes.get(3), shapes.get(0)));
+        assertEquals(List.of(shapes.get(1), shapes.get(2), shapes.get(4), shapes.get(0), shapes.get(3)),
+                canvas.getChildren());
+        List<ZOrder.Move> back = zOrder.sendToBack(List.of(shapes.get(4)));
+        assertEquals(shapes.get(4), canvas.getChildren().get(0));
+        assertSorted();
+
+        zOrder.undo(back);
+        zOrder.undo(front);
+        assertEquals(initial, canvas.getChildren());
+        assertSorted();
+    }
+
+    /**
+     * Tests that moves are undone on copies of the shapes keeping their keys, such as shapes restored
+     * by a memento after the move.
+     */
+    @Test
+    void testUndoAfterMementoRestore() {
+        List<ZOrder.Move> moves = zOrder.bringToFront(List.of(shapes.get(0)));
+        DrawingCanvasMemento memento = new DrawingCanvasMemento(canvas);
+        memento.restore();
+        Node copy = canvas.getChildren().get(4);
+        assertNotSame(shapes.get(0), copy);
+
+        zOrder.undo(moves);
+        assertSame(copy, canvas.getChildren().get(0));
+        assertSorted();
+    }
+
+    /**
+     * Tests that a shape given an existing key is placed just above the shape holding it.
+     */
+    @Test
+    void testMoveToExistingKey() {
+        zOrder.moveTo(shapes.get(4), ZOrder.getKey(shapes.get(1)));
+        assertEquals(List.of(shapes.get(0), shapes.get(1), shapes.get(4), shapes.get(2), shapes.get(3)),
+                canvas.getChildren());
+        assertSorted();
+    }
+
+    /**
+     * Asserts that the keys of the children are strictly increasing.
+     */
+    private void assertSorted() {
+        String previous = null;
+        for (Node node : canvas.getChildren()) {
+            String key = ZOrder.getKey(node);
+            assertTrue(ZOrder.isValidKey(key), key);
+            assertTrue(previous == null || previous.compareTo(key) < 0, previous + " < " + key);
+            previous = key;
+        }
+    }
+}
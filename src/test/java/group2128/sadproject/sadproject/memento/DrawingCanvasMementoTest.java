@@ -63,8 +63,9 @@ public class DrawingCanvasMementoTest {
         assertEquals(1, canvas.getChildren().size());
         RectangleShape restored = (RectangleShape) canvas.getChildren().get(0);
         assertNotSame(rect, restored);
-        assertNotSame(rect.getFill(), restored.getFill());
-        assertNotSame(rect.getEdgeColor(),restored.getEdgeColor());
+        // Colors are immutable, so the copy shares the instances interned by the ColorCache
+        assertSame(rect.getFill(), restored.getFill());
+        assertSame(rect.getEdgeColor(),restored.getEdgeColor());
         assertNotSame(rect.getDimensionX(), restored.getDimensionX());
         assertNotSame(rect.getDimensionY(), restored.getDimensionY());
         assertEquals(rect.getFillColor(), restored.getFillColor());
@@ -92,8 +93,9 @@ public class DrawingCanvasMementoTest {
 
         EllipseShape restored = (EllipseShape) canvas.getChildren().get(0);
         assertNotSame(ellipse, restored);
-        assertNotSame(ellipse.getFill(), restored.getFill());
-        assertNotSame(ellipse.getEdgeColor(),restored.getEdgeColor());
+        // Colors are immutable, so the copy shares the instances interned by the ColorCache
+        assertSame(ellipse.getFill(), restored.getFill());
+        assertSame(ellipse.getEdgeColor(),restored.getEdgeColor());
         assertNotSame(ellipse.getDimensionX(), restored.getDimensionX());
         assertNotSame(ellipse.getDimensionY(), restored.getDimensionY());
         assertEquals(ellipse.getFillColor(), restored.getFillColor());
@@ -122,7 +124,8 @@ public class DrawingCanvasMementoTest {
         SegmentShape restored = (SegmentShape) canvas.getChildren().get(0);
         assertNotSame(segment, restored);
         assertNotSame(segment.getFill(), restored.getFill());
-        assertNotSame(segment.getEdgeColor(),restored.getEdgeColor());
+        // Colors are immutable, so the copy shares the instance interned by the ColorCache
+        assertSame(segment.getEdgeColor(),restored.getEdgeColor());
         assertNotSame(segment.getDimensionX(), restored.getDimensionX());
         assertNotSame(segment.getDimensionY(), restored.getDimensionY());
         assertEquals(segment.getEdgeColor(), restored.getEdgeColor());
@@ -0,0 +1,129 @@
+package group2128.sadproject.sadproject.spatial;
+
+import group2128.sadproject.sadproject.factory.EllipseShape;
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link CanvasIndex} class.
+ * <p>
+ * The index is expected to follow the children of the canvas and the bounds of the shapes
+ * without being told about any change explicitly.
+ * </p>
+ */
+class CanvasIndexTest {
+
+    private AnchorPane canvas;
+    private RectangleShape rectangle;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+        rectangle = new RectangleShape(Color.WHITE, Color.BLACK, 0, 0, 50, 50);
+        canvas.getChildren().add(rectangle);
+    }
+
+    /**
+     * Tests that there is a single index per canvas and that it picks up existing shapes.
+     */
+    @Test
+    void testOfReturnsSameIndex() {
+        CanvasIndex index = CanvasIndex.of(canvas);
+        assertSame(index, CanvasIndex.of(canvas));
+        assertEquals(1, index.size());
+        assertEquals(List.of(rectangle), index.query(10, 10, 20, 20));
+    }
+
+    /**
+     * Tests that added and removed shapes are indexed and dropped automatically.
+     */
+    @Test
+    void testTracksChildren() {
+        CanvasIndex index = CanvasIndex.of(canvas);
+        EllipseShape ellipse = new EllipseShape(Color.WHITE, Color.BLACK, 200, 200, 20, 10);
+        canvas.getChildren().add(ellipse);
+        assertEquals(2, index.size());
+        assertEquals(List.of(ellipse), index.query(190, 190, 210, 210));
+
+        canvas.getChildren().remove(rectangle);
+        assertEquals(1, index.size());
+        assertTrue(index.query(10, 10, 20, 20).isEmpty());
+
+        canvas.getChildren().setAll(rectangle, ellipse);
+        assertEquals(2, index.size());
+    }
+
+    /**
+     * Tests that a shape moved on the canvas is re-indexed at the next query.
+     */
+    @Test
+    void testMovedShapeIsReindexed() {
+        CanvasIndex index = CanvasIndex.of(canvas);
+        rectangle.setTranslateX(500);
+        assertTrue(index.query(10, 10, 20, 20).isEmpty());
+        assertEquals(List.of(rectangle), index.query(510, 10, 520, 20));
+
+        double[] extent = index.getExtent();
+        assertTrue(extent[0] > 400);
+    }
+
+    /**
+     * Tests that shapes are sorted by stacking order, and that the order follows restacking.
+     */
+    @Test
+    void testSortByStackingOrder() {
+        CanvasIndex index = CanvasIndex.of(canvas);
+        RectangleShape top = new RectangleShape(Color.WHITE, Color.BLACK, 10, 10, 50, 50);
+        canvas.getChildren().add(top);
+
+        List<SelectableShape> shapes = new ArrayList<>(List.of(top, rectangle));
+        index.sortByStackingOrder(shapes);
+        assertEquals(List.of(rectangle, top), shapes);
+
+        top.toBack();
+        index.sortByStackingOrder(shapes);
+        assertEquals(List.of(top, rectangle), shapes);
+    }
+
+    /**
+     * Tests that the region listeners receive the old and new bounds of added, moved and removed shapes.
+     */
+    @Test
+    void testReportsChangedRegions() {
+        CanvasIndex index = CanvasIndex.of(canvas);
+        List<double[]> regions = new ArrayList<>();
+        Consumer<double[]> listener = regions::add;
+        index.addRegionListener(listener);
+        double[] before = index.getExtent();
+
+        rectangle.moveBy(100, 0);
+        assertEquals(1, regions.size());
+        assertArrayEquals(before, regions.get(0));
+        index.getExtent();
+        assertEquals(2, regions.size());
+        assertEquals(before[0] + 100, regions.get(1)[0], 1e-9);
+
+        RectangleShape added = new RectangleShape(Color.WHITE, Color.BLACK, 500, 500, 10, 10);
+        canvas.getChildren().add(added);
+        assertEquals(3, regions.size());
+        assertEquals(added.getBoundsInParent().getMinX(), regions.get(2)[0], 1e-9);
+        canvas.getChildren().remove(added);
+        assertArrayEquals(regions.get(2), regions.get(regions.size() - 1));
+
+        index.removeRegionListener(listener);
+        int reported = regions.size();
+        rectangle.moveBy(100, 0);
+        index.getExtent();
+        assertEquals(reported, regions.size());
+    }
+}
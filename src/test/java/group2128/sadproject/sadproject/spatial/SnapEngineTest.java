@@ -0,0 +1,195 @@
+package group2128.sadproject.sadproject.spatial;
+
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SnapEngine} class.
+ * <p>
+ * The engine is expected to snap boxes and points to the edges, centers and equal spacings of the
+ * shapes of its canvas, to fall back to the grid, and to keep its indexes up to date on its own.
+ * </p>
+ */
+class SnapEngineTest {
+
+    private static final double EPSILON = 1e-9;
+
+    private AnchorPane canvas;
+    private RectangleShape rectangle;
+    private SnapEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+        rectangle = new RectangleShape(Color.WHITE, Color.BLACK, 100, 100, 50, 50);
+        canvas.getChildren().add(rectangle);
+        engine = SnapEngine.of(canvas);
+    }
+
+    /**
+     * Tests that there is a single engine per canvas and that it is found from the canvas.
+     */
+    @Test
+    void testOfReturnsSameEngine() {
+        assertSame(engine, SnapEngine.of(canvas));
+        assertSame(engine, SnapEngine.find(canvas));
+        assertNull(SnapEngine.find(new AnchorPane()));
+        assertEquals(1, engine.size());
+    }
+
+    /**
+     * Tests that an edge close to the edge of another shape snaps to it and produces a guide.
+     */
+    @Test
+    void testSnapsToEdge() {
+        Bounds target = rectangle.getBoundsInParent();
+        SnapEngine.SnapResult result = engine.snap(new BoundingBox(target.getMaxX() + 40, target.getMinY() + 3, 30, 30));
+
+        assertEquals(0, result.getDx(), EPSILON);
+        assertEquals(-3, result.getDy(), EPSILON);
+        assertEquals(1, result.getGuides().size());
+        double[] guide = result.getGuides().get(0);
+        assertEquals(target.getMinY(), guide[1], EPSILON);
+        assertEquals(target.getMinY(), guide[3], EPSILON);
+    }
+
+    /**
+     * Tests that the center of a box snaps to the center of another shape.
+     */
+    @Test
+    void testSnapsToCenter() {
+        Bounds target = rectangle.getBoundsInParent();
+        SnapEngine.SnapResult result = engine.snap(new BoundingBox(target.getCenterX() + 4 - 15, 400, 30, 10));
+
+        assertEquals(-4, result.getDx(), EPSILON);
+        assertEquals(0, result.getDy(), EPSILON);
+    }
+
+    /**
+     * Tests that a box between two shapes snaps to the position leaving equal gaps on both sides.
+     */
+    @Test
+    void testSnapsToEqualSpacing() {
+        RectangleShape right = new RectangleShape(Color.WHITE, Color.BLACK, 300, 100, 50, 50);
+        canvas.getChildren().add(right);
+        double before = rectangle.getBoundsInParent().getMaxX();
+        double after = right.getBoundsInParent().getMinX();
+        double middle = (before + after) / 2;
+
+        SnapEngine.SnapResult result = engine.snap(new BoundingBox(middle - 25 + 3, 90, 50, 20));
+
+        assertEquals(-3, result.getDx(), EPSILON);
+        assertTrue(result.getGuides().size() >= 2);
+    }
+
+    /**
+     * Tests that boxes and points snap to the grid when no shape is close enough.
+     */
+    @Test
+    void testSnapsToGrid() {
+        engine.setGridSize(10);
+
+        SnapEngine.SnapResult result = engine.snap(new BoundingBox(403, 517, 30, 30));
+        assertEquals(-3, result.getDx(), EPSILON);
+        assertEquals(3, result.getDy(), EPSILON);
+        assertTrue(result.getGuides().isEmpty());
+
+        assertEquals(new Point2D(410, 520), engine.snapPoint(413, 517, null));
+    }
+
+    /**
+     * Tests that a point snaps to the nearest edge unless the shape owning it is excluded.
+     */
+    @Test
+    void testSnapPointExcludesShape() {
+        Bounds target = rectangle.getBoundsInParent();
+        Point2D snapped = engine.snapPoint(target.getMaxX() + 2, 600, null);
+        assertEquals(target.getMaxX(), snapped.getX(), EPSILON);
+        assertEquals(600, snapped.getY(), EPSILON);
+
+        snapped = engine.snapPoint(target.getMaxX() + 2, 600, rectangle);
+        assertEquals(target.getMaxX() + 2, snapped.getX(), EPSILON);
+    }
+
+    /**
+     * Tests that moving shapes are ignored until the end of the move.
+     */
+    @Test
+    void testIgnoresMovingShapes() {
+        Bounds target = rectangle.getBoundsInParent();
+        Bounds box = new BoundingBox(target.getMinX() + 2, 400, 10, 10);
+
+        engine.beginMove(List.of(rectangle));
+        assertEquals(0, engine.snap(box).getDx(), EPSILON);
+        assertEquals(0, engine.size());
+
+        engine.endMove();
+        assertEquals(-2, engine.snap(box).getDx(), EPSILON);
+        assertEquals(1, engine.size());
+    }
+
+    /**
+     * Tests that the indexes follow moved, added and removed shapes without being told.
+     */
+    @Test
+    void testTracksChanges() {
+        rectangle.moveBy(200, 0);
+        Bounds target = rectangle.getBoundsInParent();
+        assertEquals(target.getMinX(), engine.snapPoint(target.getMinX() + 1, 700, null).getX(), EPSILON);
+
+        RectangleShape other = new RectangleShape(Color.WHITE, Color.BLACK, 600, 600, 20, 20);
+        canvas.getChildren().add(other);
+        assertEquals(2, engine.size());
+
+        canvas.getChildren().remove(rectangle);
+        assertEquals(1, engine.size());
+        assertEquals(target.getMinX() + 1, engine.snapPoint(target.getMinX() + 1, 700, null).getX(), EPSILON);
+    }
+
+    /**
+     * Tests that a dragged shape is moved to the snapped position and that the guides are published
+     * during the drag and cleared when it ends.
+     */
+    @Test
+    void testSnapsDraggedShape() {
+        List<List<double[]>> published = new ArrayList<>();
+        engine.setGuideListener(published::add);
+        RectangleShape dragged = new RectangleShape(Color.WHITE, Color.BLACK, 300, 500, 50, 50);
+        canvas.getChildren().add(dragged);
+        dragged.moveBy(rectangle.getBoundsInParent().getMinX() - dragged.getBoundsInParent().getMinX() + 4, 0);
+
+        engine.shapeDragged(dragged);
+        assertEquals(rectangle.getBoundsInParent().getMinX(), dragged.getBoundsInParent().getMinX(), EPSILON);
+        assertFalse(published.get(published.size() - 1).isEmpty());
+
+        engine.shapeReleased(dragged);
+        assertTrue(published.get(published.size() - 1).isEmpty());
+        assertEquals(2, engine.size());
+    }
+
+    /**
+     * Tests that a disabled engine leaves positions unchanged.
+     */
+    @Test
+    void testDisabled() {
+        engine.setEnabled(false);
+        engine.setGridSize(10);
+        Bounds target = rectangle.getBoundsInParent();
+
+        SnapEngine.SnapResult result = engine.snap(new BoundingBox(target.getMinX() + 2, 403, 10, 10));
+        assertEquals(0, result.getDx(), EPSILON);
+        assertEquals(0, result.getDy(), EPSILON);
+        assertEquals(new Point2D(413, 417), engine.snapPoint(413, 417, null));
+    }
+}
@@ -0,0 +1,105 @@
+package group2128.sadproject.sadproject.spatial;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SpatialIndex} class.
+ * <p>
+ * Query results are compared against a brute-force scan of the same boxes.
+ * </p>
+ */
+class SpatialIndexTest {
+
+    private SpatialIndex<String> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SpatialIndex<>(10);
+    }
+
+    /**
+     * Tests that range queries return exactly the items a linear scan would return.
+     */
+    @Test
+    void testQueryMatchesBruteForce() {
+        Random random = new Random(42);
+        List<double[]> boxes = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            double x = random.nextDouble() * 1000 - 500;
+            double y = random.nextDouble() * 1000 - 500;
+            double[] box = {x, y, x + random.nextDouble() * 40, y + random.nextDouble() * 40};
+            boxes.add(box);
+            index.put("item" + i, box[0], box[1], box[2], box[3]);
+        }
+
+        for (int q = 0; q < 50; q++) {
+            double x = random.nextDouble() * 1000 - 500;
+            double y = random.nextDouble() * 1000 - 500;
+            double size = random.nextDouble() * 300;
+            Set<String> expected = new HashSet<>();
+            for (int i = 0; i < boxes.size(); i++) {
+                double[] box = boxes.get(i);
+                if (box[0] <= x + size && box[2] >= x && box[1] <= y + size && box[3] >= y) {
+                    expected.add("item" + i);
+                }
+            }
+            List<String> result = index.query(x, y, x + size, y + size);
+            assertEquals(expected.size(), result.size(), "no duplicates expected");
+            assertEquals(expected, new HashSet<>(result));
+        }
+    }
+
+    /**
+     * Tests that moving and removing items updates the query results.
+     */
+    @Test
+    void testMoveAndRemove() {
+        index.put("a", 0, 0, 5, 5);
+        assertEquals(List.of("a"), index.query(0, 0, 1, 1));
+
+        index.put("a", 100, 100, 105, 105);
+        assertTrue(index.query(0, 0, 10, 10).isEmpty());
+        assertEquals(List.of("a"), index.query(99, 99, 101, 101));
+        assertArrayEquals(new double[]{100, 100, 105, 105}, index.getBounds("a"));
+
+        assertTrue(index.remove("a"));
+        assertFalse(index.remove("a"));
+        assertFalse(index.contains("a"));
+        assertEquals(0, index.size());
+        assertTrue(index.query(-1000, -1000, 1000, 1000).isEmpty());
+        assertNull(index.getExtent());
+    }
+
+    /**
+     * Tests that items spanning too many cells are still found and can be removed.
+     */
+    @Test
+    void testOversizedItems() {
+        index.put("huge", -10000, -10000, 10000, 10000);
+        index.put("small", 0, 0, 1, 1);
+        assertEquals(Set.of("huge", "small"), new HashSet<>(index.query(0, 0, 2, 2)));
+        assertEquals(List.of("huge"), index.query(5000, 5000, 5001, 5001));
+        assertArrayEquals(new double[]{-10000, -10000, 10000, 10000}, index.getExtent());
+
+        index.remove("huge");
+        assertTrue(index.query(5000, 5000, 5001, 5001).isEmpty());
+        assertArrayEquals(new double[]{0, 0, 1, 1}, index.getExtent());
+    }
+
+    /**
+     * Tests that a non-positive cell size is rejected.
+     */
+    @Test
+    void testInvalidCellSize() {
+        assertThrows(IllegalArgumentException.class, () -> new SpatialIndex<String>(0));
+    }
+}
@@ -0,0 +1,89 @@
+package group2128.sadproject.sadproject.strategy;
+
+import group2128.sadproject.sadproject.commands.CommandHistory;
+import group2128.sadproject.sadproject.factory.EllipseShape;
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the rubber-band creation of rectangles and ellipses by the {@link BoxDrawingStrategy} subclasses.
+ */
+class BoxDrawingStrategyTest {
+
+    private AnchorPane canvas;
+    private DrawingContext context;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+        context = new DrawingContext(canvas);
+        DrawingParams params = context.getDrawingParams();
+        params.setCommandHistory(new CommandHistory());
+        params.setFillColor(Color.WHITE);
+        params.setEdgeColor(Color.BLACK);
+        params.setWidthValueProperty(10);
+        params.setHeightValueProperty(10);
+    }
+
+    /**
+     * Tests that dragging a rectangle writes its size to the drawing parameters as it moves
+     * and draws it from corner to corner on release.
+     */
+    @Test
+    void testDragRectangle() {
+        context.setStrategyMode(new RectangleDrawingStrategy());
+        assertTrue(context.handlePress(100, 50, false, false));
+        assertTrue(context.handleDrag(60, 80));
+        assertEquals(40, context.getDrawingParams().getWidthValuePropertyProperty().get());
+        assertEquals(30, context.getDrawingParams().getHeightValuePropertyProperty().get());
+        assertEquals(1, canvas.getChildren().size());
+
+        assertTrue(context.handleRelease(20, 110));
+        assertEquals(1, canvas.getChildren().size());
+        RectangleShape rectangle = (RectangleShape) canvas.getChildren().get(0);
+        assertEquals(20, rectangle.getX());
+        assertEquals(50, rectangle.getY());
+        assertEquals(80, rectangle.getWidth());
+        assertEquals(60, rectangle.getHeight());
+        assertFalse(context.getDrawingParams().getCommandHistory().isEmpty());
+    }
+
+    /**
+     * Tests that an ellipse dragged across a box is inscribed in it.
+     */
+    @Test
+    void testDragEllipse() {
+        context.setStrategyMode(new EllipseDrawingStrategy());
+        context.handlePress(0, 0, false, false);
+        context.handleDrag(50, 50);
+        assertTrue(context.handleRelease(100, 40));
+
+        EllipseShape ellipse = (EllipseShape) canvas.getChildren().get(0);
+        assertEquals(50, ellipse.getCenterX());
+        assertEquals(20, ellipse.getCenterY());
+        assertEquals(50, ellipse.getRadiusX());
+        assertEquals(20, ellipse.getRadiusY());
+    }
+
+    /**
+     * Tests that a press and release without a real drag leaves the click to draw the shape
+     * with the size of the drawing parameters.
+     */
+    @Test
+    void testClickKeepsParameterSize() {
+        context.setStrategyMode(new RectangleDrawingStrategy());
+        context.handlePress(100, 100, false, false);
+        context.handleDrag(101, 101);
+        assertFalse(context.handleRelease(101, 100));
+        assertTrue(canvas.getChildren().isEmpty());
+
+        context.handleClick(100, 100);
+        RectangleShape rectangle = (RectangleShape) canvas.getChildren().get(0);
+        assertEquals(10, rectangle.getWidth());
+    }
+}
@@ -0,0 +1,243 @@
+package group2128.sadproject.sadproject.strategy;
+
+import group2128.sadproject.sadproject.factory.GroupShape;
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import group2128.sadproject.sadproject.layers.Layer;
+import group2128.sadproject.sadproject.layers.LayerManager;
+import group2128.sadproject.sadproject.view.SelectionOverlay;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the selection handling of the {@link DrawingContext} class.
+ * <p>
+ * Two non-overlapping rectangles are placed on a canvas; clicks are simulated by calling
+ * {@code handleClick} directly in idle mode.
+ * </p>
+ */
+class DrawingContextTest {
+
+    private DrawingContext context;
+    private SelectionOverlay overlay;
+    private RectangleShape first;
+    private RectangleShape second;
+
+    @BeforeEach
+    void setUp() {
+        AnchorPane canvas = new AnchorPane();
+        overlay = new SelectionOverlay(canvas);
+        new Pane(canvas, overlay);
+        context = new DrawingContext(canvas);
+        context.setStrategyMode(new IdleStrategy());
+        context.setSelectionOverlay(overlay);
+
+        first = new RectangleShape(Color.WHITE, Color.BLACK, 0, 0, 50, 50);
+        second = new RectangleShape(Color.RED, Color.BLUE, 100, 0, 50, 50);
+        canvas.getChildren().addAll(first, second);
+    }
+
+    /**
+     * Tests that a plain click replaces the selection with the clicked shape.
+     */
+    @Test
+    void testClickReplacesSelection() {
+        context.handleClick(10, 10);
+        context.handleClick(110, 10);
+        assertSame(second, context.getSelectedShape());
+        assertEquals(1, context.getSelectedShapes().size());
+        assertFalse(first.isSelected());
+        assertFalse(overlay.isShown(first));
+        assertTrue(overlay.isShown(second));
+        assertEquals(Color.RED, context.getDrawingParams().getFillColor());
+    }
+
+    /**
+     * Tests that shift-clicking adds shapes to the selection and toggles them off again.
+     */
+    @Test
+    void testShiftClickTogglesSelection() {
+        context.handleClick(10, 10);
+        context.handleClick(110, 10, true);
+        assertEquals(2, context.getSelectedShapes().size());
+        assertSame(second, context.getSelectedShape());
+
+        context.handleClick(110, 10, true);
+        assertEquals(1, context.getSelectedShapes().size());
+        assertSame(first, context.getSelectedShape());
+        assertFalse(second.isSelected());
+        assertFalse(overlay.isShown(second));
+
+        context.handleClick(300, 300, true);
+        assertEquals(1, context.getSelectedShapes().size());
+    }
+
+    /**
+     * Tests that select-all selects every shape and that clearing empties the selection.
+     */
+    @Test
+    void testSelectAllAndClear() {
+        context.selectAll();
+        assertEquals(2, context.getSelectedShapes().size());
+        assertTrue(first.isSelected() && second.isSelected());
+        assertTrue(overlay.isShown(first) && overlay.isShown(second));
+
+        context.clearSelection();
+        assertTrue(context.getSelectedShapes().isEmpty());
+        assertNull(context.getSelectedShape());
+        assertFalse(first.isSelected() || second.isSelected());
+        assertTrue(overlay.getOutlines().getElements().isEmpty());
+    }
+
+    /**
+     * Tests that the selection view exposed to callers cannot be modified.
+     */
+    @Test
+    void testSelectedShapesIsReadOnly() {
+        assertThrows(UnsupportedOperationException.class, () -> context.getSelectedShapes().add(first));
+    }
+
+    /**
+     * Tests that a marquee dragged from empty space selects only the shapes it fully encloses.
+     */
+    @Test
+    void testMarqueeSelectsEnclosedShapes() {
+        assertTrue(context.handlePress(-40, -40, false, false));
+        assertTrue(context.handleDrag(100, 40));
+        assertFalse(overlay.getRubberBand().getElements().isEmpty());
+        assertTrue(context.handleRelease(100, 40));
+
+        assertTrue(overlay.getRubberBand().getElements().isEmpty());
+        assertEquals(1, context.getSelectedShapes().size());
+        assertSame(first, context.getSelectedShape());
+
+        assertTrue(context.handlePress(-40, -40, false, false));
+        assertTrue(context.handleRelease(140, 40));
+        assertEquals(2, context.getSelectedShapes().size());
+        assertSame(second, context.getSelectedShape());
+    }
+
+    /**
+     * Tests that a marquee started with the extend modifier adds to the selection,
+     * and that a plain one replaces it.
+     */
+    @Test
+    void testMarqueeExtendsSelection() {
+        context.handleClick(110, 10);
+        context.handlePress(-40, -40, true, false);
+        context.handleRelease(40, 40);
+        assertEquals(2, context.getSelectedShapes().size());
+
+        context.handlePress(60, -40, false, false);
+        context.handleRelease(140, 40);
+        assertEquals(1, context.getSelectedShapes().size());
+        assertSame(second, context.getSelectedShape());
+        assertFalse(first.isSelected());
+    }
+
+    /**
+     * Tests that a lasso selects the shapes inside its freehand outline only.
+     */
+    @Test
+    void testLassoSelectsShapesInsideOutline() {
+        // a triangle enclosing the first rectangle, whose bounding box also covers the second one
+        context.handlePress(-40, -40, false, true);
+        context.handleDrag(150, -40);
+        context.handleDrag(-40, 150);
+        assertTrue(context.handleRelease(-40, -40));
+
+        assertEquals(1, context.getSelectedShapes().size());
+        assertSame(first, context.getSelectedShape());
+    }
+
+    /**
+     * Tests that pressing on a shape does not start a rubber band, that a press in a drawing mode
+     * starts the drawing gesture instead, and that a press released in place is left to the click handling.
+     */
+    @Test
+    void testRubberBandOnlyStartsOnEmptyCanvas() {
+        assertFalse(context.handlePress(10, 10, false, false));
+        assertFalse(context.handleDrag(80, 80));
+        assertFalse(context.handleRelease(80, 80));
+
+        assertTrue(context.handlePress(300, 300, false, false));
+        assertFalse(context.handleRelease(301, 300));
+
+        context.setStrategyMode(new RectangleDrawingStrategy());
+        assertTrue(context.handlePress(300, 300, false, false));
+        assertFalse(context.handleRelease(300, 300));
+        assertTrue(context.getSelectedShapes().isEmpty());
+    }
+
+    /**
+     * Tests that a shape moved after being indexed is found at its new position.
+     */
+    @Test
+    void testMarqueeFindsMovedShape() {
+        context.handlePress(-40, -40, false, false);
+        context.handleRelease(40, 40);
+        assertSame(first, context.getSelectedShape());
+
+        first.setTranslateX(400);
+        context.handlePress(-40, -40, false, false);
+        context.handleRelease(40, 40);
+        assertTrue(context.getSelectedShapes().isEmpty());
+
+        context.handlePress(360, -40, false, false);
+        context.handleRelease(440, 40);
+        assertSame(first, context.getSelectedShape());
+    }
+
+    /**
+     * Tests that a shape of a higher layer is picked over the shapes stacked above it in lower layers,
+     * and that the shapes of locked layers cannot be selected.
+     */
+    @Test
+    void testClickRespectsLayers() {
+        AnchorPane canvas = context.getDrawingParams().getDrawingCanvas();
+        RectangleShape covering = new RectangleShape(Color.GREEN, Color.GREEN, 0, 0, 50, 50);
+        canvas.getChildren().add(covering);
+        LayerManager layers = LayerManager.of(canvas);
+        Layer top = layers.addLayer("Top");
+        layers.assign(first, top);
+
+        context.handleClick(10, 10);
+        assertSame(first, context.getSelectedShape());
+
+        top.setLocked(true);
+        context.handleClick(10, 10);
+        assertSame(covering, context.getSelectedShape());
+
+        context.selectAll();
+        assertFalse(context.getSelectedShapes().contains(first));
+    }
+
+    /**
+     * Tests that a group is picked where it is drawn once it has been moved and rotated.
+     */
+    @Test
+    void testFindsTransformedGroup() {
+        AnchorPane canvas = context.getDrawingParams().getDrawingCanvas();
+        canvas.getChildren().removeAll(first, second);
+        GroupShape group = new GroupShape(List.of(first, second));
+        canvas.getChildren().add(group);
+        group.moveBy(0, 200);
+        group.setRotation(90);
+
+        Bounds moved = group.localToParent(first.getBoundsInParent());
+        assertSame(group, context.findShapeAt(moved.getCenterX(), moved.getCenterY()));
+        assertNull(context.findShapeAt(25, 25));
+        // between the members, inside the bounds of the group
+        Bounds left = first.getBoundsInParent();
+        Point2D gap = group.localToParent((left.getMaxX() + second.getBoundsInParent().getMinX()) / 2, left.getCenterY());
+        assertNull(context.findShapeAt(gap.getX(), gap.getY()));
+    }
+}
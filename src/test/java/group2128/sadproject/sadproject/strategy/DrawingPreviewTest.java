@@ -0,0 +1,124 @@
+package group2128.sadproject.sadproject.strategy;
+
+import group2128.sadproject.sadproject.commands.CommandHistory;
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import group2128.sadproject.sadproject.layers.LayerManager;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.HLineTo;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
+import javafx.scene.shape.VLineTo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link DrawingPreview} class and the strategies drawing through it.
+ */
+class DrawingPreviewTest {
+
+    private AnchorPane canvas;
+    private DrawingContext context;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+        context = new DrawingContext(canvas);
+    }
+
+    /**
+     * Tests that the vertices of a polygon are shown by one path added once, and that pointer moves
+     * only move the rubber-band edge in place.
+     */
+    @Test
+    void testPolygonPreviewIsOnePath() {
+        PolygonDrawingStrategy strategy = new PolygonDrawingStrategy();
+        context.setStrategyMode(strategy);
+        context.handleClick(0, 0);
+        context.handleClick(100, 0);
+        context.handleClick(100, 100);
+
+        assertEquals(1, canvas.getChildren().size());
+        Path path = (Path) canvas.getChildren().get(0);
+        assertTrue(path.isMouseTransparent());
+        List<PathElement> elements = new ArrayList<>(path.getElements());
+
+        context.handleMove(40, 70);
+        assertEquals(elements, path.getElements());
+        LineTo band = (LineTo) path.getElements().get(1);
+        assertEquals(40, band.getX());
+        assertEquals(70, band.getY());
+
+        strategy.onExit(context.getDrawingParams());
+        assertTrue(canvas.getChildren().isEmpty());
+        assertTrue(path.getElements().isEmpty());
+    }
+
+    /**
+     * Tests that the preview of a segment is replaced by the segment on the second click.
+     */
+    @Test
+    void testSegmentPreviewIsRemoved() {
+        context.getDrawingParams().setCommandHistory(new CommandHistory());
+        context.setStrategyMode(new SegmentDrawingStrategy());
+        context.handleClick(0, 0);
+        assertTrue(canvas.getChildren().get(0) instanceof Path);
+        context.handleClick(50, 50);
+        assertEquals(1, canvas.getChildren().size());
+        assertFalse(canvas.getChildren().get(0) instanceof Path);
+    }
+
+    /**
+     * Tests that the outline of a box is updated in place as it is dragged.
+     */
+    @Test
+    void testBoxOutlineIsUpdatedInPlace() {
+        DrawingPreview preview = new DrawingPreview();
+        preview.showRectangle(canvas, 0, 0, 10, 10);
+        List<PathElement> elements = new ArrayList<>(preview.getNode().getElements());
+        preview.showRectangle(canvas, 5, 5, 20, 30);
+        assertEquals(elements, preview.getNode().getElements());
+        assertEquals(5, ((MoveTo) elements.get(0)).getX());
+        assertEquals(25, ((HLineTo) elements.get(1)).getX());
+        assertEquals(35, ((VLineTo) elements.get(2)).getY());
+
+        preview.showEllipse(canvas, 50, 50, 20, 10);
+        Bounds bounds = preview.getNode().getBoundsInLocal();
+        assertEquals(50, bounds.getCenterX(), 1e-6);
+        assertEquals(50, bounds.getCenterY(), 1e-6);
+        assertEquals(40, bounds.getWidth(), 3);
+        assertEquals(20, bounds.getHeight(), 3);
+        assertEquals(1, canvas.getChildren().size());
+    }
+
+    /**
+     * Tests that the previews are drawn in front of the shapes of the top layer.
+     */
+    @Test
+    void testPreviewsAreInFrontOfLayers() {
+        LayerManager layers = LayerManager.of(canvas);
+        layers.addLayer("Top");
+        layers.setActiveLayer(layers.addLayer("Topmost"));
+        RectangleShape shape = new RectangleShape(Color.WHITE, Color.BLACK, 0, 0, 50, 50);
+        canvas.getChildren().add(shape);
+
+        context.setStrategyMode(new PolygonDrawingStrategy());
+        context.handleClick(10, 10);
+        Node path = canvas.getChildren().get(1);
+        assertTrue(path.getViewOrder() < shape.getViewOrder());
+
+        FreehandDrawingStrategy freehand = new FreehandDrawingStrategy();
+        freehand.begin(10, 10, context.getDrawingParams());
+        Node stroke = canvas.getChildren().get(canvas.getChildren().size() - 1);
+        assertTrue(stroke.getViewOrder() < shape.getViewOrder());
+    }
+}
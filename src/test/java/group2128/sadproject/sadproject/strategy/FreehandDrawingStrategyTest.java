@@ -0,0 +1,90 @@
+package group2128.sadproject.sadproject.strategy;
+
+import group2128.sadproject.sadproject.commands.CommandHistory;
+import group2128.sadproject.sadproject.factory.PolygonShape;
+import group2128.sadproject.sadproject.factory.PolylineShape;
+import group2128.sadproject.sadproject.factory.ShapeLoader;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link FreehandDrawingStrategy} class, driven through the press, drag and
+ * release handling of a {@link DrawingContext}.
+ */
+class FreehandDrawingStrategyTest {
+
+    private AnchorPane canvas;
+    private DrawingContext context;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+        context = new DrawingContext(canvas);
+        context.getDrawingParams().setCommandHistory(new CommandHistory());
+        context.getDrawingParams().setEdgeColor(Color.BLUE);
+        context.getDrawingParams().setFillColor(Color.YELLOW);
+        context.setStrategyMode(new FreehandDrawingStrategy());
+    }
+
+    /**
+     * Tests that an open stroke becomes an unfilled polyline with only its significant vertices,
+     * and that the preview is removed from the canvas.
+     */
+    @Test
+    void testOpenStrokeBecomesPolyline() {
+        assertTrue(context.handlePress(0, 0, false, false));
+        assertEquals(1, canvas.getChildren().size());
+        for (int i = 1; i <= 200; i++) {
+            assertTrue(context.handleDrag(i, 0));
+        }
+        for (int i = 1; i <= 200; i++) {
+            context.handleDrag(200, i);
+        }
+        assertTrue(context.handleRelease(200, 200));
+
+        assertEquals(1, canvas.getChildren().size());
+        PolylineShape polyline = (PolylineShape) canvas.getChildren().get(0);
+        assertEquals(6, polyline.getPointsList().size());
+        assertNull(polyline.getFill());
+        assertEquals(Color.BLUE, polyline.getEdgeColor());
+        assertFalse(context.getDrawingParams().getCommandHistory().isEmpty());
+
+        JSONObject obj = new JSONObject();
+        polyline.saveJson(obj);
+        PolylineShape loaded = (PolylineShape) ShapeLoader.fromJson(obj);
+        assertEquals(polyline.getPointsList(), loaded.getPointsList());
+    }
+
+    /**
+     * Tests that a stroke ending where it started becomes a filled polygon without a duplicated vertex.
+     */
+    @Test
+    void testClosedStrokeBecomesPolygon() {
+        context.handlePress(0, 0, false, false);
+        context.handleDrag(100, 0);
+        context.handleDrag(100, 100);
+        context.handleDrag(0, 100);
+        context.handleRelease(2, 2);
+
+        PolygonShape polygon = (PolygonShape) canvas.getChildren().get(0);
+        assertEquals(8, polygon.getPointsList().size());
+        assertEquals(Color.YELLOW, polygon.getFillColor());
+    }
+
+    /**
+     * Tests that a press and release without a drag draws nothing, and that drags outside a stroke are ignored.
+     */
+    @Test
+    void testClickDrawsNothing() {
+        assertFalse(context.handleDrag(5, 5));
+        context.handlePress(10, 10, false, false);
+        assertTrue(context.handleRelease(10, 10));
+        assertTrue(canvas.getChildren().isEmpty());
+        assertFalse(context.handleRelease(10, 10));
+    }
+}
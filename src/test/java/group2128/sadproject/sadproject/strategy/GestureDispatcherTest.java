@@ -0,0 +1,161 @@
+package group2128.sadproject.sadproject.strategy;
+
+import group2128.sadproject.sadproject.commands.ResizeRectangleCommand;
+import group2128.sadproject.sadproject.commands.StretchPolygonCommand;
+import group2128.sadproject.sadproject.factory.PolygonShape;
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link GestureDispatcher} class.
+ * <p>
+ * Two non-overlapping rectangles are placed on a canvas in idle mode; gestures are simulated by calling
+ * the dispatcher directly, in canvas coordinates.
+ * </p>
+ */
+class GestureDispatcherTest {
+
+    private AnchorPane canvas;
+    private DrawingContext context;
+    private GestureDispatcher dispatcher;
+    private RectangleShape first;
+    private RectangleShape second;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+        context = new DrawingContext(canvas);
+        context.setStrategyMode(new IdleStrategy());
+        dispatcher = GestureDispatcher.of(context);
+
+        first = new RectangleShape(Color.WHITE, Color.BLACK, 0, 0, 50, 50);
+        second = new RectangleShape(Color.RED, Color.BLUE, 100, 0, 50, 50);
+        canvas.getChildren().addAll(first, second);
+    }
+
+    /**
+     * Tests that there is one dispatcher per canvas and that it can be found from the canvas.
+     */
+    @Test
+    void testOneDispatcherPerCanvas() {
+        assertSame(dispatcher, GestureDispatcher.of(context));
+        assertSame(dispatcher, GestureDispatcher.find(canvas));
+        assertNull(GestureDispatcher.find(new AnchorPane()));
+    }
+
+    /**
+     * Tests that pressing a selected shape drags it, while pressing an unselected shape is left to the
+     * drawing context.
+     */
+    @Test
+    void testPressOnSelectedShapeMovesIt() {
+        assertFalse(dispatcher.press(10, 10, false, false));
+        assertFalse(dispatcher.drag(30, 10));
+        assertFalse(dispatcher.release(30, 10));
+        assertEquals(0, first.getAnchorX(), 0.01);
+
+        context.handleClick(10, 10);
+        assertTrue(dispatcher.press(10, 10, false, false));
+        assertTrue(dispatcher.drag(30, 15));
+        assertTrue(dispatcher.release(30, 15));
+        assertEquals(20, first.getAnchorX(), 0.01);
+        assertEquals(5, first.getAnchorY(), 0.01);
+        assertEquals(100, second.getAnchorX(), 0.01);
+    }
+
+    /**
+     * Tests that only the topmost shape under the pointer is picked when shapes overlap.
+     */
+    @Test
+    void testPressPicksTopmostShape() {
+        second.setX(first.getX() + 10);
+        context.selectAll();
+        assertTrue(dispatcher.press(20, 10, false, false));
+        dispatcher.drag(20, 40);
+        dispatcher.release(20, 40);
+        assertEquals(0, first.getAnchorY(), 0.01);
+        assertEquals(30, second.getAnchorY(), 0.01);
+    }
+
+    /**
+     * Tests that an armed resize tool takes the next gesture on its shape, and that the dispatcher
+     * returns to move mode when the gesture ends.
+     */
+    @Test
+    void testResizeToolTakesNextGesture() {
+        context.handleClick(10, 10);
+        ResizeRectangleCommand command = new ResizeRectangleCommand();
+        command.setDrawingCanvas(canvas);
+        command.setShape(first);
+        command.execute();
+        assertEquals(GestureDispatcher.Mode.RESIZE, dispatcher.getMode());
+        assertSame(command, dispatcher.getTool());
+
+        assertTrue(dispatcher.press(10, 10, false, false));
+        dispatcher.drag(50, 20);
+        assertTrue(dispatcher.release(50, 20));
+        assertEquals(100, first.getDimensionX(), 0.01);
+        assertEquals(100, first.getDimensionY(), 0.01);
+        assertEquals(0, first.getAnchorX(), 0.01);
+        assertEquals(GestureDispatcher.Mode.MOVE, dispatcher.getMode());
+        assertNull(dispatcher.getTool());
+
+        dispatcher.press(10, 10, false, false);
+        dispatcher.drag(20, 10);
+        dispatcher.release(20, 10);
+        assertEquals(10, first.getAnchorX(), 0.01);
+        assertEquals(100, first.getDimensionX(), 0.01);
+    }
+
+    /**
+     * Tests that a press away from the shape of the armed tool disarms it and is handled as in move mode,
+     * here by starting a rubber-band selection.
+     */
+    @Test
+    void testPressElsewhereDisarmsTool() {
+        context.handleClick(10, 10);
+        ResizeRectangleCommand command = new ResizeRectangleCommand();
+        command.setDrawingCanvas(canvas);
+        command.setShape(first);
+        command.execute();
+
+        assertTrue(dispatcher.press(60, -40, false, false));
+        assertEquals(GestureDispatcher.Mode.MOVE, dispatcher.getMode());
+        dispatcher.drag(140, 40);
+        assertTrue(dispatcher.release(140, 40));
+        assertEquals(50, first.getDimensionX(), 0.01);
+        assertFalse(first.isSelected());
+        assertTrue(second.isSelected());
+    }
+
+    /**
+     * Tests that the vertex-edit tool picks a vertex from slightly outside its polygon.
+     */
+    @Test
+    void testVertexEditPicksVertexOutsideShape() {
+        PolygonShape polygon = new PolygonShape(Color.WHITE, Color.BLACK,
+                Arrays.asList(200.0, 200.0, 260.0, 200.0, 260.0, 260.0));
+        canvas.getChildren().add(polygon);
+        context.handleClick(250, 210);
+        assertSame(polygon, context.getSelectedShape());
+        StretchPolygonCommand command = new StretchPolygonCommand();
+        command.setDrawingCanvas(canvas);
+        command.setShape(polygon);
+        command.execute();
+        assertEquals(GestureDispatcher.Mode.VERTEX_EDIT, dispatcher.getMode());
+
+        assertTrue(dispatcher.press(263, 197, false, false));
+        dispatcher.drag(280, 180);
+        dispatcher.release(280, 180);
+        assertEquals(List.of(200.0, 200.0, 280.0, 180.0, 260.0, 260.0), polygon.getPoints());
+        assertEquals(GestureDispatcher.Mode.MOVE, dispatcher.getMode());
+    }
+}
@@ -4,13 +4,13 @@ import group2128.sadproject.sadproject.AppController;
 import group2128.sadproject.sadproject.factory.PolygonShape;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXMLLoader;
-import javafx.scene.Group;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.ColorPicker;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Circle;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.Path;
 import javafx.stage.Stage;
 import javafx.scene.input.MouseButton;
 import org.junit.jupiter.api.BeforeEach;
@@ -62,12 +62,12 @@ class PolygonDrawingStrategyTest {
 
     /**
      * Tests that clicking on the canvas after selecting PolygonDrawingStrategy
-     * adds a Circle to a Group, representing the first 3 points of the polygon.
+     * adds a marker to the preview path for each of the first 3 points of the polygon.
      *
      * @param robot the TestFX robot instance
      */
     @Test
-    void testCircleIsAddedToGroup(FxRobot robot) {
+    void testVerticesAreAddedToPreview(FxRobot robot) {
         AnchorPane drawingPane = robot.lookup("#drawingPane").queryAs(AnchorPane.class);
         assertThat(drawingPane).isNotNull();
 
@@ -78,16 +78,17 @@ class PolygonDrawingStrategyTest {
         robot.moveBy(50, 50).clickOn(MouseButton.PRIMARY);
         robot.moveBy(-70, -150).clickOn(MouseButton.PRIMARY);
 
-        Group group = (Group) drawingPane.getChildren().stream()
-                .filter(node -> node instanceof Group)
+        assertThat(drawingPane.getChildren().stream().filter(node -> node instanceof Path).count()).isEqualTo(1);
+        Path preview = (Path) drawingPane.getChildren().stream()
+                .filter(node -> node instanceof Path)
                 .findFirst()
                 .orElse(null);
 
-        assertThat(group).isNotNull();
-        long circleCount = group.getChildren().stream()
-                .filter(node -> node instanceof Circle)
+        assertThat(preview).isNotNull();
+        long markerCount = preview.getElements().stream()
+                .filter(element -> element instanceof ClosePath)
                 .count();
-        assertThat(circleCount).isEqualTo(3);
+        assertThat(markerCount).isEqualTo(3);
     }
 
 
@@ -151,7 +152,7 @@ class PolygonDrawingStrategyTest {
 
     /**
      * Tests that calling onExit via reselecting the same strategy
-     * clears temporary graphical elements (Group, Circle, etc.).
+     * clears temporary graphical elements (the preview path).
      *
      * @param robot the TestFX robot instance
      */
@@ -171,7 +172,7 @@ class PolygonDrawingStrategyTest {
         robot.clickOn("#polygonBtn");
 
         assertThat(drawingPane.getChildren()).noneMatch(node ->
-                node instanceof Circle || node instanceof PolygonShape || node instanceof Group
+                node instanceof PolygonShape || node instanceof Path
         );
     }
 
@@ -4,13 +4,13 @@ import group2128.sadproject.sadproject.AppController;
 import group2128.sadproject.sadproject.factory.SegmentShape;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXMLLoader;
-import javafx.scene.Group;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.ColorPicker;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Circle;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.Path;
 import javafx.stage.Stage;
 import javafx.scene.input.MouseButton;
 import org.junit.jupiter.api.BeforeEach;
@@ -61,12 +61,12 @@ public class SegmentDrawingStrategyTest {
 
     /**
      * Tests that clicking on the canvas after selecting SegmentDrawingStrategy
-     * adds a Circle to a Group, representing the first point of the segment.
+     * shows the first point of the segment on the preview path.
      *
      * @param robot the TestFX robot instance
      */
     @Test
-    void testCircleIsAddedToGroup(FxRobot robot) {
+    void testVerticesAreAddedToPreview(FxRobot robot) {
         AnchorPane drawingPane = robot.lookup("#drawingPane").queryAs(AnchorPane.class);
         assertThat(drawingPane).isNotNull();
 
@@ -75,13 +75,13 @@ public class SegmentDrawingStrategyTest {
 
         robot.moveTo("#drawingPane").clickOn(MouseButton.PRIMARY);
 
-        Group group = (Group) drawingPane.getChildren().stream()
-                .filter(node -> node instanceof Group)
+        Path preview = (Path) drawingPane.getChildren().stream()
+                .filter(node -> node instanceof Path)
                 .findFirst()
                 .orElse(null);
 
-        assertThat(group).isNotNull();
-        assertThat(group.getChildren()).anyMatch(node -> node instanceof Circle);
+        assertThat(preview).isNotNull();
+        assertThat(preview.getElements()).anyMatch(element -> element instanceof ClosePath);
     }
 
     /**
@@ -113,7 +113,7 @@ public class SegmentDrawingStrategyTest {
 
     /**
      * Tests that calling onExit via reselecting the same strategy
-     * clears temporary graphical elements (Group, Circle, etc.).
+     * clears temporary graphical elements (the preview path).
      *
      * @param robot the TestFX robot instance
      */
@@ -129,7 +129,7 @@ public class SegmentDrawingStrategyTest {
         robot.clickOn("#segmentBtn");
 
         assertThat(drawingPane.getChildren()).noneMatch(node ->
-                node instanceof Circle || node instanceof SegmentShape || node instanceof Group
+                node instanceof SegmentShape || node instanceof Path
         );
     }
 
@@ -151,7 +151,7 @@ public class SegmentDrawingStrategyTest {
         robot.clickOn("#rectangleBtn");
 
         assertThat(drawingPane.getChildren()).noneMatch(node ->
-                node instanceof Circle || node instanceof SegmentShape || node instanceof Group
+                node instanceof SegmentShape || node instanceof Path
         );
     }
 
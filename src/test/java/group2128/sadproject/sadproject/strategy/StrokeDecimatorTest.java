@@ -0,0 +1,64 @@
+package group2128.sadproject.sadproject.strategy;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link StrokeDecimator} class.
+ */
+class StrokeDecimatorTest {
+
+    /**
+     * Tests that samples along a straight line only move the end of a single segment,
+     * and that samples closer than the minimum distance are dropped.
+     */
+    @Test
+    void testStraightLineKeepsTwoVertices() {
+        StrokeDecimator decimator = new StrokeDecimator();
+        decimator.add(0, 0);
+        assertFalse(decimator.add(1, 0));
+        for (int i = 1; i <= 1000; i++) {
+            assertTrue(decimator.add(i * 3, Math.sin(i) * 0.2));
+        }
+        assertEquals(2, decimator.getVertexCount());
+        assertEquals(3000, decimator.getX(1));
+    }
+
+    /**
+     * Tests that a corner starts a new segment.
+     */
+    @Test
+    void testCornerAddsVertex() {
+        StrokeDecimator decimator = new StrokeDecimator();
+        for (int i = 0; i <= 20; i++) {
+            decimator.add(i * 5, 0);
+        }
+        for (int i = 1; i <= 20; i++) {
+            decimator.add(100, i * 5);
+        }
+        assertArrayEquals(new double[]{0, 0, 100, 0, 100, 100}, decimator.toArray());
+    }
+
+    /**
+     * Tests that a slow curve is not flattened into a single segment: a circle sampled every degree
+     * keeps a vertex every time it turns by the maximum angle, and the array grows as needed.
+     */
+    @Test
+    void testCurveKeepsBoundedDeviation() {
+        StrokeDecimator decimator = new StrokeDecimator(2, 10);
+        for (int i = 0; i <= 3600; i++) {
+            double angle = Math.toRadians(i / 10.0);
+            decimator.add(500 + 500 * Math.cos(angle), 500 + 500 * Math.sin(angle));
+        }
+        int count = decimator.getVertexCount();
+        assertTrue(count >= 36 && count <= 80, String.valueOf(count));
+        for (int i = 0; i < count; i++) {
+            double radius = Math.hypot(decimator.getX(i) - 500, decimator.getY(i) - 500);
+            assertEquals(500, radius, 1e-6);
+        }
+
+        decimator.clear();
+        assertEquals(0, decimator.getVertexCount());
+    }
+}
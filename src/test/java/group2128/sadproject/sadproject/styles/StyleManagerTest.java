@@ -0,0 +1,179 @@
+package group2128.sadproject.sadproject.styles;
+
+import group2128.sadproject.sadproject.commands.ChangeFillColorCommand;
+import group2128.sadproject.sadproject.commands.ChangeStyleCommand;
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import group2128.sadproject.sadproject.factory.SegmentShape;
+import group2128.sadproject.sadproject.memento.DrawingCanvasMemento;
+import javafx.scene.Node;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.json.JSONArray;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link StyleManager} class.
+ */
+class StyleManagerTest {
+
+    private AnchorPane canvas;
+    private StyleManager manager;
+    private List<RectangleShape> shapes;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+        manager = StyleManager.of(canvas);
+        shapes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            RectangleShape shape = new RectangleShape(Color.WHITE, Color.BLACK, i * 10, 0, 10, 10);
+            shapes.add(shape);
+            canvas.getChildren().add(shape);
+        }
+    }
+
+    /**
+     * Tests that applying a style gives its values to the shapes and that updating it restyles
+     * every dependent, and only them.
+     */
+    @Test
+    void testUpdateRestylesDependents() {
+        ShapeStyle style = manager.addStyle("Warning", Color.YELLOW, Color.RED, 5);
+        manager.assign(shapes.subList(0, 2), style);
+        assertSame(Color.YELLOW, shapes.get(0).getFillColor());
+        assertEquals(5, shapes.get(1).getStrokeWidth());
+        assertEquals(2, manager.getDependents(style).size());
+
+        manager.update(style, Color.ORANGE, Color.BLUE, 2);
+        for (RectangleShape shape : shapes.subList(0, 2)) {
+            assertEquals(Color.ORANGE, shape.getFillColor());
+            assertEquals(Color.BLUE, shape.getEdgeColor());
+            assertEquals(2, shape.getStrokeWidth());
+        }
+        assertEquals(Color.WHITE, shapes.get(2).getFillColor());
+        assertSame(shapes.get(0).getFillColor(), shapes.get(1).getFillColor());
+    }
+
+    /**
+     * Tests that a style change is a single command undone without a snapshot of the canvas.
+     */
+    @Test
+    void testChangeStyleCommandUndo() {
+        ShapeStyle style = manager.addStyle("Warning", Color.YELLOW, Color.RED, 5);
+        manager.assign(shapes, style);
+
+        ChangeStyleCommand command = new ChangeStyleCommand(style, Color.GREEN, Color.GREEN, 1);
+        command.setDrawingCanvas(canvas);
+        command.execute();
+        assertNull(command.getDrawingCanvasMemento());
+        assertEquals(Color.GREEN, shapes.get(2).getEdgeColor());
+
+        command.undo();
+        for (RectangleShape shape : shapes) {
+            assertEquals(Color.YELLOW, shape.getFillColor());
+            assertEquals(Color.RED, shape.getEdgeColor());
+            assertEquals(5, shape.getStrokeWidth());
+        }
+    }
+
+    /**
+     * Tests that shapes restored by a memento still depend on their style, while removed shapes do not.
+     */
+    @Test
+    void testMementoKeepsStyle() {
+        ShapeStyle style = manager.addStyle("Warning", Color.YELLOW, Color.RED, 5);
+        manager.assign(shapes.get(0), style);
+        DrawingCanvasMemento memento = new DrawingCanvasMemento(canvas);
+        memento.restore();
+
+        Node restored = canvas.getChildren().get(0);
+        assertNotSame(shapes.get(0), restored);
+        assertEquals(List.of(restored), manager.getDependents(style));
+
+        manager.update(style, Color.PINK, Color.RED, 5);
+        assertEquals(Color.PINK, ((RectangleShape) restored).getFillColor());
+        assertEquals(Color.YELLOW, shapes.get(0).getFillColor());
+    }
+
+    /**
+     * Tests that a shape detached from its style keeps its own stroke width when restored by a memento.
+     */
+    @Test
+    void testMementoKeepsDetachedStrokeWidth() {
+        ShapeStyle style = manager.addStyle("Warning", Color.YELLOW, Color.RED, 5);
+        manager.assign(shapes.get(0), style);
+        StyleManager.detachAll(List.of(shapes.get(0)));
+        DrawingCanvasMemento memento = new DrawingCanvasMemento(canvas);
+        memento.restore();
+
+        RectangleShape restored = (RectangleShape) canvas.getChildren().get(0);
+        assertNull(manager.getStyle(restored));
+        assertEquals(5, restored.getStrokeWidth());
+        assertEquals(Color.RED, restored.getEdgeColor());
+    }
+
+    /**
+     * Tests that changing the color of a shape directly detaches it from its style.
+     */
+    @Test
+    void testDirectColorChangeDetaches() {
+        ShapeStyle style = manager.addStyle("Warning", Color.YELLOW, Color.RED, 5);
+        manager.assign(shapes, style);
+
+        ChangeFillColorCommand command = new ChangeFillColorCommand();
+        command.setDrawingCanvas(canvas);
+        command.setSelectedShape(shapes.get(1));
+        command.setSelectedColor(Color.BLUE);
+        command.execute();
+
+        assertNull(manager.getStyle(shapes.get(1)));
+        manager.update(style, Color.PINK, Color.RED, 5);
+        assertEquals(Color.BLUE, shapes.get(1).getFillColor());
+        assertEquals(Color.PINK, shapes.get(2).getFillColor());
+    }
+
+    /**
+     * Tests that segments keep no fill and that removing a style keeps the look of its shapes.
+     */
+    @Test
+    void testSegmentsAndRemovedStyles() {
+        SegmentShape segment = new SegmentShape(null, Color.BLACK, 0, 0, 10, 10);
+        canvas.getChildren().add(segment);
+        ShapeStyle style = manager.addStyle("Warning", Color.YELLOW, Color.RED, 5);
+        manager.assign(segment, style);
+        assertNull(segment.getFillColor());
+        assertEquals(Color.RED, segment.getEdgeColor());
+        assertTrue(manager.matchesStyle(segment));
+
+        manager.removeStyle(style);
+        assertNull(StyleManager.getStyleId(segment));
+        assertEquals(Color.RED, segment.getEdgeColor());
+    }
+
+    /**
+     * Tests that the styles survive a round trip through their serialized form.
+     */
+    @Test
+    void testJsonRoundTrip() {
+        ShapeStyle style = manager.addStyle("Warning", Color.YELLOW, Color.RED, 5);
+        JSONArray json = manager.toJson();
+
+        StyleManager loaded = StyleManager.of(new AnchorPane());
+        loaded.loadJson(json);
+        ShapeStyle copy = loaded.getStyle(style.getId());
+        assertEquals("Warning", copy.getName());
+        assertEquals(Color.YELLOW, copy.getFill());
+        assertEquals(Color.RED, copy.getStroke());
+        assertEquals(5, copy.getStrokeWidth());
+        assertNotEquals(style.getId(), loaded.addStyle("Other", Color.RED, Color.RED, 1).getId());
+
+        loaded.loadJson(null);
+        assertTrue(loaded.getStyles().isEmpty());
+    }
+}
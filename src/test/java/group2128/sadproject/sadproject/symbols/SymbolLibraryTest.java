@@ -0,0 +1,191 @@
+package group2128.sadproject.sadproject.symbols;
+
+import group2128.sadproject.sadproject.commands.DefineSymbolCommand;
+import group2128.sadproject.sadproject.factory.GroupShape;
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import group2128.sadproject.sadproject.factory.SelectableShape;
+import group2128.sadproject.sadproject.factory.ShapeLoader;
+import group2128.sadproject.sadproject.memento.DrawingCanvasMemento;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SymbolLibrary} and {@link SymbolInstance} classes.
+ */
+class SymbolLibraryTest {
+
+    private AnchorPane canvas;
+    private SymbolLibrary library;
+    private RectangleShape left;
+    private RectangleShape right;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+        library = SymbolLibrary.of(canvas);
+        left = new RectangleShape(Color.RED, Color.BLACK, 5, 5, 10, 10);
+        right = new RectangleShape(Color.BLUE, Color.BLACK, 25, 5, 10, 10);
+    }
+
+    /**
+     * Tests that an instance is hit only on the shapes of its symbol, in its local coordinates, and
+     * through its own transform from the coordinates of the canvas.
+     */
+    @Test
+    void testInstanceHitTesting() {
+        Symbol symbol = library.define("Pair", List.of(left, right));
+        SymbolInstance instance = new SymbolInstance(symbol);
+        instance.setTranslateX(100);
+        canvas.getChildren().add(instance);
+
+        assertTrue(instance.contains(5, 5));
+        assertTrue(instance.contains(25, 5));
+        assertFalse(instance.contains(15, 5));
+        assertFalse(instance.contains(-95, 5));
+        assertTrue(instance.contains(instance.parentToLocal(105, 5)));
+        assertFalse(instance.contains(instance.parentToLocal(5, 5)));
+        assertEquals(33, instance.getDimensionX(), 1e-9);
+    }
+
+    /**
+     * Tests that redefining a symbol updates its instances, including copies made for undo.
+     */
+    @Test
+    void testRedefineUpdatesInstances() {
+        Symbol symbol = library.define("Pair", List.of(left, right));
+        SymbolInstance instance = new SymbolInstance(symbol);
+        SymbolInstance copy = (SymbolInstance) instance.getCopy();
+        assertSame(symbol, copy.getSymbol());
+        int revision = symbol.revisionProperty().get();
+
+        List<SelectableShape> previous = library.redefine(symbol, List.of(left));
+        assertEquals(2, previous.size());
+        assertTrue(symbol.revisionProperty().get() > revision);
+        assertEquals(13, instance.getDimensionX(), 1e-9);
+        assertEquals(13, copy.getDimensionX(), 1e-9);
+        assertEquals(Color.RED, copy.getFillColor());
+
+        library.redefine(symbol, previous);
+        assertEquals(33, instance.getDimensionX(), 1e-9);
+    }
+
+    /**
+     * Tests that the snapshot resolution only changes when the zoom needs another power of two.
+     */
+    @Test
+    void testRenderScaleFollowsZoom() {
+        Symbol symbol = library.define("Pair", List.of(left, right));
+        library.setZoom(3);
+        assertEquals(4, symbol.getRenderScale());
+        int revision = symbol.revisionProperty().get();
+        library.setZoom(3.5);
+        assertEquals(revision, symbol.revisionProperty().get());
+        library.setZoom(100);
+        assertEquals(Symbol.MAX_RENDER_SCALE, symbol.getRenderScale());
+    }
+
+    /**
+     * Tests that defining a symbol replaces the selection by an instance, and that redefining it keeps
+     * the other instances in place and is undone.
+     */
+    @Test
+    void testDefineAndRedefineCommands() {
+        RectangleShape bottom = new RectangleShape(Color.WHITE, Color.BLACK, 50, 50, 5, 5);
+        canvas.getChildren().addAll(bottom, left, right);
+        DefineSymbolCommand define = new DefineSymbolCommand("Pair");
+        define.setDrawingCanvas(canvas);
+        define.setSelectedShapes(List.of(left, right));
+        define.saveBackup();
+        define.execute();
+        assertEquals(List.of(bottom, define.getInstance()), canvas.getChildren());
+        Symbol symbol = define.getSymbol();
+
+        RectangleShape moved = new RectangleShape(Color.GREEN, Color.BLACK, 220, 220, 40, 40);
+        canvas.getChildren().add(moved);
+        DefineSymbolCommand redefine = new DefineSymbolCommand(symbol);
+        redefine.setDrawingCanvas(canvas);
+        redefine.setSelectedShape(moved);
+        redefine.saveBackup();
+        redefine.execute();
+
+        assertEquals(0, symbol.getBounds().getMinX() + 1.5, 1e-9);
+        assertEquals(198.5, redefine.getInstance().getBoundsInParent().getMinX(), 1e-9);
+        assertEquals(43, define.getInstance().getDimensionX(), 1e-9);
+
+        redefine.undo();
+        assertEquals(2, symbol.getMembers().size());
+        assertEquals(3, canvas.getChildren().size());
+    }
+
+    /**
+     * Tests that undoing the definition of a new symbol removes it from the library, so it is not saved.
+     */
+    @Test
+    void testUndoDefineRemovesSymbol() {
+        canvas.getChildren().addAll(left, right);
+        DefineSymbolCommand define = new DefineSymbolCommand("Pair");
+        define.setDrawingCanvas(canvas);
+        define.setSelectedShapes(List.of(left, right));
+        define.saveBackup();
+        define.execute();
+        Symbol symbol = define.getSymbol();
+        assertSame(symbol, library.getSymbol(symbol.getId()));
+
+        define.undo();
+        assertEquals(2, canvas.getChildren().size());
+        assertNull(library.getSymbol(symbol.getId()));
+        assertTrue(library.getSymbols().isEmpty());
+        assertTrue(library.toJson().isEmpty());
+        assertFalse(library.remove(symbol));
+    }
+
+    /**
+     * Tests that the definitions are serialized once and that instances, even nested in groups,
+     * are rebuilt from the identifier of their symbol.
+     */
+    @Test
+    void testJsonRoundTrip() {
+        Symbol symbol = library.define("Pair", List.of(left, right));
+        SymbolInstance instance = new SymbolInstance(symbol);
+        instance.setTranslateX(100);
+        GroupShape group = new GroupShape(List.of(instance, new SymbolInstance(symbol)));
+        JSONArray definitions = library.toJson();
+        JSONObject shape = new JSONObject();
+        group.saveJson(shape);
+        assertFalse(shape.toString().contains("rectangle"));
+
+        SymbolLibrary loaded = SymbolLibrary.of(new AnchorPane());
+        loaded.loadJson(definitions);
+        Symbol copy = loaded.getSymbol(symbol.getId());
+        assertEquals("Pair", copy.getName());
+        assertEquals(2, copy.getMembers().size());
+
+        GroupShape loadedGroup = (GroupShape) ShapeLoader.fromJson(shape, loaded::instanceFromJson);
+        assertEquals(2, loadedGroup.getShapes().size());
+        assertSame(copy, ((SymbolInstance) loadedGroup.getShapes().get(0)).getSymbol());
+        assertNull(ShapeLoader.fromJson(shape.getJSONArray("shapes").getJSONObject(0)));
+        assertNotEquals(symbol.getId(), loaded.define("Other", List.of(left)).getId());
+    }
+
+    /**
+     * Tests that a memento restores instances of the same symbol.
+     */
+    @Test
+    void testMementoKeepsSymbol() {
+        Symbol symbol = library.define("Pair", List.of(left, right));
+        SymbolInstance instance = new SymbolInstance(symbol);
+        canvas.getChildren().add(instance);
+        new DrawingCanvasMemento(canvas).restore();
+
+        assertNotSame(instance, canvas.getChildren().get(0));
+        assertSame(symbol, ((SymbolInstance) canvas.getChildren().get(0)).getSymbol());
+    }
+}
@@ -0,0 +1,187 @@
+package group2128.sadproject.sadproject.view;
+
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import javafx.event.Event;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.CacheHint;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link CanvasViewport} class.
+ * <p>
+ * The viewport is sized explicitly and its layout passes are triggered by hand, so the camera,
+ * the culling and the document bounds can be checked without a scene. The toolkit is started by the
+ * {@link ApplicationExtension} so the scroll bars, which are controls, can be created.
+ * </p>
+ */
+@ExtendWith(ApplicationExtension.class)
+class CanvasViewportTest {
+
+    private static final double EPSILON = 1e-9;
+
+    private AnchorPane canvas;
+    private RectangleShape near;
+    private RectangleShape far;
+    private CanvasViewport viewport;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+        near = new RectangleShape(Color.WHITE, Color.BLACK, 100, 100, 50, 50);
+        far = new RectangleShape(Color.WHITE, Color.BLACK, 100000, -50000, 50, 50);
+        canvas.getChildren().addAll(near, far);
+        viewport = new CanvasViewport(canvas);
+        viewport.resize(800, 600);
+        viewport.layout();
+    }
+
+    /**
+     * Tests that points map between the window and the world through the camera, and that zooming
+     * keeps the pivot in place.
+     */
+    @Test
+    void testCameraMapping() {
+        viewport.setCamera(-200, 300);
+        assertEquals(new Point2D(-200, 300), viewport.viewportToWorld(0, 0));
+        assertEquals(new Point2D(-100, 300), canvas.parentToLocal(100, 0));
+
+        viewport.setZoom(2, 400, 300);
+        assertEquals(new Point2D(200, 600), viewport.viewportToWorld(400, 300));
+        Point2D window = viewport.worldToViewport(250, 650);
+        assertEquals(500, window.getX(), EPSILON);
+        assertEquals(400, window.getY(), EPSILON);
+        assertEquals(window, canvas.localToParent(250, 650));
+
+        viewport.pan(100, 0);
+        assertEquals(150, viewport.viewportToWorld(400, 300).getX(), EPSILON);
+
+        viewport.setZoom(1000);
+        assertEquals(CanvasViewport.MAX_ZOOM, viewport.getZoom(), EPSILON);
+    }
+
+    /**
+     * Tests that the shapes outside the frustum are hidden, and shown again when the camera reaches them.
+     */
+    @Test
+    void testCullsShapesOutsideFrustum() {
+        assertTrue(near.isVisible());
+        assertFalse(far.isVisible());
+        assertTrue(viewport.isCulled(far));
+
+        viewport.centerOn(100025, -49975);
+        viewport.layout();
+        assertTrue(far.isVisible());
+        assertFalse(near.isVisible());
+    }
+
+    /**
+     * Tests that a culled shape moved into the frustum is shown, and that a culled shape removed from
+     * the canvas is made visible again.
+     */
+    @Test
+    void testFollowsCanvasChanges() {
+        far.moveBy(-99800, 50300);
+        viewport.layout();
+        assertTrue(far.isVisible());
+
+        RectangleShape added = new RectangleShape(Color.WHITE, Color.BLACK, -90000, 0, 50, 50);
+        canvas.getChildren().add(added);
+        viewport.layout();
+        assertFalse(added.isVisible());
+
+        canvas.getChildren().remove(added);
+        assertTrue(added.isVisible());
+        assertFalse(viewport.isCulled(added));
+    }
+
+    /**
+     * Tests that a zoom gesture renders the canvas from its cached bitmap without culling, and that
+     * settling it restores vector rendering and culling.
+     */
+    @Test
+    void testZoomGestureCachesCanvas() {
+        viewport.beginZoomGesture();
+        assertTrue(viewport.isZooming());
+        assertTrue(canvas.isCache());
+        assertEquals(CacheHint.SCALE, canvas.getCacheHint());
+
+        viewport.setZoom(CanvasViewport.MIN_ZOOM, 0, 0);
+        viewport.centerOn(95000, -45000);
+        viewport.layout();
+        assertFalse(far.isVisible());
+        assertTrue(near.isVisible());
+
+        viewport.endZoomGesture();
+        viewport.layout();
+        assertFalse(viewport.isZooming());
+        assertFalse(canvas.isCache());
+        assertTrue(far.isVisible());
+        assertFalse(near.isVisible());
+    }
+
+    /**
+     * Tests that the scroll wheel pans the camera.
+     */
+    @Test
+    void testWheelPans() {
+        Event.fireEvent(viewport, scroll(0, -40, 0, 0));
+        assertEquals(new Point2D(0, 40), viewport.viewportToWorld(0, 0));
+
+        viewport.setZoom(2, 0, 0);
+        Event.fireEvent(viewport, scroll(-30, 0, 0, 0));
+        assertEquals(new Point2D(15, 40), viewport.viewportToWorld(0, 0));
+    }
+
+    /**
+     * Tests that the document bounds cover the content and the frustum, and follow the content.
+     */
+    @Test
+    void testDocumentBounds() {
+        Bounds document = viewport.getDocumentBounds();
+        assertTrue(document.contains(viewport.getFrustum()));
+        assertTrue(document.contains(far.getBoundsInParent()));
+        assertEquals(far.getBoundsInParent().getMinY(), document.getMinY(), EPSILON);
+
+        canvas.getChildren().remove(far);
+        viewport.layout();
+        assertEquals(viewport.getFrustum(), viewport.getDocumentBounds());
+    }
+
+    /**
+     * Tests that the scroll bars cover the document bounds and move the camera.
+     */
+    @Test
+    void testScrollBars() {
+        ScrollBar horizontal = new ScrollBar();
+        ScrollBar vertical = new ScrollBar();
+        viewport.bindScrollBars(horizontal, vertical);
+        viewport.layout();
+
+        Bounds document = viewport.getDocumentBounds();
+        assertEquals(document.getMinY(), vertical.getMin(), EPSILON);
+        assertEquals(document.getMaxX() - 800, horizontal.getMax(), EPSILON);
+        assertEquals(0, horizontal.getValue(), EPSILON);
+
+        horizontal.setValue(5000);
+        assertEquals(5000, viewport.getFrustum().getMinX(), EPSILON);
+    }
+
+    /**
+     * Creates a scroll event at the given window position.
+     */
+    private ScrollEvent scroll(double deltaX, double deltaY, double x, double y) {
+        return new ScrollEvent(viewport, viewport, ScrollEvent.SCROLL, x, y, x, y, false, false, false, false,
+                false, false, deltaX, deltaY, deltaX, deltaY, ScrollEvent.HorizontalTextScrollUnits.NONE, 0,
+                ScrollEvent.VerticalTextScrollUnits.NONE, 0, 0, null);
+    }
+}
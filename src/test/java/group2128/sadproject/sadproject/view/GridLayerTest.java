@@ -0,0 +1,106 @@
+package group2128.sadproject.sadproject.view;
+
+import javafx.geometry.BoundingBox;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.Pane;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link GridLayer} class.
+ * <p>
+ * As for the {@link SelectionOverlay}, the canvas and the layer share a plain {@link Pane} as root,
+ * so coordinates can be mapped between them without a scene; layout passes are triggered explicitly.
+ * </p>
+ */
+class GridLayerTest {
+
+    private AnchorPane canvas;
+    private GridLayer grid;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+        canvas.resize(2000, 2000);
+        grid = new GridLayer(canvas);
+        grid.resize(2000, 2000);
+        new Pane(grid, canvas);
+        grid.layout();
+    }
+
+    /**
+     * Tests that the canvas only covers the viewport, whatever the size of the layer.
+     */
+    @Test
+    void testCanvasCoversViewport() {
+        grid.setViewport(new BoundingBox(300, 400, 640, 480));
+        grid.layout();
+        assertEquals(300, grid.getCanvas().getLayoutX(), 1e-9);
+        assertEquals(400, grid.getCanvas().getLayoutY(), 1e-9);
+        assertEquals(640, grid.getCanvas().getWidth(), 1e-9);
+        assertEquals(480, grid.getCanvas().getHeight(), 1e-9);
+
+        grid.resize(100000, 100000);
+        grid.layout();
+        assertEquals(640, grid.getCanvas().getWidth(), 1e-9);
+    }
+
+    /**
+     * Tests that the lines thin out when zooming out, and that the spacing is restored when zooming in.
+     */
+    @Test
+    void testAdaptiveSpacing() {
+        grid.setSpacing(10);
+        assertEquals(10, grid.getMinorStep(), 1e-9);
+        assertEquals(50, grid.getMajorStep(), 1e-9);
+
+        canvas.setScaleX(0.5);
+        canvas.setScaleY(0.5);
+        assertEquals(50, grid.getMinorStep(), 1e-9);
+
+        canvas.setScaleX(0.1);
+        canvas.setScaleY(0.1);
+        assertEquals(250, grid.getMinorStep(), 1e-9);
+
+        canvas.setScaleX(4);
+        canvas.setScaleY(4);
+        assertEquals(10, grid.getMinorStep(), 1e-9);
+
+        grid.setSpacing(7.5);
+        assertEquals(7.5, grid.getMinorStep(), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> grid.setSpacing(0));
+    }
+
+    /**
+     * Tests that the grid is repainted on pan, zoom and spacing changes, and only then.
+     */
+    @Test
+    void testRepaintsOnlyWhenNeeded() {
+        grid.setViewport(new BoundingBox(0, 0, 640, 480));
+        grid.layout();
+        int paints = grid.getPaintCount();
+
+        grid.requestLayout();
+        grid.layout();
+        assertEquals(paints, grid.getPaintCount());
+
+        grid.setViewport(new BoundingBox(50, 0, 640, 480));
+        grid.layout();
+        assertEquals(paints + 1, grid.getPaintCount());
+
+        canvas.setScaleX(2);
+        grid.layout();
+        assertEquals(paints + 2, grid.getPaintCount());
+
+        grid.setSpacing(25);
+        grid.layout();
+        assertEquals(paints + 3, grid.getPaintCount());
+
+        grid.setVisible(false);
+        canvas.setScaleX(3);
+        grid.layout();
+        assertEquals(paints + 3, grid.getPaintCount());
+    }
+}
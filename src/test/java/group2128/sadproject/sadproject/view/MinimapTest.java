@@ -0,0 +1,148 @@
+package group2128.sadproject.sadproject.view;
+
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import javafx.event.Event;
+import javafx.geometry.Point2D;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link Minimap} class.
+ * <p>
+ * The full rebuilds run on executors controlled by the tests, either synchronously or queued, so the
+ * bitmap can be checked without a background thread or a running toolkit.
+ * </p>
+ */
+class MinimapTest {
+
+    private static final int RED = 0xFFFF0000;
+    private static final int BLUE = 0xFF0000FF;
+
+    private AnchorPane canvas;
+    private RectangleShape first;
+    private RectangleShape second;
+    private CanvasViewport viewport;
+    private Minimap minimap;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+        first = new RectangleShape(Color.RED, Color.RED, 0, 0, 100, 100);
+        second = new RectangleShape(Color.BLUE, Color.BLUE, 900, 600, 100, 100);
+        canvas.getChildren().addAll(first, second);
+        viewport = new CanvasViewport(canvas);
+        viewport.resize(400, 300);
+        viewport.layout();
+        minimap = new Minimap(viewport, Runnable::run, Runnable::run);
+        minimap.resize(200, 150);
+        minimap.layout();
+    }
+
+    /**
+     * Tests that the whole drawing is rasterized, with each shape at its place.
+     */
+    @Test
+    void testRendersWholeDrawing() {
+        assertEquals(1, minimap.getFullRenderCount());
+        double[] area = minimap.getArea();
+        assertTrue(area[0] < 0 && area[1] < 0 && area[2] > 1000 && area[3] > 700);
+
+        assertEquals(RED, pixelAt(50, 50));
+        assertEquals(BLUE, pixelAt(950, 650));
+        assertEquals(MinimapRenderer.BACKGROUND, pixelAt(500, 350));
+    }
+
+    /**
+     * Tests that moving a shape within the drawing only redraws the regions it left and entered.
+     */
+    @Test
+    void testRedrawsOnlyDirtyRegions() {
+        first.moveBy(400, 0);
+        minimap.layout();
+
+        assertEquals(1, minimap.getFullRenderCount());
+        assertTrue(minimap.getPartialRenderCount() > 0);
+        assertEquals(MinimapRenderer.BACKGROUND, pixelAt(50, 50));
+        assertEquals(RED, pixelAt(450, 50));
+        assertEquals(BLUE, pixelAt(950, 650));
+
+        canvas.getChildren().remove(second);
+        minimap.layout();
+        assertEquals(MinimapRenderer.BACKGROUND, pixelAt(950, 650));
+        assertEquals(1, minimap.getFullRenderCount());
+    }
+
+    /**
+     * Tests that the bitmap is rebuilt when the drawing outgrows it, and that culled shapes are shown.
+     */
+    @Test
+    void testRebuildsWhenDrawingGrows() {
+        RectangleShape far = new RectangleShape(Color.RED, Color.RED, 5000, 3000, 100, 100);
+        canvas.getChildren().add(far);
+        viewport.layout();
+        assertTrue(viewport.isCulled(far));
+        minimap.layout();
+
+        assertEquals(2, minimap.getFullRenderCount());
+        assertTrue(minimap.getArea()[2] > 5100);
+        assertEquals(RED, pixelAt(5050, 3050));
+    }
+
+    /**
+     * Tests that the regions changed while a rebuild is in progress are redrawn once it is installed.
+     */
+    @Test
+    void testRedrawsRegionsChangedDuringRebuild() {
+        Queue<Runnable> background = new ArrayDeque<>();
+        minimap = new Minimap(viewport, background::add, Runnable::run);
+        minimap.resize(200, 150);
+        minimap.layout();
+        assertEquals(0, minimap.getFullRenderCount());
+
+        second.moveBy(-400, 0);
+        minimap.layout();
+        background.remove().run();
+        minimap.layout();
+
+        assertEquals(1, minimap.getFullRenderCount());
+        assertEquals(MinimapRenderer.BACKGROUND, pixelAt(950, 650));
+        assertEquals(BLUE, pixelAt(550, 650));
+    }
+
+    /**
+     * Tests that clicking the minimap centers the camera of the viewport on the clicked point, and
+     * that the viewport rectangle follows the camera.
+     */
+    @Test
+    void testClickCentersViewport() {
+        Point2D target = minimap.toCanvas(150, 100);
+        Event.fireEvent(minimap, new MouseEvent(MouseEvent.MOUSE_PRESSED, 150, 100, 150, 100, MouseButton.PRIMARY,
+                1, false, false, false, false, true, false, false, false, false, false, null));
+
+        assertEquals(target.getX(), viewport.getFrustum().getCenterX(), 1e-9);
+        assertEquals(target.getY(), viewport.getFrustum().getCenterY(), 1e-9);
+
+        minimap.layout();
+        double width = viewport.getFrustum().getWidth() * 200 / (minimap.getArea()[2] - minimap.getArea()[0]);
+        assertEquals(Math.max(1, Math.round(width)), minimap.getViewportRectangle().getWidth(), 1e-9);
+        assertEquals(150, minimap.getViewportRectangle().getX() + minimap.getViewportRectangle().getWidth() / 2, 1.5);
+    }
+
+    /**
+     * Returns the pixel of the minimap showing a canvas point.
+     */
+    private int pixelAt(double x, double y) {
+        double[] area = minimap.getArea();
+        double scale = 200 / (area[2] - area[0]);
+        return minimap.getPixel((int) ((x - area[0]) * scale), (int) ((y - area[1]) * scale));
+    }
+}
@@ -0,0 +1,95 @@
+package group2128.sadproject.sadproject.view;
+
+import group2128.sadproject.sadproject.factory.RectangleShape;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.MoveTo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SelectionOverlay} class.
+ * <p>
+ * The canvas and the overlay share a plain {@link Pane} as root, so coordinates can be
+ * mapped between them without a scene; layout passes are triggered explicitly.
+ * </p>
+ */
+class SelectionOverlayTest {
+
+    private AnchorPane canvas;
+    private SelectionOverlay overlay;
+    private RectangleShape rectangle;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new AnchorPane();
+        overlay = new SelectionOverlay(canvas);
+        Pane root = new Pane(canvas, overlay);
+        rectangle = new RectangleShape(Color.WHITE, Color.BLACK, 10.0, 20.0, 100.0, 50.0);
+        canvas.getChildren().add(rectangle);
+        root.layout();
+    }
+
+    /**
+     * Tests that showing a shape adds one outline and four handles, and hiding it removes them.
+     */
+    @Test
+    void testShowAndHide() {
+        overlay.show(rectangle);
+        overlay.show(rectangle);
+        assertTrue(overlay.isShown(rectangle));
+        assertEquals(5, overlay.getOutlines().getElements().size());
+        assertEquals(20, overlay.getHandles().getElements().size());
+
+        overlay.hide(rectangle);
+        assertFalse(overlay.isShown(rectangle));
+        assertTrue(overlay.getOutlines().getElements().isEmpty());
+        assertTrue(overlay.getHandles().getElements().isEmpty());
+    }
+
+    /**
+     * Tests that the outline starts at the top-left corner of the shape and follows it when it moves.
+     */
+    @Test
+    void testOutlineFollowsShape() {
+        overlay.show(rectangle);
+        overlay.layout();
+        MoveTo start = (MoveTo) overlay.getOutlines().getElements().get(0);
+        double minX = rectangle.getLayoutBounds().getMinX();
+        double minY = rectangle.getLayoutBounds().getMinY();
+        assertEquals(minX, start.getX(), 1e-9);
+        assertEquals(minY, start.getY(), 1e-9);
+
+        rectangle.setAnchorX(60.0);
+        overlay.layout();
+        assertEquals(minX + 50.0, start.getX(), 1e-9);
+    }
+
+    /**
+     * Tests that the outline is expressed in overlay coordinates when the canvas is scaled.
+     */
+    @Test
+    void testOutlineFollowsCanvasScale() {
+        overlay.show(rectangle);
+        canvas.setScaleX(2.0);
+        canvas.setScaleY(2.0);
+        overlay.layout();
+        MoveTo start = (MoveTo) overlay.getOutlines().getElements().get(0);
+        double expectedX = canvas.localToParent(rectangle.getLayoutBounds().getMinX(), 0).getX();
+        assertEquals(expectedX, start.getX(), 1e-9);
+    }
+
+    /**
+     * Tests that a shape removed from the canvas is no longer highlighted.
+     */
+    @Test
+    void testRemovedShapeIsHidden() {
+        overlay.show(rectangle);
+        canvas.getChildren().remove(rectangle);
+        assertFalse(overlay.isShown(rectangle));
+        assertTrue(overlay.getOutlines().getElements().isEmpty());
+    }
+}